@@ -0,0 +1,206 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.api.binding.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Provides read-only access to a file as a sequence of memory-mapped regions. Regions are mapped lazily as the iterator advances, which allows files larger
+ * than a single {@link MappedByteBuffer} to be processed without copying data onto the heap.
+ *
+ * The binding closes the regions after the service invocation returns and before the file is archived or deleted. Closing releases the file channel; mapped
+ * regions remain readable and are unmapped when they are garbage collected. Some platforms, such as Windows, do not permit a mapped file to be archived or
+ * deleted. Bindings can be configured to force regions to be unmapped on close, in which case components must not retain a region after the invocation
+ * returns.
+ */
+public class MappedRegions implements Iterable<MappedByteBuffer>, Closeable {
+    private FileChannel channel;
+    private long size;
+    private long regionSize;
+    private boolean forceUnmap;
+    private List<MappedByteBuffer> mapped = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param channel    the channel of the file to map
+     * @param size       the number of bytes to map
+     * @param regionSize the maximum size of a region in bytes
+     */
+    public MappedRegions(FileChannel channel, long size, long regionSize) {
+        this(channel, size, regionSize, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param channel    the channel of the file to map
+     * @param size       the number of bytes to map
+     * @param regionSize the maximum size of a region in bytes
+     * @param forceUnmap true if regions are unmapped when closed instead of when they are garbage collected
+     */
+    public MappedRegions(FileChannel channel, long size, long regionSize, boolean forceUnmap) {
+        if (regionSize <= 0 || regionSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid region size: " + regionSize);
+        }
+        this.channel = channel;
+        this.size = size;
+        this.regionSize = regionSize;
+        this.forceUnmap = forceUnmap;
+    }
+
+    /**
+     * Returns the total number of bytes covered by the regions.
+     *
+     * @return the number of bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of regions.
+     *
+     * @return the number of regions
+     */
+    public int getRegionCount() {
+        return (int) ((size + regionSize - 1) / regionSize);
+    }
+
+    /**
+     * Maps a region.
+     *
+     * @param index the region index
+     * @return the mapped region
+     * @throws IOException if the region cannot be mapped
+     */
+    public MappedByteBuffer map(int index) throws IOException {
+        long position = index * regionSize;
+        if (index < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Invalid region: " + index);
+        }
+        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(regionSize, size - position));
+        if (forceUnmap) {
+            mapped.add(region);
+        }
+        return region;
+    }
+
+    /**
+     * Returns an iterator that maps each region as it is returned.
+     *
+     * @return the iterator
+     * @throws UncheckedIOException if a region cannot be mapped
+     */
+    public Iterator<MappedByteBuffer> iterator() {
+        return new Iterator<MappedByteBuffer>() {
+            private int index;
+
+            public boolean hasNext() {
+                return index < getRegionCount();
+            }
+
+            public MappedByteBuffer next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return map(index++);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Closes the channel. If configured to force unmapping, the regions are unmapped as well.
+     *
+     * @throws IOException if there is an error closing the channel
+     */
+    public void close() throws IOException {
+        try {
+            for (MappedByteBuffer region : mapped) {
+                Unmapper.UNMAPPER.accept(region);
+            }
+            mapped.clear();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Holds the function that releases a mapping without waiting for the buffer to be garbage collected. The function is only resolved when regions are first
+     * forcibly unmapped. Accessing a buffer after it has been released may crash the runtime, so this is only used when configured for the binding.
+     */
+    private static class Unmapper {
+        private static final Consumer<ByteBuffer> UNMAPPER = createUnmapper();
+    }
+
+    /**
+     * Returns a function that releases a mapping. The JDK does not provide a public API for this, so the cleaner is invoked reflectively. If it is not
+     * accessible, mappings are released when buffers are collected.
+     *
+     * @return the function
+     */
+    private static Consumer<ByteBuffer> createUnmapper() {
+        try {
+            // JDK 9 and later
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            return buffer -> invoke(invokeCleaner, unsafe, buffer);
+        } catch (NoSuchMethodException e) {
+            // JDK 8
+            try {
+                Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+                return buffer -> invoke(clean, invoke(cleaner, buffer));
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                return buffer -> {
+                };
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return buffer -> {
+            };
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return target == null ? null : method.invoke(target, args);
+        } catch (ReflectiveOperationException e) {
+            // the mapping is released when the buffer is collected
+            return null;
+        }
+    }
+
+}
@@ -92,6 +92,36 @@ public @interface FileBinding {
      */
     long delay() default -1;
 
+    /**
+     * Specifies the number of threads that process received files concurrently.
+     *
+     * @return the number of threads
+     */
+    int workers() default 1;
+
+    /**
+     * Specifies if files are transferred using memory-mapped buffers and channel transfers instead of streams.
+     *
+     * @return true if zero-copy transfer is enabled
+     */
+    boolean zeroCopy() default false;
+
+    /**
+     * Specifies the maximum size in bytes of a memory-mapped region passed to a service.
+     *
+     * @return the maximum region size
+     */
+    long regionSize() default 64 * 1024 * 1024;
+
+    /**
+     * Specifies if memory-mapped buffers are released when the service invocation returns instead of when they are garbage collected. This allows received
+     * files to be archived or deleted on platforms such as Windows that do not permit moving or deleting a mapped file. Components must not retain mapped
+     * buffers after the invocation returns if this is enabled.
+     *
+     * @return true if mapped buffers are released when the invocation returns
+     */
+    boolean forceUnmap() default false;
+
     /**
      * Specifies the binding name.
      *
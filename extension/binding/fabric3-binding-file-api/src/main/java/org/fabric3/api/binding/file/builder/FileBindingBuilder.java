@@ -80,6 +80,42 @@ public class FileBindingBuilder extends AbstractBuilder {
         return this;
     }
 
+    public FileBindingBuilder workers(int workers) {
+        checkState();
+        binding.setWorkers(workers);
+        return this;
+    }
+
+    public FileBindingBuilder settle(long settle) {
+        checkState();
+        binding.setSettle(settle);
+        return this;
+    }
+
+    public FileBindingBuilder watch(boolean watch) {
+        checkState();
+        binding.setWatch(watch);
+        return this;
+    }
+
+    public FileBindingBuilder zeroCopy(boolean zeroCopy) {
+        checkState();
+        binding.setZeroCopy(zeroCopy);
+        return this;
+    }
+
+    public FileBindingBuilder regionSize(long regionSize) {
+        checkState();
+        binding.setRegionSize(regionSize);
+        return this;
+    }
+
+    public FileBindingBuilder forceUnmap(boolean forceUnmap) {
+        checkState();
+        binding.setForceUnmap(forceUnmap);
+        return this;
+    }
+
     public FileBinding build() {
         checkState();
         freeze();
@@ -24,6 +24,7 @@ import org.fabric3.api.model.type.component.Binding;
  */
 public class FileBinding extends Binding {
     private static final String BINDING_FILE = "file";
+    public static final long DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
 
     private String pattern;
     private String location;
@@ -33,6 +34,12 @@ public class FileBinding extends Binding {
     private String adapterClass;
     private String adapterUri;
     private long delay;
+    private int workers = 1;
+    private long settle = -1;
+    private boolean watch = true;
+    private boolean zeroCopy;
+    private long regionSize = DEFAULT_REGION_SIZE;
+    private boolean forceUnmap;
 
     /**
      * Constructor.
@@ -166,6 +173,62 @@ public class FileBinding extends Binding {
         return delay;
     }
 
+    /**
+     * Returns the number of threads that process received files concurrently.
+     *
+     * @return the number of threads that process received files
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Returns the time in milliseconds the size and modification time of a file must remain unchanged before it is considered complete, or -1 if the
+     * runtime default should be used.
+     *
+     * @return the settle time in milliseconds or -1
+     */
+    public long getSettle() {
+        return settle;
+    }
+
+    /**
+     * Returns true if the receive directory is monitored for file system events in addition to being scanned periodically.
+     *
+     * @return true if the receive directory is monitored for file system events
+     */
+    public boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * Returns true if files are transferred without copying them through Java streams. Services receive memory-mapped buffers and references transfer
+     * files or channels directly to the target directory.
+     *
+     * @return true if zero-copy transfer is enabled
+     */
+    public boolean isZeroCopy() {
+        return zeroCopy;
+    }
+
+    /**
+     * Returns the maximum size in bytes of a memory-mapped region passed to a service.
+     *
+     * @return the maximum region size
+     */
+    public long getRegionSize() {
+        return regionSize;
+    }
+
+    /**
+     * Returns true if memory-mapped buffers are released when the service invocation returns instead of when they are garbage collected.
+     *
+     * @return true if mapped buffers are released when the invocation returns
+     */
+    public boolean isForceUnmap() {
+        return forceUnmap;
+    }
+
     public void setPattern(String pattern) {
         this.pattern = pattern;
     }
@@ -197,4 +260,28 @@ public class FileBinding extends Binding {
     public void setDelay(long delay) {
         this.delay = delay;
     }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public void setSettle(long settle) {
+        this.settle = settle;
+    }
+
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    public void setZeroCopy(boolean zeroCopy) {
+        this.zeroCopy = zeroCopy;
+    }
+
+    public void setRegionSize(long regionSize) {
+        this.regionSize = regionSize;
+    }
+
+    public void setForceUnmap(boolean forceUnmap) {
+        this.forceUnmap = forceUnmap;
+    }
 }
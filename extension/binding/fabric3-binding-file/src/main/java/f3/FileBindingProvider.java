@@ -26,7 +26,9 @@ public class FileBindingProvider {
         compositeBuilder.component(SystemComponentBuilder.newBuilder(FileBindingLoader.class).build());
         compositeBuilder.component(SystemComponentBuilder.newBuilder(FileBindingPostProcessor.class).build());
         compositeBuilder.component(SystemComponentBuilder.newBuilder(FileWireBindingGenerator.class).build());
-        compositeBuilder.component(SystemComponentBuilder.newBuilder(ReceiverManagerImpl.class).build());
+        SystemComponentBuilder receiverManagerBuilder = SystemComponentBuilder.newBuilder(ReceiverManagerImpl.class);
+        receiverManagerBuilder.reference("executorService", "RuntimeThreadPoolExecutor");
+        compositeBuilder.component(receiverManagerBuilder.build());
         compositeBuilder.component(SystemComponentBuilder.newBuilder(FileSourceWireAttacher.class).build());
         compositeBuilder.component(SystemComponentBuilder.newBuilder(FileTargetWireAttacher.class).build());
         return compositeBuilder.build();
@@ -19,12 +19,18 @@
 package org.fabric3.binding.file.generator;
 
 import javax.activation.DataHandler;
+import java.io.File;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.util.List;
 
 import org.fabric3.api.annotation.wire.Key;
+import org.fabric3.api.binding.file.MappedRegions;
 import org.fabric3.api.binding.file.annotation.Strategy;
 import org.fabric3.api.binding.file.model.FileBinding;
 import org.fabric3.api.host.Fabric3Exception;
@@ -53,12 +59,18 @@ public class FileWireBindingGenerator implements WireBindingGenerator<FileBindin
     private HostInfo info;
 
     private long defaultDelay = 2000;
+    private long defaultSettle = 250;
 
     @Property(required = false)
     public void setDelay(long delay) {
         this.defaultDelay = delay;
     }
 
+    @Property(required = false)
+    public void setSettle(long settle) {
+        this.defaultSettle = settle;
+    }
+
     public FileWireBindingGenerator(@Reference HostInfo info) {
         this.info = info;
     }
@@ -86,16 +98,45 @@ public class FileWireBindingGenerator implements WireBindingGenerator<FileBindin
         if (delay == -1) {
             delay = defaultDelay;
         }
-        return new FileBindingWireSource(uri, pattern, location, strategy, archiveLocation, errorLocation, adapterClass, adaptorUri, delay, dataHandler);
+        long settle = definition.getSettle();
+        if (settle == -1) {
+            settle = defaultSettle;
+        }
+        FileBindingWireSource source = new FileBindingWireSource(uri,
+                                                                 pattern,
+                                                                 location,
+                                                                 strategy,
+                                                                 archiveLocation,
+                                                                 errorLocation,
+                                                                 adapterClass,
+                                                                 adaptorUri,
+                                                                 delay,
+                                                                 dataHandler);
+        source.setWorkers(definition.getWorkers());
+        source.setSettle(settle);
+        source.setWatch(definition.isWatch());
+        if (definition.isZeroCopy()) {
+            source.setMapped(isMappedRegions(contract), definition.getRegionSize(), definition.isForceUnmap());
+        }
+        return source;
     }
 
     public FileBindingWireTarget generateTarget(LogicalBinding<FileBinding> binding, ServiceContract contract, List<LogicalOperation> operations) {
-        validateReferenceContract(contract);
         FileBinding definition = binding.getDefinition();
+        if (definition.isZeroCopy()) {
+            validateTransferContract(contract);
+            if (definition.getAdapterClass() != null || definition.getAdapterUri() != null) {
+                throw new Fabric3Exception("Adapters cannot be used with zero-copy file binding references: " + binding.getParent().getUri());
+            }
+        } else {
+            validateReferenceContract(contract);
+        }
         String location = definition.getLocation();
         String adapterClass = definition.getAdapterClass();
         URI adaptorUri = getAdaptorUri(definition);
-        return new FileBindingWireTarget(location, adapterClass, adaptorUri);
+        FileBindingWireTarget target = new FileBindingWireTarget(location, adapterClass, adaptorUri);
+        target.setZeroCopy(definition.isZeroCopy());
+        return target;
     }
 
     /**
@@ -131,6 +172,54 @@ public class FileWireBindingGenerator implements WireBindingGenerator<FileBindin
         }
     }
 
+    /**
+     * Validates a service contract for a zero-copy bound reference. The service contract must contain exactly one operation of the form:
+     * <pre>
+     * void send(String id, File | Path | ReadableByteChannel data);
+     * </pre>
+     *
+     * @param contract the service contract to validate
+     * @throws Fabric3Exception if the contract is invalid
+     */
+    private void validateTransferContract(ServiceContract contract) throws Fabric3Exception {
+        if (contract.getOperations().size() != 1) {
+            throw new Fabric3Exception("Zero-copy file transfer binding contracts must contain one operation of the form send(String id, File data)");
+        }
+        Operation operation = contract.getOperations().get(0);
+        List<DataType> inputTypes = operation.getInputTypes();
+        if (inputTypes.size() != 2) {
+            throw new Fabric3Exception("Zero-copy file transfer binding operations must take an id and the data to transfer: " + operation.getName());
+        }
+        if (!String.class.isAssignableFrom(inputTypes.get(0).getType())) {
+            throw new Fabric3Exception("First parameter type on binding contract must be a string: " + inputTypes.get(0));
+        }
+        Class<?> type = inputTypes.get(1).getType();
+        if (!File.class.isAssignableFrom(type) && !Path.class.isAssignableFrom(type) && !ReadableByteChannel.class.isAssignableFrom(type)) {
+            throw new Fabric3Exception("Second parameter type on binding contract must be a File, Path or ReadableByteChannel: " + inputTypes.get(1));
+        }
+    }
+
+    /**
+     * Determines if a zero-copy bound service takes {@link MappedRegions} or a single {@link MappedByteBuffer}.
+     *
+     * @param contract the contract
+     * @return true if the service takes mapped regions
+     * @throws Fabric3Exception if the service does not take a mapped type
+     */
+    private boolean isMappedRegions(ServiceContract contract) throws Fabric3Exception {
+        Operation operation = contract.getOperations().get(0);
+        if (operation.getInputTypes().size() != 1) {
+            throw new Fabric3Exception("Zero-copy file binding operations must take one parameter: " + operation.getName());
+        }
+        Class<?> type = operation.getInputTypes().get(0).getType();
+        if (MappedRegions.class.equals(type)) {
+            return true;
+        } else if (ByteBuffer.class.isAssignableFrom(type)) {
+            return false;
+        }
+        throw new Fabric3Exception("Zero-copy file binding operations must take a MappedByteBuffer or MappedRegions: " + operation.getName());
+    }
+
     /**
      * Validates a contract for a bound service. The service contract must contain exactly one operation.
      *
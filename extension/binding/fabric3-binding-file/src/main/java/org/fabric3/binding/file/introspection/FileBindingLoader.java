@@ -49,7 +49,13 @@ public class FileBindingLoader extends AbstractValidatingTypeLoader<FileBinding>
                       "adapter",
                       "adapter.component",
                       "policySets",
-                      "delay");
+                      "delay",
+                      "workers",
+                      "settle",
+                      "watch",
+                      "zero.copy",
+                      "region.size",
+                      "force.unmap");
     }
 
     public FileBinding load(XMLStreamReader reader, IntrospectionContext context) throws XMLStreamException {
@@ -80,6 +86,12 @@ public class FileBindingLoader extends AbstractValidatingTypeLoader<FileBinding>
 
         long delay = parseDelay(reader, context);
         FileBinding binding = new FileBinding(bindingName, pattern, location, strategy, archiveLocation, errorLocation, adapterClass, adapterUri, delay);
+        binding.setWorkers(parseWorkers(reader, context));
+        binding.setSettle(parseSettle(reader, context));
+        binding.setWatch(!"false".equalsIgnoreCase(reader.getAttributeValue(null, "watch")));
+        binding.setZeroCopy(Boolean.parseBoolean(reader.getAttributeValue(null, "zero.copy")));
+        binding.setRegionSize(parseRegionSize(reader, context));
+        binding.setForceUnmap(Boolean.parseBoolean(reader.getAttributeValue(null, "force.unmap")));
 
         validateAttributes(reader, context, binding);
 
@@ -111,4 +123,57 @@ public class FileBindingLoader extends AbstractValidatingTypeLoader<FileBinding>
         return delay;
     }
 
+    private int parseWorkers(XMLStreamReader reader, IntrospectionContext context) {
+        int workers = 1;
+        String workersStr = reader.getAttributeValue(null, "workers");
+        if (workersStr != null) {
+            try {
+                workers = Integer.parseInt(workersStr);
+                if (workers < 1) {
+                    InvalidValue error = new InvalidValue("Workers must be greater than zero: " + workersStr, reader.getLocation());
+                    context.addError(error);
+                }
+            } catch (NumberFormatException e) {
+                Location location = reader.getLocation();
+                InvalidValue error = new InvalidValue("Invalid workers value", location, e);
+                context.addError(error);
+            }
+        }
+        return workers;
+    }
+
+    private long parseSettle(XMLStreamReader reader, IntrospectionContext context) {
+        long settle = -1;
+        String settleStr = reader.getAttributeValue(null, "settle");
+        if (settleStr != null) {
+            try {
+                settle = Long.parseLong(settleStr);
+            } catch (NumberFormatException e) {
+                Location location = reader.getLocation();
+                InvalidValue error = new InvalidValue("Invalid settle value", location, e);
+                context.addError(error);
+            }
+        }
+        return settle;
+    }
+
+    private long parseRegionSize(XMLStreamReader reader, IntrospectionContext context) {
+        long regionSize = FileBinding.DEFAULT_REGION_SIZE;
+        String regionSizeStr = reader.getAttributeValue(null, "region.size");
+        if (regionSizeStr != null) {
+            try {
+                regionSize = Long.parseLong(regionSizeStr);
+                if (regionSize < 1 || regionSize > Integer.MAX_VALUE) {
+                    InvalidValue error = new InvalidValue("Region size must be between 1 and " + Integer.MAX_VALUE + ": " + regionSizeStr, reader.getLocation());
+                    context.addError(error);
+                }
+            } catch (NumberFormatException e) {
+                Location location = reader.getLocation();
+                InvalidValue error = new InvalidValue("Invalid region size value", location, e);
+                context.addError(error);
+            }
+        }
+        return regionSize;
+    }
+
 }
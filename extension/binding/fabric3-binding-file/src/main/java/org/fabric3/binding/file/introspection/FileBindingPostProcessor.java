@@ -96,7 +96,22 @@ public class FileBindingPostProcessor extends AbstractBindingPostProcessor<org.f
             InvalidAnnotation error = new InvalidAnnotation("Invalid delay value specified on file binding", implClass, annotation, implClass);
             context.addError(error);
         }
-        return new FileBinding(name, pattern, location, strategy, archiveLocation, errorLocation, null, adapterUri, delay);
+        int workers = annotation.workers();
+        if (workers < 1) {
+            InvalidAnnotation error = new InvalidAnnotation("Invalid workers value specified on file binding", implClass, annotation, implClass);
+            context.addError(error);
+        }
+        FileBinding binding = new FileBinding(name, pattern, location, strategy, archiveLocation, errorLocation, null, adapterUri, delay);
+        binding.setWorkers(workers);
+        long regionSize = annotation.regionSize();
+        if (regionSize < 1 || regionSize > Integer.MAX_VALUE) {
+            InvalidAnnotation error = new InvalidAnnotation("Invalid region size specified on file binding", implClass, annotation, implClass);
+            context.addError(error);
+        }
+        binding.setZeroCopy(annotation.zeroCopy());
+        binding.setRegionSize(regionSize);
+        binding.setForceUnmap(annotation.forceUnmap());
+        return binding;
 
     }
 
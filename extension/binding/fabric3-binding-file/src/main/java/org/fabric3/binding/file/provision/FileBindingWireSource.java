@@ -37,6 +37,13 @@ public class FileBindingWireSource extends PhysicalWireSource {
     private String pattern;
     private long delay;
     private boolean dataHandler;
+    private int workers = 1;
+    private long settle;
+    private boolean watch = true;
+    private boolean mapped;
+    private boolean regions;
+    private long regionSize;
+    private boolean forceUnmap;
 
     public FileBindingWireSource(URI uri,
                                  String pattern,
@@ -140,4 +147,93 @@ public class FileBindingWireSource extends PhysicalWireSource {
     public boolean isDataHandler() {
         return dataHandler;
     }
+
+    /**
+     * Returns the number of threads that process received files concurrently.
+     *
+     * @return the number of threads that process received files
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    /**
+     * Returns the time in milliseconds the size and modification time of a file must remain unchanged before it is processed.
+     *
+     * @return the settle time in milliseconds
+     */
+    public long getSettle() {
+        return settle;
+    }
+
+    public void setSettle(long settle) {
+        this.settle = settle;
+    }
+
+    /**
+     * Returns true if the receive directory is monitored for file system events in addition to being scanned periodically.
+     *
+     * @return true if the receive directory is monitored for file system events
+     */
+    public boolean isWatch() {
+        return watch;
+    }
+
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    /**
+     * Returns true if the service receives a memory-mapped view of detected files.
+     *
+     * @return true if the service receives a memory-mapped view of detected files
+     */
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    /**
+     * Returns true if the service receives mapped regions instead of a single mapped buffer.
+     *
+     * @return true if the service receives mapped regions
+     */
+    public boolean isRegions() {
+        return regions;
+    }
+
+    /**
+     * Returns the maximum size in bytes of a mapped region.
+     *
+     * @return the maximum size of a mapped region
+     */
+    public long getRegionSize() {
+        return regionSize;
+    }
+
+    /**
+     * Returns true if mapped buffers are released when the service invocation returns.
+     *
+     * @return true if mapped buffers are released when the service invocation returns
+     */
+    public boolean isForceUnmap() {
+        return forceUnmap;
+    }
+
+    /**
+     * Configures the service to receive a memory-mapped view of detected files.
+     *
+     * @param regions    true if the service receives mapped regions instead of a single mapped buffer
+     * @param regionSize the maximum size in bytes of a mapped region
+     * @param forceUnmap true if mapped buffers are released when the service invocation returns
+     */
+    public void setMapped(boolean regions, long regionSize, boolean forceUnmap) {
+        this.mapped = true;
+        this.regions = regions;
+        this.regionSize = regionSize;
+        this.forceUnmap = forceUnmap;
+    }
 }
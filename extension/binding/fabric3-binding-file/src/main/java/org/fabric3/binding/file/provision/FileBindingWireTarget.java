@@ -29,6 +29,7 @@ public class FileBindingWireTarget extends PhysicalWireTarget {
     private String location;
     private String adapterClass;
     private URI adapterUri;
+    private boolean zeroCopy;
 
     public FileBindingWireTarget(String location, String adapterClass, URI adapterUri) {
         this.location = location;
@@ -65,4 +66,17 @@ public class FileBindingWireTarget extends PhysicalWireTarget {
         return adapterUri;
     }
 
+    /**
+     * Returns true if files or channels passed by the reference are transferred directly to the target location.
+     *
+     * @return true if zero-copy transfer is enabled
+     */
+    public boolean isZeroCopy() {
+        return zeroCopy;
+    }
+
+    public void setZeroCopy(boolean zeroCopy) {
+        this.zeroCopy = zeroCopy;
+    }
+
 }
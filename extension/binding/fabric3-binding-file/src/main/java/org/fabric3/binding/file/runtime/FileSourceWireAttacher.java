@@ -96,6 +96,9 @@ public class FileSourceWireAttacher implements SourceWireAttacher<FileBindingWir
                                                                         interceptor,
                                                                         adapter,
                                                                         delay,
+                                                                        source.getSettle(),
+                                                                        source.getWorkers(),
+                                                                        source.isWatch(),
                                                                         monitor);
         receiverManager.create(configuration);
     }
@@ -154,6 +157,9 @@ public class FileSourceWireAttacher implements SourceWireAttacher<FileBindingWir
         if (adapterClass == null) {
             URI adapterUri = source.getAdapterUri();
             if (adapterUri == null) {
+                if (source.isMapped()) {
+                    return new MappedServiceAdapter(source.getRegionSize(), source.isRegions(), source.isForceUnmap());
+                }
                 return source.isDataHandler() ? JAF_ADAPTER : ADAPTER;
             }
             Component component = manager.getComponent(adapterUri);
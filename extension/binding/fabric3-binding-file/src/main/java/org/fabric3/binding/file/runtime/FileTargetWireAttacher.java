@@ -26,11 +26,13 @@ import org.fabric3.api.binding.file.ReferenceAdapter;
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.host.runtime.HostInfo;
 import org.fabric3.binding.file.provision.FileBindingWireTarget;
+import org.fabric3.binding.file.runtime.sender.ChannelTransferInterceptor;
 import org.fabric3.binding.file.runtime.sender.FileSystemInterceptor;
 import org.fabric3.spi.container.builder.TargetWireAttacher;
 import org.fabric3.spi.container.component.AtomicComponent;
 import org.fabric3.spi.container.component.Component;
 import org.fabric3.spi.container.component.ComponentManager;
+import org.fabric3.spi.container.wire.Interceptor;
 import org.fabric3.spi.container.wire.InvocationChain;
 import org.fabric3.spi.container.wire.Wire;
 import org.fabric3.spi.model.physical.PhysicalWireSource;
@@ -59,8 +61,13 @@ public class FileTargetWireAttacher implements TargetWireAttacher<FileBindingWir
         File location = resolve(target.getLocation());
         location.mkdirs();
 
-        ReferenceAdapter adapter = getAdaptor(target);
-        FileSystemInterceptor interceptor = new FileSystemInterceptor(location, adapter);
+        Interceptor interceptor;
+        if (target.isZeroCopy()) {
+            interceptor = new ChannelTransferInterceptor(location);
+        } else {
+            ReferenceAdapter adapter = getAdaptor(target);
+            interceptor = new FileSystemInterceptor(location, adapter);
+        }
         for (InvocationChain chain : wire.getInvocationChains()) {
             chain.addInterceptor(interceptor);
         }
@@ -0,0 +1,107 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.file.runtime;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.fabric3.api.binding.file.InvalidDataException;
+import org.fabric3.api.binding.file.MappedRegions;
+import org.fabric3.api.binding.file.ServiceAdapter;
+import org.fabric3.api.host.util.IOHelper;
+
+/**
+ * A {@link ServiceAdapter} implementation that passes a read-only memory-mapped view of the file to the target service. The file is either mapped into a
+ * single {@link MappedByteBuffer} or, for files that may exceed the size of a single buffer, provided as {@link MappedRegions}.
+ *
+ * The file channel is closed when the invocation returns, before the file is archived or deleted. See {@link MappedRegions} for when the mapping itself is
+ * released.
+ */
+public class MappedServiceAdapter extends AbstractFileServiceAdapter {
+    private long regionSize;
+    private boolean regions;
+    private boolean forceUnmap;
+
+    // the mapping backing each single buffer passed to a service, keyed by identity as buffer equality is based on content
+    private Map<MappedByteBuffer, MappedRegions> mappings = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * Constructor.
+     *
+     * @param regionSize the maximum size of a mapped region in bytes
+     * @param regions    true if the service takes {@link MappedRegions}, false if it takes a single {@link MappedByteBuffer}
+     * @param forceUnmap true if mappings are released when the invocation returns instead of when the buffers are garbage collected
+     */
+    public MappedServiceAdapter(long regionSize, boolean regions, boolean forceUnmap) {
+        this.regionSize = regionSize;
+        this.regions = regions;
+        this.forceUnmap = forceUnmap;
+    }
+
+    public Object[] beforeInvoke(File file) throws InvalidDataException {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            long size = channel.size();
+            if (regions) {
+                return new Object[]{new MappedRegions(channel, size, regionSize, forceUnmap)};
+            }
+            if (size > Integer.MAX_VALUE) {
+                IOHelper.closeQuietly(channel);
+                throw new InvalidDataException("File is too large to map into a single buffer: " + file.getName());
+            }
+            if (size == 0) {
+                // nothing is mapped for an empty file
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, 0);
+                IOHelper.closeQuietly(channel);
+                return new Object[]{buffer};
+            }
+            MappedRegions mapping = new MappedRegions(channel, size, size, forceUnmap);
+            MappedByteBuffer buffer = mapping.map(0);
+            mappings.put(buffer, mapping);
+            return new Object[]{buffer};
+        } catch (InvalidDataException e) {
+            throw e;
+        } catch (IOException e) {
+            IOHelper.closeQuietly(channel);
+            throw new InvalidDataException(e);
+        }
+    }
+
+    public void afterInvoke(File file, Object[] payload) throws IOException {
+        if (payload.length != 1) {
+            throw new AssertionError("Invalid payload length: " + payload.length);
+        }
+        if (payload[0] instanceof MappedRegions) {
+            ((MappedRegions) payload[0]).close();
+        } else if (payload[0] instanceof MappedByteBuffer) {
+            MappedRegions mapping = mappings.remove(payload[0]);
+            if (mapping != null) {
+                mapping.close();
+            }
+        } else {
+            throw new AssertionError("Invalid payload type: " + payload[0]);
+        }
+    }
+
+}
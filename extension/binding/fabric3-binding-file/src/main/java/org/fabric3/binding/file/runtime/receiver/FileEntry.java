@@ -19,26 +19,76 @@
 package org.fabric3.binding.file.runtime.receiver;
 
 import java.io.File;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Implements the ability to set a modification checkpoint for detecting if a file has been changed.
+ * Tracks the size and modification time of a detected file to determine when it has finished being written. A file is stable once neither value has changed
+ * for the configured settle time.
  */
 public class FileEntry {
     private File file;
-    private long checkPoint = -1;
+    private long size;
+    private long lastModified;
+    private long changed;
 
-    public FileEntry(File file) {
+    private AtomicBoolean checkScheduled = new AtomicBoolean();
+
+    public FileEntry(File file, long now) {
         this.file = file;
+        this.size = file.length();
+        this.lastModified = file.lastModified();
+        this.changed = now;
+    }
+
+    public File getFile() {
+        return file;
     }
 
-    public boolean isChanged() {
-        long current = file.lastModified();
-        if (checkPoint == -1) {
-            checkPoint = current;
+    /**
+     * Returns true if the file size and modification time have not changed since the last observation and the last change is at least the settle time old.
+     * If a change is detected, the settle period restarts.
+     *
+     * @param now    the current time in milliseconds
+     * @param settle the settle time in milliseconds
+     * @return true if the file is stable
+     */
+    public synchronized boolean isStable(long now, long settle) {
+        long currentSize = file.length();
+        long currentModified = file.lastModified();
+        if (currentSize != size || currentModified != lastModified) {
+            size = currentSize;
+            lastModified = currentModified;
+            changed = now;
+            return false;
         }
-        boolean val = checkPoint != current;
-        checkPoint = current;
-        return val;
+        return now - changed >= settle;
+    }
+
+    /**
+     * Returns the remaining time in milliseconds before the file can become stable.
+     *
+     * @param now    the current time in milliseconds
+     * @param settle the settle time in milliseconds
+     * @return the remaining time
+     */
+    public synchronized long getRemaining(long now, long settle) {
+        return Math.max(0, settle - (now - changed));
+    }
+
+    /**
+     * Marks a stability check as scheduled.
+     *
+     * @return true if a check was not already scheduled
+     */
+    public boolean scheduleCheck() {
+        return checkScheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Clears the scheduled check marker.
+     */
+    public void checkCompleted() {
+        checkScheduled.set(false);
     }
 
 }
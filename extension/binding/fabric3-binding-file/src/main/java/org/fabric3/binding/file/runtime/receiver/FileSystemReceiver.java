@@ -24,11 +24,18 @@ import java.io.RandomAccessFile;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -43,11 +50,19 @@ import org.fabric3.spi.container.invocation.MessageCache;
 import org.fabric3.spi.container.invocation.WorkContext;
 import org.fabric3.spi.container.invocation.WorkContextCache;
 import org.fabric3.spi.container.wire.Interceptor;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
 
 /**
- * Periodically scans a directory for new files. When a new file is detected, the service bound to the directory is invoked with expected data types associated
- * with each file. After an invocation completes, the detected file is either archived or deleted according to the configured {@link Strategy} value. If an
- * error is encountered, the file will be moved to the configured error location.
+ * Receives files placed in a directory. When a new file is detected, the service bound to the directory is invoked with expected data types associated with
+ * each file. After an invocation completes, the detected file is either archived or deleted according to the configured {@link Strategy} value. If an error
+ * is encountered, the file will be moved to the configured error location.
+ *
+ * Files are detected using file system events if watching is enabled and the platform supports it. The directory is also scanned periodically, which picks up
+ * files present at startup and files whose events were lost. A detected file is processed once its size and modification time have not changed for the
+ * configured settle time. Stability is re-checked when the settle time elapses rather than on the next scan. Stable files are processed concurrently by a pool
+ * of worker threads.
  *
  * This receiver is non-transactional but supports clustered locking through the use of file locks placed in the &lt;location&gt;/locks directory.
  */
@@ -61,16 +76,31 @@ public class FileSystemReceiver implements Runnable {
     private Pattern filePattern;
 
     private long delay;
+    private long settle;
+    private int workers;
+    private boolean watch;
 
     private Interceptor interceptor;
     private ScheduledExecutorService executorService;
+    private ExecutorService workerService;
+    private WatchService watchService;
+    private ExecutorService runtimeExecutor;
+    private Future<?> watchFuture;
     private ServiceAdapter adapter;
     private ReceiverMonitor monitor;
 
     private Map<String, FileEntry> cache = new ConcurrentHashMap<>();
+    private Set<String> inFlight = ConcurrentHashMap.newKeySet();
     private ScheduledFuture<?> future;
 
-    public FileSystemReceiver(ReceiverConfiguration configuration) {
+    /**
+     * Constructor.
+     *
+     * @param configuration   the receiver configuration
+     * @param runtimeExecutor the runtime executor used to receive file system events
+     */
+    public FileSystemReceiver(ReceiverConfiguration configuration, ExecutorService runtimeExecutor) {
+        this.runtimeExecutor = runtimeExecutor;
         this.location = configuration.getLocation();
         this.strategy = configuration.getStrategy();
         this.errorDirectory = configuration.getErrorLocation();
@@ -81,42 +111,63 @@ public class FileSystemReceiver implements Runnable {
         this.lockDirectory = configuration.getLockDirectory();
         this.adapter = configuration.getAdapter();
         this.delay = configuration.getDelay();
+        this.settle = configuration.getSettle();
+        this.workers = Math.max(1, configuration.getWorkers());
+        this.watch = configuration.isWatch();
     }
 
     public void start() {
+        createDirectories();
+        workerService = Executors.newFixedThreadPool(workers);
         executorService = Executors.newSingleThreadScheduledExecutor();
         future = executorService.scheduleWithFixedDelay(this, delay, delay, TimeUnit.MILLISECONDS);
-        createDirectories();
+        if (watch) {
+            startWatching();
+        }
     }
 
     public void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+        if (watchFuture != null) {
+            watchFuture.cancel(true);
+        }
         if (future != null) {
             future.cancel(true);
         }
         if (executorService != null) {
             executorService.shutdownNow();
         }
+        if (workerService != null) {
+            workerService.shutdownNow();
+        }
     }
 
-    public synchronized void run() {
-        List<File> files = new ArrayList<>();
+    /**
+     * Scans the directory for files.
+     */
+    public void run() {
         if (!location.isDirectory()) {
             // there is no drop directory, return without processing
             return;
         }
-        File[] pathFiles = location.listFiles();
-        for (File file : pathFiles) {
-            // add non-ignorable files
-            if (!ignore(file)) {
-                files.add(file);
-            }
-        }
-        if (files.isEmpty()) {
-            // there are no files to process
-            return;
-        }
         try {
-            processFiles(files);
+            File[] pathFiles = location.listFiles();
+            if (pathFiles == null) {
+                return;
+            }
+            for (File file : pathFiles) {
+                if (!ignore(file)) {
+                    observe(file);
+                }
+            }
+            // remove entries for files that were deleted or processed elsewhere before they became stable
+            cache.values().removeIf(entry -> !entry.getFile().exists());
         } catch (RuntimeException e) {
             monitor.error(e);
         } catch (Error e) {
@@ -134,20 +185,163 @@ public class FileSystemReceiver implements Runnable {
         }
     }
 
-    private synchronized void processFiles(List<File> files) {
-        for (File file : files) {
-            String name = file.getName();
-            FileEntry cached = cache.get(name);
-            if (cached == null) {
-                // the file is new, cache it and wait for next run in case it is in the process of being updated
-                cached = new FileEntry(file);
-                cache.put(name, cached);
-            } else {
-                if (!cached.isChanged()) {
-                    // file has finished being updated, process it
-                    processFile(file);
+    /**
+     * Registers the directory with a watch service and receives events on a runtime thread. If the platform does not support file system events, the receiver
+     * relies on periodic scans.
+     */
+    private void startWatching() {
+        try {
+            Path path = location.toPath();
+            watchService = path.getFileSystem().newWatchService();
+            path.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException e) {
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException ex) {
+                    // ignore
                 }
+                watchService = null;
             }
+            monitor.watchUnavailable(location.toString());
+            return;
+        }
+        try {
+            watchFuture = runtimeExecutor.submit(this::watch);
+        } catch (RejectedExecutionException e) {
+            try {
+                watchService.close();
+            } catch (IOException ex) {
+                // ignore
+            }
+            watchService = null;
+            monitor.watchUnavailable(location.toString());
+        }
+    }
+
+    private void watch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+            try {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (OVERFLOW == event.kind()) {
+                        // events were lost, scan the directory
+                        execute(this);
+                        continue;
+                    }
+                    File file = new File(location, event.context().toString());
+                    if (!ignore(file)) {
+                        observe(file);
+                    }
+                }
+            } catch (RuntimeException e) {
+                monitor.error(e);
+            }
+            if (!key.reset()) {
+                // the directory is no longer accessible, rely on periodic scans which will handle it being re-created
+                monitor.watchUnavailable(location.toString());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Records an observation of a file. The file is dispatched if it is stable; otherwise a stability check is scheduled for when the settle time elapses.
+     *
+     * @param file the file
+     */
+    private void observe(File file) {
+        String name = file.getName();
+        if (inFlight.contains(name)) {
+            return;
+        }
+        if (!file.exists()) {
+            cache.remove(name);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        FileEntry entry = cache.get(name);
+        if (entry == null) {
+            // the file is new, cache it and wait in case it is in the process of being updated
+            FileEntry newEntry = new FileEntry(file, now);
+            entry = cache.putIfAbsent(name, newEntry);
+            if (entry == null) {
+                scheduleCheck(newEntry, settle);
+                return;
+            }
+        }
+        if (entry.isStable(now, settle)) {
+            // file has finished being updated, process it
+            dispatch(entry);
+        } else {
+            scheduleCheck(entry, entry.getRemaining(now, settle));
+        }
+    }
+
+    private void scheduleCheck(FileEntry entry, long wait) {
+        if (settle <= 0 || executorService == null || !entry.scheduleCheck()) {
+            // without a settle time the next scan re-checks the file
+            return;
+        }
+        try {
+            executorService.schedule(() -> {
+                entry.checkCompleted();
+                try {
+                    observe(entry.getFile());
+                } catch (RuntimeException e) {
+                    monitor.error(e);
+                }
+            }, wait, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the receiver is stopping
+            entry.checkCompleted();
+        }
+    }
+
+    private void dispatch(FileEntry entry) {
+        File file = entry.getFile();
+        String name = file.getName();
+        if (!inFlight.add(name)) {
+            // already dispatched
+            return;
+        }
+        // remove file from the cache as it will either be processed by this runtime or skipped
+        cache.remove(name, entry);
+        Runnable task = () -> {
+            try {
+                processFile(file);
+            } catch (RuntimeException e) {
+                monitor.error(e);
+            } finally {
+                inFlight.remove(name);
+            }
+        };
+        if (workerService == null) {
+            // not started, process on the calling thread
+            task.run();
+            return;
+        }
+        try {
+            workerService.execute(task);
+        } catch (RejectedExecutionException e) {
+            // the receiver is stopping
+            inFlight.remove(name);
+        }
+    }
+
+    private void execute(Runnable runnable) {
+        try {
+            executorService.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            // the receiver is stopping
         }
     }
 
@@ -158,11 +352,8 @@ public class FileSystemReceiver implements Runnable {
 
     @SuppressWarnings({"ResultOfMethodCallIgnored"})
     private void processFile(File file) {
-        String name = file.getName();
-        // remove file from the cache as it will either be processed by this runtime or skipped
-        cache.remove(name);
         // attempt to lock the file
-        FileChannel lockChannel;
+        FileChannel lockChannel = null;
         FileLock fileLock;
         File lockFile = new File(lockDirectory, file.getName() + ".f3");
         try {
@@ -172,16 +363,24 @@ public class FileSystemReceiver implements Runnable {
             fileLock = lockChannel.tryLock();
             if (fileLock == null) {
                 // file lock is held bu another VM. ignore
+                IOHelper.closeQuietly(lockChannel);
                 return;
             }
         } catch (OverlappingFileLockException e) {
             // already being processed by this VM, ignore
+            IOHelper.closeQuietly(lockChannel);
             return;
         } catch (IOException e) {
             // error acquiring the lock, skip processing
+            IOHelper.closeQuietly(lockChannel);
             monitor.error(e);
             return;
         }
+        if (!file.exists()) {
+            // processed by another VM between detection and acquiring the lock
+            releaseLock(lockFile, fileLock, lockChannel);
+            return;
+        }
         try {
             Object[] payload;
             try {
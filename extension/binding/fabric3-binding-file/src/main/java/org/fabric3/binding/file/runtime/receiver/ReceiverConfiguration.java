@@ -38,6 +38,9 @@ public class ReceiverConfiguration {
     File archiveLocation;
 
     private long delay;
+    private long settle;
+    private int workers;
+    private boolean watch;
 
     private Interceptor interceptor;
     private ReceiverMonitor monitor;
@@ -53,6 +56,22 @@ public class ReceiverConfiguration {
                                  ServiceAdapter adapter,
                                  long delay,
                                  ReceiverMonitor monitor) {
+        this(id, location, filePattern, strategy, errorLocation, archiveLocation, interceptor, adapter, delay, 0, 1, false, monitor);
+    }
+
+    public ReceiverConfiguration(String id,
+                                 File location,
+                                 String filePattern,
+                                 Strategy strategy,
+                                 File errorLocation,
+                                 File archiveLocation,
+                                 Interceptor interceptor,
+                                 ServiceAdapter adapter,
+                                 long delay,
+                                 long settle,
+                                 int workers,
+                                 boolean watch,
+                                 ReceiverMonitor monitor) {
         this.id = id;
         this.location = location;
         this.strategy = strategy;
@@ -62,6 +81,9 @@ public class ReceiverConfiguration {
         this.interceptor = interceptor;
         this.adapter = adapter;
         this.delay = delay;
+        this.settle = settle;
+        this.workers = workers;
+        this.watch = watch;
         this.monitor = monitor;
         this.lockDirectory = new File(location, "locks");
     }
@@ -98,6 +120,18 @@ public class ReceiverConfiguration {
         return delay;
     }
 
+    public long getSettle() {
+        return settle;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public boolean isWatch() {
+        return watch;
+    }
+
     public Interceptor getInterceptor() {
         return interceptor;
     }
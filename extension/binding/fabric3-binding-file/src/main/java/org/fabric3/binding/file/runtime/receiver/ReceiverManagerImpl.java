@@ -20,19 +20,27 @@ package org.fabric3.binding.file.runtime.receiver;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+import org.oasisopen.sca.annotation.Reference;
 
 /**
  *
  */
 public class ReceiverManagerImpl implements ReceiverManager {
+    private ExecutorService executorService;
     private Map<String, FileSystemReceiver> receivers = new ConcurrentHashMap<>();
 
+    public ReceiverManagerImpl(@Reference(name = "executorService") ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
     public void create(ReceiverConfiguration configuration) {
         String id = configuration.getId();
         if (receivers.containsKey(id)) {
             throw new AssertionError("Duplicate receiver: " + id);
         }
-        FileSystemReceiver receiver = new FileSystemReceiver(configuration);
+        FileSystemReceiver receiver = new FileSystemReceiver(configuration, executorService);
         receiver.start();
         receivers.put(id, receiver);
     }
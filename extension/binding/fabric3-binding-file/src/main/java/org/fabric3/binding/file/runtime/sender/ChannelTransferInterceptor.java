@@ -0,0 +1,136 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.file.runtime.sender;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.wire.Interceptor;
+import org.oasisopen.sca.ServiceRuntimeException;
+
+/**
+ * Attached to bound reference invocation chains configured for zero-copy transfer. Copies a {@link File}, {@link Path} or {@link ReadableByteChannel} to the
+ * configured location using {@link FileChannel#transferTo} or {@link FileChannel#transferFrom} so that the operating system can move the data without copying
+ * it through the Java heap.
+ *
+ * Data is written to a hidden temporary file which is renamed once the transfer completes. Receivers ignore hidden files, so they never see a partially
+ * written file.
+ */
+public class ChannelTransferInterceptor implements Interceptor {
+    private static final long CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private File outputDirectory;
+
+    public ChannelTransferInterceptor(File outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    public Message invoke(Message msg) {
+        Object body = msg.getBody();
+        if (body == null || !body.getClass().isArray()) {
+            throw new ServiceRuntimeException("Invalid parameter type: " + body);
+        }
+        int length = Array.getLength(body);
+        if (length != 2) {
+            throw new ServiceRuntimeException("Invalid number of parameters: " + length);
+        }
+        Object id = Array.get(body, 0);
+        if (!(id instanceof String)) {
+            throw new ServiceRuntimeException("Parameter must be a string: " + id);
+        }
+        Object payload = Array.get(body, 1);
+        Path target = new File(outputDirectory, (String) id).toPath();
+        Path temp = new File(outputDirectory, "." + id + ".part").toPath();
+        try {
+            try (FileChannel targetChannel = FileChannel.open(temp,
+                                                              StandardOpenOption.CREATE,
+                                                              StandardOpenOption.TRUNCATE_EXISTING,
+                                                              StandardOpenOption.WRITE)) {
+                if (payload instanceof File) {
+                    transfer(((File) payload).toPath(), targetChannel);
+                } else if (payload instanceof Path) {
+                    transfer((Path) payload, targetChannel);
+                } else if (payload instanceof FileChannel) {
+                    FileChannel source = (FileChannel) payload;
+                    transfer(source, source.position(), targetChannel);
+                } else if (payload instanceof ReadableByteChannel) {
+                    transfer((ReadableByteChannel) payload, targetChannel);
+                } else {
+                    throw new ServiceRuntimeException("Parameter must be a file, path or readable channel: " + payload);
+                }
+            }
+            move(temp, target);
+            msg.setBody(null);
+            return msg;
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ex) {
+                // ignore
+            }
+            throw new ServiceRuntimeException(e);
+        }
+    }
+
+    public void setNext(Interceptor next) {
+        throw new IllegalStateException("This interceptor must be the last one in an target interceptor chain");
+    }
+
+    public Interceptor getNext() {
+        return null;
+    }
+
+    private void transfer(Path source, FileChannel target) throws IOException {
+        try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ)) {
+            transfer(sourceChannel, 0, target);
+        }
+    }
+
+    private void transfer(FileChannel source, long position, FileChannel target) throws IOException {
+        long size = source.size();
+        while (position < size) {
+            // transferTo may transfer fewer bytes than requested
+            position += source.transferTo(position, size - position, target);
+        }
+    }
+
+    private void transfer(ReadableByteChannel source, FileChannel target) throws IOException {
+        long position = 0;
+        long transferred;
+        while ((transferred = target.transferFrom(source, position, CHUNK_SIZE)) > 0) {
+            position += transferred;
+        }
+    }
+
+    private void move(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+}
@@ -38,6 +38,9 @@ public class FileBindingLoaderTestCase extends TestCase {
     private static final String STRATEGY_BINDING_CONFIG
             = "<binding.file name='file' location='/dir/subdir' strategy='archive' archive.location='/dir/output' error.location='/dir/error'/>";
 
+    private static final String WORKERS_BINDING_CONFIG
+            = "<binding.file name='file' location='/dir/subdir' error.location='/dir/error' workers='8' settle='100' watch='false' zero.copy='true' region.size='1024' force.unmap='true'/>";
+
     private static final String NO_ARCHIVE_BINDING_CONFIG = "<binding.file name='file' location='/dir/subdir' strategy='archive'/>";
 
     private XMLInputFactory xmlFactory;
@@ -68,6 +71,20 @@ public class FileBindingLoaderTestCase extends TestCase {
         assertEquals("/dir/output", definition.getArchiveLocation());
     }
 
+    public void testLoadWorkers() throws Exception {
+        XMLStreamReader reader = createReader(WORKERS_BINDING_CONFIG);
+        IntrospectionContext context = new DefaultIntrospectionContext();
+        FileBinding definition = loader.load(reader, context);
+        assertFalse(context.hasErrors());
+
+        assertEquals(8, definition.getWorkers());
+        assertEquals(100, definition.getSettle());
+        assertFalse(definition.isWatch());
+        assertTrue(definition.isZeroCopy());
+        assertEquals(1024, definition.getRegionSize());
+        assertTrue(definition.isForceUnmap());
+    }
+
     public void testLoadNoArchive() throws Exception {
         XMLStreamReader reader = createReader(NO_ARCHIVE_BINDING_CONFIG);
         IntrospectionContext context = new DefaultIntrospectionContext();
@@ -0,0 +1,113 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.file.runtime;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+
+import junit.framework.TestCase;
+import org.fabric3.api.binding.file.MappedRegions;
+import org.fabric3.api.host.util.FileHelper;
+
+/**
+ *
+ */
+public class MappedServiceAdapterTestCase extends TestCase {
+    private File directory = new File("mapped");
+    private File file = new File(directory, "data.bin");
+
+    public void testMappedBuffer() throws Exception {
+        MappedServiceAdapter adapter = new MappedServiceAdapter(1024, false, false);
+        Object[] payload = adapter.beforeInvoke(file);
+        MappedByteBuffer buffer = (MappedByteBuffer) payload[0];
+        assertEquals(10000, buffer.remaining());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals((byte) i, buffer.get());
+        }
+        adapter.afterInvoke(file, payload);
+    }
+
+    public void testMappedRegions() throws Exception {
+        MappedServiceAdapter adapter = new MappedServiceAdapter(4096, true, false);
+        Object[] payload = adapter.beforeInvoke(file);
+        MappedRegions regions = (MappedRegions) payload[0];
+        assertEquals(3, regions.getRegionCount());
+        int i = 0;
+        for (MappedByteBuffer region : regions) {
+            assertTrue(region.remaining() <= 4096);
+            while (region.hasRemaining()) {
+                assertEquals((byte) i++, region.get());
+            }
+        }
+        assertEquals(10000, i);
+        adapter.afterInvoke(file, payload);
+    }
+
+    public void testFileDeletableAfterInvoke() throws Exception {
+        MappedServiceAdapter bufferAdapter = new MappedServiceAdapter(1024, false, true);
+        Object[] payload = bufferAdapter.beforeInvoke(file);
+        bufferAdapter.afterInvoke(file, payload);
+        File archived = new File(directory, "archived.bin");
+        assertTrue(file.renameTo(archived));
+
+        MappedServiceAdapter regionsAdapter = new MappedServiceAdapter(4096, true, true);
+        payload = regionsAdapter.beforeInvoke(archived);
+        for (MappedByteBuffer ignored : (MappedRegions) payload[0]) {
+            // map each region
+        }
+        regionsAdapter.afterInvoke(archived, payload);
+        assertTrue(archived.delete());
+    }
+
+    public void testBufferReadableAfterInvoke() throws Exception {
+        if (System.getProperty("os.name", "").startsWith("Windows")) {
+            // a mapped file cannot be deleted unless mappings are forcibly released
+            return;
+        }
+        MappedServiceAdapter adapter = new MappedServiceAdapter(1024, false, false);
+        Object[] payload = adapter.beforeInvoke(file);
+        adapter.afterInvoke(file, payload);
+        assertTrue(file.delete());
+
+        MappedByteBuffer buffer = (MappedByteBuffer) payload[0];
+        assertEquals((byte) 9999, buffer.get(9999));
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        directory.mkdirs();
+        byte[] data = new byte[10000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        try (FileOutputStream stream = new FileOutputStream(file)) {
+            stream.write(data);
+        }
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        clean();
+    }
+
+    private void clean() throws IOException {
+        FileHelper.deleteDirectory(directory);
+    }
+
+}
@@ -21,6 +21,10 @@ package org.fabric3.binding.file.runtime.receiver;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
@@ -45,6 +49,7 @@ public class FileSystemReceiverTestCase extends TestCase {
     private ReceiverMonitor monitor;
     private Interceptor interceptor;
     private ServiceAdapter adapter;
+    private ExecutorService executorService;
 
     public void testFileReceivedAndDeleted() throws Exception {
         FileSystemReceiver receiver = createReceiver("header.*\\.xml", Strategy.DELETE);
@@ -144,6 +149,60 @@ public class FileSystemReceiverTestCase extends TestCase {
         EasyMock.verify(adapter, interceptor);
     }
 
+    public void testParallelWatchedReceive() throws Exception {
+        int count = 20;
+        CountDownLatch latch = new CountDownLatch(count);
+        Interceptor countingInterceptor = new Interceptor() {
+            public Message invoke(Message msg) {
+                latch.countDown();
+                return new MessageImpl();
+            }
+
+            public void setNext(Interceptor next) {
+            }
+
+            public Interceptor getNext() {
+                return null;
+            }
+        };
+        EasyMock.expect(adapter.beforeInvoke(EasyMock.isA(File.class))).andReturn(new Object[]{}).times(count);
+        adapter.afterInvoke(EasyMock.isA(File.class), EasyMock.isA(Object[].class));
+        EasyMock.expectLastCall().times(count);
+        adapter.delete(EasyMock.isA(File.class));
+        EasyMock.expectLastCall().andAnswer(() -> {
+            ((File) EasyMock.getCurrentArguments()[0]).delete();
+            return null;
+        }).times(count);
+        EasyMock.replay(adapter);
+
+        ReceiverConfiguration configuration = new ReceiverConfiguration("id",
+                                                                        location,
+                                                                        "header.*\\.xml",
+                                                                        Strategy.DELETE,
+                                                                        errorDirectory,
+                                                                        archiveDirectory,
+                                                                        countingInterceptor,
+                                                                        adapter,
+                                                                        60000,
+                                                                        50,
+                                                                        4,
+                                                                        true,
+                                                                        monitor);
+        FileSystemReceiver receiver = new FileSystemReceiver(configuration, executorService);
+        receiver.start();
+        try {
+            for (int i = 0; i < count; i++) {
+                createFile("header" + i + ".xml");
+            }
+            // the scan delay exceeds the test timeout: files are detected by events or the explicit scan and re-checked after the settle time
+            receiver.run();
+            assertTrue(latch.await(20, TimeUnit.SECONDS));
+        } finally {
+            receiver.stop();
+        }
+        EasyMock.verify(adapter);
+    }
+
     @Override
     public void setUp() throws Exception {
         super.setUp();
@@ -151,11 +210,13 @@ public class FileSystemReceiverTestCase extends TestCase {
         monitor = EasyMock.createNiceMock(ReceiverMonitor.class);
         interceptor = EasyMock.createMock(Interceptor.class);
         adapter = EasyMock.createMock(ServiceAdapter.class);
+        executorService = Executors.newCachedThreadPool();
     }
 
     @Override
     public void tearDown() throws Exception {
         super.tearDown();
+        executorService.shutdownNow();
         clean();
     }
 
@@ -168,7 +229,7 @@ public class FileSystemReceiverTestCase extends TestCase {
     private FileSystemReceiver createReceiver(String filter, Strategy strategy) {
         ReceiverConfiguration configuration =
                 new ReceiverConfiguration("id", location, filter, strategy, errorDirectory, archiveDirectory, interceptor, adapter, 10, monitor);
-        FileSystemReceiver receiver = new FileSystemReceiver(configuration);
+        FileSystemReceiver receiver = new FileSystemReceiver(configuration, executorService);
         receiver.createDirectories();
         return receiver;
     }
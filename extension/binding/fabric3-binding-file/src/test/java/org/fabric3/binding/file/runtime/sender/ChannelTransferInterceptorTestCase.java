@@ -0,0 +1,78 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.file.runtime.sender;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+import org.fabric3.api.host.util.FileHelper;
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.invocation.MessageImpl;
+
+/**
+ *
+ */
+public class ChannelTransferInterceptorTestCase extends TestCase {
+    private File source = new File("transferSource");
+    private File output = new File("transferOutput");
+    private byte[] data;
+    private ChannelTransferInterceptor interceptor;
+
+    public void testTransferFile() throws Exception {
+        File file = new File(source, "data.bin");
+        Files.write(file.toPath(), data);
+
+        invoke("file.bin", file);
+
+        assertTrue(Arrays.equals(data, Files.readAllBytes(new File(output, "file.bin").toPath())));
+        assertFalse(new File(output, ".file.bin.part").exists());
+    }
+
+    public void testTransferChannel() throws Exception {
+        invoke("channel.bin", Channels.newChannel(new ByteArrayInputStream(data)));
+
+        assertTrue(Arrays.equals(data, Files.readAllBytes(new File(output, "channel.bin").toPath())));
+    }
+
+    private void invoke(String id, Object payload) {
+        Message message = new MessageImpl();
+        message.setBody(new Object[]{id, payload});
+        interceptor.invoke(message);
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        source.mkdirs();
+        output.mkdirs();
+        data = new byte[100000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        interceptor = new ChannelTransferInterceptor(output);
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        FileHelper.deleteDirectory(source);
+        FileHelper.deleteDirectory(output);
+    }
+
+}
@@ -114,6 +114,42 @@ public @interface JMSConfiguration {
      */
     int maxReceivers() default 1;
 
+    /**
+     * Specifies the maximum number of pooled JMS producers to keep per destination.
+     *
+     * @return the maximum number of pooled JMS producers
+     */
+    int maxProducers() default 10;
+
+    /**
+     * Specifies the time in milliseconds to wait for a pooled JMS producer to become available.
+     *
+     * @return the time to wait for a pooled JMS producer in milliseconds
+     */
+    long producerTimeout() default 30000;
+
+    /**
+     * Specifies the maximum number of messages received and committed in a single unit of work. The default is one message per unit of work.
+     *
+     * @return the maximum number of messages per unit of work
+     */
+    int batchSize() default 1;
+
+    /**
+     * Specifies the time in milliseconds to wait for additional messages to fill a batch once the first message of the batch has been received.
+     *
+     * @return the time to wait for additional batch messages in milliseconds
+     */
+    long batchTimeout() default 0;
+
+    /**
+     * Specifies if the service may reply to requests correlated by message id without echoing the Fabric3 response route header, for example because it is
+     * not implemented with Fabric3. If enabled, a consumer is created per request to receive such replies.
+     *
+     * @return true if replies may not carry the response route header
+     */
+    boolean routelessResponses() default false;
+
     /**
      * Specifies the idle time limit.
      *
@@ -163,6 +163,36 @@ public class JmsBindingBuilder extends AbstractBuilder {
         return this;
     }
 
+    public JmsBindingBuilder maxProducers(int max) {
+        checkState();
+        binding.getJmsMetadata().setMaxProducers(max);
+        return this;
+    }
+
+    public JmsBindingBuilder producerTimeout(long timeout) {
+        checkState();
+        binding.getJmsMetadata().setProducerTimeout(timeout);
+        return this;
+    }
+
+    public JmsBindingBuilder batchSize(int size) {
+        checkState();
+        binding.getJmsMetadata().setBatchSize(size);
+        return this;
+    }
+
+    public JmsBindingBuilder batchTimeout(long timeout) {
+        checkState();
+        binding.getJmsMetadata().setBatchTimeout(timeout);
+        return this;
+    }
+
+    public JmsBindingBuilder routelessResponses(boolean routeless) {
+        checkState();
+        binding.getJmsMetadata().setRoutelessResponses(routeless);
+        return this;
+    }
+
     public JmsBindingBuilder clientAcknowledge(boolean ack) {
         checkState();
         binding.getJmsMetadata().setClientAcknowledge(ack);
@@ -58,6 +58,11 @@ public class JmsBindingMetadata extends ModelObject {
     private String subscriptionIdPrefix;
     private boolean clientAcknowledge;
     private long backoffPeriod = -1;
+    private int maxProducers = 10;
+    private long producerTimeout = 30000;  // set the default wait for a pooled producer to 30 seconds
+    private int batchSize = 1;
+    private long batchTimeout = 0;
+    private boolean routelessResponses;
 
     public ConnectionFactoryDefinition getConnectionFactory() {
         return connectionFactory;
@@ -269,6 +274,46 @@ public class JmsBindingMetadata extends ModelObject {
         this.backoffPeriod = backoffPeriod;
     }
 
+    public int getMaxProducers() {
+        return maxProducers;
+    }
+
+    public void setMaxProducers(int maxProducers) {
+        this.maxProducers = maxProducers;
+    }
+
+    public long getProducerTimeout() {
+        return producerTimeout;
+    }
+
+    public void setProducerTimeout(long producerTimeout) {
+        this.producerTimeout = producerTimeout;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getBatchTimeout() {
+        return batchTimeout;
+    }
+
+    public void setBatchTimeout(long batchTimeout) {
+        this.batchTimeout = batchTimeout;
+    }
+
+    public boolean isRoutelessResponses() {
+        return routelessResponses;
+    }
+
+    public void setRoutelessResponses(boolean routelessResponses) {
+        this.routelessResponses = routelessResponses;
+    }
+
     public JmsBindingMetadata snapshot() {
         JmsBindingMetadata copy = new JmsBindingMetadata();
         copy.correlationScheme = this.correlationScheme;
@@ -312,6 +357,11 @@ public class JmsBindingMetadata extends ModelObject {
         copy.activationSpec = this.activationSpec;
         copy.clientAcknowledge = this.clientAcknowledge;
         copy.backoffPeriod = this.backoffPeriod;
+        copy.maxProducers = this.maxProducers;
+        copy.producerTimeout = this.producerTimeout;
+        copy.batchSize = this.batchSize;
+        copy.batchTimeout = this.batchTimeout;
+        copy.routelessResponses = this.routelessResponses;
         return copy;
     }
 
@@ -24,6 +24,7 @@ import org.fabric3.binding.jms.runtime.container.MessageContainerFactoryImpl;
 import org.fabric3.binding.jms.runtime.container.MessageContainerManagerImpl;
 import org.fabric3.binding.jms.runtime.jndi.JndiAdministeredObjectResolver;
 import org.fabric3.binding.jms.runtime.jndi.JndiClassLoaderUpdater;
+import org.fabric3.binding.jms.runtime.producer.ProducerPoolManagerImpl;
 import org.fabric3.binding.jms.runtime.resolver.AdministeredObjectResolverImpl;
 import org.fabric3.binding.jms.runtime.resolver.connectionfactory.AlwaysConnectionFactoryStrategy;
 import org.fabric3.binding.jms.runtime.resolver.connectionfactory.IfNotExistConnectionFactoryStrategy;
@@ -31,6 +32,7 @@ import org.fabric3.binding.jms.runtime.resolver.connectionfactory.NeverConnectio
 import org.fabric3.binding.jms.runtime.resolver.destination.AlwaysDestinationStrategy;
 import org.fabric3.binding.jms.runtime.resolver.destination.IfNotExistDestinationStrategy;
 import org.fabric3.binding.jms.runtime.resolver.destination.NeverDestinationStrategy;
+import org.fabric3.binding.jms.runtime.wire.ResponseListenerManagerImpl;
 import org.fabric3.spi.model.type.system.SystemComponentBuilder;
 
 /**
@@ -47,6 +49,8 @@ public class JmsBindingProvider {
         builder.reference("executorService", "RuntimeThreadPoolExecutor");
         compositeBuilder.component(builder.build());
         compositeBuilder.component(SystemComponentBuilder.newBuilder(MessageContainerManagerImpl.class).build());
+        compositeBuilder.component(SystemComponentBuilder.newBuilder(ProducerPoolManagerImpl.class).build());
+        compositeBuilder.component(SystemComponentBuilder.newBuilder(ResponseListenerManagerImpl.class).build());
         compositeBuilder.component(SystemComponentBuilder.newBuilder(JmsSourceWireAttacher.class).build());
         compositeBuilder.component(SystemComponentBuilder.newBuilder(JmsTargetWireAttacher.class).build());
         compositeBuilder.component(SystemComponentBuilder.newBuilder(JmsConnectionSourceAttacher.class).build());
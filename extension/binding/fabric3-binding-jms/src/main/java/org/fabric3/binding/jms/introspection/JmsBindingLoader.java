@@ -113,6 +113,11 @@ public class JmsBindingLoader extends AbstractValidatingTypeLoader<JmsBinding> {
                       "recovery.interval",
                       "max.receivers",
                       "min.receivers",
+                      "max.producers",
+                      "producer.timeout",
+                      "batch.size",
+                      "batch.timeout",
+                      "routeless.responses",
                       "clientAcknowledge");
     }
 
@@ -324,6 +329,53 @@ public class JmsBindingLoader extends AbstractValidatingTypeLoader<JmsBinding> {
             }
         }
 
+        String maxProducers = reader.getAttributeValue(null, "max.producers");
+        if (maxProducers != null) {
+            try {
+                int val = Integer.parseInt(maxProducers);
+                metadata.setMaxProducers(val);
+            } catch (NumberFormatException e) {
+                InvalidValue error = new InvalidValue("Invalid max.producers attribute", startLocation, e);
+                context.addError(error);
+            }
+        }
+
+        String producerTimeout = reader.getAttributeValue(null, "producer.timeout");
+        if (producerTimeout != null) {
+            try {
+                long val = Long.parseLong(producerTimeout);
+                metadata.setProducerTimeout(val);
+            } catch (NumberFormatException e) {
+                InvalidValue error = new InvalidValue("Invalid producer.timeout attribute", startLocation, e);
+                context.addError(error);
+            }
+        }
+
+        String batchSize = reader.getAttributeValue(null, "batch.size");
+        if (batchSize != null) {
+            try {
+                int val = Integer.parseInt(batchSize);
+                metadata.setBatchSize(val);
+            } catch (NumberFormatException e) {
+                InvalidValue error = new InvalidValue("Invalid batch.size attribute", startLocation, e);
+                context.addError(error);
+            }
+        }
+
+        String batchTimeout = reader.getAttributeValue(null, "batch.timeout");
+        if (batchTimeout != null) {
+            try {
+                long val = Long.parseLong(batchTimeout);
+                metadata.setBatchTimeout(val);
+            } catch (NumberFormatException e) {
+                InvalidValue error = new InvalidValue("Invalid batch.timeout attribute", startLocation, e);
+                context.addError(error);
+            }
+        }
+
+        String routeless = reader.getAttributeValue(null, "routeless.responses");
+        metadata.setRoutelessResponses(Boolean.valueOf(routeless));
+
         String ack = reader.getAttributeValue(null, "clientAcknowledge");
         metadata.setClientAcknowledge(Boolean.valueOf(ack));
     }
@@ -113,6 +113,11 @@ public class JmsBindingPostProcessor extends AbstractBindingPostProcessor<JMS> {
         metadata.setLocalDelivery(configuration.localDelivery());
         metadata.setMaxMessagesToProcess(configuration.maxMessagesToProcess());
         metadata.setMaxReceivers(configuration.maxReceivers());
+        metadata.setMaxProducers(configuration.maxProducers());
+        metadata.setProducerTimeout(configuration.producerTimeout());
+        metadata.setBatchSize(configuration.batchSize());
+        metadata.setBatchTimeout(configuration.batchTimeout());
+        metadata.setRoutelessResponses(configuration.routelessResponses());
         metadata.setMessageSelection(new MessageSelection(configuration.selector()));
         metadata.setMinReceivers(configuration.minReceivers());
         metadata.setReceiveTimeout(configuration.receiveTimeout());
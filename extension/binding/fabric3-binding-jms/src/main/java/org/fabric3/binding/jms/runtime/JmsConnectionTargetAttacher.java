@@ -28,6 +28,8 @@ import org.fabric3.api.binding.jms.model.Destination;
 import org.fabric3.api.binding.jms.model.HeadersDefinition;
 import org.fabric3.api.binding.jms.model.JmsBindingMetadata;
 import org.fabric3.binding.jms.runtime.channel.JmsEventStreamHandler;
+import org.fabric3.binding.jms.runtime.producer.ProducerPool;
+import org.fabric3.binding.jms.runtime.producer.ProducerPoolManager;
 import org.fabric3.binding.jms.runtime.resolver.AdministeredObjectResolver;
 import org.fabric3.binding.jms.spi.provision.JmsConnectionTarget;
 import org.fabric3.spi.container.builder.TargetConnectionAttacher;
@@ -42,9 +44,11 @@ import org.oasisopen.sca.annotation.Reference;
 @Key("org.fabric3.binding.jms.spi.provision.JmsConnectionTarget")
 public class JmsConnectionTargetAttacher implements TargetConnectionAttacher<JmsConnectionTarget> {
     private AdministeredObjectResolver resolver;
+    private ProducerPoolManager poolManager;
 
-    public JmsConnectionTargetAttacher(@Reference AdministeredObjectResolver resolver) {
+    public JmsConnectionTargetAttacher(@Reference AdministeredObjectResolver resolver, @Reference ProducerPoolManager poolManager) {
         this.resolver = resolver;
+        this.poolManager = poolManager;
     }
 
     public void attach(PhysicalConnectionSource source, JmsConnectionTarget target, ChannelConnection connection) {
@@ -56,12 +60,14 @@ public class JmsConnectionTargetAttacher implements TargetConnectionAttacher<Jms
         ConnectionFactory connectionFactory = resolver.resolve(connectionFactoryDefinition);
         Destination destinationDefinition = metadata.getDestination();
         javax.jms.Destination destination = resolver.resolve(destinationDefinition, connectionFactory);
+        ProducerPool pool = poolManager.getPool(source.getUri(), metadata, connectionFactory, destination);
         EventStream stream = connection.getEventStream();
-        JmsEventStreamHandler handler = new JmsEventStreamHandler(destination, connectionFactory, persistent);
+        JmsEventStreamHandler handler = new JmsEventStreamHandler(pool, connectionFactory, persistent);
         stream.addHandler(handler);
     }
 
     public void detach(PhysicalConnectionSource source, JmsConnectionTarget target) {
+        poolManager.release(source.getUri(), target.getMetadata());
         resolver.release(target.getMetadata().getConnectionFactory());
     }
 
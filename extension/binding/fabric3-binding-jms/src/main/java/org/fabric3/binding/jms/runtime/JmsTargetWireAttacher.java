@@ -31,7 +31,6 @@ import java.util.Map;
 
 import org.fabric3.api.annotation.wire.Key;
 import org.fabric3.api.binding.jms.model.ConnectionFactoryDefinition;
-import org.fabric3.api.binding.jms.model.CorrelationScheme;
 import org.fabric3.api.binding.jms.model.DeliveryMode;
 import org.fabric3.api.binding.jms.model.Destination;
 import org.fabric3.api.binding.jms.model.DestinationType;
@@ -40,13 +39,17 @@ import org.fabric3.api.binding.jms.model.JmsBindingMetadata;
 import org.fabric3.api.binding.jms.model.OperationPropertiesDefinition;
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.model.type.contract.DataType;
+import org.fabric3.binding.jms.runtime.producer.ProducerPool;
+import org.fabric3.binding.jms.runtime.producer.ProducerPoolManager;
 import org.fabric3.binding.jms.runtime.resolver.AdministeredObjectResolver;
 import org.fabric3.binding.jms.runtime.wire.InterceptorConfiguration;
 import org.fabric3.binding.jms.runtime.wire.JmsInterceptor;
 import org.fabric3.binding.jms.runtime.wire.ResponseListener;
+import org.fabric3.binding.jms.runtime.wire.ResponseListenerManager;
 import org.fabric3.binding.jms.runtime.wire.WireConfiguration;
 import org.fabric3.binding.jms.spi.provision.JmsWireTarget;
 import org.fabric3.binding.jms.spi.provision.OperationPayloadTypes;
+import org.fabric3.binding.jms.spi.provision.SessionType;
 import org.fabric3.spi.container.binding.BindingHandler;
 import org.fabric3.spi.container.binding.BindingHandlerRegistry;
 import org.fabric3.spi.container.builder.TargetWireAttacher;
@@ -69,15 +72,21 @@ public class JmsTargetWireAttacher implements TargetWireAttacher<JmsWireTarget>
     private TransactionManager tm;
     private BindingHandlerRegistry handlerRegistry;
     private TransformerInterceptorFactory interceptorFactory;
+    private ProducerPoolManager poolManager;
+    private ResponseListenerManager listenerManager;
 
     public JmsTargetWireAttacher(@Reference AdministeredObjectResolver resolver,
                                  @Reference TransactionManager tm,
                                  @Reference BindingHandlerRegistry handlerRegistry,
-                                 @Reference TransformerInterceptorFactory interceptorFactory) {
+                                 @Reference TransformerInterceptorFactory interceptorFactory,
+                                 @Reference ProducerPoolManager poolManager,
+                                 @Reference ResponseListenerManager listenerManager) {
         this.resolver = resolver;
         this.tm = tm;
         this.handlerRegistry = handlerRegistry;
         this.interceptorFactory = interceptorFactory;
+        this.poolManager = poolManager;
+        this.listenerManager = listenerManager;
     }
 
     public void attach(PhysicalWireSource source, JmsWireTarget target, Wire wire) {
@@ -96,7 +105,7 @@ public class JmsTargetWireAttacher implements TargetWireAttacher<JmsWireTarget>
         wireConfiguration.setPersistent(persistent);
 
         // resolve the connection factories and destinations for the wire
-        resolveAdministeredObjects(target, wireConfiguration);
+        resolveAdministeredObjects(source, target, wireConfiguration);
 
         List<BindingHandler<Message>> handlers = createHandlers(target);
 
@@ -121,6 +130,12 @@ public class JmsTargetWireAttacher implements TargetWireAttacher<JmsWireTarget>
     }
 
     public void detach(PhysicalWireSource source, JmsWireTarget target) {
+        if (!isTransacted(target)) {
+            poolManager.release(source.getUri(), target.getMetadata());
+        }
+        if (target.getMetadata().isResponse()) {
+            listenerManager.release(target.getMetadata());
+        }
         resolver.release(target.getMetadata().getConnectionFactory());
     }
 
@@ -224,7 +239,7 @@ public class JmsTargetWireAttacher implements TargetWireAttacher<JmsWireTarget>
         chain.addInterceptor(jaxbInterceptor);
     }
 
-    private void resolveAdministeredObjects(JmsWireTarget target, WireConfiguration wireConfiguration) {
+    private void resolveAdministeredObjects(PhysicalWireSource source, JmsWireTarget target, WireConfiguration wireConfiguration) {
         JmsBindingMetadata metadata = target.getMetadata();
 
         ConnectionFactoryDefinition connectionFactoryDefinition = metadata.getConnectionFactory();
@@ -236,14 +251,18 @@ public class JmsTargetWireAttacher implements TargetWireAttacher<JmsWireTarget>
             wireConfiguration.setRequestConnectionFactory(requestConnectionFactory);
             wireConfiguration.setRequestDestination(requestDestination);
             validateDestination(requestDestination, destination);
+            if (!isTransacted(target)) {
+                // transacted wires create a session per transaction so that it is enlisted with the global transaction
+                ProducerPool pool = poolManager.getPool(source.getUri(), metadata, requestConnectionFactory, requestDestination);
+                wireConfiguration.setProducerPool(pool);
+            }
             if (metadata.isResponse()) {
                 connectionFactoryDefinition = metadata.getResponseConnectionFactory();
 
                 ConnectionFactory responseConnectionFactory = resolver.resolve(connectionFactoryDefinition);
                 destination = metadata.getResponseDestination();
                 javax.jms.Destination responseDestination = resolver.resolve(destination, responseConnectionFactory);
-                CorrelationScheme scheme = metadata.getCorrelationScheme();
-                ResponseListener listener = new ResponseListener(responseDestination, scheme);
+                ResponseListener listener = listenerManager.getListener(metadata, responseConnectionFactory, responseDestination);
                 wireConfiguration.setResponseListener(listener);
                 validateDestination(responseDestination, destination);
             }
@@ -277,6 +296,10 @@ public class JmsTargetWireAttacher implements TargetWireAttacher<JmsWireTarget>
         }
     }
 
+    private boolean isTransacted(JmsWireTarget target) {
+        return SessionType.GLOBAL_TRANSACTED == target.getSessionType();
+    }
+
     private OperationPayloadTypes resolveOperation(String operationName, List<OperationPayloadTypes> payloadTypes) {
         for (OperationPayloadTypes type : payloadTypes) {
             if (type.getName().equals(operationName)) {
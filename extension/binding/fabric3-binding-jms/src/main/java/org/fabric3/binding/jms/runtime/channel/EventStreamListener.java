@@ -21,17 +21,19 @@ package org.fabric3.binding.jms.runtime.channel;
 
 import javax.jms.JMSException;
 import javax.jms.Message;
-import javax.jms.MessageListener;
 import javax.jms.ObjectMessage;
 import javax.jms.TextMessage;
+import java.util.List;
 
 import org.fabric3.binding.jms.runtime.common.ListenerMonitor;
+import org.fabric3.binding.jms.runtime.container.BatchMessageListener;
 import org.fabric3.spi.container.channel.EventStreamHandler;
 
 /**
- * Listens for requests sent to a destination and dispatches to a channel.
+ * Listens for requests sent to a destination and dispatches to a channel. When messages are received in batches, the end of batch flag is set on the last
+ * event of the batch.
  */
-public class EventStreamListener implements MessageListener {
+public class EventStreamListener implements BatchMessageListener {
     private ClassLoader cl;
     private ListenerMonitor monitor;
     private EventStreamHandler handler;
@@ -47,12 +49,34 @@ public class EventStreamListener implements MessageListener {
         try {
             // set the TCCL to the target service classloader
             Thread.currentThread().setContextClassLoader(cl);
+            dispatch(request, true);
+        } finally {
+            Thread.currentThread().setContextClassLoader(oldCl);
+        }
+    }
+
+    public void onMessages(List<Message> requests) {
+        ClassLoader oldCl = Thread.currentThread().getContextClassLoader();
+        try {
+            // set the TCCL to the target service classloader
+            Thread.currentThread().setContextClassLoader(cl);
+            int last = requests.size() - 1;
+            for (int i = 0; i <= last; i++) {
+                dispatch(requests.get(i), i == last);
+            }
+        } finally {
+            Thread.currentThread().setContextClassLoader(oldCl);
+        }
+    }
+
+    private void dispatch(Message request, boolean endOfBatch) {
+        try {
             if (request instanceof ObjectMessage) {
                 ObjectMessage message = (ObjectMessage) request;
-                handler.handle(message.getObject(), true);
+                handler.handle(message.getObject(), endOfBatch);
             } else if (request instanceof TextMessage) {
                 TextMessage message = (TextMessage) request;
-                handler.handle(message.getText(), true);
+                handler.handle(message.getText(), endOfBatch);
             } else {
                 String type = request.getClass().getName();
                 monitor.invalidMessageType(type);
@@ -60,8 +84,6 @@ public class EventStreamListener implements MessageListener {
         } catch (JMSException e) {
             // TODO This could be a temporary error and should be sent to a dead letter queue. For now, just log the error.
             monitor.redeliveryError(e);
-        } finally {
-            Thread.currentThread().setContextClassLoader(oldCl);
         }
     }
 
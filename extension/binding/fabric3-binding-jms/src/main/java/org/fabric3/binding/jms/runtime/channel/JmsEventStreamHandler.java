@@ -19,32 +19,30 @@
  */
 package org.fabric3.binding.jms.runtime.channel;
 
-import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.DeliveryMode;
-import javax.jms.Destination;
 import javax.jms.JMSException;
 import javax.jms.Message;
-import javax.jms.MessageProducer;
 import javax.jms.Session;
 import java.io.Serializable;
 
-import org.fabric3.binding.jms.runtime.common.JmsHelper;
+import org.fabric3.binding.jms.runtime.producer.PooledProducer;
+import org.fabric3.binding.jms.runtime.producer.ProducerPool;
 import org.fabric3.spi.container.channel.EventStreamHandler;
 import org.oasisopen.sca.ServiceRuntimeException;
 
 /**
- * A {@link EventStreamHandler} that dispatches an event to a JMS destination.
+ * A {@link EventStreamHandler} that dispatches an event to a JMS destination using a pooled producer.
  */
 public class JmsEventStreamHandler implements EventStreamHandler {
-    private Destination destination;
+    private ProducerPool pool;
     private ConnectionFactory connectionFactory;
-    private boolean persistent;
+    private int deliveryMode;
 
-    public JmsEventStreamHandler(Destination destination, ConnectionFactory connectionFactory, boolean persistent) {
-        this.destination = destination;
+    public JmsEventStreamHandler(ProducerPool pool, ConnectionFactory connectionFactory, boolean persistent) {
+        this.pool = pool;
         this.connectionFactory = connectionFactory;
-        this.persistent = persistent;
+        this.deliveryMode = persistent ? DeliveryMode.PERSISTENT : DeliveryMode.NON_PERSISTENT;
     }
 
     public void handle(Object event, boolean endOfBatch) {
@@ -52,28 +50,33 @@ public class JmsEventStreamHandler implements EventStreamHandler {
             throw new ServiceRuntimeException("Event type must be serializable: " + event.getClass().getName());
         }
         Serializable payload = (Serializable) event;
-        Connection connection = null;
-        Session session = null;
+        PooledProducer pooled = null;
+        boolean failed = false;
         ClassLoader oldCl = Thread.currentThread().getContextClassLoader();
         try {
             // set the context classloader to the one that loaded the connection factory implementation.
             // this is required by some JMS providers
             Thread.currentThread().setContextClassLoader(connectionFactory.getClass().getClassLoader());
-            connection = connectionFactory.createConnection();
-            connection.start();
-            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            MessageProducer producer = session.createProducer(destination);
-            if (!persistent) {
-                producer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
-            }
+            pooled = pool.borrow();
+            Session session = pooled.getSession();
             Message jmsMessage = session.createObjectMessage(payload);
             // enqueue the message
-            producer.send(jmsMessage);
+            try {
+                pooled.getProducer().send(jmsMessage, deliveryMode, Message.DEFAULT_PRIORITY, Message.DEFAULT_TIME_TO_LIVE);
+            } catch (JMSException e) {
+                failed = true;
+                throw e;
+            }
         } catch (JMSException ex) {
-            throw new ServiceRuntimeException("Unable to receive response", ex);
+            throw new ServiceRuntimeException("Unable to send event", ex);
         } finally {
-            JmsHelper.closeQuietly(session);
-            JmsHelper.closeQuietly(connection);
+            if (pooled != null) {
+                if (failed) {
+                    pool.invalidate(pooled);
+                } else {
+                    pool.release(pooled);
+                }
+            }
             Thread.currentThread().setContextClassLoader(oldCl);
         }
     }
@@ -20,6 +20,11 @@ public interface JmsRuntimeConstants {
      */
     String CONTEXT_HEADER = "f3Context";
 
+    /**
+     * Header used to route a response to the reference listener that dispatched the request
+     */
+    String RESPONSE_ROUTE_HEADER = "f3ResponseRoute";
+
     /**
      * No caching of JMS objects
      */
@@ -0,0 +1,125 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.common;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A hashed timing wheel for expiring large numbers of short-lived timeouts with constant-time scheduling and cancellation. Timeouts are hashed into buckets
+ * by their expiration tick. Each call to {@link #tick()} advances the wheel by one bucket and runs the timeouts in that bucket that have expired.
+ *
+ * The wheel does not own a thread; the owner is responsible for calling {@link #tick()} at the configured tick interval from a single thread.
+ */
+public class TimeoutWheel {
+    private long tickDuration;
+    private Queue<Timeout>[] buckets;
+    private int mask;
+    private volatile long ticks;
+
+    /**
+     * Constructor.
+     *
+     * @param tickDuration the interval in milliseconds between calls to {@link #tick()}
+     * @param size         the number of buckets, rounded up to the next power of two
+     */
+    @SuppressWarnings("unchecked")
+    public TimeoutWheel(long tickDuration, int size) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be greater than 0");
+        }
+        int normalized = 1;
+        while (normalized < size) {
+            normalized <<= 1;
+        }
+        this.tickDuration = tickDuration;
+        this.mask = normalized - 1;
+        buckets = new Queue[normalized];
+        for (int i = 0; i < normalized; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Returns the interval in milliseconds between ticks.
+     *
+     * @return the interval
+     */
+    public long getTickDuration() {
+        return tickDuration;
+    }
+
+    /**
+     * Schedules a task to run after the given delay. The task is run on the thread calling {@link #tick()} and must therefore not block.
+     *
+     * @param task  the task
+     * @param delay the delay in milliseconds
+     * @return the timeout handle, which can be used to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay) {
+        // round up so a task never expires early
+        long delayTicks = Math.max(1, (delay + tickDuration - 1) / tickDuration);
+        long current = ticks;
+        long deadline = current + delayTicks;
+        Timeout timeout = new Timeout(task, deadline);
+        buckets[(int) (deadline & mask)].add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Advances the wheel by one tick and runs expired timeouts.
+     */
+    public void tick() {
+        long current = ++ticks;
+        Queue<Timeout> bucket = buckets[(int) (current & mask)];
+        for (Iterator<Timeout> iterator = bucket.iterator(); iterator.hasNext(); ) {
+            Timeout timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.deadline <= current) {
+                iterator.remove();
+                timeout.task.run();
+            }
+        }
+    }
+
+    /**
+     * A scheduled task.
+     */
+    public static class Timeout {
+        private Runnable task;
+        private long deadline;
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task. Cancelled tasks are removed from the wheel lazily.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+}
@@ -26,6 +26,7 @@ import javax.jms.MessageListener;
 import javax.jms.Session;
 import javax.jms.Topic;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -48,6 +49,10 @@ import static org.fabric3.binding.jms.runtime.common.JmsRuntimeConstants.CACHE_N
  * A container for a JMS MessageListener that is capable of adapting to varying workloads by dispatching messages from a destination to the listener on
  * different managed threads. Workload management is performed by sizing up or down the number of managed threads reserved for message processing.  Note this
  * implementation supports dispatching transactional and non-transactional messages.
+ *
+ * Receivers may be configured to process messages in batches, where up to a maximum number of messages received within a time window are dispatched and
+ * committed in a single unit of work. If the listener implements {@link BatchMessageListener}, the batch is dispatched in one call. If dispatching any message
+ * in a batch fails, the entire batch is rolled back.
  */
 @Management
 public class AdaptiveMessageContainer {
@@ -71,6 +76,8 @@ public class AdaptiveMessageContainer {
     private int maxReceivers;
     private int idleLimit;
     private int maxMessagesToProcess;
+    private int batchSize;
+    private long batchTimeout;
     private String subscriptionId;
     private boolean localDelivery;
     private String messageSelector;
@@ -127,6 +134,8 @@ public class AdaptiveMessageContainer {
         backoffPeriod = configuration.getBackoffPeriod();
         setReceiveTimeout(receiveTimeout);
         setMaxMessagesToProcess(configuration.getMaxMessagesToProcess());
+        setBatchSize(configuration.getBatchSize());
+        setBatchTimeout(configuration.getBatchTimeout());
         setMaxReceivers(configuration.getMaxReceivers());
         setMinReceivers(configuration.getMinReceivers());
         setRecoveryInterval(configuration.getRecoveryInterval());
@@ -334,6 +343,58 @@ public class AdaptiveMessageContainer {
         }
     }
 
+    /**
+     * Sets the maximum number of messages received and committed in a single unit of work. The default is one.
+     *
+     * @param size the maximum number of messages per unit of work
+     */
+    @ManagementOperation(description = "The maximum number of messages received and committed in a single unit of work")
+    public void setBatchSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        synchronized (syncMonitor) {
+            batchSize = size;
+        }
+    }
+
+    /**
+     * Returns the maximum number of messages received and committed in a single unit of work.
+     *
+     * @return the maximum number of messages per unit of work
+     */
+    @ManagementOperation(description = "The maximum number of messages received and committed in a single unit of work")
+    public int getBatchSize() {
+        synchronized (syncMonitor) {
+            return batchSize;
+        }
+    }
+
+    /**
+     * Sets the time in milliseconds to wait for additional messages once the first message of a batch has been received. If 0, only messages immediately
+     * available are added to the batch.
+     *
+     * @param timeout the time to wait in milliseconds
+     */
+    @ManagementOperation(description = "The time to wait for additional messages once the first message of a batch has been received")
+    public void setBatchTimeout(long timeout) {
+        synchronized (syncMonitor) {
+            batchTimeout = timeout;
+        }
+    }
+
+    /**
+     * Returns the time in milliseconds to wait for additional messages once the first message of a batch has been received.
+     *
+     * @return the time to wait in milliseconds
+     */
+    @ManagementOperation(description = "The time to wait for additional messages once the first message of a batch has been received")
+    public long getBatchTimeout() {
+        synchronized (syncMonitor) {
+            return batchTimeout;
+        }
+    }
+
     /**
      * Returns if durable topic subscriptions will be used.
      *
@@ -424,6 +485,36 @@ public class AdaptiveMessageContainer {
         return statistics.getTransactionsRolledBack();
     }
 
+    @ManagementOperation(description = "The total number of committed batches")
+    public long getBatchesCommitted() {
+        return statistics.getBatchesCommitted();
+    }
+
+    @ManagementOperation(description = "The total number of rolled back batches")
+    public long getBatchesRolledBack() {
+        return statistics.getBatchesRolledBack();
+    }
+
+    @ManagementOperation(description = "The average number of messages in a committed batch")
+    public double getAverageBatchSize() {
+        return statistics.getAverageBatchSize();
+    }
+
+    @ManagementOperation(description = "The maximum number of messages in a committed batch")
+    public int getMaxBatchSize() {
+        return statistics.getMaxBatchSize();
+    }
+
+    @ManagementOperation(description = "The average time in milliseconds from receiving the first message of a batch to committing it")
+    public double getAverageFlushLatency() {
+        return statistics.getAverageFlushLatency();
+    }
+
+    @ManagementOperation(description = "The maximum time in milliseconds from receiving the first message of a batch to committing it")
+    public double getMaxFlushLatency() {
+        return statistics.getMaxFlushLatency();
+    }
+
     /**
      * Starts the container. Once started, messages will be received.
      *
@@ -793,17 +884,23 @@ public class AdaptiveMessageContainer {
         }
 
         /**
-         * Initiates a transaction context if required and performs the blocking receive on the JMS destination.
+         * Initiates a transaction context if required and performs the blocking receive on the JMS destination. If a message is received and batching is
+         * enabled, additional messages are received until the batch is full or the batch timeout expires. All messages are dispatched and committed in the
+         * same unit of work.
          *
          * @return true if a message was received
          * @throws JMSException     if a JMS-related exception occurred during the receive
          * @throws Fabric3Exception if a transaction exception occurred during thr receive
          */
         private boolean doReceive() throws JMSException, Fabric3Exception {
+            int maxBatch;
+            long batchWait;
             synchronized (syncMonitor) {
                 if (!isRunning()) {
                     return false;
                 }
+                maxBatch = batchSize;
+                batchWait = batchTimeout;
                 work.begin();
                 connection = connectionManager.getConnection();
             }
@@ -814,47 +911,105 @@ public class AdaptiveMessageContainer {
                 consumer = createConsumer(session);
             }
             // wait for a message, blocking for the timeout period, which, if 0, will be indefinitely
-            Message message = null;
+            Message message = receiveMessage(receiveTimeout);
+            if (message == null) {
+                idle = true;
+                work.end(session, null);
+                return false;
+            }
+            long batchStart = System.nanoTime();
+            List<Message> batch = maxBatch > 1 ? fillBatch(message, maxBatch, batchWait) : null;
+
+            if (!isRunning()) {
+                // container is shutting down.
+                work.rollback(session);
+                idle = true;
+                return false;
+            }
+
+            idle = false;
+            resizePool();
             try {
-                message = consumer.receive(receiveTimeout);
-            } catch (JMSException e) {
-                if (e.getCause() instanceof InterruptedException) {
-                    // some providers may throw an InterruptedException if the receiver is blocking when the runtime is signalled to shutdown
-                    // ignore the exception
+                Message last = message;
+                if (batch == null) {
+                    messageListener.onMessage(message);
                 } else {
-                    throw e;
+                    dispatch(batch);
+                    last = batch.get(batch.size() - 1);
                 }
+                int size = batch == null ? 1 : batch.size();
+                statistics.incrementMessagesReceived(size);
+                // the unit of work is completed with the last message, which for client acknowledgement acknowledges all messages in the batch
+                work.end(session, last);
+                statistics.batchCommitted(size, System.nanoTime() - batchStart);
+                return true;
+            } catch (InvocationRuntimeException e) {
+                // report original exception
+                monitor.receiveError(containerUri, e.getCause());
+                rollbackBatch();
+            } catch (RuntimeException | Error e) {
+                monitor.receiveError(containerUri, e);
+                rollbackBatch();
             }
-            if (message != null) {
-                if (!isRunning()) {
-                    // container is shutting down.
-                    work.rollback(session);
-                    idle = true;
-                    return false;
+            return false;
+        }
+
+        /**
+         * Receives additional messages until the batch size is reached or the batch timeout expires.
+         *
+         * @param first    the first message of the batch
+         * @param maxBatch the maximum batch size
+         * @param wait     the time in milliseconds to wait for additional messages
+         * @return the batch
+         * @throws JMSException if there was an error receiving a message
+         */
+        private List<Message> fillBatch(Message first, int maxBatch, long wait) throws JMSException {
+            List<Message> batch = new ArrayList<>(maxBatch);
+            batch.add(first);
+            long deadline = System.currentTimeMillis() + wait;
+            while (batch.size() < maxBatch && isRunning()) {
+                long remaining = deadline - System.currentTimeMillis();
+                Message message = remaining > 0 ? receiveMessage(remaining) : consumer.receiveNoWait();
+                if (message == null) {
+                    break;
                 }
+                batch.add(message);
+            }
+            return batch;
+        }
 
-                idle = false;
-                resizePool();
-                try {
+        /**
+         * Dispatches a batch to the listener, either as a single call if the listener supports batches or message by message.
+         *
+         * @param batch the batch
+         */
+        private void dispatch(List<Message> batch) {
+            if (messageListener instanceof BatchMessageListener) {
+                ((BatchMessageListener) messageListener).onMessages(batch);
+            } else {
+                for (Message message : batch) {
                     messageListener.onMessage(message);
-                    statistics.incrementMessagesReceived();
-                    work.end(session, message);
-                    return true;
-                } catch (InvocationRuntimeException e) {
-                    // report original exception
-                    monitor.receiveError(containerUri, e.getCause());
-                    work.rollback(session);
-                } catch (RuntimeException | Error e) {
-                    monitor.receiveError(containerUri, e);
-                    work.rollback(session);
                 }
-                return false;
-            } else {
-                idle = true;
-                work.end(session, message);
-                return false;
             }
+        }
+
+        private Message receiveMessage(long timeout) throws JMSException {
+            try {
+                return consumer.receive(timeout);
+            } catch (JMSException e) {
+                if (e.getCause() instanceof InterruptedException) {
+                    // some providers may throw an InterruptedException if the receiver is blocking when the runtime is signalled to shutdown
+                    // ignore the exception
+                    return null;
+                } else {
+                    throw e;
+                }
+            }
+        }
 
+        private void rollbackBatch() throws Fabric3Exception {
+            work.rollback(session);
+            statistics.batchRolledBack();
         }
 
         private void closeSession() {
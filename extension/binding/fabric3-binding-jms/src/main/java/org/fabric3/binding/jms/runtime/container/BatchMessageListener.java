@@ -0,0 +1,36 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.jms.runtime.container;
+
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import java.util.List;
+
+/**
+ * A listener that receives the messages of a batch as a single dispatch. When a container is configured with a batch size greater than one, listeners
+ * implementing this interface are passed all messages received in a unit of work; other listeners are passed each message in turn.
+ */
+public interface BatchMessageListener extends MessageListener {
+
+    /**
+     * Dispatches a batch of messages. If an exception is thrown, the unit of work for the entire batch is rolled back.
+     *
+     * @param messages the messages in the order they were received
+     */
+    void onMessages(List<Message> messages);
+
+}
@@ -47,6 +47,8 @@ public class ContainerConfiguration {
     private int receiveTimeout = -1;
 
     private int maxMessagesToProcess = -1;
+    private int batchSize = 1;
+    private long batchTimeout = 0;
     private long recoveryInterval = 5000;   // default 5 seconds
     private boolean durable;
     private boolean localDelivery;
@@ -184,6 +186,42 @@ public class ContainerConfiguration {
         this.maxMessagesToProcess = maxMessagesToProcess;
     }
 
+    /**
+     * Returns the maximum number of messages received and committed in a single unit of work.
+     *
+     * @return the maximum number of messages per unit of work
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of messages received and committed in a single unit of work.
+     *
+     * @param batchSize the maximum number of messages per unit of work
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Returns the time in milliseconds to wait for additional messages once the first message of a batch has been received.
+     *
+     * @return the time to wait in milliseconds
+     */
+    public long getBatchTimeout() {
+        return batchTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds to wait for additional messages once the first message of a batch has been received.
+     *
+     * @param batchTimeout the time to wait in milliseconds
+     */
+    public void setBatchTimeout(long batchTimeout) {
+        this.batchTimeout = batchTimeout;
+    }
+
     public long getRecoveryInterval() {
         return recoveryInterval;
     }
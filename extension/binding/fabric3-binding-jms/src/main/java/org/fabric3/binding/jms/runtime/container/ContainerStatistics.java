@@ -28,6 +28,12 @@ public class ContainerStatistics {
     private AtomicInteger maxReceivers = new AtomicInteger();
     private AtomicInteger transactions = new AtomicInteger();
     private AtomicInteger transactionsRolledBack = new AtomicInteger();
+    private AtomicLong batchesCommitted = new AtomicLong();
+    private AtomicLong batchesRolledBack = new AtomicLong();
+    private AtomicLong batchedMessages = new AtomicLong();
+    private AtomicInteger maxBatchSize = new AtomicInteger();
+    private AtomicLong flushLatency = new AtomicLong();
+    private AtomicLong maxFlushLatency = new AtomicLong();
 
     public ContainerStatistics() {
         start = System.currentTimeMillis();
@@ -68,4 +74,68 @@ public class ContainerStatistics {
     public void incrementTransactionsRolledBack() {
         transactionsRolledBack.incrementAndGet();
     }
-}
\ No newline at end of file
+
+    public void incrementMessagesReceived(int count) {
+        messagesReceived.addAndGet(count);
+    }
+
+    /**
+     * Records a committed batch.
+     *
+     * @param size    the number of messages in the batch
+     * @param latency the time in nanoseconds between receipt of the first message and completion of the commit
+     */
+    public void batchCommitted(int size, long latency) {
+        batchesCommitted.incrementAndGet();
+        batchedMessages.addAndGet(size);
+        flushLatency.addAndGet(latency);
+        maxBatchSize.accumulateAndGet(size, Math::max);
+        maxFlushLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    public void batchRolledBack() {
+        batchesRolledBack.incrementAndGet();
+    }
+
+    public long getBatchesCommitted() {
+        return batchesCommitted.get();
+    }
+
+    public long getBatchesRolledBack() {
+        return batchesRolledBack.get();
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    /**
+     * Returns the average number of messages in a committed batch.
+     *
+     * @return the average batch size
+     */
+    public double getAverageBatchSize() {
+        long batches = batchesCommitted.get();
+        return batches == 0 ? 0 : (double) batchedMessages.get() / batches;
+    }
+
+    /**
+     * Returns the average time in milliseconds between receipt of the first message of a batch and completion of its commit.
+     *
+     * @return the average flush latency
+     */
+    public double getAverageFlushLatency() {
+        long batches = batchesCommitted.get();
+        return batches == 0 ? 0 : flushLatency.get() / (batches * 1000000d);
+    }
+
+    /**
+     * Returns the maximum time in milliseconds between receipt of the first message of a batch and completion of its commit.
+     *
+     * @return the maximum flush latency
+     */
+    public double getMaxFlushLatency() {
+        return maxFlushLatency.get() / 1000000d;
+    }
+
+}
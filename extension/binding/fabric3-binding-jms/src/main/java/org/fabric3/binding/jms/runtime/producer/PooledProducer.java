@@ -0,0 +1,67 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.producer;
+
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.fabric3.binding.jms.runtime.common.JmsHelper;
+
+/**
+ * A session and message producer leased from a {@link ProducerPool}.
+ */
+public class PooledProducer {
+    private Session session;
+    private MessageProducer producer;
+    private int generation;
+
+    /**
+     * Constructor.
+     *
+     * @param session    the session the producer was created with
+     * @param producer   the producer
+     * @param generation the pool connection generation the session was created in
+     */
+    public PooledProducer(Session session, MessageProducer producer, int generation) {
+        this.session = session;
+        this.producer = producer;
+        this.generation = generation;
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    public MessageProducer getProducer() {
+        return producer;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Closes the session and producer.
+     */
+    public void close() {
+        JmsHelper.closeQuietly(session);
+    }
+
+}
@@ -0,0 +1,313 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.producer;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.fabric3.api.annotation.management.Management;
+import org.fabric3.api.annotation.management.ManagementOperation;
+import org.fabric3.binding.jms.runtime.common.JmsHelper;
+import org.fabric3.binding.jms.spi.runtime.connection.ConnectionMonitor;
+
+/**
+ * A bounded pool of sessions and message producers for a destination. Sessions and producers are created on a single shared connection, which is
+ * thread-safe per the JMS specification. Sessions and producers are not thread-safe and are therefore leased to a single thread at a time. Pooled sessions
+ * are not transacted: XA-aware connection factories enlist a session with the transaction active when it is created, so a transacted session cannot be
+ * reused across global transactions.
+ *
+ * If the JMS provider reports a connection failure through an {@link ExceptionListener} or a leased producer is invalidated after a send error, the shared
+ * connection and all pooled producers are discarded. Producers leased at the time of the failure are closed when they are returned to the pool.
+ */
+@Management
+public class ProducerPool implements ExceptionListener {
+    private ConnectionFactory connectionFactory;
+    private Destination destination;
+    private int maxSize;
+    private long timeout;
+    private ConnectionMonitor monitor;
+
+    private Semaphore permits;
+    private BlockingDeque<PooledProducer> idle = new LinkedBlockingDeque<>();
+
+    private final Object sync = new Object();
+    private Connection connection;
+    private volatile int generation;
+    private volatile boolean closed;
+
+    private AtomicLong hits = new AtomicLong();
+    private AtomicLong misses = new AtomicLong();
+    private AtomicLong waits = new AtomicLong();
+    private AtomicLong waitTime = new AtomicLong();
+    private AtomicLong timeouts = new AtomicLong();
+    private AtomicLong evictions = new AtomicLong();
+    private AtomicInteger active = new AtomicInteger();
+
+    /**
+     * Constructor.
+     *
+     * @param connectionFactory the connection factory used to create the shared connection
+     * @param destination       the destination producers are created for
+     * @param maxSize           the maximum number of producers leased or idle at any time
+     * @param timeout           the time in milliseconds to wait for a producer if the pool is exhausted
+     * @param monitor           the monitor for reporting connection errors
+     */
+    public ProducerPool(ConnectionFactory connectionFactory,
+                        Destination destination,
+                        int maxSize,
+                        long timeout,
+                        ConnectionMonitor monitor) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum pool size must be greater than 0");
+        }
+        this.connectionFactory = connectionFactory;
+        this.destination = destination;
+        this.maxSize = maxSize;
+        this.timeout = timeout;
+        this.monitor = monitor;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Leases a producer from the pool, creating one if no idle producers are available. If the pool is exhausted, this method blocks until a producer is
+     * returned or the pool timeout expires. The producer must be returned using {@link #release(PooledProducer)} or {@link #invalidate(PooledProducer)}.
+     *
+     * @return the producer
+     * @throws JMSException if the pool timeout expires or an error creating the producer is encountered
+     */
+    public PooledProducer borrow() throws JMSException {
+        if (closed) {
+            throw new javax.jms.IllegalStateException("Producer pool is closed");
+        }
+        acquire();
+        try {
+            PooledProducer producer;
+            while ((producer = idle.pollFirst()) != null) {
+                if (producer.getGeneration() == generation) {
+                    hits.incrementAndGet();
+                    active.incrementAndGet();
+                    return producer;
+                }
+                // created on a connection that has since been reset
+                producer.close();
+            }
+            misses.incrementAndGet();
+            producer = create();
+            active.incrementAndGet();
+            return producer;
+        } catch (JMSException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a producer to the pool.
+     *
+     * @param producer the producer
+     */
+    public void release(PooledProducer producer) {
+        active.decrementAndGet();
+        if (closed || producer.getGeneration() != generation) {
+            producer.close();
+        } else {
+            idle.offerFirst(producer);
+        }
+        permits.release();
+    }
+
+    /**
+     * Discards a producer after an error was encountered using it. Since the error may be caused by a broken connection, the shared connection and all
+     * pooled producers are discarded as well.
+     *
+     * @param producer the producer
+     */
+    public void invalidate(PooledProducer producer) {
+        active.decrementAndGet();
+        producer.close();
+        reset(producer.getGeneration());
+        permits.release();
+    }
+
+    /**
+     * Closes the pool and the shared connection.
+     */
+    public void close() {
+        closed = true;
+        synchronized (sync) {
+            generation++;
+            closeIdle();
+            JmsHelper.closeQuietly(connection);
+            connection = null;
+        }
+    }
+
+    /**
+     * Callback for connection errors reported by the JMS provider.
+     *
+     * @param exception the error
+     */
+    public void onException(JMSException exception) {
+        monitor.error(exception);
+        reset(generation);
+    }
+
+    @ManagementOperation(description = "The maximum number of producers in the pool")
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @ManagementOperation(description = "The time in milliseconds to wait for a producer when the pool is exhausted")
+    public long getTimeout() {
+        return timeout;
+    }
+
+    @ManagementOperation(description = "The number of producers currently leased")
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    @ManagementOperation(description = "The number of idle producers in the pool")
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    @ManagementOperation(description = "The number of leases satisfied by an idle producer")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagementOperation(description = "The number of leases that required a new producer to be created")
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @ManagementOperation(description = "The number of leases that waited for a producer to be returned")
+    public long getWaits() {
+        return waits.get();
+    }
+
+    @ManagementOperation(description = "The total time in milliseconds spent waiting for a producer")
+    public long getWaitTime() {
+        return waitTime.get();
+    }
+
+    @ManagementOperation(description = "The number of leases that timed out waiting for a producer")
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    @ManagementOperation(description = "The number of times the pool was evicted because of a connection error")
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private void acquire() throws JMSException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        waits.incrementAndGet();
+        long start = System.currentTimeMillis();
+        try {
+            boolean acquired = permits.tryAcquire(timeout, TimeUnit.MILLISECONDS);
+            waitTime.addAndGet(System.currentTimeMillis() - start);
+            if (!acquired) {
+                timeouts.incrementAndGet();
+                throw new JMSException("Timeout waiting for a producer to destination: " + destination);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JMSException("Interrupted waiting for a producer to destination: " + destination);
+        }
+    }
+
+    private PooledProducer create() throws JMSException {
+        Connection current;
+        int currentGeneration;
+        synchronized (sync) {
+            if (connection == null) {
+                connection = createConnection();
+            }
+            current = connection;
+            currentGeneration = generation;
+        }
+        Session session = null;
+        try {
+            session = current.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageProducer producer = session.createProducer(destination);
+            return new PooledProducer(session, producer, currentGeneration);
+        } catch (JMSException | RuntimeException e) {
+            JmsHelper.closeQuietly(session);
+            reset(currentGeneration);
+            throw e;
+        }
+    }
+
+    private Connection createConnection() throws JMSException {
+        Connection created = connectionFactory.createConnection();
+        try {
+            created.setExceptionListener(this);
+        } catch (JMSException e) {
+            // the provider or a connection proxy does not allow a listener to be set; rely on invalidation after send errors
+        }
+        // the connection must be started since pooled sessions may be used to receive responses
+        created.start();
+        return created;
+    }
+
+    /**
+     * Discards the shared connection and idle producers if they belong to the given generation. Producers created for a previous generation are closed
+     * when they are returned.
+     *
+     * @param failedGeneration the generation the failure was detected in
+     */
+    private void reset(int failedGeneration) {
+        synchronized (sync) {
+            if (failedGeneration != generation) {
+                // already reset
+                return;
+            }
+            generation++;
+            evictions.incrementAndGet();
+            closeIdle();
+            JmsHelper.closeQuietly(connection);
+            connection = null;
+        }
+    }
+
+    private void closeIdle() {
+        PooledProducer producer;
+        while ((producer = idle.pollFirst()) != null) {
+            producer.close();
+        }
+    }
+
+}
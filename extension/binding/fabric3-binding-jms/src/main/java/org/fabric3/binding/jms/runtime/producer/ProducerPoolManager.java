@@ -0,0 +1,55 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.producer;
+
+import javax.jms.ConnectionFactory;
+import java.net.URI;
+
+import org.fabric3.api.binding.jms.model.JmsBindingMetadata;
+import org.fabric3.api.host.Fabric3Exception;
+
+/**
+ * Manages producer pools shared by references and channel producers that dispatch to the same destination using the same connection factory.
+ */
+public interface ProducerPoolManager {
+
+    /**
+     * Returns the producer pool for a connection factory and destination, creating one if it does not exist. Each call must be matched by a call to {@link
+     * #release(URI, JmsBindingMetadata)}.
+     *
+     * @param uri         the URI of the reference or producer the pool is obtained for
+     * @param metadata    the binding metadata containing the destination definition and pool sizing
+     * @param factory     the resolved connection factory
+     * @param destination the resolved destination
+     * @return the pool
+     * @throws Fabric3Exception if there is an error creating the pool or the pool sizing conflicts with the sizing of an existing pool for the destination
+     */
+    ProducerPool getPool(URI uri, JmsBindingMetadata metadata, ConnectionFactory factory, javax.jms.Destination destination) throws Fabric3Exception;
+
+    /**
+     * Releases the pool obtained for a reference or producer. The pool is closed when it is no longer referenced.
+     *
+     * @param uri      the URI of the reference or producer the pool was obtained for
+     * @param metadata the binding metadata the pool was obtained for
+     * @throws Fabric3Exception if there is an error releasing the pool
+     */
+    void release(URI uri, JmsBindingMetadata metadata) throws Fabric3Exception;
+
+}
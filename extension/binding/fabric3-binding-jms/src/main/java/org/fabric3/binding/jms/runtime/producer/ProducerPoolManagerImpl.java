@@ -0,0 +1,156 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.producer;
+
+import javax.jms.ConnectionFactory;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.fabric3.api.annotation.monitor.Monitor;
+import org.fabric3.api.binding.jms.model.JmsBindingMetadata;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.binding.jms.spi.runtime.connection.ConnectionMonitor;
+import org.fabric3.spi.management.ManagementService;
+import org.oasisopen.sca.annotation.Destroy;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Default producer pool manager. Pools are keyed by connection factory instance and destination name, since unnamed connection factories and factories
+ * created from templates are distinct per binding. Pools are reference counted so that they are closed when the last wire or channel connection using them
+ * is detached.
+ */
+public class ProducerPoolManagerImpl implements ProducerPoolManager {
+    private ManagementService managementService;
+    private ConnectionMonitor monitor;
+
+    private final Map<Key, Holder> pools = new HashMap<>();
+    private final Map<String, Key> leases = new HashMap<>();
+
+    public ProducerPoolManagerImpl(@Reference ManagementService managementService, @Monitor ConnectionMonitor monitor) {
+        this.managementService = managementService;
+        this.monitor = monitor;
+    }
+
+    @Destroy
+    public void destroy() {
+        synchronized (pools) {
+            for (Holder holder : pools.values()) {
+                holder.pool.close();
+                managementService.remove(holder.name, "JMS/producer pools");
+            }
+            pools.clear();
+            leases.clear();
+        }
+    }
+
+    public ProducerPool getPool(URI uri, JmsBindingMetadata metadata, ConnectionFactory factory, javax.jms.Destination destination) throws Fabric3Exception {
+        String destinationName = metadata.getDestination().getName();
+        Key key = new Key(factory, destinationName);
+        int size = metadata.getMaxProducers();
+        long timeout = metadata.getProducerTimeout();
+        synchronized (pools) {
+            Holder holder = pools.get(key);
+            if (holder == null) {
+                ProducerPool pool = new ProducerPool(factory, destination, size, timeout, monitor);
+                String name = encodeName(metadata.getConnectionFactory().getName(), factory, destinationName);
+                holder = new Holder(pool, name);
+                pools.put(key, holder);
+                managementService.export(name, "JMS/producer pools", "JMS producer pool", pool);
+            } else if (holder.pool.getMaxSize() != size || holder.pool.getTimeout() != timeout) {
+                throw new Fabric3Exception("Producer pool configuration for destination " + destinationName + " conflicts with the configuration of another binding "
+                                           + "using the same connection factory. Maximum producers: " + size + "/" + holder.pool.getMaxSize() + ", producer timeout: "
+                                           + timeout + "/" + holder.pool.getTimeout());
+            }
+            holder.count++;
+            leases.put(getLeaseId(uri, metadata), key);
+            return holder.pool;
+        }
+    }
+
+    public void release(URI uri, JmsBindingMetadata metadata) throws Fabric3Exception {
+        synchronized (pools) {
+            Key key = leases.remove(getLeaseId(uri, metadata));
+            if (key == null) {
+                return;
+            }
+            Holder holder = pools.get(key);
+            if (holder == null) {
+                return;
+            }
+            holder.count--;
+            if (holder.count <= 0) {
+                pools.remove(key);
+                holder.pool.close();
+                managementService.remove(holder.name, "JMS/producer pools");
+            }
+        }
+    }
+
+    private String getLeaseId(URI uri, JmsBindingMetadata metadata) {
+        // a reference or producer may have bindings to more than one destination
+        return uri + "/" + metadata.getDestination().getName();
+    }
+
+    private String encodeName(String factoryName, ConnectionFactory factory, String destinationName) {
+        if (factoryName == null) {
+            // unnamed factories are distinguished by instance
+            factoryName = "factory" + System.identityHashCode(factory);
+        }
+        return "transports/jms/producers/" + (factoryName + "/" + destinationName).toLowerCase();
+    }
+
+    private static class Key {
+        private ConnectionFactory factory;
+        private String destinationName;
+
+        public Key(ConnectionFactory factory, String destinationName) {
+            this.factory = factory;
+            this.destinationName = destinationName;
+        }
+
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return factory == other.factory && destinationName.equals(other.destinationName);
+        }
+
+        public int hashCode() {
+            return 31 * System.identityHashCode(factory) + destinationName.hashCode();
+        }
+    }
+
+    private static class Holder {
+        private ProducerPool pool;
+        private String name;
+        private int count;
+
+        public Holder(ProducerPool pool, String name) {
+            this.pool = pool;
+            this.name = name;
+        }
+    }
+
+}
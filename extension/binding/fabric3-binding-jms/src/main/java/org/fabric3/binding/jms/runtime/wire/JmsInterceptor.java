@@ -42,6 +42,9 @@ import java.util.UUID;
 import org.fabric3.api.binding.jms.model.CorrelationScheme;
 import org.fabric3.binding.jms.runtime.common.JmsHelper;
 import org.fabric3.binding.jms.runtime.common.JmsRuntimeConstants;
+import org.fabric3.binding.jms.runtime.producer.PooledProducer;
+import org.fabric3.binding.jms.runtime.producer.ProducerPool;
+import org.fabric3.binding.jms.runtime.wire.ResponseListener.PendingResponse;
 import org.fabric3.binding.jms.spi.provision.OperationPayloadTypes;
 import org.fabric3.binding.jms.spi.provision.SessionType;
 import org.fabric3.spi.container.binding.BindingHandler;
@@ -62,10 +65,11 @@ public class JmsInterceptor implements Interceptor {
     private Interceptor next;
     private String methodName;
     private OperationPayloadTypes payloadTypes;
-    private Destination destination;
     private Destination callbackDestination;
     private String callbackUri;
     private ConnectionFactory connectionFactory;
+    private Destination destination;
+    private ProducerPool producerPool;
     private CorrelationScheme correlationScheme;
     private ResponseListener responseListener;
     private ClassLoader classLoader;
@@ -73,9 +77,9 @@ public class JmsInterceptor implements Interceptor {
     private SessionType sessionType;
     private TransactionManager tm;
     private long responseTimeout;
-    private boolean persistent;
-    private int deliveryMode;
-    private long timeToLive;
+    private int sendDeliveryMode;
+    private long sendTimeToLive;
+    private int sendPriority;
     private String jmsType;
     private int priority;
     private Map<String, String> properties;
@@ -89,24 +93,28 @@ public class JmsInterceptor implements Interceptor {
      */
     public JmsInterceptor(InterceptorConfiguration configuration, List<BindingHandler<javax.jms.Message>> handlers) {
         WireConfiguration wireConfig = configuration.getWireConfiguration();
-        this.destination = wireConfig.getRequestDestination();
         this.callbackDestination = wireConfig.getCallbackDestination();
         this.callbackUri = wireConfig.getCallbackUri();
         this.connectionFactory = wireConfig.getRequestConnectionFactory();
+        this.destination = wireConfig.getRequestDestination();
+        this.producerPool = wireConfig.getProducerPool();
         this.correlationScheme = wireConfig.getCorrelationScheme();
         this.classLoader = wireConfig.getClassloader();
         this.responseListener = wireConfig.getResponseListener();
         this.tm = wireConfig.getTransactionManager();
         this.sessionType = wireConfig.getSessionType();
         this.responseTimeout = wireConfig.getResponseTimeout();
-        this.persistent = wireConfig.isPersistent();
         this.oneWay = configuration.isOneWay();
         this.methodName = configuration.getOperationName();
         this.payloadTypes = configuration.getPayloadTypes();
-        this.deliveryMode = configuration.getDeliveryMode();
-        this.timeToLive = configuration.getTimeToLive();
         this.jmsType = configuration.getJmsType();
         this.priority = configuration.getPriority();
+        boolean persistent = wireConfig.isPersistent();
+        int deliveryMode = configuration.getDeliveryMode();
+        long timeToLive = configuration.getTimeToLive();
+        this.sendDeliveryMode = !persistent || DeliveryMode.NON_PERSISTENT == deliveryMode ? DeliveryMode.NON_PERSISTENT : DeliveryMode.PERSISTENT;
+        this.sendTimeToLive = timeToLive >= 0 ? timeToLive : javax.jms.Message.DEFAULT_TIME_TO_LIVE;
+        this.sendPriority = priority >= 0 ? priority : javax.jms.Message.DEFAULT_PRIORITY;
         this.properties = configuration.getProperties();
         this.handlers = handlers;
 
@@ -114,14 +122,13 @@ public class JmsInterceptor implements Interceptor {
 
     public Message invoke(Message message) {
         Connection connection = null;
-        Session session = null;
+        PooledProducer pooled = null;
+        boolean failed = false;
         ClassLoader oldCl = Thread.currentThread().getContextClassLoader();
         try {
             // set the context classloader to the one that loaded the connection factory implementation.
             // this is required by some JMS providers
             Thread.currentThread().setContextClassLoader(connectionFactory.getClass().getClassLoader());
-            connection = connectionFactory.createConnection();
-            connection.start();
             int status = tm.getStatus();
             Transaction suspended = null;
             boolean begun = false;
@@ -132,45 +139,63 @@ public class JmsInterceptor implements Interceptor {
                 suspended = tm.suspend();
             }
 
+            Session session;
+            MessageProducer producer;
             if (SessionType.GLOBAL_TRANSACTED == sessionType) {
+                // XA-aware connection factories enlist a session with the transaction active when it is created, so it cannot be pooled
+                connection = connectionFactory.createConnection();
+                connection.start();
                 session = connection.createSession(true, Session.SESSION_TRANSACTED);
+                producer = session.createProducer(destination);
             } else {
-                session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            }
-
-            MessageProducer producer = session.createProducer(destination);
-
-            if (!persistent || DeliveryMode.NON_PERSISTENT == deliveryMode) {
-                producer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
-            }
-
-            if (timeToLive >= 0) {
-                producer.setTimeToLive(timeToLive);
+                pooled = producerPool.borrow();
+                session = pooled.getSession();
+                producer = pooled.getProducer();
             }
 
             javax.jms.Message jmsMessage = createMessage(message, session);
             setHeaders(jmsMessage);
             String correlationId = null;
+            PendingResponse pending = null;
+            if (!oneWay && responseListener.isCorrelated()) {
+                // route the reply to the listener consumer for this runtime
+                jmsMessage.setStringProperty(JmsRuntimeConstants.RESPONSE_ROUTE_HEADER, responseListener.getRoute());
+            }
             if (correlationScheme == CorrelationScheme.CORRELATION_ID) {
-                correlationId = UUID.randomUUID().toString();
+                correlationId = oneWay ? UUID.randomUUID().toString() : responseListener.createCorrelationId();
                 jmsMessage.setJMSCorrelationID(correlationId);
+                if (!oneWay) {
+                    // register before sending so the reply cannot arrive unclaimed
+                    pending = responseListener.register(correlationId, responseTimeout);
+                }
             }
 
             // apply any handlers
             applyHandlers(message, jmsMessage);
 
-            // enqueue the message            
-            producer.send(jmsMessage);
+            // enqueue the message; send parameters are passed explicitly since the producer is shared with other operations
+            try {
+                producer.send(jmsMessage, sendDeliveryMode, sendPriority, sendTimeToLive);
+            } catch (JMSException e) {
+                failed = true;
+                if (pending != null) {
+                    responseListener.cancel(pending);
+                }
+                throw e;
+            }
 
             // if the correlation scheme is configured to use the message id, the correlation id must set after the message is sent since the
             // JMS provider may not have set it
             if (correlationScheme == CorrelationScheme.MESSAGE_ID) {
                 correlationId = jmsMessage.getJMSMessageID();
+                if (!oneWay) {
+                    pending = responseListener.register(correlationId, responseTimeout);
+                }
             }
 
             if (!oneWay) {
                 // request-response, block on response
-                Message resp = receive(correlationId, session, message);
+                Message resp = receive(correlationId, pending, session, message);
                 if (begun) {
                     tm.commit();
                 }
@@ -196,7 +221,13 @@ public class JmsInterceptor implements Interceptor {
         } catch (SystemException | RollbackException | HeuristicRollbackException | HeuristicMixedException | NotSupportedException e) {
             throw new ServiceRuntimeException(e);
         } finally {
-            JmsHelper.closeQuietly(session);
+            if (pooled != null) {
+                if (failed) {
+                    producerPool.invalidate(pooled);
+                } else {
+                    producerPool.release(pooled);
+                }
+            }
             JmsHelper.closeQuietly(connection);
             Thread.currentThread().setContextClassLoader(oldCl);
         }
@@ -214,14 +245,20 @@ public class JmsInterceptor implements Interceptor {
      * Blocks waiting for a response message from the service provider.
      *
      * @param correlationId the id for correlating the response message
-     * @param session       the session to perform the receive in
+     * @param pending       the pending response registered with the response listener or null if the correlation scheme is none
+     * @param session       the session to perform the receive in if the correlation scheme is none
      * @param message       the current message
      * @return the response message
      * @throws JMSException           if an error occurs in the JMS provider waiting for or processing the response
      * @throws JmsBadMessageException if an unrecoverable error such as a bad message type occurs waiting for or processing the response
      */
-    private Message receive(String correlationId, Session session, Message message) throws JMSException, JmsBadMessageException {
-        javax.jms.Message resultMessage = responseListener.receive(correlationId, session, responseTimeout);
+    private Message receive(String correlationId, PendingResponse pending, Session session, Message message) throws JMSException, JmsBadMessageException {
+        javax.jms.Message resultMessage;
+        if (pending != null) {
+            resultMessage = responseListener.await(pending);
+        } else {
+            resultMessage = responseListener.receive(session, responseTimeout);
+        }
         if (resultMessage == null) {
             throw new ServiceUnavailableException("Timeout waiting for response to message: " + correlationId);
         }
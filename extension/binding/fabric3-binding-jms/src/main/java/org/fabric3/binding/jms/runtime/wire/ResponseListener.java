@@ -19,31 +19,88 @@
  */
 package org.fabric3.binding.jms.runtime.wire;
 
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
+import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
 import javax.jms.Session;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.fabric3.api.binding.jms.model.CorrelationScheme;
+import org.fabric3.binding.jms.runtime.common.JmsHelper;
+import org.fabric3.binding.jms.runtime.common.JmsRuntimeConstants;
+import org.fabric3.binding.jms.runtime.common.TimeoutWheel;
+import org.fabric3.binding.jms.spi.runtime.connection.ConnectionMonitor;
 import org.oasisopen.sca.ServiceRuntimeException;
 
 /**
- * MessageListener that blocks for responses from a service provider. This listener is attached to the reference side of a wire.
+ * Receives responses from service providers for request-response operations. This listener is attached to the reference side of a wire.
+ *
+ * A single long-lived consumer is registered for the response destination and replies are demultiplexed to waiting callers by correlation id. The consumer
+ * selects only replies for requests sent through this listener: correlation ids generated by the listener share a unique prefix and, for the message id
+ * scheme, requests carry a route header that Fabric3 services echo on the reply. Replies that arrive before the caller registers and callers that are not
+ * answered are expired by a shared {@link TimeoutWheel}.
+ *
+ * Services that are not implemented with Fabric3 do not echo the route header. Since the shared consumer cannot tell which runtime sent the request for such
+ * a reply, bindings to such services must enable route-less responses, in which case callers using the message id scheme receive replies through a consumer
+ * selecting the message id of their request.
+ *
+ * If the correlation scheme is {@link CorrelationScheme#NONE}, replies cannot be demultiplexed and a consumer is created per receive.
  */
-public class ResponseListener {
+public class ResponseListener implements MessageListener, ExceptionListener {
+    private static final long UNCLAIMED_TIMEOUT = 60000;
+
     private Destination destination;
     private CorrelationScheme scheme;
+    private boolean routeless;
+    private ConnectionFactory connectionFactory;
+    private TimeoutWheel wheel;
+    private ConnectionMonitor monitor;
+
+    private String route;
+    private AtomicLong sequence = new AtomicLong();
+    private ConcurrentMap<String, PendingResponse> pending = new ConcurrentHashMap<>();
+
+    private final Object sync = new Object();
+    private Connection connection;
+    private Session session;
+    private MessageConsumer consumer;
+    private volatile boolean started;
 
     /**
      * Constructor.
      *
-     * @param destination the response destination
-     * @param scheme      the correlation scheme
+     * @param destination       the response destination
+     * @param scheme            the correlation scheme
+     * @param routeless         true if replies correlated by message id may not carry the route header
+     * @param connectionFactory the connection factory used to create the response consumer
+     * @param wheel             the wheel for expiring pending responses
+     * @param monitor           the monitor for reporting connection errors
      */
-    public ResponseListener(Destination destination, CorrelationScheme scheme) {
+    public ResponseListener(Destination destination,
+                            CorrelationScheme scheme,
+                            boolean routeless,
+                            ConnectionFactory connectionFactory,
+                            TimeoutWheel wheel,
+                            ConnectionMonitor monitor) {
         this.destination = destination;
         this.scheme = scheme;
+        this.routeless = routeless;
+        this.connectionFactory = connectionFactory;
+        this.wheel = wheel;
+        this.monitor = monitor;
+        this.route = UUID.randomUUID().toString();
     }
 
     /**
@@ -56,28 +113,233 @@ public class ResponseListener {
     }
 
     /**
-     * Performs a blocking receive, i.e. control will not be returned to application code until a response is received.
+     * Returns true if replies are demultiplexed by correlation id.
+     *
+     * @return true if replies are demultiplexed by correlation id
+     */
+    public boolean isCorrelated() {
+        return CorrelationScheme.MESSAGE_ID == scheme || CorrelationScheme.CORRELATION_ID == scheme;
+    }
+
+    /**
+     * Returns the value of the route header requests must carry so that replies are selected by this listener.
+     *
+     * @return the route
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * Creates a correlation id selected by this listener for use with the {@link CorrelationScheme#CORRELATION_ID} scheme.
+     *
+     * @return the correlation id
+     */
+    public String createCorrelationId() {
+        return route + ":" + sequence.incrementAndGet();
+    }
+
+    /**
+     * Registers a caller waiting for a reply. Callers may register before or after the request is sent; a reply received before registration is retained
+     * until it is claimed or expires.
      *
-     * @param correlationId Correlation id
-     * @param session       the session to use for processing
-     * @param timeout       the receive timeout
+     * @param correlationId the correlation id
+     * @param timeout       the time in milliseconds to wait for the reply
+     * @return the pending response
+     */
+    public PendingResponse register(String correlationId, long timeout) {
+        start();
+        PendingResponse response = pending.computeIfAbsent(correlationId, id -> new PendingResponse(id, timeout));
+        if (routeless && CorrelationScheme.MESSAGE_ID == scheme) {
+            response.listen();
+        }
+        return response;
+    }
+
+    /**
+     * Blocks until the reply for a registered caller is received or the timeout expires.
+     *
+     * @param response the pending response
      * @return the received message or null if the operation timed out.
      */
-    public Message receive(String correlationId, Session session, long timeout) {
+    public Message await(PendingResponse response) {
         try {
-            MessageConsumer consumer;
-            if (CorrelationScheme.MESSAGE_ID == scheme || CorrelationScheme.CORRELATION_ID == scheme) {
-                String selector = "JMSCorrelationID = '" + correlationId + "'";
-                consumer = session.createConsumer(destination, selector);
-            } else {
-                consumer = session.createConsumer(destination);
-            }
-            return consumer.receive(timeout);
+            // the wheel completes the response on timeout; the bounded wait guards against a stalled wheel
+            long bound = response.timeout + 2 * wheel.getTickDuration();
+            return response.future.get(bound, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceRuntimeException("Interrupted waiting for response for message with correlation id: " + response.correlationId, e);
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        } finally {
+            response.release();
+        }
+    }
+
+    /**
+     * Cancels a registered caller, for example if the request could not be sent.
+     *
+     * @param response the pending response
+     */
+    public void cancel(PendingResponse response) {
+        response.release();
+    }
+
+    /**
+     * Performs a blocking receive using a consumer created for the receive. Used when the correlation scheme is {@link CorrelationScheme#NONE}.
+     *
+     * @param session the session to use for processing
+     * @param timeout the receive timeout
+     * @return the received message or null if the operation timed out.
+     */
+    public Message receive(Session session, long timeout) {
+        MessageConsumer uncorrelated = null;
+        try {
+            uncorrelated = session.createConsumer(destination);
+            return uncorrelated.receive(timeout);
         } catch (JMSException e) {
             // bubble exception to the client
-            throw new ServiceRuntimeException("Unable to receive response for message with correlation id: " + correlationId, e);
+            throw new ServiceRuntimeException("Unable to receive response", e);
+        } finally {
+            JmsHelper.closeQuietly(uncorrelated);
         }
+    }
 
+    public void onMessage(Message message) {
+        try {
+            String correlationId = message.getJMSCorrelationID();
+            if (correlationId == null) {
+                return;
+            }
+            // the reply may arrive before the caller has registered, in which case it is retained until claimed or expired
+            PendingResponse response = pending.computeIfAbsent(correlationId, id -> new PendingResponse(id, UNCLAIMED_TIMEOUT));
+            response.future.complete(message);
+        } catch (JMSException e) {
+            monitor.error(e);
+        }
+    }
+
+    public void onException(JMSException exception) {
+        monitor.error(exception);
+        synchronized (sync) {
+            close();
+        }
+        // callers waiting on replies will time out; the consumer is re-created by the next registration
+    }
+
+    /**
+     * Starts the response consumer if it is not running.
+     */
+    public void start() {
+        if (started || !isCorrelated()) {
+            return;
+        }
+        synchronized (sync) {
+            if (started) {
+                return;
+            }
+            ClassLoader oldCl = Thread.currentThread().getContextClassLoader();
+            try {
+                // set the context classloader to the one that loaded the connection factory implementation.
+                // this is required by some JMS providers
+                Thread.currentThread().setContextClassLoader(connectionFactory.getClass().getClassLoader());
+                connection = connectionFactory.createConnection();
+                try {
+                    connection.setExceptionListener(this);
+                } catch (JMSException e) {
+                    // the provider or a connection proxy does not allow a listener to be set
+                }
+                session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                consumer = session.createConsumer(destination, createSelector());
+                consumer.setMessageListener(this);
+                connection.start();
+                started = true;
+            } catch (JMSException e) {
+                close();
+                throw new ServiceRuntimeException("Unable to create response consumer for destination: " + destination, e);
+            } finally {
+                Thread.currentThread().setContextClassLoader(oldCl);
+            }
+        }
+    }
+
+    /**
+     * Stops the response consumer. Callers waiting for replies will time out.
+     */
+    public void stop() {
+        synchronized (sync) {
+            close();
+        }
+    }
+
+    private String createSelector() {
+        if (CorrelationScheme.CORRELATION_ID == scheme) {
+            return "JMSCorrelationID LIKE '" + route + ":%'";
+        }
+        // if enabled, replies from services that do not echo the route header are received by a consumer per request
+        return JmsRuntimeConstants.RESPONSE_ROUTE_HEADER + " = '" + route + "'";
+    }
+
+    private void close() {
+        started = false;
+        JmsHelper.closeQuietly(consumer);
+        JmsHelper.closeQuietly(session);
+        JmsHelper.closeQuietly(connection);
+        consumer = null;
+        session = null;
+        connection = null;
+    }
+
+    /**
+     * A caller waiting for a reply, or a reply waiting to be claimed.
+     */
+    public class PendingResponse {
+        private String correlationId;
+        private long timeout;
+        private CompletableFuture<Message> future = new CompletableFuture<>();
+        private TimeoutWheel.Timeout expiration;
+        private Session callSession;
+
+        private PendingResponse(String correlationId, long timeout) {
+            this.correlationId = correlationId;
+            this.timeout = timeout;
+            this.expiration = wheel.schedule(this::expire, timeout);
+        }
+
+        /**
+         * Creates a consumer for a reply to the request with the message id of this response that does not carry a route header.
+         */
+        private void listen() {
+            Connection current;
+            synchronized (sync) {
+                current = connection;
+            }
+            if (current == null) {
+                release();
+                throw new ServiceRuntimeException("Response consumer is not available for destination: " + destination);
+            }
+            try {
+                callSession = current.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                String selector = "JMSCorrelationID = '" + correlationId + "' AND " + JmsRuntimeConstants.RESPONSE_ROUTE_HEADER + " IS NULL";
+                MessageConsumer callConsumer = callSession.createConsumer(destination, selector);
+                callConsumer.setMessageListener(future::complete);
+            } catch (JMSException e) {
+                release();
+                throw new ServiceRuntimeException("Unable to create response consumer for destination: " + destination, e);
+            }
+        }
+
+        private void release() {
+            expiration.cancel();
+            pending.remove(correlationId, this);
+            JmsHelper.closeQuietly(callSession);
+        }
+
+        private void expire() {
+            pending.remove(correlationId, this);
+            future.complete(null);
+        }
     }
 
 }
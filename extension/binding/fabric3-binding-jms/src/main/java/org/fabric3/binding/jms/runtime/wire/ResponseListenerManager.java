@@ -0,0 +1,52 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.wire;
+
+import javax.jms.ConnectionFactory;
+
+import org.fabric3.api.binding.jms.model.JmsBindingMetadata;
+import org.fabric3.api.host.Fabric3Exception;
+
+/**
+ * Manages response listeners shared by references that receive replies on the same response destination.
+ */
+public interface ResponseListenerManager {
+
+    /**
+     * Returns the response listener for a response destination, creating one if it does not exist. Each call must be matched by a call to {@link
+     * #release(JmsBindingMetadata)}.
+     *
+     * @param metadata    the binding metadata containing the response connection factory and destination definitions
+     * @param factory     the resolved response connection factory
+     * @param destination the resolved response destination
+     * @return the listener
+     * @throws Fabric3Exception if there is an error creating the listener
+     */
+    ResponseListener getListener(JmsBindingMetadata metadata, ConnectionFactory factory, javax.jms.Destination destination) throws Fabric3Exception;
+
+    /**
+     * Releases a listener. The listener is stopped when it is no longer referenced.
+     *
+     * @param metadata the binding metadata the listener was obtained for
+     * @throws Fabric3Exception if there is an error releasing the listener
+     */
+    void release(JmsBindingMetadata metadata) throws Fabric3Exception;
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.jms.runtime.wire;
+
+import javax.jms.ConnectionFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.fabric3.api.annotation.Source;
+import org.fabric3.api.annotation.monitor.Monitor;
+import org.fabric3.api.binding.jms.model.JmsBindingMetadata;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.binding.jms.runtime.common.TimeoutWheel;
+import org.fabric3.binding.jms.spi.runtime.connection.ConnectionMonitor;
+import org.oasisopen.sca.annotation.Destroy;
+import org.oasisopen.sca.annotation.Init;
+import org.oasisopen.sca.annotation.Property;
+
+/**
+ * Default response listener manager. Listeners are keyed by response connection factory name, response destination name and correlation scheme, and are
+ * reference counted so that their consumers are closed when the last wire using them is detached. Response timeouts for all listeners are expired by a single
+ * {@link TimeoutWheel} advanced on a dedicated thread.
+ */
+public class ResponseListenerManagerImpl implements ResponseListenerManager {
+    private ConnectionMonitor monitor;
+    private long tickDuration = 100;
+    private int wheelSize = 512;
+
+    private TimeoutWheel wheel;
+    private ScheduledExecutorService executorService;
+
+    private final Map<String, Holder> listeners = new HashMap<>();
+
+    public ResponseListenerManagerImpl(@Monitor ConnectionMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Property(required = false)
+    @Source("$systemConfig//f3:jms/@response.tick")
+    public void setTickDuration(long tickDuration) {
+        this.tickDuration = tickDuration;
+    }
+
+    @Property(required = false)
+    @Source("$systemConfig//f3:jms/@response.wheel.size")
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+
+    @Init
+    public void init() {
+        wheel = new TimeoutWheel(tickDuration, wheelSize);
+        executorService = Executors.newSingleThreadScheduledExecutor();
+        executorService.scheduleAtFixedRate(this::tick, tickDuration, tickDuration, TimeUnit.MILLISECONDS);
+    }
+
+    @Destroy
+    public void destroy() {
+        synchronized (listeners) {
+            for (Holder holder : listeners.values()) {
+                holder.listener.stop();
+            }
+            listeners.clear();
+        }
+        executorService.shutdownNow();
+    }
+
+    public ResponseListener getListener(JmsBindingMetadata metadata, ConnectionFactory factory, javax.jms.Destination destination) throws Fabric3Exception {
+        String key = getKey(metadata);
+        synchronized (listeners) {
+            Holder holder = listeners.get(key);
+            if (holder == null) {
+                ResponseListener listener = new ResponseListener(destination, metadata.getCorrelationScheme(), metadata.isRoutelessResponses(), factory, wheel, monitor);
+                holder = new Holder(listener);
+                listeners.put(key, holder);
+            }
+            holder.count++;
+            return holder.listener;
+        }
+    }
+
+    public void release(JmsBindingMetadata metadata) throws Fabric3Exception {
+        String key = getKey(metadata);
+        synchronized (listeners) {
+            Holder holder = listeners.get(key);
+            if (holder == null) {
+                return;
+            }
+            holder.count--;
+            if (holder.count <= 0) {
+                listeners.remove(key);
+                holder.listener.stop();
+            }
+        }
+    }
+
+    private void tick() {
+        try {
+            wheel.tick();
+        } catch (RuntimeException e) {
+            // do not let an error cancel the scheduled task
+            monitor.error(e);
+        }
+    }
+
+    private String getKey(JmsBindingMetadata metadata) {
+        String factoryName = metadata.getResponseConnectionFactory().getName();
+        if (factoryName == null) {
+            factoryName = "default";
+        }
+        String destinationName = metadata.getResponseDestination().getName();
+        return factoryName + "/" + destinationName + "/" + metadata.getCorrelationScheme() + "/" + metadata.isRoutelessResponses();
+    }
+
+    private static class Holder {
+        private ResponseListener listener;
+        private int count;
+
+        public Holder(ResponseListener listener) {
+            this.listener = listener;
+        }
+    }
+
+}
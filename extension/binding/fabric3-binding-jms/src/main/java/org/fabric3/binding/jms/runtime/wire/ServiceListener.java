@@ -25,7 +25,6 @@ import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
 import javax.jms.JMSException;
 import javax.jms.Message;
-import javax.jms.MessageListener;
 import javax.jms.MessageProducer;
 import javax.jms.Session;
 import javax.jms.TextMessage;
@@ -34,6 +33,8 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import java.io.ByteArrayInputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,6 +42,7 @@ import java.util.Map;
 import org.fabric3.api.binding.jms.model.CorrelationScheme;
 import org.fabric3.binding.jms.runtime.common.JmsRuntimeConstants;
 import org.fabric3.binding.jms.runtime.common.ListenerMonitor;
+import org.fabric3.binding.jms.runtime.container.BatchMessageListener;
 import org.fabric3.binding.jms.spi.provision.OperationPayloadTypes;
 import org.fabric3.binding.jms.spi.provision.PayloadType;
 import org.fabric3.binding.jms.spi.provision.SessionType;
@@ -50,14 +52,22 @@ import org.fabric3.spi.container.invocation.MessageCache;
 import org.fabric3.spi.container.invocation.WorkContext;
 import org.fabric3.spi.container.invocation.WorkContextCache;
 import org.fabric3.spi.container.wire.Interceptor;
+import org.fabric3.spi.model.physical.PhysicalOperation;
+import org.oasisopen.sca.ServiceRuntimeException;
 
 /**
  * Listens for requests sent to a destination and dispatches them to a service, returning a response to the response destination.
+ * <p/>
+ * A service opts in to batch delivery by declaring a one-way <code>onMessages</code> operation that takes a single {@link List} parameter. When present,
+ * the messages of a batch received by the container that resolve to that operation are dispatched as one invocation containing their payloads in the order
+ * they were received. Messages for other operations, and all messages if the service does not declare the operation, are dispatched individually. If the
+ * batch operation fails, an exception is thrown so that the unit of work for the batch is rolled back.
  */
-public class ServiceListener implements MessageListener {
+public class ServiceListener implements BatchMessageListener {
     private WireHolder wireHolder;
     private Map<String, InvocationChainHolder> invocationChainMap;
     private InvocationChainHolder onMessageHolder;
+    private InvocationChainHolder onMessagesHolder;
     private Destination defaultResponseDestination;
     private ConnectionFactory responseFactory;
     private SessionType sessionType;
@@ -82,9 +92,12 @@ public class ServiceListener implements MessageListener {
         this.monitor = monitor;
         invocationChainMap = new HashMap<>();
         for (InvocationChainHolder chainHolder : wireHolder.getInvocationChains()) {
-            String name = chainHolder.getChain().getPhysicalOperation().getName();
+            PhysicalOperation operation = chainHolder.getChain().getPhysicalOperation();
+            String name = operation.getName();
             if ("onMessage".equals(name)) {
                 onMessageHolder = chainHolder;
+            } else if (isBatchOperation(operation)) {
+                onMessagesHolder = chainHolder;
             }
             invocationChainMap.put(name, chainHolder);
         }
@@ -96,31 +109,10 @@ public class ServiceListener implements MessageListener {
             // set the TCCL to the target service classloader
             Thread.currentThread().setContextClassLoader(classLoader);
             InvocationChainHolder holder = getHolder(request);
-            Interceptor interceptor = holder.getChain().getHeadInterceptor();
-            boolean oneWay = holder.getChain().getPhysicalOperation().isOneWay();
-            OperationPayloadTypes payloadTypes = holder.getPayloadTypes();
-            PayloadType inputType = payloadTypes.getInputType();
-            Object payload = MessageHelper.getPayload(request, inputType);
-
-            switch (inputType) {
-
-                case OBJECT:
-                    if (payload != null && !payload.getClass().isArray()) {
-                        payload = new Object[]{payload};
-                    }
-                    invoke(request, interceptor, payload, payloadTypes, oneWay, sessionType);
-                    break;
-                case TEXT:
-                    // non-encoded text
-                    payload = new Object[]{payload};
-                    invoke(request, interceptor, payload, payloadTypes, oneWay, sessionType);
-                    break;
-                case STREAM:
-                    throw new UnsupportedOperationException();
-                default:
-                    payload = new Object[]{payload};
-                    invoke(request, interceptor, payload, payloadTypes, oneWay, sessionType);
-                    break;
+            if (holder == onMessagesHolder) {
+                invokeBatch(Collections.singletonList(request));
+            } else {
+                dispatch(request, holder);
             }
         } catch (JMSException | JmsBadMessageException e) {
             // TODO This could be a temporary error and should be sent to a dead letter queue. For now, just log the error.
@@ -130,6 +122,100 @@ public class ServiceListener implements MessageListener {
         }
     }
 
+    public void onMessages(List<Message> requests) {
+        if (onMessagesHolder == null) {
+            requests.forEach(this::onMessage);
+            return;
+        }
+        ClassLoader oldCl = Thread.currentThread().getContextClassLoader();
+        try {
+            // set the TCCL to the target service classloader
+            Thread.currentThread().setContextClassLoader(classLoader);
+            List<Message> batch = new ArrayList<>(requests.size());
+            for (Message request : requests) {
+                InvocationChainHolder holder = getHolder(request);
+                if (holder == onMessagesHolder) {
+                    batch.add(request);
+                    continue;
+                }
+                // messages for other operations are dispatched individually, after the preceding batch messages to preserve ordering
+                invokeBatch(batch);
+                batch.clear();
+                dispatch(request, holder);
+            }
+            invokeBatch(batch);
+        } catch (JMSException | JmsBadMessageException e) {
+            // roll back the unit of work for the batch
+            throw new ServiceRuntimeException(e);
+        } finally {
+            Thread.currentThread().setContextClassLoader(oldCl);
+        }
+    }
+
+    private void dispatch(Message request, InvocationChainHolder holder) throws JMSException, JmsBadMessageException {
+        Interceptor interceptor = holder.getChain().getHeadInterceptor();
+        boolean oneWay = holder.getChain().getPhysicalOperation().isOneWay();
+        OperationPayloadTypes payloadTypes = holder.getPayloadTypes();
+        PayloadType inputType = payloadTypes.getInputType();
+        Object payload = MessageHelper.getPayload(request, inputType);
+
+        switch (inputType) {
+
+            case OBJECT:
+                if (payload != null && !payload.getClass().isArray()) {
+                    payload = new Object[]{payload};
+                }
+                invoke(request, interceptor, payload, payloadTypes, oneWay, sessionType);
+                break;
+            case TEXT:
+                // non-encoded text
+                payload = new Object[]{payload};
+                invoke(request, interceptor, payload, payloadTypes, oneWay, sessionType);
+                break;
+            case STREAM:
+                throw new UnsupportedOperationException();
+            default:
+                payload = new Object[]{payload};
+                invoke(request, interceptor, payload, payloadTypes, oneWay, sessionType);
+                break;
+        }
+    }
+
+    /**
+     * Dispatches messages for the batch operation in a single invocation. The work context and handlers are taken from the first message.
+     *
+     * @param requests the messages
+     * @throws ServiceRuntimeException if a message is invalid or the invocation fails, so that the unit of work for the batch is rolled back
+     */
+    private void invokeBatch(List<Message> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        org.fabric3.spi.container.invocation.Message inMessage = null;
+        try {
+            List<Object> payloads = new ArrayList<>(requests.size());
+            for (Message request : requests) {
+                payloads.add(getBatchPayload(request));
+            }
+            Message first = requests.get(0);
+            WorkContext workContext = setWorkContext(first);
+            inMessage = MessageCache.getAndResetMessage();
+            inMessage.setWorkContext(workContext);
+            inMessage.setBody(new Object[]{payloads});
+            applyHandlers(first, inMessage);
+            org.fabric3.spi.container.invocation.Message outMessage = onMessagesHolder.getChain().getHeadInterceptor().invoke(inMessage);
+            if (outMessage.isFault()) {
+                throw new ServiceRuntimeException((Throwable) outMessage.getBody());
+            }
+        } catch (JMSException | JmsBadMessageException e) {
+            throw new ServiceRuntimeException(e);
+        } finally {
+            if (inMessage != null) {
+                inMessage.reset();
+            }
+        }
+    }
+
     private void invoke(Message request, Interceptor interceptor, Object payload, OperationPayloadTypes payloadTypes, boolean oneWay, SessionType sessionType)
             throws JMSException, JmsBadMessageException {
         WorkContext workContext = setWorkContext(request);
@@ -189,6 +275,11 @@ public class ServiceListener implements MessageListener {
                 break;
             }
         }
+        String route = request.getStringProperty(JmsRuntimeConstants.RESPONSE_ROUTE_HEADER);
+        if (route != null) {
+            // echo the route so the response is delivered to the reference listener that dispatched the request
+            response.setStringProperty(JmsRuntimeConstants.RESPONSE_ROUTE_HEADER, route);
+        }
         if (outMessage.isFault()) {
             response.setBooleanProperty(JmsRuntimeConstants.FAULT_HEADER, true);
         }
@@ -259,6 +350,20 @@ public class ServiceListener implements MessageListener {
         }
     }
 
+    private Object getBatchPayload(Message message) throws JMSException, JmsBadMessageException {
+        Object payload = MessageHelper.getPayload(message, onMessagesHolder.getPayloadTypes().getInputType());
+        if (payload instanceof Object[] && ((Object[]) payload).length == 1) {
+            // unwrap the argument array sent by a reference
+            return ((Object[]) payload)[0];
+        }
+        return payload;
+    }
+
+    private boolean isBatchOperation(PhysicalOperation operation) {
+        List<Class<?>> types = operation.getSourceParameterTypes();
+        return "onMessages".equals(operation.getName()) && operation.isOneWay() && types.size() == 1 && List.class.isAssignableFrom(types.get(0));
+    }
+
     private InvocationChainHolder getHolderBasedOnElementName(byte[] payload) throws JmsBadMessageException {
         if (xmlInputFactory == null) {
             xmlInputFactory = XMLInputFactory.newFactory();
@@ -23,6 +23,7 @@ import javax.jms.Destination;
 import javax.transaction.TransactionManager;
 
 import org.fabric3.api.binding.jms.model.CorrelationScheme;
+import org.fabric3.binding.jms.runtime.producer.ProducerPool;
 import org.fabric3.binding.jms.spi.provision.SessionType;
 
 /**
@@ -32,6 +33,7 @@ public class WireConfiguration {
     private CorrelationScheme correlationScheme;
     private ConnectionFactory requestConnectionFactory;
     private Destination requestDestination;
+    private ProducerPool producerPool;
     private Destination callbackDestination;
     private ClassLoader classloader;
     private ResponseListener responseListener;
@@ -57,6 +59,14 @@ public class WireConfiguration {
         this.requestDestination = requestDestination;
     }
 
+    public ProducerPool getProducerPool() {
+        return producerPool;
+    }
+
+    public void setProducerPool(ProducerPool producerPool) {
+        this.producerPool = producerPool;
+    }
+
     public Destination getCallbackDestination() {
         return callbackDestination;
     }
@@ -0,0 +1,65 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.jms.runtime.common;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class TimeoutWheelTestCase extends TestCase {
+
+    public void testExpire() throws Exception {
+        TimeoutWheel wheel = new TimeoutWheel(10, 4);
+        AtomicInteger count = new AtomicInteger();
+        wheel.schedule(count::incrementAndGet, 30);
+
+        wheel.tick();
+        wheel.tick();
+        assertEquals(0, count.get());
+        wheel.tick();
+        assertEquals(1, count.get());
+        wheel.tick();
+        assertEquals(1, count.get());
+    }
+
+    public void testExpireAfterMultipleRotations() throws Exception {
+        TimeoutWheel wheel = new TimeoutWheel(10, 4);
+        AtomicInteger count = new AtomicInteger();
+        wheel.schedule(count::incrementAndGet, 100);
+
+        for (int i = 0; i < 9; i++) {
+            wheel.tick();
+        }
+        assertEquals(0, count.get());
+        wheel.tick();
+        assertEquals(1, count.get());
+    }
+
+    public void testCancel() throws Exception {
+        TimeoutWheel wheel = new TimeoutWheel(10, 4);
+        AtomicInteger count = new AtomicInteger();
+        TimeoutWheel.Timeout timeout = wheel.schedule(count::incrementAndGet, 10);
+        timeout.cancel();
+
+        wheel.tick();
+        assertEquals(0, count.get());
+    }
+
+}
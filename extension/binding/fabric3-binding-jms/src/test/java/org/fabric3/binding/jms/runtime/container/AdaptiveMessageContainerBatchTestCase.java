@@ -0,0 +1,204 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.jms.runtime.container;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.TestCase;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.easymock.EasyMock;
+import org.fabric3.api.binding.jms.model.DestinationType;
+import org.fabric3.binding.jms.runtime.common.JmsRuntimeConstants;
+import org.fabric3.binding.jms.spi.provision.SessionType;
+
+/**
+ *
+ */
+public class AdaptiveMessageContainerBatchTestCase extends TestCase {
+    private static final int MESSAGES = 25;
+
+    private BrokerService broker;
+    private ConnectionFactory connectionFactory;
+    private Queue queue;
+    private ExecutorService executorService;
+    private ContainerStatistics statistics;
+    private AdaptiveMessageContainer container;
+
+    public void testBatchCommit() throws Exception {
+        CountDownLatch latch = new CountDownLatch(MESSAGES);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        BatchMessageListener listener = new BatchMessageListener() {
+            public void onMessages(List<Message> messages) {
+                batchSizes.add(messages.size());
+                for (Message ignored : messages) {
+                    latch.countDown();
+                }
+            }
+
+            public void onMessage(Message message) {
+                fail("Batch dispatch expected");
+            }
+        };
+        sendMessages();
+        createContainer(listener, 10);
+        container.initialize();
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        container.shutdown();
+
+        for (int size : batchSizes) {
+            assertTrue(size <= 10);
+        }
+        assertEquals(MESSAGES, statistics.getMessagesReceived());
+        assertEquals(batchSizes.size(), statistics.getBatchesCommitted());
+        assertEquals(statistics.getBatchesCommitted(), statistics.getTransactions());
+        assertTrue(statistics.getBatchesCommitted() < MESSAGES);
+        assertTrue(statistics.getAverageBatchSize() > 1);
+    }
+
+    public void testRollbackBatch() throws Exception {
+        CountDownLatch latch = new CountDownLatch(MESSAGES);
+        AtomicBoolean fail = new AtomicBoolean(true);
+        Set<String> failed = Collections.synchronizedSet(new HashSet<>());
+        Set<String> received = Collections.synchronizedSet(new HashSet<>());
+        BatchMessageListener listener = new BatchMessageListener() {
+            public void onMessages(List<Message> messages) {
+                try {
+                    if (fail.getAndSet(false)) {
+                        for (Message message : messages) {
+                            failed.add(message.getJMSMessageID());
+                        }
+                        throw new RuntimeException("Expected");
+                    }
+                    for (Message message : messages) {
+                        if (received.add(message.getJMSMessageID())) {
+                            latch.countDown();
+                        }
+                    }
+                } catch (JMSException e) {
+                    throw new AssertionError(e);
+                }
+            }
+
+            public void onMessage(Message message) {
+                fail("Batch dispatch expected");
+            }
+        };
+        sendMessages();
+        createContainer(listener, 10);
+        container.initialize();
+
+        assertTrue(latch.await(20, TimeUnit.SECONDS));
+        container.shutdown();
+
+        assertFalse(failed.isEmpty());
+        // all messages in the failed batch must be redelivered
+        assertTrue(received.containsAll(failed));
+        assertEquals(1, statistics.getBatchesRolledBack());
+        assertEquals(1, statistics.getTransactionsRolledBack());
+    }
+
+    public void testMessageByMessageDispatch() throws Exception {
+        CountDownLatch latch = new CountDownLatch(MESSAGES);
+        createContainer(message -> latch.countDown(), 10);
+        sendMessages();
+        container.initialize();
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        container.shutdown();
+
+        assertEquals(MESSAGES, statistics.getMessagesReceived());
+    }
+
+    private void createContainer(javax.jms.MessageListener listener, int batchSize) {
+        URI uri = URI.create("container");
+        MessageContainerMonitor monitor = EasyMock.createNiceMock(MessageContainerMonitor.class);
+        EasyMock.replay(monitor);
+
+        ContainerConfiguration configuration = new ContainerConfiguration();
+        configuration.setUri(uri);
+        configuration.setDestination(queue);
+        configuration.setDestinationType(DestinationType.QUEUE);
+        configuration.setFactory(connectionFactory);
+        configuration.setMessageListener(listener);
+        configuration.setSessionType(SessionType.LOCAL_TRANSACTED);
+        configuration.setCacheLevel(JmsRuntimeConstants.CACHE_ADMINISTERED_OBJECTS);
+        configuration.setBatchSize(batchSize);
+        configuration.setBatchTimeout(200);
+
+        statistics = new ContainerStatistics();
+        ConnectionManager connectionManager = new ConnectionManager(connectionFactory, uri, true, false, monitor);
+        UnitOfWork work = new LocalTransactionUnitOfWork(uri, statistics);
+        container = new AdaptiveMessageContainer(configuration, 100, connectionManager, work, statistics, executorService, false, monitor);
+    }
+
+    private void sendMessages() throws JMSException {
+        Connection connection = connectionFactory.createConnection();
+        try {
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageProducer producer = session.createProducer(queue);
+            for (int i = 0; i < MESSAGES; i++) {
+                producer.send(session.createTextMessage("message" + i));
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        broker = new BrokerService();
+        broker.setBrokerName("batch");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.start();
+
+        ActiveMQConnectionFactory factory = new ActiveMQConnectionFactory("vm://batch?create=false");
+        factory.getRedeliveryPolicy().setInitialRedeliveryDelay(0);
+        connectionFactory = factory;
+        Connection connection = connectionFactory.createConnection();
+        queue = connection.createSession(false, Session.AUTO_ACKNOWLEDGE).createQueue("batch");
+        connection.close();
+
+        executorService = Executors.newCachedThreadPool();
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        executorService.shutdownNow();
+        broker.stop();
+    }
+
+}
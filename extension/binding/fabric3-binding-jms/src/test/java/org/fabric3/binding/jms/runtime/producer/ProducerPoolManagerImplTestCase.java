@@ -0,0 +1,94 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.jms.runtime.producer;
+
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import java.net.URI;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.binding.jms.model.JmsBindingMetadata;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.binding.jms.spi.runtime.connection.ConnectionMonitor;
+import org.fabric3.spi.management.ManagementService;
+
+/**
+ *
+ */
+public class ProducerPoolManagerImplTestCase extends TestCase {
+    private ProducerPoolManagerImpl manager;
+    private Destination destination;
+
+    public void testSharePoolForSameFactory() throws Exception {
+        ConnectionFactory factory = EasyMock.createMock(ConnectionFactory.class);
+        ProducerPool first = manager.getPool(URI.create("first"), createMetadata(10), factory, destination);
+        ProducerPool second = manager.getPool(URI.create("second"), createMetadata(10), factory, destination);
+        assertSame(first, second);
+    }
+
+    public void testSeparatePoolsForUnnamedFactories() throws Exception {
+        ConnectionFactory factory1 = EasyMock.createMock(ConnectionFactory.class);
+        ConnectionFactory factory2 = EasyMock.createMock(ConnectionFactory.class);
+        ProducerPool first = manager.getPool(URI.create("first"), createMetadata(10), factory1, destination);
+        ProducerPool second = manager.getPool(URI.create("second"), createMetadata(10), factory2, destination);
+        assertNotSame(first, second);
+    }
+
+    public void testRejectConflictingSizing() throws Exception {
+        ConnectionFactory factory = EasyMock.createMock(ConnectionFactory.class);
+        manager.getPool(URI.create("first"), createMetadata(10), factory, destination);
+        try {
+            manager.getPool(URI.create("second"), createMetadata(5), factory, destination);
+            fail();
+        } catch (Fabric3Exception e) {
+            // expected
+        }
+    }
+
+    public void testReleaseClosesUnreferencedPool() throws Exception {
+        ConnectionFactory factory = EasyMock.createMock(ConnectionFactory.class);
+        ProducerPool pool = manager.getPool(URI.create("first"), createMetadata(10), factory, destination);
+        manager.getPool(URI.create("second"), createMetadata(10), factory, destination);
+
+        manager.release(URI.create("first"), createMetadata(10));
+        assertSame(pool, manager.getPool(URI.create("third"), createMetadata(10), factory, destination));
+
+        manager.release(URI.create("second"), createMetadata(10));
+        manager.release(URI.create("third"), createMetadata(10));
+        assertNotSame(pool, manager.getPool(URI.create("first"), createMetadata(10), factory, destination));
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        ManagementService managementService = EasyMock.createNiceMock(ManagementService.class);
+        ConnectionMonitor monitor = EasyMock.createMock(ConnectionMonitor.class);
+        EasyMock.replay(managementService, monitor);
+        manager = new ProducerPoolManagerImpl(managementService, monitor);
+        destination = EasyMock.createMock(Destination.class);
+    }
+
+    private JmsBindingMetadata createMetadata(int maxProducers) {
+        JmsBindingMetadata metadata = new JmsBindingMetadata();
+        org.fabric3.api.binding.jms.model.Destination definition = new org.fabric3.api.binding.jms.model.Destination();
+        definition.setName("queue");
+        metadata.setDestination(definition);
+        metadata.setMaxProducers(maxProducers);
+        return metadata;
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.jms.runtime.producer;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.binding.jms.spi.runtime.connection.ConnectionMonitor;
+
+/**
+ *
+ */
+public class ProducerPoolTestCase extends TestCase {
+    private ConnectionFactory connectionFactory;
+    private Connection connection;
+    private Session session;
+    private MessageProducer producer;
+    private Destination destination;
+    private ConnectionMonitor monitor;
+
+    public void testReuseProducer() throws Exception {
+        EasyMock.expect(connectionFactory.createConnection()).andReturn(connection);
+        connection.setExceptionListener(EasyMock.isA(ExceptionListener.class));
+        connection.start();
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session);
+        EasyMock.expect(session.createProducer(destination)).andReturn(producer);
+        EasyMock.replay(connectionFactory, connection, session, producer);
+
+        ProducerPool pool = new ProducerPool(connectionFactory, destination, 2, 100, monitor);
+        PooledProducer first = pool.borrow();
+        pool.release(first);
+        PooledProducer second = pool.borrow();
+        pool.release(second);
+
+        assertSame(first, second);
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(1, pool.getIdleCount());
+        EasyMock.verify(connectionFactory, connection, session, producer);
+    }
+
+    public void testTimeoutWhenExhausted() throws Exception {
+        EasyMock.expect(connectionFactory.createConnection()).andReturn(connection);
+        connection.setExceptionListener(EasyMock.isA(ExceptionListener.class));
+        connection.start();
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session);
+        EasyMock.expect(session.createProducer(destination)).andReturn(producer);
+        EasyMock.replay(connectionFactory, connection, session, producer);
+
+        ProducerPool pool = new ProducerPool(connectionFactory, destination, 1, 10, monitor);
+        pool.borrow();
+        try {
+            pool.borrow();
+            fail();
+        } catch (JMSException e) {
+            // expected
+        }
+        assertEquals(1, pool.getWaits());
+        assertEquals(1, pool.getTimeouts());
+        EasyMock.verify(connectionFactory, connection, session, producer);
+    }
+
+    public void testEvictOnConnectionException() throws Exception {
+        EasyMock.expect(connectionFactory.createConnection()).andReturn(connection).times(2);
+        connection.setExceptionListener(EasyMock.isA(ExceptionListener.class));
+        EasyMock.expectLastCall().times(2);
+        connection.start();
+        EasyMock.expectLastCall().times(2);
+        connection.close();
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session).times(2);
+        EasyMock.expect(session.createProducer(destination)).andReturn(producer).times(2);
+        session.close();
+        monitor.error(EasyMock.isA(JMSException.class));
+        EasyMock.replay(connectionFactory, connection, session, producer, monitor);
+
+        ProducerPool pool = new ProducerPool(connectionFactory, destination, 1, 100, monitor);
+        PooledProducer first = pool.borrow();
+        pool.release(first);
+        pool.onException(new JMSException("test"));
+        PooledProducer second = pool.borrow();
+
+        assertNotSame(first, second);
+        assertEquals(1, pool.getEvictions());
+        EasyMock.verify(connectionFactory, connection, session, producer, monitor);
+    }
+
+    public void testInvalidateLeasedProducer() throws Exception {
+        EasyMock.expect(connectionFactory.createConnection()).andReturn(connection);
+        connection.setExceptionListener(EasyMock.isA(ExceptionListener.class));
+        connection.start();
+        connection.close();
+        EasyMock.expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session);
+        EasyMock.expect(session.createProducer(destination)).andReturn(producer);
+        session.close();
+        EasyMock.replay(connectionFactory, connection, session, producer);
+
+        ProducerPool pool = new ProducerPool(connectionFactory, destination, 1, 100, monitor);
+        pool.invalidate(pool.borrow());
+
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(0, pool.getIdleCount());
+        EasyMock.verify(connectionFactory, connection, session, producer);
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        connectionFactory = EasyMock.createMock(ConnectionFactory.class);
+        connection = EasyMock.createMock(Connection.class);
+        session = EasyMock.createMock(Session.class);
+        producer = EasyMock.createMock(MessageProducer.class);
+        destination = EasyMock.createMock(Destination.class);
+        monitor = EasyMock.createMock(ConnectionMonitor.class);
+    }
+}
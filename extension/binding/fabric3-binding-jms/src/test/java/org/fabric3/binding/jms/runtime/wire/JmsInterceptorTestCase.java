@@ -0,0 +1,257 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.jms.runtime.wire;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.SystemException;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+import javax.transaction.xa.XAResource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.fabric3.binding.jms.spi.provision.OperationPayloadTypes;
+import org.fabric3.binding.jms.spi.provision.PayloadType;
+import org.fabric3.binding.jms.spi.provision.SessionType;
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.invocation.MessageImpl;
+import org.fabric3.spi.container.invocation.WorkContext;
+
+/**
+ * Verifies messages sent on a global transacted wire are committed and rolled back with the global transaction they are sent in.
+ */
+public class JmsInterceptorTestCase extends TestCase {
+    private BrokerService broker;
+    private ConnectionFactory connectionFactory;
+    private Queue queue;
+    private TestTransactionManager tm;
+
+    public void testRollbackAndCommitInSuccessiveTransactions() throws Exception {
+        JmsInterceptor interceptor = createInterceptor();
+
+        tm.begin();
+        interceptor.invoke(createMessage("rolledBack"));
+        tm.rollback();
+
+        tm.begin();
+        interceptor.invoke(createMessage("committed"));
+        tm.commit();
+
+        Connection connection = connectionFactory.createConnection();
+        try {
+            connection.start();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageConsumer consumer = session.createConsumer(queue);
+            TextMessage received = (TextMessage) consumer.receive(5000);
+            assertNotNull(received);
+            assertEquals("committed", received.getText());
+            assertNull(consumer.receive(500));
+        } finally {
+            connection.close();
+        }
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        broker = new BrokerService();
+        broker.setBrokerName("interceptor");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.start();
+
+        connectionFactory = new ActiveMQConnectionFactory("vm://interceptor?create=false");
+        queue = new ActiveMQQueue("request");
+        tm = new TestTransactionManager();
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        broker.stop();
+    }
+
+    private JmsInterceptor createInterceptor() {
+        WireConfiguration wireConfiguration = new WireConfiguration();
+        wireConfiguration.setRequestConnectionFactory(createEnlistingFactory());
+        wireConfiguration.setRequestDestination(queue);
+        wireConfiguration.setSessionType(SessionType.GLOBAL_TRANSACTED);
+        wireConfiguration.setTransactionManager(tm);
+        wireConfiguration.setPersistent(true);
+        wireConfiguration.setClassloader(getClass().getClassLoader());
+        InterceptorConfiguration configuration = new InterceptorConfiguration(wireConfiguration);
+        configuration.setOperationName("send");
+        configuration.setOneWay(true);
+        configuration.setPayloadType(new OperationPayloadTypes("send", PayloadType.TEXT, PayloadType.TEXT, PayloadType.OBJECT));
+        return new JmsInterceptor(configuration, null);
+    }
+
+    private Message createMessage(String text) {
+        Message message = new MessageImpl();
+        message.setBody(new Object[]{text});
+        message.setWorkContext(new WorkContext());
+        return message;
+    }
+
+    /**
+     * Creates a connection factory that enlists sessions with the transaction active when they are created and defers closing connections until the
+     * transaction completes, in the same way as XA-aware connection factories.
+     *
+     * @return the connection factory
+     */
+    private ConnectionFactory createEnlistingFactory() {
+        return (ConnectionFactory) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ConnectionFactory.class}, (proxy, method, args) -> {
+            Connection connection = (Connection) invoke(connectionFactory, method, args);
+            TestTransaction transaction = tm.getTransaction();
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class}, (p, m, a) -> {
+                if ("close".equals(m.getName()) && transaction != null) {
+                    transaction.connections.add(connection);
+                    return null;
+                }
+                Object result = invoke(connection, m, a);
+                if (result instanceof Session && transaction != null) {
+                    transaction.sessions.add((Session) result);
+                }
+                return result;
+            });
+        });
+    }
+
+    private Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class TestTransactionManager implements TransactionManager {
+        private TestTransaction current;
+
+        public void begin() {
+            current = new TestTransaction();
+        }
+
+        public void commit() throws SystemException {
+            current.commit();
+            current = null;
+        }
+
+        public int getStatus() {
+            return current == null ? Status.STATUS_NO_TRANSACTION : Status.STATUS_ACTIVE;
+        }
+
+        public TestTransaction getTransaction() {
+            return current;
+        }
+
+        public void resume(Transaction transaction) {
+            current = (TestTransaction) transaction;
+        }
+
+        public void rollback() throws SystemException {
+            current.rollback();
+            current = null;
+        }
+
+        public void setRollbackOnly() {
+            throw new UnsupportedOperationException();
+        }
+
+        public void setTransactionTimeout(int seconds) {
+        }
+
+        public Transaction suspend() {
+            Transaction suspended = current;
+            current = null;
+            return suspended;
+        }
+    }
+
+    private static class TestTransaction implements Transaction {
+        private List<Session> sessions = new ArrayList<>();
+        private List<Connection> connections = new ArrayList<>();
+
+        public void commit() throws SystemException {
+            try {
+                for (Session session : sessions) {
+                    session.commit();
+                }
+            } catch (JMSException e) {
+                throw new SystemException(e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        public void rollback() throws SystemException {
+            try {
+                for (Session session : sessions) {
+                    session.rollback();
+                }
+            } catch (JMSException e) {
+                throw new SystemException(e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        public boolean delistResource(XAResource resource, int flag) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean enlistResource(XAResource resource) {
+            throw new UnsupportedOperationException();
+        }
+
+        public int getStatus() {
+            return Status.STATUS_ACTIVE;
+        }
+
+        public void registerSynchronization(Synchronization synchronization) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void setRollbackOnly() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void close() {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (JMSException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+}
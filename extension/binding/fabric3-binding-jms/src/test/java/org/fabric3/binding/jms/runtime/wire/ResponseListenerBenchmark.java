@@ -0,0 +1,194 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.jms.runtime.wire;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.fabric3.api.binding.jms.model.CorrelationScheme;
+import org.fabric3.binding.jms.runtime.common.JmsRuntimeConstants;
+import org.fabric3.binding.jms.runtime.common.TimeoutWheel;
+import org.fabric3.binding.jms.runtime.wire.ResponseListener.PendingResponse;
+
+/**
+ * Compares request-response throughput against an embedded ActiveMQ broker when replies are received using a consumer with a correlation id selector per
+ * request versus a single multiplexed {@link ResponseListener}. The benchmark only reports timings and is run with the benchmark task.
+ */
+public class ResponseListenerBenchmark extends TestCase {
+    private static final int THREADS = 8;
+    private static final int REQUESTS = 250;
+    private static final long TIMEOUT = 10000;
+
+    private BrokerService broker;
+    private ConnectionFactory connectionFactory;
+    private Connection serviceConnection;
+    private Queue requestQueue;
+    private Queue responseQueue;
+
+    public void testThroughput() throws Exception {
+        // warm up the broker and JIT
+        runSelectorPerRequest(THREADS, REQUESTS / 5);
+        runMultiplexed(THREADS, REQUESTS / 5);
+
+        long selectorTime = runSelectorPerRequest(THREADS, REQUESTS);
+        long multiplexedTime = runMultiplexed(THREADS, REQUESTS);
+
+        int total = THREADS * REQUESTS;
+        System.out.println("Selector per request: " + (total * 1000L / Math.max(1, selectorTime)) + " requests/second");
+        System.out.println("Multiplexed listener: " + (total * 1000L / Math.max(1, multiplexedTime)) + " requests/second");
+    }
+
+    private long runSelectorPerRequest(int threads, int requests) throws Exception {
+        Connection connection = connectionFactory.createConnection();
+        connection.start();
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                tasks.add(() -> {
+                    Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                    MessageProducer producer = session.createProducer(requestQueue);
+                    for (int j = 0; j < requests; j++) {
+                        String correlationId = UUID.randomUUID().toString();
+                        TextMessage request = session.createTextMessage("request");
+                        request.setJMSCorrelationID(correlationId);
+                        request.setJMSReplyTo(responseQueue);
+                        producer.send(request);
+                        MessageConsumer consumer = session.createConsumer(responseQueue, "JMSCorrelationID = '" + correlationId + "'");
+                        Message response = consumer.receive(TIMEOUT);
+                        consumer.close();
+                        assertNotNull(response);
+                    }
+                    session.close();
+                    return null;
+                });
+            }
+            return execute(tasks);
+        } finally {
+            connection.close();
+        }
+    }
+
+    private long runMultiplexed(int threads, int requests) throws Exception {
+        TimeoutWheel wheel = new TimeoutWheel(100, 512);
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+        ticker.scheduleAtFixedRate(wheel::tick, 100, 100, TimeUnit.MILLISECONDS);
+        ResponseListener listener = new ResponseListener(responseQueue, CorrelationScheme.CORRELATION_ID, false, connectionFactory, wheel, null);
+        listener.start();
+        Connection connection = connectionFactory.createConnection();
+        connection.start();
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                tasks.add(() -> {
+                    Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                    MessageProducer producer = session.createProducer(requestQueue);
+                    for (int j = 0; j < requests; j++) {
+                        String correlationId = listener.createCorrelationId();
+                        TextMessage request = session.createTextMessage("request");
+                        request.setJMSCorrelationID(correlationId);
+                        request.setJMSReplyTo(responseQueue);
+                        request.setStringProperty(JmsRuntimeConstants.RESPONSE_ROUTE_HEADER, listener.getRoute());
+                        PendingResponse pending = listener.register(correlationId, TIMEOUT);
+                        producer.send(request);
+                        Message response = listener.await(pending);
+                        assertNotNull(response);
+                        assertEquals(correlationId, response.getJMSCorrelationID());
+                    }
+                    session.close();
+                    return null;
+                });
+            }
+            return execute(tasks);
+        } finally {
+            connection.close();
+            listener.stop();
+            ticker.shutdownNow();
+        }
+    }
+
+    private long execute(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(tasks.size());
+        try {
+            long start = System.currentTimeMillis();
+            List<Future<Void>> futures = executorService.invokeAll(tasks);
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+            return System.currentTimeMillis() - start;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        broker = new BrokerService();
+        broker.setBrokerName("throughput");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.start();
+
+        connectionFactory = new ActiveMQConnectionFactory("vm://throughput?create=false");
+        serviceConnection = connectionFactory.createConnection();
+        Session session = serviceConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        requestQueue = session.createQueue("request");
+        responseQueue = session.createQueue("requestResponse");
+        MessageConsumer consumer = session.createConsumer(requestQueue);
+        MessageProducer producer = session.createProducer(null);
+        // echo service replying in the same way as ServiceListener
+        consumer.setMessageListener(request -> {
+            try {
+                TextMessage response = session.createTextMessage("response");
+                response.setJMSCorrelationID(request.getJMSCorrelationID());
+                String route = request.getStringProperty(JmsRuntimeConstants.RESPONSE_ROUTE_HEADER);
+                if (route != null) {
+                    response.setStringProperty(JmsRuntimeConstants.RESPONSE_ROUTE_HEADER, route);
+                }
+                producer.send(request.getJMSReplyTo(), response);
+            } catch (JMSException e) {
+                throw new AssertionError(e);
+            }
+        });
+        serviceConnection.start();
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        serviceConnection.close();
+        broker.stop();
+    }
+
+}
@@ -0,0 +1,299 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.jms.runtime.wire;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.fabric3.api.binding.jms.model.CorrelationScheme;
+import org.fabric3.binding.jms.runtime.common.JmsRuntimeConstants;
+import org.fabric3.binding.jms.runtime.common.TimeoutWheel;
+import org.fabric3.binding.jms.runtime.wire.ResponseListener.PendingResponse;
+
+/**
+ * Verifies replies received by a multiplexed {@link ResponseListener} from an embedded ActiveMQ broker are demultiplexed to the callers that sent the
+ * corresponding requests.
+ */
+public class ResponseListenerTestCase extends TestCase {
+    private static final int THREADS = 8;
+    private static final int REQUESTS = 50;
+    private static final long TIMEOUT = 10000;
+
+    private BrokerService broker;
+    private ConnectionFactory connectionFactory;
+    private Connection serviceConnection;
+    private Queue requestQueue;
+    private Queue responseQueue;
+    private Queue routelessQueue;
+    private TimeoutWheel wheel;
+    private ScheduledExecutorService ticker;
+
+    public void testConcurrentCallersReceiveTheirReplies() throws Exception {
+        ResponseListener listener = new ResponseListener(responseQueue, CorrelationScheme.CORRELATION_ID, false, connectionFactory, wheel, null);
+        try {
+            execute(listener, THREADS, "caller");
+        } finally {
+            listener.stop();
+        }
+    }
+
+    public void testListenersSharingResponseQueue() throws Exception {
+        ResponseListener first = new ResponseListener(responseQueue, CorrelationScheme.CORRELATION_ID, false, connectionFactory, wheel, null);
+        ResponseListener second = new ResponseListener(responseQueue, CorrelationScheme.CORRELATION_ID, false, connectionFactory, wheel, null);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            // each listener selects only replies to its own requests
+            Future<?> firstCallers = executorService.submit(() -> execute(first, THREADS / 2, "first"));
+            Future<?> secondCallers = executorService.submit(() -> execute(second, THREADS / 2, "second"));
+            firstCallers.get();
+            secondCallers.get();
+        } finally {
+            executorService.shutdownNow();
+            first.stop();
+            second.stop();
+        }
+    }
+
+    public void testMessageIdRepliesUseSharedConsumer() throws Exception {
+        AtomicInteger sessions = new AtomicInteger();
+        AtomicInteger consumers = new AtomicInteger();
+        ConnectionFactory countingFactory = createCountingFactory(sessions, consumers);
+        ResponseListener listener = new ResponseListener(responseQueue, CorrelationScheme.MESSAGE_ID, false, countingFactory, wheel, null);
+        try {
+            executeByMessageId(listener, requestQueue, "caller");
+        } finally {
+            listener.stop();
+        }
+        // replies echoing the route header are received by the long-lived consumer without a session or consumer per request
+        assertEquals(1, sessions.get());
+        assertEquals(1, consumers.get());
+    }
+
+    public void testRoutelessRepliesOnSharedResponseQueue() throws Exception {
+        ResponseListener first = new ResponseListener(responseQueue, CorrelationScheme.MESSAGE_ID, true, connectionFactory, wheel, null);
+        ResponseListener second = new ResponseListener(responseQueue, CorrelationScheme.MESSAGE_ID, true, connectionFactory, wheel, null);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            // the service does not echo the route header so replies must be selected by message id
+            Future<?> firstCallers = executorService.submit(() -> executeByMessageId(first, routelessQueue, "first"));
+            Future<?> secondCallers = executorService.submit(() -> executeByMessageId(second, routelessQueue, "second"));
+            firstCallers.get();
+            secondCallers.get();
+        } finally {
+            executorService.shutdownNow();
+            first.stop();
+            second.stop();
+        }
+    }
+
+    /**
+     * Sends requests with unique payloads from concurrent callers sharing the listener and verifies each caller receives the reply to its own request.
+     *
+     * @param listener the listener
+     * @param threads  the number of concurrent callers
+     * @param name     the name used to create unique payloads
+     * @return null
+     */
+    private Void execute(ResponseListener listener, int threads, String name) throws Exception {
+        Connection connection = connectionFactory.createConnection();
+        connection.start();
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                String caller = name + i;
+                tasks.add(() -> {
+                    Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                    MessageProducer producer = session.createProducer(requestQueue);
+                    for (int j = 0; j < REQUESTS; j++) {
+                        String payload = caller + ":" + j;
+                        String correlationId = listener.createCorrelationId();
+                        TextMessage request = session.createTextMessage(payload);
+                        request.setJMSCorrelationID(correlationId);
+                        request.setJMSReplyTo(responseQueue);
+                        request.setStringProperty(JmsRuntimeConstants.RESPONSE_ROUTE_HEADER, listener.getRoute());
+                        PendingResponse pending = listener.register(correlationId, TIMEOUT);
+                        producer.send(request);
+                        TextMessage response = (TextMessage) listener.await(pending);
+                        assertNotNull("No reply for " + payload, response);
+                        assertEquals(correlationId, response.getJMSCorrelationID());
+                        assertEquals("reply:" + payload, response.getText());
+                    }
+                    session.close();
+                    return null;
+                });
+            }
+            for (Future<Void> future : executorService.invokeAll(tasks)) {
+                future.get();
+            }
+            return null;
+        } finally {
+            executorService.shutdownNow();
+            connection.close();
+        }
+    }
+
+    /**
+     * Sends requests using the message id correlation scheme and verifies each reply is received by the caller that sent the request.
+     *
+     * @param listener the listener
+     * @param queue    the request queue of the service
+     * @param name     the name used to create unique payloads
+     * @return null
+     */
+    private Void executeByMessageId(ResponseListener listener, Queue queue, String name) throws Exception {
+        Connection connection = connectionFactory.createConnection();
+        try {
+            connection.start();
+            Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageProducer producer = session.createProducer(queue);
+            for (int i = 0; i < REQUESTS; i++) {
+                String payload = name + ":" + i;
+                TextMessage request = session.createTextMessage(payload);
+                request.setJMSReplyTo(responseQueue);
+                request.setStringProperty(JmsRuntimeConstants.RESPONSE_ROUTE_HEADER, listener.getRoute());
+                producer.send(request);
+                PendingResponse pending = listener.register(request.getJMSMessageID(), TIMEOUT);
+                TextMessage response = (TextMessage) listener.await(pending);
+                assertNotNull("No reply for " + payload, response);
+                assertEquals("reply:" + payload, response.getText());
+            }
+            return null;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Creates a connection factory that counts the sessions and consumers created through its connections.
+     *
+     * @param sessions  the session count
+     * @param consumers the consumer count
+     * @return the connection factory
+     */
+    private ConnectionFactory createCountingFactory(AtomicInteger sessions, AtomicInteger consumers) {
+        return (ConnectionFactory) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ConnectionFactory.class}, (proxy, method, args) -> {
+            Object result = invoke(connectionFactory, method, args);
+            if (!"createConnection".equals(method.getName())) {
+                return result;
+            }
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class}, (connectionProxy, connectionMethod, connectionArgs) -> {
+                Object connectionResult = invoke(result, connectionMethod, connectionArgs);
+                if (!"createSession".equals(connectionMethod.getName())) {
+                    return connectionResult;
+                }
+                sessions.incrementAndGet();
+                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Session.class}, (sessionProxy, sessionMethod, sessionArgs) -> {
+                    if ("createConsumer".equals(sessionMethod.getName())) {
+                        consumers.incrementAndGet();
+                    }
+                    return invoke(connectionResult, sessionMethod, sessionArgs);
+                });
+            });
+        });
+    }
+
+    private Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        broker = new BrokerService();
+        broker.setBrokerName("response");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.start();
+
+        connectionFactory = new ActiveMQConnectionFactory("vm://response?create=false");
+        serviceConnection = connectionFactory.createConnection();
+        Session session = serviceConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        requestQueue = session.createQueue("request");
+        responseQueue = session.createQueue("requestResponse");
+        MessageConsumer consumer = session.createConsumer(requestQueue);
+        MessageProducer producer = session.createProducer(null);
+        // echo service replying in the same way as ServiceListener
+        consumer.setMessageListener(request -> {
+            try {
+                TextMessage response = session.createTextMessage("reply:" + ((TextMessage) request).getText());
+                String correlationId = request.getJMSCorrelationID();
+                // requests without a correlation id use the message id scheme
+                response.setJMSCorrelationID(correlationId != null ? correlationId : request.getJMSMessageID());
+                String route = request.getStringProperty(JmsRuntimeConstants.RESPONSE_ROUTE_HEADER);
+                if (route != null) {
+                    response.setStringProperty(JmsRuntimeConstants.RESPONSE_ROUTE_HEADER, route);
+                }
+                producer.send(request.getJMSReplyTo(), response);
+            } catch (JMSException e) {
+                throw new AssertionError(e);
+            }
+        });
+
+        // service that replies using the message id scheme without echoing the route header
+        routelessQueue = session.createQueue("routelessRequest");
+        Session routelessSession = serviceConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        MessageConsumer routelessConsumer = routelessSession.createConsumer(routelessQueue);
+        MessageProducer routelessProducer = routelessSession.createProducer(null);
+        routelessConsumer.setMessageListener(request -> {
+            try {
+                TextMessage response = routelessSession.createTextMessage("reply:" + ((TextMessage) request).getText());
+                response.setJMSCorrelationID(request.getJMSMessageID());
+                routelessProducer.send(request.getJMSReplyTo(), response);
+            } catch (JMSException e) {
+                throw new AssertionError(e);
+            }
+        });
+        serviceConnection.start();
+
+        wheel = new TimeoutWheel(100, 512);
+        ticker = Executors.newSingleThreadScheduledExecutor();
+        ticker.scheduleAtFixedRate(wheel::tick, 100, 100, TimeUnit.MILLISECONDS);
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        ticker.shutdownNow();
+        serviceConnection.close();
+        broker.stop();
+    }
+
+}
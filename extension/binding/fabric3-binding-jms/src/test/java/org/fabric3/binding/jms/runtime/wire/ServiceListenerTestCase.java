@@ -0,0 +1,172 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.jms.runtime.wire;
+
+import javax.jms.JMSException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.apache.activemq.command.ActiveMQObjectMessage;
+import org.apache.activemq.command.ActiveMQTextMessage;
+import org.easymock.EasyMock;
+import org.fabric3.api.binding.jms.model.CorrelationScheme;
+import org.fabric3.binding.jms.runtime.common.JmsRuntimeConstants;
+import org.fabric3.binding.jms.runtime.common.ListenerMonitor;
+import org.fabric3.binding.jms.spi.provision.OperationPayloadTypes;
+import org.fabric3.binding.jms.spi.provision.PayloadType;
+import org.fabric3.binding.jms.spi.provision.SessionType;
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.wire.Interceptor;
+import org.fabric3.spi.container.wire.InvocationChain;
+import org.fabric3.spi.model.physical.PhysicalOperation;
+import org.oasisopen.sca.ServiceRuntimeException;
+
+/**
+ * Verifies batches are dispatched to services declaring a list operation and individually otherwise.
+ */
+public class ServiceListenerTestCase extends TestCase {
+    private RecordingInterceptor batchInterceptor;
+    private RecordingInterceptor receiveInterceptor;
+
+    public void testBatchDispatchedAsSingleInvocation() throws Exception {
+        ServiceListener listener = createListener(createHolder("onMessages", List.class, PayloadType.OBJECT, batchInterceptor));
+
+        // references send the argument array
+        listener.onMessages(Arrays.asList(createObjectMessage(new Object[]{"one"}, null), createObjectMessage("two", null), createObjectMessage("three", null)));
+
+        assertEquals(1, batchInterceptor.invocations.size());
+        Object[] body = batchInterceptor.invocations.get(0);
+        assertEquals(1, body.length);
+        assertEquals(Arrays.asList("one", "two", "three"), body[0]);
+    }
+
+    public void testSingleMessageDispatchedAsBatch() throws Exception {
+        ServiceListener listener = createListener(createHolder("onMessages", List.class, PayloadType.OBJECT, batchInterceptor));
+
+        listener.onMessage(createObjectMessage("one", null));
+
+        assertEquals(1, batchInterceptor.invocations.size());
+        assertEquals(Collections.singletonList("one"), batchInterceptor.invocations.get(0)[0]);
+    }
+
+    public void testOtherOperationsDispatchedIndividually() throws Exception {
+        ServiceListener listener = createListener(createHolder("onMessages", List.class, PayloadType.OBJECT, batchInterceptor),
+                                                  createHolder("receive", String.class, PayloadType.TEXT, receiveInterceptor));
+
+        listener.onMessages(Arrays.asList(createObjectMessage("one", "onMessages"),
+                                          createTextMessage("two", "receive"),
+                                          createObjectMessage("three", "onMessages"),
+                                          createObjectMessage("four", "onMessages")));
+
+        assertEquals(2, batchInterceptor.invocations.size());
+        assertEquals(Collections.singletonList("one"), batchInterceptor.invocations.get(0)[0]);
+        assertEquals(Arrays.asList("three", "four"), batchInterceptor.invocations.get(1)[0]);
+        assertEquals(1, receiveInterceptor.invocations.size());
+        assertEquals("two", receiveInterceptor.invocations.get(0)[0]);
+    }
+
+    public void testBatchDispatchedIndividuallyWithoutListOperation() throws Exception {
+        ServiceListener listener = createListener(createHolder("receive", String.class, PayloadType.TEXT, receiveInterceptor));
+
+        listener.onMessages(Arrays.asList(createTextMessage("one", null), createTextMessage("two", null)));
+
+        assertEquals(2, receiveInterceptor.invocations.size());
+        assertEquals("one", receiveInterceptor.invocations.get(0)[0]);
+        assertEquals("two", receiveInterceptor.invocations.get(1)[0]);
+    }
+
+    public void testInvalidBatchThrows() throws Exception {
+        ServiceListener listener = createListener(createHolder("onMessages", List.class, PayloadType.OBJECT, batchInterceptor));
+
+        try {
+            listener.onMessages(Arrays.asList(createObjectMessage("one", null), createTextMessage("two", null)));
+            fail();
+        } catch (ServiceRuntimeException e) {
+            // expected so the batch is rolled back
+        }
+        assertTrue(batchInterceptor.invocations.isEmpty());
+    }
+
+    private InvocationChainHolder createHolder(String operationName, Class<?> parameterType, PayloadType inputType, Interceptor interceptor) {
+        PhysicalOperation operation = new PhysicalOperation();
+        operation.setName(operationName);
+        operation.setOneWay(true);
+        operation.addSourceParameterType(parameterType);
+        operation.addTargetParameterType(parameterType);
+
+        InvocationChain chain = EasyMock.createMock(InvocationChain.class);
+        EasyMock.expect(chain.getPhysicalOperation()).andReturn(operation).anyTimes();
+        EasyMock.expect(chain.getHeadInterceptor()).andReturn(interceptor).anyTimes();
+        EasyMock.replay(chain);
+
+        OperationPayloadTypes payloadTypes = new OperationPayloadTypes(operationName, inputType, PayloadType.OBJECT, PayloadType.OBJECT);
+        return new InvocationChainHolder(chain, payloadTypes);
+    }
+
+    private ServiceListener createListener(InvocationChainHolder... holders) {
+        WireHolder wireHolder = new WireHolder(Arrays.asList(holders), CorrelationScheme.MESSAGE_ID);
+        ListenerMonitor monitor = EasyMock.createNiceMock(ListenerMonitor.class);
+        EasyMock.replay(monitor);
+        return new ServiceListener(wireHolder, null, null, SessionType.AUTO_ACKNOWLEDGE, getClass().getClassLoader(), null, monitor);
+    }
+
+    private ActiveMQTextMessage createTextMessage(String text, String operation) throws JMSException {
+        ActiveMQTextMessage message = new ActiveMQTextMessage();
+        message.setText(text);
+        if (operation != null) {
+            message.setStringProperty(JmsRuntimeConstants.OPERATION_HEADER, operation);
+        }
+        return message;
+    }
+
+    private ActiveMQObjectMessage createObjectMessage(Serializable value, String operation) throws JMSException {
+        ActiveMQObjectMessage message = new ActiveMQObjectMessage();
+        message.setObject(value);
+        if (operation != null) {
+            message.setStringProperty(JmsRuntimeConstants.OPERATION_HEADER, operation);
+        }
+        return message;
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        batchInterceptor = new RecordingInterceptor();
+        receiveInterceptor = new RecordingInterceptor();
+    }
+
+    private class RecordingInterceptor implements Interceptor {
+        private List<Object[]> invocations = new ArrayList<>();
+
+        public Message invoke(Message msg) {
+            // copy the body as the message is reset after a one-way dispatch
+            invocations.add(((Object[]) msg.getBody()).clone());
+            return msg;
+        }
+
+        public void setNext(Interceptor next) {
+        }
+
+        public Interceptor getNext() {
+            return null;
+        }
+    }
+
+}
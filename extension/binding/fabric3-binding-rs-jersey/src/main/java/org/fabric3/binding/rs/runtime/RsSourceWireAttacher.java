@@ -21,11 +21,14 @@ package org.fabric3.binding.rs.runtime;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -46,6 +49,7 @@ import org.fabric3.spi.host.ServletHost;
 import org.fabric3.spi.introspection.java.AnnotationHelper;
 import org.fabric3.spi.model.physical.PhysicalOperation;
 import org.fabric3.spi.model.physical.PhysicalWireTarget;
+import org.fabric3.spi.runtime.event.DeploymentCompleted;
 import org.fabric3.spi.runtime.event.EventService;
 import org.fabric3.spi.runtime.event.TransportStart;
 import org.glassfish.jersey.server.model.Resource;
@@ -68,8 +72,8 @@ public class RsSourceWireAttacher implements SourceWireAttacher<RsWireSource> {
     private RsWireAttacherMonitor monitor;
     private Level logLevel = Level.WARNING;
 
-    private boolean started;
-    private List<Runnable> registrations = new ArrayList<>();
+    private volatile boolean started;
+    private List<Runnable> registrations = new ArrayList<>();  // guarded by itself
 
     public RsSourceWireAttacher(@Reference(required = false) ServletHost servletHost,
                                 @Reference RsContainerManager containerManager,
@@ -82,8 +86,26 @@ public class RsSourceWireAttacher implements SourceWireAttacher<RsWireSource> {
         this.providerRegistry = providerRegistry;
         this.provider = provider;
         eventService.subscribe(TransportStart.class, event -> {
-            started = true;
-            registrations.forEach(Runnable::run);
+            List<Runnable> pending;
+            synchronized (registrations) {
+                started = true;
+                pending = new ArrayList<>(registrations);
+                registrations.clear();
+            }
+            pending.forEach(Runnable::run);
+            try {
+                reload();
+            } catch (Fabric3Exception e) {
+                // the deployments have already completed
+                monitor.reloadError(e);
+            }
+        });
+        // resources provisioned during a deployment are applied to their containers in one step when the deployment finishes; an error is propagated
+        // so that the deployment is rolled back
+        eventService.subscribe(DeploymentCompleted.class, event -> {
+            if (started) {
+                reload();
+            }
         });
         this.monitor = monitor;
         setDebugLevel();
@@ -96,17 +118,29 @@ public class RsSourceWireAttacher implements SourceWireAttacher<RsWireSource> {
     }
 
     public void attach(RsWireSource source, PhysicalWireTarget target, Wire wire) throws Fabric3Exception {
-        if (started) {
-            provision(source, wire);
-        } else {
-            registrations.add(() -> provision(source, wire));
+        synchronized (registrations) {
+            // attach commands may execute concurrently with the transport start event
+            if (!started) {
+                registrations.add(() -> provision(source, wire));
+                return;
+            }
+        }
+        provision(source, wire);
+    }
+
+    private void reload() throws Fabric3Exception {
+        ClassLoader old = Thread.currentThread().getContextClassLoader();
+        try {
+            Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
+            containerManager.reload();
+        } finally {
+            Thread.currentThread().setContextClassLoader(old);
         }
     }
 
     private RsContainer createContainer(URI sourceUri) {
         // each resource defined with the same binding URI will be deployed to the same container
         RsContainer container = new RsContainer(sourceUri.toString(), servletHost.getContextPath(), providerRegistry, provider);
-        containerManager.register(sourceUri, container);
         String mapping = creatingMappingUri(sourceUri);
         if (servletHost.isMappingRegistered(mapping)) {
             // wire reprovisioned
@@ -231,6 +265,9 @@ public class RsSourceWireAttacher implements SourceWireAttacher<RsWireSource> {
         methodBuilder.handledBy(handler, template.getInvocable().getHandlingMethod());
         if (template.isSuspendDeclared()) {
             methodBuilder.suspended(template.getSuspendTimeout(), template.getSuspendTimeoutUnit());
+        } else if (CompletionStage.class.isAssignableFrom(template.getInvocable().getHandlingMethod().getReturnType())) {
+            // the request is resumed when the stage returned by the component completes
+            methodBuilder.suspended(AsyncResponse.NO_TIMEOUT, TimeUnit.MILLISECONDS);
         }
         if (template.isManagedAsyncDeclared()) {
             methodBuilder.managedAsync();
@@ -21,6 +21,7 @@ package org.fabric3.binding.rs.runtime;
 import java.net.URI;
 
 import org.fabric3.api.annotation.monitor.Info;
+import org.fabric3.api.annotation.monitor.Severe;
 
 /**
  *
@@ -46,4 +47,7 @@ public interface RsWireAttacherMonitor {
     @Info("Servlet container not configured. REST context disabled: {0}")
     void noServletContainer(URI uri);
 
+    @Severe("Error initializing REST endpoints")
+    void reloadError(Throwable e);
+
 }
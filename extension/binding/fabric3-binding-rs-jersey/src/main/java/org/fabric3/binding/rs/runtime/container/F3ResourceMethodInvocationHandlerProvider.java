@@ -16,8 +16,13 @@
  */
 package org.fabric3.binding.rs.runtime.container;
 
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.ws.rs.container.AsyncResponse;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 import org.glassfish.jersey.server.model.Invocable;
 import org.glassfish.jersey.server.spi.internal.ResourceMethodInvocationHandlerProvider;
@@ -25,18 +30,58 @@ import org.jvnet.hk2.annotations.Contract;
 
 /**
  * Passes an invocation from Jersey to Fabric3.
+ * <p>
+ * Resource methods returning a {@link CompletionStage} are suspended and resumed when the stage completes. {@link AsyncResponse} parameters are wrapped so
+ * that the work context of the original request is available on the thread resuming the response.
  */
 @Contract
 public class F3ResourceMethodInvocationHandlerProvider implements ResourceMethodInvocationHandlerProvider {
     private static final Handler HANDLER = new Handler();
 
+    @Inject
+    private Provider<AsyncResponse> asyncResponseProvider;
+
+    private CompletionStageHandler completionStageHandler = new CompletionStageHandler();
+
     public InvocationHandler create(Invocable method) {
+        if (CompletionStage.class.isAssignableFrom(method.getHandlingMethod().getReturnType())) {
+            return completionStageHandler;
+        }
         return HANDLER;
     }
 
     private static class Handler implements InvocationHandler {
         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    if (args[i] instanceof AsyncResponse) {
+                        args[i] = new WorkContextAsyncResponse((AsyncResponse) args[i], WorkContextSnapshot.capture());
+                    }
+                }
+            }
             return ((F3ResourceHandler) proxy).invoke(method, args);
         }
     }
+
+    private class CompletionStageHandler implements InvocationHandler {
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // the request was suspended by Jersey before the method is dispatched; resolve the response while still on the request thread
+            AsyncResponse response = new WorkContextAsyncResponse(asyncResponseProvider.get(), WorkContextSnapshot.capture());
+            CompletionStage<?> stage = (CompletionStage<?>) HANDLER.invoke(proxy, method, args);
+            if (stage == null) {
+                response.resume((Object) null);
+                return null;
+            }
+            stage.whenComplete((value, throwable) -> {
+                if (throwable == null) {
+                    response.resume(value);
+                } else if (throwable instanceof CompletionException && throwable.getCause() != null) {
+                    response.resume(throwable.getCause());
+                } else {
+                    response.resume(throwable);
+                }
+            });
+            return null;
+        }
+    }
 }
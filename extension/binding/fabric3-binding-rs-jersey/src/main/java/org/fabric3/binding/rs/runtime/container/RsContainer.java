@@ -17,6 +17,8 @@
 package org.fabric3.binding.rs.runtime.container;
 
 import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.DispatcherType;
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletConfig;
@@ -25,6 +27,7 @@ import javax.servlet.ServletException;
 import javax.servlet.ServletInputStream;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -42,6 +45,9 @@ import java.util.Enumeration;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.binding.rs.runtime.provider.NameBindingFilterProvider;
@@ -57,7 +63,16 @@ import org.glassfish.jersey.servlet.ServletContainer;
 /**
  * Dispatches to resources under a common binding URI path defined in a deployable contribution. Specifically, all binding.rs resources configured with the same
  * URI.
+ * <p>
+ * The container supports asynchronous processing: resources that suspend a request using {@code AsyncResponse} or return a {@code CompletionStage} release
+ * the servlet thread until the response is resumed.
+ * <p>
+ * Resources added while a deployment is in progress are held until {@link #reload()} is called, at which point a new Jersey container is built and
+ * initialized with all resources and then swapped in. Requests continue to be served by the previous container until the swap. The previous container is
+ * destroyed once the requests it is processing, including suspended asynchronous requests, complete. If the new container cannot be initialized, the added
+ * resources are retained so that they are applied by a subsequent reload.
  */
+@WebServlet(asyncSupported = true)
 @SuppressWarnings("NonSerializableFieldInSerializableClass")
 public final class RsContainer extends HttpServlet {
     private static final long serialVersionUID = 1954697059021782141L;
@@ -67,9 +82,11 @@ public final class RsContainer extends HttpServlet {
     private ProviderRegistry providerRegistry;
     private NameBindingFilterProvider provider;
 
-    private ServletContainer servlet;
+    private Generation current;  // guarded by lock
     private ServletConfig servletConfig;
     private List<Resource> resources;
+    private List<Resource> pending;
+    private ReadWriteLock lock = new ReentrantReadWriteLock();
 
     public RsContainer(String path, String contextPath, ProviderRegistry providerRegistry, NameBindingFilterProvider provider) {
         this.path = path;
@@ -77,11 +94,58 @@ public final class RsContainer extends HttpServlet {
         this.providerRegistry = providerRegistry;
         this.provider = provider;
         this.resources = new ArrayList<>();
+        this.pending = new ArrayList<>();
     }
 
-    public void addResource(Resource resource) throws Fabric3Exception {
-        resources.add(resource);
-        reload();
+    /**
+     * Adds a resource to the container. The resource is not available until {@link #reload()} is called.
+     *
+     * @param resource the resource
+     */
+    public synchronized void addResource(Resource resource) {
+        pending.add(resource);
+    }
+
+    /**
+     * Applies resources added since the previous reload. If there are none, this method does nothing.
+     *
+     * @throws Fabric3Exception if there is an error initializing the Jersey container
+     */
+    public synchronized void reload() throws Fabric3Exception {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Resource> updated = new ArrayList<>(resources);
+        updated.addAll(pending);
+        // build and initialize outside the lock so requests are not blocked
+        ServletContainer container = createContainer(updated);
+        Generation previous;
+        lock.writeLock().lock();
+        try {
+            previous = current;
+            current = new Generation(container);
+            resources = updated;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pending.clear();
+        if (previous != null) {
+            previous.release();
+        }
+    }
+
+    public void destroy() {
+        Generation previous;
+        lock.writeLock().lock();
+        try {
+            previous = current;
+            current = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (previous != null) {
+            previous.release();
+        }
     }
 
     public void init(ServletConfig config) {
@@ -102,12 +166,22 @@ public final class RsContainer extends HttpServlet {
 
             workContext.setHeader("fabric3.httpRequest", req);
             workContext.setHeader("fabric3.httpResponse", res);
-            if (servlet == null || servlet.getWebComponent() == null) {
+            Generation generation = acquire();
+            if (generation == null) {
                 // not yet initialized
                 res.setStatus(404);
                 return;
             }
-            servlet.service(req, res);
+            try {
+                generation.servlet.service(req, res);
+            } finally {
+                if (req.isAsyncStarted()) {
+                    // the request is suspended and completes after the servlet returns
+                    req.getAsyncContext().addListener(generation);
+                } else {
+                    generation.release();
+                }
+            }
         } catch (ServletException | IOException se) {
             se.printStackTrace();
             throw se;
@@ -120,7 +194,26 @@ public final class RsContainer extends HttpServlet {
         }
     }
 
-    private void reload() throws Fabric3Exception {
+    /**
+     * Returns the current Jersey container after registering a request with it or null if the container is not initialized. The request must be released when
+     * it completes.
+     *
+     * @return the current container or null
+     */
+    private Generation acquire() {
+        lock.readLock().lock();
+        try {
+            if (current == null || current.servlet.getWebComponent() == null) {
+                return null;
+            }
+            current.active.incrementAndGet();
+            return current;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private ServletContainer createContainer(List<Resource> resources) throws Fabric3Exception {
         try {
             // register contribution resources
             ResourceConfig resourceConfig = new ResourceConfig();
@@ -135,13 +228,48 @@ public final class RsContainer extends HttpServlet {
 
             resources.forEach(resourceConfig::registerResources);
 
-            servlet = new ServletContainer(resourceConfig);
-            servlet.init(servletConfig);
+            ServletContainer container = new ServletContainer(resourceConfig);
+            container.init(servletConfig);
+            return container;
         } catch (Throwable t) {
             throw new Fabric3Exception(t);
         }
     }
 
+    /**
+     * A Jersey container and the number of references to it, which are held by the requests it is processing and by the RsContainer until the container is
+     * replaced. The Jersey container is destroyed when the last reference is released.
+     */
+    private static class Generation implements AsyncListener {
+        private ServletContainer servlet;
+        private AtomicInteger active = new AtomicInteger(1);
+
+        private Generation(ServletContainer servlet) {
+            this.servlet = servlet;
+        }
+
+        private void release() {
+            if (active.decrementAndGet() == 0) {
+                servlet.destroy();
+            }
+        }
+
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        public void onError(AsyncEvent event) {
+        }
+
+        public void onStartAsync(AsyncEvent event) {
+            // listeners must be re-registered when the request is suspended again
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
     /**
      * Wraps the request to override {@link #getServletPath()} and always return the root path. This is necessary since Jersey routes requests to resources
      * based on the root servlet path. Since the RsContainer servlet is not the root servlet (binding.rs registers resources relative to the binding URI), the
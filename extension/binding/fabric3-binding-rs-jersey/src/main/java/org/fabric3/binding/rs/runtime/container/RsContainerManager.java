@@ -19,6 +19,8 @@ package org.fabric3.binding.rs.runtime.container;
 import java.net.URI;
 import java.util.function.Supplier;
 
+import org.fabric3.api.host.Fabric3Exception;
+
 /**
  * Manages active {@link RsContainer}s.
  */
@@ -40,11 +42,19 @@ public interface RsContainerManager {
     void unregister(URI name);
 
     /**
-     * Returns a container matching the given name.
+     * Returns the container matching the given name, atomically creating and registering one using the supplier if none is registered.
      *
-     * @param name the container name
-     * @return the container or null if not found
+     * @param name     the container name
+     * @param supplier creates the container if none is registered
+     * @return the container
      */
     RsContainer getOrDefault(URI name, Supplier<RsContainer> supplier);
 
+    /**
+     * Applies resources added to containers since the previous reload. Containers without added resources are not changed.
+     *
+     * @throws Fabric3Exception if one or more containers could not be reloaded
+     */
+    void reload() throws Fabric3Exception;
+
 }
@@ -21,6 +21,8 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
+import org.fabric3.api.host.Fabric3Exception;
+
 /**
  *
  */
@@ -36,7 +38,26 @@ public class RsContainerManagerImpl implements RsContainerManager {
     }
 
     public RsContainer getOrDefault(URI name, Supplier<RsContainer> supplier) {
-        RsContainer container = containers.get(name);
-        return container == null ? supplier.get() : container;
+        // resources sharing a binding URI may be provisioned concurrently and must be added to the same container
+        return containers.computeIfAbsent(name, n -> supplier.get());
+    }
+
+    public void reload() throws Fabric3Exception {
+        Fabric3Exception error = null;
+        for (RsContainer container : containers.values()) {
+            // reload all containers even if one fails so unrelated endpoints become available
+            try {
+                container.reload();
+            } catch (Fabric3Exception e) {
+                if (error == null) {
+                    error = e;
+                } else {
+                    error.addSuppressed(e);
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
     }
 }
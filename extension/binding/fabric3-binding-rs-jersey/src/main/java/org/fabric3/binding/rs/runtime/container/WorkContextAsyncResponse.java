@@ -0,0 +1,101 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.rs.runtime.container;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Wraps an {@link AsyncResponse} passed to a component so that the work context of the suspended request is installed on the thread resuming or cancelling
+ * the response.
+ */
+final class WorkContextAsyncResponse implements AsyncResponse {
+    private AsyncResponse delegate;
+    private WorkContextSnapshot snapshot;
+
+    public WorkContextAsyncResponse(AsyncResponse delegate, WorkContextSnapshot snapshot) {
+        this.delegate = delegate;
+        this.snapshot = snapshot;
+    }
+
+    public boolean resume(Object response) {
+        return complete(() -> delegate.resume(response));
+    }
+
+    public boolean resume(Throwable response) {
+        return complete(() -> delegate.resume(response));
+    }
+
+    public boolean cancel() {
+        return complete(delegate::cancel);
+    }
+
+    public boolean cancel(int retryAfter) {
+        return complete(() -> delegate.cancel(retryAfter));
+    }
+
+    public boolean cancel(Date retryAfter) {
+        return complete(() -> delegate.cancel(retryAfter));
+    }
+
+    public boolean isSuspended() {
+        return delegate.isSuspended();
+    }
+
+    public boolean isCancelled() {
+        return delegate.isCancelled();
+    }
+
+    public boolean isDone() {
+        return delegate.isDone();
+    }
+
+    public boolean setTimeout(long time, TimeUnit unit) {
+        return delegate.setTimeout(time, unit);
+    }
+
+    public void setTimeoutHandler(TimeoutHandler handler) {
+        delegate.setTimeoutHandler(handler);
+    }
+
+    public Collection<Class<?>> register(Class<?> callback) {
+        return delegate.register(callback);
+    }
+
+    public Map<Class<?>, Collection<Class<?>>> register(Class<?> callback, Class<?>... callbacks) {
+        return delegate.register(callback, callbacks);
+    }
+
+    public Collection<Class<?>> register(Object callback) {
+        return delegate.register(callback);
+    }
+
+    public Map<Class<?>, Collection<Class<?>>> register(Object callback, Object... callbacks) {
+        return delegate.register(callback, callbacks);
+    }
+
+    private boolean complete(BooleanSupplier action) {
+        boolean[] result = new boolean[1];
+        snapshot.run(() -> result[0] = action.getAsBoolean());
+        return result[0];
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.rs.runtime.container;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.fabric3.api.SecuritySubject;
+import org.fabric3.spi.container.invocation.WorkContext;
+import org.fabric3.spi.container.invocation.WorkContextCache;
+
+/**
+ * A copy of the work context associated with a suspended request. Since the Jetty thread that received the request resets its work context when the servlet
+ * returns, the copy is installed on the thread that completes the request so the subject, headers and callback references remain available.
+ */
+final class WorkContextSnapshot {
+    private SecuritySubject subject;
+    private Map<String, Object> headers;
+    private List<String> callbackReferences;
+
+    private WorkContextSnapshot(WorkContext context) {
+        subject = context.getSubject();
+        if (context.getHeaders() != null) {
+            headers = new HashMap<>(context.getHeaders());
+        }
+        if (context.getCallbackReferences() != null) {
+            callbackReferences = new ArrayList<>(context.getCallbackReferences());
+        }
+    }
+
+    /**
+     * Captures the work context associated with the current thread.
+     *
+     * @return the snapshot
+     */
+    public static WorkContextSnapshot capture() {
+        return new WorkContextSnapshot(WorkContextCache.getThreadWorkContext());
+    }
+
+    /**
+     * Runs the task with the snapshot installed as the current thread's work context. The thread's previous work context is restored afterward.
+     *
+     * @param task the task
+     */
+    public void run(Runnable task) {
+        WorkContext context = WorkContextCache.getThreadWorkContext();
+        WorkContextSnapshot previous = new WorkContextSnapshot(context);
+        apply(context);
+        try {
+            task.run();
+        } finally {
+            previous.apply(context);
+        }
+    }
+
+    private void apply(WorkContext context) {
+        context.reset();
+        context.setSubject(subject);
+        if (headers != null) {
+            context.addHeaders(new HashMap<>(headers));
+        }
+        if (callbackReferences != null) {
+            context.addCallbackReferences(new ArrayList<>(callbackReferences));
+        }
+    }
+}
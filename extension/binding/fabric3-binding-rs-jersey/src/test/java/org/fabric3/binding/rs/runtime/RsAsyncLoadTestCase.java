@@ -0,0 +1,248 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.rs.runtime;
+
+import javax.servlet.Servlet;
+import javax.servlet.annotation.WebServlet;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.fabric3.binding.rs.provision.RsWireSource;
+import org.fabric3.binding.rs.runtime.container.RsContainerManagerImpl;
+import org.fabric3.binding.rs.runtime.provider.NameBindingFilterProviderImpl;
+import org.fabric3.binding.rs.runtime.provider.ProviderRegistryImpl;
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.invocation.WorkContextCache;
+import org.fabric3.spi.container.wire.Interceptor;
+import org.fabric3.spi.container.wire.InvocationChain;
+import org.fabric3.spi.container.wire.Wire;
+import org.fabric3.spi.host.ServletHost;
+import org.fabric3.spi.model.physical.PhysicalOperation;
+import org.fabric3.spi.runtime.event.EventService;
+import org.fabric3.spi.runtime.event.Fabric3Event;
+import org.fabric3.spi.runtime.event.Fabric3EventListener;
+import org.fabric3.spi.runtime.event.TransportStart;
+
+/**
+ * Drives an embedded Jetty server with an increasing number of concurrent requests to a resource returning a {@link CompletionStage} that is completed on
+ * another thread. Since requests are suspended, the number of busy server threads must stay flat as concurrency grows beyond the size of the thread pool.
+ */
+public class RsAsyncLoadTestCase extends TestCase {
+    private static final int MAX_THREADS = 16;
+    private static final int[] CONCURRENCY = {10, 50, 100};
+
+    private Server server;
+    private QueuedThreadPool threadPool;
+    private ServletContextHandler context;
+    private int port;
+    private BlockingQueue<CompletableFuture<String>> pending = new LinkedBlockingQueue<>();
+
+    public void testThreadUsageFlat() throws Exception {
+        int baseline = threadPool.getBusyThreads();
+        List<Integer> busy = new ArrayList<>();
+        for (int concurrency : CONCURRENCY) {
+            busy.add(runLoad(concurrency));
+        }
+        for (int count : busy) {
+            assertTrue("Server threads held by suspended requests: " + busy, count <= baseline + 2);
+        }
+    }
+
+    private int runLoad(int concurrency) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        ExecutorService completer = Executors.newSingleThreadExecutor();
+        try {
+            List<Future<HttpURLConnection>> responses = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                responses.add(clients.submit(this::get));
+            }
+
+            // all requests must be in flight at once even though there are more requests than server threads
+            List<CompletableFuture<String>> suspended = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                CompletableFuture<String> future = pending.poll(20, TimeUnit.SECONDS);
+                assertNotNull("Requests were not dispatched concurrently: " + i + " of " + concurrency, future);
+                suspended.add(future);
+            }
+            // allow servlet threads that suspended their request to return to the pool
+            Thread.sleep(200);
+            int busy = threadPool.getBusyThreads();
+
+            completer.execute(() -> suspended.forEach(future -> future.complete("ok")));
+            for (Future<HttpURLConnection> future : responses) {
+                HttpURLConnection connection = future.get(20, TimeUnit.SECONDS);
+                assertEquals(200, connection.getResponseCode());
+                assertEquals("propagated", connection.getHeaderField("X-Work-Context"));
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
+                    assertEquals("ok", reader.readLine());
+                }
+            }
+            return busy;
+        } finally {
+            clients.shutdownNow();
+            completer.shutdownNow();
+        }
+    }
+
+    private HttpURLConnection get() throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/service/slow").openConnection();
+        connection.setReadTimeout(30000);
+        connection.getResponseCode();
+        return connection;
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        threadPool = new QueuedThreadPool(MAX_THREADS, 4);
+        server = new Server(threadPool);
+        ServerConnector connector = new ServerConnector(server, 1, 1);
+        connector.setAcceptQueueSize(256);
+        server.addConnector(connector);
+        context = new ServletContextHandler();
+        context.setContextPath("/");
+        server.setHandler(context);
+        server.start();
+        port = connector.getLocalPort();
+
+        ServletHost servletHost = EasyMock.createMock(ServletHost.class);
+        EasyMock.expect(servletHost.getContextPath()).andReturn("").anyTimes();
+        EasyMock.expect(servletHost.isMappingRegistered("/service/*")).andReturn(false);
+        servletHost.registerMapping(EasyMock.eq("/service/*"), EasyMock.isA(Servlet.class));
+        EasyMock.expectLastCall().andAnswer(() -> {
+            Servlet servlet = (Servlet) EasyMock.getCurrentArguments()[1];
+            ServletHolder holder = new ServletHolder(servlet);
+            WebServlet annotation = servlet.getClass().getAnnotation(WebServlet.class);
+            holder.setAsyncSupported(annotation != null && annotation.asyncSupported());
+            context.addServlet(holder, "/service/*");
+            return null;
+        });
+        RsWireAttacherMonitor monitor = EasyMock.createNiceMock(RsWireAttacherMonitor.class);
+        EasyMock.replay(servletHost, monitor);
+
+        ProviderRegistryImpl providerRegistry = new ProviderRegistryImpl();
+        providerRegistry.registerGlobalProvider(URI.create("workContextFilter"), new WorkContextFilter());
+        NameBindingFilterProviderImpl filterProvider = new NameBindingFilterProviderImpl(providerRegistry);
+
+        TransportStartService eventService = new TransportStartService();
+        RsSourceWireAttacher attacher = new RsSourceWireAttacher(servletHost,
+                                                                 new RsContainerManagerImpl(),
+                                                                 providerRegistry,
+                                                                 filterProvider,
+                                                                 eventService,
+                                                                 monitor);
+        attacher.attach(new RsWireSource(SlowResource.class, URI.create("/service")), null, createWire());
+        eventService.start();
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        server.stop();
+    }
+
+    private Wire createWire() {
+        PhysicalOperation operation = new PhysicalOperation();
+        operation.setName("get");
+        Interceptor interceptor = new Interceptor() {
+            public Message invoke(Message msg) {
+                CompletableFuture<String> future = new CompletableFuture<>();
+                pending.add(future);
+                msg.setBody(future);
+                return msg;
+            }
+
+            public void setNext(Interceptor next) {
+            }
+
+            public Interceptor getNext() {
+                return null;
+            }
+        };
+        InvocationChain chain = EasyMock.createMock(InvocationChain.class);
+        EasyMock.expect(chain.getPhysicalOperation()).andReturn(operation).anyTimes();
+        EasyMock.expect(chain.getHeadInterceptor()).andReturn(interceptor).anyTimes();
+        Wire wire = EasyMock.createMock(Wire.class);
+        EasyMock.expect(wire.getInvocationChains()).andReturn(Collections.singletonList(chain)).anyTimes();
+        EasyMock.replay(chain, wire);
+        return wire;
+    }
+
+    @Path("/slow")
+    public interface SlowResource {
+
+        @GET
+        @Produces("text/plain")
+        CompletionStage<String> get();
+    }
+
+    /**
+     * Response filters run on the thread that resumes the request. Verifies the work context set by the servlet thread is available there.
+     */
+    public static class WorkContextFilter implements ContainerResponseFilter {
+        public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+            Object request = WorkContextCache.getThreadWorkContext().getHeader(Object.class, "fabric3.httpRequest");
+            responseContext.getHeaders().add("X-Work-Context", request != null ? "propagated" : "missing");
+        }
+    }
+
+    private static class TransportStartService implements EventService {
+        private Fabric3EventListener<TransportStart> listener;
+
+        public void publish(Fabric3Event event) {
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T extends Fabric3Event> void subscribe(Class<T> type, Fabric3EventListener<T> listener) {
+            if (TransportStart.class.equals(type)) {
+                this.listener = (Fabric3EventListener<TransportStart>) listener;
+            }
+        }
+
+        public <T extends Fabric3Event> void unsubscribe(Class<T> type, Fabric3EventListener<T> listener) {
+        }
+
+        public void start() {
+            listener.onEvent(new TransportStart());
+        }
+    }
+}
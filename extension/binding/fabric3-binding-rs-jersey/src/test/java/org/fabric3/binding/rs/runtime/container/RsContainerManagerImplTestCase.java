@@ -0,0 +1,66 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.rs.runtime.container;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+/**
+ * Verifies resources sharing a binding URI are provisioned to a single container.
+ */
+public class RsContainerManagerImplTestCase extends TestCase {
+    private static final int THREADS = 8;
+
+    public void testConcurrentGetOrDefaultCreatesOneContainer() throws Exception {
+        RsContainerManagerImpl manager = new RsContainerManagerImpl();
+        URI uri = URI.create("/service");
+        AtomicInteger created = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<RsContainer>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                Callable<RsContainer> task = () -> {
+                    start.await();
+                    return manager.getOrDefault(uri, () -> {
+                        created.incrementAndGet();
+                        return new RsContainer("/service", "", null, null);
+                    });
+                };
+                futures.add(executorService.submit(task));
+            }
+            start.countDown();
+            RsContainer container = futures.get(0).get();
+            for (Future<RsContainer> future : futures) {
+                assertSame(container, future.get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertEquals(1, created.get());
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.rs.runtime.container;
+
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.binding.rs.runtime.provider.NameBindingFilterProviderImpl;
+import org.fabric3.binding.rs.runtime.provider.ProviderRegistryImpl;
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.wire.Interceptor;
+import org.fabric3.spi.container.wire.InvocationChain;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+/**
+ *
+ */
+public class RsContainerTestCase extends TestCase {
+    private Server server;
+    private int port;
+    private RsContainer container;
+    private ProviderRegistryImpl providerRegistry;
+    private AtomicInteger failures = new AtomicInteger();
+
+    public void testResourcesAppliedOnReload() throws Exception {
+        container.addResource(createResource("a"));
+        container.addResource(createResource("b"));
+        assertEquals(404, get("a"));
+
+        container.reload();
+        assertEquals(200, get("a"));
+        assertEquals(200, get("b"));
+
+        container.addResource(createResource("c"));
+        assertEquals(404, get("c"));
+        // existing resources continue to be served until the reload
+        assertEquals(200, get("a"));
+
+        container.reload();
+        assertEquals(200, get("a"));
+        assertEquals(200, get("c"));
+    }
+
+    public void testServeDuringReload() throws Exception {
+        container.addResource(createResource("a"));
+        container.reload();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger requests = new AtomicInteger();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> failure = executorService.submit(() -> {
+                while (running.get()) {
+                    int status = get("a");
+                    if (status != 200) {
+                        return status;
+                    }
+                    requests.incrementAndGet();
+                }
+                return 200;
+            });
+            for (int i = 0; i < 10; i++) {
+                container.addResource(createResource("r" + i));
+                container.reload();
+            }
+            running.set(false);
+            assertEquals(200, failure.get(10, TimeUnit.SECONDS).intValue());
+            assertTrue(requests.get() > 0);
+            assertEquals(200, get("r9"));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    public void testPendingResourcesRetainedOnError() throws Exception {
+        container.addResource(createResource("a"));
+        failures.set(1);
+        try {
+            container.reload();
+            fail();
+        } catch (Fabric3Exception e) {
+            // expected
+        }
+        assertEquals(404, get("a"));
+
+        container.reload();
+        assertEquals(200, get("a"));
+    }
+
+    public void testReplacedContainerDestroyed() throws Exception {
+        AtomicInteger destroyed = new AtomicInteger();
+        providerRegistry.registerGlobalProvider(URI.create("listener"), new ApplicationEventListener() {
+            public void onEvent(ApplicationEvent event) {
+                if (event.getType() == ApplicationEvent.Type.DESTROY_FINISHED) {
+                    destroyed.incrementAndGet();
+                }
+            }
+
+            public RequestEventListener onRequest(RequestEvent requestEvent) {
+                return null;
+            }
+        });
+        container.addResource(createResource("a"));
+        container.reload();
+        assertEquals(200, get("a"));
+
+        container.addResource(createResource("b"));
+        container.reload();
+        assertEquals(200, get("a"));
+        assertEquals(200, get("b"));
+        // containers are destroyed once the servlet threads processing their requests return
+        awaitDestroyed(destroyed, 1);
+
+        container.destroy();
+        awaitDestroyed(destroyed, 2);
+    }
+
+    private void awaitDestroyed(AtomicInteger destroyed, int expected) throws InterruptedException {
+        for (int i = 0; i < 100 && destroyed.get() < expected; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, destroyed.get());
+    }
+
+    private Resource createResource(String name) throws NoSuchMethodException {
+        Interceptor interceptor = new Interceptor() {
+            public Message invoke(Message msg) {
+                msg.setBody(name);
+                return msg;
+            }
+
+            public void setNext(Interceptor next) {
+            }
+
+            public Interceptor getNext() {
+                return null;
+            }
+        };
+        InvocationChain chain = EasyMock.createMock(InvocationChain.class);
+        EasyMock.expect(chain.getHeadInterceptor()).andReturn(interceptor).anyTimes();
+        EasyMock.replay(chain);
+        F3ResourceHandler handler = new F3ResourceHandler(NamedResource.class, Collections.singletonMap("get", chain));
+
+        Resource.Builder builder = Resource.builder(name);
+        builder.addMethod("GET").produces("text/plain").handledBy(handler, NamedResource.class.getMethod("get"));
+        return builder.build();
+    }
+
+    private int get(String path) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/service/" + path).openConnection();
+        try {
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        server = new Server();
+        ServerConnector connector = new ServerConnector(server);
+        server.addConnector(connector);
+        ServletContextHandler context = new ServletContextHandler();
+        context.setContextPath("/");
+        server.setHandler(context);
+        server.start();
+        port = connector.getLocalPort();
+
+        providerRegistry = new ProviderRegistryImpl() {
+            public Collection<Object> getGlobalProvider() {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("Expected");
+                }
+                return super.getGlobalProvider();
+            }
+        };
+        container = new RsContainer("/service", "", providerRegistry, new NameBindingFilterProviderImpl(providerRegistry));
+        context.addServlet(new ServletHolder(container), "/service/*");
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        server.stop();
+    }
+
+    public interface NamedResource {
+
+        String get();
+    }
+}
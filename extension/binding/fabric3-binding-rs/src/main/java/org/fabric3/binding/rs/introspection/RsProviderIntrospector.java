@@ -22,6 +22,7 @@ import java.net.URL;
 
 import org.fabric3.api.annotation.model.Component;
 import org.fabric3.api.host.stream.UrlSource;
+import org.fabric3.spi.contribution.ClassMetadata;
 import org.fabric3.spi.contribution.Constants;
 import org.fabric3.spi.contribution.Contribution;
 import org.fabric3.spi.contribution.JavaArtifactIntrospector;
@@ -53,4 +54,12 @@ public class RsProviderIntrospector implements JavaArtifactIntrospector {
         return resource;
     }
 
+    /**
+     * Only concrete classes annotated with {@link Provider} are candidates. Resource classes annotated with {@link javax.ws.rs.Path} are not introspected
+     * here: they must be components and are loaded for the component introspector, after which the binding is added by {@link RsPostProcessor}.
+     */
+    public boolean isCandidate(ClassMetadata metadata, Contribution contribution) {
+        return !metadata.isAbstract() && metadata.isAnnotatedWith(Provider.class.getName());
+    }
+
 }
@@ -0,0 +1,84 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.binding.rs.introspection;
+
+import javax.ws.rs.Path;
+import javax.ws.rs.ext.Provider;
+import java.net.URI;
+import java.net.URL;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.annotation.model.Component;
+import org.fabric3.spi.contribution.ClassMetadata;
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.Resource;
+import org.fabric3.spi.introspection.DefaultIntrospectionContext;
+
+/**
+ *
+ */
+public class RsProviderIntrospectorTestCase extends TestCase {
+    private RsProviderIntrospector introspector = new RsProviderIntrospector();
+    private Contribution contribution = new Contribution(URI.create("test"));
+
+    public void testProviderIsCandidate() throws Exception {
+        assertTrue(introspector.isCandidate(createMetadata(false, true), contribution));
+    }
+
+    public void testAbstractProviderIsNotCandidate() throws Exception {
+        assertFalse(introspector.isCandidate(createMetadata(true, true), contribution));
+    }
+
+    public void testResourceIsNotCandidate() throws Exception {
+        assertFalse(introspector.isCandidate(createMetadata(false, false), contribution));
+    }
+
+    public void testInspectProvider() throws Exception {
+        URL url = getClass().getResource("RsProviderIntrospectorTestCase.class");
+        Resource resource = introspector.inspect(TestProvider.class, url, contribution, new DefaultIntrospectionContext());
+        assertNotNull(resource);
+        assertNull(introspector.inspect(TestResource.class, url, contribution, new DefaultIntrospectionContext()));
+        assertNull(introspector.inspect(TestComponentProvider.class, url, contribution, new DefaultIntrospectionContext()));
+    }
+
+    private ClassMetadata createMetadata(boolean isAbstract, boolean provider) {
+        ClassMetadata metadata = EasyMock.createNiceMock(ClassMetadata.class);
+        EasyMock.expect(metadata.isAbstract()).andReturn(isAbstract).anyTimes();
+        EasyMock.expect(metadata.isAnnotatedWith(Provider.class.getName())).andReturn(provider).anyTimes();
+        EasyMock.expect(metadata.isAnnotatedWith(Path.class.getName())).andReturn(!provider).anyTimes();
+        EasyMock.replay(metadata);
+        return metadata;
+    }
+
+    @Provider
+    public static class TestProvider {
+
+    }
+
+    @Path("/")
+    public static class TestResource {
+
+    }
+
+    @Provider
+    @Component
+    public static class TestComponentProvider {
+
+    }
+
+}
@@ -21,6 +21,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
 import org.fabric3.api.annotation.model.Binding;
+import org.fabric3.api.binding.zeromq.model.LoadBalancing;
 import static java.lang.annotation.ElementType.FIELD;
 import static java.lang.annotation.ElementType.METHOD;
 import static java.lang.annotation.ElementType.PARAMETER;
@@ -113,6 +114,20 @@ public @interface ZeroMQ {
      */
     String wireFormat() default "";
 
+    /**
+     * Specifies the strategy for selecting a service endpoint when a reference is wired to more than one.
+     *
+     * @return the load balancing strategy
+     */
+    LoadBalancing loadBalancing() default LoadBalancing.ROUND_ROBIN;
+
+    /**
+     * Specifies the relative capacity of the service endpoint.
+     *
+     * @return the weight
+     */
+    int weight() default 1;
+
     /**
      * Specifies the runtime environments this annotation is activated in. If blank, the annotation is active in all environments.
      *
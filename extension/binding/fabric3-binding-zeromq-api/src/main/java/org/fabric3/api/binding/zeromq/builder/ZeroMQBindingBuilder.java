@@ -20,6 +20,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.fabric3.api.binding.zeromq.model.LoadBalancing;
 import org.fabric3.api.binding.zeromq.model.SocketAddressDefinition;
 import org.fabric3.api.binding.zeromq.model.ZeroMQBinding;
 import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
@@ -107,4 +108,16 @@ public class ZeroMQBindingBuilder extends AbstractBuilder {
         return this;
     }
 
+    public ZeroMQBindingBuilder loadBalancing(LoadBalancing value) {
+        checkState();
+        binding.getZeroMQMetadata().setLoadBalancing(value);
+        return this;
+    }
+
+    public ZeroMQBindingBuilder weight(int value) {
+        checkState();
+        binding.getZeroMQMetadata().setWeight(value);
+        return this;
+    }
+
 }
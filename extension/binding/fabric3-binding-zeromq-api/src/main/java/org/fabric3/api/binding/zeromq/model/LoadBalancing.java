@@ -0,0 +1,44 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.api.binding.zeromq.model;
+
+/**
+ * Strategies for selecting a service endpoint when a reference is wired to more than one.
+ */
+public enum LoadBalancing {
+
+    /**
+     * Endpoints are selected in turn.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Endpoints are selected randomly in proportion to their configured weight.
+     */
+    WEIGHTED,
+
+    /**
+     * The endpoint with the fewest requests in flight, adjusted by its reported load and weight, is selected.
+     */
+    LEAST_OUTSTANDING,
+
+    /**
+     * Two endpoints are sampled at random and the one with the fewest requests in flight, adjusted by its reported load and weight, is selected.
+     */
+    POWER_OF_TWO
+
+}
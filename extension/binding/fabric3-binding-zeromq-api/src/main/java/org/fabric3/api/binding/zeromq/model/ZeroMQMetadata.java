@@ -37,6 +37,8 @@ public class ZeroMQMetadata implements Serializable {
     private long receiveBuffer = -1;
     private String wireFormat;
     private long timeout = 10;  // in milliseconds; default to 10
+    private LoadBalancing loadBalancing = LoadBalancing.ROUND_ROBIN;
+    private int weight = 1;
 
     /**
      * Returns the list of hosts to connect or bind to or null if not explicitly set.
@@ -199,4 +201,40 @@ public class ZeroMQMetadata implements Serializable {
     public void setTimeout(long timeout) {
         this.timeout = timeout;
     }
+
+    /**
+     * Returns the strategy used to select a service endpoint when a reference is wired to more than one.
+     *
+     * @return the load balancing strategy
+     */
+    public LoadBalancing getLoadBalancing() {
+        return loadBalancing;
+    }
+
+    /**
+     * Sets the strategy used to select a service endpoint when a reference is wired to more than one.
+     *
+     * @param loadBalancing the load balancing strategy
+     */
+    public void setLoadBalancing(LoadBalancing loadBalancing) {
+        this.loadBalancing = loadBalancing;
+    }
+
+    /**
+     * Returns the relative capacity of a service endpoint, which is published to clients for weighted endpoint selection.
+     *
+     * @return the weight
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Sets the relative capacity of a service endpoint.
+     *
+     * @param weight the weight
+     */
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
 }
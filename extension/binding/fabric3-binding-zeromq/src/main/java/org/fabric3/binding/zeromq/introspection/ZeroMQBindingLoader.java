@@ -26,6 +26,7 @@ import java.util.List;
 
 import org.fabric3.api.Namespaces;
 import org.fabric3.api.annotation.wire.Key;
+import org.fabric3.api.binding.zeromq.model.LoadBalancing;
 import org.fabric3.api.binding.zeromq.model.SocketAddressDefinition;
 import org.fabric3.api.binding.zeromq.model.ZeroMQBinding;
 import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
@@ -55,7 +56,9 @@ public class ZeroMQBindingLoader extends AbstractValidatingTypeLoader<ZeroMQBind
                       "multicast.recovery",
                       "send.buffer",
                       "receive.buffer",
-                      "wireFormat");
+                      "wireFormat",
+                      "load.balancing",
+                      "weight");
     }
 
     public ZeroMQBinding load(XMLStreamReader reader, IntrospectionContext context) throws XMLStreamException {
@@ -122,6 +125,35 @@ public class ZeroMQBindingLoader extends AbstractValidatingTypeLoader<ZeroMQBind
         metadata.setReceiveBuffer(receiveBuffer);
         metadata.setWireFormat(wireFormat);
 
+        String loadBalancing = reader.getAttributeValue(null, "load.balancing");
+        if (loadBalancing != null) {
+            if ("roundRobin".equalsIgnoreCase(loadBalancing)) {
+                metadata.setLoadBalancing(LoadBalancing.ROUND_ROBIN);
+            } else if ("weighted".equalsIgnoreCase(loadBalancing)) {
+                metadata.setLoadBalancing(LoadBalancing.WEIGHTED);
+            } else if ("leastOutstanding".equalsIgnoreCase(loadBalancing)) {
+                metadata.setLoadBalancing(LoadBalancing.LEAST_OUTSTANDING);
+            } else if ("powerOfTwo".equalsIgnoreCase(loadBalancing)) {
+                metadata.setLoadBalancing(LoadBalancing.POWER_OF_TWO);
+            } else {
+                context.addError(new InvalidValue("Invalid load balancing strategy specified: " + loadBalancing, startLocation, binding));
+            }
+        }
+        String weightStr = reader.getAttributeValue(null, "weight");
+        if (weightStr != null) {
+            try {
+                int weight = Integer.parseInt(weightStr);
+                if (weight < 1) {
+                    context.addError(new InvalidValue("Weight must be greater than zero: " + weightStr, startLocation, binding));
+                } else {
+                    metadata.setWeight(weight);
+                }
+            } catch (NumberFormatException e) {
+                InvalidValue error = new InvalidValue("Invalid weight specified: " + weightStr, startLocation, e);
+                context.addError(error);
+            }
+        }
+
         validateAttributes(reader, context, binding);
 
         LoaderUtil.skipToEndElement(reader);
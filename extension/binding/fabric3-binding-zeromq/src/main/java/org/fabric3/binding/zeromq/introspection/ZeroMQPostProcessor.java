@@ -108,6 +108,8 @@ public class ZeroMQPostProcessor extends AbstractBindingPostProcessor<ZeroMQ> {
         metadata.setMulticastRecovery(annotation.multicastRecovery());
         metadata.setSendBuffer(annotation.sendBuffer());
         metadata.setWireFormat(annotation.wireFormat());
+        metadata.setLoadBalancing(annotation.loadBalancing());
+        metadata.setWeight(annotation.weight());
     }
 
     private void parseAddresses(ZeroMQ annotation, ZeroMQMetadata metadata, Class<?> implClass, IntrospectionContext context) {
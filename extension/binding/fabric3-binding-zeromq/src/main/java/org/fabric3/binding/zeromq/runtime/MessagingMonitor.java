@@ -21,6 +21,7 @@ package org.fabric3.binding.zeromq.runtime;
 import org.fabric3.api.annotation.monitor.Debug;
 import org.fabric3.api.annotation.monitor.Info;
 import org.fabric3.api.annotation.monitor.Severe;
+import org.fabric3.api.annotation.monitor.Warning;
 
 /**
  *
@@ -51,4 +52,7 @@ public interface MessagingMonitor {
     @Debug("ZeroMQ message dropped due to unavailable endpoint")
     void dropMessage();
 
+    @Warning("ZeroMQ publisher [{0}] reached its high-water mark. Messages are being dropped.")
+    void onHighWater(String address);
+
 }
@@ -31,6 +31,8 @@ public class SocketAddress implements Serializable {
     private String protocol;
     private String address;
     private Port port;
+    private volatile int weight = 1;
+    private volatile int load;
 
     /**
      * Constructor.
@@ -53,6 +55,33 @@ public class SocketAddress implements Serializable {
         return port;
     }
 
+    /**
+     * Returns the relative capacity of the endpoint listening on this address as published through discovery.
+     *
+     * @return the weight
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * Returns the last load published through discovery for the endpoint listening on this address. The weight and load are not part of the address
+     * identity so they may be refreshed in place as updates are received.
+     *
+     * @return the load
+     */
+    public int getLoad() {
+        return load;
+    }
+
+    public void setLoad(int load) {
+        this.load = load;
+    }
+
     public String toProtocolString() {
         return protocol + "://" + address + ":" + port.getNumber();
     }
@@ -49,7 +49,7 @@ public class ZeroMQConnectionSourceAttacher implements SourceConnectionAttacher<
     public void detach(ZeroMQConnectionSource source, PhysicalConnectionTarget target) {
         ZeroMQMetadata metadata = source.getMetadata();
         URI subscriberId = source.getUri();
-        broker.unsubscribe(subscriberId, metadata);
+        broker.unsubscribe(subscriberId, metadata, source.getTopic());
     }
 
 }
@@ -31,7 +31,8 @@ import org.fabric3.spi.container.channel.ChannelConnection;
 public interface ZeroMQPubSubBroker {
 
     /**
-     * Subscribes a consumer to the given channel.
+     * Subscribes a consumer to the given channel. If the connection is associated with a topic, the subscriber only receives events published to that topic;
+     * otherwise events for all topics are received.
      *
      * @param subscriberId the unique subscription id
      * @param metadata     the ZeroMQ metadata to configure the underlying socket
@@ -46,9 +47,10 @@ public interface ZeroMQPubSubBroker {
      *
      * @param subscriberId the unique subscription id
      * @param metadata     the ZeroMQ metadata to configure the underlying socket
+     * @param topic        the topic the consumer subscribed to or null
      * @throws Fabric3Exception if an error occurs removing the subscription
      */
-    void unsubscribe(URI subscriberId, ZeroMQMetadata metadata) throws Fabric3Exception;
+    void unsubscribe(URI subscriberId, ZeroMQMetadata metadata, String topic) throws Fabric3Exception;
 
     /**
      * Connects the channel connection to the publisher for the given channel.
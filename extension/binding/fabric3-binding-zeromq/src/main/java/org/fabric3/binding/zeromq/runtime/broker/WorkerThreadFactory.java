@@ -0,0 +1,52 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.broker;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.fabric3.binding.zeromq.runtime.MessagingMonitor;
+
+/**
+ * Factory that returns named threads for request-reply workers and forwards uncaught exceptions to a monitor.
+ */
+public class WorkerThreadFactory implements ThreadFactory {
+    private AtomicInteger number = new AtomicInteger(1);
+    private ThreadGroup group;
+    private MessagingMonitor monitor;
+
+    public WorkerThreadFactory(MessagingMonitor monitor) {
+        SecurityManager s = System.getSecurityManager();
+        group = (s != null) ? s.getThreadGroup() : Thread.currentThread().getThreadGroup();
+        this.monitor = monitor;
+    }
+
+    public Thread newThread(Runnable r) {
+        Thread thread = new Thread(group, r, "zeromq worker:" + number.getAndIncrement(), 0);
+        if (thread.isDaemon()) {
+            thread.setDaemon(false);
+        }
+        if (thread.getPriority() != Thread.NORM_PRIORITY) {
+            thread.setPriority(Thread.NORM_PRIORITY);
+        }
+        thread.setUncaughtExceptionHandler((t, e) -> monitor.error(e));
+        return thread;
+    }
+
+}
@@ -23,16 +23,26 @@ import java.net.URI;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.PhasedBackoffWaitStrategy;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.TimeoutBlockingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
 
 import org.fabric3.api.annotation.Source;
 import org.fabric3.api.annotation.monitor.Monitor;
 import org.fabric3.api.binding.zeromq.model.SocketAddressDefinition;
 import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
 import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.api.model.type.component.RingBufferData.WaitStrategyType;
 import org.fabric3.api.model.type.contract.DataType;
 import org.fabric3.binding.zeromq.runtime.MessagingMonitor;
 import org.fabric3.binding.zeromq.runtime.SocketAddress;
@@ -84,9 +94,13 @@ public class ZeroMQPubSubBrokerImpl implements ZeroMQPubSubBroker, Fabric3EventL
     private String hostAddress;
 
     private long pollTimeout = 10000;  // default to 10 seconds
+    private int dispatchers;           // default to dispatching on the subscriber polling thread
+    private int ringSize = 1024;
+    private WaitStrategyType waitStrategy = WaitStrategyType.BLOCKING;
 
-    private Map<String, Subscriber> subscribers = new HashMap<>();
-    private Map<String, PublisherHolder> publishers = new HashMap<>();
+    // subscribers and publishers are connected and released while holding the broker lock as connection commands may execute concurrently
+    private Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private Map<String, PublisherHolder> publishers = new ConcurrentHashMap<>();
 
     public ZeroMQPubSubBrokerImpl(@Reference ContextManager manager,
                                   @Reference(required = false) DiscoveryAgent discoveryAgent,
@@ -118,6 +132,40 @@ public class ZeroMQPubSubBrokerImpl implements ZeroMQPubSubBroker, Fabric3EventL
         this.pollTimeout = timeout;
     }
 
+    /**
+     * Sets the number of lanes used by each subscriber to dispatch received events by topic. If 0, events are dispatched on the subscriber polling thread.
+     *
+     * @param dispatchers the number of dispatcher lanes
+     */
+    @Property(required = false)
+    @Source("$systemConfig//f3:zeromq.binding/@subscriber.dispatchers")
+    public void setDispatchers(int dispatchers) {
+        this.dispatchers = dispatchers;
+    }
+
+    /**
+     * Sets the number of frame slots in the ring buffer used to queue messages for each publisher. Messages are dropped when all slots are in use.
+     *
+     * @param ringSize the number of frame slots, rounded up to the next power of two
+     */
+    @Property(required = false)
+    @Source("$systemConfig//f3:zeromq.binding/@publisher.ring.size")
+    public void setRingSize(int ringSize) {
+        this.ringSize = ringSize;
+    }
+
+    /**
+     * Sets the strategy publishers use to wait for queued messages. Valid values are blocking, yielding, sleeping, backoff, spin and timeout, which blocks
+     * for the poll timeout.
+     *
+     * @param waitStrategy the wait strategy
+     */
+    @Property(required = false)
+    @Source("$systemConfig//f3:zeromq.binding/@publisher.wait.strategy")
+    public void setWaitStrategy(String waitStrategy) {
+        this.waitStrategy = WaitStrategyType.valueOf(waitStrategy.toUpperCase());
+    }
+
     /**
      * Sets this host to bind the publisher to.
      *
@@ -134,9 +182,11 @@ public class ZeroMQPubSubBrokerImpl implements ZeroMQPubSubBroker, Fabric3EventL
         eventService.subscribe(RuntimeStop.class, this);
     }
 
-    public void subscribe(URI subscriberId, ZeroMQMetadata metadata, ChannelConnection connection, ClassLoader loader) throws Fabric3Exception {
+    public synchronized void subscribe(URI subscriberId, ZeroMQMetadata metadata, ChannelConnection connection, ClassLoader loader) throws Fabric3Exception {
         String channelName = metadata.getChannelName();
-        Subscriber subscriber = subscribers.get(channelName);
+        String topic = connection.getTopic();
+        String key = getSubscriberKey(channelName, topic);
+        Subscriber subscriber = subscribers.get(key);
         if (subscriber == null) {
             String id = subscriberId.toString();
 
@@ -171,7 +221,7 @@ public class ZeroMQPubSubBrokerImpl implements ZeroMQPubSubBroker, Fabric3EventL
                 addresses = entries.stream().
                         map(e -> new SocketAddress(e.getTransport(), e.getAddress(), new SpecifiedPort(e.getPort()))).collect(toList());
             }
-            subscriber = new NonReliableSubscriber(id, manager, addresses, head, metadata, executorService);
+            subscriber = new NonReliableSubscriber(id, manager, addresses, head, topic, metadata, dispatchers, executorService);
             subscriber.incrementConnectionCount();
             subscriber.start();
             if (refresh && discoveryAgent != null) {
@@ -179,8 +229,8 @@ public class ZeroMQPubSubBrokerImpl implements ZeroMQPubSubBroker, Fabric3EventL
                 discoveryAgent.registerChannelListener(channelName, subscriber);
             }
 
-            subscribers.put(channelName, subscriber);
-            managementService.register(channelName, subscriberId, subscriber);
+            subscribers.put(key, subscriber);
+            managementService.register(key, subscriberId, subscriber);
         } else {
             subscriber.incrementConnectionCount();
         }
@@ -188,9 +238,10 @@ public class ZeroMQPubSubBrokerImpl implements ZeroMQPubSubBroker, Fabric3EventL
         monitor.onSubscribe(id);
     }
 
-    public void unsubscribe(URI subscriberId, ZeroMQMetadata metadata) {
+    public synchronized void unsubscribe(URI subscriberId, ZeroMQMetadata metadata, String topic) {
         String channelName = metadata.getChannelName();
-        Subscriber subscriber = subscribers.get(channelName);
+        String key = getSubscriberKey(channelName, topic);
+        Subscriber subscriber = subscribers.get(key);
         if (subscriber == null) {
             throw new IllegalStateException("Subscriber not found: " + subscriberId);
         }
@@ -199,15 +250,15 @@ public class ZeroMQPubSubBrokerImpl implements ZeroMQPubSubBroker, Fabric3EventL
         }
         subscriber.decrementConnectionCount();
         if (!subscriber.hasConnections()) {
-            subscribers.remove(channelName);
+            subscribers.remove(key);
             subscriber.stop();
         }
-        managementService.unregister(channelName, subscriberId);
+        managementService.unregister(key, subscriberId);
         String id = subscriberId.getPath().substring(1) + "/" + subscriberId.getFragment();
         monitor.onUnsubscribe(id);
     }
 
-    public void connect(String connectionId, ZeroMQMetadata metadata, boolean dedicatedThread, ChannelConnection connection, ClassLoader loader)
+    public synchronized void connect(String connectionId, ZeroMQMetadata metadata, boolean dedicatedThread, ChannelConnection connection, ClassLoader loader)
             throws Fabric3Exception {
         String channelName = metadata.getChannelName();
         PublisherHolder holder = publishers.get(channelName);
@@ -238,7 +289,8 @@ public class ZeroMQPubSubBrokerImpl implements ZeroMQPubSubBroker, Fabric3EventL
             if (dedicatedThread) {
                 publisher = new NonReliableSingleThreadPublisher(manager, address, metadata);
             } else {
-                publisher = new NonReliableQueuedPublisher(manager, address, metadata, pollTimeout, monitor);
+                WaitStrategy strategy = createWaitStrategy();
+                publisher = new NonReliableQueuedPublisher(manager, address, metadata, ringSize, strategy, pollTimeout, executorService, monitor);
             }
             attachConnection(connection, publisher, loader);
 
@@ -265,7 +317,7 @@ public class ZeroMQPubSubBrokerImpl implements ZeroMQPubSubBroker, Fabric3EventL
         }
     }
 
-    public void release(String connectionId, ZeroMQMetadata metadata) throws Fabric3Exception {
+    public synchronized void release(String connectionId, ZeroMQMetadata metadata) throws Fabric3Exception {
         String channelName = metadata.getChannelName();
         PublisherHolder holder = publishers.get(channelName);
         if (holder == null) {
@@ -316,7 +368,35 @@ public class ZeroMQPubSubBrokerImpl implements ZeroMQPubSubBroker, Fabric3EventL
         }
 
         stream.addHandler(transformer);
-        stream.addHandler(new PublisherHandler(publisher));
+        stream.addHandler(new PublisherHandler(publisher, connection.getTopic()));
+    }
+
+    private WaitStrategy createWaitStrategy() {
+        switch (waitStrategy) {
+            case YIELDING:
+                return new YieldingWaitStrategy();
+            case SLEEPING:
+                return new SleepingWaitStrategy();
+            case BACKOFF:
+                return PhasedBackoffWaitStrategy.withLock(1000, 1000, TimeUnit.NANOSECONDS);
+            case SPIN:
+                return new BusySpinWaitStrategy();
+            case TIMEOUT:
+                return new TimeoutBlockingWaitStrategy(pollTimeout, TimeUnit.MILLISECONDS);
+            default:
+                return new BlockingWaitStrategy();
+        }
+    }
+
+    /**
+     * Returns the key for the subscriber to a channel topic. Consumers connected to the same topic share a subscriber and socket.
+     *
+     * @param channelName the channel name
+     * @param topic       the topic or null for all topics
+     * @return the key
+     */
+    private String getSubscriberKey(String channelName, String topic) {
+        return topic == null ? channelName : channelName + "/" + topic;
     }
 
     private EventStreamHandler createSubscriberHandlers(ChannelConnection connection, ClassLoader loader) throws Fabric3Exception {
@@ -22,10 +22,16 @@ import java.net.InetAddress;
 import java.net.URI;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.fabric3.api.annotation.Source;
@@ -69,6 +75,7 @@ import org.fabric3.spi.runtime.event.EventService;
 import org.fabric3.spi.runtime.event.Fabric3EventListener;
 import org.fabric3.spi.runtime.event.RuntimeStop;
 import org.fabric3.spi.util.UriHelper;
+import org.oasisopen.sca.annotation.Destroy;
 import org.oasisopen.sca.annotation.Init;
 import org.oasisopen.sca.annotation.Property;
 import org.oasisopen.sca.annotation.Reference;
@@ -95,12 +102,21 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
     private ExecutorService executorService;
     private MessagingMonitor monitor;
     private long pollTimeout = 10000000;
+    private long loadInterval = 5000;
+    private int workers = 4;
+    private int workerThreads = 256;
     private TransformerInterceptorFactory interceptorFactory;
     private String host;
     private String hostAddress;
 
-    private Map<String, SenderHolder> senders = new HashMap<>();
-    private Map<String, Receiver> receivers = new HashMap<>();
+    // senders and receivers are connected and released while holding the broker lock as attach commands may execute concurrently
+    private Map<String, SenderHolder> senders = new ConcurrentHashMap<>();
+    private Map<String, Receiver> receivers = new ConcurrentHashMap<>();
+    private Map<String, Registration> registrations = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService loadScheduler;
+    private AtomicBoolean publishing = new AtomicBoolean();
+    private ExecutorService workerExecutor;
 
     public ZeroMQWireBrokerImpl(@Reference ContextManager manager,
                                 @Reference(required = false) DiscoveryAgent discoveryAgent,
@@ -148,12 +164,67 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
         this.host = host;
     }
 
+    /**
+     * Sets the interval in milliseconds for publishing the load of service endpoints hosted in this runtime. A value of zero or less disables publishing.
+     *
+     * @param interval the interval in milliseconds
+     */
+    @Property(required = false)
+    @Source("$systemConfig//f3:zeromq.binding/@load.interval")
+    public void setLoadInterval(long interval) {
+        this.loadInterval = interval;
+    }
+
+    /**
+     * Sets the number of workers each request-reply service endpoint uses to dispatch requests.
+     *
+     * @param workers the number of workers
+     */
+    @Property(required = false)
+    @Source("$systemConfig//f3:zeromq.binding/@workers")
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    /**
+     * Sets the maximum number of threads used by the workers of all request-reply service endpoints. A service endpoint fails to bind if there are not enough
+     * threads available to start its workers.
+     *
+     * @param workerThreads the maximum number of worker threads
+     */
+    @Property(required = false)
+    @Source("$systemConfig//f3:zeromq.binding/@worker.threads")
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
     @Init
     public void init() {
         eventService.subscribe(RuntimeStop.class, this);
+        // workers occupy a thread for the lifetime of their endpoint, so they are run on a bounded pool instead of the runtime executor
+        workerExecutor = new ThreadPoolExecutor(0, workerThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), new WorkerThreadFactory(monitor));
+        if (discoveryAgent != null && loadInterval > 0) {
+            // the scheduler thread only submits publishing to the runtime executor so no runtime thread is held between passes
+            loadScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "zeromq load publisher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            loadScheduler.scheduleWithFixedDelay(this::submitLoad, loadInterval, loadInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Destroy
+    public void destroy() {
+        if (loadScheduler != null) {
+            loadScheduler.shutdownNow();
+        }
+        if (workerExecutor != null) {
+            workerExecutor.shutdownNow();
+        }
     }
 
-    public void connectToSender(String id, URI uri, List<InvocationChain> chains, ZeroMQMetadata metadata, ClassLoader loader) throws Fabric3Exception {
+    public synchronized void connectToSender(String id, URI uri, List<InvocationChain> chains, ZeroMQMetadata metadata, ClassLoader loader) throws Fabric3Exception {
         SenderHolder holder;
         if (ZMQ.equals(uri.getScheme())) {
             DelegatingOneWaySender sender = new DelegatingOneWaySender(id, this, metadata);
@@ -179,7 +250,7 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
         holder.getIds().add(id);
     }
 
-    public void releaseSender(String id, URI uri) throws Fabric3Exception {
+    public synchronized void releaseSender(String id, URI uri) throws Fabric3Exception {
         SenderHolder holder = senders.get(uri.toString());
         if (holder == null) {
             if (!ZMQ.equals(uri.getScheme())) {
@@ -198,7 +269,7 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
         }
     }
 
-    public void connectToReceiver(URI uri, List<InvocationChain> chains, ZeroMQMetadata metadata, ClassLoader loader) throws Fabric3Exception {
+    public synchronized void connectToReceiver(URI uri, List<InvocationChain> chains, ZeroMQMetadata metadata, ClassLoader loader) throws Fabric3Exception {
         if (receivers.containsKey(uri.toString())) {
             throw new Fabric3Exception("Receiver already defined for " + uri);
         }
@@ -232,7 +303,7 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
         if (oneWay) {
             receiver = new NonReliableOneWayReceiver(manager, address, chains, executorService, metadata, monitor);
         } else {
-            receiver = new NonReliableRequestReplyReceiver(manager, address, chains, executorService, pollTimeout, metadata, monitor);
+            receiver = new NonReliableRequestReplyReceiver(manager, address, chains, executorService, workerExecutor, pollTimeout, workers, metadata, monitor);
         }
         receiver.start();
 
@@ -241,9 +312,11 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
         entry.setAddress(address.getAddress());
         entry.setPort(address.getPort().getNumber());
         entry.setTransport("tcp");
+        entry.setWeight(metadata.getWeight());
 
         if (discoveryAgent != null) {
             discoveryAgent.register(entry);
+            registrations.put(endpointId, new Registration(entry, receiver));
         }
         receivers.put(uri.toString(), receiver);
         String id = createReceiverId(uri);
@@ -251,7 +324,7 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
         monitor.onProvisionEndpoint(id);
     }
 
-    public void releaseReceiver(URI uri) throws Fabric3Exception {
+    public synchronized void releaseReceiver(URI uri) throws Fabric3Exception {
         Receiver receiver = receivers.remove(UriHelper.getDefragmentedNameAsString(uri));
         if (receiver == null) {
             throw new Fabric3Exception("Receiver not found for " + uri);
@@ -259,7 +332,11 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
         String endpointId = uri.toString();
 
         if (discoveryAgent != null) {
-            discoveryAgent.unregisterService(endpointId);
+            synchronized (registrations) {
+                // synchronize so the entry is not republished by the load task after it is removed
+                registrations.remove(UriHelper.getDefragmentedNameAsString(uri));
+                discoveryAgent.unregisterService(endpointId);
+            }
         }
         receiver.stop();
         allocator.release(endpointId);
@@ -276,7 +353,7 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
         }
         SenderHolder holder = senders.get(callbackReference);
         if (holder == null) {
-            holder = createSender(callbackReference, true, metadata);
+            holder = getCallbackSender(callbackReference, metadata);
         }
         Sender sender = holder.getSender();
         if (sender instanceof OneWaySender) {
@@ -320,6 +397,11 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
         stopAll();
     }
 
+    private synchronized SenderHolder getCallbackSender(String callbackReference, ZeroMQMetadata metadata) {
+        SenderHolder holder = senders.get(callbackReference);
+        return holder != null ? holder : createSender(callbackReference, true, metadata);
+    }
+
     private SenderHolder createSender(String endpointId, boolean oneWay, ZeroMQMetadata metadata) {
         List<SocketAddress> addresses = new ArrayList<>();
         boolean refresh;
@@ -344,8 +426,7 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
                 throw new Fabric3Exception("Discovery extension must be installed for dynamic wire addresses");
             }
             List<ServiceEntry> entries = discoveryAgent.getServiceEntries(endpointId);
-            addresses = entries.stream().
-                    map(e -> new SocketAddress(e.getTransport(), e.getAddress(), new SpecifiedPort(e.getPort()))).collect(toList());
+            addresses = entries.stream().map(this::createAddress).collect(toList());
         }
 
         Sender sender;
@@ -366,6 +447,62 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
         return holder;
     }
 
+    /**
+     * Submits a load publishing pass to the runtime executor unless the previous pass is still running.
+     */
+    private void submitLoad() {
+        if (!publishing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executorService.execute(() -> {
+                try {
+                    publishLoad();
+                } finally {
+                    publishing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            // do not let a rejected pass cancel the scheduled task
+            publishing.set(false);
+            monitor.error(e);
+        }
+    }
+
+    /**
+     * Republishes the entries for service endpoints hosted in this runtime whose load has changed since they were last published. Clients receive the
+     * updated entries through their discovery listeners.
+     */
+    private void publishLoad() {
+        try {
+            synchronized (registrations) {
+                for (Registration registration : registrations.values()) {
+                    int load = registration.receiver.getLoad();
+                    ServiceEntry current = registration.entry;
+                    if (load == current.getLoad()) {
+                        continue;
+                    }
+                    // entries are frozen when registered so a new one is created
+                    ServiceEntry entry = new ServiceEntry(current.getName(), current.getAddress(), current.getPort(), current.getTransport());
+                    entry.setWeight(current.getWeight());
+                    entry.setLoad(load);
+                    discoveryAgent.register(entry);
+                    registration.entry = entry;
+                }
+            }
+        } catch (RuntimeException e) {
+            // do not let an error stop publishing
+            monitor.error(e);
+        }
+    }
+
+    private SocketAddress createAddress(ServiceEntry entry) {
+        SocketAddress address = new SocketAddress(entry.getTransport(), entry.getAddress(), new SpecifiedPort(entry.getPort()));
+        address.setWeight(entry.getWeight());
+        address.setLoad(entry.getLoad());
+        return address;
+    }
+
     /**
      * Determines if the wire is one-way or request-reply. The first operation is used to determine if the contract is one-way as the binding does not support
      * mixing one-way and request-response operations on a service contract.
@@ -423,6 +560,16 @@ public class ZeroMQWireBrokerImpl implements ZeroMQWireBroker, DynamicOneWaySend
         return uri.getPath().substring(1);
     }
 
+    private static class Registration {
+        private volatile ServiceEntry entry;
+        private Receiver receiver;
+
+        private Registration(ServiceEntry entry, Receiver receiver) {
+            this.entry = entry;
+            this.receiver = receiver;
+        }
+    }
+
     private class SenderHolder {
         private Sender sender;
         private List<String> ids;
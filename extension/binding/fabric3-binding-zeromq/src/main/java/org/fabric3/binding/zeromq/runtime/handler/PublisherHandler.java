@@ -18,6 +18,7 @@
  */
 package org.fabric3.binding.zeromq.runtime.handler;
 
+import org.fabric3.binding.zeromq.runtime.message.Frames;
 import org.fabric3.binding.zeromq.runtime.message.Publisher;
 import org.fabric3.spi.container.channel.EventStreamHandler;
 import org.oasisopen.sca.ServiceRuntimeException;
@@ -27,18 +28,26 @@ import org.oasisopen.sca.ServiceRuntimeException;
  */
 public class PublisherHandler implements EventStreamHandler {
     private Publisher publisher;
+    private byte[] topic;
 
-    public PublisherHandler(Publisher publisher) {
+    /**
+     * Constructor.
+     *
+     * @param publisher the publisher
+     * @param topic     the topic events are published to or null for the default topic
+     */
+    public PublisherHandler(Publisher publisher, String topic) {
         this.publisher = publisher;
+        this.topic = Frames.topicFrame(topic);
     }
 
     public void handle(Object event, boolean endOfBatch) {
         if ((event instanceof byte[])) {
             // single frame message
-            publisher.publish((byte[]) event);
+            publisher.publish(topic, (byte[]) event);
         } else if (event instanceof byte[][]) {
             // multi-frame message
-            publisher.publish((byte[][]) event);
+            publisher.publish(topic, (byte[][]) event);
         } else {
             throw new ServiceRuntimeException("Event must be serialized: " + event);
         }
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
 import org.fabric3.api.host.Fabric3Exception;
@@ -55,6 +56,7 @@ public abstract class AbstractReceiver implements Receiver, Thread.UncaughtExcep
     protected Receiver receiver;
     protected ZeroMQMetadata metadata;
     protected String id = getClass().getName() + ":" + UUID.randomUUID().toString();
+    protected AtomicInteger inFlight = new AtomicInteger();
 
     /**
      * Constructor.
@@ -106,6 +108,10 @@ public abstract class AbstractReceiver implements Receiver, Thread.UncaughtExcep
         return address;
     }
 
+    public int getLoad() {
+        return inFlight.get();
+    }
+
     public void uncaughtException(Thread t, Throwable e) {
         monitor.error(e);
     }
@@ -146,6 +152,21 @@ public abstract class AbstractReceiver implements Receiver, Thread.UncaughtExcep
 
     protected abstract void response(Socket socket);
 
+    /**
+     * Called on the receiver thread after the receiver socket has been bound and before polling starts. Subclasses may create additional sockets and register
+     * them with the poller. If this method throws an exception, the receiver sockets are closed and the receiver is aborted.
+     *
+     * @param poller the receiver poller
+     */
+    protected void onBind(ZMQ.Poller poller) {
+    }
+
+    /**
+     * Called on the receiver thread after the receiver socket has been closed. Subclasses must close sockets created in {@link #onBind(ZMQ.Poller)}.
+     */
+    protected void onClose() {
+    }
+
     /**
      * The message receiver. Responsible for creating socket connections to publishers and polling for messages.
      */
@@ -180,6 +201,7 @@ public abstract class AbstractReceiver implements Receiver, Thread.UncaughtExcep
                             try {
                                 socket.close();
                                 controlSocket.close();
+                                onClose();
                             } finally {
                                 manager.release(id);
                             }
@@ -197,6 +219,7 @@ public abstract class AbstractReceiver implements Receiver, Thread.UncaughtExcep
                     try {
                         socket.close();
                         controlSocket.close();
+                        onClose();
                     } finally {
                         manager.release(id);
                     }
@@ -227,6 +250,22 @@ public abstract class AbstractReceiver implements Receiver, Thread.UncaughtExcep
             poller = manager.getContext().poller();
             poller.register(controlSocket, ZMQ.Poller.POLLIN);
             poller.register(socket, ZMQ.Poller.POLLIN);
+            try {
+                onBind(poller);
+            } catch (RuntimeException e) {
+                // the receiver cannot process messages; close the sockets so the receiver aborts instead of being rescheduled
+                monitor.error(e);
+                try {
+                    socket.close();
+                    controlSocket.close();
+                    onClose();
+                } finally {
+                    manager.release(id);
+                }
+                socket = null;
+                controlSocket = null;
+                poller = null;
+            }
         }
 
     }
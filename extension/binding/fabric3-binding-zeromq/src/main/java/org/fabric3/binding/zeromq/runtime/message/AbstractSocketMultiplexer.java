@@ -0,0 +1,208 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.binding.zeromq.runtime.SocketAddress;
+import org.fabric3.binding.zeromq.runtime.context.ContextManager;
+import org.fabric3.spi.host.Port;
+import org.zeromq.ZMQ;
+
+/**
+ * Base multiplexer that manages a socket per endpoint address and tracks the number of requests in flight for each endpoint. Subclasses implement the selection
+ * algorithm.
+ *
+ * Sockets are created and closed in {@link #update(List)} and {@link #close()}, which must be called on the thread that uses the sockets. Selection operates on
+ * an immutable snapshot of the endpoints and may be performed concurrently.
+ */
+public abstract class AbstractSocketMultiplexer implements SocketMultiplexer {
+    private static final Endpoint[] EMPTY = new Endpoint[0];
+
+    private ContextManager manager;
+    private int socketType;
+    private ZeroMQMetadata metadata;
+
+    private Map<SocketAddress, Endpoint> endpoints = new HashMap<>();
+    private Map<ZMQ.Socket, Endpoint> socketToEndpoint = new ConcurrentHashMap<>();
+    private volatile Endpoint[] snapshot = EMPTY;
+
+    private String seed = UUID.randomUUID().toString();
+
+    public AbstractSocketMultiplexer(ContextManager manager, int socketType, ZeroMQMetadata metadata) {
+        this.manager = manager;
+        this.socketType = socketType;
+        this.metadata = metadata;
+    }
+
+    public void update(List<SocketAddress> addresses) {
+        Set<SocketAddress> toClose = new HashSet<>(endpoints.keySet());
+        toClose.removeAll(addresses);
+
+        try {
+            for (SocketAddress address : toClose) {
+                Endpoint endpoint = endpoints.remove(address);
+                socketToEndpoint.remove(endpoint.socket);
+                endpoint.socket.close();
+            }
+        } finally {
+            for (SocketAddress address : toClose) {
+                manager.release(getKey(address));
+            }
+        }
+
+        for (SocketAddress address : addresses) {
+            Endpoint endpoint = endpoints.get(address);
+            if (endpoint != null) {
+                // retain the socket but use the latest address instance as it carries the current weight and load
+                endpoint.address = address;
+                continue;
+            }
+            String addressString = address.toProtocolString();
+            manager.reserve(getKey(address));
+            ZMQ.Socket socket = manager.getContext().socket(socketType);
+            SocketHelper.configure(socket, metadata);
+            address.getPort().bind(Port.TYPE.TCP);
+            socket.connect(addressString);
+            endpoint = new Endpoint(address, socket);
+            endpoints.put(address, endpoint);
+            socketToEndpoint.put(socket, endpoint);
+        }
+        snapshot = endpoints.values().toArray(new Endpoint[endpoints.size()]);
+    }
+
+    public ZMQ.Socket get() {
+        Endpoint[] current = snapshot;
+        if (current.length == 0) {
+            throw new IllegalStateException("No sockets available");
+        }
+        Endpoint endpoint = current.length == 1 ? current[0] : select(current);
+        endpoint.outstanding.incrementAndGet();
+        return endpoint.socket;
+    }
+
+    public void release(ZMQ.Socket socket) {
+        Endpoint endpoint = socketToEndpoint.get(socket);
+        if (endpoint != null) {
+            endpoint.outstanding.decrementAndGet();
+        }
+    }
+
+    public Collection<ZMQ.Socket> getAll() {
+        Endpoint[] current = snapshot;
+        List<ZMQ.Socket> sockets = new ArrayList<>(current.length);
+        for (Endpoint endpoint : current) {
+            sockets.add(endpoint.socket);
+        }
+        return sockets;
+    }
+
+    public boolean isAvailable() {
+        return snapshot.length > 0;
+    }
+
+    public void close() {
+        snapshot = EMPTY;
+        socketToEndpoint.clear();
+        try {
+            for (Endpoint endpoint : endpoints.values()) {
+                endpoint.socket.close();
+            }
+        } finally {
+            for (SocketAddress address : endpoints.keySet()) {
+                manager.release(getKey(address));
+            }
+            endpoints.clear();
+        }
+    }
+
+    /**
+     * Selects an endpoint. Called only when more than one endpoint is available and possibly from multiple threads concurrently.
+     *
+     * @param endpoints the available endpoints
+     * @return the selected endpoint
+     */
+    protected abstract Endpoint select(Endpoint[] endpoints);
+
+    private String getKey(SocketAddress address) {
+        return getClass().getName() + ":" + seed + address.toProtocolString();
+    }
+
+    /**
+     * A connected endpoint.
+     */
+    protected static class Endpoint {
+        private volatile SocketAddress address;
+        private ZMQ.Socket socket;
+        private AtomicInteger outstanding = new AtomicInteger();
+
+        private Endpoint(SocketAddress address, ZMQ.Socket socket) {
+            this.address = address;
+            this.socket = socket;
+        }
+
+        /**
+         * Returns the number of requests dispatched to the endpoint by this multiplexer that have not completed.
+         *
+         * @return the number of requests in flight
+         */
+        public int getOutstanding() {
+            return outstanding.get();
+        }
+
+        /**
+         * Returns the endpoint weight published through discovery, which is always at least 1.
+         *
+         * @return the weight
+         */
+        public int getWeight() {
+            return Math.max(1, address.getWeight());
+        }
+
+        /**
+         * Returns the endpoint load published through discovery.
+         *
+         * @return the load
+         */
+        public int getLoad() {
+            return Math.max(0, address.getLoad());
+        }
+
+        /**
+         * Returns a score for comparing endpoints where lower is better. The score is the number of requests in flight plus the published load per unit of
+         * weight.
+         *
+         * @return the score
+         */
+        public double getScore() {
+            return (getOutstanding() + getLoad() + 1) / (double) getWeight();
+        }
+    }
+
+}
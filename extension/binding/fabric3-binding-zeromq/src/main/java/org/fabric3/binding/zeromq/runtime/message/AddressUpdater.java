@@ -1,29 +1,53 @@
 package org.fabric3.binding.zeromq.runtime.message;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import org.fabric3.binding.zeromq.runtime.SocketAddress;
 import org.fabric3.binding.zeromq.runtime.broker.SpecifiedPort;
 import org.fabric3.spi.discovery.AbstractEntry;
 import org.fabric3.spi.discovery.EntryChange;
-import org.fabric3.binding.zeromq.runtime.SocketAddress;
+import org.fabric3.spi.discovery.ServiceEntry;
 import org.fabric3.spi.host.Port;
 import static java.util.stream.Collectors.toList;
 
 /**
+ * Applies discovery changes to a list of socket addresses. A new list is always returned so that the previous one can be safely read by another thread.
  *
+ * Entries are periodically republished with an updated load. If an entry is received for an address that is already present, the weight and load of the
+ * existing address are refreshed instead of adding a duplicate.
  */
 public class AddressUpdater {
 
     public static List<SocketAddress> accept(EntryChange change, AbstractEntry entry, List<SocketAddress> old) {
         if (change == EntryChange.DELETE || change == EntryChange.EXPIRE) {
-            return old.stream().filter(address -> !address.getAddress().equals(entry.getAddress()) && address.getPort().getNumber() == entry.getPort()).collect(
-                    toList());
+            return old.stream().filter(address -> !matches(address, entry)).collect(toList());
 
         } else {
+            for (SocketAddress address : old) {
+                if (matches(address, entry)) {
+                    update(address, entry);
+                    return new ArrayList<>(old);
+                }
+            }
             Port port = new SpecifiedPort(entry.getPort());
             SocketAddress address = new SocketAddress(entry.getTransport(), entry.getAddress(), port);
-            old.add(address);
-            return old;
+            update(address, entry);
+            List<SocketAddress> addresses = new ArrayList<>(old);
+            addresses.add(address);
+            return addresses;
+        }
+    }
+
+    private static boolean matches(SocketAddress address, AbstractEntry entry) {
+        return address.getAddress().equals(entry.getAddress()) && address.getPort().getNumber() == entry.getPort();
+    }
+
+    private static void update(SocketAddress address, AbstractEntry entry) {
+        if (entry instanceof ServiceEntry) {
+            ServiceEntry serviceEntry = (ServiceEntry) entry;
+            address.setWeight(serviceEntry.getWeight());
+            address.setLoad(serviceEntry.getLoad());
         }
     }
 
@@ -0,0 +1,120 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes and decodes the fixed-size frames sent with wire invocations and the topic frames sent with channel events.
+ *
+ * ZeroMQ sends a byte array without copying it, so a frame must not be modified after it has been passed to a socket. Operation index frames are therefore
+ * created once and shared by all senders instead of being allocated per message.
+ */
+public final class Frames {
+    /**
+     * The topic frame for events published to the default topic.
+     */
+    public static final byte[] DEFAULT_TOPIC = new byte[]{0};
+
+    private static final int CACHED_INDEXES = 256;
+    private static final byte[][] INDEX_FRAMES = new byte[CACHED_INDEXES][];
+
+    static {
+        for (int i = 0; i < CACHED_INDEXES; i++) {
+            INDEX_FRAMES[i] = encodeInt(i);
+        }
+    }
+
+    private Frames() {
+    }
+
+    /**
+     * Returns the frame for an operation index. The returned array is shared and must not be modified.
+     *
+     * @param index the operation index
+     * @return the frame
+     */
+    public static byte[] indexFrame(int index) {
+        if (index >= 0 && index < CACHED_INDEXES) {
+            return INDEX_FRAMES[index];
+        }
+        return encodeInt(index);
+    }
+
+    /**
+     * Decodes an operation index frame.
+     *
+     * @param frame the frame
+     * @return the operation index
+     */
+    public static int readIndex(byte[] frame) {
+        return (frame[0] & 0xFF) << 24 | (frame[1] & 0xFF) << 16 | (frame[2] & 0xFF) << 8 | (frame[3] & 0xFF);
+    }
+
+    /**
+     * Encodes a request id used to correlate a response with its request.
+     *
+     * @param id the request id
+     * @return the frame
+     */
+    public static byte[] requestIdFrame(long id) {
+        byte[] frame = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            frame[i] = (byte) id;
+            id >>>= 8;
+        }
+        return frame;
+    }
+
+    /**
+     * Decodes a request id frame.
+     *
+     * @param frame the frame
+     * @return the request id
+     */
+    public static long readRequestId(byte[] frame) {
+        long id = 0;
+        for (int i = 0; i < 8; i++) {
+            id = id << 8 | (frame[i] & 0xFF);
+        }
+        return id;
+    }
+
+    /**
+     * Encodes the topic frame that prefixes each event published to a channel. The frame is terminated with a zero byte so that a subscription to the frame
+     * only matches the topic itself and not other topics that begin with the same characters.
+     *
+     * @param topic the topic or null for the default topic
+     * @return the frame
+     */
+    public static byte[] topicFrame(String topic) {
+        if (topic == null) {
+            return DEFAULT_TOPIC;
+        }
+        byte[] bytes = topic.getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, frame, 0, bytes.length);
+        return frame;
+    }
+
+    private static byte[] encodeInt(int value) {
+        return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.binding.zeromq.runtime.context.ContextManager;
+
+/**
+ * Selects the socket whose endpoint has the lowest number of requests in flight plus published load per unit of weight. The scan starts at a random
+ * position so that ties are spread across endpoints.
+ */
+public class LeastOutstandingSocketMultiplexer extends AbstractSocketMultiplexer {
+
+    public LeastOutstandingSocketMultiplexer(ContextManager manager, int socketType, ZeroMQMetadata metadata) {
+        super(manager, socketType, metadata);
+    }
+
+    protected Endpoint select(Endpoint[] endpoints) {
+        int length = endpoints.length;
+        int start = ThreadLocalRandom.current().nextInt(length);
+        Endpoint selected = endpoints[start];
+        double lowest = selected.getScore();
+        for (int i = 1; i < length; i++) {
+            Endpoint endpoint = endpoints[(start + i) % length];
+            double score = endpoint.getScore();
+            if (score < lowest) {
+                lowest = score;
+                selected = endpoint;
+            }
+        }
+        return selected;
+    }
+
+}
@@ -18,7 +18,6 @@
  */
 package org.fabric3.binding.zeromq.runtime.message;
 
-import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 
@@ -76,12 +75,13 @@ public class NonReliableOneWayReceiver extends AbstractReceiver implements Threa
             frames[i] = socket.recv(0);
             i++;
         }
+        inFlight.incrementAndGet();
         executorService.submit(new Runnable() {
             public void run() {
                 Message request = MessageCache.getAndResetMessage();
                 try {
                     request.setBody(frames[0]);
-                    int methodIndex = ByteBuffer.wrap(frames[1]).getInt();
+                    int methodIndex = Frames.readIndex(frames[1]);
                     WorkContext context = setWorkContext(frames[2]);
 
                     request.setWorkContext(context);
@@ -90,6 +90,7 @@ public class NonReliableOneWayReceiver extends AbstractReceiver implements Threa
 
                     interceptor.invoke(request);
                 } finally {
+                    inFlight.decrementAndGet();
                     request.reset();
                 }
             }
@@ -18,7 +18,6 @@
  */
 package org.fabric3.binding.zeromq.runtime.message;
 
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -45,7 +44,7 @@ import org.zeromq.ZMQ;
 public class NonReliableOneWaySender implements OneWaySender, Thread.UncaughtExceptionHandler {
     private static final Request SHUTDOWN = new Request(null, 0, null);
     private String id;
-    private List<SocketAddress> addresses;
+    private volatile List<SocketAddress> addresses;
     private MessagingMonitor monitor;
 
     private SocketMultiplexer multiplexer;
@@ -65,7 +64,7 @@ public class NonReliableOneWaySender implements OneWaySender, Thread.UncaughtExc
         this.pollTimeout = pollTimeout;
         this.monitor = monitor;
         queue = new LinkedBlockingQueue<>();
-        multiplexer = new RoundRobinSocketMultiplexer(manager, ZMQ.PUSH, metadata);
+        multiplexer = SocketMultiplexerFactory.create(manager, ZMQ.PUSH, metadata);
     }
 
     public void start() {
@@ -192,7 +191,7 @@ public class NonReliableOneWaySender implements OneWaySender, Thread.UncaughtExc
                         int index = request.getIndex();
                         byte[] context = request.getWorkContext();
 
-                        byte[] serializedIndex = ByteBuffer.allocate(4).putInt(index).array();
+                        byte[] serializedIndex = Frames.indexFrame(index);
 
                         if (context != null && context.length > 0) {
                             socket.send(serializedIndex, ZMQ.SNDMORE);
@@ -200,6 +199,8 @@ public class NonReliableOneWaySender implements OneWaySender, Thread.UncaughtExc
                         } else {
                             socket.send(serializedIndex, 0);
                         }
+                        // one-way requests complete once they are handed to the socket
+                        multiplexer.release(socket);
                     }
                 } catch (RuntimeException e) {
                     // exception, make sure the thread is rescheduled
@@ -18,20 +18,26 @@
  */
 package org.fabric3.binding.zeromq.runtime.message;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.LifecycleAware;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.WaitStrategy;
 import org.fabric3.api.annotation.management.Management;
 import org.fabric3.api.annotation.management.ManagementOperation;
 import org.fabric3.api.annotation.management.OperationType;
 import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
 import org.fabric3.binding.zeromq.runtime.MessagingMonitor;
-import org.fabric3.binding.zeromq.runtime.context.ContextManager;
 import org.fabric3.binding.zeromq.runtime.SocketAddress;
+import org.fabric3.binding.zeromq.runtime.context.ContextManager;
 import org.fabric3.spi.host.Port;
 import org.zeromq.ZMQ;
 import org.zeromq.ZMQ.Socket;
@@ -39,52 +45,92 @@ import org.zeromq.ZMQ.Socket;
 /**
  * Implements a basic PUB client with no qualities of service.
  *
- * Since ZeroMQ requires the creating socket thread to dispatch messages, a looping thread is used for publishing messages. Messages are provided to the thread
- * via a queue.
+ * Since ZeroMQ requires the creating socket thread to dispatch messages, messages are provided to a single consumer that owns the socket via a ring buffer.
+ * The ring buffer entries are frame slots allocated when the publisher is started and reused for each message, so publishing does not allocate or contend on a
+ * lock. The consumer sends each message in a batch as a multipart message, clearing slots as it goes, until the end of the batch is reached.
+ *
+ * The ring buffer acts as the publisher high-water mark: if it is full the message is dropped, consistent with the behavior of PUB sockets. The high-water
+ * condition is reported once and cleared by the consumer when it has sent all published messages.
  */
 @Management
-public class NonReliableQueuedPublisher implements Publisher, Thread.UncaughtExceptionHandler {
-    private static final byte[] SHUTDOWN = new byte[0];
+public class NonReliableQueuedPublisher implements Publisher {
     private ContextManager manager;
     private SocketAddress address;
-    private long pollTimeout;
     private ZeroMQMetadata metadata;
+    private int ringSize;
+    private WaitStrategy waitStrategy;
+    private long drainTimeout;
+    private ExecutorService executorService;
     private MessagingMonitor monitor;
 
-    private Socket socket;
-    private Dispatcher dispatcher;
+    private volatile RingBuffer<FrameSlot> ringBuffer;
+    private BatchEventProcessor<FrameSlot> processor;
 
-    private LinkedBlockingQueue<Object> queue;
+    private AtomicLong dropped = new AtomicLong();
+    private AtomicBoolean highWater = new AtomicBoolean();
 
-    public NonReliableQueuedPublisher(ContextManager manager, SocketAddress address, ZeroMQMetadata metadata, long pollTimeout, MessagingMonitor monitor) {
+    /**
+     * Constructor.
+     *
+     * @param manager         the ZeroMQ context manager
+     * @param address         the address to bind the publisher socket to
+     * @param metadata        the ZeroMQ metadata to configure the socket
+     * @param ringSize        the number of frame slots, rounded up to the next power of two
+     * @param waitStrategy    the strategy the consumer uses to wait for messages
+     * @param drainTimeout    the time in milliseconds to wait for queued messages to be sent when the publisher is stopped
+     * @param executorService the executor that runs the socket consumer
+     * @param monitor         the monitor
+     */
+    public NonReliableQueuedPublisher(ContextManager manager,
+                                      SocketAddress address,
+                                      ZeroMQMetadata metadata,
+                                      int ringSize,
+                                      WaitStrategy waitStrategy,
+                                      long drainTimeout,
+                                      ExecutorService executorService,
+                                      MessagingMonitor monitor) {
         this.manager = manager;
         this.address = address;
-        this.pollTimeout = pollTimeout;
         this.metadata = metadata;
+        this.ringSize = normalize(ringSize);
+        this.waitStrategy = waitStrategy;
+        this.drainTimeout = drainTimeout;
+        this.executorService = executorService;
         this.monitor = monitor;
-        this.queue = new LinkedBlockingQueue<>();
     }
 
     @ManagementOperation(type = OperationType.POST)
-    public void start() {
-        if (dispatcher == null) {
-            dispatcher = new Dispatcher();
-            schedule();
+    public synchronized void start() {
+        if (ringBuffer != null) {
+            return;
         }
+        RingBuffer<FrameSlot> ring = RingBuffer.createMultiProducer(FrameSlot::new, ringSize, waitStrategy);
+        processor = new BatchEventProcessor<>(ring, ring.newBarrier(), new SocketHandler());
+        processor.setExceptionHandler(new MonitorExceptionHandler());
+        ring.addGatingSequences(processor.getSequence());
+        executorService.execute(processor);
+        ringBuffer = ring;
     }
 
     @ManagementOperation(type = OperationType.POST)
-    public void stop() {
-        try {
-            if (dispatcher != null) {
-                dispatcher.stop();
+    public synchronized void stop() {
+        RingBuffer<FrameSlot> ring = ringBuffer;
+        if (ring == null) {
+            return;
+        }
+        ringBuffer = null;
+        // allow the consumer to start and send queued messages before halting; the socket is closed on the consumer thread
+        long deadline = System.currentTimeMillis() + drainTimeout;
+        while ((!processor.isRunning() || processor.getSequence().get() < ring.getCursor()) && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             }
-            queue.put(SHUTDOWN);
-        } catch (InterruptedException e) {
-            monitor.error(e);
-        } finally {
-            dispatcher = null;
         }
+        processor.halt();
+        processor = null;
     }
 
     @ManagementOperation
@@ -92,101 +138,148 @@ public class NonReliableQueuedPublisher implements Publisher, Thread.UncaughtExc
         return address.toString();
     }
 
-    public void publish(byte[] message) {
-        try {
-            queue.put(message);
-        } catch (InterruptedException e) {
-            Thread.interrupted();
-        }
+    @ManagementOperation(description = "The number of frame slots")
+    public int getRingSize() {
+        return ringSize;
     }
 
-    public void publish(byte[][] message) {
-        try {
-            queue.put(message);
-        } catch (InterruptedException e) {
-            Thread.interrupted();
-        }
+    @ManagementOperation(description = "The number of free frame slots")
+    public long getRemainingCapacity() {
+        RingBuffer<FrameSlot> ring = ringBuffer;
+        return ring == null ? ringSize : ring.remainingCapacity();
     }
 
-    public void uncaughtException(Thread t, Throwable e) {
-        monitor.error(e);
+    @ManagementOperation(description = "The number of messages dropped because the publisher reached its high-water mark")
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public void publish(byte[] topic, byte[] message) {
+        publish(topic, message, null);
+    }
+
+    public void publish(byte[] topic, byte[][] message) {
+        publish(topic, null, message);
+    }
+
+    private void publish(byte[] topic, byte[] frame, byte[][] frames) {
+        RingBuffer<FrameSlot> ring = ringBuffer;
+        if (ring == null) {
+            return;
+        }
+        long sequence;
+        try {
+            sequence = ring.tryNext();
+        } catch (InsufficientCapacityException e) {
+            dropped.incrementAndGet();
+            if (highWater.compareAndSet(false, true)) {
+                // report once until the consumer catches up to avoid flooding the monitor
+                monitor.onHighWater(address.toString());
+            }
+            return;
+        }
+        try {
+            FrameSlot slot = ring.get(sequence);
+            slot.topic = topic;
+            slot.frame = frame;
+            slot.frames = frames;
+        } finally {
+            ring.publish(sequence);
+        }
     }
 
-    private void schedule() {
-        Thread thread = new Thread(dispatcher);
-        thread.setUncaughtExceptionHandler(this);
-        thread.start();
+    private static int normalize(int size) {
+        int normalized = 1;
+        while (normalized < size) {
+            normalized <<= 1;
+        }
+        return normalized;
     }
 
-    private class Dispatcher implements Runnable {
-        private AtomicBoolean active = new AtomicBoolean(true);
+    /**
+     * A reusable ring buffer entry holding the frames of a message.
+     */
+    private static class FrameSlot {
+        private byte[] topic;
+        private byte[] frame;
+        private byte[][] frames;
 
-        public void stop() {
-            active.set(false);
+        private void clear() {
+            topic = null;
+            frame = null;
+            frames = null;
         }
+    }
 
-        public void run() {
-            String id = getClass().getName() + ":" + UUID.randomUUID().toString();
+    /**
+     * Owns the PUB socket, which is created, used and closed on the consumer thread.
+     */
+    private class SocketHandler implements EventHandler<FrameSlot>, LifecycleAware {
+        private String id = getClass().getName() + ":" + UUID.randomUUID().toString();
+        private Socket socket;
+
+        public void onStart() {
             manager.reserve(id);
             socket = manager.getContext().socket(ZMQ.PUB);
             SocketHelper.configure(socket, metadata);
             address.getPort().bind(Port.TYPE.TCP);
             socket.bind(address.toProtocolString());
+        }
 
-            while (active.get()) {
-                try {
-
-                    Object value = queue.poll(pollTimeout, TimeUnit.MILLISECONDS);
-                    if (SHUTDOWN == value) {
-                        close(id);
-                        return;
-                    }
-                    if (value == null) {
-                        continue;
-                    }
-                    List<Object> drained = new ArrayList<>();
-                    drained.add(value);
-                    queue.drainTo(drained);
-                    for (Object object : drained) {
-                        if (object instanceof byte[]) {
-                            // single frame message
-                            socket.send((byte[]) object, 0);
-                        } else if (object instanceof byte[][]) {
-                            // multi-frame message - send each frame
-                            byte[][] byteArray = (byte[][]) object;
-                            int length = byteArray.length;
-                            for (int i = 0; i < length - 1; i++) {
-                                byte[] bytes = byteArray[i];
-                                socket.send(bytes, ZMQ.SNDMORE);
-                            }
-                            socket.send(byteArray[length - 1], 0);
-                        } else {
-                            // programming error
-                            monitor.error("Unknown object type:" + object.getClass().getName());
-                        }
+        public void onEvent(FrameSlot slot, long sequence, boolean endOfBatch) {
+            try {
+                // the topic frame is sent first so subscribers can filter on it
+                socket.send(slot.topic, ZMQ.SNDMORE);
+                if (slot.frame != null) {
+                    // single frame message
+                    socket.send(slot.frame, 0);
+                } else {
+                    // multi-frame message - send each frame
+                    byte[][] frames = slot.frames;
+                    int length = frames.length;
+                    for (int i = 0; i < length - 1; i++) {
+                        socket.send(frames[i], ZMQ.SNDMORE);
                     }
-                } catch (RuntimeException e) {
-                    // exception, make sure the thread is rescheduled
-                    manager.release(id);
-                    schedule();
-                    throw e;
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+                    socket.send(frames[length - 1], 0);
+                }
+            } finally {
+                // release references to the sent frames so they are not retained until the slot is reused
+                slot.clear();
+                if (endOfBatch && highWater.get()) {
+                    // the consumer has caught up with the published messages, so the next drop is reported as a new high-water condition
+                    highWater.set(false);
                 }
-
             }
-            close(id);
         }
 
-        private void close(String id) {
+        public void onShutdown() {
             if (socket != null) {
                 try {
                     socket.close();
                 } finally {
+                    socket = null;
                     manager.release(id);
                 }
             }
         }
     }
 
+    /**
+     * Reports errors without halting the consumer.
+     */
+    private class MonitorExceptionHandler implements ExceptionHandler<FrameSlot> {
+
+        public void handleEventException(Throwable e, long sequence, FrameSlot slot) {
+            monitor.error(e);
+        }
+
+        public void handleOnStartException(Throwable e) {
+            monitor.error(e);
+        }
+
+        public void handleOnShutdownException(Throwable e) {
+            monitor.error(e);
+        }
+    }
+
 }
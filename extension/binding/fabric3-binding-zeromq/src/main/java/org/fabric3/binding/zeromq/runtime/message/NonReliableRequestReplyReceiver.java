@@ -18,39 +18,51 @@
  */
 package org.fabric3.binding.zeromq.runtime.message;
 
-import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.fabric3.api.annotation.management.Management;
 import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.binding.zeromq.runtime.MessagingMonitor;
+import org.fabric3.binding.zeromq.runtime.SocketAddress;
 import org.fabric3.binding.zeromq.runtime.context.ContextManager;
 import org.fabric3.spi.container.invocation.Message;
 import org.fabric3.spi.container.invocation.MessageCache;
 import org.fabric3.spi.container.invocation.WorkContext;
 import org.fabric3.spi.container.wire.Interceptor;
 import org.fabric3.spi.container.wire.InvocationChain;
-import org.fabric3.binding.zeromq.runtime.SocketAddress;
-import org.oasisopen.sca.ServiceRuntimeException;
 import org.zeromq.ZMQ;
 import org.zeromq.ZMQ.Socket;
 
 /**
  * A {@link Receiver} that implements request-reply with no qualities of service.
  *
- * Since ZeroMQ requires the creating socket thread to receive messages, a polling thread is used for reading messages from the ZeroMQ socket. The receiver
- * listens for address updates (e.g. a sender coming online or going away). Since ZeroMQ does not implement disconnect semantics on a socket, if an update is
- * received the original socket will be closed and a new one created to connect to the update set of addresses.
+ * Since ZeroMQ requires the creating socket thread to receive messages, a polling thread is used for reading messages from the ZeroMQ socket. Requests are
+ * received on a ROUTER socket and forwarded to a DEALER socket bound to an in-process address. A pool of workers, each with its own socket connected to the
+ * DEALER, invoke the service and send the response directly back through the DEALER, which the polling thread then routes to the requesting client. Workers
+ * occupy their threads for the lifetime of the receiver and are therefore run on a dedicated executor rather than the runtime executor. If the workers cannot
+ * be started, the receiver fails to bind.
+ *
+ * Requests consist of the following frames: the client id (added by the ROUTER), the request id, the payload, the operation index and an optional
+ * serialized work context. Responses consist of the client id, the request id and the payload.
  */
 @Management
 public class NonReliableRequestReplyReceiver extends AbstractReceiver implements Thread.UncaughtExceptionHandler {
-    private static final Response SHUTDOWN = new Response(null, null);
-    private LinkedBlockingQueue<Response> queue;
+    private static final int MAX_FRAMES = 5;
+    private static final int MIN_FRAMES = 4;
+
     private final long pollTimeout;
+    private final int workers;
+    private final ExecutorService workerExecutor;
+    private final String backendAddress;
+
+    private byte[][] frames = new byte[MAX_FRAMES][];
+    private Socket backend;
+    private volatile boolean workersActive;
 
     /**
      * Constructor.
@@ -59,108 +71,214 @@ public class NonReliableRequestReplyReceiver extends AbstractReceiver implements
      * @param address         the address to receive messages on
      * @param chains          the invocation chains for dispatching invocations
      * @param executorService the runtime executor service
-     * @param metadata        metadata
+     * @param workerExecutor  the executor for running workers
      * @param pollTimeout     timeout for polling operations in microseconds
+     * @param workers         the number of workers dispatching requests
+     * @param metadata        metadata
      * @param monitor         the monitor
      */
     public NonReliableRequestReplyReceiver(ContextManager manager,
                                            SocketAddress address,
                                            List<InvocationChain> chains,
                                            ExecutorService executorService,
+                                           ExecutorService workerExecutor,
                                            long pollTimeout,
+                                           int workers,
                                            ZeroMQMetadata metadata,
                                            MessagingMonitor monitor) {
-        super(manager, address, chains, ZMQ.XREP, metadata, executorService, monitor);
+        super(manager, address, chains, ZMQ.ROUTER, metadata, executorService, monitor);
         this.pollTimeout = pollTimeout;
-        queue = new LinkedBlockingQueue<>();
+        this.workers = workers;
+        this.workerExecutor = workerExecutor;
+        this.backendAddress = "inproc://" + id;
     }
 
-    protected boolean invoke(Socket socket) {
-        // read the message
-        final byte[] clientId = socket.recv(ZMQ.NOBLOCK);
-        if (clientId == null) {
-            // nothing was received, just return
-            return false;
+    @Override
+    protected void onBind(ZMQ.Poller poller) {
+        backend = manager.getContext().socket(ZMQ.DEALER);
+        SocketHelper.configure(backend, metadata);
+        backend.bind(backendAddress);
+        poller.register(backend, ZMQ.Poller.POLLIN);
+
+        // start the workers and wait for them to connect since a DEALER socket without peers cannot accept messages
+        workersActive = true;
+        CountDownLatch latch = new CountDownLatch(workers);
+        try {
+            for (int i = 0; i < workers; i++) {
+                workerExecutor.execute(new Worker(id + ":worker" + i, latch));
+            }
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                workersActive = false;
+                throw new Fabric3Exception("Timeout waiting for workers to start: " + address.toProtocolString());
+            }
+        } catch (RejectedExecutionException e) {
+            workersActive = false;
+            throw new Fabric3Exception("Worker threads exhausted, unable to start workers for: " + address.toProtocolString(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workersActive = false;
+            throw new Fabric3Exception("Interrupted starting workers for: " + address.toProtocolString(), e);
+        }
+    }
+
+    @Override
+    protected void onClose() {
+        workersActive = false;
+        if (backend != null) {
+            backend.close();
+            backend = null;
         }
-        final byte[][] frames = new byte[3][];
-        int i = 1;
-        frames[0] = socket.recv(0);
-        while (socket.hasReceiveMore()) {
-            if (i > 2) {
-                monitor.error("Invalid message: received more than three frames");
-                return false;
+    }
+
+    /**
+     * Forwards all pending requests to the workers. Always returns true so that pending responses are forwarded as well.
+     *
+     * @param socket the ROUTER socket
+     * @return true
+     */
+    protected boolean invoke(Socket socket) {
+        while (true) {
+            byte[] clientId = socket.recv(ZMQ.NOBLOCK);
+            if (clientId == null) {
+                return true;
+            }
+            int count = 0;
+            frames[count++] = clientId;
+            boolean valid = true;
+            while (socket.hasReceiveMore()) {
+                byte[] frame = socket.recv(0);
+                if (count < MAX_FRAMES) {
+                    frames[count++] = frame;
+                } else {
+                    valid = false;
+                }
+            }
+            if (!valid || count < MIN_FRAMES) {
+                monitor.error("Invalid message: received " + count + " frames");
+                continue;
+            }
+            // do not block the polling thread if the workers cannot accept more requests as it also forwards their responses
+            if (!backend.send(frames[0], ZMQ.SNDMORE | ZMQ.NOBLOCK)) {
+                monitor.dropMessage();
+                continue;
+            }
+            inFlight.incrementAndGet();
+            for (int i = 1; i < count; i++) {
+                backend.send(frames[i], i < count - 1 ? ZMQ.SNDMORE : 0);
             }
-            frames[i] = socket.recv(0);
-            i++;
         }
-        executorService.execute(new Runnable() {
-            public void run() {
-                Message request = MessageCache.getAndResetMessage();
-                try {
+    }
 
-                    request.setBody(frames[0]);
-                    int methodIndex = ByteBuffer.wrap(frames[1]).getInt();
-                    WorkContext context = setWorkContext(frames[2]);
+    /**
+     * Forwards all responses sent by the workers to the requesting clients.
+     *
+     * @param socket the ROUTER socket
+     */
+    protected void response(Socket socket) {
+        while (true) {
+            byte[] frame = backend.recv(ZMQ.NOBLOCK);
+            if (frame == null) {
+                return;
+            }
+            boolean more = backend.hasReceiveMore();
+            socket.send(frame, more ? ZMQ.SNDMORE : 0);
+            while (more) {
+                frame = backend.recv(0);
+                more = backend.hasReceiveMore();
+                socket.send(frame, more ? ZMQ.SNDMORE : 0);
+            }
+        }
+    }
 
-                    request.setWorkContext(context);
+    /**
+     * Receives requests from the DEALER socket, invokes the service and sends the response on the same socket.
+     */
+    private class Worker implements Runnable {
+        private String workerId;
+        private CountDownLatch latch;
 
-                    Interceptor interceptor = interceptors[methodIndex];
+        public Worker(String workerId, CountDownLatch latch) {
+            this.workerId = workerId;
+            this.latch = latch;
+        }
 
-                    // invoke the service
-                    Message response = interceptor.invoke(request);
-                    Object responseBody = response.getBody();
+        public void run() {
+            manager.reserve(workerId);
+            Socket socket = null;
+            Socket controlSocket = null;
+            try {
+                socket = manager.getContext().socket(ZMQ.DEALER);
+                SocketHelper.configure(socket, metadata);
+                socket.connect(backendAddress);
+                controlSocket = manager.createControlSocket();
+                ZMQ.Poller poller = manager.getContext().poller(2);
+                poller.register(socket, ZMQ.Poller.POLLIN);
+                poller.register(controlSocket, ZMQ.Poller.POLLIN);
+                latch.countDown();
 
-                    if (!(responseBody instanceof byte[])) {
-                        throw new ServiceRuntimeException("Return value not serialized");
+                long timeout = Math.max(1, pollTimeout / 1000);
+                while (workersActive) {
+                    poller.poll(timeout);
+                    if (poller.pollin(1)) {
+                        // the context is shutting down
+                        return;
                     }
-
-                    // queue the response
-                    try {
-                        queue.put(new Response(clientId, (byte[]) responseBody));
-                    } catch (InterruptedException e) {
-                        Thread.interrupted();
+                    if (poller.pollin(0)) {
+                        dispatch(socket);
+                    }
+                }
+            } catch (RuntimeException e) {
+                monitor.error(e);
+            } finally {
+                try {
+                    if (socket != null) {
+                        socket.close();
+                    }
+                    if (controlSocket != null) {
+                        controlSocket.close();
                     }
                 } finally {
-                    request.reset();
-                    //                    context.reset();
+                    manager.release(workerId);
                 }
-
             }
-        });
-        return true;
-
-    }
+        }
 
-    protected void response(Socket socket) {
-        try {
-            Response first = queue.poll(pollTimeout, TimeUnit.MICROSECONDS);
-            if (first == null || SHUTDOWN == first) {
-                // don't close socket in case of shutdown as it is handled in the superclass
+        private void dispatch(Socket socket) {
+            byte[] clientId = socket.recv(ZMQ.NOBLOCK);
+            if (clientId == null) {
                 return;
             }
-            List<Response> drained = new ArrayList<>();
-            drained.add(first);
-            queue.drainTo(drained);
+            byte[] requestId = socket.recv(0);
+            byte[] payload = socket.recv(0);
+            byte[] index = socket.recv(0);
+            byte[] header = socket.hasReceiveMore() ? socket.recv(0) : null;
+
+            Message request = MessageCache.getAndResetMessage();
+            try {
+                request.setBody(payload);
+                int methodIndex = Frames.readIndex(index);
+                WorkContext context = setWorkContext(header);
+                request.setWorkContext(context);
 
-            for (Response response : drained) {
-                if (SHUTDOWN == response){
+                Interceptor interceptor = interceptors[methodIndex];
+
+                // invoke the service
+                Message response = interceptor.invoke(request);
+                Object responseBody = response.getBody();
+
+                if (!(responseBody instanceof byte[])) {
+                    monitor.error("Return value not serialized");
                     return;
                 }
-                socket.send(response.clientId, ZMQ.SNDMORE);
-                socket.send(response.body, 0);
+                socket.send(clientId, ZMQ.SNDMORE);
+                socket.send(requestId, ZMQ.SNDMORE);
+                socket.send((byte[]) responseBody, 0);
+            } catch (RuntimeException e) {
+                monitor.error(e);
+            } finally {
+                inFlight.decrementAndGet();
+                request.reset();
             }
-        } catch (InterruptedException e) {
-            Thread.interrupted();
-        }
-    }
-
-    private static class Response {
-        private byte[] clientId;
-        private byte[] body;
-
-        private Response(byte[] clientId, byte[] body) {
-            this.clientId = clientId;
-            this.body = body;
         }
     }
 
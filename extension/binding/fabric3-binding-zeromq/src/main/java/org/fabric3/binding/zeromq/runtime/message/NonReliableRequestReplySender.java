@@ -18,30 +18,35 @@
  */
 package org.fabric3.binding.zeromq.runtime.message;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.binding.zeromq.runtime.MessagingMonitor;
+import org.fabric3.binding.zeromq.runtime.SocketAddress;
 import org.fabric3.binding.zeromq.runtime.context.ContextManager;
 import org.fabric3.spi.container.invocation.CallbackReferenceSerializer;
 import org.fabric3.spi.container.invocation.WorkContext;
 import org.fabric3.spi.discovery.EntryChange;
 import org.fabric3.spi.discovery.ServiceEntry;
-import org.fabric3.binding.zeromq.runtime.SocketAddress;
 import org.oasisopen.sca.ServiceRuntimeException;
 import org.oasisopen.sca.ServiceUnavailableException;
 import org.zeromq.ZMQ;
@@ -51,24 +56,32 @@ import org.zeromq.ZMQ.Socket;
  * A {@link RequestReplySender} that provides no qualities of service.
  *
  * Since ZeroMQ requires the creating socket thread to dispatch messages, a looping thread is used for sending messages. Messages are provided to the thread via
- * a queue.
+ * a queue. Requests are pipelined: the thread sends all queued requests without waiting for responses, which are matched to their requests using a request id
+ * frame. The thread is woken through a pipe registered with its poller when requests are queued, so it can wait on responses and new requests at the same
+ * time.
  */
 public class NonReliableRequestReplySender implements RequestReplySender, Thread.UncaughtExceptionHandler {
     private static final Callable<byte[]> CALLABLE = () -> null;
-    private static final Request SHUTDOWN = new Request(null, 0, null);
+    private static final Request SHUTDOWN = new Request(0, null, 0, null);
+    private static final long RESPONSE_TIMEOUT = 100000;
 
     private String id;
     private ContextManager manager;
-    private List<SocketAddress> addresses;
+    private volatile List<SocketAddress> addresses;
     private long pollTimeout;
     private MessagingMonitor monitor;
 
     private Dispatcher dispatcher;
 
-    private RoundRobinSocketMultiplexer multiplexer;
-    private Map<Socket, ZMQ.Poller> pollers;
+    private SocketMultiplexer multiplexer;
+
+    private ConcurrentLinkedQueue<Request> queue;
+    private Map<Long, Request> pending;
+    private AtomicLong counter = new AtomicLong();
 
-    private LinkedBlockingQueue<Request> queue;
+    private Pipe pipe;
+    private AtomicBoolean signalled = new AtomicBoolean();
+    private ByteBuffer signal = ByteBuffer.allocate(1);
 
     public NonReliableRequestReplySender(String id,
                                          ContextManager manager,
@@ -81,13 +94,20 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
         this.addresses = addresses;
         this.pollTimeout = pollTimeout;
         this.monitor = monitor;
-        multiplexer = new RoundRobinSocketMultiplexer(manager, ZMQ.XREQ, metadata);
-        queue = new LinkedBlockingQueue<>();
-        pollers = new ConcurrentHashMap<>();
+        multiplexer = SocketMultiplexerFactory.create(manager, ZMQ.DEALER, metadata);
+        queue = new ConcurrentLinkedQueue<>();
+        pending = new ConcurrentHashMap<>();
     }
 
     public void start() {
         if (dispatcher == null) {
+            try {
+                pipe = Pipe.open();
+                pipe.source().configureBlocking(false);
+                pipe.sink().configureBlocking(false);
+            } catch (IOException e) {
+                throw new ServiceRuntimeException(e);
+            }
             dispatcher = new Dispatcher();
             schedule();
         }
@@ -96,10 +116,8 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
 
     public void stop() {
         try {
+            enqueue(SHUTDOWN);
             dispatcher.stop();
-            queue.put(SHUTDOWN);
-        } catch (InterruptedException e) {
-            monitor.error(e);
         } finally {
             dispatcher = null;
         }
@@ -113,21 +131,31 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
         // refresh socket
         this.addresses = AddressUpdater.accept(change, entry, addresses);
         dispatcher.refresh();
+        wakeup();
     }
 
     public byte[] sendAndReply(byte[] message, int index, WorkContext workContext) {
+        Request request = null;
         try {
             byte[] serializedWorkContext = serialize(workContext);
-            Request request = new Request(message, index, serializedWorkContext);
-            queue.put(request);
-            return request.get(100000, TimeUnit.MILLISECONDS);
+            request = new Request(counter.incrementAndGet(), message, index, serializedWorkContext);
+            enqueue(request);
+            return request.get(RESPONSE_TIMEOUT, TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
             Thread.interrupted();
             throw new ServiceRuntimeException(e);
         } catch (ExecutionException e) {
+            if (e.getCause() instanceof ServiceUnavailableException) {
+                throw (ServiceUnavailableException) e.getCause();
+            }
             throw new ServiceRuntimeException(e);
         } catch (TimeoutException | Fabric3Exception e) {
             throw new ServiceUnavailableException(e);
+        } finally {
+            if (request != null && pending.remove(request.getRequestId()) != null) {
+                // the request timed out or the caller was interrupted: cancel so the socket is released
+                request.cancel(false);
+            }
         }
     }
 
@@ -142,6 +170,28 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
         thread.start();
     }
 
+    private void enqueue(Request request) {
+        queue.add(request);
+        wakeup();
+    }
+
+    /**
+     * Wakes the dispatcher thread. The pipe is only written to if the dispatcher has not already been signalled since it last drained the queue.
+     */
+    private void wakeup() {
+        if (pipe == null || !signalled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            synchronized (signal) {
+                signal.clear();
+                pipe.sink().write(signal);
+            }
+        } catch (IOException e) {
+            monitor.error(e);
+        }
+    }
+
     /**
      * Serializes the work context.
      *
@@ -158,12 +208,15 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
     }
 
     /**
-     * Dispatches requests to the ZeroMQ socket.
+     * Dispatches requests to the ZeroMQ sockets and completes them when their responses are received.
      */
     private class Dispatcher implements Runnable {
         private AtomicBoolean active = new AtomicBoolean(true);
         private AtomicBoolean doRefresh = new AtomicBoolean(true);
         private Socket controlSocket;
+        private ZMQ.Poller poller;
+        private Socket[] sockets = new Socket[0];
+        private ByteBuffer drain = ByteBuffer.allocate(64);
 
         /**
          * Signals to closes the old socket and establish a new one when publisher addresses have changed in the domain.
@@ -180,81 +233,115 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
         }
 
         public void run() {
+            long timeout = Math.max(1, pollTimeout / 1000);
             while (active.get()) {
                 try {
                     reconnect();
 
-                    // handle pending requests
-                    List<Request> drained = new ArrayList<>();
-                    Request value = queue.poll(pollTimeout, TimeUnit.MICROSECONDS);
-                    if (SHUTDOWN == value) {
-                        multiplexer.close();
-                        controlSocket.close();
+                    poller.poll(timeout);
+                    if (poller.pollin(0)) {
+                        // control message, the context is shutting down
+                        close();
                         return;
                     }
-                    // if no available socket, drop the message
-                    if (!multiplexer.isAvailable()) {
-                        monitor.dropMessage();
-                        continue;
+                    if (poller.pollin(1)) {
+                        resetSignal();
                     }
-
-                    if (value != null) {
-                        drained.add(value);
-                        queue.drainTo(drained);
+                    if (!send()) {
+                        close();
+                        return;
                     }
-                    for (Request request : drained) {
-                        Socket socket = multiplexer.get();
-
-                        socket.send(request.getPayload(), ZMQ.SNDMORE);
-
-                        // serialize the operation index
-                        int index = request.getIndex();
-                        byte[] serializedIndex = ByteBuffer.allocate(4).putInt(index).array();
-
-                        byte[] context = request.getWorkContext();
-                        if (context != null && context.length > 0) {
-                            socket.send(serializedIndex, ZMQ.SNDMORE);
-                            socket.send(context, 0);
-                        } else {
-                            socket.send(serializedIndex, 0);
-                        }
-
-                        ZMQ.Poller poller = pollers.get(socket);
-                        long val = poller.poll(pollTimeout);
-                        if (val < 0) {
-                            // response timed out, return an error to the waiting thread
-                            //noinspection ThrowableInstanceNeverThrown
-                            request.setException(new ServiceUnavailableException("Timeout waiting on response"));
-                            request.run();
-                            continue;
+                    for (int i = 0; i < sockets.length; i++) {
+                        if (poller.pollin(i + 2)) {
+                            receive(sockets[i]);
                         }
-                        byte[] controlPayload = controlSocket.recv(ZMQ.NOBLOCK);
-                        if (controlPayload != null) {
-                            multiplexer.close();
-                            if (controlSocket != null) {
-                                controlSocket.close();
-                            }
-                            return;
-                        }
-
-                        byte[] response = socket.recv(0);
-                        request.set(response);
-                        request.run();
                     }
                 } catch (RuntimeException e) {
                     // exception, make sure the thread is rescheduled
                     schedule();
                     throw e;
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
                 }
+            }
+            close();
+        }
 
+        /**
+         * Sends all queued requests.
+         *
+         * @return false if the sender has been shutdown
+         */
+        private boolean send() {
+            Request request;
+            while ((request = queue.poll()) != null) {
+                if (SHUTDOWN == request) {
+                    return false;
+                }
+                if (!multiplexer.isAvailable()) {
+                    // no available socket, fail the request
+                    monitor.dropMessage();
+                    request.setException(new ServiceUnavailableException("No service endpoints available"));
+                    continue;
+                }
+                Socket socket = multiplexer.get();
+                request.dispatched(multiplexer, socket);
+                pending.put(request.getRequestId(), request);
+
+                socket.send(Frames.requestIdFrame(request.getRequestId()), ZMQ.SNDMORE);
+                socket.send(request.getPayload(), ZMQ.SNDMORE);
+
+                byte[] serializedIndex = Frames.indexFrame(request.getIndex());
+                byte[] context = request.getWorkContext();
+                if (context != null && context.length > 0) {
+                    socket.send(serializedIndex, ZMQ.SNDMORE);
+                    socket.send(context, 0);
+                } else {
+                    socket.send(serializedIndex, 0);
+                }
             }
-            multiplexer.close();
-            if (controlSocket != null) {
-                controlSocket.close();
+            return true;
+        }
+
+        /**
+         * Reads all available responses from a socket.
+         *
+         * @param socket the socket
+         */
+        private void receive(Socket socket) {
+            while (true) {
+                byte[] requestId = socket.recv(ZMQ.NOBLOCK);
+                if (requestId == null) {
+                    return;
+                }
+                if (!socket.hasReceiveMore()) {
+                    monitor.error("Invalid response: missing payload");
+                    continue;
+                }
+                byte[] response = socket.recv(0);
+                while (socket.hasReceiveMore()) {
+                    socket.recv(0);
+                }
+                Request request = pending.remove(Frames.readRequestId(requestId));
+                if (request != null) {
+                    request.set(response);
+                }
             }
+        }
 
+        /**
+         * Drains the pipe and then clears the wake-up signal, before the queue is drained, so that requests enqueued afterwards signal the dispatcher again.
+         * The signal must be cleared after the pipe is drained: otherwise a wake-up written between the two steps would be discarded while the signal
+         * remains set, and later requests would not wake the dispatcher.
+         */
+        private void resetSignal() {
+            try {
+                drain.clear();
+                while (pipe.source().read(drain) > 0) {
+                    drain.clear();
+                }
+            } catch (IOException e) {
+                monitor.error(e);
+            }
+            signalled.set(false);
         }
 
         /**
@@ -269,32 +356,76 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
             }
 
             multiplexer.update(addresses);
-            Collection<Socket> sockets = multiplexer.getAll();
-            pollers.clear();
+            Collection<Socket> all = multiplexer.getAll();
+            sockets = all.toArray(new Socket[all.size()]);
+            poller = manager.getContext().poller(sockets.length + 2);
+            poller.register(controlSocket, ZMQ.Poller.POLLIN);
+            poller.register(pipe.source(), ZMQ.Poller.POLLIN);
             for (Socket socket : sockets) {
-                ZMQ.Poller poller = manager.getContext().poller();
                 poller.register(socket, ZMQ.Poller.POLLIN);
-                poller.register(controlSocket, ZMQ.Poller.POLLIN);
-                pollers.put(socket, poller);
+            }
+
+            // fail requests sent on sockets that were closed as their responses will not be received
+            Set<Socket> current = new HashSet<>(all);
+            List<Request> orphaned = new ArrayList<>();
+            for (Request request : pending.values()) {
+                if (!current.contains(request.getSocket())) {
+                    orphaned.add(request);
+                }
+            }
+            for (Request request : orphaned) {
+                pending.remove(request.getRequestId());
+                request.setException(new ServiceUnavailableException("Service endpoint removed"));
+            }
+        }
+
+        private void close() {
+            multiplexer.close();
+            if (controlSocket != null) {
+                controlSocket.close();
+            }
+            for (Request request : pending.values()) {
+                request.setException(new ServiceUnavailableException("Sender stopped"));
+            }
+            pending.clear();
+            Request request;
+            while ((request = queue.poll()) != null) {
+                request.setException(new ServiceUnavailableException("Sender stopped"));
+            }
+            try {
+                pipe.source().close();
+                pipe.sink().close();
+            } catch (IOException e) {
+                monitor.error(e);
             }
         }
     }
 
     /**
-     * A {@link Future} used to pass a request payload to the ZeroMQ socket thread and retrieve the invocation return value on completion.
+     * A {@link Future} used to pass a request payload to the ZeroMQ socket thread and retrieve the invocation return value on completion. When the future
+     * completes, the socket it was dispatched on is released so the multiplexer can track the requests in flight for each endpoint.
      */
     private static class Request extends FutureTask<byte[]> {
+        private long requestId;
         private byte[] payload;
         private byte[] workContext;
         private int index;
 
-        public Request(byte[] payload, int index, byte[] workContext) {
+        private volatile SocketMultiplexer multiplexer;
+        private volatile Socket socket;
+
+        public Request(long requestId, byte[] payload, int index, byte[] workContext) {
             super(CALLABLE);
+            this.requestId = requestId;
             this.payload = payload;
             this.index = index;
             this.workContext = workContext;
         }
 
+        public long getRequestId() {
+            return requestId;
+        }
+
         public byte[] getPayload() {
             return payload;
         }
@@ -307,6 +438,23 @@ public class NonReliableRequestReplySender implements RequestReplySender, Thread
             return workContext;
         }
 
+        public Socket getSocket() {
+            return socket;
+        }
+
+        public void dispatched(SocketMultiplexer multiplexer, Socket socket) {
+            this.multiplexer = multiplexer;
+            this.socket = socket;
+        }
+
+        @Override
+        protected void done() {
+            SocketMultiplexer multiplexer = this.multiplexer;
+            if (multiplexer != null) {
+                multiplexer.release(socket);
+            }
+        }
+
         @Override
         public void set(byte[] s) {
             super.set(s);
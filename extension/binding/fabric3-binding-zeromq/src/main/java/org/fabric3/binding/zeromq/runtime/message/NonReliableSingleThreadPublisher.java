@@ -78,18 +78,20 @@ public class NonReliableSingleThreadPublisher implements Publisher {
         return address.toString();
     }
 
-    public void publish(byte[] message) {
+    public void publish(byte[] topic, byte[] message) {
         if (socket == null) {
             return;
         }
         // single frame message
+        socket.send(topic, ZMQ.SNDMORE);
         socket.send(message, 0);
     }
 
-    public void publish(byte[][] message) {
+    public void publish(byte[] topic, byte[][] message) {
         if (socket == null) {
             return;
         }
+        socket.send(topic, ZMQ.SNDMORE);
         int length = message.length;
         for (int i = 0; i < length - 1; i++) {
             byte[] bytes = message[i];
@@ -18,6 +18,7 @@
  */
 package org.fabric3.binding.zeromq.runtime.message;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
@@ -46,18 +47,26 @@ import org.zeromq.ZMQ.Socket;
  * Since ZeroMQ requires the creating socket thread to receive messages, a polling thread is used for connecting to one or more publishers and receiving
  * messages. The subscriber listens for address updates (e.g. a publisher coming online or going away). Since ZeroMQ does not implement disconnect semantics on
  * a socket, if an update is received the original socket will be closed and a new one created to connect to the update set of addresses.
+ *
+ * Publishers prefix each message with a topic frame. If the subscriber is created for a topic, the socket only subscribes to that topic frame so that events
+ * for other topics are discarded by ZeroMQ before they are delivered; otherwise all topics are received. The topic frame is removed before events are
+ * dispatched. Events are dispatched on the polling thread unless a dispatcher pool is configured, in which case they are handed to a {@link TopicDispatcher}.
  */
 @Management
 public class NonReliableSubscriber implements Subscriber, BiConsumer<EntryChange, ChannelEntry> {
     private static final byte[] EMPTY_BYTES = new byte[0];
+    private static final int INITIAL_FRAMES = 8;
 
     private String id;
     private String socketId = getClass().getName() + ":" + UUID.randomUUID();
     private ContextManager manager;
     private List<SocketAddress> addresses;
     private EventStreamHandler handler;
+    private String topic;
+    private byte[] subscription;
     private ZeroMQMetadata metadata;
     private ExecutorService executorService;
+    private TopicDispatcher dispatcher;
 
     private AtomicInteger connectionCount = new AtomicInteger();
 
@@ -71,21 +80,30 @@ public class NonReliableSubscriber implements Subscriber, BiConsumer<EntryChange
      * @param manager         the ZeroMQ context manager
      * @param addresses       the publisher addresses the subscriber must connect to
      * @param head            the head handler for dispatching events
+     * @param topic           the topic to subscribe to or null to receive events for all topics
      * @param metadata        subscriber metadata
+     * @param dispatchers     the number of dispatcher lanes or 0 to dispatch events on the polling thread
      * @param executorService the executor for scheduling work
      */
     public NonReliableSubscriber(String id,
                                  ContextManager manager,
                                  List<SocketAddress> addresses,
                                  EventStreamHandler head,
+                                 String topic,
                                  ZeroMQMetadata metadata,
+                                 int dispatchers,
                                  ExecutorService executorService) {
         this.id = id;
         this.manager = manager;
         this.addresses = addresses;
         this.handler = head;
+        this.topic = topic;
+        this.subscription = topic == null ? EMPTY_BYTES : Frames.topicFrame(topic);
         this.metadata = metadata;
         this.executorService = executorService;
+        if (dispatchers > 0) {
+            this.dispatcher = new TopicDispatcher(dispatchers, head, executorService);
+        }
         long specifiedTimeout = metadata.getTimeout();
         if (specifiedTimeout < 0) {
             this.timeout = specifiedTimeout;
@@ -112,6 +130,11 @@ public class NonReliableSubscriber implements Subscriber, BiConsumer<EntryChange
         }
     }
 
+    @ManagementOperation
+    public String getTopic() {
+        return topic;
+    }
+
     @ManagementOperation
     public List<String> getAddresses() {
         return addresses.stream().map(SocketAddress::toString).collect(Collectors.toList());
@@ -148,6 +171,7 @@ public class NonReliableSubscriber implements Subscriber, BiConsumer<EntryChange
         private Socket controlSocket;
 
         private ZMQ.Poller poller;
+        private byte[][] frames = new byte[INITIAL_FRAMES][];
         private AtomicBoolean active = new AtomicBoolean(true);
         private AtomicBoolean doRefresh = new AtomicBoolean(true);
 
@@ -179,29 +203,23 @@ public class NonReliableSubscriber implements Subscriber, BiConsumer<EntryChange
                             closeSocket();
                             return;
                         }
-                        byte[][] frames = null;
-                        byte[] payload = socket.recv(0);
-                        int index = 1;
-                        while (socket.hasReceiveMore()) {
-                            if (frames == null) {
-                                frames = new byte[2][];
-                                frames[0] = payload;
-                            } else {
-                                byte[][] newArray = new byte[frames.length + 1][];
-                                System.arraycopy(frames, 0, newArray, 0, frames.length);
-                                frames = newArray;
-                            }
-                            frames[index] = socket.recv(0);
-                            index++;
+                        byte[] topicFrame = socket.recv(0);
+                        if (!socket.hasReceiveMore()) {
+                            // message without a topic frame, discard
+                            continue;
                         }
-                        if (frames == null) {
-                            handler.handle(payload, true);
+                        Object event = receive();
+                        if (dispatcher == null) {
+                            handler.handle(event, true);
                         } else {
-                            handler.handle(frames, true);
+                            dispatcher.dispatch(topicFrame, event);
                         }
                     }
                 }
                 closeSocket();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                closeSocket();
             } catch (RuntimeException e) {
                 // exception, make sure the thread is rescheduled
                 executorService.submit(this);
@@ -209,6 +227,31 @@ public class NonReliableSubscriber implements Subscriber, BiConsumer<EntryChange
             }
         }
 
+        /**
+         * Receives the payload following the topic frame. Multi-frame payloads are read into a buffer that is retained across messages and only grows if a
+         * message has more frames than it can hold, so that a single array of the exact size is allocated per message.
+         *
+         * @return the payload, either a single frame or the array of frames
+         */
+        private Object receive() {
+            byte[] payload = socket.recv(0);
+            if (!socket.hasReceiveMore()) {
+                return payload;
+            }
+            frames[0] = payload;
+            int count = 1;
+            while (socket.hasReceiveMore()) {
+                if (count == frames.length) {
+                    frames = Arrays.copyOf(frames, count * 2);
+                }
+                frames[count] = socket.recv(0);
+                count++;
+            }
+            byte[][] received = Arrays.copyOf(frames, count);
+            Arrays.fill(frames, 0, count, null);
+            return received;
+        }
+
         /**
          * Closes an existing socket and creates a new one, binding it to the list of active publisher endpoints.
          */
@@ -221,7 +264,7 @@ public class NonReliableSubscriber implements Subscriber, BiConsumer<EntryChange
             Context context = manager.getContext();
             socket = context.socket(ZMQ.SUB);
             SocketHelper.configure(socket, metadata);
-            socket.subscribe(EMPTY_BYTES);    // receive all messages
+            socket.subscribe(subscription);    // an empty subscription receives all topics
 
             for (SocketAddress address : addresses) {
                 socket.connect(address.toProtocolString());
@@ -0,0 +1,48 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.binding.zeromq.runtime.context.ContextManager;
+
+/**
+ * Samples two distinct endpoints at random and selects the one with the lower number of requests in flight plus published load per unit of weight. This
+ * avoids scanning all endpoints while still steering requests away from busy ones.
+ */
+public class PowerOfTwoSocketMultiplexer extends AbstractSocketMultiplexer {
+
+    public PowerOfTwoSocketMultiplexer(ContextManager manager, int socketType, ZeroMQMetadata metadata) {
+        super(manager, socketType, metadata);
+    }
+
+    protected Endpoint select(Endpoint[] endpoints) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(endpoints.length);
+        int second = random.nextInt(endpoints.length - 1);
+        if (second >= first) {
+            second++;
+        }
+        Endpoint endpoint1 = endpoints[first];
+        Endpoint endpoint2 = endpoints[second];
+        return endpoint2.getScore() < endpoint1.getScore() ? endpoint2 : endpoint1;
+    }
+
+}
@@ -21,6 +21,9 @@ package org.fabric3.binding.zeromq.runtime.message;
 /**
  * Implementations dispatch messages over a ZeroMQ socket in a non-blocking fashion using PUB sockets. Qualities of service such as reliability may be
  * provided by an implementation.
+ *
+ * Each message is preceded by a topic frame created with {@link Frames#topicFrame(String)} so that subscribers can filter messages in ZeroMQ before they are
+ * delivered.
  */
 public interface Publisher {
 
@@ -37,15 +40,17 @@ public interface Publisher {
     /**
      * Sends a single frame message over the socket.
      *
+     * @param topic   the topic frame
      * @param message the serialized message
      */
-    void publish(byte[] message);
+    void publish(byte[] topic, byte[] message);
 
     /**
      * Sends a multi-frame message over the socket.
      *
+     * @param topic   the topic frame
      * @param message the serialized message
      */
-    void publish(byte[][] message);
+    void publish(byte[] topic, byte[][] message);
 
 }
@@ -43,5 +43,12 @@ public interface Receiver {
      */
     SocketAddress getAddress();
 
+    /**
+     * Returns the number of received requests that are currently being processed. The value is published to clients as the endpoint load.
+     *
+     * @return the number of requests being processed
+     */
+    int getLoad();
+
 
 }
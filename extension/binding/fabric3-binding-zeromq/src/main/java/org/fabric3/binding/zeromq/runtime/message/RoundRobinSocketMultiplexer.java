@@ -18,127 +18,23 @@
  */
 package org.fabric3.binding.zeromq.runtime.message;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
 import org.fabric3.binding.zeromq.runtime.context.ContextManager;
-import org.fabric3.binding.zeromq.runtime.SocketAddress;
-import org.fabric3.spi.host.Port;
-import org.zeromq.ZMQ;
 
 /**
  * Implements a round-robin strategy for selecting an available socket from a collection of sockets.
- *
- * Note: Due to restrictions imposed by ZeroMQ, an instance of this class must be called on the same thread at all times.
  */
-public class RoundRobinSocketMultiplexer implements SocketMultiplexer {
-    private ContextManager manager;
-    private int socketType;
-    private ZeroMQMetadata metadata;
-
-    private int index;
-    private ZMQ.Socket[] zmqSockets;
-    private Map<SocketAddress, ZMQ.Socket> sockets;
-
-    private String seed = UUID.randomUUID().toString();
+public class RoundRobinSocketMultiplexer extends AbstractSocketMultiplexer {
+    private AtomicInteger index = new AtomicInteger();
 
     public RoundRobinSocketMultiplexer(ContextManager manager, int socketType, ZeroMQMetadata metadata) {
-        this.manager = manager;
-        this.socketType = socketType;
-        this.metadata = metadata;
-        sockets = new HashMap<>();
-    }
-
-    public void update(List<SocketAddress> addresses) {
-        if (sockets.isEmpty()) {
-            if (addresses.size() == 1) {
-                SocketAddress address = addresses.get(0);
-                String addressString = address.toProtocolString();
-                manager.reserve(getClass().getName() + ":" + seed + addressString);
-                ZMQ.Socket socket = manager.getContext().socket(socketType);
-                SocketHelper.configure(socket, metadata);
-                address.getPort().bind(Port.TYPE.TCP);
-                socket.connect(addressString);
-                sockets.put(address, socket);
-            } else {
-                for (SocketAddress address : addresses) {
-                    String addressString = address.toProtocolString();
-                    manager.reserve(getClass().getName() + ":" + seed + addressString);
-                    ZMQ.Socket socket = manager.getContext().socket(socketType);
-                    SocketHelper.configure(socket, metadata);
-                    address.getPort().bind(Port.TYPE.TCP);
-                    socket.connect(addressString);
-                    sockets.put(address, socket);
-                }
-            }
-        } else {
-            Set<SocketAddress> intersection = new HashSet<>(addresses);
-            intersection.retainAll(sockets.keySet());
-
-            Set<SocketAddress> toClose = new HashSet<>(sockets.keySet());
-            toClose.removeAll(addresses);
-
-            Set<SocketAddress> toAdd = new HashSet<>(addresses);
-            toAdd.removeAll(sockets.keySet());
-
-            try {
-                for (SocketAddress address : toClose) {
-                    sockets.remove(address).close();
-                }
-            } finally {
-                for (SocketAddress address : toClose) {
-                    manager.release(getClass().getName() + ":" + seed + address.toProtocolString());
-                }
-            }
-
-            for (SocketAddress address : toAdd) {
-                String addressString = address.toProtocolString();
-                manager.reserve(getClass().getName() + ":" + seed + addressString);
-                ZMQ.Socket socket = manager.getContext().socket(socketType);
-                SocketHelper.configure(socket, metadata);
-                address.getPort().bind(Port.TYPE.TCP);
-                socket.connect(addressString);
-                sockets.put(address, socket);
-            }
-
-        }
-        zmqSockets = new ZMQ.Socket[sockets.size()];
-        sockets.values().toArray(zmqSockets);
-    }
-
-    public ZMQ.Socket get() {
-        if (index == zmqSockets.length) {
-            index = 0;
-        }
-        return zmqSockets[index++];
-    }
-
-    public Collection<ZMQ.Socket> getAll() {
-        return sockets.values();
+        super(manager, socketType, metadata);
     }
 
-    public boolean isAvailable() {
-        return zmqSockets.length > 0;
+    protected Endpoint select(Endpoint[] endpoints) {
+        return endpoints[Math.floorMod(index.getAndIncrement(), endpoints.length)];
     }
 
-    public void close() {
-        try {
-            for (ZMQ.Socket socket : sockets.values()) {
-                socket.close();
-            }
-        } finally {
-            for (SocketAddress address : sockets.keySet()) {
-                manager.release(getClass().getName() + ":" + seed + address.toProtocolString());
-            }
-
-        }
-    }
-
-
 }
@@ -25,9 +25,10 @@ import org.fabric3.binding.zeromq.runtime.SocketAddress;
 import org.zeromq.ZMQ;
 
 /**
- * Implementations return an available socket from a collection based on a selection algorithm such as round-robin.
+ * Implementations return an available socket from a collection based on a selection algorithm such as round-robin or least outstanding requests.
  *
- * Note multiplexers are not thread safe and are designed to be called from a single thread.
+ * Note sockets are created and closed by {@link #update(List)} and {@link #close()}, which must be called from the thread that uses the sockets. Socket
+ * selection and completion tracking via {@link #get()} and {@link #release(ZMQ.Socket)} are thread safe.
  */
 public interface SocketMultiplexer {
 
@@ -39,12 +40,19 @@ public interface SocketMultiplexer {
     void update(List<SocketAddress> addresses);
 
     /**
-     * Returns the next available socket.
+     * Returns the next available socket. The request dispatched to the socket is counted as in flight until {@link #release(ZMQ.Socket)} is called.
      *
      * @return the next available socket
      */
     ZMQ.Socket get();
 
+    /**
+     * Signals that a request dispatched to a socket returned by {@link #get()} has completed.
+     *
+     * @param socket the socket
+     */
+    void release(ZMQ.Socket socket);
+
     /**
      * Returns all active sockets.
      *
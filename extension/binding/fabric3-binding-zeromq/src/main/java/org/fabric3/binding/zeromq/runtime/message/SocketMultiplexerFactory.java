@@ -0,0 +1,57 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import org.fabric3.api.binding.zeromq.model.LoadBalancing;
+import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.binding.zeromq.runtime.context.ContextManager;
+
+/**
+ * Creates the {@link SocketMultiplexer} for the load balancing strategy configured on a binding.
+ */
+public class SocketMultiplexerFactory {
+
+    /**
+     * Creates a multiplexer.
+     *
+     * @param manager    the context manager
+     * @param socketType the ZeroMQ socket type
+     * @param metadata   the binding metadata
+     * @return the multiplexer
+     */
+    public static SocketMultiplexer create(ContextManager manager, int socketType, ZeroMQMetadata metadata) {
+        LoadBalancing loadBalancing = metadata.getLoadBalancing();
+        if (loadBalancing == null) {
+            return new RoundRobinSocketMultiplexer(manager, socketType, metadata);
+        }
+        switch (loadBalancing) {
+            case WEIGHTED:
+                return new WeightedSocketMultiplexer(manager, socketType, metadata);
+            case LEAST_OUTSTANDING:
+                return new LeastOutstandingSocketMultiplexer(manager, socketType, metadata);
+            case POWER_OF_TWO:
+                return new PowerOfTwoSocketMultiplexer(manager, socketType, metadata);
+            default:
+                return new RoundRobinSocketMultiplexer(manager, socketType, metadata);
+        }
+    }
+
+    private SocketMultiplexerFactory() {
+    }
+}
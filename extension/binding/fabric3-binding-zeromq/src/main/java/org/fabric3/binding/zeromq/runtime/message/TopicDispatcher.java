@@ -0,0 +1,101 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.fabric3.spi.container.channel.EventStreamHandler;
+
+/**
+ * Dispatches events received by a subscriber to a handler on a pool of lanes so that deserialization and consumer processing do not run on the socket polling
+ * thread.
+ *
+ * Events are assigned to a lane by their topic frame. Each lane is drained by at most one task at a time, which preserves the order of events published to
+ * a topic while events for different topics are processed concurrently. Lanes are bounded: if a lane is full the polling thread blocks, which in turn causes
+ * ZeroMQ to apply the socket high-water mark.
+ */
+public class TopicDispatcher {
+    private static final int LANE_CAPACITY = 1024;
+
+    private EventStreamHandler handler;
+    private ExecutorService executorService;
+    private Lane[] lanes;
+
+    /**
+     * Constructor.
+     *
+     * @param size            the number of lanes
+     * @param handler         the handler to dispatch events to
+     * @param executorService the executor that drains lanes
+     */
+    public TopicDispatcher(int size, EventStreamHandler handler, ExecutorService executorService) {
+        this.handler = handler;
+        this.executorService = executorService;
+        lanes = new Lane[size];
+        for (int i = 0; i < size; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    /**
+     * Queues an event for dispatch. Must only be called by the socket polling thread.
+     *
+     * @param topic the topic frame the event was received with
+     * @param event the event, either a single or multi-frame payload
+     * @throws InterruptedException if the polling thread is interrupted while waiting for space in the lane
+     */
+    public void dispatch(byte[] topic, Object event) throws InterruptedException {
+        Lane lane = lanes[(Arrays.hashCode(topic) & Integer.MAX_VALUE) % lanes.length];
+        lane.queue.put(event);
+        lane.schedule();
+    }
+
+    private class Lane implements Runnable {
+        private BlockingQueue<Object> queue = new ArrayBlockingQueue<>(LANE_CAPACITY);
+        private AtomicBoolean scheduled = new AtomicBoolean();
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executorService.execute(this);
+            }
+        }
+
+        public void run() {
+            try {
+                Object event = queue.poll();
+                while (event != null) {
+                    Object next = queue.poll();
+                    handler.handle(event, next == null);
+                    event = next;
+                }
+            } finally {
+                scheduled.set(false);
+                if (!queue.isEmpty()) {
+                    // an event was queued after the lane was drained but before it was released
+                    schedule();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.binding.zeromq.runtime.context.ContextManager;
+
+/**
+ * Selects a socket randomly in proportion to the weight published for each endpoint.
+ */
+public class WeightedSocketMultiplexer extends AbstractSocketMultiplexer {
+
+    public WeightedSocketMultiplexer(ContextManager manager, int socketType, ZeroMQMetadata metadata) {
+        super(manager, socketType, metadata);
+    }
+
+    protected Endpoint select(Endpoint[] endpoints) {
+        // weights may change between calls so they are summed each time; the number of endpoints is expected to be small
+        int total = 0;
+        for (Endpoint endpoint : endpoints) {
+            total += endpoint.getWeight();
+        }
+        int value = ThreadLocalRandom.current().nextInt(total);
+        for (Endpoint endpoint : endpoints) {
+            value -= endpoint.getWeight();
+            if (value < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+}
@@ -27,6 +27,7 @@ import java.io.InputStream;
 import java.util.List;
 
 import junit.framework.TestCase;
+import org.fabric3.api.binding.zeromq.model.LoadBalancing;
 import org.fabric3.api.binding.zeromq.model.SocketAddressDefinition;
 import org.fabric3.api.binding.zeromq.model.ZeroMQBinding;
 import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
@@ -37,6 +38,8 @@ public class ZeroMQBindingLoaderTestCase extends TestCase {
     private static final String BINDING_CONFIG =
             "<binding.zeromq name='zmq' addresses='localhost:8080 localhost:8181' high.water='1' multicast.rate='2' multicast.recovery='3' send.buffer='4' receive.buffer='5'/>";
 
+    private static final String LOAD_BALANCING_CONFIG = "<binding.zeromq name='zmq' load.balancing='leastOutstanding' weight='3'/>";
+
     private XMLInputFactory xmlFactory;
     private ZeroMQBindingLoader loader;
 
@@ -64,6 +67,17 @@ public class ZeroMQBindingLoaderTestCase extends TestCase {
 
     }
 
+    public void testLoadBalancing() throws Exception {
+        XMLStreamReader reader = createReader(LOAD_BALANCING_CONFIG);
+        IntrospectionContext context = new DefaultIntrospectionContext();
+        ZeroMQBinding definition = loader.load(reader, context);
+        assertFalse(context.hasErrors());
+
+        ZeroMQMetadata metadata = definition.getZeroMQMetadata();
+        assertEquals(LoadBalancing.LEAST_OUTSTANDING, metadata.getLoadBalancing());
+        assertEquals(3, metadata.getWeight());
+    }
+
     @Override
     protected void setUp() throws Exception {
         super.setUp();
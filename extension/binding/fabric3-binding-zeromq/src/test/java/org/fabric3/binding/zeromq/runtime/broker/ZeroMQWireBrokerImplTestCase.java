@@ -22,6 +22,8 @@ import java.net.URI;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
@@ -142,6 +144,40 @@ public class ZeroMQWireBrokerImplTestCase extends TestCase {
         EasyMock.verify(manager, discoveryAgent, executorService, monitor, allocator, info, chain, managementService, interceptorFactory);
     }
 
+    public void testLoadPublishedPeriodicallyOnRuntimeExecutor() throws Exception {
+        ThreadPoolExecutor runtimeExecutor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+        EasyMock.replay(discoveryAgent);
+        EventService eventService = EasyMock.createNiceMock(EventService.class);
+        ZeroMQWireBrokerImpl broker = new ZeroMQWireBrokerImpl(manager,
+                                                               discoveryAgent,
+                                                               allocator,
+                                                               runtimeExecutor,
+                                                               managementService,
+                                                               eventService,
+                                                               interceptorFactory,
+                                                               info,
+                                                               monitor);
+        broker.setLoadInterval(10);
+        try {
+            broker.init();
+            // each pass is a separate task, so the runtime thread is released between passes
+            long deadline = System.currentTimeMillis() + 5000;
+            while (runtimeExecutor.getCompletedTaskCount() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(runtimeExecutor.getCompletedTaskCount() >= 2);
+
+            broker.destroy();
+            Thread.sleep(50);
+            long completed = runtimeExecutor.getCompletedTaskCount();
+            Thread.sleep(100);
+            assertEquals(completed, runtimeExecutor.getCompletedTaskCount());
+            assertEquals(0, runtimeExecutor.getActiveCount());
+        } finally {
+            runtimeExecutor.shutdownNow();
+        }
+    }
+
     @Override
     protected void setUp() throws Exception {
         super.setUp();
@@ -0,0 +1,65 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.fabric3.binding.zeromq.runtime.SocketAddress;
+import org.fabric3.spi.discovery.EntryChange;
+import org.fabric3.spi.discovery.ServiceEntry;
+
+/**
+ *
+ */
+public class AddressUpdaterTestCase extends TestCase {
+
+    public void testAddAndRefreshLoad() throws Exception {
+        List<SocketAddress> addresses = new ArrayList<>();
+        ServiceEntry entry = new ServiceEntry("service", "10.10.10.1", 1234, "tcp");
+        entry.setWeight(2);
+        List<SocketAddress> updated = AddressUpdater.accept(EntryChange.SET, entry, addresses);
+        assertEquals(1, updated.size());
+        assertTrue(addresses.isEmpty());
+        SocketAddress address = updated.get(0);
+        assertEquals(2, address.getWeight());
+        assertEquals(0, address.getLoad());
+
+        ServiceEntry republished = new ServiceEntry("service", "10.10.10.1", 1234, "tcp");
+        republished.setWeight(2);
+        republished.setLoad(7);
+        updated = AddressUpdater.accept(EntryChange.SET, republished, updated);
+        assertEquals(1, updated.size());
+        assertSame(address, updated.get(0));
+        assertEquals(7, address.getLoad());
+    }
+
+    public void testDelete() throws Exception {
+        List<SocketAddress> addresses = new ArrayList<>();
+        addresses = AddressUpdater.accept(EntryChange.SET, new ServiceEntry("service", "10.10.10.1", 1234, "tcp"), addresses);
+        addresses = AddressUpdater.accept(EntryChange.SET, new ServiceEntry("service", "10.10.10.2", 1234, "tcp"), addresses);
+        assertEquals(2, addresses.size());
+
+        addresses = AddressUpdater.accept(EntryChange.DELETE, new ServiceEntry("service", "10.10.10.1", 1234, "tcp"), addresses);
+        assertEquals(1, addresses.size());
+        assertEquals("10.10.10.2", addresses.get(0).getAddress());
+    }
+
+}
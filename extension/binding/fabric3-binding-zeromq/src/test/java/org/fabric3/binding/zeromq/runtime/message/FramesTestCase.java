@@ -0,0 +1,57 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class FramesTestCase extends TestCase {
+
+    public void testIndex() throws Exception {
+        assertEquals(0, Frames.readIndex(Frames.indexFrame(0)));
+        assertEquals(255, Frames.readIndex(Frames.indexFrame(255)));
+        assertEquals(70000, Frames.readIndex(Frames.indexFrame(70000)));
+    }
+
+    public void testIndexFramesShared() throws Exception {
+        assertSame(Frames.indexFrame(1), Frames.indexFrame(1));
+    }
+
+    public void testRequestId() throws Exception {
+        assertEquals(1L, Frames.readRequestId(Frames.requestIdFrame(1L)));
+        assertEquals(Long.MAX_VALUE, Frames.readRequestId(Frames.requestIdFrame(Long.MAX_VALUE)));
+        assertEquals(-2L, Frames.readRequestId(Frames.requestIdFrame(-2L)));
+    }
+
+    public void testTopicFrameTerminated() throws Exception {
+        assertSame(Frames.DEFAULT_TOPIC, Frames.topicFrame(null));
+        byte[] frame = Frames.topicFrame("foo");
+        assertEquals(4, frame.length);
+        assertEquals(0, frame[3]);
+
+        // a subscription to a topic frame must not be a prefix of a frame for a longer topic
+        byte[] longer = Frames.topicFrame("foobar");
+        assertFalse(Arrays.equals(frame, Arrays.copyOf(longer, frame.length)));
+    }
+
+}
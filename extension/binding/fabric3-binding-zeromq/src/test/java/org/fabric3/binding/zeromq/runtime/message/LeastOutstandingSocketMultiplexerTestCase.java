@@ -0,0 +1,110 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.binding.zeromq.runtime.SocketAddress;
+import org.fabric3.binding.zeromq.runtime.broker.SpecifiedPort;
+import org.fabric3.binding.zeromq.runtime.context.ContextManager;
+import org.zeromq.ZMQ;
+
+/**
+ *
+ */
+public class LeastOutstandingSocketMultiplexerTestCase extends TestCase {
+    private ZMQ.Context context;
+    private LeastOutstandingSocketMultiplexer multiplexer;
+
+    public void testSelectsLeastOutstanding() throws Exception {
+        List<SocketAddress> addresses = createAddresses(3);
+        multiplexer.update(addresses);
+
+        // three requests in flight should be spread across the endpoints
+        List<ZMQ.Socket> selected = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ZMQ.Socket socket = multiplexer.get();
+            assertFalse(selected.contains(socket));
+            selected.add(socket);
+        }
+
+        // complete the request for the second socket, which should be selected next
+        multiplexer.release(selected.get(1));
+        assertSame(selected.get(1), multiplexer.get());
+    }
+
+    public void testPublishedLoad() throws Exception {
+        List<SocketAddress> addresses = createAddresses(2);
+        addresses.get(0).setLoad(10);
+        multiplexer.update(addresses);
+
+        ZMQ.Socket socket = multiplexer.get();
+        multiplexer.release(socket);
+        for (int i = 0; i < 5; i++) {
+            // the busy endpoint is avoided until local requests outweigh its published load
+            assertSame(socket, multiplexer.get());
+        }
+    }
+
+    public void testWeight() throws Exception {
+        List<SocketAddress> addresses = createAddresses(2);
+        addresses.get(0).setWeight(3);
+        multiplexer.update(addresses);
+
+        int[] counts = new int[2];
+        List<ZMQ.Socket> sockets = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ZMQ.Socket socket = multiplexer.get();
+            if (!sockets.contains(socket)) {
+                sockets.add(socket);
+            }
+            counts[sockets.indexOf(socket)]++;
+        }
+        // requests in flight are distributed in proportion to weight
+        assertEquals(2, sockets.size());
+        assertEquals(6, Math.max(counts[0], counts[1]));
+    }
+
+    private List<SocketAddress> createAddresses(int number) {
+        List<SocketAddress> addresses = new ArrayList<>();
+        for (int i = 1; i <= number; i++) {
+            addresses.add(new SocketAddress("tcp", "127.0.0.1", new SpecifiedPort(9900 + i)));
+        }
+        return addresses;
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        context = ZMQ.context(1);
+        ContextManager manager = EasyMock.createNiceMock(ContextManager.class);
+        EasyMock.expect(manager.getContext()).andReturn(context).anyTimes();
+        EasyMock.replay(manager);
+        multiplexer = new LeastOutstandingSocketMultiplexer(manager, ZMQ.PUSH, new ZeroMQMetadata());
+    }
+
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        multiplexer.close();
+        context.term();
+    }
+}
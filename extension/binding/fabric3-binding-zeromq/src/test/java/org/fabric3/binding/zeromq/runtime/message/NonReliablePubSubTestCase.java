@@ -0,0 +1,184 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.binding.zeromq.runtime.MessagingMonitor;
+import org.fabric3.binding.zeromq.runtime.SocketAddress;
+import org.fabric3.binding.zeromq.runtime.broker.SpecifiedPort;
+import org.fabric3.binding.zeromq.runtime.context.ContextManagerImpl;
+import org.fabric3.spi.container.channel.EventStreamHandler;
+
+/**
+ * Publishes events to topics through a {@link NonReliableQueuedPublisher} and verifies {@link NonReliableSubscriber}s only receive events for the topic they
+ * subscribe to.
+ */
+public class NonReliablePubSubTestCase extends TestCase {
+    private ContextManagerImpl manager;
+    private ExecutorService executorService;
+    private SocketAddress address;
+    private ZeroMQMetadata metadata;
+    private NonReliableQueuedPublisher publisher;
+
+    public void testTopicFiltering() throws Exception {
+        RecordingHandler fooHandler = new RecordingHandler();
+        RecordingHandler allHandler = new RecordingHandler();
+        subscribe(fooHandler, "foo", 0);
+        subscribe(allHandler, null, 0);
+
+        publishUntilReceived(fooHandler, allHandler);
+
+        // the subscription for "foo" must not match the longer topic "foobar"
+        for (Object event : fooHandler.events) {
+            assertEquals("foo", new String((byte[]) event));
+        }
+        Set<String> received = ConcurrentHashMap.newKeySet();
+        for (Object event : allHandler.events) {
+            received.add(new String((byte[]) event));
+        }
+        assertTrue(received.contains("foo"));
+        assertTrue(received.contains("foobar"));
+    }
+
+    public void testMultiFrameDispatcherPool() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        subscribe(handler, null, 2);
+
+        byte[][] frames = new byte[12][];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = new byte[]{(byte) i};
+        }
+        byte[] topic = Frames.topicFrame("multi");
+        long deadline = System.currentTimeMillis() + 10000;
+        while (handler.events.isEmpty() && System.currentTimeMillis() < deadline) {
+            publisher.publish(topic, frames);
+            Thread.sleep(50);
+        }
+        assertFalse(handler.events.isEmpty());
+        byte[][] received = (byte[][]) handler.events.get(0);
+        assertEquals(frames.length, received.length);
+        for (int i = 0; i < frames.length; i++) {
+            assertEquals(i, received[i][0]);
+        }
+    }
+
+    public void testHighWaterDrops() throws Exception {
+        MessagingMonitor monitor = EasyMock.createMock(MessagingMonitor.class);
+        monitor.onHighWater(EasyMock.isA(String.class));
+        EasyMock.expectLastCall().once();
+        EasyMock.replay(monitor);
+
+        // the consumer is never scheduled so the ring buffer fills
+        ExecutorService idle = EasyMock.createNiceMock(ExecutorService.class);
+        EasyMock.replay(idle);
+        NonReliableQueuedPublisher full = new NonReliableQueuedPublisher(manager, address, metadata, 2, new BlockingWaitStrategy(), 10, idle, monitor);
+        full.start();
+        for (int i = 0; i < 5; i++) {
+            full.publish(Frames.DEFAULT_TOPIC, new byte[]{(byte) i});
+        }
+        full.stop();
+
+        assertEquals(2, full.getRingSize());
+        assertEquals(3, full.getDropped());
+        EasyMock.verify(monitor);
+    }
+
+    private void publishUntilReceived(RecordingHandler... handlers) throws InterruptedException {
+        // subscribers drop messages published before they have connected, so publish until all have received events
+        byte[] foo = Frames.topicFrame("foo");
+        byte[] fooBar = Frames.topicFrame("foobar");
+        long deadline = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < deadline) {
+            publisher.publish(fooBar, "foobar".getBytes());
+            publisher.publish(foo, "foo".getBytes());
+            Thread.sleep(50);
+            boolean done = true;
+            for (RecordingHandler handler : handlers) {
+                done = done && handler.events.size() > 4;
+            }
+            if (done) {
+                return;
+            }
+        }
+        fail("Events not received");
+    }
+
+    private void subscribe(EventStreamHandler handler, String topic, int dispatchers) {
+        List<SocketAddress> addresses = Collections.singletonList(address);
+        NonReliableSubscriber subscriber = new NonReliableSubscriber("subscriber", manager, addresses, handler, topic, metadata, dispatchers, executorService);
+        subscriber.start();
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        manager = new ContextManagerImpl();
+        manager.init();
+        executorService = Executors.newCachedThreadPool();
+        MessagingMonitor monitor = EasyMock.createNiceMock(MessagingMonitor.class);
+        EasyMock.replay(monitor);
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        address = new SocketAddress("tcp", "127.0.0.1", new SpecifiedPort(port));
+        metadata = new ZeroMQMetadata();
+
+        publisher = new NonReliableQueuedPublisher(manager, address, metadata, 1024, new BlockingWaitStrategy(), 1000, executorService, monitor);
+        publisher.start();
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        publisher.stop();
+        // closes subscriber sockets
+        manager.destroy();
+        executorService.shutdownNow();
+        executorService.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private static class RecordingHandler implements EventStreamHandler {
+        private List<Object> events = new CopyOnWriteArrayList<>();
+
+        public void handle(Object event, boolean endOfBatch) {
+            events.add(event);
+        }
+
+        public void setNext(EventStreamHandler next) {
+        }
+
+        public EventStreamHandler getNext() {
+            return null;
+        }
+    }
+
+}
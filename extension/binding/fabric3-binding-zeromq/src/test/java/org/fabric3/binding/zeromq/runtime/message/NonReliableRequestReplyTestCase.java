@@ -0,0 +1,220 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.binding.zeromq.runtime.MessagingMonitor;
+import org.fabric3.binding.zeromq.runtime.SocketAddress;
+import org.fabric3.binding.zeromq.runtime.broker.SpecifiedPort;
+import org.fabric3.binding.zeromq.runtime.context.ContextManagerImpl;
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.invocation.WorkContext;
+import org.fabric3.spi.container.wire.Interceptor;
+import org.fabric3.spi.container.wire.InvocationChain;
+
+/**
+ * Sends requests to a {@link NonReliableRequestReplyReceiver} over a local TCP socket.
+ */
+public class NonReliableRequestReplyTestCase extends TestCase {
+    private static final int WORKERS = 4;
+    private static final long POLL_TIMEOUT = 100000;
+    private static final long LONG_POLL_TIMEOUT = 10000000;
+
+    private ContextManagerImpl manager;
+    private ExecutorService executorService;
+    private ExecutorService workerExecutor;
+    private MessagingMonitor monitor;
+    private SocketAddress address;
+    private NonReliableRequestReplyReceiver receiver;
+    private NonReliableRequestReplySender sender;
+
+    public void testRequestReply() throws Exception {
+        start(new EchoInterceptor(null));
+
+        for (int i = 0; i < 10; i++) {
+            byte[] response = sender.sendAndReply(("request" + i).getBytes(), 1, new WorkContext());
+            assertEquals("request" + i + ":1", new String(response));
+        }
+    }
+
+    public void testPipelinedRequests() throws Exception {
+        // each request blocks until all workers are processing a request, which requires the sender to have multiple requests in flight
+        CyclicBarrier barrier = new CyclicBarrier(WORKERS);
+        start(new EchoInterceptor(barrier));
+
+        List<Callable<String>> tasks = new ArrayList<>();
+        for (int i = 0; i < WORKERS * 5; i++) {
+            String payload = "request" + i;
+            tasks.add(() -> new String(sender.sendAndReply(payload.getBytes(), 0, new WorkContext())));
+        }
+        ExecutorService clients = Executors.newFixedThreadPool(WORKERS);
+        try {
+            List<Future<String>> futures = clients.invokeAll(tasks, 30, TimeUnit.SECONDS);
+            for (int i = 0; i < futures.size(); i++) {
+                // responses must be correlated with their requests
+                assertEquals("request" + i + ":0", futures.get(i).get());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        assertEquals(0, receiver.getLoad());
+    }
+
+    public void testConcurrentSendersNotDelayedByPollTimeout() throws Exception {
+        // with a 10 second poll timeout, a lost wake-up signal delays requests until the poll times out
+        start(new EchoInterceptor(null), LONG_POLL_TIMEOUT);
+
+        int threads = 16;
+        int requests = 50;
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            tasks.add(() -> {
+                long max = 0;
+                for (int j = 0; j < requests; j++) {
+                    long start = System.nanoTime();
+                    sender.sendAndReply("request".getBytes(), 1, new WorkContext());
+                    max = Math.max(max, System.nanoTime() - start);
+                }
+                return max;
+            });
+        }
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        try {
+            for (Future<Long> future : clients.invokeAll(tasks, 60, TimeUnit.SECONDS)) {
+                long max = TimeUnit.NANOSECONDS.toMillis(future.get());
+                assertTrue("Request latency reached the poll timeout: " + max + "ms", max < 2000);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    public void testBindFailsWhenWorkersCannotStart() throws Exception {
+        // the worker pool cannot run all workers of the endpoint
+        workerExecutor.shutdownNow();
+        workerExecutor = new ThreadPoolExecutor(0, WORKERS - 1, 60, TimeUnit.SECONDS, new SynchronousQueue<>());
+        CountDownLatch latch = new CountDownLatch(1);
+        monitor = EasyMock.createNiceMock(MessagingMonitor.class);
+        monitor.error(EasyMock.isA(Fabric3Exception.class));
+        EasyMock.expectLastCall().andAnswer(() -> {
+            latch.countDown();
+            return null;
+        });
+        EasyMock.replay(monitor);
+
+        start(new EchoInterceptor(null));
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    private void start(Interceptor interceptor) throws Exception {
+        start(interceptor, POLL_TIMEOUT);
+    }
+
+    private void start(Interceptor interceptor, long pollTimeout) throws Exception {
+        InvocationChain chain = EasyMock.createMock(InvocationChain.class);
+        EasyMock.expect(chain.getHeadInterceptor()).andReturn(interceptor).anyTimes();
+        EasyMock.replay(chain);
+        List<InvocationChain> chains = new ArrayList<>();
+        chains.add(chain);
+        chains.add(chain);
+
+        ZeroMQMetadata metadata = new ZeroMQMetadata();
+        receiver = new NonReliableRequestReplyReceiver(manager, address, chains, executorService, workerExecutor, pollTimeout, WORKERS, metadata, monitor);
+        receiver.start();
+
+        sender = new NonReliableRequestReplySender("sender", manager, Collections.singletonList(address), pollTimeout, metadata, monitor);
+        sender.start();
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        manager = new ContextManagerImpl();
+        manager.init();
+        executorService = Executors.newCachedThreadPool();
+        workerExecutor = Executors.newCachedThreadPool();
+        monitor = EasyMock.createNiceMock(MessagingMonitor.class);
+        EasyMock.replay(monitor);
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        address = new SocketAddress("tcp", "127.0.0.1", new SpecifiedPort(port));
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        if (sender != null) {
+            sender.stop();
+        }
+        if (receiver != null) {
+            receiver.stop();
+        }
+        manager.destroy();
+        executorService.shutdownNow();
+        workerExecutor.shutdownNow();
+    }
+
+    private static class EchoInterceptor implements Interceptor {
+        private CyclicBarrier barrier;
+
+        public EchoInterceptor(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        public Message invoke(Message msg) {
+            if (barrier != null) {
+                try {
+                    barrier.await(10, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            }
+            String body = new String((byte[]) msg.getBody());
+            msg.setBody((body + ":" + (barrier == null ? 1 : 0)).getBytes());
+            return msg;
+        }
+
+        public void setNext(Interceptor next) {
+        }
+
+        public Interceptor getNext() {
+            return null;
+        }
+    }
+
+}
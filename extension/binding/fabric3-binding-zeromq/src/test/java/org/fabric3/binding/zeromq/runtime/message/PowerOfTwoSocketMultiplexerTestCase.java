@@ -0,0 +1,92 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.binding.zeromq.runtime.SocketAddress;
+import org.fabric3.binding.zeromq.runtime.broker.SpecifiedPort;
+import org.fabric3.binding.zeromq.runtime.context.ContextManager;
+import org.zeromq.ZMQ;
+
+/**
+ *
+ */
+public class PowerOfTwoSocketMultiplexerTestCase extends TestCase {
+    private ZMQ.Context context;
+    private PowerOfTwoSocketMultiplexer multiplexer;
+
+    public void testAvoidsBusyEndpoint() throws Exception {
+        List<SocketAddress> addresses = new ArrayList<>();
+        addresses.add(new SocketAddress("tcp", "127.0.0.1", new SpecifiedPort(9911)));
+        addresses.add(new SocketAddress("tcp", "127.0.0.1", new SpecifiedPort(9912)));
+        addresses.get(0).setLoad(1000);
+        multiplexer.update(addresses);
+
+        // with two endpoints both are always sampled so the idle one is selected
+        ZMQ.Socket socket = multiplexer.get();
+        multiplexer.release(socket);
+        for (int i = 0; i < 100; i++) {
+            assertSame(socket, multiplexer.get());
+            multiplexer.release(socket);
+        }
+    }
+
+    public void testSpreadsRequestsInFlight() throws Exception {
+        List<SocketAddress> addresses = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            addresses.add(new SocketAddress("tcp", "127.0.0.1", new SpecifiedPort(9920 + i)));
+        }
+        multiplexer.update(addresses);
+
+        List<ZMQ.Socket> sockets = new ArrayList<>();
+        int[] counts = new int[4];
+        for (int i = 0; i < 400; i++) {
+            ZMQ.Socket socket = multiplexer.get();
+            if (!sockets.contains(socket)) {
+                sockets.add(socket);
+            }
+            counts[sockets.indexOf(socket)]++;
+        }
+        assertEquals(4, sockets.size());
+        for (int count : counts) {
+            // the least loaded of two choices keeps the imbalance small
+            assertTrue(Math.abs(count - 100) < 10);
+        }
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        context = ZMQ.context(1);
+        ContextManager manager = EasyMock.createNiceMock(ContextManager.class);
+        EasyMock.expect(manager.getContext()).andReturn(context).anyTimes();
+        EasyMock.replay(manager);
+        multiplexer = new PowerOfTwoSocketMultiplexer(manager, ZMQ.PUSH, new ZeroMQMetadata());
+    }
+
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        multiplexer.close();
+        context.term();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * Portions originally based on Apache Tuscany 2007
+ * licensed under the Apache 2.0 license.
+ */
+package org.fabric3.binding.zeromq.runtime.message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.binding.zeromq.model.ZeroMQMetadata;
+import org.fabric3.binding.zeromq.runtime.SocketAddress;
+import org.fabric3.binding.zeromq.runtime.broker.SpecifiedPort;
+import org.fabric3.binding.zeromq.runtime.context.ContextManager;
+import org.zeromq.ZMQ;
+
+/**
+ *
+ */
+public class WeightedSocketMultiplexerTestCase extends TestCase {
+    private ZMQ.Context context;
+    private WeightedSocketMultiplexer multiplexer;
+
+    public void testWeightedSelection() throws Exception {
+        List<SocketAddress> addresses = new ArrayList<>();
+        addresses.add(new SocketAddress("tcp", "127.0.0.1", new SpecifiedPort(9931)));
+        addresses.add(new SocketAddress("tcp", "127.0.0.1", new SpecifiedPort(9932)));
+        addresses.get(0).setWeight(4);
+        multiplexer.update(addresses);
+
+        List<ZMQ.Socket> sockets = new ArrayList<>();
+        int[] counts = new int[2];
+        for (int i = 0; i < 5000; i++) {
+            ZMQ.Socket socket = multiplexer.get();
+            if (!sockets.contains(socket)) {
+                sockets.add(socket);
+            }
+            counts[sockets.indexOf(socket)]++;
+        }
+        assertEquals(2, sockets.size());
+        int max = Math.max(counts[0], counts[1]);
+        // the endpoint with weight 4 should receive approximately 80% of the requests
+        assertTrue(max > 3700 && max < 4300);
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        context = ZMQ.context(1);
+        ContextManager manager = EasyMock.createNiceMock(ContextManager.class);
+        EasyMock.expect(manager.getContext()).andReturn(context).anyTimes();
+        EasyMock.replay(manager);
+        multiplexer = new WeightedSocketMultiplexer(manager, ZMQ.PUSH, new ZeroMQMetadata());
+    }
+
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        multiplexer.close();
+        context.term();
+    }
+}
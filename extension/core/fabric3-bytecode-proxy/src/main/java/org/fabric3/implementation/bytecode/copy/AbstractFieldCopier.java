@@ -0,0 +1,69 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.implementation.bytecode.copy;
+
+import java.lang.reflect.Field;
+
+import org.fabric3.api.host.Fabric3Exception;
+import sun.misc.Unsafe;
+
+/**
+ * Base class for generated copiers. A copier is generated for each pair of source type and target classloader, and copies fields directly using their
+ * offsets in the source and target classes.
+ *
+ * Copies are instantiated without invoking a constructor in the same way as Java deserialization instantiates serializable classes.
+ */
+public abstract class AbstractFieldCopier implements Copier {
+    protected static final Unsafe UNSAFE;
+
+    static {
+        try {
+            Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            UNSAFE = (Unsafe) field.get(null);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private Class<?> targetType;
+
+    public void setTargetType(Class<?> targetType) {
+        this.targetType = targetType;
+    }
+
+    public Object copy(Object source, CopyContext context) throws Fabric3Exception {
+        try {
+            Object target = UNSAFE.allocateInstance(targetType);
+            context.register(source, target);
+            copyFields(source, target, context);
+            return target;
+        } catch (InstantiationException e) {
+            throw new Fabric3Exception(e);
+        }
+    }
+
+    /**
+     * Copies the fields of the source object to the target.
+     *
+     * @param source  the source object
+     * @param target  the target object
+     * @param context the copy context
+     */
+    public abstract void copyFields(Object source, Object target, CopyContext context);
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.implementation.bytecode.copy;
+
+import org.fabric3.api.host.Fabric3Exception;
+
+/**
+ * Returns copiers for types, generating them if necessary. Copiers are cached by source type and target classloader.
+ */
+public interface CopierRegistry {
+
+    /**
+     * Returns the copier for instances of a type.
+     *
+     * @param type   the source type
+     * @param loader the classloader copies are created in
+     * @return the copier
+     * @throws Fabric3Exception if there is an error creating the copier
+     */
+    Copier getCopier(Class<?> type, ClassLoader loader) throws Fabric3Exception;
+
+    /**
+     * Performs a deep copy of an object graph.
+     *
+     * @param source the root object
+     * @param loader the classloader copies are created in
+     * @return the copy
+     * @throws Fabric3Exception if there is an error copying
+     */
+    Object copy(Object source, ClassLoader loader) throws Fabric3Exception;
+
+}
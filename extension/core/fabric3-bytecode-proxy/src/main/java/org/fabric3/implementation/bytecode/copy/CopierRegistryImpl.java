@@ -0,0 +1,473 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.implementation.bytecode.copy;
+
+import java.io.Externalizable;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.implementation.bytecode.reflection.BytecodeHelper;
+import org.fabric3.spi.classloader.BytecodeClassLoader;
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.ContributionServiceListener;
+import org.fabric3.transform.java.Java2JavaTransformer;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.GETSTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+
+/**
+ * Default copier registry.
+ *
+ * Copiers for application types are generated using ASM and copy fields directly using their offsets in the source and target classes. A copier is generated
+ * for a type if it and its superclasses are serializable, do not customize serialization and have the same fields as the class with the same name loaded by
+ * the target classloader. Arrays, enums, common JDK collections and immutable JDK types are handled directly. All other types are copied using Java
+ * serialization. BigInteger and BigDecimal are not final and may be subclassed with mutable state, so their instances are only shared if they are not
+ * subclass instances.
+ *
+ * Generated classes are released when a contribution is uninstalled.
+ */
+public class CopierRegistryImpl implements CopierRegistry, ContributionServiceListener {
+    private static final URI GENERATION_LOADER = URI.create("f3-copiers");
+
+    private static final Set<Class<?>> IMMUTABLE = new HashSet<>(Arrays.asList(String.class,
+                                                                               Boolean.class,
+                                                                               Byte.class,
+                                                                               Character.class,
+                                                                               Short.class,
+                                                                               Integer.class,
+                                                                               Long.class,
+                                                                               Float.class,
+                                                                               Double.class,
+                                                                               UUID.class,
+                                                                               URI.class));
+
+    private static final Set<String> SERIALIZATION_METHODS = new HashSet<>(Arrays.asList("writeObject",
+                                                                                        "readObject",
+                                                                                        "readObjectNoData",
+                                                                                        "writeReplace",
+                                                                                        "readResolve"));
+
+    private static final String COPIER_NAME = Type.getInternalName(AbstractFieldCopier.class);
+    private static final String COPY_FIELDS_DESCRIPTOR = "(Ljava/lang/Object;Ljava/lang/Object;" + Type.getDescriptor(CopyContext.class) + ")V";
+    private static final String CONTEXT_NAME = Type.getInternalName(CopyContext.class);
+    private static final String UNSAFE_NAME = "sun/misc/Unsafe";
+    private static final String UNSAFE_DESCRIPTOR = "Lsun/misc/Unsafe;";
+
+    private final Copier serializingCopier = new SerializingCopier();
+    private final Copier primitiveArrayCopier = new PrimitiveArrayCopier();
+    private final Copier dateCopier = (source, context) -> {
+        Date copy = (Date) ((Date) source).clone();
+        context.register(source, copy);
+        return copy;
+    };
+
+    private Java2JavaTransformer serializer = new Java2JavaTransformer();
+    private AtomicInteger counter = new AtomicInteger();
+
+    private volatile BytecodeClassLoader generationLoader = createGenerationLoader();
+    private ConcurrentMap<Class<?>, ConcurrentMap<ClassLoader, Copier>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Returns true if instances of the type are immutable and can be shared between classloaders. Since the type may be a declared field type, only final
+     * types are considered immutable.
+     *
+     * @param type the type
+     * @return true if instances of the type are immutable
+     */
+    public static boolean isImmutable(Class<?> type) {
+        return IMMUTABLE.contains(type);
+    }
+
+    /**
+     * Returns true if the object is immutable and can be shared between classloaders.
+     *
+     * @param value the object
+     * @return true if the object is immutable
+     */
+    public static boolean isImmutableInstance(Object value) {
+        Class<?> type = value.getClass();
+        return IMMUTABLE.contains(type) || BigInteger.class == type || BigDecimal.class == type;
+    }
+
+    public Object copy(Object source, ClassLoader loader) throws Fabric3Exception {
+        return new CopyContext(this, loader).copy(source);
+    }
+
+    public Copier getCopier(Class<?> type, ClassLoader loader) throws Fabric3Exception {
+        ConcurrentMap<ClassLoader, Copier> copiers = cache.get(type);
+        if (copiers == null) {
+            copiers = cache.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+        }
+        Copier copier = copiers.get(loader);
+        if (copier == null) {
+            copier = createCopier(type, loader);
+            Copier existing = copiers.putIfAbsent(loader, copier);
+            if (existing != null) {
+                copier = existing;
+            }
+        }
+        return copier;
+    }
+
+    public void onUninstall(Contribution contribution) {
+        // release generated classes and copiers holding references to the contribution classloader
+        cache.clear();
+        generationLoader = createGenerationLoader();
+    }
+
+    public void onStore(Contribution contribution) {
+
+    }
+
+    public void onProcessManifest(Contribution contribution) {
+
+    }
+
+    public void onInstall(Contribution contribution) {
+
+    }
+
+    public void onUpdate(Contribution contribution) {
+
+    }
+
+    public void onRemove(Contribution contribution) {
+
+    }
+
+    private Copier createCopier(Class<?> type, ClassLoader loader) {
+        if (type.isArray()) {
+            Class<?> componentType = type.getComponentType();
+            if (componentType.isPrimitive()) {
+                return primitiveArrayCopier;
+            }
+            Class<?> targetComponentType = resolve(componentType, loader);
+            return targetComponentType == null ? serializingCopier : new ArrayCopier(targetComponentType);
+        }
+        Class<?> enumType = getEnumType(type);
+        if (enumType != null) {
+            Class<?> targetType = resolve(enumType, loader);
+            return targetType == null ? serializingCopier : new EnumCopier(targetType);
+        }
+        if (ArrayList.class == type) {
+            return new CollectionCopier(ArrayList::new);
+        } else if (LinkedList.class == type) {
+            return new CollectionCopier(size -> new LinkedList<>());
+        } else if (HashSet.class == type) {
+            return new CollectionCopier(size -> new HashSet<>(capacity(size)));
+        } else if (LinkedHashSet.class == type) {
+            return new CollectionCopier(size -> new LinkedHashSet<>(capacity(size)));
+        } else if (HashMap.class == type) {
+            return new HashMapCopier();
+        } else if (Date.class == type) {
+            return dateCopier;
+        }
+        return generate(type, loader);
+    }
+
+    /**
+     * Generates a copier for the type or returns the serializing copier if the type cannot be copied field by field.
+     *
+     * @param type   the source type
+     * @param loader the target classloader
+     * @return the copier
+     */
+    private Copier generate(Class<?> type, ClassLoader loader) {
+        if (!isCopyable(type)) {
+            return serializingCopier;
+        }
+        Class<?> targetType = resolve(type, loader);
+        if (targetType == null || !isCopyable(targetType)) {
+            return serializingCopier;
+        }
+        List<Field> sourceFields = getFields(type);
+        List<Field> targetFields = getFields(targetType);
+        if (!matches(sourceFields, targetFields)) {
+            // the class loaded by the target classloader is a different version
+            return serializingCopier;
+        }
+
+        String className = type.getName() + "_F3Copier" + counter.incrementAndGet();
+        String internalName = className.replace('.', '/');
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_7, ACC_PUBLIC + ACC_SUPER, internalName, null, COPIER_NAME, null);
+        cw.visitSource(className + ".java", null);
+
+        BytecodeHelper.writeConstructor(cw, AbstractFieldCopier.class);
+        writeCopyFields(sourceFields, targetFields, cw);
+
+        cw.visitEnd();
+
+        AbstractFieldCopier copier = BytecodeHelper.instantiate(AbstractFieldCopier.class, className, generationLoader, cw);
+        copier.setTargetType(targetType);
+        return copier;
+    }
+
+    private void writeCopyFields(List<Field> sourceFields, List<Field> targetFields, ClassWriter cw) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "copyFields", COPY_FIELDS_DESCRIPTOR, null, null);
+        mv.visitCode();
+        for (int i = 0; i < sourceFields.size(); i++) {
+            Field sourceField = sourceFields.get(i);
+            long sourceOffset = AbstractFieldCopier.UNSAFE.objectFieldOffset(sourceField);
+            long targetOffset = AbstractFieldCopier.UNSAFE.objectFieldOffset(targetFields.get(i));
+            Class<?> fieldType = sourceField.getType();
+            String accessor = getAccessorName(fieldType);
+            String descriptor = fieldType.isPrimitive() ? Type.getDescriptor(fieldType) : "Ljava/lang/Object;";
+
+            // UNSAFE.put<Type>(target, targetOffset, ...)
+            mv.visitFieldInsn(GETSTATIC, COPIER_NAME, "UNSAFE", UNSAFE_DESCRIPTOR);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitLdcInsn(targetOffset);
+
+            boolean deep = !fieldType.isPrimitive() && !isImmutable(fieldType);
+            if (deep) {
+                mv.visitVarInsn(ALOAD, 3);
+            }
+
+            // UNSAFE.get<Type>(source, sourceOffset)
+            mv.visitFieldInsn(GETSTATIC, COPIER_NAME, "UNSAFE", UNSAFE_DESCRIPTOR);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitLdcInsn(sourceOffset);
+            mv.visitMethodInsn(INVOKEVIRTUAL, UNSAFE_NAME, "get" + accessor, "(Ljava/lang/Object;J)" + descriptor);
+
+            if (deep) {
+                // context.copy(value)
+                mv.visitMethodInsn(INVOKEVIRTUAL, CONTEXT_NAME, "copy", "(Ljava/lang/Object;)Ljava/lang/Object;");
+            }
+            mv.visitMethodInsn(INVOKEVIRTUAL, UNSAFE_NAME, "put" + accessor, "(Ljava/lang/Object;J" + descriptor + ")V");
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private String getAccessorName(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return "Object";
+        }
+        String name = type.getName();
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Returns true if the type can be copied field by field with the same result as Java serialization.
+     *
+     * @param type the type
+     * @return true if the type can be copied field by field
+     */
+    private boolean isCopyable(Class<?> type) {
+        if (!Serializable.class.isAssignableFrom(type) || Externalizable.class.isAssignableFrom(type) || type.isInterface()) {
+            return false;
+        }
+        for (Class<?> clazz = type; clazz != Object.class; clazz = clazz.getSuperclass()) {
+            if (isJdkType(clazz) || !Serializable.class.isAssignableFrom(clazz)) {
+                // serialization invokes the constructor of the first non-serializable superclass
+                return false;
+            }
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (SERIALIZATION_METHODS.contains(method.getName())) {
+                    return false;
+                }
+            }
+            try {
+                clazz.getDeclaredField("serialPersistentFields");
+                return false;
+            } catch (NoSuchFieldException e) {
+                // expected
+            }
+        }
+        return true;
+    }
+
+    private boolean isJdkType(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.") || name.startsWith("com.sun.");
+    }
+
+    private List<Field> getFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> clazz = type; clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private boolean matches(List<Field> sourceFields, List<Field> targetFields) {
+        if (sourceFields.size() != targetFields.size()) {
+            return false;
+        }
+        for (int i = 0; i < sourceFields.size(); i++) {
+            Field source = sourceFields.get(i);
+            Field target = targetFields.get(i);
+            if (!source.getName().equals(target.getName())
+                || !source.getType().getName().equals(target.getType().getName())
+                || !source.getDeclaringClass().getName().equals(target.getDeclaringClass().getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Class<?> getEnumType(Class<?> type) {
+        if (type.isEnum()) {
+            return type;
+        }
+        Class<?> superclass = type.getSuperclass();
+        // enum constants with a body are subclasses of the enum type
+        return superclass != null && superclass.isEnum() ? superclass : null;
+    }
+
+    private Class<?> resolve(Class<?> type, ClassLoader loader) {
+        try {
+            return Class.forName(type.getName(), false, loader);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static int capacity(int size) {
+        return Math.max((int) (size / .75f) + 1, 16);
+    }
+
+    private BytecodeClassLoader createGenerationLoader() {
+        return new BytecodeClassLoader(GENERATION_LOADER, getClass().getClassLoader());
+    }
+
+    /**
+     * Copies using Java serialization.
+     */
+    private class SerializingCopier implements Copier {
+
+        public Object copy(Object source, CopyContext context) throws Fabric3Exception {
+            if (!(source instanceof Serializable)) {
+                throw new IllegalArgumentException("Parameters for Java-to-Java transformations must implement Serializable: " + source.getClass());
+            }
+            Object copy = serializer.transform((Serializable) source, context.getClassLoader());
+            context.register(source, copy);
+            return copy;
+        }
+    }
+
+    private static class PrimitiveArrayCopier implements Copier {
+
+        public Object copy(Object source, CopyContext context) {
+            int length = Array.getLength(source);
+            Object copy = Array.newInstance(source.getClass().getComponentType(), length);
+            System.arraycopy(source, 0, copy, 0, length);
+            context.register(source, copy);
+            return copy;
+        }
+    }
+
+    private static class ArrayCopier implements Copier {
+        private Class<?> componentType;
+
+        public ArrayCopier(Class<?> componentType) {
+            this.componentType = componentType;
+        }
+
+        public Object copy(Object source, CopyContext context) throws Fabric3Exception {
+            Object[] array = (Object[]) source;
+            Object[] copy = (Object[]) Array.newInstance(componentType, array.length);
+            context.register(source, copy);
+            for (int i = 0; i < array.length; i++) {
+                copy[i] = context.copy(array[i]);
+            }
+            return copy;
+        }
+    }
+
+    private static class EnumCopier implements Copier {
+        private Class enumType;
+
+        public EnumCopier(Class<?> enumType) {
+            this.enumType = enumType;
+        }
+
+        @SuppressWarnings("unchecked")
+        public Object copy(Object source, CopyContext context) {
+            return Enum.valueOf(enumType, ((Enum<?>) source).name());
+        }
+    }
+
+    private static class CollectionCopier implements Copier {
+        private IntFunction<Collection<Object>> factory;
+
+        public CollectionCopier(IntFunction<Collection<Object>> factory) {
+            this.factory = factory;
+        }
+
+        public Object copy(Object source, CopyContext context) throws Fabric3Exception {
+            Collection<?> collection = (Collection<?>) source;
+            Collection<Object> copy = factory.apply(collection.size());
+            context.register(source, copy);
+            for (Object element : collection) {
+                copy.add(context.copy(element));
+            }
+            return copy;
+        }
+    }
+
+    private static class HashMapCopier implements Copier {
+
+        public Object copy(Object source, CopyContext context) throws Fabric3Exception {
+            Map<?, ?> map = (Map<?, ?>) source;
+            Map<Object, Object> copy = new HashMap<>(capacity(map.size()));
+            context.register(source, copy);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put(context.copy(entry.getKey()), context.copy(entry.getValue()));
+            }
+            return copy;
+        }
+    }
+
+}
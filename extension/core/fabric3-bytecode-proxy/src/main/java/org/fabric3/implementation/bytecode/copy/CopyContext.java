@@ -0,0 +1,82 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.implementation.bytecode.copy;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.fabric3.api.host.Fabric3Exception;
+
+/**
+ * Tracks objects copied during a deep copy operation so that shared references and cycles in the source graph are preserved in the copy.
+ */
+public class CopyContext {
+    private CopierRegistry registry;
+    private ClassLoader loader;
+    private Map<Object, Object> copies;
+
+    public CopyContext(CopierRegistry registry, ClassLoader loader) {
+        this.registry = registry;
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the classloader copies are created in.
+     *
+     * @return the classloader
+     */
+    public ClassLoader getClassLoader() {
+        return loader;
+    }
+
+    /**
+     * Copies an object reachable from the root object.
+     *
+     * @param source the object
+     * @return the copy or the object if it is immutable
+     * @throws Fabric3Exception if there is an error copying
+     */
+    public Object copy(Object source) throws Fabric3Exception {
+        if (source == null) {
+            return null;
+        }
+        if (CopierRegistryImpl.isImmutableInstance(source)) {
+            return source;
+        }
+        if (copies != null) {
+            Object copy = copies.get(source);
+            if (copy != null) {
+                return copy;
+            }
+        }
+        return registry.getCopier(source.getClass(), loader).copy(source, this);
+    }
+
+    /**
+     * Records a copy. Copiers must record the copy before copying the state of an object so that cycles resolve to the copy.
+     *
+     * @param source the object
+     * @param copy   the copy
+     */
+    public void register(Object source, Object copy) {
+        if (copies == null) {
+            copies = new IdentityHashMap<>();
+        }
+        copies.put(source, copy);
+    }
+
+}
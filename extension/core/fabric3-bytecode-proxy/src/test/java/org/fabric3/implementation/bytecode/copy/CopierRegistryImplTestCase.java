@@ -0,0 +1,229 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.implementation.bytecode.copy;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class CopierRegistryImplTestCase extends TestCase {
+    private CopierRegistryImpl registry;
+    private ClassLoader loader;
+
+    public void testDeepCopy() throws Exception {
+        Order order = createOrder();
+
+        Order copy = (Order) registry.copy(order, loader);
+
+        assertNotSame(order, copy);
+        assertEquals(order.id, copy.id);
+        assertEquals("customer", copy.customer);
+        assertEquals(Status.SHIPPED, copy.status);
+        assertNotSame(order.created, copy.created);
+        assertEquals(order.created, copy.created);
+        assertNotSame(order.lines, copy.lines);
+        assertEquals(2, copy.lines.size());
+        assertNotSame(order.lines.get(0), copy.lines.get(0));
+        assertEquals(order.lines.get(0).quantity, copy.lines.get(0).quantity);
+        assertEquals(order.lines.get(1).price, copy.lines.get(1).price);
+        assertNotSame(order.codes, copy.codes);
+        assertEquals(3, copy.codes[2]);
+        assertEquals("value", copy.attributes.get("key"));
+        assertNull(copy.cache);
+        assertTrue(registry.getCopier(Order.class, loader) instanceof AbstractFieldCopier);
+    }
+
+    public void testSharedReferencesAndCycles() throws Exception {
+        Order order = createOrder();
+        order.lines.add(order.lines.get(0));
+        order.lines.get(0).order = order;
+
+        Order copy = (Order) registry.copy(order, loader);
+
+        assertSame(copy.lines.get(0), copy.lines.get(2));
+        assertSame(copy, copy.lines.get(0).order);
+    }
+
+    public void testCopyToClassLoader() throws Exception {
+        URL location = Order.class.getProtectionDomain().getCodeSource().getLocation();
+        ClassLoader isolated = new URLClassLoader(new URL[]{location}, null);
+
+        Object copy = registry.copy(createOrder(), isolated);
+
+        assertNotSame(Order.class, copy.getClass());
+        assertEquals(Order.class.getName(), copy.getClass().getName());
+        assertSame(isolated, copy.getClass().getClassLoader());
+        Object status = copy.getClass().getDeclaredField("status").get(copy);
+        assertSame(isolated, status.getClass().getClassLoader());
+        assertEquals("SHIPPED", status.toString());
+    }
+
+    public void testSerializationFallback() throws Exception {
+        Custom custom = new Custom();
+        custom.value = "test";
+
+        Custom copy = (Custom) registry.copy(custom, loader);
+
+        assertNotSame(custom, copy);
+        assertEquals("test", copy.value);
+        assertTrue(copy.written);
+        assertFalse(registry.getCopier(Custom.class, loader) instanceof AbstractFieldCopier);
+    }
+
+    public void testBigNumbersShared() throws Exception {
+        Amount amount = new Amount();
+        amount.value = BigInteger.TEN;
+        amount.decimal = BigDecimal.ONE;
+
+        Amount copy = (Amount) registry.copy(amount, loader);
+
+        assertNotSame(amount, copy);
+        assertSame(amount.value, copy.value);
+        assertSame(amount.decimal, copy.decimal);
+    }
+
+    public void testBigIntegerSubclassCopied() throws Exception {
+        MutableInteger value = new MutableInteger("10");
+        value.count = 2;
+        Amount amount = new Amount();
+        amount.value = value;
+
+        Amount copy = (Amount) registry.copy(amount, loader);
+
+        assertNotSame(value, copy.value);
+        assertEquals(value, copy.value);
+        assertEquals(2, ((MutableInteger) copy.value).count);
+        assertNotSame(value, registry.copy(value, loader));
+    }
+
+    public void testNotSerializable() throws Exception {
+        try {
+            registry.copy(new Object(), loader);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testTransformer() throws Exception {
+        BytecodeJava2JavaTransformer transformer = new BytecodeJava2JavaTransformer(registry);
+        Object[] params = new Object[]{createOrder(), "param", 1};
+
+        Object[] copy = (Object[]) transformer.transform(params, loader);
+
+        assertNotSame(params, copy);
+        assertNotSame(params[0], copy[0]);
+        assertEquals("param", copy[1]);
+        assertEquals(1, copy[2]);
+    }
+
+    static Order createOrder() {
+        Order order = new Order();
+        order.id = 10;
+        order.customer = "customer";
+        order.status = Status.SHIPPED;
+        order.created = new Date();
+        order.codes = new int[]{1, 2, 3};
+        order.attributes = new HashMap<>();
+        order.attributes.put("key", "value");
+        order.cache = new Object();
+        order.lines = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            OrderLine line = new OrderLine();
+            line.product = "product" + i;
+            line.quantity = i + 1;
+            line.price = 9.99 * i;
+            order.lines.add(line);
+        }
+        return order;
+    }
+
+    public enum Status {
+        NEW, SHIPPED
+    }
+
+    public static class Entity implements Serializable {
+        private static final long serialVersionUID = 1853428347402117211L;
+        public long id;
+    }
+
+    public static class Order extends Entity {
+        private static final long serialVersionUID = -7437014542233582937L;
+        public String customer;
+        public Status status;
+        public Date created;
+        public List<OrderLine> lines;
+        public int[] codes;
+        public Map<String, String> attributes;
+        public transient Object cache;
+    }
+
+    public static class OrderLine implements Serializable {
+        private static final long serialVersionUID = 4180745017958271069L;
+        public String product;
+        public int quantity;
+        public double price;
+        public Order order;
+    }
+
+    public static class Amount implements Serializable {
+        private static final long serialVersionUID = 6612493721084950341L;
+        public BigInteger value;
+        public BigDecimal decimal;
+    }
+
+    public static class MutableInteger extends BigInteger {
+        private static final long serialVersionUID = -3356237713095620194L;
+        public int count;
+
+        public MutableInteger(String value) {
+            super(value);
+        }
+    }
+
+    public static class Custom implements Serializable {
+        private static final long serialVersionUID = -2962539428571183539L;
+        public String value;
+        public boolean written;
+
+        private void writeObject(ObjectOutputStream stream) throws IOException {
+            written = true;
+            stream.defaultWriteObject();
+        }
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        registry = new CopierRegistryImpl();
+        loader = getClass().getClassLoader();
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.implementation.bytecode.copy;
+
+import java.io.Serializable;
+
+import junit.framework.TestCase;
+import org.fabric3.transform.java.Java2JavaTransformer;
+
+/**
+ * Compares the throughput of copying a typical DTO graph using generated copiers versus Java serialization. The benchmark only reports timings and is run
+ * with the benchmark task.
+ */
+public class CopyThroughputBenchmark extends TestCase {
+    private static final int ITERATIONS = 20000;
+
+    public void testThroughput() throws Exception {
+        ClassLoader loader = getClass().getClassLoader();
+        CopierRegistryImpl registry = new CopierRegistryImpl();
+        BytecodeJava2JavaTransformer generated = new BytecodeJava2JavaTransformer(registry);
+        Java2JavaTransformer serializing = new Java2JavaTransformer();
+        Serializable order = CopierRegistryImplTestCase.createOrder();
+
+        // warm up
+        run(() -> serializing.transform(order, loader), ITERATIONS / 4);
+        run(() -> generated.transform(order, loader), ITERATIONS / 4);
+
+        long serializingTime = run(() -> serializing.transform(order, loader), ITERATIONS);
+        long generatedTime = run(() -> generated.transform(order, loader), ITERATIONS);
+
+        System.out.println("Serialization: " + (ITERATIONS * 1000L / Math.max(1, serializingTime)) + " copies/second");
+        System.out.println("Generated copiers: " + (ITERATIONS * 1000L / Math.max(1, generatedTime)) + " copies/second");
+    }
+
+    private long run(Task task, int iterations) throws Exception {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+
+}
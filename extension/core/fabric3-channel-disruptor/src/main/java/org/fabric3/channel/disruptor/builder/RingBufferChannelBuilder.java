@@ -32,18 +32,24 @@ import org.fabric3.api.model.type.component.RingBufferData;
 import org.fabric3.channel.disruptor.impl.RingBufferChannel;
 import org.fabric3.spi.container.builder.ChannelBuilder;
 import org.fabric3.spi.container.channel.Channel;
+import org.fabric3.spi.management.ManagementService;
 import org.fabric3.spi.model.physical.ChannelSide;
 import org.fabric3.spi.model.physical.PhysicalChannel;
 import org.oasisopen.sca.annotation.Reference;
 
 /**
- * Builds and disposes {@link RingBufferChannel}s.
+ * Builds and disposes {@link RingBufferChannel}s. Channels are exported to the management service for monitoring ring buffer utilization and consumer lag.
  */
 public class RingBufferChannelBuilder implements ChannelBuilder {
+    private static final String GROUP = "channels/ring buffers";
+
     private ExecutorService executorService;
+    private ManagementService managementService;
 
-    public RingBufferChannelBuilder(@Reference(name = "executorService") ExecutorService executorService) {
+    public RingBufferChannelBuilder(@Reference(name = "executorService") ExecutorService executorService,
+                                    @Reference ManagementService managementService) {
         this.executorService = executorService;
+        this.managementService = managementService;
     }
 
     public Channel build(PhysicalChannel physicalChannel) throws Fabric3Exception {
@@ -57,11 +63,19 @@ public class RingBufferChannelBuilder implements ChannelBuilder {
 
         ChannelSide channelSide = physicalChannel.getChannelSide();
 
-        return new RingBufferChannel(uri, size, strategy, channelSide, executorService, contributionUri);
+        RingBufferChannel channel = new RingBufferChannel(uri, size, strategy, channelSide, executorService, contributionUri);
+        managementService.export(encodeName(uri, channelSide), GROUP, "Ring buffer channel", channel);
+        return channel;
     }
 
     public void dispose(PhysicalChannel physicalChannel, Channel channel) throws Fabric3Exception {
-        // no-op
+        managementService.remove(encodeName(physicalChannel.getUri(), physicalChannel.getChannelSide()), GROUP);
+    }
+
+    private String encodeName(URI uri, ChannelSide side) {
+        String path = uri.getPath();
+        String name = path == null || path.length() == 0 ? uri.toString() : path.substring(1);
+        return "channels/" + name + "/" + side.toString().toLowerCase();
     }
 
     private WaitStrategy createWaitStrategy(RingBufferData data) {
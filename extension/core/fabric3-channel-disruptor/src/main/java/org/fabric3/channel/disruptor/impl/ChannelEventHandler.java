@@ -22,17 +22,77 @@ import org.fabric3.spi.container.channel.EventStream;
 
 /**
  * Dispatches an event from the channel ring buffer to consumer streams.
+ *
+ * If the handler filters by topic, only events published to the consumer topic are dispatched. Since the end-of-batch marker may be set on an event that is
+ * filtered, dispatch of a matching event is deferred until the next matching event or the end of the batch is reached so that the marker is set on the last
+ * event the consumer receives in a batch. Entries are not overwritten until the batch completes, so holding a deferred event is safe.
  */
 public class ChannelEventHandler implements EventHandler<RingBufferEvent> {
     private final boolean channelEvent;
+    private final boolean filter;
+    private final String topic;
     private EventStream stream;
 
+    private volatile boolean enabled = true;
+    private RingBufferEvent deferred;
+    private long deferredSequence;
+
     public ChannelEventHandler(ChannelConnection connection, boolean channelEvent) {
         this.channelEvent = channelEvent;
+        this.filter = false;
+        this.topic = null;
+        stream = connection.getEventStream();
+    }
+
+    /**
+     * Constructor for a handler that dispatches events published to a topic.
+     *
+     * @param connection   the consumer connection
+     * @param topic        the topic or null for the default topic
+     * @param channelEvent true if the consumer takes {@link org.fabric3.api.ChannelEvent}s
+     */
+    public ChannelEventHandler(ChannelConnection connection, String topic, boolean channelEvent) {
+        this.channelEvent = channelEvent;
+        this.filter = true;
+        this.topic = topic;
         stream = connection.getEventStream();
     }
 
+    /**
+     * Stops dispatching events to the consumer. Used when the consumer is removed but its processor cannot be halted since consumers in a later sequence depend
+     * on it.
+     */
+    public void disable() {
+        enabled = false;
+    }
+
     public void onEvent(RingBufferEvent event, long sequence, boolean endOfBatch) throws Exception {
+        if (!filter) {
+            dispatch(event, sequence, endOfBatch);
+            return;
+        }
+        String eventTopic = event.getTopic(sequence);
+        boolean matches = enabled && (topic == null ? eventTopic == null : topic.equals(eventTopic));
+        if (matches) {
+            RingBufferEvent previous = deferred;
+            deferred = null;
+            if (previous != null) {
+                dispatch(previous, deferredSequence, false);
+            }
+            if (endOfBatch) {
+                dispatch(event, sequence, true);
+            } else {
+                deferred = event;
+                deferredSequence = sequence;
+            }
+        } else if (endOfBatch && deferred != null) {
+            RingBufferEvent last = deferred;
+            deferred = null;
+            dispatch(last, deferredSequence, true);
+        }
+    }
+
+    private void dispatch(RingBufferEvent event, long sequence, boolean endOfBatch) {
         if (channelEvent) {
             // consumer takes a channel event, send that, making sure to set the end-of-batch marker and sequence number
             event.setEndOfBatch(endOfBatch);
@@ -17,21 +17,24 @@
 package org.fabric3.channel.disruptor.impl;
 
 import java.net.URI;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.LockSupport;
 
 import com.lmax.disruptor.BatchEventProcessor;
-import com.lmax.disruptor.EventHandler;
 import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.Sequence;
 import com.lmax.disruptor.SequenceBarrier;
 import com.lmax.disruptor.SequenceGroup;
 import com.lmax.disruptor.WaitStrategy;
-import com.lmax.disruptor.dsl.Disruptor;
-import com.lmax.disruptor.dsl.EventHandlerGroup;
 import com.lmax.disruptor.dsl.ProducerType;
+import org.fabric3.api.annotation.management.Management;
+import org.fabric3.api.annotation.management.ManagementOperation;
 import org.fabric3.spi.container.channel.Channel;
 import org.fabric3.spi.container.channel.ChannelConnection;
 import org.fabric3.spi.container.channel.EventStream;
@@ -40,7 +43,17 @@ import org.fabric3.spi.model.physical.ChannelSide;
 
 /**
  * A channel implementation that uses a Disruptor ring buffer to dispatch to consumers.
+ *
+ * Events are published to the ring buffer together with the topic of the producer and consumers only receive events for the topic they are subscribed to.
+ * Filtering is done by the consumer event processor, which avoids an additional dispatch. Events published by clients holding a direct connection to the ring
+ * buffer are dispatched to consumers of the default topic.
+ *
+ * Each consumer is dispatched to by its own event processor, which is halted when the consumer unsubscribes. If the channel is started with a single producer,
+ * the ring buffer is created in single-producer mode. Publishing is then serialized so that a producer attaching after start cannot corrupt the ring sequence,
+ * and the ring buffer is migrated to a multi-producer ring once its backlog has been processed. The ring buffer is also migrated before it is handed out as a
+ * direct connection, since direct publishers bypass the channel.
  */
+@Management
 public class RingBufferChannel implements Channel, EventStreamHandler {
     private static final RingBufferEventTranslator TRANSLATOR = new RingBufferEventTranslator();
     private static final RingBufferEventFactory EVENT_FACTORY = new RingBufferEventFactory();
@@ -52,13 +65,15 @@ public class RingBufferChannel implements Channel, EventStreamHandler {
     private ExecutorService executorService;
     private URI contributionUri;
 
-    private RingBuffer<RingBufferEvent> ringBuffer;
-    private Disruptor<RingBufferEvent> disruptor;
+    private volatile RingBuffer<RingBufferEvent> ringBuffer;
+    private volatile boolean multiProducer;
+    private boolean directConnection;
+    private final Object publishLock = new Object();
 
-    private Map<URI, ChannelConnection> subscribers;
-    private Map<URI, Sequence> sequences;
+    private Map<URI, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private List<Subscription> retired = new ArrayList<>();
 
-    private int numberProducers;
+    private volatile int numberProducers;
     private SequenceGroup sequenceGroup;
 
     public RingBufferChannel(URI uri, int size, WaitStrategy waitStrategy, ChannelSide channelSide, ExecutorService executorService, URI contributionUri) {
@@ -68,33 +83,23 @@ public class RingBufferChannel implements Channel, EventStreamHandler {
         this.channelSide = channelSide;
         this.executorService = executorService;
         this.contributionUri = contributionUri;
-        subscribers = new HashMap<>();
-        sequences = new HashMap<>();
     }
 
-    @SuppressWarnings("unchecked")
-    public void start() {
-        ProducerType producerType = numberProducers > 1 ? ProducerType.MULTI : ProducerType.SINGLE;
-        disruptor = new Disruptor<>(EVENT_FACTORY, size, executorService, producerType, waitStrategy);
-
-        Map<Integer, List<EventHandler<RingBufferEvent>>> sorted = EventHandlerHelper.createAndSort(subscribers.values());
-
-        EventHandlerGroup group = null;
-        for (List<EventHandler<RingBufferEvent>> handlers : sorted.values()) {
-            if (group == null) {
-                group = disruptor.handleEventsWith(handlers.toArray(new EventHandler[handlers.size()]));
-            } else {
-                group = group.then(handlers.toArray(new EventHandler[handlers.size()]));
-            }
-        }
-
-        sequenceGroup = new SequenceGroup();
-        disruptor.getRingBuffer().addGatingSequences(sequenceGroup);
-        ringBuffer = disruptor.start();
+    public synchronized void start() {
+        ProducerType producerType = numberProducers > 1 || directConnection ? ProducerType.MULTI : ProducerType.SINGLE;
+        RingBuffer<RingBufferEvent> ring = RingBuffer.create(producerType, EVENT_FACTORY, size, waitStrategy);
+        startProcessors(ring);
+        multiProducer = ProducerType.MULTI == producerType;
+        ringBuffer = ring;
     }
 
-    public void stop() {
-        disruptor.shutdown();
+    public synchronized void stop() {
+        if (ringBuffer == null) {
+            return;
+        }
+        // allow consumers to process the backlog before halting
+        drain(ringBuffer);
+        haltProcessors();
     }
 
     public URI getUri() {
@@ -118,46 +123,52 @@ public class RingBufferChannel implements Channel, EventStreamHandler {
     }
 
     public void attach(EventStreamHandler handler) {
-        numberProducers++;
         handler.setNext(this);
+        addProducer();
     }
 
     public void attach(ChannelConnection connection) {
-        numberProducers++;
         EventStream stream = connection.getEventStream();
-        stream.getTailHandler().setNext(this);
+        String topic = connection.getTopic();
+        stream.getTailHandler().setNext(topic == null ? this : new TopicPublisher(topic));
+        addProducer();
     }
 
-    public void subscribe(URI uri, ChannelConnection connection) {
-        if (ringBuffer == null) {
-            subscribers.put(uri, connection);
-        } else {
+    public synchronized void subscribe(URI uri, ChannelConnection connection) {
+        Subscription subscription = new Subscription(connection);
+        subscriptions.put(uri, subscription);
+        if (ringBuffer != null) {
             // ring buffer already started, add dynamically
-            boolean channelEvent = EventHandlerHelper.isChannelEvent(connection);
-            ChannelEventHandler handler = new ChannelEventHandler(connection, channelEvent);
-            SequenceBarrier barrier = ringBuffer.newBarrier();
-            BatchEventProcessor<RingBufferEvent> processor = new BatchEventProcessor<>(ringBuffer, barrier, handler);
-            Sequence sequence = processor.getSequence();
-            sequenceGroup.addWhileRunning(ringBuffer, sequence);
+            RingBuffer<RingBufferEvent> ring = ringBuffer;
+            BatchEventProcessor<RingBufferEvent> processor = new BatchEventProcessor<>(ring, ring.newBarrier(), subscription.handler);
+            subscription.processor = processor;
+            sequenceGroup.addWhileRunning(ring, processor.getSequence());
             executorService.execute(processor);
-
-            sequences.put(uri, sequence);
-            subscribers.put(uri, connection);
         }
     }
 
-    public ChannelConnection unsubscribe(URI uri, String topic) {
-        ChannelConnection connection = subscribers.remove(uri);
-        Sequence sequence = sequences.get(uri);
-        if (sequence != null) {
+    public synchronized ChannelConnection unsubscribe(URI uri, String topic) {
+        Subscription subscription = subscriptions.remove(uri);
+        if (subscription == null) {
+            return null;
+        }
+        BatchEventProcessor<RingBufferEvent> processor = subscription.processor;
+        if (processor != null) {
             // may be null if registered prior to channel start
-            sequenceGroup.remove(sequence);
+            if (subscription.upstream) {
+                // consumers in a later sequence wait on the processor so it must continue to advance
+                subscription.handler.disable();
+                retired.add(subscription);
+            } else {
+                sequenceGroup.remove(processor.getSequence());
+                processor.halt();
+            }
         }
-        return connection;
+        return subscription.connection;
     }
 
     public void handle(Object event, boolean endOfBatch) {
-        ringBuffer.publishEvent(TRANSLATOR, event);
+        publish(event, null);
     }
 
     public void setNext(EventStreamHandler next) {
@@ -168,7 +179,209 @@ public class RingBufferChannel implements Channel, EventStreamHandler {
         return null;
     }
 
-    public Object getDirectConnection(String topic) {
+    public synchronized Object getDirectConnection(String topic) {
+        // clients publishing directly bypass the publish lock and hold a reference to the ring buffer, which therefore must accept concurrent producers
+        if (ringBuffer != null && !multiProducer) {
+            migrate();
+        }
+        directConnection = true;
         return ringBuffer;
     }
+
+    @ManagementOperation(description = "The ring buffer size")
+    public int getRingSize() {
+        return size;
+    }
+
+    @ManagementOperation(description = "The ring buffer producer type")
+    public String getProducerType() {
+        return multiProducer ? ProducerType.MULTI.toString() : ProducerType.SINGLE.toString();
+    }
+
+    @ManagementOperation(description = "The number of attached producers")
+    public int getProducerCount() {
+        return numberProducers;
+    }
+
+    @ManagementOperation(description = "The number of subscribed consumers")
+    public int getConsumerCount() {
+        return subscriptions.size();
+    }
+
+    @ManagementOperation(description = "The percentage of ring buffer entries published but not yet processed by all consumers")
+    public double getUtilization() {
+        RingBuffer<RingBufferEvent> ring = ringBuffer;
+        if (ring == null) {
+            return 0;
+        }
+        long used = ring.getBufferSize() - ring.remainingCapacity();
+        return used * 100d / ring.getBufferSize();
+    }
+
+    @ManagementOperation(description = "The number of free ring buffer entries")
+    public long getRemainingCapacity() {
+        RingBuffer<RingBufferEvent> ring = ringBuffer;
+        return ring == null ? size : ring.remainingCapacity();
+    }
+
+    @ManagementOperation(description = "The maximum number of events published but not yet processed by a consumer")
+    public long getMaxConsumerLag() {
+        long max = 0;
+        for (long lag : getLags().values()) {
+            max = Math.max(max, lag);
+        }
+        return max;
+    }
+
+    @ManagementOperation(description = "The number of events published but not yet processed by each consumer")
+    public Map<String, Long> getConsumerLag() {
+        return getLags();
+    }
+
+    private Map<String, Long> getLags() {
+        Map<String, Long> lags = new TreeMap<>();
+        RingBuffer<RingBufferEvent> ring = ringBuffer;
+        if (ring == null) {
+            return lags;
+        }
+        long cursor = ring.getCursor();
+        for (Map.Entry<URI, Subscription> entry : subscriptions.entrySet()) {
+            BatchEventProcessor<RingBufferEvent> processor = entry.getValue().processor;
+            if (processor != null) {
+                lags.put(entry.getKey().toString(), Math.max(0, cursor - processor.getSequence().get()));
+            }
+        }
+        return lags;
+    }
+
+    private void publish(Object event, String topic) {
+        if (multiProducer) {
+            ringBuffer.publishEvent(TRANSLATOR, event, topic);
+        } else {
+            // serialize access to a single-producer ring buffer in case a producer is attached after the channel is started
+            synchronized (publishLock) {
+                ringBuffer.publishEvent(TRANSLATOR, event, topic);
+            }
+        }
+    }
+
+    private synchronized void addProducer() {
+        numberProducers++;
+        if (ringBuffer != null && !multiProducer && numberProducers > 1) {
+            migrate();
+        }
+    }
+
+    /**
+     * Replaces a single-producer ring buffer with a multi-producer ring buffer. Publishers are blocked while the consumers process the backlog of the existing
+     * ring buffer and the event processors are recreated.
+     */
+    private void migrate() {
+        synchronized (publishLock) {
+            drain(ringBuffer);
+            haltProcessors();
+            RingBuffer<RingBufferEvent> ring = RingBuffer.createMultiProducer(EVENT_FACTORY, size, waitStrategy);
+            startProcessors(ring);
+            ringBuffer = ring;
+            multiProducer = true;
+        }
+    }
+
+    /**
+     * Creates and schedules event processors for the current subscriptions. Consumers are ordered by their connection sequence: the processors for a sequence
+     * wait on the processors of the previous sequence, and processors for the last sequence gate the ring buffer.
+     *
+     * @param ring the ring buffer
+     */
+    private void startProcessors(RingBuffer<RingBufferEvent> ring) {
+        sequenceGroup = new SequenceGroup();
+        ring.addGatingSequences(sequenceGroup);
+
+        NavigableMap<Integer, List<Subscription>> sorted = new TreeMap<>();
+        for (Subscription subscription : subscriptions.values()) {
+            sorted.computeIfAbsent(subscription.connection.getSequence(), k -> new ArrayList<>()).add(subscription);
+        }
+        Sequence[] dependencies = new Sequence[0];
+        List<BatchEventProcessor<RingBufferEvent>> processors = new ArrayList<>();
+        for (Map.Entry<Integer, List<Subscription>> entry : sorted.entrySet()) {
+            boolean upstream = entry.getKey() < sorted.lastKey();
+            List<Subscription> stage = entry.getValue();
+            Sequence[] stageSequences = new Sequence[stage.size()];
+            for (int i = 0; i < stage.size(); i++) {
+                Subscription subscription = stage.get(i);
+                // use a barrier per processor since halting a processor alerts its barrier
+                SequenceBarrier barrier = ring.newBarrier(dependencies);
+                BatchEventProcessor<RingBufferEvent> processor = new BatchEventProcessor<>(ring, barrier, subscription.handler);
+                subscription.processor = processor;
+                subscription.upstream = upstream;
+                stageSequences[i] = processor.getSequence();
+                if (!upstream) {
+                    sequenceGroup.add(processor.getSequence());
+                }
+                processors.add(processor);
+            }
+            dependencies = stageSequences;
+        }
+        processors.forEach(executorService::execute);
+    }
+
+    private void haltProcessors() {
+        for (Subscription subscription : subscriptions.values()) {
+            if (subscription.processor != null) {
+                subscription.processor.halt();
+            }
+        }
+        for (Subscription subscription : retired) {
+            subscription.processor.halt();
+        }
+        retired.clear();
+    }
+
+    /**
+     * Waits until the consumers have processed all events published to the ring buffer.
+     *
+     * @param ring the ring buffer
+     */
+    private void drain(RingBuffer<RingBufferEvent> ring) {
+        while (sequenceGroup.size() > 0 && sequenceGroup.get() < ring.getCursor()) {
+            LockSupport.parkNanos(1000);
+        }
+    }
+
+    /**
+     * Publishes events sent by a producer connected to a topic.
+     */
+    private class TopicPublisher implements EventStreamHandler {
+        private String topic;
+
+        public TopicPublisher(String topic) {
+            this.topic = topic;
+        }
+
+        public void handle(Object event, boolean endOfBatch) {
+            publish(event, topic);
+        }
+
+        public void setNext(EventStreamHandler next) {
+            throw new IllegalStateException();
+        }
+
+        public EventStreamHandler getNext() {
+            return null;
+        }
+    }
+
+    private class Subscription {
+        private ChannelConnection connection;
+        private ChannelEventHandler handler;
+        private BatchEventProcessor<RingBufferEvent> processor;
+        private boolean upstream;
+
+        public Subscription(ChannelConnection connection) {
+            this.connection = connection;
+            boolean channelEvent = EventHandlerHelper.isChannelEvent(connection);
+            this.handler = new ChannelEventHandler(connection, connection.getTopic(), channelEvent);
+        }
+    }
+
 }
@@ -24,6 +24,8 @@ import org.fabric3.api.ChannelEvent;
 public class RingBufferEvent implements ChannelEvent {
     private Object event;
     private Object parsed;
+    private String topic;
+    private long topicSequence = -1;
     private boolean endOfBatch;
     private long sequence =-1;
 
@@ -43,6 +45,30 @@ public class RingBufferEvent implements ChannelEvent {
         this.parsed = parsed;
     }
 
+    /**
+     * Returns the topic the event at the given sequence was published to. Events are only dispatched to consumers subscribed to the same topic.
+     *
+     * Ring buffer entries are reused and publishers writing directly to the ring buffer do not set a topic, so a topic is only returned if it was set for
+     * the given sequence.
+     *
+     * @param sequence the sequence of the event
+     * @return the topic or null if the event was published to the default topic
+     */
+    public String getTopic(long sequence) {
+        return topicSequence == sequence ? topic : null;
+    }
+
+    /**
+     * Sets the topic the event at the given sequence is published to.
+     *
+     * @param topic    the topic; may be null
+     * @param sequence the sequence of the event
+     */
+    public void setTopic(String topic, long sequence) {
+        this.topic = topic;
+        this.topicSequence = sequence;
+    }
+
     public boolean isEndOfBatch() {
         return endOfBatch;
     }
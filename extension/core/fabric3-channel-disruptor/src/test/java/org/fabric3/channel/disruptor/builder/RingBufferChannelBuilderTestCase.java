@@ -23,6 +23,7 @@ import junit.framework.TestCase;
 import org.easymock.EasyMock;
 import org.fabric3.api.model.type.component.RingBufferData;
 import org.fabric3.spi.container.channel.Channel;
+import org.fabric3.spi.management.ManagementService;
 import org.fabric3.spi.model.physical.DeliveryType;
 import org.fabric3.spi.model.physical.PhysicalChannel;
 
@@ -54,7 +55,10 @@ public class RingBufferChannelBuilderTestCase extends TestCase {
         ExecutorService executorService = EasyMock.createMock(ExecutorService.class);
         EasyMock.replay(executorService);
 
-        builder = new RingBufferChannelBuilder(executorService);
+        ManagementService managementService = EasyMock.createNiceMock(ManagementService.class);
+        EasyMock.replay(managementService);
+
+        builder = new RingBufferChannelBuilder(executorService, managementService);
 
         physicalChannel = new PhysicalChannel(TEST, "ring.buffer", DeliveryType.ASYNCHRONOUS_WORKER, CONTRIBUTION_URI);
         physicalChannel.setMetadata(new RingBufferData());
@@ -17,10 +17,17 @@
 package org.fabric3.channel.disruptor.impl;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.RingBuffer;
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
 import org.fabric3.spi.container.channel.ChannelConnection;
@@ -51,6 +58,7 @@ public class RingBufferChannelTestCase extends TestCase {
 
         ChannelConnection connection = EasyMock.createMock(ChannelConnection.class);
         EasyMock.expect(connection.getSequence()).andReturn(0);
+        EasyMock.expect(connection.getTopic()).andReturn(null).atLeastOnce();
         EasyMock.expect(connection.getEventStream()).andReturn(stream).atLeastOnce();
 
         EasyMock.replay(connection, stream);
@@ -70,10 +78,264 @@ public class RingBufferChannelTestCase extends TestCase {
         EasyMock.verify(connection, stream);
     }
 
+    public void testTopicFiltering() throws Exception {
+        RingBufferChannel channel = createChannel(Executors.newCachedThreadPool());
+
+        MockConsumer topicConsumer = new MockConsumer(3);
+        MockConsumer defaultConsumer = new MockConsumer(2);
+        channel.subscribe(URI.create("topic"), createConsumerConnection(topicConsumer, "topic"));
+        channel.subscribe(URI.create("default"), createConsumerConnection(defaultConsumer, null));
+
+        PassThroughHandler topicProducer = new PassThroughHandler();
+        channel.attach(createProducerConnection(topicProducer, "topic"));
+        PassThroughHandler defaultProducer = new PassThroughHandler();
+        channel.attach(defaultProducer);
+
+        channel.start();
+
+        topicProducer.handle("topic1", true);
+        defaultProducer.handle("default1", true);
+        topicProducer.handle("topic2", true);
+        defaultProducer.handle("default2", true);
+        topicProducer.handle("topic3", true);
+
+        assertTrue(topicConsumer.latch.await(5, TimeUnit.SECONDS));
+        assertTrue(defaultConsumer.latch.await(5, TimeUnit.SECONDS));
+        channel.stop();
+
+        assertEquals(3, topicConsumer.events.size());
+        for (Object event : topicConsumer.events) {
+            assertTrue(event.toString().startsWith("topic"));
+        }
+        assertEquals(2, defaultConsumer.events.size());
+        for (Object event : defaultConsumer.events) {
+            assertTrue(event.toString().startsWith("default"));
+        }
+        // the last event received must always be marked as the end of a batch even if later events in the batch were filtered
+        assertTrue(topicConsumer.lastEndOfBatch);
+        assertTrue(defaultConsumer.lastEndOfBatch);
+    }
+
+    public void testDirectPublishingAfterTopicPublishing() throws Exception {
+        // use a small ring so direct publishers reuse entries written by the topic publisher
+        RingBufferChannel channel = new RingBufferChannel(URI.create("channel"),
+                                                          4,
+                                                          new BlockingWaitStrategy(),
+                                                          ChannelSide.CONSUMER,
+                                                          Executors.newCachedThreadPool(),
+                                                          URI.create("test"));
+
+        MockConsumer topicConsumer = new MockConsumer(4);
+        MockConsumer defaultConsumer = new MockConsumer(4);
+        channel.subscribe(URI.create("topic"), createConsumerConnection(topicConsumer, "topic"));
+        channel.subscribe(URI.create("default"), createConsumerConnection(defaultConsumer, null));
+
+        PassThroughHandler topicProducer = new PassThroughHandler();
+        channel.attach(createProducerConnection(topicProducer, "topic"));
+
+        channel.start();
+
+        for (int i = 0; i < 4; i++) {
+            topicProducer.handle("topic" + i, true);
+        }
+        assertTrue(topicConsumer.latch.await(5, TimeUnit.SECONDS));
+
+        RingBuffer<RingBufferEvent> ring = Cast.cast(channel.getDirectConnection(null));
+        assertEquals("MULTI", channel.getProducerType());
+        for (int i = 0; i < 4; i++) {
+            long sequence = ring.next();
+            ring.get(sequence).setEvent("direct" + i);
+            ring.publish(sequence);
+        }
+        assertTrue(defaultConsumer.latch.await(5, TimeUnit.SECONDS));
+        channel.stop();
+
+        // events published directly go to the default topic regardless of the topic last published to the entry
+        assertEquals(4, topicConsumer.events.size());
+        assertEquals(4, defaultConsumer.events.size());
+        for (Object event : defaultConsumer.events) {
+            assertTrue(event.toString().startsWith("direct"));
+        }
+    }
+
+    public void testUnsubscribeHaltsProcessor() throws Exception {
+        ThreadPoolExecutor executorService = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+        RingBufferChannel channel = createChannel(executorService);
+
+        MockConsumer consumer = new MockConsumer(1);
+        channel.subscribe(URI.create("consumer"), createConsumerConnection(consumer, null));
+        PassThroughHandler producer = new PassThroughHandler();
+        channel.attach(producer);
+        channel.start();
+
+        producer.handle("event1", true);
+        assertTrue(consumer.latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, executorService.getActiveCount());
+
+        assertNotNull(channel.unsubscribe(URI.create("consumer"), null));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executorService.getActiveCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, executorService.getActiveCount());
+
+        // the ring buffer must not be gated by the removed consumer
+        for (int i = 0; i < 32; i++) {
+            producer.handle("event", true);
+        }
+        assertEquals(1, consumer.events.size());
+        assertEquals(0, channel.getConsumerCount());
+        channel.stop();
+    }
+
+    public void testLateProducerMigratesToMultiProducer() throws Exception {
+        RingBufferChannel channel = createChannel(Executors.newCachedThreadPool());
+
+        int count = 1000;
+        MockConsumer consumer = new MockConsumer(2 * count + 1);
+        channel.subscribe(URI.create("consumer"), createConsumerConnection(consumer, null));
+        PassThroughHandler producer1 = new PassThroughHandler();
+        channel.attach(producer1);
+        channel.start();
+        assertEquals("SINGLE", channel.getProducerType());
+
+        producer1.handle("event", true);
+
+        PassThroughHandler producer2 = new PassThroughHandler();
+        channel.attach(producer2);
+        assertEquals("MULTI", channel.getProducerType());
+
+        ExecutorService producers = Executors.newFixedThreadPool(2);
+        producers.execute(() -> {
+            for (int i = 0; i < count; i++) {
+                producer1.handle("event", true);
+            }
+        });
+        producers.execute(() -> {
+            for (int i = 0; i < count; i++) {
+                producer2.handle("event", true);
+            }
+        });
+
+        assertTrue(consumer.latch.await(10, TimeUnit.SECONDS));
+        producers.shutdown();
+        channel.stop();
+        assertEquals(2 * count + 1, consumer.events.size());
+    }
+
+    public void testDirectConnectionPublishesConcurrentlyWithProducer() throws Exception {
+        RingBufferChannel channel = createChannel(Executors.newCachedThreadPool());
+
+        int count = 1000;
+        MockConsumer consumer = new MockConsumer(2 * count);
+        channel.subscribe(URI.create("consumer"), createConsumerConnection(consumer, null));
+        PassThroughHandler producer = new PassThroughHandler();
+        channel.attach(producer);
+        channel.start();
+        assertEquals("SINGLE", channel.getProducerType());
+
+        RingBuffer<RingBufferEvent> ring = Cast.cast(channel.getDirectConnection(null));
+        assertEquals("MULTI", channel.getProducerType());
+
+        ExecutorService producers = Executors.newFixedThreadPool(2);
+        producers.execute(() -> {
+            for (int i = 0; i < count; i++) {
+                producer.handle("event", true);
+            }
+        });
+        producers.execute(() -> {
+            for (int i = 0; i < count; i++) {
+                long sequence = ring.next();
+                ring.get(sequence).setEvent("direct");
+                ring.publish(sequence);
+            }
+        });
+
+        assertTrue(consumer.latch.await(10, TimeUnit.SECONDS));
+        producers.shutdown();
+        channel.stop();
+        assertEquals(2 * count, consumer.events.size());
+    }
+
+    public void testLagAndUtilization() throws Exception {
+        RingBufferChannel channel = createChannel(Executors.newCachedThreadPool());
+
+        CountDownLatch block = new CountDownLatch(1);
+        MockConsumer consumer = new MockConsumer(10) {
+            public void handle(Object event, boolean endOfBatch) {
+                try {
+                    block.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.handle(event, endOfBatch);
+            }
+        };
+        channel.subscribe(URI.create("consumer"), createConsumerConnection(consumer, null));
+        PassThroughHandler producer = new PassThroughHandler();
+        channel.attach(producer);
+        channel.start();
+
+        for (int i = 0; i < 10; i++) {
+            producer.handle("event", true);
+        }
+        assertEquals(10, channel.getMaxConsumerLag());
+        assertEquals(10L, (long) channel.getConsumerLag().get("consumer"));
+        assertEquals(1014, channel.getRemainingCapacity());
+        assertEquals(10 * 100d / 1024, channel.getUtilization());
+
+        block.countDown();
+        assertTrue(consumer.latch.await(5, TimeUnit.SECONDS));
+        channel.stop();
+        assertEquals(0, channel.getMaxConsumerLag());
+        assertEquals(0d, channel.getUtilization());
+    }
+
+    private RingBufferChannel createChannel(ExecutorService executorService) {
+        return new RingBufferChannel(URI.create("channel"), 1024, new BlockingWaitStrategy(), ChannelSide.CONSUMER, executorService, URI.create("test"));
+    }
+
+    private ChannelConnection createConsumerConnection(EventStreamHandler consumer, String topic) {
+        EventStream stream = EasyMock.createMock(EventStream.class);
+        EasyMock.expect(stream.getEventType()).andReturn(Cast.cast(Object.class)).anyTimes();
+        EasyMock.expect(stream.getHeadHandler()).andReturn(consumer).anyTimes();
+
+        ChannelConnection connection = EasyMock.createMock(ChannelConnection.class);
+        EasyMock.expect(connection.getSequence()).andReturn(0).anyTimes();
+        EasyMock.expect(connection.getTopic()).andReturn(topic).anyTimes();
+        EasyMock.expect(connection.getEventStream()).andReturn(stream).anyTimes();
+        EasyMock.replay(connection, stream);
+        return connection;
+    }
+
+    private ChannelConnection createProducerConnection(EventStreamHandler tail, String topic) {
+        EventStream stream = EasyMock.createMock(EventStream.class);
+        EasyMock.expect(stream.getTailHandler()).andReturn(tail).anyTimes();
+
+        ChannelConnection connection = EasyMock.createMock(ChannelConnection.class);
+        EasyMock.expect(connection.getTopic()).andReturn(topic).anyTimes();
+        EasyMock.expect(connection.getEventStream()).andReturn(stream).anyTimes();
+        EasyMock.replay(connection, stream);
+        return connection;
+    }
+
     private class MockConsumer implements EventStreamHandler {
-        private CountDownLatch latch = new CountDownLatch(2);
+        private CountDownLatch latch;
+        private List<Object> events = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean lastEndOfBatch;
+
+        public MockConsumer() {
+            this(2);
+        }
+
+        public MockConsumer(int count) {
+            latch = new CountDownLatch(count);
+        }
 
         public void handle(Object event, boolean endOfBatch) {
+            events.add(event);
+            lastEndOfBatch = endOfBatch;
             latch.countDown();
         }
 
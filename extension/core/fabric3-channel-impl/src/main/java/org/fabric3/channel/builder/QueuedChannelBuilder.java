@@ -0,0 +1,63 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.channel.builder;
+
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.api.model.type.component.QueuedChannelData;
+import org.fabric3.channel.impl.DefaultChannelImpl;
+import org.fabric3.channel.impl.QueuedFanOutHandler;
+import org.fabric3.spi.container.builder.ChannelBuilder;
+import org.fabric3.spi.container.channel.Channel;
+import org.fabric3.spi.model.physical.PhysicalChannel;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Creates and disposes channels that dispatch events to each consumer through a dedicated queue. Unlike default channels, queued channels remain asynchronous
+ * when bound since the type is selected explicitly.
+ */
+public class QueuedChannelBuilder implements ChannelBuilder {
+
+    private ExecutorService executorService;
+
+    public QueuedChannelBuilder(@Reference(name = "executorService") ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    public Channel build(PhysicalChannel physicalChannel) throws Fabric3Exception {
+        URI uri = physicalChannel.getUri();
+        URI contributionUri = physicalChannel.getContributionUri();
+
+        QueuedChannelData data = physicalChannel.getMetadata(QueuedChannelData.class);
+        if (data == null) {
+            data = new QueuedChannelData();
+        }
+        int queueSize = data.getQueueSize();
+        int batchSize = data.getBatchSize();
+        if (queueSize < 1 || batchSize < 1) {
+            throw new Fabric3Exception("Queue and batch sizes must be greater than 0 for channel: " + uri);
+        }
+        return new DefaultChannelImpl(uri, physicalChannel.getChannelSide(), contributionUri, () -> new QueuedFanOutHandler(executorService, queueSize, batchSize));
+    }
+
+    public void dispose(PhysicalChannel physicalChannel, Channel channel) throws Fabric3Exception {
+        // no-op
+    }
+
+}
@@ -34,7 +34,8 @@ public abstract class AbstractFanOutHandler implements FanOutHandler {
     protected Map<URI, ChannelConnection> connectionMap = new HashMap<>();
     protected Map<URI, AtomicInteger> counterMap = new HashMap<>();
 
-    protected ChannelConnection[] connections = new ChannelConnection[0];
+    // replaced on each change and read without locking when events are dispatched
+    protected volatile ChannelConnection[] connections = new ChannelConnection[0];
 
     public synchronized void addConnection(URI uri, ChannelConnection connection) {
         AtomicInteger count = counterMap.get(uri);
@@ -20,6 +20,7 @@ import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.spi.container.channel.Channel;
@@ -33,31 +34,41 @@ import org.fabric3.spi.model.physical.ChannelSide;
  * The default Channel implementation.
  *
  * This implementation supports topics. Handlers are organized by topic name to ensure events are received and sent on the appropriate topic.
+ *
+ * Events are broadcast to consumers by a {@link FanOutHandler} created for each topic, which determines whether events are dispatched synchronously, through
+ * the runtime executor, or through a queue per consumer.
  */
 public class DefaultChannelImpl implements Channel {
     private URI uri;
     private URI contributionUri;
-    private ExecutorService executorService;
+    private Supplier<FanOutHandler> fanOutFactory;
     private final ChannelSide channelSide;
 
     private TopicHandlers defaultTopicHandlers;
     private Map<String, TopicHandlers> handlerMap = new HashMap<>();   // map of topics to handlers
 
     public DefaultChannelImpl(URI uri, ChannelSide channelSide, URI contributionUri) {
-        this.uri = uri;
-        this.channelSide = channelSide;
-        this.contributionUri = contributionUri;
-        SyncFanOutHandler fanOutHandler = new SyncFanOutHandler();
-        defaultTopicHandlers = new TopicHandlers(fanOutHandler, null);
+        this(uri, channelSide, contributionUri, SyncFanOutHandler::new);
     }
 
     public DefaultChannelImpl(URI uri, ChannelSide channelSide, URI contributionUri, ExecutorService executorService) {
+        this(uri, channelSide, contributionUri, () -> new AsyncFanOutHandler(executorService));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param uri             the channel uri
+     * @param channelSide     the channel side
+     * @param contributionUri the contribution the channel is provisioned for
+     * @param fanOutFactory   creates the fan out handler for each topic
+     */
+    public DefaultChannelImpl(URI uri, ChannelSide channelSide, URI contributionUri, Supplier<FanOutHandler> fanOutFactory) {
         this.uri = uri;
         this.channelSide = channelSide;
         this.contributionUri = contributionUri;
-        this.executorService = executorService;
-        AsyncFanOutHandler fanOutHandler = new AsyncFanOutHandler(executorService);
-        defaultTopicHandlers = new TopicHandlers(fanOutHandler, null);
+        this.fanOutFactory = fanOutFactory;
+        defaultTopicHandlers = new TopicHandlers(fanOutFactory.get(), null);
     }
 
     public URI getUri() {
@@ -146,7 +157,7 @@ public class DefaultChannelImpl implements Channel {
         TopicHandlers topicHandlers = handlerMap.get(topic);
         if (topicHandlers == null) {
             if (create) {
-                FanOutHandler fanOutHandler = executorService != null ? new AsyncFanOutHandler(executorService) : new SyncFanOutHandler();
+                FanOutHandler fanOutHandler = fanOutFactory.get();
                 topicHandlers = new TopicHandlers(fanOutHandler, topic);
                 handlerMap.put(topic, topicHandlers);
             } else {
@@ -0,0 +1,152 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.channel.impl;
+
+import java.net.URI;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import org.fabric3.spi.container.channel.ChannelConnection;
+import org.fabric3.spi.container.channel.EventStreamHandler;
+
+/**
+ * Asynchronously broadcasts a received event to a collection of handlers through a bounded queue per connection.
+ *
+ * Each connection has a worker that drains its queue in batches, setting the end-of-batch marker on the last event taken before the queue is empty or the batch
+ * size is reached. A worker is only scheduled when its queue transitions from idle, so at most one worker runs per connection and events are delivered to each
+ * connection in the order they were published. Publishing an event does not allocate or acquire a lock; if a queue is full, the producer waits until the
+ * worker has made space.
+ */
+public class QueuedFanOutHandler extends AbstractFanOutHandler {
+    private static final long WAIT_NANOS = 1000;
+
+    private ExecutorService executorService;
+    private int queueSize;
+    private int batchSize;
+
+    private volatile Subscriber[] subscribers = new Subscriber[0];
+
+    /**
+     * Constructor.
+     *
+     * @param executorService the executor for running connection workers
+     * @param queueSize       the capacity of each connection queue
+     * @param batchSize       the maximum number of events dispatched by a worker before it is rescheduled
+     */
+    public QueuedFanOutHandler(ExecutorService executorService, int queueSize, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        this.executorService = executorService;
+        this.queueSize = queueSize;
+        this.batchSize = batchSize;
+    }
+
+    public synchronized void addConnection(URI uri, ChannelConnection connection) {
+        super.addConnection(uri, connection);
+        updateSubscribers();
+    }
+
+    public synchronized ChannelConnection removeConnection(URI uri) {
+        ChannelConnection connection = super.removeConnection(uri);
+        updateSubscribers();
+        return connection;
+    }
+
+    public void handle(Object event, boolean endOfBatch) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Publishes a new subscriber array, retaining the queues of connections that are still registered.
+     */
+    private void updateSubscribers() {
+        Map<ChannelConnection, Subscriber> existing = new IdentityHashMap<>();
+        for (Subscriber subscriber : subscribers) {
+            existing.put(subscriber.connection, subscriber);
+        }
+        Subscriber[] updated = new Subscriber[connections.length];
+        for (int i = 0; i < connections.length; i++) {
+            Subscriber subscriber = existing.get(connections[i]);
+            updated[i] = subscriber != null ? subscriber : new Subscriber(connections[i]);
+        }
+        subscribers = updated;
+    }
+
+    private class Subscriber implements Runnable {
+        private ChannelConnection connection;
+        private SubscriberQueue queue;
+        private AtomicBoolean scheduled = new AtomicBoolean();
+
+        // an event taken from the queue but not dispatched because the handler for the previous event failed; only accessed by the worker
+        private Object carried;
+
+        public Subscriber(ChannelConnection connection) {
+            this.connection = connection;
+            this.queue = new SubscriberQueue(queueSize);
+        }
+
+        public void offer(Object event) {
+            while (!queue.offer(event)) {
+                // the queue is full: make sure the worker is running and wait for space
+                schedule();
+                LockSupport.parkNanos(WAIT_NANOS);
+            }
+            schedule();
+        }
+
+        public void run() {
+            try {
+                EventStreamHandler handler = connection.getEventStream().getHeadHandler();
+                Object event = carried != null ? carried : queue.poll();
+                carried = null;
+                int count = 0;
+                while (event != null) {
+                    count++;
+                    Object next = count < batchSize ? queue.poll() : null;
+                    carried = next;
+                    handler.handle(event, next == null);
+                    carried = null;
+                    event = next;
+                }
+            } finally {
+                scheduled.set(false);
+                // reschedule if the batch size was reached or events were queued after the last poll
+                if (carried != null || !queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        private void schedule() {
+            if (!scheduled.get() && scheduled.compareAndSet(false, true)) {
+                try {
+                    executorService.execute(this);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.channel.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free queue for multiple producers and a single consumer backed by a pre-allocated array. Producers claim a slot by advancing the producer
+ * index and then publish the event to the slot; the consumer clears slots as it takes events so they can be reused. No allocation is performed when events are
+ * offered or taken.
+ */
+public class SubscriberQueue {
+    private final AtomicReferenceArray<Object> buffer;
+    private final int mask;
+    private final int capacity;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param size the queue capacity, rounded up to the next power of two
+     */
+    public SubscriberQueue(int size) {
+        int normalized = 1;
+        while (normalized < size) {
+            normalized <<= 1;
+        }
+        capacity = normalized;
+        mask = normalized - 1;
+        buffer = new AtomicReferenceArray<>(normalized);
+    }
+
+    /**
+     * Adds an event to the queue. May be called by multiple threads.
+     *
+     * @param event the event
+     * @return true if the event was added or false if the queue is full
+     */
+    public boolean offer(Object event) {
+        while (true) {
+            long index = producerIndex.get();
+            if (index - consumerIndex.get() >= capacity) {
+                return false;
+            }
+            if (producerIndex.compareAndSet(index, index + 1)) {
+                buffer.lazySet((int) index & mask, event);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes the next event from the queue. Must only be called by the consumer.
+     *
+     * @return the event or null if the queue is empty
+     */
+    public Object poll() {
+        long index = consumerIndex.get();
+        int offset = (int) index & mask;
+        Object event = buffer.get(offset);
+        if (event == null) {
+            if (index == producerIndex.get()) {
+                return null;
+            }
+            // a producer has claimed the slot but not yet published the event
+            do {
+                event = buffer.get(offset);
+            } while (event == null);
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return event;
+    }
+
+    /**
+     * Returns true if the queue is empty.
+     *
+     * @return true if the queue is empty
+     */
+    public boolean isEmpty() {
+        return consumerIndex.get() == producerIndex.get();
+    }
+
+    /**
+     * Returns the number of queued events.
+     *
+     * @return the number of queued events
+     */
+    public int size() {
+        return (int) (producerIndex.get() - consumerIndex.get());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.channel.introspection;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamReader;
+
+import org.fabric3.api.model.type.component.Channel;
+import org.fabric3.api.model.type.component.QueuedChannelData;
+import org.fabric3.spi.introspection.IntrospectionContext;
+import org.fabric3.spi.introspection.xml.ChannelTypeLoader;
+import org.fabric3.spi.introspection.xml.InvalidValue;
+import org.oasisopen.sca.annotation.EagerInit;
+
+/**
+ * Loads configuration for queued channels.
+ */
+@EagerInit
+public class QueuedChannelTypeLoader implements ChannelTypeLoader {
+    private static final String QUEUE_SIZE = "queue.size";
+    private static final String BATCH_SIZE = "batch.size";
+
+    private static final String[] ATTRIBUTES = new String[]{QUEUE_SIZE, BATCH_SIZE};
+
+    public String[] getAttributes() {
+        return ATTRIBUTES;
+    }
+
+    public void load(Channel definition, XMLStreamReader reader, IntrospectionContext context) {
+        Location startLocation = reader.getLocation();
+
+        QueuedChannelData data = new QueuedChannelData();
+
+        int queueSize = parseSize(definition, reader, startLocation, QUEUE_SIZE, "Invalid queue size: ", data.getQueueSize(), context);
+        data.setQueueSize(queueSize);
+
+        int batchSize = parseSize(definition, reader, startLocation, BATCH_SIZE, "Invalid batch size: ", data.getBatchSize(), context);
+        data.setBatchSize(batchSize);
+
+        definition.setMetadata(data);
+    }
+
+    private int parseSize(Channel definition,
+                          XMLStreamReader reader,
+                          Location startLocation,
+                          String attributeName,
+                          String errorText,
+                          int defaultValue,
+                          IntrospectionContext context) {
+        String valueStr = reader.getAttributeValue(null, attributeName);
+        int value = defaultValue;
+        if (valueStr != null) {
+            try {
+                value = Integer.parseInt(valueStr);
+                if (value < 1) {
+                    context.addError(new InvalidValue(errorText + valueStr, startLocation, definition));
+                    value = defaultValue;
+                }
+            } catch (NumberFormatException e) {
+                context.addError(new InvalidValue(errorText + valueStr, startLocation, definition));
+            }
+        }
+        return value;
+    }
+}
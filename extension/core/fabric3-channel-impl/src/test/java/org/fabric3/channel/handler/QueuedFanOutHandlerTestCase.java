@@ -0,0 +1,173 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.channel.handler;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.channel.impl.QueuedFanOutHandler;
+import org.fabric3.spi.container.channel.ChannelConnection;
+import org.fabric3.spi.container.channel.EventStream;
+import org.fabric3.spi.container.channel.EventStreamHandler;
+
+/**
+ *
+ */
+public class QueuedFanOutHandlerTestCase extends TestCase {
+
+    public void testBurstScheduledOnce() throws Exception {
+        List<Runnable> tasks = new ArrayList<>();
+        ExecutorService executorService = EasyMock.createMock(ExecutorService.class);
+        executorService.execute(EasyMock.isA(Runnable.class));
+        EasyMock.expectLastCall().andAnswer(() -> tasks.add((Runnable) EasyMock.getCurrentArguments()[0])).times(2);
+        EasyMock.replay(executorService);
+
+        QueuedFanOutHandler handler = new QueuedFanOutHandler(executorService, 16, 16);
+        RecordingHandler handler1 = new RecordingHandler(3);
+        RecordingHandler handler2 = new RecordingHandler(3);
+        handler.addConnection(URI.create("connection1"), createConnection(handler1));
+        handler.addConnection(URI.create("connection2"), createConnection(handler2));
+
+        handler.handle("1", true);
+        handler.handle("2", true);
+        handler.handle("3", true);
+
+        // one worker per connection for the burst
+        assertEquals(2, tasks.size());
+        tasks.forEach(Runnable::run);
+
+        assertEquals(Collections.singletonList(3), handler1.batches);
+        assertEquals(Collections.singletonList(3), handler2.batches);
+        assertEquals(3, handler1.events.size());
+        assertEquals("3", handler1.events.get(2));
+        EasyMock.verify(executorService);
+    }
+
+    public void testBatchSize() throws Exception {
+        List<Runnable> tasks = new ArrayList<>();
+        ExecutorService executorService = EasyMock.createMock(ExecutorService.class);
+        executorService.execute(EasyMock.isA(Runnable.class));
+        EasyMock.expectLastCall().andAnswer(() -> tasks.add((Runnable) EasyMock.getCurrentArguments()[0])).anyTimes();
+        EasyMock.replay(executorService);
+
+        QueuedFanOutHandler handler = new QueuedFanOutHandler(executorService, 16, 2);
+        RecordingHandler recording = new RecordingHandler(5);
+        handler.addConnection(URI.create("connection"), createConnection(recording));
+
+        for (int i = 0; i < 5; i++) {
+            handler.handle(i, false);
+        }
+        // the worker reschedules itself when the batch size is reached
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+
+        assertEquals(5, recording.events.size());
+        assertEquals(3, recording.batches.size());
+        assertEquals(2, recording.batches.get(0).intValue());
+        assertEquals(2, recording.batches.get(1).intValue());
+        assertEquals(1, recording.batches.get(2).intValue());
+    }
+
+    public void testOrderedDeliveryWithBackpressure() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            int count = 10000;
+            QueuedFanOutHandler handler = new QueuedFanOutHandler(executorService, 8, 4);
+            RecordingHandler handler1 = new RecordingHandler(count);
+            RecordingHandler handler2 = new RecordingHandler(count);
+            handler.addConnection(URI.create("connection1"), createConnection(handler1));
+            handler.addConnection(URI.create("connection2"), createConnection(handler2));
+
+            for (int i = 0; i < count; i++) {
+                handler.handle(i, true);
+            }
+
+            assertTrue(handler1.latch.await(10, TimeUnit.SECONDS));
+            assertTrue(handler2.latch.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, handler1.events.get(i));
+                assertEquals(i, handler2.events.get(i));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    public void testRemoveConnection() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            QueuedFanOutHandler handler = new QueuedFanOutHandler(executorService, 16, 16);
+            RecordingHandler handler1 = new RecordingHandler(2);
+            RecordingHandler handler2 = new RecordingHandler(1);
+            handler.addConnection(URI.create("connection1"), createConnection(handler1));
+            handler.addConnection(URI.create("connection2"), createConnection(handler2));
+
+            handler.handle("1", true);
+            assertTrue(handler2.latch.await(10, TimeUnit.SECONDS));
+
+            handler.removeConnection(URI.create("connection2"));
+            handler.handle("2", true);
+            assertTrue(handler1.latch.await(10, TimeUnit.SECONDS));
+
+            assertEquals(2, handler1.events.size());
+            assertEquals(1, handler2.events.size());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private ChannelConnection createConnection(EventStreamHandler handler) {
+        EventStream stream = EasyMock.createMock(EventStream.class);
+        EasyMock.expect(stream.getHeadHandler()).andReturn(handler).anyTimes();
+
+        ChannelConnection connection = EasyMock.createMock(ChannelConnection.class);
+        EasyMock.expect(connection.getEventStream()).andReturn(stream).anyTimes();
+        EasyMock.replay(stream, connection);
+        return connection;
+    }
+
+    private static class RecordingHandler implements EventStreamHandler {
+        private List<Object> events = Collections.synchronizedList(new ArrayList<>());
+        private List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+        private CountDownLatch latch;
+        private int current;
+
+        public RecordingHandler(int expected) {
+            latch = new CountDownLatch(expected);
+        }
+
+        public void handle(Object event, boolean endOfBatch) {
+            events.add(event);
+            current++;
+            if (endOfBatch) {
+                batches.add(current);
+                current = 0;
+            }
+            latch.countDown();
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ package org.fabric3.transport.jetty.impl;
 
 import javax.servlet.Servlet;
 import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
 import java.io.File;
 import java.io.IOException;
 import java.net.InetAddress;
@@ -464,6 +465,11 @@ public class JettyServiceImpl implements JettyService, Transport {
 
     public synchronized void registerMapping(String path, Servlet servlet) {
         ServletHolder holder = new ManagedServletHolder(servlet);
+        WebServlet annotation = servlet.getClass().getAnnotation(WebServlet.class);
+        if (annotation != null && annotation.asyncSupported()) {
+            // servlets that suspend requests must be marked as async-capable, otherwise Jetty rejects calls to startAsync()
+            holder.setAsyncSupported(true);
+        }
         servletHandler.addServlet(holder);
         ServletMapping mapping = new ServletMapping();
         mapping.setServletName(holder.getName());
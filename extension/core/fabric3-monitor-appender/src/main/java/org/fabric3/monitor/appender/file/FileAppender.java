@@ -17,87 +17,147 @@
 package org.fabric3.monitor.appender.file;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 import org.fabric3.api.host.Fabric3Exception;
-import org.fabric3.api.host.util.FileHelper;
 import org.fabric3.monitor.spi.appender.Appender;
 
 /**
  * Writes monitor events to a file that may be rolled periodically according to a {@link RollStrategy}.
+ *
+ * Events are combined in a direct buffer until the end of a batch is reached and then written to the file channel in a single call. Events larger than the
+ * buffer are written together with the buffered events using a gathering write. The file size is tracked in memory so that checking for a roll does not
+ * query the file system, and files are rolled by renaming them.
  */
 public class FileAppender implements Appender {
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
     private File file;
     private RollStrategy strategy;
-    private FileOutputStream stream;
     private FileChannel fileChannel;
 
     private boolean reliable;
 
+    private ByteBuffer writeBuffer;
+    private ByteBuffer[] gather = new ByteBuffer[2];
+    private long size;
+
     public FileAppender(File file, RollStrategy strategy, boolean reliable) {
+        this(file, strategy, reliable, DEFAULT_BUFFER_SIZE);
+    }
+
+    public FileAppender(File file, RollStrategy strategy, boolean reliable, int bufferSize) {
         this.file = file;
         this.strategy = strategy;
         this.reliable = reliable;
+        this.writeBuffer = ByteBuffer.allocateDirect(bufferSize);
     }
 
-    public void start() {
+    public synchronized void start() {
         initializeChannel();
     }
 
-    public void stop() {
+    public synchronized void stop() {
         try {
-            if (stream != null) {
-                stream.close();
-                stream = null;
+            if (fileChannel != null) {
+                flush(null);
+                fileChannel.close();
+                fileChannel = null;
             }
         } catch (IOException e) {
             throw new Fabric3Exception(e);
         }
     }
 
-    public synchronized void write(ByteBuffer buffer) {
+    public void write(ByteBuffer buffer) {
+        write(buffer, true);
+    }
+
+    public synchronized void write(ByteBuffer buffer, boolean endOfBatch) {
         try {
             roll();
-            fileChannel.write(buffer);
-            if (reliable) {
-                fileChannel.force(false);
-            }
-        } catch (ClosedChannelException cce) {
-            try {
-                initializeChannel();
-                fileChannel.write(buffer);
-                if (reliable) {
-                    fileChannel.force(false);
+            int length = buffer.remaining();
+            size += length;
+            if (length > writeBuffer.remaining()) {
+                if (length > writeBuffer.capacity()) {
+                    // the event does not fit in the buffer, write it together with the buffered events
+                    flush(buffer);
+                    return;
                 }
-            } catch (IOException ioe) {
-                throw new Fabric3Exception(ioe);
+                flush(null);
+            }
+            writeBuffer.put(buffer);
+            if (endOfBatch || reliable) {
+                flush(null);
             }
         } catch (IOException e) {
             throw new Fabric3Exception(e);
         }
     }
 
+    /**
+     * Writes the buffered events and an optional additional event to the file.
+     *
+     * @param buffer the additional event or null
+     * @throws IOException if there is an error writing to the file
+     */
+    private void flush(ByteBuffer buffer) throws IOException {
+        writeBuffer.flip();
+        if (!writeBuffer.hasRemaining() && buffer == null) {
+            writeBuffer.clear();
+            return;
+        }
+        try {
+            doWrite(buffer);
+        } catch (ClosedChannelException e) {
+            initializeChannel();
+            doWrite(buffer);
+        }
+        writeBuffer.clear();
+    }
+
+    private void doWrite(ByteBuffer buffer) throws IOException {
+        if (buffer == null) {
+            while (writeBuffer.hasRemaining()) {
+                fileChannel.write(writeBuffer);
+            }
+        } else {
+            gather[0] = writeBuffer;
+            gather[1] = buffer;
+            try {
+                while (buffer.hasRemaining()) {
+                    fileChannel.write(gather);
+                }
+            } finally {
+                gather[1] = null;
+            }
+        }
+        if (reliable) {
+            fileChannel.force(false);
+        }
+    }
+
     private void initializeChannel() {
         try {
-            stream = new FileOutputStream(file, true);
-            fileChannel = stream.getChannel();
-        } catch (FileNotFoundException e) {
+            fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            size = fileChannel.size();
+        } catch (IOException e) {
             throw new Fabric3Exception(e);
         }
     }
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     private void roll() throws IOException {
-        if (strategy.checkRoll(file)) {
-            stream.close();
+        if (strategy.checkRoll(file, size)) {
+            flush(null);
+            fileChannel.close();
             File backup = strategy.getBackup(file);
-            FileHelper.copyFile(file, backup);
-            file.delete();
+            Files.move(file.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
             initializeChannel();
         }
     }
@@ -23,7 +23,7 @@ import java.io.File;
  */
 public class NoRollStrategy implements RollStrategy {
 
-    public boolean checkRoll(File file) {
+    public boolean checkRoll(File file, long size) {
         return false;
     }
 
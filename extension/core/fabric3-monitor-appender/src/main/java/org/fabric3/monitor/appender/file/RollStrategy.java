@@ -27,9 +27,10 @@ public interface RollStrategy {
      * Returns true if the file should be rolled.
      *
      * @param file the file to check
-     * @return tr
+     * @param size the current size of the file in bytes, tracked by the caller so that the file system does not need to be queried
+     * @return true if the file should be rolled
      */
-    boolean checkRoll(File file);
+    boolean checkRoll(File file, long size);
 
     /**
      * Returns the file to backup the existing rolling file to.
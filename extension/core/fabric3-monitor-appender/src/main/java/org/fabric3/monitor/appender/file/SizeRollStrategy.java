@@ -37,8 +37,8 @@ public class SizeRollStrategy implements RollStrategy {
         this.maxBackups = maxBackups;
     }
 
-    public boolean checkRoll(File file) {
-        return (file.length() >= size);
+    public boolean checkRoll(File file, long size) {
+        return (size >= this.size);
     }
 
     public File getBackup(File file) {
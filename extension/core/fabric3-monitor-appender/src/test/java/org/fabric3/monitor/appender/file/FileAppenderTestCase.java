@@ -18,6 +18,7 @@ package org.fabric3.monitor.appender.file;
 
 import java.io.File;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
 
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
@@ -32,7 +33,7 @@ public class FileAppenderTestCase extends TestCase {
 
     public void testRollFile() throws Exception {
         RollStrategy strategy = EasyMock.createMock(RollStrategy.class);
-        EasyMock.expect(strategy.checkRoll(file)).andReturn(true);
+        EasyMock.expect(strategy.checkRoll(EasyMock.eq(file), EasyMock.anyLong())).andReturn(true);
         EasyMock.expect(strategy.getBackup(file)).andReturn(backup);
         EasyMock.replay(strategy);
 
@@ -48,6 +49,46 @@ public class FileAppenderTestCase extends TestCase {
         }
     }
 
+    public void testCombineBatch() throws Exception {
+        FileAppender appender = new FileAppender(file, new NoRollStrategy(), false, 16);
+        try {
+            appender.start();
+
+            appender.write(ByteBuffer.wrap("1234".getBytes()), false);
+            appender.write(ByteBuffer.wrap("5678".getBytes()), false);
+            assertEquals(0, file.length());
+
+            appender.write(ByteBuffer.wrap("90".getBytes()), true);
+            assertEquals(10, file.length());
+
+            // larger than the buffer
+            appender.write(ByteBuffer.wrap("ab".getBytes()), false);
+            appender.write(ByteBuffer.wrap("cdefghijklmnopqrstuvwxyz".getBytes()), false);
+            assertEquals(36, file.length());
+            assertEquals("1234567890abcdefghijklmnopqrstuvwxyz", new String(Files.readAllBytes(file.toPath())));
+        } finally {
+            appender.stop();
+        }
+    }
+
+    public void testRollOnTrackedSize() throws Exception {
+        FileAppender appender = new FileAppender(file, new SizeRollStrategy(10, -1), false);
+        try {
+            appender.start();
+            appender.write(ByteBuffer.wrap("1234567890".getBytes()), true);
+            appender.write(ByteBuffer.wrap("abc".getBytes()), true);
+            assertEquals(3, file.length());
+            File rolled = new File("f3rolling1.log");
+            try {
+                assertEquals("1234567890", new String(Files.readAllBytes(rolled.toPath())));
+            } finally {
+                rolled.delete();
+            }
+        } finally {
+            appender.stop();
+        }
+    }
+
     public void setUp() throws Exception {
         super.setUp();
         file = new File("f3rolling.log");
@@ -32,7 +32,7 @@ public class SizeRollStrategyTestCase extends TestCase {
 
     public void testTriggerRoll() throws Exception {
         SizeRollStrategy strategy = new SizeRollStrategy(10, -1);
-        assertTrue(strategy.checkRoll(logFile));
+        assertTrue(strategy.checkRoll(logFile, logFile.length()));
     }
 
     public void testMaxBackups() throws Exception {
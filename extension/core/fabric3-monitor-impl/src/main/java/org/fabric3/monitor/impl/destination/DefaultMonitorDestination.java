@@ -37,6 +37,8 @@ public class DefaultMonitorDestination implements MonitorDestination {
     private Appender[] appenders;
     private int capacity;
 
+    private ThreadLocal<PooledBuffer> pooledBuffers = ThreadLocal.withInitial(PooledBuffer::new);
+
     public DefaultMonitorDestination(String name, EventWriter eventWriter, int capacity, List<Appender> appenders) {
         this.name = name;
         this.eventWriter = eventWriter;
@@ -71,21 +73,42 @@ public class DefaultMonitorDestination implements MonitorDestination {
         count++;
 
         buffer.limit(count);
-        write(buffer);
+        write(buffer, entry.isEndOfBatch());
     }
 
     public void write(MonitorLevel level, long timestamp, String source, String template, Object... args) {
-        ByteBuffer buffer = ByteBuffer.allocate(capacity);
-        ResizableByteBuffer wrapper = new ResizableByteBuffer(buffer);
-        eventWriter.write(level, timestamp, template, wrapper, args);
-        write(wrapper);
+        PooledBuffer pooled = pooledBuffers.get();
+        if (pooled.inUse) {
+            // re-entrant call on this thread, e.g. from an argument toString() that writes an event
+            ResizableByteBuffer wrapper = new ResizableByteBuffer(ByteBuffer.allocate(capacity));
+            eventWriter.write(level, timestamp, template, wrapper, args);
+            write(wrapper, true);
+            return;
+        }
+        pooled.inUse = true;
+        try {
+            ResizableByteBuffer wrapper = pooled.buffer;
+            wrapper.clear();
+            eventWriter.write(level, timestamp, template, wrapper, args);
+            write(wrapper, true);
+        } finally {
+            pooled.inUse = false;
+        }
     }
 
-    private void write(ResizableByteBuffer buffer)  {
+    private void write(ResizableByteBuffer buffer, boolean endOfBatch) {
         for (Appender appender : appenders) {
             buffer.position(0);
-            appender.write(buffer.getByteBuffer());
+            appender.write(buffer.getByteBuffer(), endOfBatch);
         }
     }
 
+    /**
+     * A per-thread buffer used to format events written synchronously.
+     */
+    private class PooledBuffer {
+        private ResizableByteBuffer buffer = new ResizableByteBuffer(ByteBuffer.allocateDirect(capacity));
+        private boolean inUse;
+    }
+
 }
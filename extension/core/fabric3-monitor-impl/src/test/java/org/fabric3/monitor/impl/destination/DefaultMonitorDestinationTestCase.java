@@ -49,7 +49,7 @@ public class DefaultMonitorDestinationTestCase extends TestCase {
 
         Appender appender = EasyMock.createMock(Appender.class);
         appender.start();
-        appender.write(EasyMock.isA(ByteBuffer.class));
+        appender.write(EasyMock.isA(ByteBuffer.class), EasyMock.eq(false));
         appender.stop();
 
         EasyMock.replay(eventWriter, appender);
@@ -47,4 +47,16 @@ public interface Appender {
      */
     void write(ByteBuffer buffer) throws Fabric3Exception;
 
+    /**
+     * Writes an event that is part of a batch to the sink. Appenders may defer writing events until the end of the batch is reached so they can be
+     * combined. The default implementation writes the event immediately.
+     *
+     * @param buffer     the event buffer. The buffer contents may be overwritten when this method returns.
+     * @param endOfBatch true if the event is the last one in the batch
+     * @throws Fabric3Exception if a write error occurs
+     */
+    default void write(ByteBuffer buffer, boolean endOfBatch) throws Fabric3Exception {
+        write(buffer);
+    }
+
 }
@@ -8,6 +8,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
@@ -46,6 +47,11 @@ import org.oasisopen.sca.annotation.Reference;
  *
  * Configuration entries are placed under {@code [domain]/configuration/}.
  *
+ * The contents of the {@code [domain]} directory are cached locally so that entries and configuration values are read without network I/O. The cache is
+ * populated with a recursive snapshot when the agent is initialized and kept current by watching from the index following the snapshot, which guarantees
+ * changes made between watch requests are received. If etcd has cleared the events for the watch index, a new snapshot is taken and the differences are
+ * dispatched to listeners.
+ *
  * This implementation also supports leader election based on the ZooKeeper algorithm described here:
  *
  * https://zookeeper.apache.org/doc/trunk/recipes.html#sc_leaderElection
@@ -85,6 +91,10 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
     private ObjectMapper mapper;
     private int index;
 
+    private Map<String, String> cache = new ConcurrentHashMap<>(); // etcd key to value for all keys under the domain directory
+    private volatile long watchIndex;
+    private volatile boolean synced;
+
     private Map<String, List<BiConsumer<EntryChange, ServiceEntry>>> serviceListeners = new HashMap<>(); // service name to listeners
     private Map<String, List<BiConsumer<EntryChange, ChannelEntry>>> channelListeners = new HashMap<>(); // channel name to listeners
     private List<Consumer<Boolean>> leaderListeners = new ArrayList<>();
@@ -122,6 +132,9 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
         mapper = new ObjectMapper();
         pinnedAddress = getAddress();
 
+        // load the snapshot before the component is used so entries are available immediately; if etcd is not available, it will be retried by the watch
+        synced = synchronize(false);
+
         if (RuntimeMode.NODE == info.getRuntimeMode() && leaderElectionEnabled) {
             // only enable leader election on node runtime
             createLeaderEntry();
@@ -210,36 +223,8 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
         }
     }
 
-    @SuppressWarnings("unchecked")
     public String getValue(String key) {
-        String address = pinnedAddress;
-        while (true) {
-            try {
-                Request request = new Request.Builder().url(address + V2_KEYS + authority + "/configuration/" + key).build();
-                Response response = client.newCall(request).execute();
-                if (!response.isSuccessful()) {
-                    monitor.debug("Response retrieving configuration {0}: {1}", key, response.code());
-                    return null;
-                }
-                Map<String, Object> body = mapper.readValue(response.body().string(), Map.class);
-                Map<String, Object> node = (Map<String, Object>) body.get("node");
-                if (node == null) {
-                    monitor.severe("Error retrieving configuration from etcd for: {0}. Node property not found.", key);
-                    return null;
-                }
-                return (String) node.get("value");
-            } catch (IOException e) {
-                monitor.severe("Error retrieving configuration from etcd for: {0}. Trying next etcd instance.", key, e);
-                synchronized (this) {
-                    pinnedAddress = getAddress();
-                    if (pinnedAddress.equals(address)) {
-                        // all of the available addresses have been recycled
-                        monitor.severe("No available etcd instance retrieving configuration for: {0}", key);
-                        return null;
-                    }
-                }
-            }
-        }
+        return cache.get(prefixConfigurationKey(key));
     }
 
     public void registerListener(String key, Consumer<String> listener) {
@@ -260,39 +245,38 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
     }
 
     /**
-     * Listens for changes to etcd keys and notifies registered listeners.
+     * Listens for changes to etcd keys, applies them to the local cache and notifies registered listeners. Each watch request resumes from the index following
+     * the last change received so that changes made between requests are not lost.
      */
-    @SuppressWarnings({"unchecked", "StatementWithEmptyBody"})
+    @SuppressWarnings("unchecked")
     private void changeListenerTask() {
         while (active) {
             try {
+                if (!synced) {
+                    synced = synchronize(true);
+                    if (!synced) {
+                        Thread.sleep(sleepInterval);
+                    }
+                    continue;
+                }
                 String address = pinnedAddress;
-                Request request = new Request.Builder().url(address + "/v2/keys/" + authority + "?wait=true&recursive=true").get().build();
+                String url = address + V2_KEYS + authority + "?wait=true&recursive=true&waitIndex=" + watchIndex;
+                Request request = new Request.Builder().url(url).get().build();
                 Response response = client.newCall(request).execute();
-                if (response.isSuccessful()) {
-                    Map<String, Object> data = mapper.readValue(response.body().byteStream(), Map.class);
-                    String action = (String) data.get("action");
-                    if ("set".equals(action)) {
-                        processChange((Map) data.get("node"), EntryChange.SET);
-                    } else if ("delete".equals(action)) {
-                        processChange((Map) data.get("prevNode"), EntryChange.DELETE);
-                    } else if ("expire".equals(action)) {
-                        processChange((Map) data.get("prevNode"), EntryChange.EXPIRE);
-                    } else if ("create".equals(action)) {
-                        // ignore creates
-                    } else if ("update".equals(action)) {
-                        Map node = (Map) data.get("node");
-                        String key = (String) node.get("key");
-                        // ignore updates for channels and services as they will be triggered by ttl updates
-                        if (key.startsWith("/" + authority + "/configuration/")) {
-                            processChange(node, EntryChange.SET);
-                        }
-                    } else {
-                        monitor.debug("Invalid action returned from etcd key watch: " + action);
-                    }
-                } else {
+                String body = response.body().string();
+                Map<String, Object> data = body.isEmpty() ? null : mapper.readValue(body, Map.class);
+                if (isIndexCleared(response, data)) {
+                    // etcd only retains a limited event history; changes since the watch index may have been lost
+                    monitor.debug("etcd watch index {0} cleared. Resynchronizing.", String.valueOf(watchIndex));
+                    synced = synchronize(true);
+                } else if (response.isSuccessful() && data != null) {
+                    processEvent(data);
+                } else if (!response.isSuccessful()) {
                     Thread.sleep(sleepInterval);
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             } catch (Exception e) {
                 monitor.severe("Error listening to etcd", e);
                 synchronized (this) {
@@ -302,6 +286,167 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
         }
     }
 
+    /**
+     * Applies an event received from a watch to the local cache and notifies listeners.
+     *
+     * @param data the event
+     */
+    @SuppressWarnings({"unchecked", "StatementWithEmptyBody"})
+    private void processEvent(Map<String, Object> data) {
+        String action = (String) data.get("action");
+        Map<String, Object> node = (Map<String, Object>) data.get("node");
+        if (node == null) {
+            monitor.debug("Invalid event returned from etcd key watch: " + action);
+            return;
+        }
+        Number modifiedIndex = (Number) node.get("modifiedIndex");
+        if (modifiedIndex != null) {
+            watchIndex = modifiedIndex.longValue() + 1;
+        }
+        if ("set".equals(action) || "compareAndSwap".equals(action)) {
+            applySet(node);
+            processChange(node, EntryChange.SET);
+        } else if ("delete".equals(action) || "compareAndDelete".equals(action)) {
+            applyDelete((String) node.get("key"));
+            processChange((Map) data.get("prevNode"), EntryChange.DELETE);
+        } else if ("expire".equals(action)) {
+            applyDelete((String) node.get("key"));
+            processChange((Map) data.get("prevNode"), EntryChange.EXPIRE);
+        } else if ("create".equals(action)) {
+            // ignore creates
+            applySet(node);
+        } else if ("update".equals(action)) {
+            applySet(node);
+            String key = (String) node.get("key");
+            // ignore updates for channels and services as they will be triggered by ttl updates
+            if (key.startsWith("/" + authority + "/configuration/")) {
+                processChange(node, EntryChange.SET);
+            }
+        } else {
+            monitor.debug("Invalid action returned from etcd key watch: " + action);
+        }
+    }
+
+    /**
+     * Loads a snapshot of the domain directory into the local cache and records the index to watch from.
+     *
+     * @param notify true if listeners should be notified of differences between the snapshot and the cache
+     * @return true if the snapshot was loaded
+     */
+    @SuppressWarnings("unchecked")
+    private boolean synchronize(boolean notify) {
+        String address = pinnedAddress;
+        try {
+            Request request = new Request.Builder().url(address + V2_KEYS + authority + "?recursive=true").build();
+            Response response = client.newCall(request).execute();
+            String etcdIndex = response.header("X-Etcd-Index");
+            Map<String, String> snapshot = new HashMap<>();
+            if (response.isSuccessful()) {
+                Map<String, Object> body = mapper.readValue(response.body().string(), Map.class);
+                Map<String, Object> node = (Map<String, Object>) body.get("node");
+                if (node != null) {
+                    flatten(node, snapshot);
+                }
+            } else if (response.code() != 404) {
+                // a 404 is returned if the domain directory has not been created, in which case the snapshot is empty
+                monitor.severe("Error retrieving snapshot from etcd: {0}", response.code());
+                return false;
+            }
+            if (etcdIndex == null) {
+                monitor.severe("etcd index not returned with snapshot");
+                return false;
+            }
+            watchIndex = Long.parseLong(etcdIndex) + 1;
+            applySnapshot(snapshot, notify);
+            return true;
+        } catch (IOException | NumberFormatException e) {
+            monitor.severe("Error retrieving snapshot from etcd", e);
+            synchronized (this) {
+                pinnedAddress = getAddress();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the contents of the cache with a snapshot.
+     *
+     * @param snapshot the snapshot
+     * @param notify   true if listeners should be notified of changed and removed keys
+     */
+    private void applySnapshot(Map<String, String> snapshot, boolean notify) {
+        for (Map.Entry<String, String> entry : snapshot.entrySet()) {
+            String previous = cache.put(entry.getKey(), entry.getValue());
+            if (notify && !entry.getValue().equals(previous)) {
+                processChange(createNode(entry.getKey(), entry.getValue()), EntryChange.SET);
+            }
+        }
+        for (Map.Entry<String, String> entry : cache.entrySet()) {
+            if (!snapshot.containsKey(entry.getKey())) {
+                cache.remove(entry.getKey());
+                if (notify) {
+                    processChange(createNode(entry.getKey(), entry.getValue()), EntryChange.DELETE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the values of a node and its descendants to the given map.
+     *
+     * @param node   the node
+     * @param values the map to add to
+     */
+    @SuppressWarnings("unchecked")
+    private void flatten(Map<String, Object> node, Map<String, String> values) {
+        String value = (String) node.get("value");
+        if (value != null) {
+            values.put((String) node.get("key"), value);
+        }
+        List<Map<String, Object>> nodes = (List<Map<String, Object>>) node.getOrDefault("nodes", Collections.emptyList());
+        for (Map<String, Object> child : nodes) {
+            flatten(child, values);
+        }
+    }
+
+    private void applySet(Map<String, Object> node) {
+        String value = (String) node.get("value");
+        if (value != null) {
+            cache.put((String) node.get("key"), value);
+        }
+    }
+
+    private void applyDelete(String key) {
+        if (key == null) {
+            return;
+        }
+        // the key may be a directory
+        String directory = key + "/";
+        cache.keySet().removeIf(k -> k.equals(key) || k.startsWith(directory));
+    }
+
+    private Map<String, Object> createNode(String key, String value) {
+        Map<String, Object> node = new HashMap<>();
+        node.put("key", key);
+        node.put("value", value);
+        return node;
+    }
+
+    /**
+     * Returns true if etcd has cleared the events for the requested watch index. etcd reports this with error code 401.
+     *
+     * @param response the response
+     * @param data     the response body or null
+     * @return true if the index was cleared
+     */
+    private boolean isIndexCleared(Response response, Map<String, Object> data) {
+        if (response.code() == 401) {
+            return true;
+        }
+        Object errorCode = data == null ? null : data.get("errorCode");
+        return errorCode instanceof Number && ((Number) errorCode).intValue() == 401;
+    }
+
     /**
      * Updates service and channel entries periodically (half the TTL value).
      */
@@ -334,6 +479,9 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
      */
     @SuppressWarnings("unchecked")
     private void processChange(Map<String, Object> node, EntryChange change) {
+        if (node == null) {
+            return;
+        }
         String value = (String) node.get("value");
         String key = (String) node.get("key");
         if (value != null) {
@@ -351,10 +499,10 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
             for (Map<String, Object> nodeEntry : nodes) {
                 String nodeValue = (String) nodeEntry.get("value");
                 if (nodeValue != null) {
-                    if (key.startsWith("/" + authority + "/services/")) {
-                        notifyServiceChange(value, change);
-                    } else if (key.startsWith("/" + authority + "/channels/")) {
-                        notifyChannelChange(value, change);
+                    if (key.startsWith("/" + authority + "/services")) {
+                        notifyServiceChange(nodeValue, change);
+                    } else if (key.startsWith("/" + authority + "/channels")) {
+                        notifyChannelChange(nodeValue, change);
                     }
                 }
             }
@@ -404,49 +552,30 @@ public class EtcdAgent implements DiscoveryAgent, ConfigurationAgent {
     }
 
     /**
-     * Returns service or channel entries matching a name.
+     * Returns service or channel entries matching a name from the local cache.
      *
      * @param type the service or channel type
      * @param name the name
      * @return the entries
      */
-    @SuppressWarnings("unchecked")
     private <T extends AbstractEntry> List<T> getEntries(Class<T> type, String name) {
-        String prefix = ServiceEntry.class.equals(type) ? "services" : "channels";
-        String address = pinnedAddress;
-        while (true) {
+        String prefix = "/" + authority + (ServiceEntry.class.equals(type) ? "/services/" : "/channels/");
+        List<T> entries = new ArrayList<>();
+        for (Map.Entry<String, String> cached : cache.entrySet()) {
+            String key = cached.getKey();
+            if (!key.startsWith(prefix) || key.indexOf('/', prefix.length()) != -1) {
+                continue;
+            }
             try {
-                Request request = new Request.Builder().url(address + V2_KEYS + authority + "/" + prefix).build();
-                Response response = client.newCall(request).execute();
-                Map<String, Object> body = mapper.readValue(response.body().string(), Map.class);
-
-                Map<String, Object> servicesDir = (Map<String, Object>) body.get("node");
-                if (servicesDir == null) {
-                    monitor.debug("Directory {0} not found in etcd", prefix);
-                    return Collections.emptyList();
-                }
-                List<Map<String, Object>> nodes = (List<Map<String, Object>>) servicesDir.get("nodes");
-                List<T> entries = new ArrayList<>();
-                for (Map<String, Object> node : nodes) {
-                    String value = (String) node.get("value");
-                    T entry = parseEntry(type, value);
-                    if (name.equals("*") || name.equals(entry.getName())) { // filter on requested name
-                        entries.add(entry);
-                    }
+                T entry = parseEntry(type, cached.getValue());
+                if (name.equals("*") || name.equals(entry.getName())) { // filter on requested name
+                    entries.add(entry);
                 }
-                return entries;
             } catch (IOException e) {
-                monitor.severe("Error retrieving addresses from etcd for: {0}. Trying next etcd instance.", name, e);
-                synchronized (this) {
-                    pinnedAddress = getAddress();
-                    if (pinnedAddress.equals(address)) {
-                        // all of the available addresses have been recycled
-                        monitor.severe("No available etcd instance retrieving addresses for: {0}", name);
-                        return Collections.emptyList();
-                    }
-                }
+                monitor.severe("Error deserializing entry {0}", key, e);
             }
         }
+        return entries;
     }
 
     /**
@@ -26,11 +26,15 @@ public class EtcdAgentTest extends TestCase {
                                                     + "\\\"address\\\":\\\"localhost\\\",\\\"port\\\":2001,\\\"path\\\":\\\"foo\\\"}\",\"modifiedIndex\":119,"
                                                     + "\"createdIndex\":119}}";
 
-    private static final String RESPONSE_GET = "{\"action\":\"get\",\"node\":{\"key\":\"/subdomain/services\",\"dir\":true,"
-                                               + "\"nodes\":[{\"key\":\"/services/runtime1:foo\",\"value\":\"{"
+    private static final String RESPONSE_GET = "{\"action\":\"get\",\"node\":{\"key\":\"/subdomain\",\"dir\":true,"
+                                               + "\"nodes\":[{\"key\":\"/subdomain/services\",\"dir\":true,"
+                                               + "\"nodes\":[{\"key\":\"/subdomain/services/runtime1:foo\",\"value\":\"{"
                                                + "\\\"name\\\":\\\"foo\\\",\\\"transport\\\":\\\"http\\\",\\\"address\\\":\\\"localhost\\\","
                                                + "\\\"port\\\":2001,\\\"path\\\":\\\"foo\\\"}\",\"modifiedIndex\":120,\"createdIndex\":120}],"
-                                               + "\"modifiedIndex\":14,\"createdIndex\":14}}";
+                                               + "\"modifiedIndex\":14,\"createdIndex\":14}],\"modifiedIndex\":13,\"createdIndex\":13}}";
+
+    private static final String RESPONSE_SNAPSHOT = "{\"action\":\"get\",\"node\":{\"key\":\"/subdomain\",\"dir\":true,"
+                                                    + "\"modifiedIndex\":13,\"createdIndex\":13}}";
 
     private static final String RESPONSE_SET = "{\"action\":\"set\",\"node\":{\"key\":\"/subdomain/services/runtime1:foo\","
                                                + "\"value\":\"{\\\"key\\\":\\\"runtime1:foo\\\",\\\"name\\\":\\\"foo\\\",\\\"transport\\\":\\\"http\\\","
@@ -59,6 +63,7 @@ public class EtcdAgentTest extends TestCase {
     private MockWebServer server;
 
     public void testRegisterService() throws Exception {
+        enqueueSnapshot(RESPONSE_SNAPSHOT);
         MockResponse response = new MockResponse();
         server.enqueue(response.setBody(RESPONSE_REGISTER));
 
@@ -77,14 +82,14 @@ public class EtcdAgentTest extends TestCase {
         if (PORT != 4002) {
             return; // skip if using etcd
         }
+        server.takeRequest(); // snapshot
         RecordedRequest request = server.takeRequest();
         Assert.assertEquals("PUT", request.getMethod());
         Assert.assertEquals("/v2/keys/subdomain/services/runtime1:foo", request.getPath());
     }
 
     public void testGetServiceEntries() throws Exception {
-        MockResponse response = new MockResponse();
-        server.enqueue(response.setBody(RESPONSE_GET));
+        enqueueSnapshot(RESPONSE_GET);
 
         server.start(4002);
 
@@ -93,9 +98,15 @@ public class EtcdAgentTest extends TestCase {
         List<ServiceEntry> entries = agent.getServiceEntries("foo");
         Assert.assertEquals(1, entries.size());
         Assert.assertEquals("foo", entries.get(0).getName());
+
+        // entries are served from the snapshot
+        entries = agent.getServiceEntries("foo");
+        Assert.assertEquals(1, entries.size());
+        Assert.assertEquals(1, server.getRequestCount());
     }
 
     public void testGetServiceChange() throws Exception {
+        enqueueSnapshot(RESPONSE_SNAPSHOT);
         MockResponse response = new MockResponse();
         server.enqueue(response.setBody(RESPONSE_SET));
         server.start(4002);
@@ -116,6 +127,7 @@ public class EtcdAgentTest extends TestCase {
     }
 
     public void testServiceExpiration() throws Exception {
+        enqueueSnapshot(RESPONSE_SNAPSHOT);
         MockResponse response = new MockResponse();
         server.enqueue(response.setBody(RESPONSE_EXPIRE));
         server.start(4002);
@@ -139,6 +151,7 @@ public class EtcdAgentTest extends TestCase {
     }
 
     public void testUnregisterService() throws Exception {
+        enqueueSnapshot(RESPONSE_SNAPSHOT);
         MockResponse response = new MockResponse();
         server.enqueue(response.setBody(RESPONSE_UNREGISTER));
 
@@ -150,6 +163,7 @@ public class EtcdAgentTest extends TestCase {
         if (PORT != 4002) {
             return; // skip if using etcd
         }
+        server.takeRequest(); // snapshot
         RecordedRequest request = server.takeRequest();
         Assert.assertEquals("DELETE", request.getMethod());
         Assert.assertEquals("/v2/keys/subdomain/services/runtime1:foo", request.getPath());
@@ -183,6 +197,10 @@ public class EtcdAgentTest extends TestCase {
         server.shutdown();
     }
 
+    private void enqueueSnapshot(String body) {
+        server.enqueue(new MockResponse().setBody(body).addHeader("X-Etcd-Index", 119));
+    }
+
     private void createExecutor(IAnswer... answers) {
         agent.executorService = EasyMock.createMock(ExecutorService.class);
         agent.executorService.submit(EasyMock.isA(Runnable.class));
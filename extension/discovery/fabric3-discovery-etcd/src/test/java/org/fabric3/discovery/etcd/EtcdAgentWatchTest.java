@@ -0,0 +1,197 @@
+package org.fabric3.discovery.etcd;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.MonitorChannel;
+import org.fabric3.api.host.runtime.HostInfo;
+import org.fabric3.api.model.type.RuntimeMode;
+import org.fabric3.spi.discovery.EntryChange;
+import org.fabric3.spi.discovery.ServiceEntry;
+
+/**
+ * Verifies the agent cache and watch against an in-process etcd server.
+ */
+public class EtcdAgentWatchTest extends TestCase {
+    private FakeEtcdServer server;
+    private EtcdAgent agent;
+    private List<Runnable> tasks = new ArrayList<>();
+    private ExecutorService executorService;
+    private BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    public void testSnapshotServedFromCache() throws Exception {
+        server.set("/subdomain/services/runtime2:foo", createEntry("foo", 2001));
+        server.set("/subdomain/configuration/key", "value");
+
+        agent.init();
+
+        int reads = server.getReads();
+        assertEquals(1, agent.getServiceEntries("foo").size());
+        assertEquals(2001, agent.getServiceEntries("foo").get(0).getPort());
+        assertEquals(1, agent.getServiceEntries("*").size());
+        assertTrue(agent.getServiceEntries("bar").isEmpty());
+        assertTrue(agent.getChannelEntries("*").isEmpty());
+        assertEquals("value", agent.getValue("key"));
+        assertNull(agent.getValue("missing"));
+        // entries and values are read from the cache
+        assertEquals(reads, server.getReads());
+    }
+
+    public void testEmptyDomain() throws Exception {
+        agent.init();
+
+        assertTrue(agent.getServiceEntries("*").isEmpty());
+
+        startWatch();
+        server.set("/subdomain/services/runtime2:foo", createEntry("foo", 2001));
+
+        assertEquals("SET foo", changes.poll(10, TimeUnit.SECONDS));
+        assertEquals(1, agent.getServiceEntries("foo").size());
+    }
+
+    public void testWatchAppliesChanges() throws Exception {
+        server.set("/subdomain/services/runtime2:foo", createEntry("foo", 2001));
+        agent.init();
+        startWatch();
+
+        server.set("/subdomain/services/runtime2:bar", createEntry("bar", 2002));
+        assertEquals("SET bar", changes.poll(10, TimeUnit.SECONDS));
+        assertEquals(1, agent.getServiceEntries("bar").size());
+
+        server.delete("/subdomain/services/runtime2:foo");
+        assertEquals("DELETE foo", changes.poll(10, TimeUnit.SECONDS));
+        assertTrue(agent.getServiceEntries("foo").isEmpty());
+
+        server.set("/subdomain/configuration/key", "value");
+        waitFor(() -> "value".equals(agent.getValue("key")));
+    }
+
+    public void testChangesBetweenWatchesNotLost() throws Exception {
+        agent.init();
+
+        // changes made after the snapshot but before the watch is issued must be received
+        server.set("/subdomain/services/runtime2:foo", createEntry("foo", 2001));
+        server.set("/subdomain/services/runtime2:bar", createEntry("bar", 2002));
+
+        startWatch();
+
+        assertEquals("SET foo", changes.poll(10, TimeUnit.SECONDS));
+        assertEquals("SET bar", changes.poll(10, TimeUnit.SECONDS));
+        assertEquals(2, agent.getServiceEntries("*").size());
+    }
+
+    public void testResynchronizeWhenIndexCleared() throws Exception {
+        server.set("/subdomain/services/runtime2:foo", createEntry("foo", 2001));
+        server.set("/subdomain/services/runtime2:baz", createEntry("baz", 2003));
+        agent.init();
+
+        server.set("/subdomain/services/runtime2:bar", createEntry("bar", 2002));
+        server.delete("/subdomain/services/runtime2:foo");
+        server.clearHistory();
+
+        int reads = server.getReads();
+        startWatch();
+
+        List<String> received = new ArrayList<>();
+        received.add(changes.poll(10, TimeUnit.SECONDS));
+        received.add(changes.poll(10, TimeUnit.SECONDS));
+        assertTrue(received.contains("SET bar"));
+        assertTrue(received.contains("DELETE foo"));
+        // unchanged entries are not dispatched
+        assertNull(changes.poll(200, TimeUnit.MILLISECONDS));
+
+        assertEquals(reads + 1, server.getReads());
+        assertEquals(1, agent.getServiceEntries("bar").size());
+        assertEquals(1, agent.getServiceEntries("baz").size());
+        assertTrue(agent.getServiceEntries("foo").isEmpty());
+
+        // the watch continues from the new snapshot
+        server.set("/subdomain/services/runtime2:qux", createEntry("qux", 2004));
+        assertEquals("SET qux", changes.poll(10, TimeUnit.SECONDS));
+    }
+
+    private String createEntry(String name, int port) throws Exception {
+        ServiceEntry entry = new ServiceEntry();
+        entry.setName(name);
+        entry.setAddress("localhost");
+        entry.setPort(port);
+        entry.setPath(name);
+        entry.setTransport("http");
+        return mapper.writeValueAsString(entry);
+    }
+
+    /**
+     * Runs the change listener task submitted by the agent during initialization.
+     */
+    private void startWatch() {
+        // the second task submitted by the agent is the change listener
+        executorService.submit(tasks.get(1));
+    }
+
+    private void waitFor(Condition condition) throws InterruptedException {
+        long end = System.currentTimeMillis() + 10000;
+        while (!condition.isTrue()) {
+            if (System.currentTimeMillis() > end) {
+                fail("Timed out");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        server = new FakeEtcdServer();
+        server.start();
+        executorService = Executors.newCachedThreadPool();
+
+        agent = new EtcdAgent();
+        agent.setAddresses(server.getAddress());
+        agent.leaderElectionEnabled = false;
+        agent.sleepInterval = 100;
+
+        // capture the background tasks so tests control when the watch starts
+        agent.executorService = EasyMock.createMock(ExecutorService.class);
+        EasyMock.expect(agent.executorService.submit(EasyMock.isA(Runnable.class))).andAnswer(() -> {
+            tasks.add((Runnable) EasyMock.getCurrentArguments()[0]);
+            return null;
+        }).anyTimes();
+
+        agent.info = EasyMock.createMock(HostInfo.class);
+        EasyMock.expect(agent.info.getRuntimeMode()).andReturn(RuntimeMode.NODE).anyTimes();
+        EasyMock.expect(agent.info.getRuntimeName()).andReturn("runtime1").anyTimes();
+        EasyMock.expect(agent.info.getDomain()).andReturn(URI.create("fabric3://subdomain")).anyTimes();
+        EasyMock.expect(agent.info.getZoneName()).andReturn("zone1").anyTimes();
+
+        agent.monitor = EasyMock.createNiceMock(MonitorChannel.class);
+
+        EasyMock.replay(agent.info, agent.monitor, agent.executorService);
+
+        for (String name : new String[]{"foo", "bar", "baz", "qux"}) {
+            agent.registerServiceListener(name, (change, entry) -> changes.add(change + " " + entry.getName()));
+        }
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        super.tearDown();
+        agent.destroy();
+        server.stop();
+        executorService.shutdownNow();
+    }
+
+    private interface Condition {
+        boolean isTrue();
+    }
+
+}
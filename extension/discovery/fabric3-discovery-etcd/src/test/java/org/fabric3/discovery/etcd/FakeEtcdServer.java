@@ -0,0 +1,326 @@
+package org.fabric3.discovery.etcd;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * An in-process server that emulates the etcd v2 keys API used by {@link EtcdAgent}: recursive gets, sets, deletes and watches with a wait index. The event
+ * history can be cleared to emulate compaction, in which case watches for cleared indexes fail with error code 401.
+ */
+public class FakeEtcdServer {
+    private static final String V2_KEYS = "/v2/keys";
+
+    private HttpServer server;
+    private ExecutorService executorService;
+    private ObjectMapper mapper = new ObjectMapper();
+
+    private TreeMap<String, Node> nodes = new TreeMap<>();
+    private List<Map<String, Object>> events = new ArrayList<>();
+    private long index = 1;
+    private long firstRetainedIndex = 1;
+    private boolean stopped;
+
+    private AtomicInteger reads = new AtomicInteger();
+    private AtomicInteger watches = new AtomicInteger();
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executorService = Executors.newCachedThreadPool();
+        server.setExecutor(executorService);
+        server.createContext(V2_KEYS, this::handle);
+        server.start();
+    }
+
+    public void stop() {
+        synchronized (this) {
+            stopped = true;
+            notifyAll();
+        }
+        server.stop(0);
+        executorService.shutdownNow();
+    }
+
+    public String getAddress() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the number of non-watch GET requests received.
+     *
+     * @return the number of requests
+     */
+    public int getReads() {
+        return reads.get();
+    }
+
+    /**
+     * Returns the number of watch requests received.
+     *
+     * @return the number of requests
+     */
+    public int getWatches() {
+        return watches.get();
+    }
+
+    public synchronized void set(String key, String value) {
+        Node previous = nodes.get(key);
+        long modifiedIndex = ++index;
+        Node node = new Node(key, value, previous == null ? modifiedIndex : previous.createdIndex, modifiedIndex);
+        nodes.put(key, node);
+        Map<String, Object> event = new HashMap<>();
+        event.put("action", "set");
+        event.put("node", node.toMap());
+        if (previous != null) {
+            event.put("prevNode", previous.toMap());
+        }
+        addEvent(event);
+    }
+
+    public synchronized boolean delete(String key) {
+        Node previous = nodes.remove(key);
+        if (previous == null) {
+            return false;
+        }
+        long modifiedIndex = ++index;
+        Map<String, Object> node = new HashMap<>();
+        node.put("key", key);
+        node.put("createdIndex", previous.createdIndex);
+        node.put("modifiedIndex", modifiedIndex);
+        Map<String, Object> event = new HashMap<>();
+        event.put("action", "delete");
+        event.put("node", node);
+        event.put("prevNode", previous.toMap());
+        addEvent(event);
+        return true;
+    }
+
+    /**
+     * Discards the event history, emulating etcd compaction.
+     */
+    public synchronized void clearHistory() {
+        events.clear();
+        firstRetainedIndex = index + 1;
+    }
+
+    private void addEvent(Map<String, Object> event) {
+        events.add(event);
+        notifyAll();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath().substring(V2_KEYS.length());
+            Map<String, String> parameters = parse(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+            if ("GET".equals(method) && "true".equals(parameters.get("wait"))) {
+                watches.incrementAndGet();
+                watch(exchange, path, parameters);
+            } else if ("GET".equals(method)) {
+                reads.incrementAndGet();
+                get(exchange, path);
+            } else if ("PUT".equals(method)) {
+                Map<String, String> form = parse(read(exchange.getRequestBody()));
+                set(path, form.get("value"));
+                respond(exchange, 200, getNode(path));
+            } else if ("DELETE".equals(method)) {
+                if (delete(path)) {
+                    respond(exchange, 200, new HashMap<>());
+                } else {
+                    respond(exchange, 404, error(100, "Key not found", path));
+                }
+            } else {
+                respond(exchange, 405, error(0, "Unsupported", path));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void get(HttpExchange exchange, String path) throws IOException {
+        Map<String, Object> body;
+        int status;
+        synchronized (this) {
+            Map<String, Object> node = createTree(path);
+            if (node == null) {
+                status = 404;
+                body = error(100, "Key not found", path);
+            } else {
+                status = 200;
+                body = new HashMap<>();
+                body.put("action", "get");
+                body.put("node", node);
+            }
+        }
+        respond(exchange, status, body);
+    }
+
+    private void watch(HttpExchange exchange, String path, Map<String, String> parameters) throws IOException, InterruptedException {
+        long waitIndex = parameters.containsKey("waitIndex") ? Long.parseLong(parameters.get("waitIndex")) : 0;
+        Map<String, Object> event = null;
+        synchronized (this) {
+            if (waitIndex > 0 && waitIndex < firstRetainedIndex) {
+                // etcd reports a cleared index with error code 401 and status 400
+                Map<String, Object> error = error(401, "The event in requested index is outdated and cleared", path);
+                respond(exchange, 400, error);
+                return;
+            }
+            while (event == null && !stopped) {
+                for (Map<String, Object> candidate : events) {
+                    Map<?, ?> node = (Map<?, ?>) candidate.get("node");
+                    long modifiedIndex = ((Number) node.get("modifiedIndex")).longValue();
+                    String key = (String) node.get("key");
+                    if (modifiedIndex >= waitIndex && (key.equals(path) || key.startsWith(path + "/"))) {
+                        event = candidate;
+                        break;
+                    }
+                }
+                if (event == null) {
+                    wait();
+                }
+            }
+        }
+        if (event == null) {
+            respond(exchange, 503, error(300, "Stopped", path));
+        } else {
+            respond(exchange, 200, event);
+        }
+    }
+
+    private Map<String, Object> createTree(String path) {
+        if (nodes.containsKey(path)) {
+            return nodes.get(path).toMap();
+        }
+        String prefix = path + "/";
+        Map<String, Object> root = null;
+        for (Node node : nodes.tailMap(prefix).values()) {
+            if (!node.key.startsWith(prefix)) {
+                break;
+            }
+            if (root == null) {
+                root = directory(path);
+            }
+            // create intermediate directories
+            Map<String, Object> parent = root;
+            String[] segments = node.key.substring(prefix.length()).split("/");
+            String current = path;
+            for (int i = 0; i < segments.length - 1; i++) {
+                current = current + "/" + segments[i];
+                parent = getOrCreateDirectory(parent, current);
+            }
+            getChildren(parent).add(node.toMap());
+        }
+        return root;
+    }
+
+    private Map<String, Object> getOrCreateDirectory(Map<String, Object> parent, String key) {
+        for (Map<String, Object> child : getChildren(parent)) {
+            if (key.equals(child.get("key"))) {
+                return child;
+            }
+        }
+        Map<String, Object> directory = directory(key);
+        getChildren(parent).add(directory);
+        return directory;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> getChildren(Map<String, Object> directory) {
+        return (List<Map<String, Object>>) directory.computeIfAbsent("nodes", k -> new ArrayList<Map<String, Object>>());
+    }
+
+    private Map<String, Object> directory(String key) {
+        Map<String, Object> directory = new HashMap<>();
+        directory.put("key", key);
+        directory.put("dir", true);
+        return directory;
+    }
+
+    private synchronized Map<String, Object> getNode(String key) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("action", "set");
+        body.put("node", nodes.get(key).toMap());
+        return body;
+    }
+
+    private Map<String, Object> error(int code, String message, String cause) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("errorCode", code);
+        error.put("message", message);
+        error.put("cause", cause);
+        error.put("index", index);
+        return error;
+    }
+
+    private void respond(HttpExchange exchange, int status, Map<String, Object> body) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        synchronized (this) {
+            exchange.getResponseHeaders().add("X-Etcd-Index", String.valueOf(index));
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(bytes);
+        }
+    }
+
+    private String read(InputStream stream) {
+        Scanner scanner = new Scanner(stream, "UTF-8").useDelimiter("\\A");
+        return scanner.hasNext() ? scanner.next() : "";
+    }
+
+    private Map<String, String> parse(String encoded) throws IOException {
+        Map<String, String> values = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return values;
+        }
+        for (String pair : encoded.split("&")) {
+            int pos = pair.indexOf('=');
+            String name = pos < 0 ? pair : pair.substring(0, pos);
+            String value = pos < 0 ? "" : URLDecoder.decode(pair.substring(pos + 1), StandardCharsets.UTF_8.name());
+            values.put(name, value);
+        }
+        return values;
+    }
+
+    private static class Node {
+        private String key;
+        private String value;
+        private long createdIndex;
+        private long modifiedIndex;
+
+        public Node(String key, String value, long createdIndex, long modifiedIndex) {
+            this.key = key;
+            this.value = value;
+            this.createdIndex = createdIndex;
+            this.modifiedIndex = modifiedIndex;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("key", key);
+            map.put("value", value);
+            map.put("createdIndex", createdIndex);
+            map.put("modifiedIndex", modifiedIndex);
+            return map;
+        }
+    }
+}
@@ -38,7 +38,7 @@ public class LocalDiscoveryAgent implements DiscoveryAgent {
     }
 
     public void register(ServiceEntry entry) {
-        serviceEntries.computeIfAbsent(entry.getName(), n -> Collections.singletonList(entry));
+        serviceEntries.put(entry.getName(), Collections.singletonList(entry));
         serviceListeners.forEach(l -> l.accept(EntryChange.SET, entry));
     }
 
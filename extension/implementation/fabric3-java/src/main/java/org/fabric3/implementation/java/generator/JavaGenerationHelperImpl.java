@@ -80,6 +80,7 @@ public class JavaGenerationHelperImpl implements JavaGenerationHelper {
         // create the physical component definition
         physicalComponent.setScope(scope);
         physicalComponent.setEagerInit(type.isEagerInit());
+        physicalComponent.setPoolConfiguration(type.getPoolConfiguration());
         physicalComponent.setManagerDefinition(managerDefinition);
 
         physicalComponent.setManaged(type.isManaged());
@@ -74,6 +74,7 @@ public class JavaComponentBuilder extends PojoComponentBuilder<PhysicalJavaCompo
 
         URI contributionUri = physicalComponent.getContributionUri();
         JavaComponent component = new JavaComponent(uri, factory, scopeContainer, eager, contributionUri);
+        component.setPoolConfiguration(physicalComponent.getPoolConfiguration());
         createPropertyFactories(physicalComponent, component, factory);
         buildContexts(component, factory);
         export(physicalComponent, component);
@@ -108,6 +108,7 @@ public class TimerComponentBuilder extends PojoComponentBuilder<TimerPhysicalCom
                                                       monitor,
                                                       runtimeStarted,
                                                       contributionUri);
+        component.setPoolConfiguration(physicalComponent.getPoolConfiguration());
         if (!runtimeStarted) {
             // defer scheduling to after the runtime has started
             scheduleQueue.add(component);
@@ -32,6 +32,7 @@ import org.fabric3.api.model.type.java.InjectionSite;
 import org.fabric3.implementation.web.model.WebComponentType;
 import org.fabric3.spi.contract.ContractMatcher;
 import org.fabric3.spi.contract.MatchResult;
+import org.fabric3.spi.contribution.ClassMetadata;
 import org.fabric3.spi.contribution.Contribution;
 import org.fabric3.spi.contribution.JavaArtifactIntrospector;
 import org.fabric3.spi.contribution.Resource;
@@ -79,6 +80,13 @@ public class WebArtifactIntrospector implements JavaArtifactIntrospector {
 
     }
 
+    public boolean isCandidate(ClassMetadata metadata, Contribution contribution) {
+        if (!contribution.getLocation().toString().endsWith(".war") || contribution.getManifest().isExtension()) {
+            return false;
+        }
+        return metadata.isAssignableTo(Servlet.class.getName()) || metadata.isAssignableTo(Filter.class.getName());
+    }
+
     public Resource introspect(Class<?> clazz, Contribution contribution, IntrospectionContext context) {
         ResourceElement<WebComponentTypeSymbol, WebComponentType> element = getTypeElement(contribution);
         WebComponentType componentType = element.getValue();
@@ -19,15 +19,49 @@
  */
 package org.fabric3.api.hazelcast.model;
 
+import java.net.URI;
+
 import org.fabric3.api.model.type.component.Binding;
 
 /**
- * Binds a channel to a Hazelcast cluster.
+ * Binds a channel or a service to a Hazelcast cluster. Channels are mapped to a topic or, if replay is enabled, a ringbuffer; services are mapped to a queue.
  */
 public class HazelcastBinding extends Binding {
+    private boolean replay;
+    private long timeout = 10000;
 
     public HazelcastBinding() {
         super("hazelcast", null, "binding.hazelcast");
     }
 
+    public void setTargetUri(URI uri) {
+        this.targetUri = uri;
+    }
+
+    /**
+     * Returns true if channel events are stored in a ringbuffer so that consumers receive events published before they were attached.
+     *
+     * @return true if channel events can be replayed
+     */
+    public boolean isReplay() {
+        return replay;
+    }
+
+    public void setReplay(boolean replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * Returns the time in milliseconds to wait for a response to a request-response operation.
+     *
+     * @return the timeout
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
 }
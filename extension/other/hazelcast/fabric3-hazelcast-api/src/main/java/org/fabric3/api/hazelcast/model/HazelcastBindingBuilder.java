@@ -16,6 +16,8 @@
  */
 package org.fabric3.api.hazelcast.model;
 
+import java.net.URI;
+
 import org.fabric3.api.model.type.builder.AbstractBuilder;
 
 /**
@@ -28,6 +30,24 @@ public class HazelcastBindingBuilder extends AbstractBuilder {
         return new HazelcastBindingBuilder();
     }
 
+    public HazelcastBindingBuilder target(URI uri) {
+        checkState();
+        binding.setTargetUri(uri);
+        return this;
+    }
+
+    public HazelcastBindingBuilder replay(boolean replay) {
+        checkState();
+        binding.setReplay(replay);
+        return this;
+    }
+
+    public HazelcastBindingBuilder timeout(long timeout) {
+        checkState();
+        binding.setTimeout(timeout);
+        return this;
+    }
+
     public HazelcastBinding build() {
         checkState();
         freeze();
@@ -35,6 +55,7 @@ public class HazelcastBindingBuilder extends AbstractBuilder {
     }
 
     private HazelcastBindingBuilder() {
+        binding = new HazelcastBinding();
     }
 
 }
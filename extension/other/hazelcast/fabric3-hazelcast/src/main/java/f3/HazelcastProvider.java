@@ -9,7 +9,15 @@ import org.fabric3.api.model.type.RuntimeMode;
 import org.fabric3.api.model.type.builder.CompositeBuilder;
 import org.fabric3.api.model.type.component.Composite;
 import org.fabric3.hazelcast.discovery.HazelcastAgent;
+import org.fabric3.hazelcast.generator.HazelcastConnectionBindingGenerator;
+import org.fabric3.hazelcast.generator.HazelcastWireBindingGenerator;
 import org.fabric3.hazelcast.impl.HazelcastServiceImpl;
+import org.fabric3.hazelcast.runtime.HazelcastConnectionSourceAttacher;
+import org.fabric3.hazelcast.runtime.HazelcastConnectionTargetAttacher;
+import org.fabric3.hazelcast.runtime.HazelcastPubSubBrokerImpl;
+import org.fabric3.hazelcast.runtime.HazelcastWireBrokerImpl;
+import org.fabric3.hazelcast.runtime.HazelcastWireSourceAttacher;
+import org.fabric3.hazelcast.runtime.HazelcastWireTargetAttacher;
 import org.fabric3.spi.model.type.system.SystemComponentBuilder;
 
 /**
@@ -23,6 +31,21 @@ public class HazelcastProvider {
         CompositeBuilder builder = CompositeBuilder.newBuilder(QNAME);
         builder.component(SystemComponentBuilder.newBuilder(HazelcastServiceImpl.class).build());
         builder.component(SystemComponentBuilder.newBuilder(HazelcastAgent.class).build());
+
+        SystemComponentBuilder wireBrokerBuilder = SystemComponentBuilder.newBuilder(HazelcastWireBrokerImpl.class);
+        wireBrokerBuilder.reference("executorService", "RuntimeThreadPoolExecutor");
+        builder.component(wireBrokerBuilder.build());
+
+        SystemComponentBuilder pubSubBuilder = SystemComponentBuilder.newBuilder(HazelcastPubSubBrokerImpl.class);
+        pubSubBuilder.reference("executorService", "RuntimeThreadPoolExecutor");
+        builder.component(pubSubBuilder.build());
+
+        builder.component(SystemComponentBuilder.newBuilder(HazelcastWireSourceAttacher.class).build());
+        builder.component(SystemComponentBuilder.newBuilder(HazelcastWireTargetAttacher.class).build());
+        builder.component(SystemComponentBuilder.newBuilder(HazelcastConnectionSourceAttacher.class).build());
+        builder.component(SystemComponentBuilder.newBuilder(HazelcastConnectionTargetAttacher.class).build());
+        builder.component(SystemComponentBuilder.newBuilder(HazelcastWireBindingGenerator.class).build());
+        builder.component(SystemComponentBuilder.newBuilder(HazelcastConnectionBindingGenerator.class).build());
         builder.mode(Collections.singletonList(RuntimeMode.NODE));
         builder.deployable();
         return builder.build();
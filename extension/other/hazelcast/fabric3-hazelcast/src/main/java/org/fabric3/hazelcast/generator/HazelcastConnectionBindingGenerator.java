@@ -0,0 +1,47 @@
+package org.fabric3.hazelcast.generator;
+
+import java.net.URI;
+
+import org.fabric3.api.annotation.wire.Key;
+import org.fabric3.api.hazelcast.model.HazelcastBinding;
+import org.fabric3.hazelcast.provision.HazelcastConnectionSource;
+import org.fabric3.hazelcast.provision.HazelcastConnectionTarget;
+import org.fabric3.spi.domain.generator.ConnectionBindingGenerator;
+import org.fabric3.spi.model.instance.LogicalBinding;
+import org.fabric3.spi.model.instance.LogicalChannel;
+import org.fabric3.spi.model.instance.LogicalConsumer;
+import org.fabric3.spi.model.instance.LogicalProducer;
+import org.fabric3.spi.model.physical.DeliveryType;
+import org.oasisopen.sca.annotation.EagerInit;
+
+/**
+ * Generates metadata for attaching channel producers and consumers to a Hazelcast topic or ringbuffer. The topic is named after the bound channel.
+ */
+@EagerInit
+@Key("org.fabric3.api.hazelcast.model.HazelcastBinding")
+public class HazelcastConnectionBindingGenerator implements ConnectionBindingGenerator<HazelcastBinding> {
+
+    public HazelcastConnectionSource generateConnectionSource(LogicalConsumer consumer, LogicalBinding<HazelcastBinding> binding, DeliveryType deliveryType) {
+        URI uri = consumer.getUri();
+        String topic = getTopic(binding);
+        return new HazelcastConnectionSource(uri, topic, binding.getDefinition().isReplay());
+    }
+
+    public HazelcastConnectionTarget generateConnectionTarget(LogicalProducer producer, LogicalBinding<HazelcastBinding> binding, DeliveryType deliveryType) {
+        URI targetUri = binding.getDefinition().getTargetUri();
+        if (targetUri == null) {
+            targetUri = binding.getParent().getUri();
+        }
+        String topic = getTopic(binding);
+        return new HazelcastConnectionTarget(targetUri, topic, binding.getDefinition().isReplay());
+    }
+
+    private String getTopic(LogicalBinding<HazelcastBinding> binding) {
+        if (binding.getParent() instanceof LogicalChannel) {
+            return ((LogicalChannel) binding.getParent()).getDefinition().getName();
+        }
+        URI targetUri = binding.getDefinition().getTargetUri();
+        return targetUri != null ? targetUri.toString() : binding.getParent().getUri().toString();
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.fabric3.hazelcast.generator;
+
+import java.net.URI;
+import java.util.List;
+
+import org.fabric3.api.annotation.wire.Key;
+import org.fabric3.api.hazelcast.model.HazelcastBinding;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.api.model.type.contract.ServiceContract;
+import org.fabric3.hazelcast.provision.HazelcastWireSource;
+import org.fabric3.hazelcast.provision.HazelcastWireTarget;
+import org.fabric3.spi.domain.generator.WireBindingGenerator;
+import org.fabric3.spi.model.instance.LogicalBinding;
+import org.fabric3.spi.model.instance.LogicalOperation;
+import org.fabric3.spi.model.instance.LogicalState;
+import org.oasisopen.sca.annotation.EagerInit;
+
+/**
+ * Generates metadata for attaching services and references to Hazelcast queues. Callbacks are not supported.
+ */
+@EagerInit
+@Key("org.fabric3.api.hazelcast.model.HazelcastBinding")
+public class HazelcastWireBindingGenerator implements WireBindingGenerator<HazelcastBinding> {
+    private static final String TARGET_URI = "targetUri";
+
+    public HazelcastWireSource generateSource(LogicalBinding<HazelcastBinding> binding, ServiceContract contract, List<LogicalOperation> operations) {
+        validateServiceContract(contract);
+        return new HazelcastWireSource();
+    }
+
+    public HazelcastWireTarget generateTarget(LogicalBinding<HazelcastBinding> binding, ServiceContract contract, List<LogicalOperation> operations) {
+        validateServiceContract(contract);
+        HazelcastBinding definition = binding.getDefinition();
+        URI targetUri;
+        // If this is an undeployment, use the previously calculated target URI since the target component may no longer be in the domain
+        if (LogicalState.MARKED == binding.getState()) {
+            targetUri = binding.getMetadata(TARGET_URI, URI.class);
+        } else {
+            targetUri = definition.getTargetUri();
+            if (targetUri == null) {
+                throw new Fabric3Exception("A target must be specified for the Hazelcast binding on: " + binding.getParent().getUri());
+            }
+            targetUri = URI.create(binding.getParent().getParent().getParent().getUri() + "/" + targetUri);
+            binding.addMetadata(TARGET_URI, targetUri);
+        }
+        return new HazelcastWireTarget(targetUri, definition.getTimeout());
+    }
+
+    private void validateServiceContract(ServiceContract contract) {
+        if (contract.getCallbackContract() != null) {
+            throw new Fabric3Exception("The Hazelcast binding does not support callbacks: " + contract.getInterfaceName());
+        }
+    }
+
+}
@@ -12,6 +12,7 @@ import com.hazelcast.core.HazelcastInstance;
 import org.fabric3.api.MonitorChannel;
 import org.fabric3.api.annotation.monitor.Monitor;
 import org.fabric3.api.host.runtime.HostInfo;
+import org.fabric3.hazelcast.serializer.WireMessageFactory;
 import org.oasisopen.sca.annotation.Destroy;
 import org.oasisopen.sca.annotation.EagerInit;
 import org.oasisopen.sca.annotation.Init;
@@ -55,6 +56,7 @@ public class HazelcastServiceImpl implements HazelcastService {
         attributeConfig.setStringAttribute("zone", info.getZoneName());
         attributeConfig.setStringAttribute("runtime", info.getRuntimeName());
         config.setMemberAttributeConfig(attributeConfig);
+        config.getSerializationConfig().addDataSerializableFactory(WireMessageFactory.FACTORY_ID, new WireMessageFactory());
         hazelcast = Hazelcast.newHazelcastInstance(config);
 
     }
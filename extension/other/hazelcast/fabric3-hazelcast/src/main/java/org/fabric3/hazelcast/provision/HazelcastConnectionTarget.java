@@ -0,0 +1,35 @@
+package org.fabric3.hazelcast.provision;
+
+import java.net.URI;
+
+import org.fabric3.spi.model.physical.PhysicalConnectionTarget;
+
+/**
+ * Generated metadata for attaching a producer to a Hazelcast topic or ringbuffer.
+ */
+public class HazelcastConnectionTarget extends PhysicalConnectionTarget {
+    private String topic;
+    private boolean replay;
+
+    /**
+     * Constructor.
+     *
+     * @param uri    the target URI
+     * @param topic  the topic or ringbuffer name
+     * @param replay true if events are stored in a ringbuffer
+     */
+    public HazelcastConnectionTarget(URI uri, String topic, boolean replay) {
+        this.topic = topic;
+        this.replay = replay;
+        setUri(uri);
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public boolean isReplay() {
+        return replay;
+    }
+
+}
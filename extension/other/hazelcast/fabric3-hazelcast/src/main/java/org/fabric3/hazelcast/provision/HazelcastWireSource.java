@@ -0,0 +1,10 @@
+package org.fabric3.hazelcast.provision;
+
+import org.fabric3.spi.model.physical.PhysicalWireSource;
+
+/**
+ * Generated metadata for attaching a service to a Hazelcast queue.
+ */
+public class HazelcastWireSource extends PhysicalWireSource {
+
+}
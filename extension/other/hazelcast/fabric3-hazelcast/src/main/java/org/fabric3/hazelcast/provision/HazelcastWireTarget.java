@@ -0,0 +1,28 @@
+package org.fabric3.hazelcast.provision;
+
+import java.net.URI;
+
+import org.fabric3.spi.model.physical.PhysicalWireTarget;
+
+/**
+ * Generated metadata for attaching a reference to a Hazelcast queue.
+ */
+public class HazelcastWireTarget extends PhysicalWireTarget {
+    private long timeout;
+
+    /**
+     * Constructor.
+     *
+     * @param uri     the target service URI
+     * @param timeout the time in milliseconds to wait for a response
+     */
+    public HazelcastWireTarget(URI uri, long timeout) {
+        this.timeout = timeout;
+        setUri(uri);
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+}
@@ -0,0 +1,29 @@
+package org.fabric3.hazelcast.runtime;
+
+import org.fabric3.api.annotation.wire.Key;
+import org.fabric3.hazelcast.provision.HazelcastConnectionSource;
+import org.fabric3.spi.container.builder.SourceConnectionAttacher;
+import org.fabric3.spi.container.channel.ChannelConnection;
+import org.fabric3.spi.model.physical.PhysicalConnectionTarget;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Subscribes a consumer to a Hazelcast topic or ringbuffer.
+ */
+@Key("org.fabric3.hazelcast.provision.HazelcastConnectionSource")
+public class HazelcastConnectionSourceAttacher implements SourceConnectionAttacher<HazelcastConnectionSource> {
+    private HazelcastPubSubBroker broker;
+
+    public HazelcastConnectionSourceAttacher(@Reference HazelcastPubSubBroker broker) {
+        this.broker = broker;
+    }
+
+    public void attach(HazelcastConnectionSource source, PhysicalConnectionTarget target, ChannelConnection connection) {
+        broker.subscribe(source.getUri(), source.getTopic(), source.isReplay(), connection);
+    }
+
+    public void detach(HazelcastConnectionSource source, PhysicalConnectionTarget target) {
+        broker.unsubscribe(source.getUri(), source.getTopic());
+    }
+
+}
@@ -0,0 +1,29 @@
+package org.fabric3.hazelcast.runtime;
+
+import org.fabric3.api.annotation.wire.Key;
+import org.fabric3.hazelcast.provision.HazelcastConnectionTarget;
+import org.fabric3.spi.container.builder.TargetConnectionAttacher;
+import org.fabric3.spi.container.channel.ChannelConnection;
+import org.fabric3.spi.model.physical.PhysicalConnectionSource;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Connects a producer to a Hazelcast topic or ringbuffer.
+ */
+@Key("org.fabric3.hazelcast.provision.HazelcastConnectionTarget")
+public class HazelcastConnectionTargetAttacher implements TargetConnectionAttacher<HazelcastConnectionTarget> {
+    private HazelcastPubSubBroker broker;
+
+    public HazelcastConnectionTargetAttacher(@Reference HazelcastPubSubBroker broker) {
+        this.broker = broker;
+    }
+
+    public void attach(PhysicalConnectionSource source, HazelcastConnectionTarget target, ChannelConnection connection) {
+        broker.connect(target.getTopic(), target.isReplay(), connection);
+    }
+
+    public void detach(PhysicalConnectionSource source, HazelcastConnectionTarget target) {
+        // the publishing handler is discarded with the connection
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.fabric3.hazelcast.runtime;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.hazelcast.core.IQueue;
+import org.fabric3.hazelcast.serializer.CompactSerializer;
+import org.fabric3.hazelcast.serializer.WireMessage;
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.wire.Interceptor;
+import org.fabric3.spi.model.physical.PhysicalOperation;
+import org.oasisopen.sca.ServiceRuntimeException;
+import org.oasisopen.sca.ServiceUnavailableException;
+
+/**
+ * Sends invocations to a Hazelcast queue. One-way invocations return once the request is queued; request-response invocations wait for the response to be
+ * written to the runtime reply map.
+ */
+public class HazelcastInterceptor implements Interceptor {
+    private int index;
+    private PhysicalOperation operation;
+    private IQueue<WireMessage> queue;
+    private ReplyListener listener;
+    private CompactSerializer serializer;
+    private long timeout;
+
+    /**
+     * Constructor.
+     *
+     * @param index      the operation index
+     * @param operation  the operation
+     * @param queue      the queue of the target service
+     * @param listener   the runtime reply listener or null if the operation is one-way
+     * @param serializer the serializer
+     * @param timeout    the time in milliseconds to wait for a response
+     */
+    public HazelcastInterceptor(int index,
+                                PhysicalOperation operation,
+                                IQueue<WireMessage> queue,
+                                ReplyListener listener,
+                                CompactSerializer serializer,
+                                long timeout) {
+        this.index = index;
+        this.operation = operation;
+        this.queue = queue;
+        this.listener = listener;
+        this.serializer = serializer;
+        this.timeout = timeout;
+    }
+
+    public Message invoke(Message msg) {
+        byte[] body;
+        try {
+            body = serializer.serializeParameters((Object[]) msg.getBody());
+        } catch (IOException e) {
+            throw new ServiceRuntimeException("Error serializing parameters for operation: " + operation.getName(), e);
+        }
+        if (listener == null) {
+            send(WireMessage.request(null, null, index, body));
+            msg.setBody(null);
+            return msg;
+        }
+        String correlationId = listener.createCorrelationId();
+        CompletableFuture<WireMessage> future = listener.register(correlationId);
+        try {
+            send(WireMessage.request(correlationId, listener.getName(), index, body));
+            WireMessage response = future.get(timeout, TimeUnit.MILLISECONDS);
+            if (response.isFault()) {
+                msg.setBodyWithFault(createFault(response));
+            } else {
+                msg.setBody(serializer.deserialize(response.getBody(), operation.getSourceReturnType()));
+            }
+            return msg;
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("Timeout waiting for response to operation: " + operation.getName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceRuntimeException(e);
+        } catch (ExecutionException | IOException e) {
+            throw new ServiceRuntimeException("Error receiving response for operation: " + operation.getName(), e);
+        } finally {
+            listener.cancel(correlationId);
+        }
+    }
+
+    public void setNext(Interceptor next) {
+        throw new IllegalStateException("This interceptor must be the last one in an target interceptor chain");
+    }
+
+    public Interceptor getNext() {
+        return null;
+    }
+
+    private void send(WireMessage request) {
+        if (!queue.offer(request)) {
+            throw new ServiceUnavailableException("Request queue full for operation: " + operation.getName());
+        }
+    }
+
+    /**
+     * Recreates a fault. Declared faults with a message constructor are instantiated; other faults are reported as a runtime exception.
+     *
+     * @param response the fault response
+     * @return the fault
+     */
+    private Throwable createFault(WireMessage response) {
+        String text = response.getBody() == null ? null : new String(response.getBody(), StandardCharsets.UTF_8);
+        for (Class<?> faultType : operation.getSourceFaultTypes()) {
+            if (faultType.getName().equals(response.getFaultType())) {
+                try {
+                    Constructor<?> constructor = faultType.getConstructor(String.class);
+                    return (Throwable) constructor.newInstance(text);
+                } catch (ReflectiveOperationException e) {
+                    break;
+                }
+            }
+        }
+        return new ServiceRuntimeException(response.getFaultType() + ": " + text);
+    }
+
+}
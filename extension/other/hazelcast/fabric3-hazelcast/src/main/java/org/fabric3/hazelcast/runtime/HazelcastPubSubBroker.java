@@ -0,0 +1,39 @@
+package org.fabric3.hazelcast.runtime;
+
+import java.net.URI;
+
+import org.fabric3.spi.container.channel.ChannelConnection;
+
+/**
+ * Connects channel producers and consumers to Hazelcast topics or, for replayable channels, ringbuffers.
+ */
+public interface HazelcastPubSubBroker {
+
+    /**
+     * Subscribes a consumer connection.
+     *
+     * @param subscriberId the unique consumer id
+     * @param topic        the topic or ringbuffer name
+     * @param replay       true if events are read from a ringbuffer starting with the oldest available event
+     * @param connection   the consumer connection
+     */
+    void subscribe(URI subscriberId, String topic, boolean replay, ChannelConnection connection);
+
+    /**
+     * Removes a consumer subscription.
+     *
+     * @param subscriberId the unique consumer id
+     * @param topic        the topic or ringbuffer name
+     */
+    void unsubscribe(URI subscriberId, String topic);
+
+    /**
+     * Connects a producer connection so that events are published to the topic or ringbuffer.
+     *
+     * @param topic      the topic or ringbuffer name
+     * @param replay     true if events are published to a ringbuffer
+     * @param connection the producer connection
+     */
+    void connect(String topic, boolean replay, ChannelConnection connection);
+
+}
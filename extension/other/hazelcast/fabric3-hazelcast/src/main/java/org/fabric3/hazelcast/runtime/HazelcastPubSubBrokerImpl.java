@@ -0,0 +1,192 @@
+package org.fabric3.hazelcast.runtime;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.HazelcastInstanceNotActiveException;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.ringbuffer.ReadResultSet;
+import com.hazelcast.ringbuffer.Ringbuffer;
+import com.hazelcast.ringbuffer.StaleSequenceException;
+import org.fabric3.api.MonitorChannel;
+import org.fabric3.api.annotation.Source;
+import org.fabric3.api.annotation.monitor.Monitor;
+import org.fabric3.hazelcast.impl.HazelcastService;
+import org.fabric3.hazelcast.serializer.CompactSerializer;
+import org.fabric3.spi.container.channel.ChannelConnection;
+import org.fabric3.spi.container.channel.EventStream;
+import org.fabric3.spi.container.channel.EventStreamHandler;
+import org.oasisopen.sca.annotation.Destroy;
+import org.oasisopen.sca.annotation.Property;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ *
+ */
+public class HazelcastPubSubBrokerImpl implements HazelcastPubSubBroker {
+    private HazelcastService hazelcastService;
+    private ExecutorService executorService;
+    private MonitorChannel monitor;
+    private long pollTimeout = 1000;
+    private int batchSize = 100;
+
+    private CompactSerializer serializer = new CompactSerializer();
+    private Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    public HazelcastPubSubBrokerImpl(@Reference HazelcastService hazelcastService,
+                                     @Reference(name = "executorService") ExecutorService executorService,
+                                     @Monitor MonitorChannel monitor) {
+        this.hazelcastService = hazelcastService;
+        this.executorService = executorService;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Sets the time in milliseconds a ringbuffer reader waits for events before checking if it has been stopped.
+     *
+     * @param timeout the timeout
+     */
+    @Property(required = false)
+    @Source("$systemConfig//f3:hazelcast/@poll.timeout")
+    public void setPollTimeout(long timeout) {
+        this.pollTimeout = timeout;
+    }
+
+    /**
+     * Sets the maximum number of events read from a ringbuffer in a single operation.
+     *
+     * @param size the batch size
+     */
+    @Property(required = false)
+    @Source("$systemConfig//f3:hazelcast/@batch.size")
+    public void setBatchSize(int size) {
+        this.batchSize = size;
+    }
+
+    @Destroy
+    public void destroy() {
+        subscriptions.values().forEach(Subscription::stop);
+        subscriptions.clear();
+    }
+
+    public void subscribe(URI subscriberId, String topic, boolean replay, ChannelConnection connection) {
+        EventStream stream = connection.getEventStream();
+        EventStreamHandler head = stream.getHeadHandler();
+        Class<?> type = stream.getEventType();
+        String key = subscriberId + ":" + topic;
+        if (replay) {
+            Ringbuffer<byte[]> ringbuffer = getInstance().getRingbuffer(topic);
+            RingbufferReader reader = new RingbufferReader(ringbuffer, ringbuffer.headSequence(), head, type);
+            subscriptions.put(key, reader);
+            executorService.execute(reader);
+        } else {
+            ITopic<byte[]> iTopic = getInstance().getTopic(topic);
+            String registrationId = iTopic.addMessageListener(message -> dispatch(message.getMessageObject(), head, type, true));
+            subscriptions.put(key, () -> iTopic.removeMessageListener(registrationId));
+        }
+    }
+
+    public void unsubscribe(URI subscriberId, String topic) {
+        Subscription subscription = subscriptions.remove(subscriberId + ":" + topic);
+        if (subscription != null) {
+            subscription.stop();
+        }
+    }
+
+    public void connect(String topic, boolean replay, ChannelConnection connection) {
+        PublishHandler handler;
+        if (replay) {
+            Ringbuffer<byte[]> ringbuffer = getInstance().getRingbuffer(topic);
+            handler = new PublishHandler(ringbuffer::add, serializer);
+        } else {
+            ITopic<byte[]> iTopic = getInstance().getTopic(topic);
+            handler = new PublishHandler(iTopic::publish, serializer);
+        }
+        connection.getEventStream().addHandler(handler);
+    }
+
+    private void dispatch(byte[] bytes, EventStreamHandler head, Class<?> type, boolean endOfBatch) {
+        try {
+            head.handle(serializer.deserialize(bytes, type), endOfBatch);
+        } catch (IOException | RuntimeException e) {
+            monitor.severe("Error dispatching event", e);
+        }
+    }
+
+    private HazelcastInstance getInstance() {
+        return hazelcastService.getInstance();
+    }
+
+    private interface Subscription {
+
+        void stop();
+
+    }
+
+    /**
+     * Reads events from a ringbuffer in batches and dispatches them to a consumer.
+     */
+    private class RingbufferReader implements Runnable, Subscription {
+        private Ringbuffer<byte[]> ringbuffer;
+        private long sequence;
+        private EventStreamHandler head;
+        private Class<?> type;
+        private volatile boolean active = true;
+
+        public RingbufferReader(Ringbuffer<byte[]> ringbuffer, long sequence, EventStreamHandler head, Class<?> type) {
+            this.ringbuffer = ringbuffer;
+            this.sequence = sequence;
+            this.head = head;
+            this.type = type;
+        }
+
+        public void stop() {
+            active = false;
+        }
+
+        public void run() {
+            ICompletableFuture<ReadResultSet<byte[]>> pending = null;
+            while (active) {
+                try {
+                    if (pending == null) {
+                        pending = ringbuffer.readManyAsync(sequence, 1, batchSize, null);
+                    }
+                    ReadResultSet<byte[]> result = pending.get(pollTimeout, TimeUnit.MILLISECONDS);
+                    pending = null;
+                    int count = result.readCount();
+                    for (int i = 0; i < count && active; i++) {
+                        dispatch(result.get(i), head, type, i == count - 1);
+                        sequence++;
+                    }
+                } catch (TimeoutException e) {
+                    // no events available; keep the pending read and check if the reader has been stopped
+                } catch (ExecutionException e) {
+                    pending = null;
+                    if (e.getCause() instanceof StaleSequenceException) {
+                        long headSequence = ringbuffer.headSequence();
+                        monitor.warn("Events overwritten before they were read from ringbuffer " + ringbuffer.getName() + ": " + (headSequence - sequence));
+                        sequence = headSequence;
+                    } else if (e.getCause() instanceof HazelcastInstanceNotActiveException) {
+                        return;
+                    } else {
+                        monitor.severe("Error reading from ringbuffer " + ringbuffer.getName(), e);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (HazelcastInstanceNotActiveException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+}
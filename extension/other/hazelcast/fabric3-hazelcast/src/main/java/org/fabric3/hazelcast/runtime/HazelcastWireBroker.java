@@ -0,0 +1,38 @@
+package org.fabric3.hazelcast.runtime;
+
+import java.net.URI;
+import java.util.List;
+
+import org.fabric3.spi.container.wire.InvocationChain;
+
+/**
+ * Connects services and references to Hazelcast queues. Requests for a service are placed on a queue named after the service; all runtimes hosting the
+ * service compete for requests on that queue. Responses are written to a map owned by the runtime that issued the request.
+ */
+public interface HazelcastWireBroker {
+
+    /**
+     * Connects the invocation chains of a reference so that invocations are sent to the queue for the target service.
+     *
+     * @param uri     the target service URI
+     * @param chains  the invocation chains sorted by operation
+     * @param timeout the time in milliseconds to wait for a response
+     */
+    void connectToSender(URI uri, List<InvocationChain> chains, long timeout);
+
+    /**
+     * Starts receiving requests for a service and dispatching them to its invocation chains.
+     *
+     * @param uri    the service URI
+     * @param chains the invocation chains sorted by operation
+     */
+    void connectToReceiver(URI uri, List<InvocationChain> chains);
+
+    /**
+     * Stops receiving requests for a service.
+     *
+     * @param uri the service URI
+     */
+    void releaseReceiver(URI uri);
+
+}
@@ -0,0 +1,255 @@
+package org.fabric3.hazelcast.runtime;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.HazelcastInstanceNotActiveException;
+import com.hazelcast.core.IQueue;
+import org.fabric3.api.MonitorChannel;
+import org.fabric3.api.annotation.Source;
+import org.fabric3.api.annotation.monitor.Monitor;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.hazelcast.impl.HazelcastService;
+import org.fabric3.hazelcast.serializer.CompactSerializer;
+import org.fabric3.hazelcast.serializer.WireMessage;
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.invocation.MessageCache;
+import org.fabric3.spi.container.invocation.WorkContextCache;
+import org.fabric3.spi.container.wire.InvocationChain;
+import org.fabric3.spi.model.physical.PhysicalOperation;
+import org.fabric3.spi.util.UriHelper;
+import org.oasisopen.sca.ServiceRuntimeException;
+import org.oasisopen.sca.annotation.Destroy;
+import org.oasisopen.sca.annotation.Init;
+import org.oasisopen.sca.annotation.Property;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Sends requests to services over Hazelcast queues named after the service URI and returns responses through the {@link ReplyListener} of the requesting
+ * runtime.
+ * <p/>
+ * A receiver polls its service queue for the lifetime of the service. Receivers are therefore run on a bounded pool owned by the broker instead of the
+ * runtime executor; requests they take are dispatched on the runtime executor.
+ */
+public class HazelcastWireBrokerImpl implements HazelcastWireBroker {
+    private static final String QUEUE_PREFIX = "f3.queue.";
+
+    private HazelcastService hazelcastService;
+    private ExecutorService executorService;
+    private MonitorChannel monitor;
+    private long pollTimeout = 1000;
+    private long responseTtl = 60000;
+    private int receiverThreads = 256;
+
+    private CompactSerializer serializer = new CompactSerializer();
+    private Map<String, Receiver> receivers = new ConcurrentHashMap<>();
+    private ReplyListener replyListener;
+    private ExecutorService receiverExecutor;
+
+    public HazelcastWireBrokerImpl(@Reference HazelcastService hazelcastService,
+                                   @Reference(name = "executorService") ExecutorService executorService,
+                                   @Monitor MonitorChannel monitor) {
+        this.hazelcastService = hazelcastService;
+        this.executorService = executorService;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Sets the time in milliseconds a receiver waits for a request before checking if it has been stopped.
+     *
+     * @param timeout the timeout
+     */
+    @Property(required = false)
+    @Source("$systemConfig//f3:hazelcast/@poll.timeout")
+    public void setPollTimeout(long timeout) {
+        this.pollTimeout = timeout;
+    }
+
+    /**
+     * Sets the time in milliseconds a response is retained if it is not received by the requesting runtime, for example, if the runtime has left the cluster.
+     *
+     * @param ttl the time to live
+     */
+    @Property(required = false)
+    @Source("$systemConfig//f3:hazelcast/@response.ttl")
+    public void setResponseTtl(long ttl) {
+        this.responseTtl = ttl;
+    }
+
+    /**
+     * Sets the maximum number of threads used by the receivers of all services. A service fails to attach if there is no thread available for its receiver.
+     *
+     * @param receiverThreads the maximum number of receiver threads
+     */
+    @Property(required = false)
+    @Source("$systemConfig//f3:hazelcast/@receiver.threads")
+    public void setReceiverThreads(int receiverThreads) {
+        this.receiverThreads = receiverThreads;
+    }
+
+    @Init
+    public void init() {
+        AtomicInteger number = new AtomicInteger(1);
+        receiverExecutor = new ThreadPoolExecutor(0, receiverThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "hazelcast receiver:" + number.getAndIncrement());
+            thread.setUncaughtExceptionHandler((t, e) -> monitor.severe("Error receiving requests", e));
+            return thread;
+        });
+    }
+
+    @Destroy
+    public void destroy() {
+        receivers.values().forEach(Receiver::stop);
+        receivers.clear();
+        if (receiverExecutor != null) {
+            receiverExecutor.shutdownNow();
+        }
+        synchronized (this) {
+            if (replyListener != null) {
+                try {
+                    replyListener.close();
+                } catch (HazelcastInstanceNotActiveException e) {
+                    // the instance was shutdown first
+                }
+                replyListener = null;
+            }
+        }
+    }
+
+    public void connectToSender(URI uri, List<InvocationChain> chains, long timeout) {
+        IQueue<WireMessage> queue = getQueue(uri);
+        for (int i = 0; i < chains.size(); i++) {
+            InvocationChain chain = chains.get(i);
+            PhysicalOperation operation = chain.getPhysicalOperation();
+            ReplyListener listener = operation.isOneWay() ? null : getReplyListener();
+            chain.addInterceptor(new HazelcastInterceptor(i, operation, queue, listener, serializer, timeout));
+        }
+    }
+
+    public void connectToReceiver(URI uri, List<InvocationChain> chains) {
+        String id = UriHelper.getDefragmentedNameAsString(uri);
+        Receiver receiver = new Receiver(getQueue(uri), chains);
+        if (receivers.putIfAbsent(id, receiver) != null) {
+            return;
+        }
+        try {
+            receiverExecutor.execute(receiver);
+        } catch (RejectedExecutionException e) {
+            receivers.remove(id, receiver);
+            throw new Fabric3Exception("Unable to start receiver for " + uri + ". The maximum number of receiver threads is in use: " + receiverThreads, e);
+        }
+    }
+
+    public void releaseReceiver(URI uri) {
+        Receiver receiver = receivers.remove(UriHelper.getDefragmentedNameAsString(uri));
+        if (receiver != null) {
+            receiver.stop();
+        }
+    }
+
+    private IQueue<WireMessage> getQueue(URI uri) {
+        return getInstance().getQueue(QUEUE_PREFIX + UriHelper.getDefragmentedNameAsString(uri));
+    }
+
+    private synchronized ReplyListener getReplyListener() {
+        if (replyListener == null) {
+            replyListener = new ReplyListener(getInstance());
+        }
+        return replyListener;
+    }
+
+    private HazelcastInstance getInstance() {
+        return hazelcastService.getInstance();
+    }
+
+    /**
+     * Takes requests from a service queue on a receiver thread and dispatches them to the invocation chains on the runtime executor.
+     */
+    private class Receiver implements Runnable {
+        private IQueue<WireMessage> queue;
+        private List<InvocationChain> chains;
+        private Class<?>[][] parameterTypes;
+        private volatile boolean active = true;
+
+        public Receiver(IQueue<WireMessage> queue, List<InvocationChain> chains) {
+            this.queue = queue;
+            this.chains = chains;
+            parameterTypes = new Class<?>[chains.size()][];
+            for (int i = 0; i < chains.size(); i++) {
+                List<Class<?>> types = chains.get(i).getPhysicalOperation().getSourceParameterTypes();
+                parameterTypes[i] = types.toArray(new Class<?>[types.size()]);
+            }
+        }
+
+        public void stop() {
+            active = false;
+        }
+
+        public void run() {
+            while (active) {
+                try {
+                    WireMessage request = queue.poll(pollTimeout, TimeUnit.MILLISECONDS);
+                    if (request != null) {
+                        executorService.execute(() -> dispatch(request));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (HazelcastInstanceNotActiveException e) {
+                    return;
+                } catch (RuntimeException e) {
+                    monitor.severe("Error receiving request", e);
+                }
+            }
+        }
+
+        private void dispatch(WireMessage request) {
+            Message message = MessageCache.getAndResetMessage();
+            try {
+                int index = request.getOperation();
+                if (index < 0 || index >= chains.size()) {
+                    reply(request, WireMessage.fault(ServiceRuntimeException.class.getName(), "Invalid operation index: " + index));
+                    return;
+                }
+                InvocationChain chain = chains.get(index);
+                message.setBody(serializer.deserializeParameters(request.getBody(), parameterTypes[index]));
+                message.setWorkContext(WorkContextCache.getAndResetThreadWorkContext());
+                Message response = chain.getHeadInterceptor().invoke(message);
+                if (response.isFault()) {
+                    Throwable fault = (Throwable) response.getBody();
+                    reply(request, WireMessage.fault(fault.getClass().getName(), fault.getMessage()));
+                } else {
+                    reply(request, WireMessage.response(serializer.serialize(response.getBody())));
+                }
+            } catch (IOException | RuntimeException e) {
+                monitor.severe("Error dispatching request", e);
+                reply(request, WireMessage.fault(e.getClass().getName(), e.getMessage()));
+            } finally {
+                message.reset();
+            }
+        }
+
+        private void reply(WireMessage request, WireMessage response) {
+            if (request.getCorrelationId() == null) {
+                // one-way
+                return;
+            }
+            try {
+                getInstance().<String, WireMessage>getMap(request.getReplyTo()).set(request.getCorrelationId(), response, responseTtl, TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                monitor.severe("Error sending response", e);
+            }
+        }
+    }
+
+}
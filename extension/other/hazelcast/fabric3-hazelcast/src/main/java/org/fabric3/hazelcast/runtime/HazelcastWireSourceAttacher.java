@@ -0,0 +1,35 @@
+package org.fabric3.hazelcast.runtime;
+
+import java.net.URI;
+import java.util.List;
+
+import org.fabric3.api.annotation.wire.Key;
+import org.fabric3.hazelcast.provision.HazelcastWireSource;
+import org.fabric3.spi.container.builder.SourceWireAttacher;
+import org.fabric3.spi.container.wire.InvocationChain;
+import org.fabric3.spi.container.wire.Wire;
+import org.fabric3.spi.model.physical.PhysicalWireTarget;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Attaches a service to the Hazelcast queue its requests are sent to.
+ */
+@Key("org.fabric3.hazelcast.provision.HazelcastWireSource")
+public class HazelcastWireSourceAttacher implements SourceWireAttacher<HazelcastWireSource> {
+    private HazelcastWireBroker broker;
+
+    public HazelcastWireSourceAttacher(@Reference HazelcastWireBroker broker) {
+        this.broker = broker;
+    }
+
+    public void attach(HazelcastWireSource source, PhysicalWireTarget target, Wire wire) {
+        URI uri = target.getUri();
+        List<InvocationChain> chains = WireHelper.sortChains(wire);
+        broker.connectToReceiver(uri, chains);
+    }
+
+    public void detach(HazelcastWireSource source, PhysicalWireTarget target) {
+        broker.releaseReceiver(target.getUri());
+    }
+
+}
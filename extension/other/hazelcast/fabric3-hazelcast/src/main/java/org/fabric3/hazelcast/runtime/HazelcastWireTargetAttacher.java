@@ -0,0 +1,29 @@
+package org.fabric3.hazelcast.runtime;
+
+import java.util.List;
+
+import org.fabric3.api.annotation.wire.Key;
+import org.fabric3.hazelcast.provision.HazelcastWireTarget;
+import org.fabric3.spi.container.builder.TargetWireAttacher;
+import org.fabric3.spi.container.wire.InvocationChain;
+import org.fabric3.spi.container.wire.Wire;
+import org.fabric3.spi.model.physical.PhysicalWireSource;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Attaches a reference to the Hazelcast queue of its target service.
+ */
+@Key("org.fabric3.hazelcast.provision.HazelcastWireTarget")
+public class HazelcastWireTargetAttacher implements TargetWireAttacher<HazelcastWireTarget> {
+    private HazelcastWireBroker broker;
+
+    public HazelcastWireTargetAttacher(@Reference HazelcastWireBroker broker) {
+        this.broker = broker;
+    }
+
+    public void attach(PhysicalWireSource source, HazelcastWireTarget target, Wire wire) {
+        List<InvocationChain> chains = WireHelper.sortChains(wire);
+        broker.connectToSender(target.getUri(), chains, target.getTimeout());
+    }
+
+}
@@ -0,0 +1,38 @@
+package org.fabric3.hazelcast.runtime;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import org.fabric3.hazelcast.serializer.CompactSerializer;
+import org.fabric3.spi.container.channel.EventStreamHandler;
+import org.oasisopen.sca.ServiceRuntimeException;
+
+/**
+ * Serializes events and publishes them to a Hazelcast topic or ringbuffer.
+ */
+public class PublishHandler implements EventStreamHandler {
+    private Consumer<byte[]> publisher;
+    private CompactSerializer serializer;
+
+    public PublishHandler(Consumer<byte[]> publisher, CompactSerializer serializer) {
+        this.publisher = publisher;
+        this.serializer = serializer;
+    }
+
+    public void handle(Object event, boolean endOfBatch) {
+        try {
+            publisher.accept(serializer.serialize(event));
+        } catch (IOException e) {
+            throw new ServiceRuntimeException("Error serializing event: " + event, e);
+        }
+    }
+
+    public void setNext(EventStreamHandler next) {
+        throw new IllegalStateException("This handler must be the last one in the handler sequence");
+    }
+
+    public EventStreamHandler getNext() {
+        return null;
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.fabric3.hazelcast.runtime;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.listener.EntryAddedListener;
+import org.fabric3.hazelcast.serializer.WireMessage;
+
+/**
+ * Receives responses for all requests issued by a runtime. Responses are written to a map named after the local member; a single listener completes the
+ * pending request registered under the response key and removes the entry.
+ */
+public class ReplyListener implements EntryAddedListener<String, WireMessage> {
+    private static final String REPLY_PREFIX = "f3.replies.";
+
+    private String name;
+    private IMap<String, WireMessage> replies;
+    private String registrationId;
+    private AtomicLong counter = new AtomicLong();
+
+    private Map<String, CompletableFuture<WireMessage>> pending = new ConcurrentHashMap<>();
+
+    public ReplyListener(HazelcastInstance hazelcast) {
+        name = REPLY_PREFIX + hazelcast.getCluster().getLocalMember().getUuid();
+        replies = hazelcast.getMap(name);
+        registrationId = replies.addEntryListener(this, true);
+    }
+
+    /**
+     * Returns the name of the map responses are written to.
+     *
+     * @return the map name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Creates a correlation id unique to this runtime.
+     *
+     * @return the correlation id to send with the request
+     */
+    public String createCorrelationId() {
+        return Long.toString(counter.incrementAndGet());
+    }
+
+    /**
+     * Registers a pending request.
+     *
+     * @param correlationId the request correlation id
+     * @return a future completed when the response is received
+     */
+    public CompletableFuture<WireMessage> register(String correlationId) {
+        CompletableFuture<WireMessage> future = new CompletableFuture<>();
+        pending.put(correlationId, future);
+        return future;
+    }
+
+    /**
+     * Removes a pending request, for example, after it has timed out.
+     *
+     * @param correlationId the request correlation id
+     */
+    public void cancel(String correlationId) {
+        pending.remove(correlationId);
+    }
+
+    public void entryAdded(EntryEvent<String, WireMessage> event) {
+        String correlationId = event.getKey();
+        replies.removeAsync(correlationId);
+        CompletableFuture<WireMessage> future = pending.remove(correlationId);
+        if (future != null) {
+            future.complete(event.getValue());
+        }
+    }
+
+    public void close() {
+        replies.removeEntryListener(registrationId);
+        for (CompletableFuture<WireMessage> future : pending.values()) {
+            future.cancel(false);
+        }
+        pending.clear();
+    }
+
+}
@@ -0,0 +1,34 @@
+package org.fabric3.hazelcast.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.fabric3.spi.container.wire.InvocationChain;
+import org.fabric3.spi.container.wire.Wire;
+import org.fabric3.spi.model.physical.PhysicalOperation;
+
+/**
+ * Utility methods for attaching wires.
+ */
+public final class WireHelper {
+
+    private WireHelper() {
+    }
+
+    /**
+     * Returns the invocation chains for a wire in their natural order. Chain positions are used as operation indexes and must be the same on the
+     * reference and service side.
+     *
+     * @param wire the wire
+     * @return the invocation chains
+     */
+    public static List<InvocationChain> sortChains(Wire wire) {
+        TreeMap<PhysicalOperation, InvocationChain> map = new TreeMap<>();
+        for (InvocationChain chain : wire.getInvocationChains()) {
+            map.put(chain.getPhysicalOperation(), chain);
+        }
+        return new ArrayList<>(map.values());
+    }
+
+}
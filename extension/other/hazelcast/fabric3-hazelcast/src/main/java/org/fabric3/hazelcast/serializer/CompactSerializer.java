@@ -0,0 +1,196 @@
+package org.fabric3.hazelcast.serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serializes events and operation parameters to a compact binary form. Strings, byte arrays and primitive wrappers are written directly using a single tag
+ * byte; other types are written as JSON and read back using the declared type of the event or parameter. Java serialization is not used.
+ * <p/>
+ * Instances are thread-safe.
+ */
+public class CompactSerializer {
+    private static final byte NULL = 0;
+    private static final byte BYTES = 1;
+    private static final byte STRING = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte FLOAT = 6;
+    private static final byte SHORT = 7;
+    private static final byte BYTE = 8;
+    private static final byte BOOLEAN = 9;
+    private static final byte CHAR = 10;
+    private static final byte JSON = 11;
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Serializes a single value.
+     *
+     * @param value the value, which may be null
+     * @return the serialized value
+     * @throws IOException if there is a serialization error
+     */
+    public byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bas = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bas);
+        write(value, out);
+        out.flush();
+        return bas.toByteArray();
+    }
+
+    /**
+     * Deserializes a single value.
+     *
+     * @param bytes the serialized value
+     * @param type  the declared type of the value
+     * @return the value
+     * @throws IOException if there is a deserialization error
+     */
+    public Object deserialize(byte[] bytes, Class<?> type) throws IOException {
+        if (bytes == null) {
+            return null;
+        }
+        return read(new DataInputStream(new ByteArrayInputStream(bytes)), type);
+    }
+
+    /**
+     * Serializes operation parameters.
+     *
+     * @param parameters the parameters, which may be null if the operation has none
+     * @return the serialized parameters
+     * @throws IOException if there is a serialization error
+     */
+    public byte[] serializeParameters(Object[] parameters) throws IOException {
+        ByteArrayOutputStream bas = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bas);
+        if (parameters == null) {
+            out.writeShort(0);
+        } else {
+            out.writeShort(parameters.length);
+            for (Object parameter : parameters) {
+                write(parameter, out);
+            }
+        }
+        out.flush();
+        return bas.toByteArray();
+    }
+
+    /**
+     * Deserializes operation parameters.
+     *
+     * @param bytes the serialized parameters
+     * @param types the declared parameter types
+     * @return the parameters
+     * @throws IOException if there is a deserialization error
+     */
+    public Object[] deserializeParameters(byte[] bytes, Class<?>[] types) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int count = in.readShort();
+        if (count == 0) {
+            return EMPTY;
+        }
+        if (count != types.length) {
+            throw new IOException("Expected " + types.length + " parameters but received " + count);
+        }
+        Object[] parameters = new Object[count];
+        for (int i = 0; i < count; i++) {
+            parameters[i] = read(in, types[i]);
+        }
+        return parameters;
+    }
+
+    private void write(Object value, DataOutputStream out) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            out.writeByte(BYTES);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value instanceof String) {
+            // writeUTF is limited to 64K so write the length explicitly
+            byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            out.writeByte(STRING);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Character) {
+            out.writeByte(CHAR);
+            out.writeChar((Character) value);
+        } else {
+            byte[] bytes = mapper.writeValueAsBytes(value);
+            out.writeByte(JSON);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private Object read(DataInputStream in, Class<?> type) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case BYTES:
+                return readBytes(in);
+            case STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case INT:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case FLOAT:
+                return in.readFloat();
+            case SHORT:
+                return in.readShort();
+            case BYTE:
+                return in.readByte();
+            case BOOLEAN:
+                return in.readBoolean();
+            case CHAR:
+                return in.readChar();
+            case JSON:
+                return mapper.readValue(readBytes(in), type);
+            default:
+                throw new IOException("Unknown type tag: " + tag);
+        }
+    }
+
+    private byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+}
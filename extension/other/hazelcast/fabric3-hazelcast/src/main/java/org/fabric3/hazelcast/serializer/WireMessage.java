@@ -0,0 +1,121 @@
+package org.fabric3.hazelcast.serializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+/**
+ * A request or response sent over a Hazelcast wire. Requests carry the index of the target operation and serialized parameters; responses carry either the
+ * serialized return value or the type and message of a fault.
+ */
+public class WireMessage implements IdentifiedDataSerializable {
+    public static final int ID = 1;
+
+    private String correlationId;
+    private String replyTo;
+    private int operation;
+    private byte[] body;
+    private String faultType;
+
+    /**
+     * Constructor used during deserialization.
+     */
+    public WireMessage() {
+    }
+
+    /**
+     * Creates a request.
+     *
+     * @param correlationId the correlation id or null if the operation is one-way
+     * @param replyTo       the name of the map responses are written to or null if the operation is one-way
+     * @param operation     the operation index
+     * @param body          the serialized parameters
+     * @return the request
+     */
+    public static WireMessage request(String correlationId, String replyTo, int operation, byte[] body) {
+        WireMessage message = new WireMessage();
+        message.correlationId = correlationId;
+        message.replyTo = replyTo;
+        message.operation = operation;
+        message.body = body;
+        return message;
+    }
+
+    /**
+     * Creates a response.
+     *
+     * @param body the serialized return value
+     * @return the response
+     */
+    public static WireMessage response(byte[] body) {
+        WireMessage message = new WireMessage();
+        message.body = body;
+        return message;
+    }
+
+    /**
+     * Creates a fault response.
+     *
+     * @param faultType the fault class name
+     * @param text      the fault message, which may be null
+     * @return the response
+     */
+    public static WireMessage fault(String faultType, String text) {
+        WireMessage message = new WireMessage();
+        message.faultType = faultType;
+        message.body = text == null ? null : text.getBytes(StandardCharsets.UTF_8);
+        return message;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public String getReplyTo() {
+        return replyTo;
+    }
+
+    public int getOperation() {
+        return operation;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public boolean isFault() {
+        return faultType != null;
+    }
+
+    public String getFaultType() {
+        return faultType;
+    }
+
+    public int getFactoryId() {
+        return WireMessageFactory.FACTORY_ID;
+    }
+
+    public int getId() {
+        return ID;
+    }
+
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeUTF(correlationId);
+        out.writeUTF(replyTo);
+        out.writeInt(operation);
+        out.writeByteArray(body);
+        out.writeUTF(faultType);
+    }
+
+    public void readData(ObjectDataInput in) throws IOException {
+        correlationId = in.readUTF();
+        replyTo = in.readUTF();
+        operation = in.readInt();
+        body = in.readByteArray();
+        faultType = in.readUTF();
+    }
+
+}
@@ -0,0 +1,16 @@
+package org.fabric3.hazelcast.serializer;
+
+import com.hazelcast.nio.serialization.DataSerializableFactory;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+/**
+ * Creates {@link WireMessage} instances during deserialization. Must be registered with the Hazelcast serialization configuration of every member.
+ */
+public class WireMessageFactory implements DataSerializableFactory {
+    public static final int FACTORY_ID = 3001;
+
+    public IdentifiedDataSerializable create(int typeId) {
+        return typeId == WireMessage.ID ? new WireMessage() : null;
+    }
+
+}
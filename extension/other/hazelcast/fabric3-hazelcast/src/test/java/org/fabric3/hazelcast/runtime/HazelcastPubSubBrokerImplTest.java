@@ -0,0 +1,133 @@
+package org.fabric3.hazelcast.runtime;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.fabric3.api.MonitorChannel;
+import org.fabric3.spi.container.channel.ChannelConnection;
+import org.fabric3.spi.container.channel.EventStream;
+import org.fabric3.spi.container.channel.EventStreamHandler;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Publishes and consumes events using an embedded Hazelcast member.
+ */
+public class HazelcastPubSubBrokerImplTest {
+    private static HazelcastInstance MEMBER;
+    private static ExecutorService EXECUTOR;
+    private static MonitorChannel MONITOR;
+
+    private HazelcastPubSubBrokerImpl broker;
+
+    @Test
+    public void testTopic() throws Exception {
+        URI subscriberId = URI.create("consumer");
+        CountDownLatch latch = new CountDownLatch(2);
+        List<Object> events = new CopyOnWriteArrayList<>();
+        broker.subscribe(subscriberId, "topic", false, createConsumerConnection(events, latch));
+
+        EventStreamHandler publisher = createProducer("topic", false);
+        publisher.handle("event1", true);
+        publisher.handle("event2", true);
+
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals("event1", events.get(0));
+        Assert.assertEquals("event2", events.get(1));
+
+        broker.unsubscribe(subscriberId, "topic");
+        publisher.handle("event3", true);
+        Thread.sleep(200);
+        Assert.assertEquals(2, events.size());
+    }
+
+    @Test
+    public void testRingbufferReplay() throws Exception {
+        EventStreamHandler publisher = createProducer("replay", true);
+        // publish before the consumer is subscribed
+        publisher.handle(1, true);
+        publisher.handle(2, true);
+
+        URI subscriberId = URI.create("consumer");
+        CountDownLatch latch = new CountDownLatch(3);
+        List<Object> events = new CopyOnWriteArrayList<>();
+        broker.subscribe(subscriberId, "replay", true, createConsumerConnection(events, latch));
+
+        publisher.handle(3, true);
+
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1, events.get(0));
+        Assert.assertEquals(2, events.get(1));
+        Assert.assertEquals(3, events.get(2));
+
+        broker.unsubscribe(subscriberId, "replay");
+    }
+
+    private ChannelConnection createConsumerConnection(List<Object> events, CountDownLatch latch) {
+        EventStreamHandler handler = (event, endOfBatch) -> {
+            events.add(event);
+            latch.countDown();
+        };
+        EventStream stream = EasyMock.createMock(EventStream.class);
+        EasyMock.expect(stream.getHeadHandler()).andReturn(handler);
+        stream.getEventType();
+        EasyMock.expectLastCall().andReturn(Object.class);
+        ChannelConnection connection = EasyMock.createMock(ChannelConnection.class);
+        EasyMock.expect(connection.getEventStream()).andReturn(stream);
+        EasyMock.replay(stream, connection);
+        return connection;
+    }
+
+    private EventStreamHandler createProducer(String topic, boolean replay) {
+        Capture<EventStreamHandler> capture = new Capture<>();
+        EventStream stream = EasyMock.createMock(EventStream.class);
+        stream.addHandler(EasyMock.capture(capture));
+        ChannelConnection connection = EasyMock.createMock(ChannelConnection.class);
+        EasyMock.expect(connection.getEventStream()).andReturn(stream);
+        EasyMock.replay(stream, connection);
+
+        broker.connect(topic, replay, connection);
+        EasyMock.verify(stream, connection);
+        return capture.getValue();
+    }
+
+    @Before
+    public void setUp() {
+        broker = new HazelcastPubSubBrokerImpl(() -> MEMBER, EXECUTOR, MONITOR);
+        broker.setPollTimeout(100);
+    }
+
+    @BeforeClass
+    public static void init() {
+        Config config = new Config();
+        config.getGroupConfig().setName("f3-pubsub-test");
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(false);
+        MEMBER = Hazelcast.newHazelcastInstance(config);
+        EXECUTOR = Executors.newCachedThreadPool();
+        MONITOR = EasyMock.createNiceMock(MonitorChannel.class);
+        EasyMock.replay(MONITOR);
+    }
+
+    @AfterClass
+    public static void destroy() {
+        EXECUTOR.shutdownNow();
+        MEMBER.shutdown();
+    }
+
+}
@@ -0,0 +1,245 @@
+package org.fabric3.hazelcast.runtime;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.easymock.EasyMock;
+import org.fabric3.api.MonitorChannel;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.hazelcast.serializer.WireMessageFactory;
+import org.fabric3.spi.container.invocation.Message;
+import org.fabric3.spi.container.invocation.MessageImpl;
+import org.fabric3.spi.container.wire.Interceptor;
+import org.fabric3.spi.container.wire.InvocationChain;
+import org.fabric3.spi.model.physical.PhysicalOperation;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.oasisopen.sca.ServiceUnavailableException;
+
+/**
+ * Sends requests between two embedded Hazelcast members.
+ */
+public class HazelcastWireBrokerImplTest {
+    private static HazelcastInstance SERVICE_MEMBER;
+    private static HazelcastInstance CLIENT_MEMBER;
+    private static ExecutorService EXECUTOR;
+    private static MonitorChannel MONITOR;
+
+    @Test
+    public void testRequestResponse() throws Exception {
+        URI uri = URI.create("fabric3://domain/EchoService");
+        HazelcastWireBrokerImpl serviceBroker = new HazelcastWireBrokerImpl(() -> SERVICE_MEMBER, EXECUTOR, MONITOR);
+        serviceBroker.init();
+        HazelcastWireBrokerImpl clientBroker = new HazelcastWireBrokerImpl(() -> CLIENT_MEMBER, EXECUTOR, MONITOR);
+        clientBroker.init();
+
+        PhysicalOperation echo = createOperation("echo", false);
+        PhysicalOperation fail = createOperation("fail", false);
+        fail.addSourceFaultType(TestFault.class);
+
+        List<InvocationChain> serviceChains = new ArrayList<>();
+        serviceChains.add(new Chain(echo, new ServiceInterceptor(msg -> {
+            msg.setBody(((Object[]) msg.getBody())[0]);
+            return msg;
+        })));
+        serviceChains.add(new Chain(fail, new ServiceInterceptor(msg -> {
+            msg.setBodyWithFault(new TestFault("expected"));
+            return msg;
+        })));
+        serviceBroker.connectToReceiver(uri, serviceChains);
+
+        List<InvocationChain> clientChains = new ArrayList<>();
+        clientChains.add(new Chain(echo, null));
+        clientChains.add(new Chain(fail, null));
+        clientBroker.connectToSender(uri, clientChains, 10000);
+
+        for (int i = 0; i < 10; i++) {
+            Message response = invoke(clientChains.get(0), "hello" + i);
+            Assert.assertFalse(response.isFault());
+            Assert.assertEquals("hello" + i, response.getBody());
+        }
+
+        Message fault = invoke(clientChains.get(1), "test");
+        Assert.assertTrue(fault.isFault());
+        Assert.assertTrue(fault.getBody() instanceof TestFault);
+        Assert.assertEquals("expected", ((TestFault) fault.getBody()).getMessage());
+
+        serviceBroker.releaseReceiver(uri);
+        serviceBroker.destroy();
+        clientBroker.destroy();
+    }
+
+    @Test
+    public void testOneWay() throws Exception {
+        URI uri = URI.create("fabric3://domain/OneWayService");
+        HazelcastWireBrokerImpl serviceBroker = new HazelcastWireBrokerImpl(() -> SERVICE_MEMBER, EXECUTOR, MONITOR);
+        serviceBroker.init();
+        HazelcastWireBrokerImpl clientBroker = new HazelcastWireBrokerImpl(() -> CLIENT_MEMBER, EXECUTOR, MONITOR);
+        clientBroker.init();
+
+        PhysicalOperation operation = createOperation("notify", true);
+        CountDownLatch latch = new CountDownLatch(5);
+        serviceBroker.connectToReceiver(uri, Collections.singletonList(new Chain(operation, new ServiceInterceptor(msg -> {
+            latch.countDown();
+            return msg;
+        }))));
+
+        InvocationChain clientChain = new Chain(operation, null);
+        clientBroker.connectToSender(uri, Collections.singletonList(clientChain), 10000);
+        for (int i = 0; i < 5; i++) {
+            invoke(clientChain, "event");
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+        serviceBroker.destroy();
+        clientBroker.destroy();
+    }
+
+    @Test
+    public void testReceiversBounded() throws Exception {
+        URI first = URI.create("fabric3://domain/FirstService");
+        URI second = URI.create("fabric3://domain/SecondService");
+        HazelcastWireBrokerImpl serviceBroker = new HazelcastWireBrokerImpl(() -> SERVICE_MEMBER, EXECUTOR, MONITOR);
+        serviceBroker.setReceiverThreads(1);
+        serviceBroker.init();
+        PhysicalOperation operation = createOperation("notify", true);
+        try {
+            serviceBroker.connectToReceiver(first, Collections.singletonList(new Chain(operation, new ServiceInterceptor(msg -> msg))));
+            try {
+                serviceBroker.connectToReceiver(second, Collections.singletonList(new Chain(operation, new ServiceInterceptor(msg -> msg))));
+                Assert.fail("Expected receiver to be rejected");
+            } catch (Fabric3Exception e) {
+                // expected
+            }
+            serviceBroker.releaseReceiver(first);
+        } finally {
+            serviceBroker.destroy();
+        }
+    }
+
+    @Test(expected = ServiceUnavailableException.class)
+    public void testTimeout() throws Exception {
+        URI uri = URI.create("fabric3://domain/UnavailableService");
+        HazelcastWireBrokerImpl clientBroker = new HazelcastWireBrokerImpl(() -> CLIENT_MEMBER, EXECUTOR, MONITOR);
+        clientBroker.init();
+        InvocationChain chain = new Chain(createOperation("echo", false), null);
+        clientBroker.connectToSender(uri, Collections.singletonList(chain), 200);
+        try {
+            invoke(chain, "hello");
+        } finally {
+            clientBroker.destroy();
+        }
+    }
+
+    private Message invoke(InvocationChain chain, String parameter) {
+        Message message = new MessageImpl();
+        message.setBody(new Object[]{parameter});
+        return chain.getHeadInterceptor().invoke(message);
+    }
+
+    private PhysicalOperation createOperation(String name, boolean oneWay) {
+        PhysicalOperation operation = new PhysicalOperation();
+        operation.setName(name);
+        operation.addSourceParameterType(String.class);
+        operation.setSourceReturnType(oneWay ? void.class : String.class);
+        operation.setOneWay(oneWay);
+        return operation;
+    }
+
+    @BeforeClass
+    public static void init() {
+        SERVICE_MEMBER = createMember();
+        CLIENT_MEMBER = createMember();
+        EXECUTOR = Executors.newCachedThreadPool();
+        MONITOR = EasyMock.createNiceMock(MonitorChannel.class);
+        EasyMock.replay(MONITOR);
+    }
+
+    @AfterClass
+    public static void destroy() {
+        EXECUTOR.shutdownNow();
+        CLIENT_MEMBER.shutdown();
+        SERVICE_MEMBER.shutdown();
+    }
+
+    private static HazelcastInstance createMember() {
+        Config config = new Config();
+        config.getGroupConfig().setName("f3-wire-test");
+        config.getSerializationConfig().addDataSerializableFactory(WireMessageFactory.FACTORY_ID, new WireMessageFactory());
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        return Hazelcast.newHazelcastInstance(config);
+    }
+
+    public static class TestFault extends Exception {
+        private static final long serialVersionUID = -7226316233137373834L;
+
+        public TestFault(String message) {
+            super(message);
+        }
+    }
+
+    private static class ServiceInterceptor implements Interceptor {
+        private Function<Message, Message> function;
+
+        public ServiceInterceptor(Function<Message, Message> function) {
+            this.function = function;
+        }
+
+        public Message invoke(Message msg) {
+            return function.apply(msg);
+        }
+
+        public void setNext(Interceptor next) {
+        }
+
+        public Interceptor getNext() {
+            return null;
+        }
+    }
+
+    private static class Chain implements InvocationChain {
+        private PhysicalOperation operation;
+        private Interceptor head;
+
+        public Chain(PhysicalOperation operation, Interceptor head) {
+            this.operation = operation;
+            this.head = head;
+        }
+
+        public PhysicalOperation getPhysicalOperation() {
+            return operation;
+        }
+
+        public void addInterceptor(Interceptor interceptor) {
+            head = interceptor;
+        }
+
+        public void addInterceptor(int index, Interceptor interceptor) {
+            head = interceptor;
+        }
+
+        public Interceptor getHeadInterceptor() {
+            return head;
+        }
+
+        public Interceptor getTailInterceptor() {
+            return head;
+        }
+    }
+
+}
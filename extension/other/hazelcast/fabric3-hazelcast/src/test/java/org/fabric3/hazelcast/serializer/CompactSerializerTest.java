@@ -0,0 +1,77 @@
+package org.fabric3.hazelcast.serializer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class CompactSerializerTest {
+    private CompactSerializer serializer = new CompactSerializer();
+
+    @Test
+    public void testPrimitives() throws Exception {
+        Object[] values = {"test", 1, 2L, 3.0d, 4.0f, (short) 5, (byte) 6, true, 'c', null};
+        for (Object value : values) {
+            Class<?> type = value == null ? Object.class : value.getClass();
+            Assert.assertEquals(value, serializer.deserialize(serializer.serialize(value), type));
+        }
+    }
+
+    @Test
+    public void testBytes() throws Exception {
+        byte[] bytes = {1, 2, 3};
+        Assert.assertArrayEquals(bytes, (byte[]) serializer.deserialize(serializer.serialize(bytes), byte[].class));
+    }
+
+    @Test
+    public void testObject() throws Exception {
+        Event event = new Event();
+        event.setName("test");
+        event.setValue(10);
+        Event result = (Event) serializer.deserialize(serializer.serialize(event), Event.class);
+        Assert.assertEquals("test", result.getName());
+        Assert.assertEquals(10, result.getValue());
+    }
+
+    @Test
+    public void testParameters() throws Exception {
+        Event event = new Event();
+        event.setName("test");
+        byte[] bytes = serializer.serializeParameters(new Object[]{"test", 1, null, event});
+        Object[] parameters = serializer.deserializeParameters(bytes, new Class<?>[]{String.class, int.class, String.class, Event.class});
+        Assert.assertEquals(4, parameters.length);
+        Assert.assertEquals("test", parameters[0]);
+        Assert.assertEquals(1, parameters[1]);
+        Assert.assertNull(parameters[2]);
+        Assert.assertEquals("test", ((Event) parameters[3]).getName());
+    }
+
+    @Test
+    public void testNoParameters() throws Exception {
+        byte[] bytes = serializer.serializeParameters(null);
+        Assert.assertEquals(0, serializer.deserializeParameters(bytes, new Class<?>[0]).length);
+    }
+
+    public static class Event {
+        private String name;
+        private int value;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        public void setValue(int value) {
+            this.value = value;
+        }
+    }
+
+}
@@ -20,6 +20,7 @@ package org.fabric3.contribution.war;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
@@ -33,6 +34,8 @@ import java.util.zip.ZipInputStream;
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.host.stream.Source;
 import org.fabric3.api.host.stream.UrlSource;
+import org.fabric3.spi.contribution.ClassMetadata;
+import org.fabric3.spi.contribution.ClassMetadataReader;
 import org.fabric3.spi.contribution.ContentTypeResolver;
 import org.fabric3.spi.contribution.Contribution;
 import org.fabric3.spi.contribution.ContributionManifest;
@@ -55,6 +58,7 @@ public class WarContributionHandler implements ArchiveContributionHandler {
     private Loader loader;
     private List<JavaArtifactIntrospector> artifactIntrospectors = Collections.emptyList();
     private ContentTypeResolver contentTypeResolver;
+    private ClassMetadataReader metadataReader;
 
     public WarContributionHandler(@Reference Loader loader, @Reference ContentTypeResolver contentTypeResolver) {
         this.loader = loader;
@@ -66,6 +70,16 @@ public class WarContributionHandler implements ArchiveContributionHandler {
         this.artifactIntrospectors = introspectors;
     }
 
+    /**
+     * Sets the reader used to prescan class files so that only classes which may be contribution resources are loaded.
+     *
+     * @param metadataReader the reader
+     */
+    @Reference(required = false)
+    public void setMetadataReader(ClassMetadataReader metadataReader) {
+        this.metadataReader = metadataReader;
+    }
+
     public boolean canProcess(Contribution contribution) {
         String sourceUrl = contribution.getLocation().toString();
         return sourceUrl.endsWith(".war");
@@ -129,6 +143,9 @@ public class WarContributionHandler implements ArchiveContributionHandler {
                         URL entryUrl = new URL("jar:" + location.toExternalForm() + "!/" + name);
                         // note '/' must be used as archives always use '/' for a separator
                         name = name.substring(PREFIX, name.length() - 6).replace("/", ".");
+                        if (!isCandidate(zipStream, contribution, context)) {
+                            continue;
+                        }
                         Class<?> clazz = context.getClassLoader().loadClass(name);
                         Resource resource = null;
                         for (JavaArtifactIntrospector introspector : artifactIntrospectors) {
@@ -175,6 +192,32 @@ public class WarContributionHandler implements ArchiveContributionHandler {
 
     }
 
+    /**
+     * Returns true if the class read from the stream may be a contribution resource and must be loaded for introspection.
+     *
+     * @param stream       the class file stream, positioned at the start of the class
+     * @param contribution the contribution
+     * @param context      the introspection context
+     * @return true if the class must be loaded
+     */
+    private boolean isCandidate(InputStream stream, Contribution contribution, IntrospectionContext context) {
+        if (metadataReader == null) {
+            return true;
+        }
+        try {
+            ClassMetadata metadata = metadataReader.read(stream, context.getClassLoader());
+            for (JavaArtifactIntrospector introspector : artifactIntrospectors) {
+                if (introspector.isCandidate(metadata, contribution)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            // the class file could not be read, load the class instead
+            return true;
+        }
+    }
+
     private boolean exclude(ContributionManifest manifest, ZipEntry entry) {
         for (Pattern pattern : manifest.getScanExcludes()) {
             if (pattern.matcher(entry.getName()).matches()) {
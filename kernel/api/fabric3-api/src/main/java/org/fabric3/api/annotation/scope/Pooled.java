@@ -0,0 +1,58 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.api.annotation.scope;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.oasisopen.sca.annotation.Scope;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Annotation used to indicate that decorated component implementations have pooled scope. Pooled components are stateless but initialized instances are
+ * retained in a pool and reused across invocations instead of being created and destroyed for each invocation.
+ *
+ * Pool settings not specified on the annotation default to the runtime pool configuration.
+ */
+@Target(TYPE)
+@Retention(RUNTIME)
+@Scope(Scopes.POOLED)
+public @interface Pooled {
+
+    /**
+     * Specifies the number of instances retained when idle instances are evicted. A negative value uses the runtime setting.
+     *
+     * @return the minimum pool size
+     */
+    int minSize() default -1;
+
+    /**
+     * Specifies the maximum number of pooled instances. A negative value uses the runtime setting.
+     *
+     * @return the maximum pool size
+     */
+    int maxSize() default -1;
+
+    /**
+     * Specifies the time in milliseconds an instance may be idle before it is evicted or 0 to disable eviction. A negative value uses the runtime setting.
+     *
+     * @return the idle timeout
+     */
+    long idleTimeout() default -1;
+
+}
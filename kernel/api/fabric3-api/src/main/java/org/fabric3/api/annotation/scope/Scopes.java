@@ -29,4 +29,6 @@ public interface Scopes {
 
     String DOMAIN = "DOMAIN";
 
+    String POOLED = "POOLED";
+
 }
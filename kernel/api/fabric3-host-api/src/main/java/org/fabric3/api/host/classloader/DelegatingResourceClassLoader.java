@@ -42,6 +42,11 @@ import org.fabric3.api.host.util.CompositeEnumeration;
  */
 public class DelegatingResourceClassLoader extends URLClassLoader {
 
+    static {
+        // allows subclasses to register as parallel capable
+        registerAsParallelCapable();
+    }
+
     public DelegatingResourceClassLoader(URL[] urls, ClassLoader parent) {
         super(urls, parent);
         checkParent(parent);
@@ -0,0 +1,69 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.api.model.type.builder;
+
+import org.fabric3.api.model.type.component.Channel;
+import org.fabric3.api.model.type.component.QueuedChannelData;
+
+/**
+ * Builds a channel that dispatches events to each consumer through a dedicated bounded queue.
+ */
+public class QueuedChannelBuilder extends AbstractBuilder {
+    private final Channel definition;
+    private final QueuedChannelData data;
+
+    /**
+     * Creates a queued channel builder.
+     *
+     * @param name the channel name
+     * @return the builder
+     */
+    public static QueuedChannelBuilder newBuilder(String name) {
+        return new QueuedChannelBuilder(name);
+    }
+
+    protected QueuedChannelBuilder(String name) {
+        definition = new Channel(name);
+        definition.setType(QueuedChannelData.TYPE);
+        data = new QueuedChannelData();
+        definition.setMetadata(data);
+    }
+
+    public QueuedChannelBuilder queueSize(int size) {
+        checkState();
+        data.setQueueSize(size);
+        return this;
+    }
+
+    public QueuedChannelBuilder batchSize(int size) {
+        checkState();
+        data.setBatchSize(size);
+        return this;
+    }
+
+    /**
+     * Builds the channel definition.
+     *
+     * @return the definition
+     */
+    public Channel build() {
+        checkState();
+        freeze();
+        return definition;
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.api.model.type.component;
+
+import java.io.Serializable;
+
+/**
+ * Configuration for a channel that dispatches events to each consumer through a dedicated bounded queue.
+ */
+public class QueuedChannelData implements Serializable {
+    private static final long serialVersionUID = -2206311364716342837L;
+
+    public static final String TYPE = "queued";
+
+    private int queueSize = 1024;
+    private int batchSize = 64;
+
+    /**
+     * Returns the capacity of each consumer queue. Producers wait for space if a queue is full.
+     *
+     * @return the queue capacity
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Returns the maximum number of events dispatched to a consumer before its worker is rescheduled.
+     *
+     * @return the maximum batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
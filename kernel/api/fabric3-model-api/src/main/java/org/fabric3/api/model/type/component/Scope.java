@@ -29,6 +29,7 @@ public class Scope implements Serializable {
     public static final Scope STATELESS = new Scope("STATELESS", false);
     public static final Scope COMPOSITE = new Scope("COMPOSITE", true);
     public static final Scope DOMAIN = new Scope("DOMAIN", true);
+    public static final Scope POOLED = new Scope("POOLED", false);
 
     private final String scope;
     private final boolean singleton;
@@ -45,6 +46,8 @@ public class Scope implements Serializable {
             return COMPOSITE;
         } else if (DOMAIN.getScope().equals(name)) {
             return DOMAIN;
+        } else if (POOLED.getScope().equals(name)) {
+            return POOLED;
         }
         throw new IllegalArgumentException("Unknown scope: " + name);
     }
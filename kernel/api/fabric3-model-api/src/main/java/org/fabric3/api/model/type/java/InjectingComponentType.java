@@ -44,6 +44,7 @@ public class InjectingComponentType extends ComponentType {
     private int initLevel;
     private boolean managed;
     private ManagementInfo managementInfo;
+    private PoolConfiguration poolConfiguration;
 
     private Constructor<?> constructor;
     private Method initMethod;
@@ -150,6 +151,24 @@ public class InjectingComponentType extends ComponentType {
         this.managementInfo = managementInfo;
     }
 
+    /**
+     * Returns the instance pool settings if this implementation is pooled or null if the runtime settings are used.
+     *
+     * @return the instance pool settings or null
+     */
+    public PoolConfiguration getPoolConfiguration() {
+        return poolConfiguration;
+    }
+
+    /**
+     * Sets the instance pool settings for this implementation.
+     *
+     * @param poolConfiguration the instance pool settings
+     */
+    public void setPoolConfiguration(PoolConfiguration poolConfiguration) {
+        this.poolConfiguration = poolConfiguration;
+    }
+
     /**
      * Add a reference and its associated with an injection site.
      *
@@ -0,0 +1,67 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.api.model.type.java;
+
+/**
+ * Instance pool settings for a pooled component. A negative value indicates the runtime setting is used.
+ */
+public class PoolConfiguration {
+    private int minSize;
+    private int maxSize;
+    private long idleTimeout;
+
+    /**
+     * Constructor.
+     *
+     * @param minSize     the number of instances retained when idle instances are evicted
+     * @param maxSize     the maximum number of pooled instances
+     * @param idleTimeout the time in milliseconds an instance may be idle before it is evicted or 0 to disable eviction
+     */
+    public PoolConfiguration(int minSize, int maxSize, long idleTimeout) {
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Returns the number of instances retained when idle instances are evicted.
+     *
+     * @return the minimum pool size or a negative value if the runtime setting is used
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Returns the maximum number of pooled instances.
+     *
+     * @return the maximum pool size or a negative value if the runtime setting is used
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the time in milliseconds an instance may be idle before it is evicted.
+     *
+     * @return the idle timeout, 0 if eviction is disabled or a negative value if the runtime setting is used
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+}
@@ -25,10 +25,14 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.fabric3.api.host.classloader.DelegatingResourceClassLoader;
 import sun.security.util.SecurityConstants;
@@ -47,15 +51,38 @@ import sun.security.util.SecurityConstants;
  * classloaders are supported where one classloader is a parent of the other and the former is an extension of the latter.
  *
  * Each classloader has a name that can be used to reference it in the runtime.
+ *
+ * The classloader is parallel capable. Parents added for a specific package are indexed by that package so that class lookups only consult parents that can
+ * supply the class. Failed lookups are recorded in a bounded negative cache that is invalidated whenever the classloader hierarchy of any multi-parent
+ * classloader changes.
  */
 public class MultiParentClassLoader extends DelegatingResourceClassLoader {
     private static final URL[] NOURLS = {};
+    private static final int NEGATIVE_CACHE_SIZE = 1024;
+
+    /**
+     * Incremented when a parent, extension or URL is added to or removed from any multi-parent classloader. Since parents are frequently other multi-parent
+     * classloaders, a change anywhere may make a previously missing class visible.
+     */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    static {
+        registerAsParallelCapable();
+    }
 
     private final URI name;
 
     private final List<ClassLoader> parents = new CopyOnWriteArrayList<>();
     private final List<MultiParentClassLoader> extensions = new CopyOnWriteArrayList<>();
 
+    // parents in the order they were added, and the subset visible for all classes
+    private final List<ParentEntry> entries = new CopyOnWriteArrayList<>();
+    private final List<ParentEntry> unfiltered = new CopyOnWriteArrayList<>();
+    // package prefix to the parents restricted to it
+    private final Map<String, List<ParentEntry>> packageIndex = new ConcurrentHashMap<>();
+
+    private final NegativeCache negativeCache = new NegativeCache();
+
     /**
      * Constructs a classloader with a name and a single parent.
      *
@@ -93,6 +120,7 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
             sm.checkCreateClassLoader();
         }
         super.addURL(url);
+        GENERATION.incrementAndGet();
     }
 
     /**
@@ -107,7 +135,25 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
             sm.checkCreateClassLoader();
         }
         if (parent != null) {
-            parents.add(parent);
+            addEntry(parent, null);
+        }
+    }
+
+    /**
+     * Add a parent to this classloader that is only consulted for classes in the given package and its sub-packages, for example a classloader importing the
+     * package from another contribution. The package may end with a <code>*</code> wildcard. The parent itself is expected to reject classes outside the
+     * package as the index is only used to skip parents that cannot supply a class. The "createClassLoader" RuntimePermission is required.
+     *
+     * @param parent      an additional parent classloader
+     * @param packageName the package visible through the parent
+     */
+    public void addParent(ClassLoader parent, String packageName) {
+        SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkCreateClassLoader();
+        }
+        if (parent != null) {
+            addEntry(parent, packageName);
         }
     }
 
@@ -154,6 +200,7 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
      */
     public void addExtensionClassLoader(MultiParentClassLoader classloader) {
         extensions.add(classloader);
+        GENERATION.incrementAndGet();
     }
 
     /**
@@ -163,6 +210,7 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
      */
     public void removeExtensionClassLoader(MultiParentClassLoader classloader) {
         extensions.remove(classloader);
+        GENERATION.incrementAndGet();
     }
 
     /**
@@ -181,11 +229,15 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
         return super.findResources(name);
     }
 
-    protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
-        // look for already loaded classes
-        Class<?> clazz = findLoadedClass(name);
-        if (clazz == null) {
-            try {
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(name)) {
+            // look for already loaded classes
+            Class<?> clazz = findLoadedClass(name);
+            if (clazz == null) {
+                if (negativeCache.contains(name)) {
+                    throw new CachedClassNotFoundException(name);
+                }
+                long generation = GENERATION.get();
                 // look in the primary parent
                 try {
                     clazz = Class.forName(name, resolve, getParent());
@@ -193,10 +245,10 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
                     // continue
                 }
                 if (clazz == null) {
-                    // look in our parents
-                    for (ClassLoader parent : parents) {
+                    // look in the parents that can supply the class
+                    for (ParentEntry entry : getCandidates(name, '.')) {
                         try {
-                            clazz = parent.loadClass(name);
+                            clazz = entry.parent.loadClass(name);
                             break;
                         } catch (ClassNotFoundException e) {
                             continue;
@@ -224,18 +276,17 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
                             }
                         }
                         if (clazz == null) {
+                            negativeCache.add(name, generation);
                             throw e;
                         }
                     }
                 }
-            } catch (NoClassDefFoundError | ClassNotFoundException e) {
-                throw e;
             }
+            if (resolve) {
+                resolveClass(clazz);
+            }
+            return clazz;
         }
-        if (resolve) {
-            resolveClass(clazz);
-        }
-        return clazz;
     }
 
     protected Class<?> findClass(String string) throws ClassNotFoundException {
@@ -244,8 +295,8 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
 
     public URL findResource(String name) {
         // look in our parents
-        for (ClassLoader parent : parents) {
-            URL resource = parent.getResource(name);
+        for (ParentEntry entry : getCandidates(name, '/')) {
+            URL resource = entry.parent.getResource(name);
             if (resource != null) {
                 return resource;
             }
@@ -267,8 +318,8 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
     public Enumeration<URL> findResources(String name) throws IOException {
         // LinkedHashSet because we want all resources in the order found but no duplicates
         Set<URL> resources = new LinkedHashSet<>();
-        for (ClassLoader parent : parents) {
-            Enumeration<URL> parentResources = parent.getResources(name);
+        for (ParentEntry entry : getCandidates(name, '/')) {
+            Enumeration<URL> parentResources = entry.parent.getResources(name);
             while (parentResources.hasMoreElements()) {
                 resources.add(parentResources.nextElement());
             }
@@ -289,4 +340,145 @@ public class MultiParentClassLoader extends DelegatingResourceClassLoader {
     public String toString() {
         return name.toString();
     }
+
+    private synchronized void addEntry(ClassLoader parent, String packageName) {
+        ParentEntry entry = new ParentEntry(parent, entries.size());
+        if (packageName == null) {
+            unfiltered.add(entry);
+        } else {
+            String prefix = getPrefix(packageName);
+            packageIndex.computeIfAbsent(prefix, k -> new CopyOnWriteArrayList<>()).add(entry);
+        }
+        entries.add(entry);
+        parents.add(parent);
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Returns the parents that may supply a class or resource in the order they were added. Parents restricted to a package are included only if the package
+     * matches. Resources outside of an indexed package, such as <code>META-INF</code> entries, are resolved against all parents since package-restricted parents
+     * do not filter resources.
+     *
+     * @param name      the class or resource name
+     * @param separator the package separator used in the name
+     * @return the parents
+     */
+    private List<ParentEntry> getCandidates(String name, char separator) {
+        if (packageIndex.isEmpty()) {
+            return unfiltered;
+        }
+        List<ParentEntry> matched = packageIndex.get("");
+        int pos = name.indexOf(separator);
+        while (true) {
+            String prefix = pos < 0 ? name : name.substring(0, pos);
+            if (separator != '.') {
+                prefix = prefix.replace(separator, '.');
+            }
+            List<ParentEntry> list = packageIndex.get(prefix);
+            if (list != null) {
+                matched = matched == null ? list : merge(matched, list);
+            }
+            if (pos < 0) {
+                break;
+            }
+            pos = name.indexOf(separator, pos + 1);
+        }
+        if (matched == null) {
+            return separator == '.' ? unfiltered : entries;
+        }
+        return merge(unfiltered, matched);
+    }
+
+    private List<ParentEntry> merge(List<ParentEntry> first, List<ParentEntry> second) {
+        if (first.isEmpty()) {
+            return second;
+        }
+        List<ParentEntry> merged = new ArrayList<>(first.size() + second.size());
+        int i = 0;
+        int j = 0;
+        while (i < first.size() && j < second.size()) {
+            if (first.get(i).ordinal < second.get(j).ordinal) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        merged.addAll(first.subList(i, first.size()));
+        merged.addAll(second.subList(j, second.size()));
+        return merged;
+    }
+
+    /**
+     * Returns the index key for a package, i.e. the package segments preceding a wildcard.
+     *
+     * @param packageName the package name
+     * @return the key
+     */
+    private String getPrefix(String packageName) {
+        int pos = packageName.indexOf('*');
+        if (pos < 0) {
+            return packageName;
+        }
+        String prefix = packageName.substring(0, pos);
+        return prefix.endsWith(".") ? prefix.substring(0, prefix.length() - 1) : prefix;
+    }
+
+    private static class ParentEntry {
+        private final ClassLoader parent;
+        private final int ordinal;
+
+        public ParentEntry(ClassLoader parent, int ordinal) {
+            this.parent = parent;
+            this.ordinal = ordinal;
+        }
+    }
+
+    /**
+     * A bounded set of class names that could not be loaded. Entries are discarded when the classloader hierarchy changes.
+     */
+    private static class NegativeCache {
+        private final Map<String, Boolean> names = new LinkedHashMap<String, Boolean>() {
+            private static final long serialVersionUID = 7045437452317934187L;
+
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > NEGATIVE_CACHE_SIZE;
+            }
+        };
+        private long generation;
+
+        public synchronized boolean contains(String name) {
+            if (generation != GENERATION.get()) {
+                names.clear();
+                return false;
+            }
+            return names.containsKey(name);
+        }
+
+        public synchronized void add(String name, long lookupGeneration) {
+            if (lookupGeneration != GENERATION.get()) {
+                // the hierarchy changed during the lookup
+                return;
+            }
+            if (generation != lookupGeneration) {
+                names.clear();
+                generation = lookupGeneration;
+            }
+            names.put(name, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Thrown for lookups answered from the negative cache. The stack trace is not filled in as it is the expensive part of a failed lookup.
+     */
+    private static class CachedClassNotFoundException extends ClassNotFoundException {
+        private static final long serialVersionUID = -6325315591564582437L;
+
+        public CachedClassNotFoundException(String name) {
+            super(name);
+        }
+
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
 }
@@ -19,6 +19,7 @@
 package org.fabric3.spi.container.component;
 
 import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.api.model.type.java.PoolConfiguration;
 
 /**
  * A component whose implementation instances are managed by a {@link ScopeContainer}. This interface defines callbacks used by the scope container to change
@@ -33,6 +34,15 @@ public interface ScopedComponent extends AtomicComponent {
      */
     boolean isEagerInit();
 
+    /**
+     * Returns the instance pool settings for a pooled component or null if the runtime settings are used.
+     *
+     * @return the instance pool settings or null
+     */
+    default PoolConfiguration getPoolConfiguration() {
+        return null;
+    }
+
     /**
      * Create a new implementation instance, fully injected with all property and reference values. The instance's lifecycle callbacks must not have been
      * called.
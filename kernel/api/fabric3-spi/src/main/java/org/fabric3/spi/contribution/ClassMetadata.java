@@ -0,0 +1,66 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.spi.contribution;
+
+/**
+ * Metadata for a Java class read from its bytecode without loading it. Used to determine if a class in a contribution needs to be loaded and introspected.
+ *
+ * Queries that require resolving supertypes or annotation types return true if a type in the hierarchy cannot be read, since the class must then be loaded to
+ * determine the answer.
+ */
+public interface ClassMetadata {
+
+    /**
+     * Returns the fully qualified class name.
+     *
+     * @return the class name
+     */
+    String getName();
+
+    /**
+     * Returns true if the class is abstract, an interface or an annotation type.
+     *
+     * @return true if the class is abstract
+     */
+    boolean isAbstract();
+
+    /**
+     * Returns true if an annotation is present on the class, including {@link java.lang.annotation.Inherited} annotations present on superclasses. This
+     * follows the semantics of {@link Class#isAnnotationPresent(Class)}.
+     *
+     * @param annotationType the fully qualified annotation type name
+     * @return true if the annotation is present
+     */
+    boolean isAnnotationPresent(String annotationType);
+
+    /**
+     * Returns true if an annotation is present on the class or is a meta-annotation of an annotation present on the class.
+     *
+     * @param annotationType the fully qualified annotation type name
+     * @return true if the class is annotated
+     */
+    boolean isAnnotatedWith(String annotationType);
+
+    /**
+     * Returns true if the class is the given type or extends or implements it.
+     *
+     * @param type the fully qualified type name
+     * @return true if the class is assignable to the type
+     */
+    boolean isAssignableTo(String type);
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.spi.contribution;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads {@link ClassMetadata} from class bytecode so that contribution handlers can skip loading classes that are not contribution artifacts.
+ */
+public interface ClassMetadataReader {
+
+    /**
+     * Reads the metadata for a class. Only the class header and class-level annotations are parsed; field and method bodies are skipped.
+     *
+     * @param stream      the class bytecode. The stream is not closed.
+     * @param classLoader the classloader used to read supertypes and annotation types when metadata queries are made
+     * @return the metadata
+     * @throws IOException if the bytecode cannot be read or is invalid
+     */
+    ClassMetadata read(InputStream stream, ClassLoader classLoader) throws IOException;
+
+}
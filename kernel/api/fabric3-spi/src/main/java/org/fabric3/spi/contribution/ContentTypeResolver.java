@@ -19,6 +19,8 @@
 package org.fabric3.spi.contribution;
 
 import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
 
 import org.fabric3.api.host.Fabric3Exception;
 
@@ -60,4 +62,14 @@ public interface ContentTypeResolver {
      */
     void unregister(String fileExtension);
 
+
+    /**
+     * Returns the registered file extension to content type mappings.
+     *
+     * @return the mappings
+     */
+    default Map<String, String> getMappings() {
+        return Collections.emptyMap();
+    }
+
 }
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.fabric3.api.host.stream.Source;
 
@@ -48,6 +49,7 @@ public class Contribution implements Serializable {
 
     private List<URL> additionalLocations = new ArrayList<>();
     private int deployCounter;
+    private transient Consumer<Contribution> resourceListener;
 
     public Contribution(URI uri) {
         this.uri = uri;
@@ -221,10 +223,22 @@ public class Contribution implements Serializable {
      */
     public void addResource(Resource resource) {
         resources.add(resource);
+        resourcesChanged();
     }
 
     /**
-     * Returns the list of resources for the contribution.
+     * Removes a resource from the contribution.
+     *
+     * @param resource the resource
+     */
+    public void removeResource(Resource resource) {
+        resources.remove(resource);
+        resourcesChanged();
+    }
+
+    /**
+     * Returns the list of resources for the contribution. Resources must be added and removed using {@link #addResource(Resource)} and {@link
+     * #removeResource(Resource)} so that the resource listener is notified.
      *
      * @return the list of resources
      */
@@ -298,6 +312,25 @@ public class Contribution implements Serializable {
         return type.cast(metadata.get(key));
     }
 
+    /**
+     * Sets the listener notified when resources or resource elements are added to or removed from the contribution.
+     *
+     * @param listener the listener or null to remove the current listener
+     */
+    public void setResourceListener(Consumer<Contribution> listener) {
+        this.resourceListener = listener;
+    }
+
+    /**
+     * Notifies the resource listener that the contribution resources have changed.
+     */
+    void resourcesChanged() {
+        Consumer<Contribution> listener = resourceListener;
+        if (listener != null) {
+            listener.accept(this);
+        }
+    }
+
     public boolean equals(Object o) {
         if (this == o) {
             return true;
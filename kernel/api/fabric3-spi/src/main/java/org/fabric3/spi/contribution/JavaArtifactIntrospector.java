@@ -39,6 +39,19 @@ public interface JavaArtifactIntrospector {
      */
     Resource inspect(Class<?> clazz, URL url, Contribution contribution, IntrospectionContext context);
 
+    /**
+     * Returns true if the class described by the metadata may be a contribution resource and must be loaded and passed to {@link #inspect(Class, URL,
+     * Contribution, IntrospectionContext)}. Implementations should override this method so that contribution handlers can avoid loading classes the
+     * introspector is not interested in. The default implementation returns true.
+     *
+     * @param metadata     the class metadata read from the bytecode
+     * @param contribution the containing contribution
+     * @return true if the class may be a contribution resource
+     */
+    default boolean isCandidate(ClassMetadata metadata, Contribution contribution) {
+        return true;
+    }
+
     /**
      * Returns true if the type is a concrete component by introspecting if it is annotated with {@link Component} either directly or via a meta-annotation.
      *
@@ -64,4 +77,14 @@ public interface JavaArtifactIntrospector {
         }
         return false;
     }
+
+    /**
+     * Returns true if the class described by the metadata is a concrete component using the same rules as {@link #isComponent(Class)}.
+     *
+     * @param metadata the class metadata
+     * @return true if the type is annotated
+     */
+    default boolean isComponent(ClassMetadata metadata) {
+        return !metadata.isAbstract() && metadata.isAnnotatedWith(Component.class.getName());
+    }
 }
@@ -56,6 +56,9 @@ public class Resource {
      */
     public void setContribution(Contribution contribution) {
         this.contribution = contribution;
+        if (contribution != null) {
+            contribution.resourcesChanged();
+        }
     }
 
     /**
@@ -84,6 +87,9 @@ public class Resource {
     public void addResourceElement(ResourceElement<?, ?> element) {
         elements.add(element);
         element.setResource(this);
+        if (contribution != null) {
+            contribution.resourcesChanged();
+        }
     }
 
     /**
@@ -5,6 +5,8 @@ package org.fabric3.spi.discovery;
  */
 public class ServiceEntry extends AbstractEntry {
     private String path;
+    private int weight = 1;
+    private int load;
 
     public ServiceEntry() {
     }
@@ -34,4 +36,42 @@ public class ServiceEntry extends AbstractEntry {
         check();
         this.path = path;
     }
+
+    /**
+     * Returns the relative capacity of the service endpoint compared to other endpoints for the same service. Defaults to 1.
+     *
+     * @return the weight
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Sets the relative capacity of the service endpoint.
+     *
+     * @param weight the weight
+     */
+    public void setWeight(int weight) {
+        check();
+        this.weight = weight;
+    }
+
+    /**
+     * Returns the last load reported by the runtime hosting the service endpoint, expressed as the number of requests being processed. Defaults to 0.
+     *
+     * @return the load
+     */
+    public int getLoad() {
+        return load;
+    }
+
+    /**
+     * Sets the load reported for the service endpoint.
+     *
+     * @param load the load
+     */
+    public void setLoad(int load) {
+        check();
+        this.load = load;
+    }
 }
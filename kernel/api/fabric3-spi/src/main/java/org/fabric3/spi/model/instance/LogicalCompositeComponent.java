@@ -23,8 +23,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.fabric3.api.model.type.component.Component;
 import org.fabric3.spi.model.type.component.CompositeImplementation;
@@ -39,6 +41,7 @@ public class LogicalCompositeComponent extends LogicalComponent<CompositeImpleme
     private Map<URI, LogicalComponent<?>> components = new HashMap<>();
     private Map<URI, LogicalChannel> channels = new HashMap<>();
     private List<LogicalResource<?>> resources = new ArrayList<>();
+    private Set<LogicalComponent<?>> changedComponents = new LinkedHashSet<>();
     private boolean autowire;
 
     /**
@@ -77,6 +80,7 @@ public class LogicalCompositeComponent extends LogicalComponent<CompositeImpleme
             wires.put(logicalReference, logicalWires);
         }
         logicalWires.add(logicalWire);
+        wireChanged(logicalReference, logicalWire);
     }
 
     /**
@@ -92,6 +96,9 @@ public class LogicalCompositeComponent extends LogicalComponent<CompositeImpleme
             wires.put(logicalReference, logicalWires);
         }
         logicalWires.addAll(newWires);
+        for (LogicalWire wire : newWires) {
+            wireChanged(logicalReference, wire);
+        }
     }
 
     /**
@@ -152,6 +159,35 @@ public class LogicalCompositeComponent extends LogicalComponent<CompositeImpleme
      */
     public void addComponent(LogicalComponent<?> component) {
         components.put(component.getUri(), component);
+        if (LogicalState.NEW == component.getState()) {
+            changedComponents.add(component);
+        }
+    }
+
+    /**
+     * Records a child component whose state, wires or bindings have changed and which must therefore be visited when deployment commands are next
+     * generated. New child components and the source and target components of added wires are recorded automatically.
+     *
+     * @param component the changed child component
+     */
+    public void addChangedComponent(LogicalComponent<?> component) {
+        changedComponents.add(component);
+    }
+
+    /**
+     * Returns the child components changed since the composite was last provisioned or collected, in the order they were recorded.
+     *
+     * @return the changed child components
+     */
+    public Set<LogicalComponent<?>> getChangedComponents() {
+        return changedComponents;
+    }
+
+    /**
+     * Clears the changed child components. Called once changes have been provisioned or collected.
+     */
+    public void clearChangedComponents() {
+        changedComponents.clear();
     }
 
     /**
@@ -212,6 +248,15 @@ public class LogicalCompositeComponent extends LogicalComponent<CompositeImpleme
         }
     }
 
+    private void wireChanged(LogicalReference reference, LogicalWire wire) {
+        changedComponents.add(reference.getParent());
+        LogicalService target = wire.getTarget();
+        if (target != null && target.getParent().getParent() == this) {
+            // the target service may have received bindings to satisfy the wire
+            changedComponents.add(target.getParent());
+        }
+    }
+
     /**
      * Returns true if autowire is enabled.
      *
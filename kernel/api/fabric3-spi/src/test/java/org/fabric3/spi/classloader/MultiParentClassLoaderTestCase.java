@@ -0,0 +1,120 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.spi.classloader;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ */
+public class MultiParentClassLoaderTestCase extends TestCase {
+    private static final String CLASS_NAME = BytecodeClassLoader.class.getName();
+
+    private MultiParentClassLoader loader;
+    private CountingClassLoader importedParent;
+    private CountingClassLoader otherParent;
+
+    public void testPackageIndexedParents() throws Exception {
+        loader.addParent(otherParent, "org.other");
+        loader.addParent(importedParent, "org.fabric3.spi.classloader");
+
+        assertSame(BytecodeClassLoader.class, loader.loadClass(CLASS_NAME));
+        assertEquals(1, importedParent.count.get());
+        assertEquals(0, otherParent.count.get());
+    }
+
+    public void testWildcardPackage() throws Exception {
+        loader.addParent(otherParent, "org.other.*");
+        loader.addParent(importedParent, "org.fabric3.*");
+
+        assertSame(BytecodeClassLoader.class, loader.loadClass(CLASS_NAME));
+        assertEquals(1, importedParent.count.get());
+        assertEquals(0, otherParent.count.get());
+    }
+
+    public void testParentOrder() throws Exception {
+        loader.addParent(otherParent);
+        loader.addParent(importedParent, "org.fabric3.spi.classloader");
+
+        assertSame(BytecodeClassLoader.class, loader.loadClass(CLASS_NAME));
+        // the unfiltered parent was added first and supplies the class
+        assertEquals(1, otherParent.count.get());
+        assertEquals(0, importedParent.count.get());
+    }
+
+    public void testNegativeCache() throws Exception {
+        loader.addParent(otherParent);
+        try {
+            loader.loadClass("org.fabric3.Missing");
+            fail();
+        } catch (ClassNotFoundException e) {
+            // expected
+        }
+        try {
+            loader.loadClass("org.fabric3.Missing");
+            fail();
+        } catch (ClassNotFoundException e) {
+            // expected
+        }
+        assertEquals(1, otherParent.count.get());
+
+        // changing the hierarchy invalidates the cache
+        loader.addParent(importedParent);
+        try {
+            loader.loadClass("org.fabric3.Missing");
+            fail();
+        } catch (ClassNotFoundException e) {
+            // expected
+        }
+        assertEquals(2, otherParent.count.get());
+        assertEquals(1, importedParent.count.get());
+    }
+
+    public void testGetParents() throws Exception {
+        loader.addParent(importedParent, "org.fabric3.spi.classloader");
+        loader.addParent(otherParent);
+
+        assertEquals(3, loader.getParents().size());
+        assertSame(importedParent, loader.getParents().get(1));
+        assertSame(otherParent, loader.getParents().get(2));
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        // use the extension classloader as the primary parent so that application classes are resolved through the added parents
+        ClassLoader primary = ClassLoader.getSystemClassLoader().getParent();
+        loader = new MultiParentClassLoader(URI.create("test"), primary);
+        importedParent = new CountingClassLoader(getClass().getClassLoader());
+        otherParent = new CountingClassLoader(getClass().getClassLoader());
+    }
+
+    private static class CountingClassLoader extends ClassLoader {
+        private AtomicInteger count = new AtomicInteger();
+
+        public CountingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            count.incrementAndGet();
+            return super.loadClass(name, resolve);
+        }
+    }
+}
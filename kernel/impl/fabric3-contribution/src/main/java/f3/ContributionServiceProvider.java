@@ -31,11 +31,13 @@ import org.fabric3.contribution.DependencyResolverImpl;
 import org.fabric3.contribution.ExtensionMapContentTypeResolver;
 import org.fabric3.contribution.ProcessorRegistryImpl;
 import org.fabric3.contribution.archive.ArchiveContributionProcessor;
+import org.fabric3.contribution.archive.ClassMetadataReaderImpl;
 import org.fabric3.contribution.archive.ComponentJavaArtifactIntrospector;
 import org.fabric3.contribution.archive.ExplodedArchiveContributionHandler;
 import org.fabric3.contribution.archive.JarClasspathProcessor;
 import org.fabric3.contribution.archive.ZipContributionHandler;
 import org.fabric3.contribution.generator.JavaContributionWireGenerator;
+import org.fabric3.contribution.index.ContributionIndexCacheImpl;
 import org.fabric3.contribution.generator.LocationContributionWireGenerator;
 import org.fabric3.contribution.listener.APIImportListener;
 import org.fabric3.contribution.manifest.ContributionElementLoader;
@@ -101,8 +103,12 @@ public class ContributionServiceProvider {
 
         compositeBuilder.component(newBuilder(JarClasspathProcessor.class).build());
 
+        compositeBuilder.component(newBuilder(ContributionIndexCacheImpl.class).build());
+
         compositeBuilder.component(newBuilder(ArchiveContributionProcessor.class).build());
 
+        compositeBuilder.component(newBuilder(ClassMetadataReaderImpl.class).build());
+
         compositeBuilder.component(newBuilder(ZipContributionHandler.class).build());
 
         compositeBuilder.component(newBuilder(ExplodedArchiveContributionHandler.class).build());
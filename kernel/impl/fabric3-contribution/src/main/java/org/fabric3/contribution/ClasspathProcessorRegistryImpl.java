@@ -21,6 +21,7 @@ package org.fabric3.contribution;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.fabric3.spi.contribution.Contribution;
 import org.fabric3.spi.contribution.ClasspathProcessor;
@@ -32,7 +33,7 @@ import org.oasisopen.sca.annotation.EagerInit;
  */
 @EagerInit
 public class ClasspathProcessorRegistryImpl implements ClasspathProcessorRegistry {
-    private List<ClasspathProcessor> processors = new ArrayList<>();
+    private List<ClasspathProcessor> processors = new CopyOnWriteArrayList<>();
 
     public void register(ClasspathProcessor processor) {
         processors.add(processor);
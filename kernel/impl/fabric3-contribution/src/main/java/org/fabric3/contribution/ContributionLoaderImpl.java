@@ -61,6 +61,7 @@ public class ContributionLoaderImpl implements ContributionLoader {
     private Map<Class<?>, ClassLoaderWireGenerator<?>> generators;
     private ClassLoaderWireBuilder builder;
     private Field sysPathsField;
+    private final Object extensionLock = new Object();
 
     public ContributionLoaderImpl(@Reference ClassLoaderRegistry classLoaderRegistry,
                                   @Reference MetaDataStore store,
@@ -121,6 +122,37 @@ public class ContributionLoaderImpl implements ContributionLoader {
             builder.build(loader, classLoaderWire);
         }
 
+        // contributions may be loaded concurrently: extension points and providers are connected and the classloader registered atomically so that whichever
+        // of an extension point and its provider is loaded last connects the two
+        synchronized (extensionLock) {
+            connectExtensions(contribution, loader);
+            // register the classloader
+            classLoaderRegistry.register(contributionUri, loader);
+        }
+        return loader;
+    }
+
+    public void unload(Contribution contribution) {
+        URI uri = contribution.getUri();
+        Set<Contribution> contributions = store.resolveDependentContributions(uri);
+        if (!contributions.isEmpty()) {
+            Set<URI> dependents = new HashSet<>(contributions.size());
+            dependents.addAll(contributions.stream().filter(dependent -> ContributionState.INSTALLED == dependent.getState()).map(Contribution::getUri).collect(
+                    Collectors.toList()));
+            if (!dependents.isEmpty()) {
+                throw new Fabric3Exception("Contribution is in use: " + uri);
+            }
+        }
+        classLoaderRegistry.unregister(uri);
+    }
+
+    /**
+     * Connects the contribution classloader to the classloaders of loaded extension points it extends and extension providers for its extension points.
+     *
+     * @param contribution the contribution
+     * @param loader       the contribution classloader
+     */
+    private void connectExtensions(Contribution contribution, MultiParentClassLoader loader) {
         // add contributions that extend extension points provided by this contribution
         List<URI> extenders = resolveExtensionProviders(contribution);
         for (URI uri : extenders) {
@@ -147,24 +179,6 @@ public class ContributionLoaderImpl implements ContributionLoader {
             }
             ((MultiParentClassLoader) cl).addExtensionClassLoader(loader);
         }
-
-        // register the classloader
-        classLoaderRegistry.register(contributionUri, loader);
-        return loader;
-    }
-
-    public void unload(Contribution contribution) {
-        URI uri = contribution.getUri();
-        Set<Contribution> contributions = store.resolveDependentContributions(uri);
-        if (!contributions.isEmpty()) {
-            Set<URI> dependents = new HashSet<>(contributions.size());
-            dependents.addAll(contributions.stream().filter(dependent -> ContributionState.INSTALLED == dependent.getState()).map(Contribution::getUri).collect(
-                    Collectors.toList()));
-            if (!dependents.isEmpty()) {
-                throw new Fabric3Exception("Contribution is in use: " + uri);
-            }
-        }
-        classLoaderRegistry.unregister(uri);
     }
 
     private List<ContributionWire<?, ?>> resolveImports(Contribution contribution) {
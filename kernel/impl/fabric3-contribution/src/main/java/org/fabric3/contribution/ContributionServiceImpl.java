@@ -23,11 +23,20 @@ import javax.xml.namespace.QName;
 import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.fabric3.api.annotation.monitor.Monitor;
@@ -56,11 +65,18 @@ import org.fabric3.spi.contribution.ResourceElement;
 import org.fabric3.spi.contribution.manifest.QNameSymbol;
 import org.fabric3.spi.introspection.DefaultIntrospectionContext;
 import org.fabric3.spi.introspection.IntrospectionContext;
+import org.oasisopen.sca.annotation.Destroy;
 import org.oasisopen.sca.annotation.EagerInit;
+import org.oasisopen.sca.annotation.Property;
 import org.oasisopen.sca.annotation.Reference;
 
 /**
  * Default ContributionService implementation.
+ * <p/>
+ * When a set of contributions is installed, manifests are processed concurrently and contributions are then loaded and introspected following their
+ * dependency graph: a contribution is processed once all contributions it depends on are installed, while independent contributions are processed in parallel
+ * on a bounded fork-join pool. Processors, introspectors and the registries they use must therefore be thread-safe. Sequential processing on the calling
+ * thread can be forced for debugging.
  */
 @EagerInit
 public class ContributionServiceImpl implements ContributionService {
@@ -72,6 +88,11 @@ public class ContributionServiceImpl implements ContributionService {
     private ContributionServiceMonitor monitor;
     private List<ContributionServiceListener> listeners;
 
+    private boolean sequential;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private ForkJoinPool pool;
+    private final Object installLock = new Object();
+
     public ContributionServiceImpl(@Reference ProcessorRegistry processorRegistry,
                                    @Reference MetaDataStore metaDataStore,
                                    @Reference ContributionLoader contributionLoader,
@@ -92,6 +113,36 @@ public class ContributionServiceImpl implements ContributionService {
         this.listeners = listeners;
     }
 
+    /**
+     * Forces contributions to be processed one at a time on the calling thread. Intended for debugging.
+     *
+     * @param sequential true if contributions should be processed sequentially
+     */
+    @Property(required = false)
+    @org.fabric3.api.annotation.Source("$systemConfig/f3:runtime/f3:contribution/@sequential")
+    public void setSequential(boolean sequential) {
+        this.sequential = sequential;
+    }
+
+    /**
+     * Sets the maximum number of contributions processed concurrently. Defaults to the number of available processors.
+     *
+     * @param parallelism the maximum number of contributions processed concurrently
+     */
+    @Property(required = false)
+    @org.fabric3.api.annotation.Source("$systemConfig/f3:runtime/f3:contribution/@parallelism")
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    @Destroy
+    public synchronized void destroy() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+
     public Set<URI> getContributions() {
         Set<Contribution> contributions = metaDataStore.getContributions();
         Set<URI> uris = new HashSet<>(contributions.size());
@@ -224,7 +275,7 @@ public class ContributionServiceImpl implements ContributionService {
             }
         }
         // process any SCA manifest information, including imports and exports
-        contributions.forEach(this::processManifest);
+        processContributionManifests(contributions);
         // order the contributions based on their dependencies
         contributions = dependencyResolver.resolve(contributions);
 
@@ -288,27 +339,15 @@ public class ContributionServiceImpl implements ContributionService {
             }
         }
         // process any SCA manifest information, including imports and exports
-        contributions.forEach(this::processManifest);
+        processContributionManifests(contributions);
         // order the contributions based on their dependencies
-        contributions = dependencyResolver.resolve(contributions);
+        Map<Contribution, Set<Contribution>> dependencies = dependencyResolver.resolveDependencies(contributions);
+        contributions = new ArrayList<>(dependencies.keySet());
         try {
-            for (Contribution contribution : contributions) {
-                ClassLoader loader = contributionLoader.load(contribution);
-                // continue processing the contributions. As they are ordered, dependencies will resolve correctly
-                processContents(contribution, loader);
-                URI contributionUri = contribution.getUri();
-                contribution.getResources().forEach(r -> {
-                    r.getResourceElements().forEach(re -> {
-                        if (re.getValue() instanceof Composite) {
-                            Composite composite = (Composite) re.getValue();
-                            setContributionUri(composite, contributionUri);
-                        }
-                    });
-                });
-                contribution.install();
-                for (ContributionServiceListener listener : listeners) {
-                    listener.onInstall(contribution);
-                }
+            if (isSequential(contributions)) {
+                contributions.forEach(this::installContribution);
+            } else {
+                installConcurrently(dependencies);
             }
         } catch (Fabric3Exception e) {
             try {
@@ -332,6 +371,101 @@ public class ContributionServiceImpl implements ContributionService {
         return uris;
     }
 
+    /**
+     * Installs contributions concurrently. Each contribution is scheduled after the contributions it depends on have been installed, so dependencies resolve as
+     * they do in sequential mode. If a contribution fails, its dependents are skipped but independent contributions continue to be processed. Once all
+     * contributions have completed, failures are reported in dependency order so the resulting error does not depend on thread scheduling.
+     *
+     * @param dependencies the contributions in dependency order mapped to the contributions they directly depend on
+     */
+    private void installConcurrently(Map<Contribution, Set<Contribution>> dependencies) {
+        ForkJoinPool pool = getPool();
+        ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+        Map<Contribution, Throwable> failures = new ConcurrentHashMap<>();
+        Map<Contribution, CompletableFuture<Void>> futures = new HashMap<>();
+        for (Map.Entry<Contribution, Set<Contribution>> entry : dependencies.entrySet()) {
+            Contribution contribution = entry.getKey();
+            // dependencies precede their dependents in the map so their futures have already been created
+            CompletableFuture<?>[] dependsOn = entry.getValue().stream().map(futures::get).filter(Objects::nonNull).toArray(CompletableFuture[]::new);
+            CompletableFuture<Void> future = CompletableFuture.allOf(dependsOn).thenRunAsync(() -> {
+                try {
+                    runWithClassLoader(tccl, () -> {
+                        installContribution(contribution);
+                        return null;
+                    });
+                } catch (RuntimeException | Error e) {
+                    failures.put(contribution, e);
+                    throw e;
+                }
+            }, pool);
+            futures.put(contribution, future);
+        }
+        awaitAll(futures.values());
+
+        List<Throwable> errors = dependencies.keySet().stream().map(failures::get).filter(Objects::nonNull).collect(Collectors.toList());
+        if (!errors.isEmpty()) {
+            throw aggregate(errors);
+        }
+    }
+
+    /**
+     * Loads, introspects and installs a contribution. Dependencies of the contribution must already be installed.
+     *
+     * @param contribution the contribution
+     */
+    private void installContribution(Contribution contribution) {
+        ClassLoader loader = contributionLoader.load(contribution);
+        // continue processing the contributions. As they are ordered, dependencies will resolve correctly
+        processContents(contribution, loader);
+        URI contributionUri = contribution.getUri();
+        contribution.getResources().forEach(r -> {
+            r.getResourceElements().forEach(re -> {
+                if (re.getValue() instanceof Composite) {
+                    Composite composite = (Composite) re.getValue();
+                    setContributionUri(composite, contributionUri);
+                }
+            });
+        });
+        // listeners are not required to be thread-safe
+        synchronized (installLock) {
+            contribution.install();
+            for (ContributionServiceListener listener : listeners) {
+                listener.onInstall(contribution);
+            }
+        }
+    }
+
+    /**
+     * Combines errors raised while processing contributions concurrently. Validation errors are merged in the order given; otherwise the first error is
+     * returned with the remaining errors added as suppressed exceptions.
+     *
+     * @param errors the errors in contribution dependency order
+     * @return the error to report
+     */
+    private RuntimeException aggregate(List<Throwable> errors) {
+        Throwable first = errors.get(0);
+        if (first instanceof Error) {
+            throw (Error) first;
+        }
+        if (errors.size() == 1) {
+            return (RuntimeException) first;
+        }
+        if (errors.stream().allMatch(e -> e instanceof ValidationException)) {
+            List<ValidationFailure> validationErrors = new ArrayList<>();
+            List<ValidationFailure> validationWarnings = new ArrayList<>();
+            for (Throwable error : errors) {
+                ValidationException e = (ValidationException) error;
+                validationErrors.addAll(e.getErrors());
+                validationWarnings.addAll(e.getWarnings());
+            }
+            return new ValidationException(validationErrors, validationWarnings);
+        }
+        for (Throwable error : errors.subList(1, errors.size())) {
+            first.addSuppressed(error);
+        }
+        return (RuntimeException) first;
+    }
+
     private void setContributionUri(Composite composite, URI contributionUri) {
         composite.setContributionUri(contributionUri);
         composite.getComponents().values().forEach(c -> setContributionUri(c, contributionUri));
@@ -384,6 +518,38 @@ public class ContributionServiceImpl implements ContributionService {
         }
     }
 
+    /**
+     * Processes the manifests of a set of contributions. Manifests are introspected concurrently and the results are then reported in list order, so the
+     * outcome is the same as when the contributions are processed sequentially.
+     *
+     * @param contributions the contributions
+     * @ if there is an error during introspection
+     */
+    private void processContributionManifests(List<Contribution> contributions) {
+        if (isSequential(contributions)) {
+            contributions.forEach(this::processManifest);
+            return;
+        }
+        ForkJoinPool pool = getPool();
+        ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+        List<CompletableFuture<IntrospectionContext>> futures = new ArrayList<>(contributions.size());
+        for (Contribution contribution : contributions) {
+            futures.add(CompletableFuture.supplyAsync(() -> runWithClassLoader(tccl, () -> introspectManifest(contribution)), pool));
+        }
+        awaitAll(futures);
+        for (int i = 0; i < contributions.size(); i++) {
+            try {
+                completeManifest(contributions.get(i), futures.get(i).join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw (RuntimeException) cause;
+            }
+        }
+    }
+
     /**
      * Processes the contribution manifest.
      *
@@ -391,8 +557,29 @@ public class ContributionServiceImpl implements ContributionService {
      * @ if there is an error during introspection
      */
     private void processManifest(Contribution contribution) {
+        completeManifest(contribution, introspectManifest(contribution));
+    }
+
+    /**
+     * Introspects the contribution manifest.
+     *
+     * @param contribution the contribution
+     * @return the context containing errors and warnings raised during introspection
+     */
+    private IntrospectionContext introspectManifest(Contribution contribution) {
         IntrospectionContext context = new DefaultIntrospectionContext();
         processorRegistry.processManifest(contribution, context);
+        return context;
+    }
+
+    /**
+     * Reports errors raised during manifest introspection and notifies listeners the manifest has been processed.
+     *
+     * @param contribution the contribution
+     * @param context      the introspection context
+     * @ if the manifest contains errors
+     */
+    private void completeManifest(Contribution contribution, IntrospectionContext context) {
         if (context.hasErrors()) {
             URI uri = contribution.getUri();
             ArtifactValidationFailure failure = new ArtifactValidationFailure(uri, "the contribution manifest (sca-contribution.xml)");
@@ -441,6 +628,48 @@ public class ContributionServiceImpl implements ContributionService {
         addDeployableEntries(contribution);
     }
 
+    private boolean isSequential(List<Contribution> contributions) {
+        return sequential || parallelism < 2 || contributions.size() < 2;
+    }
+
+    private synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    /**
+     * Executes a task with the given context classloader set on the current thread, as fork-join worker threads do not inherit it from the caller.
+     *
+     * @param loader the context classloader
+     * @param task   the task
+     * @return the task result
+     */
+    private <T> T runWithClassLoader(ClassLoader loader, Supplier<T> task) {
+        Thread thread = Thread.currentThread();
+        ClassLoader old = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            return task.get();
+        } finally {
+            thread.setContextClassLoader(old);
+        }
+    }
+
+    /**
+     * Waits for all futures to complete, normally or exceptionally.
+     *
+     * @param futures the futures
+     */
+    private void awaitAll(Collection<? extends CompletableFuture<?>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+        } catch (CompletionException e) {
+            // errors are reported by the caller
+        }
+    }
+
     /**
      * Performs final validation on a contribution.
      *
@@ -20,6 +20,8 @@ package org.fabric3.contribution;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.spi.contribution.Contribution;
@@ -39,6 +41,16 @@ public interface DependencyResolver {
      */
     List<Contribution> resolve(List<Contribution> contributions) throws Fabric3Exception;
 
+    /**
+     * Resolves dependencies for the given contributions and returns the dependency graph. The returned map iterates contributions in the same order as {@link
+     * #resolve(List)}; the value for each entry contains the contributions from the given list the key contribution directly depends on.
+     *
+     * @param contributions the list of contributions to resolve
+     * @return the contributions in dependency order mapped to their direct dependencies
+     * @throws Fabric3Exception if an error occurs ordering the contributions such as an unresolvable import or dependency cycle
+     */
+    Map<Contribution, Set<Contribution>> resolveDependencies(List<Contribution> contributions) throws Fabric3Exception;
+
     /**
      * Orders a list of contributions to uninstall. Ordering is calculated by topologically sorting the list based on resolved contribution imports and
      * capability requirements.
@@ -22,6 +22,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -65,6 +66,33 @@ public class DependencyResolverImpl implements DependencyResolver {
     }
 
     public List<Contribution> resolve(List<Contribution> contributions) {
+        return sort(createGraph(contributions));
+    }
+
+    public Map<Contribution, Set<Contribution>> resolveDependencies(List<Contribution> contributions) {
+        DirectedGraph<Contribution> dag = createGraph(contributions);
+        List<Contribution> ordered = sort(dag);
+        Map<Contribution, Set<Contribution>> dependencies = new LinkedHashMap<>();
+        for (Contribution contribution : ordered) {
+            dependencies.put(contribution, new LinkedHashSet<>());
+        }
+        // edges point from an importing contribution to the contribution it resolves against
+        for (Vertex<Contribution> vertex : dag.getVertices()) {
+            Set<Contribution> set = dependencies.get(vertex.getEntity());
+            for (Vertex<Contribution> sink : dag.getOutgoingAdjacentVertices(vertex)) {
+                set.add(sink.getEntity());
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Creates the dependency graph for a set of contributions by resolving their imports and capabilities.
+     *
+     * @param contributions the contributions
+     * @return the graph
+     */
+    private DirectedGraph<Contribution> createGraph(List<Contribution> contributions) {
         DirectedGraph<Contribution> dag = new DirectedGraphImpl<>();
         // add the contributions as vertices
         for (Contribution contribution : contributions) {
@@ -76,9 +104,7 @@ public class DependencyResolverImpl implements DependencyResolver {
             resolveImports(source, dag);
             resolveCapabilities(source, dag);
         }
-
-        // detect cycles
-        return sort(dag);
+        return dag;
     }
 
     public List<Contribution> orderForUninstall(List<Contribution> contributions) {
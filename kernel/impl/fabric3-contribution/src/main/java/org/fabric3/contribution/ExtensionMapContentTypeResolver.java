@@ -21,6 +21,7 @@ package org.fabric3.contribution;
 import java.io.IOException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -94,4 +95,8 @@ public class ExtensionMapContentTypeResolver implements ContentTypeResolver {
         extensionMap.remove(fileExtension);
     }
 
+    public Map<String, String> getMappings() {
+        return Collections.unmodifiableMap(extensionMap);
+    }
+
 }
@@ -20,11 +20,15 @@ package org.fabric3.contribution;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.host.Names;
@@ -45,6 +49,11 @@ import org.oasisopen.sca.annotation.Reference;
 
 /**
  * Default MetaDataStore implementation.
+ *
+ * Resource elements are indexed by symbol type and symbol key to the contributions containing them. Contributions are reindexed when they are stored and
+ * lazily after their resources change, which is signalled by the contribution resource listener. Import visibility rules are applied to the contributions
+ * returned by an index lookup. Lookups and updates to the index are guarded by a read-write lock so that a lookup never observes a contribution that is only
+ * partially reindexed.
  */
 public class MetaDataStoreImpl implements MetaDataStore {
     private ProcessorRegistry processorRegistry;
@@ -52,6 +61,13 @@ public class MetaDataStoreImpl implements MetaDataStore {
 
     private Map<URI, Contribution> cache = new ConcurrentHashMap<>();
 
+    // symbol type -> symbol key -> contribution URI -> first resource element in the contribution with the symbol
+    private Map<Class<?>, Map<Object, Map<URI, ResourceElement<?, ?>>>> index = new ConcurrentHashMap<>();
+    // contribution URI -> symbols indexed for the contribution
+    private Map<URI, List<Symbol<?>>> indexedSymbols = new ConcurrentHashMap<>();
+    private Set<URI> changed = ConcurrentHashMap.newKeySet();
+    private ReadWriteLock lock = new ReentrantReadWriteLock();
+
     public MetaDataStoreImpl(ProcessorRegistry processorRegistry) {
         this.processorRegistry = processorRegistry;
     }
@@ -72,7 +88,19 @@ public class MetaDataStoreImpl implements MetaDataStore {
     }
 
     public void store(Contribution contribution) {
-        cache.put(contribution.getUri(), contribution);
+        URI uri = contribution.getUri();
+        Contribution previous = cache.put(uri, contribution);
+        if (previous != null && previous != contribution) {
+            previous.setResourceListener(null);
+        }
+        contribution.setResourceListener(c -> changed.add(c.getUri()));
+        lock.writeLock().lock();
+        try {
+            reindex(contribution);
+            changed.remove(uri);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public Contribution find(URI contributionUri) {
@@ -84,23 +112,27 @@ public class MetaDataStoreImpl implements MetaDataStore {
     }
 
     public void remove(URI contributionUri) {
-        cache.remove(contributionUri);
+        Contribution contribution = cache.remove(contributionUri);
+        if (contribution != null) {
+            contribution.setResourceListener(null);
+        }
+        lock.writeLock().lock();
+        try {
+            unindex(contributionUri);
+            changed.remove(contributionUri);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @SuppressWarnings({"unchecked"})
     public <S extends Symbol, V> ResourceElement<S, V> find(Class<V> type, S symbol) {
-        for (Contribution contribution : cache.values()) {
-            for (Resource resource : contribution.getResources()) {
-                for (ResourceElement<?, ?> element : resource.getResourceElements()) {
-                    if (element.getSymbol().equals(symbol)) {
-                        if (ResourceState.UNPROCESSED == resource.getState()) {
-                            // this is a programming error as resolve(Symbol) should only be called after contribution resources have been processed
-                            throw new AssertionError("Attempt to resolve a resource before it is processed or is in error");
-                        }
-                        return (ResourceElement<S, V>) element;
-                    }
-                }
+        for (ResourceElement<?, ?> element : lookup(symbol).values()) {
+            if (ResourceState.UNPROCESSED == element.getResource().getState()) {
+                // this is a programming error as resolve(Symbol) should only be called after contribution resources have been processed
+                throw new AssertionError("Attempt to resolve a resource before it is processed or is in error");
             }
+            return (ResourceElement<S, V>) element;
         }
         return null;
     }
@@ -272,6 +304,29 @@ public class MetaDataStoreImpl implements MetaDataStore {
     }
 
     private <S extends Symbol, V> ResourceElement<S, V> resolve(Contribution contribution, Class<V> type, S symbol, IntrospectionContext context) {
+        Map<URI, ResourceElement<?, ?>> candidates = lookup(symbol);
+        if (candidates.isEmpty()) {
+            // the symbol is not contained in any contribution
+            return null;
+        }
+        return resolve(contribution, type, symbol, candidates, context);
+    }
+
+    /**
+     * Resolves a symbol from the contributions containing it, applying import visibility rules.
+     *
+     * @param contribution the contribution to resolve against
+     * @param type         the expected resource element value type
+     * @param symbol       the symbol
+     * @param candidates   the resource elements for the symbol keyed by containing contribution
+     * @param context      the context to process resources in or null if resources must already be processed
+     * @return the resource element or null if it is not visible from the contribution
+     */
+    private <S extends Symbol, V> ResourceElement<S, V> resolve(Contribution contribution,
+                                                                Class<V> type,
+                                                                S symbol,
+                                                                Map<URI, ResourceElement<?, ?>> candidates,
+                                                                IntrospectionContext context) {
         ResourceElement<S, V> element;
         // resolve by delegating to exporting contributions first
         for (ContributionWire<?, ?> wire : contribution.getWires()) {
@@ -285,17 +340,12 @@ public class MetaDataStoreImpl implements MetaDataStore {
                 // programming error
                 throw new AssertionError("Dependent contribution not found: " + resolvedUri);
             }
-            element = resolve(resolved, type, symbol, context);
+            element = resolve(resolved, type, symbol, candidates, context);
             if (element != null) {
                 return element;
             }
         }
-        element = resolveInternal(contribution, type, symbol, context);
-        if (element != null) {
-            return element;
-        }
-
-        return null;
+        return resolveInternal(candidates.get(contribution.getUri()), type, context);
     }
 
     private Set<Contribution> resolveCapabilities(Contribution contribution, Set<Contribution> extensions) {
@@ -330,25 +380,108 @@ public class MetaDataStoreImpl implements MetaDataStore {
     }
 
     @SuppressWarnings({"unchecked"})
-    private <S extends Symbol, V> ResourceElement<S, V> resolveInternal(Contribution contribution, Class<V> type, S symbol, IntrospectionContext context) {
+    private <S extends Symbol, V> ResourceElement<S, V> resolveInternal(ResourceElement<?, ?> element, Class<V> type, IntrospectionContext context) {
+        if (element == null) {
+            return null;
+        }
+        Resource resource = element.getResource();
+        if (ResourceState.UNPROCESSED == resource.getState() && context == null) {
+            String identifier = resource.getSource().getSystemId();
+            throw new AssertionError("Resource not resolved: " + identifier);
+        } else if (ResourceState.UNPROCESSED == resource.getState() && context != null) {
+            // processing may add resources to the contribution, which will be reindexed on the next lookup
+            processorRegistry.processResource(resource, context);
+        }
+        Object val = element.getValue();
+        if (!type.isInstance(val)) {
+            throw new IllegalArgumentException("Invalid type for symbol. Expected: " + type + " was: " + val);
+        }
+        return (ResourceElement<S, V>) element;
+    }
+
+    /**
+     * Returns the resource elements for a symbol keyed by the URI of the containing contribution. The returned map is a copy that is not affected by
+     * subsequent reindexing.
+     *
+     * @param symbol the symbol
+     * @return the resource elements
+     */
+    private Map<URI, ResourceElement<?, ?>> lookup(Symbol<?> symbol) {
+        if (!changed.isEmpty()) {
+            reindexChanged();
+        }
+        if (symbol.getKey() == null) {
+            return Collections.emptyMap();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Object, Map<URI, ResourceElement<?, ?>>> keys = index.get(symbol.getClass());
+            if (keys == null) {
+                return Collections.emptyMap();
+            }
+            Map<URI, ResourceElement<?, ?>> elements = keys.get(symbol.getKey());
+            return elements == null ? Collections.emptyMap() : new HashMap<>(elements);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void reindexChanged() {
+        lock.writeLock().lock();
+        try {
+            for (URI uri : changed) {
+                Contribution contribution = cache.get(uri);
+                if (contribution != null) {
+                    reindex(contribution);
+                }
+                // remove only after the contribution is reindexed so that concurrent lookups wait for the index to be rebuilt
+                changed.remove(uri);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reindex(Contribution contribution) {
+        URI uri = contribution.getUri();
+        unindex(uri);
+        List<Symbol<?>> symbols = new ArrayList<>();
         for (Resource resource : contribution.getResources()) {
             for (ResourceElement<?, ?> element : resource.getResourceElements()) {
-                if (element.getSymbol().equals(symbol)) {
-                    if (ResourceState.UNPROCESSED == resource.getState() && context == null) {
-                        String identifier = resource.getSource().getSystemId();
-                        throw new AssertionError("Resource not resolved: " + identifier);
-                    } else if (ResourceState.UNPROCESSED == resource.getState() && context != null) {
-                        processorRegistry.processResource(resource, context);
-                    }
-                    Object val = element.getValue();
-                    if (!type.isInstance(val)) {
-                        throw new IllegalArgumentException("Invalid type for symbol. Expected: " + type + " was: " + val);
-                    }
-                    return (ResourceElement<S, V>) element;
+                Symbol<?> symbol = element.getSymbol();
+                if (symbol == null || symbol.getKey() == null) {
+                    continue;
+                }
+                Map<Object, Map<URI, ResourceElement<?, ?>>> keys = index.computeIfAbsent(symbol.getClass(), k -> new ConcurrentHashMap<>());
+                Map<URI, ResourceElement<?, ?>> elements = keys.computeIfAbsent(symbol.getKey(), k -> new ConcurrentHashMap<>());
+                // the first element in the contribution takes precedence
+                if (elements.putIfAbsent(uri, element) == null) {
+                    symbols.add(symbol);
                 }
             }
         }
-        return null;
+        indexedSymbols.put(uri, symbols);
+    }
+
+    private void unindex(URI uri) {
+        List<Symbol<?>> symbols = indexedSymbols.remove(uri);
+        if (symbols == null) {
+            return;
+        }
+        for (Symbol<?> symbol : symbols) {
+            Map<Object, Map<URI, ResourceElement<?, ?>>> keys = index.get(symbol.getClass());
+            if (keys == null) {
+                continue;
+            }
+            Map<URI, ResourceElement<?, ?>> elements = keys.get(symbol.getKey());
+            if (elements == null) {
+                continue;
+            }
+            elements.remove(uri);
+            if (elements.isEmpty()) {
+                keys.remove(symbol.getKey());
+            }
+        }
     }
 
 }
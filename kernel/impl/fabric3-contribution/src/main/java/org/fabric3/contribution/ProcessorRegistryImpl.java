@@ -18,10 +18,10 @@
  */
 package org.fabric3.contribution;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.spi.contribution.Contribution;
@@ -34,11 +34,14 @@ import org.fabric3.spi.introspection.IntrospectionContext;
 import org.oasisopen.sca.annotation.EagerInit;
 
 /**
- *
+ * Default ProcessorRegistry implementation.
+ * <p/>
+ * Contributions may be processed concurrently. A resource of an installed contribution may be resolved lazily by several dependent contributions at the same
+ * time, so resources are processed under the resource monitor and only once.
  */
 @EagerInit
 public class ProcessorRegistryImpl implements ProcessorRegistry {
-    private List<ContributionProcessor> contributionProcessorCache = new ArrayList<>();
+    private List<ContributionProcessor> contributionProcessorCache = new CopyOnWriteArrayList<>();
     private Map<String, ResourceProcessor> resourceProcessorCache = new ConcurrentHashMap<>();
 
     public ProcessorRegistryImpl() {
@@ -86,15 +89,17 @@ public class ProcessorRegistryImpl implements ProcessorRegistry {
     }
 
     public void processResource(Resource resource, IntrospectionContext context) {
-        if (ResourceState.ERROR == resource.getState()) {
-            // skip processing as the resource is in the error state
-            return;
-        }
         ResourceProcessor processor = resourceProcessorCache.get(resource.getContentType());
         if (processor == null) {
             return;
         }
-        processor.process(resource, context);
+        synchronized (resource) {
+            if (ResourceState.UNPROCESSED != resource.getState()) {
+                // skip processing as the resource is in the error state or was processed by another thread
+                return;
+            }
+            processor.process(resource, context);
+        }
     }
 
     public ContributionProcessor getContributionProcessor(Contribution contribution) {
@@ -20,8 +20,11 @@ package org.fabric3.contribution.archive;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.contribution.index.ContributionIndexCache;
+import org.fabric3.contribution.index.ResourceRecorder;
 import org.fabric3.spi.contribution.Contribution;
 import org.fabric3.spi.contribution.Resource;
 import org.fabric3.spi.contribution.ResourceState;
@@ -34,12 +37,23 @@ import org.oasisopen.sca.annotation.Reference;
  */
 public class ArchiveContributionProcessor extends AbstractContributionProcessor {
     private List<ArchiveContributionHandler> handlers;
+    private ContributionIndexCache indexCache;
 
     @Reference
     public void setHandlers(List<ArchiveContributionHandler> handlers) {
         this.handlers = handlers;
     }
 
+    /**
+     * Sets the cache used to restore unchanged contributions without rescanning them.
+     *
+     * @param indexCache the cache
+     */
+    @Reference(required = false)
+    public void setIndexCache(ContributionIndexCache indexCache) {
+        this.indexCache = indexCache;
+    }
+
     public boolean canProcess(Contribution contribution) {
         for (ArchiveContributionHandler handler : handlers) {
             if (handler.canProcess(contribution)) {
@@ -51,7 +65,13 @@ public class ArchiveContributionProcessor extends AbstractContributionProcessor
 
     public void processManifest(Contribution contribution, IntrospectionContext context) {
         ArchiveContributionHandler handler = getHandler(contribution);
+        if (indexCache != null && indexCache.restoreManifest(contribution)) {
+            return;
+        }
         handler.processManifest(contribution, context);
+        if (indexCache != null && !context.hasErrors() && !context.hasWarnings()) {
+            indexCache.recordManifest(contribution);
+        }
     }
 
     public void index(Contribution contribution, final IntrospectionContext context) {
@@ -60,7 +80,16 @@ public class ArchiveContributionProcessor extends AbstractContributionProcessor
         ClassLoader loader = context.getClassLoader();
         try {
             Thread.currentThread().setContextClassLoader(loader);
-            handler.iterateArtifacts(contribution, resource -> registry.indexResource(resource, context), context);
+            Consumer<Resource> callback = resource -> registry.indexResource(resource, context);
+            if (indexCache == null) {
+                handler.iterateArtifacts(contribution, callback, context);
+            } else if (!indexCache.restoreResources(contribution, callback, loader)) {
+                ResourceRecorder recorder = indexCache.createRecorder(contribution, callback);
+                handler.iterateArtifacts(contribution, recorder, context);
+                if (!context.hasErrors() && !context.hasWarnings()) {
+                    recorder.complete();
+                }
+            }
         } finally {
             Thread.currentThread().setContextClassLoader(oldClassloader);
         }
@@ -0,0 +1,238 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.contribution.archive;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The header of a class file: access flags, class name, superclass, interfaces and runtime-visible class annotations. Fields and methods are skipped without
+ * being parsed.
+ */
+class ClassHeader {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final int ACC_ANNOTATION = 0x2000;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+    private static final String[] NO_NAMES = new String[0];
+
+    private int access;
+    private String name;
+    private String superName;
+    private String[] interfaces;
+    private String[] annotations;
+
+    private ClassHeader(int access, String name, String superName, String[] interfaces, String[] annotations) {
+        this.access = access;
+        this.name = name;
+        this.superName = superName;
+        this.interfaces = interfaces;
+        this.annotations = annotations;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the superclass name or null if the class is java.lang.Object or an interface.
+     *
+     * @return the superclass name or null
+     */
+    public String getSuperName() {
+        return superName;
+    }
+
+    public String[] getInterfaces() {
+        return interfaces;
+    }
+
+    /**
+     * Returns the types of the runtime-visible annotations declared on the class.
+     *
+     * @return the annotation types
+     */
+    public String[] getAnnotations() {
+        return annotations;
+    }
+
+    public boolean isAbstract() {
+        return (access & (ACC_ABSTRACT | ACC_INTERFACE | ACC_ANNOTATION)) != 0;
+    }
+
+    public boolean isAnnotationDeclared(String annotationType) {
+        for (String annotation : annotations) {
+            if (annotation.equals(annotationType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads a class header.
+     *
+     * @param stream the class bytecode. The stream is not closed.
+     * @return the header
+     * @throws IOException if the bytecode cannot be read or is not a valid class file
+     */
+    public static ClassHeader read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Invalid class file");
+        }
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classes = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1:  // Utf8
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7:  // Class
+                    classes[i] = in.readUnsignedShort();
+                    break;
+                case 8:  // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    skip(in, 2);
+                    break;
+                case 15: // MethodHandle
+                    skip(in, 3);
+                    break;
+                case 3:  // Integer
+                case 4:  // Float
+                case 9:  // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    skip(in, 4);
+                    break;
+                case 5:  // Long
+                case 6:  // Double
+                    skip(in, 8);
+                    i++; // occupies two entries
+                    break;
+                default:
+                    throw new IOException("Invalid constant pool tag: " + tag);
+            }
+        }
+
+        int access = in.readUnsignedShort();
+        String name = className(utf8, classes, in.readUnsignedShort());
+        int superIndex = in.readUnsignedShort();
+        String superName = superIndex == 0 ? null : className(utf8, classes, superIndex);
+
+        int interfaceCount = in.readUnsignedShort();
+        String[] interfaces = interfaceCount == 0 ? NO_NAMES : new String[interfaceCount];
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaces[i] = className(utf8, classes, in.readUnsignedShort());
+        }
+
+        skipMembers(in); // fields
+        skipMembers(in); // methods
+
+        String[] annotations = NO_NAMES;
+        int attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+                annotations = readAnnotations(in, utf8);
+            } else {
+                skip(in, length);
+            }
+        }
+        return new ClassHeader(access, name, superName, interfaces, annotations);
+    }
+
+    private static void skipMembers(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            skip(in, 6); // access flags, name and descriptor
+            int attributeCount = in.readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                skip(in, 2);
+                skip(in, in.readInt());
+            }
+        }
+    }
+
+    private static String[] readAnnotations(DataInputStream in, String[] utf8) throws IOException {
+        int count = in.readUnsignedShort();
+        String[] annotations = new String[count];
+        for (int i = 0; i < count; i++) {
+            annotations[i] = readAnnotation(in, utf8);
+        }
+        return annotations;
+    }
+
+    private static String readAnnotation(DataInputStream in, String[] utf8) throws IOException {
+        String descriptor = utf8[in.readUnsignedShort()];
+        int pairs = in.readUnsignedShort();
+        for (int i = 0; i < pairs; i++) {
+            skip(in, 2); // element name
+            skipElementValue(in, utf8);
+        }
+        // convert the descriptor of the form Lcom/foo/Bar; to a class name
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    private static void skipElementValue(DataInputStream in, String[] utf8) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                skip(in, 4);
+                break;
+            case '@':
+                readAnnotation(in, utf8);
+                break;
+            case '[':
+                int count = in.readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue(in, utf8);
+                }
+                break;
+            default:
+                // constants and class values
+                skip(in, 2);
+        }
+    }
+
+    private static void skip(DataInputStream in, int length) throws IOException {
+        if (in.skipBytes(length) != length) {
+            throw new EOFException("Unexpected end of class file");
+        }
+    }
+
+    private static String className(String[] utf8, int[] classes, int index) {
+        return utf8[classes[index]].replace('/', '.');
+    }
+
+}
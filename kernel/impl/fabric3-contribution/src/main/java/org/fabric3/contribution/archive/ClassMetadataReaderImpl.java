@@ -0,0 +1,203 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.contribution.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Inherited;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.fabric3.spi.contribution.ClassMetadata;
+import org.fabric3.spi.contribution.ClassMetadataReader;
+
+/**
+ * Reads class metadata by parsing class file headers. Supertypes and annotation types needed to answer metadata queries are read through the classloader as
+ * resources and cached per classloader, so they are not loaded as classes.
+ */
+public class ClassMetadataReaderImpl implements ClassMetadataReader {
+    private static final String OBJECT = Object.class.getName();
+    private static final String INHERITED = Inherited.class.getName();
+    private static final ClassHeader MISSING = null;
+
+    private final Map<ClassLoader, Map<String, Holder>> cache = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public ClassMetadata read(InputStream stream, ClassLoader classLoader) throws IOException {
+        ClassHeader header = ClassHeader.read(stream);
+        return new ClassMetadataImpl(header, classLoader);
+    }
+
+    /**
+     * Returns the header for a type or null if it cannot be read.
+     *
+     * @param name        the type name
+     * @param classLoader the classloader to read the type from
+     * @return the header or null
+     */
+    private ClassHeader resolve(String name, ClassLoader classLoader) {
+        Map<String, Holder> headers = cache.computeIfAbsent(classLoader, k -> new ConcurrentHashMap<>());
+        return headers.computeIfAbsent(name, k -> new Holder(readHeader(name, classLoader))).header;
+    }
+
+    private ClassHeader readHeader(String name, ClassLoader classLoader) {
+        InputStream stream = classLoader.getResourceAsStream(name.replace('.', '/') + ".class");
+        if (stream == null) {
+            return MISSING;
+        }
+        try {
+            return ClassHeader.read(stream);
+        } catch (IOException e) {
+            return MISSING;
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private static class Holder {
+        private ClassHeader header;
+
+        private Holder(ClassHeader header) {
+            this.header = header;
+        }
+    }
+
+    private class ClassMetadataImpl implements ClassMetadata {
+        private ClassHeader header;
+        private ClassLoader classLoader;
+
+        private ClassMetadataImpl(ClassHeader header, ClassLoader classLoader) {
+            this.header = header;
+            this.classLoader = classLoader;
+        }
+
+        public String getName() {
+            return header.getName();
+        }
+
+        public boolean isAbstract() {
+            return header.isAbstract();
+        }
+
+        public boolean isAnnotationPresent(String annotationType) {
+            if (header.isAnnotationDeclared(annotationType)) {
+                return true;
+            }
+            String superName = header.getSuperName();
+            if (superName == null || !isInheritedAnnotation(annotationType)) {
+                return false;
+            }
+            while (superName != null && !superName.startsWith("java.")) {
+                ClassHeader superHeader = resolve(superName, classLoader);
+                if (superHeader == MISSING) {
+                    // the hierarchy cannot be determined
+                    return true;
+                }
+                if (superHeader.isAnnotationDeclared(annotationType)) {
+                    return true;
+                }
+                superName = superHeader.getSuperName();
+            }
+            return false;
+        }
+
+        public boolean isAnnotatedWith(String annotationType) {
+            if (isAnnotationPresent(annotationType)) {
+                return true;
+            }
+            for (String annotation : getPresentAnnotations()) {
+                ClassHeader annotationHeader = resolve(annotation, classLoader);
+                if (annotationHeader == MISSING || annotationHeader.isAnnotationDeclared(annotationType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public boolean isAssignableTo(String type) {
+            if (OBJECT.equals(type) || header.getName().equals(type)) {
+                return true;
+            }
+            Set<String> visited = new HashSet<>();
+            Deque<String> queue = new ArrayDeque<>();
+            addSupertypes(header, queue);
+            while (!queue.isEmpty()) {
+                String name = queue.poll();
+                if (name.equals(type)) {
+                    return true;
+                }
+                if (OBJECT.equals(name) || !visited.add(name)) {
+                    continue;
+                }
+                ClassHeader superHeader = resolve(name, classLoader);
+                if (superHeader == MISSING) {
+                    return true;
+                }
+                addSupertypes(superHeader, queue);
+            }
+            return false;
+        }
+
+        /**
+         * Returns the annotations declared on the class and the inherited annotations declared on its superclasses.
+         *
+         * @return the annotations
+         */
+        private Set<String> getPresentAnnotations() {
+            Set<String> annotations = new HashSet<>();
+            Collections.addAll(annotations, header.getAnnotations());
+            String superName = header.getSuperName();
+            while (superName != null && !superName.startsWith("java.")) {
+                ClassHeader superHeader = resolve(superName, classLoader);
+                if (superHeader == MISSING) {
+                    break;
+                }
+                for (String annotation : superHeader.getAnnotations()) {
+                    if (isInheritedAnnotation(annotation)) {
+                        annotations.add(annotation);
+                    }
+                }
+                superName = superHeader.getSuperName();
+            }
+            return annotations;
+        }
+
+        private boolean isInheritedAnnotation(String annotationType) {
+            ClassHeader annotationHeader = resolve(annotationType, classLoader);
+            // if the annotation type cannot be read, assume it is inherited
+            return annotationHeader == MISSING || annotationHeader.isAnnotationDeclared(INHERITED);
+        }
+
+        private void addSupertypes(ClassHeader header, Deque<String> queue) {
+            if (header.getSuperName() != null) {
+                queue.add(header.getSuperName());
+            }
+            Collections.addAll(queue, header.getInterfaces());
+        }
+
+    }
+
+}
@@ -19,6 +19,7 @@ package org.fabric3.contribution.archive;
 import java.net.URL;
 
 import org.fabric3.api.host.stream.UrlSource;
+import org.fabric3.spi.contribution.ClassMetadata;
 import org.fabric3.spi.contribution.Constants;
 import org.fabric3.spi.contribution.Contribution;
 import org.fabric3.spi.contribution.JavaArtifactIntrospector;
@@ -54,6 +55,10 @@ public class ComponentJavaArtifactIntrospector implements JavaArtifactIntrospect
         return null;
     }
 
+    public boolean isCandidate(ClassMetadata metadata, Contribution contribution) {
+        return isProvider(metadata.getName()) || (!contribution.getManifest().isExtension() && isComponent(metadata));
+    }
+
     private Resource createResource(String name, Class<?> clazz, URL url, Contribution contribution) {
         // class is a component
         UrlSource source = new UrlSource(url);
@@ -19,7 +19,10 @@
 package org.fabric3.contribution.archive;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
@@ -33,6 +36,8 @@ import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.host.stream.Source;
 import org.fabric3.api.host.stream.UrlSource;
 import org.fabric3.api.host.util.FileHelper;
+import org.fabric3.spi.contribution.ClassMetadata;
+import org.fabric3.spi.contribution.ClassMetadataReader;
 import org.fabric3.spi.contribution.ContentTypeResolver;
 import org.fabric3.spi.contribution.Contribution;
 import org.fabric3.spi.contribution.ContributionManifest;
@@ -54,6 +59,7 @@ public class ExplodedArchiveContributionHandler implements ArchiveContributionHa
     private Loader loader;
     private List<JavaArtifactIntrospector> artifactIntrospectors = Collections.emptyList();
     private final ContentTypeResolver contentTypeResolver;
+    private ClassMetadataReader metadataReader;
 
     public ExplodedArchiveContributionHandler(@Reference Loader loader, @Reference ContentTypeResolver contentTypeResolver) {
         this.loader = loader;
@@ -65,6 +71,16 @@ public class ExplodedArchiveContributionHandler implements ArchiveContributionHa
         this.artifactIntrospectors = introspectors;
     }
 
+    /**
+     * Sets the reader used to prescan class files so that only classes which may be contribution resources are loaded.
+     *
+     * @param metadataReader the reader
+     */
+    @Reference(required = false)
+    public void setMetadataReader(ClassMetadataReader metadataReader) {
+        this.metadataReader = metadataReader;
+    }
+
     public boolean canProcess(Contribution contribution) {
         URL location = contribution.getLocation();
         if (location == null || !"file".equals(location.getProtocol())) {
@@ -136,6 +152,9 @@ public class ExplodedArchiveContributionHandler implements ArchiveContributionHa
                     if (isClass) {
                         String relativeName = getRelativeName(file, root).replace(File.separator, ".");
                         name = relativeName.substring(0, relativeName.length() - CLASS_SUFFIX);
+                        if (!isCandidate(file, contribution, context)) {
+                            continue;
+                        }
                         try {
                             Class<?> clazz = context.getClassLoader().loadClass(name);
 
@@ -178,6 +197,32 @@ public class ExplodedArchiveContributionHandler implements ArchiveContributionHa
 
     }
 
+    /**
+     * Returns true if the class file may be a contribution resource and must be loaded for introspection.
+     *
+     * @param file         the class file
+     * @param contribution the contribution
+     * @param context      the introspection context
+     * @return true if the class must be loaded
+     */
+    private boolean isCandidate(File file, Contribution contribution, IntrospectionContext context) {
+        if (metadataReader == null) {
+            return true;
+        }
+        try (InputStream stream = new FileInputStream(file)) {
+            ClassMetadata metadata = metadataReader.read(stream, context.getClassLoader());
+            for (JavaArtifactIntrospector introspector : artifactIntrospectors) {
+                if (introspector.isCandidate(metadata, contribution)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            // the class file could not be read, load the class instead
+            return true;
+        }
+    }
+
     private Optional<URL> getManifestUrl(Contribution contribution) {
         String sourceUrl = contribution.getLocation().toString();
         Optional<URL> manifestUrl = searchManifestUrl(sourceUrl);
@@ -35,6 +35,8 @@ import java.util.zip.ZipInputStream;
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.host.stream.Source;
 import org.fabric3.api.host.stream.UrlSource;
+import org.fabric3.spi.contribution.ClassMetadata;
+import org.fabric3.spi.contribution.ClassMetadataReader;
 import org.fabric3.spi.contribution.ContentTypeResolver;
 import org.fabric3.spi.contribution.Contribution;
 import org.fabric3.spi.contribution.ContributionManifest;
@@ -57,6 +59,7 @@ public class ZipContributionHandler implements ArchiveContributionHandler {
     private Loader loader;
     private List<JavaArtifactIntrospector> artifactIntrospectors = Collections.emptyList();
     private ContentTypeResolver contentTypeResolver;
+    private ClassMetadataReader metadataReader;
 
     public ZipContributionHandler(@Reference Loader loader, @Reference ContentTypeResolver contentTypeResolver) {
         this.loader = loader;
@@ -73,6 +76,16 @@ public class ZipContributionHandler implements ArchiveContributionHandler {
         this.manifestHandlers = manifestHandlers;
     }
 
+    /**
+     * Sets the reader used to prescan class files so that only classes which may be contribution resources are loaded.
+     *
+     * @param metadataReader the reader
+     */
+    @Reference(required = false)
+    public void setMetadataReader(ClassMetadataReader metadataReader) {
+        this.metadataReader = metadataReader;
+    }
+
     public boolean canProcess(Contribution contribution) {
         String sourceUrl = contribution.getLocation().toString();
         return sourceUrl.endsWith(".jar") || sourceUrl.endsWith(".zip");
@@ -160,6 +173,9 @@ public class ZipContributionHandler implements ArchiveContributionHandler {
                 if (name.endsWith(".class")) {
                     URL entryUrl = new URL("jar:" + location.toExternalForm() + "!/" + name);
                     name = name.replace("/", ".").substring(0, name.length() - 6);     // note '/' must be used as archives always use '/' for a separator
+                    if (!isCandidate(zipStream, contribution, context)) {
+                        continue;
+                    }
                     Class<?> clazz;
                     try {
                         clazz = context.getClassLoader().loadClass(name);
@@ -207,6 +223,32 @@ public class ZipContributionHandler implements ArchiveContributionHandler {
 
     }
 
+    /**
+     * Returns true if the class read from the stream may be a contribution resource and must be loaded for introspection.
+     *
+     * @param stream       the class file stream, positioned at the start of the class
+     * @param contribution the contribution
+     * @param context      the introspection context
+     * @return true if the class must be loaded
+     */
+    private boolean isCandidate(InputStream stream, Contribution contribution, IntrospectionContext context) {
+        if (metadataReader == null) {
+            return true;
+        }
+        try {
+            ClassMetadata metadata = metadataReader.read(stream, context.getClassLoader());
+            for (JavaArtifactIntrospector introspector : artifactIntrospectors) {
+                if (introspector.isCandidate(metadata, contribution)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            // the class file could not be read, load the class instead
+            return true;
+        }
+    }
+
     private boolean exclude(ContributionManifest manifest, ZipEntry entry) {
         for (Pattern pattern : manifest.getScanExcludes()) {
             if (pattern.matcher(entry.getName()).matches()) {
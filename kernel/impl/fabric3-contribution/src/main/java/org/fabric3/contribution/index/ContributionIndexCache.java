@@ -0,0 +1,69 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.contribution.index;
+
+import java.util.function.Consumer;
+
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.Resource;
+
+/**
+ * Persists the results of processing contribution manifests and scanning contribution archives so that unchanged contributions are not rescanned when the
+ * runtime is restarted. Snapshots are keyed by contribution URI and a checksum of the contribution contents.
+ *
+ * Snapshots record resources as they are produced by the archive scan, before they are indexed by resource processors. Restored resources must therefore be
+ * indexed in the same way as scanned resources.
+ */
+public interface ContributionIndexCache {
+
+    /**
+     * Restores the contribution manifest from a snapshot if the contribution has not changed since the snapshot was taken.
+     *
+     * @param contribution the contribution
+     * @return true if the manifest was restored
+     */
+    boolean restoreManifest(Contribution contribution);
+
+    /**
+     * Records the contribution manifest after it has been processed. The manifest is copied so that subsequent changes made during contribution processing
+     * are not recorded.
+     *
+     * @param contribution the contribution
+     */
+    void recordManifest(Contribution contribution);
+
+    /**
+     * Restores the resources produced by scanning the contribution if the contribution has not changed since the snapshot was taken. Restored resources are
+     * added to the contribution and passed to the callback in scan order. If the resources cannot be restored, the contribution is not modified.
+     *
+     * @param contribution the contribution
+     * @param callback     the callback to index restored resources
+     * @param classLoader  the contribution classloader used to resolve class-valued resource elements
+     * @return true if the resources were restored
+     */
+    boolean restoreResources(Contribution contribution, Consumer<Resource> callback, ClassLoader classLoader);
+
+    /**
+     * Returns a recorder for resources produced by scanning the contribution.
+     *
+     * @param contribution the contribution
+     * @param callback     the callback recorded resources are passed to for indexing
+     * @return the recorder
+     */
+    ResourceRecorder createRecorder(Contribution contribution, Consumer<Resource> callback);
+
+}
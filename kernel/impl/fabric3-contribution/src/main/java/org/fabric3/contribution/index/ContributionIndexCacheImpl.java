@@ -0,0 +1,454 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.contribution.index;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import org.fabric3.api.annotation.Source;
+import org.fabric3.api.annotation.monitor.Monitor;
+import org.fabric3.api.host.runtime.HostInfo;
+import org.fabric3.api.host.util.FileHelper;
+import org.fabric3.contribution.index.ContributionSnapshot.ResourceEntry;
+import org.fabric3.spi.contribution.ContentTypeResolver;
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.ContributionManifest;
+import org.fabric3.spi.contribution.ContributionServiceListener;
+import org.fabric3.spi.contribution.ContributionState;
+import org.fabric3.spi.contribution.JavaArtifactIntrospector;
+import org.fabric3.spi.contribution.MetaDataStore;
+import org.fabric3.spi.contribution.Resource;
+import org.oasisopen.sca.annotation.Init;
+import org.oasisopen.sca.annotation.Property;
+import org.oasisopen.sca.annotation.Reference;
+
+/**
+ * Stores contribution snapshots as serialized files in the runtime data directory. Snapshots are only taken for contributions located on the filesystem. The
+ * checksum of an archive is calculated over its contents; the checksum of an exploded directory is calculated over the paths, sizes and modification times of
+ * the files it contains.
+ * <p>
+ * Since the resources produced by a scan depend on the runtime configuration, a snapshot also records a fingerprint of the runtime version, the installed
+ * extensions, the Java artifact introspectors and the content type mappings. Snapshots taken with a different configuration are not restored. Snapshots are
+ * deleted when their contribution is uninstalled.
+ */
+public class ContributionIndexCacheImpl implements ContributionIndexCache, ContributionServiceListener {
+    private static final String CHECKSUM = "f3.index.checksum";
+    private static final String SNAPSHOT = "f3.index.snapshot";
+    private static final String MANIFEST = "f3.index.manifest";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private HostInfo info;
+    private ContributionIndexMonitor monitor;
+    private boolean enabled = true;
+    private File directory;
+    private String runtimeVersion;
+
+    private List<JavaArtifactIntrospector> introspectors = Collections.emptyList();
+    private ContentTypeResolver contentTypeResolver;
+    private MetaDataStore metaDataStore;
+
+    public ContributionIndexCacheImpl(@Reference HostInfo info, @Monitor ContributionIndexMonitor monitor) {
+        this.info = info;
+        this.monitor = monitor;
+    }
+
+    @Property(required = false)
+    @Source("$systemConfig//f3:runtime/f3:contribution.index")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Reference(required = false)
+    public void setIntrospectors(List<JavaArtifactIntrospector> introspectors) {
+        this.introspectors = introspectors;
+    }
+
+    @Reference(required = false)
+    public void setContentTypeResolver(ContentTypeResolver contentTypeResolver) {
+        this.contentTypeResolver = contentTypeResolver;
+    }
+
+    @Reference(required = false)
+    public void setMetaDataStore(MetaDataStore metaDataStore) {
+        this.metaDataStore = metaDataStore;
+    }
+
+    @Init
+    public void init() {
+        File dataDir = info.getDataDir();
+        if (enabled && dataDir != null) {
+            directory = new File(dataDir, "contribution-index");
+        }
+    }
+
+    public boolean restoreManifest(Contribution contribution) {
+        ContributionSnapshot snapshot = getSnapshot(contribution);
+        if (snapshot == null) {
+            return false;
+        }
+        try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(snapshot.getManifest()))) {
+            ContributionManifest manifest = (ContributionManifest) stream.readObject();
+            contribution.setManifest(manifest);
+            contribution.addMetaData(MANIFEST, snapshot.getManifest());
+            return true;
+        } catch (IOException | ClassNotFoundException e) {
+            monitor.readError(contribution.getUri().toString(), e);
+            return false;
+        }
+    }
+
+    public void recordManifest(Contribution contribution) {
+        if (getChecksum(contribution) == -1) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+            stream.writeObject(contribution.getManifest());
+        } catch (IOException e) {
+            // the manifest contains state that cannot be serialized
+            monitor.notIndexable(contribution.getUri().toString(), e.toString());
+            return;
+        }
+        contribution.addMetaData(MANIFEST, bytes.toByteArray());
+    }
+
+    public boolean restoreResources(Contribution contribution, Consumer<Resource> callback, ClassLoader classLoader) {
+        ContributionSnapshot snapshot = getSnapshot(contribution);
+        if (snapshot == null || !Arrays.equals(snapshot.getManifest(), contribution.getMetaData(byte[].class, MANIFEST))) {
+            // the manifest was processed and has changed
+            return false;
+        }
+        List<Resource> resources = new ArrayList<>(snapshot.getResources().size());
+        try {
+            for (ResourceEntry entry : snapshot.getResources()) {
+                resources.add(entry.restore(contribution, classLoader));
+            }
+        } catch (IOException | ClassNotFoundException | NoClassDefFoundError e) {
+            monitor.readError(contribution.getUri().toString(), e);
+            return false;
+        }
+        clear(contribution);
+        for (Resource resource : resources) {
+            contribution.addResource(resource);
+            callback.accept(resource);
+        }
+        return true;
+    }
+
+    public ResourceRecorder createRecorder(Contribution contribution, Consumer<Resource> callback) {
+        return new ResourceRecorderImpl(contribution, callback);
+    }
+
+    public void onUninstall(Contribution contribution) {
+        if (directory == null) {
+            return;
+        }
+        File file = getFile(contribution);
+        if (file.exists() && !file.delete()) {
+            monitor.writeError(contribution.getUri().toString(), new IOException("Unable to delete snapshot: " + file));
+        }
+    }
+
+    public void onStore(Contribution contribution) {
+    }
+
+    public void onProcessManifest(Contribution contribution) {
+    }
+
+    public void onInstall(Contribution contribution) {
+    }
+
+    public void onUpdate(Contribution contribution) {
+    }
+
+    public void onRemove(Contribution contribution) {
+    }
+
+    /**
+     * Returns the snapshot for the contribution if one exists and was taken from the current contribution contents.
+     *
+     * @param contribution the contribution
+     * @return the snapshot or null
+     */
+    private ContributionSnapshot getSnapshot(Contribution contribution) {
+        ContributionSnapshot snapshot = contribution.getMetaData(ContributionSnapshot.class, SNAPSHOT);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long checksum = getChecksum(contribution);
+        if (checksum == -1) {
+            return null;
+        }
+        File file = getFile(contribution);
+        if (!file.exists()) {
+            return null;
+        }
+        try (ObjectInputStream stream = new ObjectInputStream(new FileInputStream(file))) {
+            snapshot = (ContributionSnapshot) stream.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            monitor.readError(contribution.getUri().toString(), e);
+            return null;
+        }
+        if (snapshot.getChecksum() != checksum || !snapshot.getLocation().equals(contribution.getLocation().toString())) {
+            // the contribution has changed
+            return null;
+        }
+        if (!getFingerprint(contribution).equals(snapshot.getFingerprint())) {
+            // the runtime configuration has changed, e.g. an extension that introspects contribution artifacts was installed
+            return null;
+        }
+        contribution.addMetaData(SNAPSHOT, snapshot);
+        return snapshot;
+    }
+
+    private void write(Contribution contribution, ContributionSnapshot snapshot) {
+        File file = getFile(contribution);
+        try {
+            directory.mkdirs();
+            File temp = File.createTempFile("snapshot", ".tmp", directory);
+            try (ObjectOutputStream stream = new ObjectOutputStream(new FileOutputStream(temp))) {
+                stream.writeObject(snapshot);
+            } catch (IOException e) {
+                temp.delete();
+                throw e;
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            monitor.writeError(contribution.getUri().toString(), e);
+        }
+    }
+
+    private void clear(Contribution contribution) {
+        contribution.removeMetaData(CHECKSUM);
+        contribution.removeMetaData(SNAPSHOT);
+        contribution.removeMetaData(MANIFEST);
+    }
+
+    private File getFile(Contribution contribution) {
+        try {
+            return new File(directory, URLEncoder.encode(contribution.getUri().toString(), "UTF-8") + ".ser");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Returns the checksum of the contribution contents or -1 if the contribution cannot be indexed.
+     *
+     * @param contribution the contribution
+     * @return the checksum or -1
+     */
+    private long getChecksum(Contribution contribution) {
+        Long checksum = contribution.getMetaData(Long.class, CHECKSUM);
+        if (checksum != null) {
+            return checksum;
+        }
+        checksum = calculateChecksum(contribution);
+        contribution.addMetaData(CHECKSUM, checksum);
+        return checksum;
+    }
+
+    private long calculateChecksum(Contribution contribution) {
+        if (directory == null || contribution.getLocation() == null) {
+            return -1;
+        }
+        List<URL> locations = new ArrayList<>();
+        locations.add(contribution.getLocation());
+        locations.addAll(contribution.getAdditionalLocations());
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try {
+            for (URL location : locations) {
+                File file = FileHelper.toFile(location);
+                if (file == null || !file.exists()) {
+                    return -1;
+                }
+                if (file.isDirectory()) {
+                    update(crc, file, file.getPath().length());
+                } else {
+                    try (InputStream stream = new FileInputStream(file)) {
+                        int read;
+                        while ((read = stream.read(buffer)) != -1) {
+                            crc.update(buffer, 0, read);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            monitor.readError(contribution.getUri().toString(), e);
+            return -1;
+        }
+        return crc.getValue();
+    }
+
+    private void update(CRC32 crc, File directory, int rootLength) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        // sort to produce a stable checksum
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.isDirectory()) {
+                update(crc, file, rootLength);
+            } else {
+                crc.update(file.getPath().substring(rootLength).getBytes());
+                update(crc, file.length());
+                update(crc, file.lastModified());
+            }
+        }
+    }
+
+    /**
+     * Returns a digest of the runtime configuration that determines the resources produced by scanning a contribution.
+     *
+     * @param contribution the contribution being scanned, which is excluded from the installed extensions
+     * @return the fingerprint
+     */
+    private String getFingerprint(Contribution contribution) {
+        StringBuilder builder = new StringBuilder(getRuntimeVersion()).append('\n');
+        TreeSet<String> introspectorTypes = new TreeSet<>();
+        for (JavaArtifactIntrospector introspector : introspectors) {
+            introspectorTypes.add(introspector.getClass().getName());
+        }
+        builder.append(introspectorTypes).append('\n');
+        if (contentTypeResolver != null) {
+            builder.append(new TreeMap<>(contentTypeResolver.getMappings())).append('\n');
+        }
+        if (metaDataStore != null) {
+            TreeSet<String> extensions = new TreeSet<>();
+            for (Contribution installed : metaDataStore.getContributions()) {
+                ContributionManifest manifest = installed.getManifest();
+                if (installed.getState() == ContributionState.STORED || manifest == null || !manifest.isExtension()
+                    || installed.getUri().equals(contribution.getUri())) {
+                    continue;
+                }
+                extensions.add(installed.getUri() + "@" + installed.getTimestamp());
+            }
+            builder.append(extensions);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(builder.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Returns the runtime version. If the kernel is not packaged with an implementation version, the location, size and modification time of the kernel
+     * archive are used.
+     *
+     * @return the runtime version
+     */
+    private String getRuntimeVersion() {
+        if (runtimeVersion != null) {
+            return runtimeVersion;
+        }
+        String version = getClass().getPackage() == null ? null : getClass().getPackage().getImplementationVersion();
+        if (version == null) {
+            CodeSource source = getClass().getProtectionDomain().getCodeSource();
+            File file = source == null ? null : FileHelper.toFile(source.getLocation());
+            version = file == null ? "" : file.getPath() + ":" + file.length() + ":" + file.lastModified();
+        }
+        runtimeVersion = version;
+        return version;
+    }
+
+    private void update(CRC32 crc, long value) {
+        for (int i = 0; i < 8; i++) {
+            crc.update((int) (value >>> (i * 8)));
+        }
+    }
+
+    private class ResourceRecorderImpl implements ResourceRecorder {
+        private Contribution contribution;
+        private Consumer<Resource> callback;
+        private List<ResourceEntry> entries = new ArrayList<>();
+        private int size;
+        private boolean valid;
+
+        public ResourceRecorderImpl(Contribution contribution, Consumer<Resource> callback) {
+            this.contribution = contribution;
+            this.callback = callback;
+            this.size = contribution.getResources().size();
+            valid = contribution.getMetaData(byte[].class, MANIFEST) != null;
+        }
+
+        public void accept(Resource resource) {
+            if (valid) {
+                // handlers must only add the scanned resource to the contribution, otherwise additional resources would not be restored
+                if (contribution.getResources().size() != size + 1) {
+                    invalidate("resources added during scan");
+                } else {
+                    ResourceEntry entry = ResourceEntry.create(resource);
+                    if (entry == null) {
+                        invalidate("resource cannot be recorded: " + resource.getSource());
+                    } else {
+                        entries.add(entry);
+                    }
+                }
+            }
+            callback.accept(resource);
+            size = contribution.getResources().size();
+        }
+
+        public void complete() {
+            if (!valid) {
+                return;
+            }
+            byte[] manifest = contribution.getMetaData(byte[].class, MANIFEST);
+            String location = contribution.getLocation().toString();
+            ContributionSnapshot snapshot = new ContributionSnapshot(location, getChecksum(contribution), getFingerprint(contribution), manifest);
+            snapshot.setResources(entries);
+            write(contribution, snapshot);
+            clear(contribution);
+        }
+
+        private void invalidate(String reason) {
+            valid = false;
+            entries.clear();
+            monitor.notIndexable(contribution.getUri().toString(), reason);
+        }
+    }
+
+}
@@ -0,0 +1,261 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.contribution.index;
+
+import javax.xml.namespace.QName;
+import java.io.Serializable;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fabric3.api.host.stream.Source;
+import org.fabric3.api.host.stream.UrlSource;
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.JavaSymbol;
+import org.fabric3.spi.contribution.ProviderSymbol;
+import org.fabric3.spi.contribution.Resource;
+import org.fabric3.spi.contribution.ResourceElement;
+import org.fabric3.spi.contribution.ResourceState;
+import org.fabric3.spi.contribution.Symbol;
+import org.fabric3.spi.contribution.manifest.QNameSymbol;
+
+/**
+ * A persistent snapshot of a processed contribution manifest and the resources produced by scanning the contribution.
+ */
+public class ContributionSnapshot implements Serializable {
+    private static final long serialVersionUID = -5263720157419320941L;
+
+    private String location;
+    private long checksum;
+    private String fingerprint;
+    private byte[] manifest;
+    private List<ResourceEntry> resources = new ArrayList<>();
+
+    public ContributionSnapshot(String location, long checksum, String fingerprint, byte[] manifest) {
+        this.location = location;
+        this.checksum = checksum;
+        this.fingerprint = fingerprint;
+        this.manifest = manifest;
+    }
+
+    /**
+     * Returns the contribution location the snapshot was taken from.
+     *
+     * @return the location
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Returns the checksum of the contribution contents the snapshot was taken from.
+     *
+     * @return the checksum
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Returns the fingerprint of the runtime configuration the contribution was scanned with, including the runtime version, installed extensions, artifact
+     * introspectors and content type mappings.
+     *
+     * @return the fingerprint
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns the serialized contribution manifest.
+     *
+     * @return the serialized manifest
+     */
+    public byte[] getManifest() {
+        return manifest;
+    }
+
+    /**
+     * Returns the resources produced by scanning the contribution in scan order.
+     *
+     * @return the resources
+     */
+    public List<ResourceEntry> getResources() {
+        return resources;
+    }
+
+    public void setResources(List<ResourceEntry> resources) {
+        this.resources = resources;
+    }
+
+    /**
+     * A recorded resource.
+     */
+    public static class ResourceEntry implements Serializable {
+        private static final long serialVersionUID = -2883937409404467236L;
+
+        private String location;
+        private String contentType;
+        private ResourceState state;
+        private List<ElementEntry> elements;
+
+        private ResourceEntry(String location, String contentType, ResourceState state, List<ElementEntry> elements) {
+            this.location = location;
+            this.contentType = contentType;
+            this.state = state;
+            this.elements = elements;
+        }
+
+        /**
+         * Records a resource.
+         *
+         * @param resource the resource
+         * @return the entry or null if the resource cannot be recorded
+         */
+        public static ResourceEntry create(Resource resource) {
+            Source source = resource.getSource();
+            if (!(source instanceof UrlSource)) {
+                return null;
+            }
+            List<ElementEntry> elements = new ArrayList<>(resource.getResourceElements().size());
+            for (ResourceElement<?, ?> element : resource.getResourceElements()) {
+                ElementEntry entry = ElementEntry.create(element);
+                if (entry == null) {
+                    return null;
+                }
+                elements.add(entry);
+            }
+            String location = source.getBaseLocation().toString();
+            return new ResourceEntry(location, resource.getContentType(), resource.getState(), elements);
+        }
+
+        /**
+         * Restores the resource.
+         *
+         * @param contribution the containing contribution
+         * @param classLoader  the classloader to resolve class-valued elements
+         * @return the resource
+         * @throws MalformedURLException  if the recorded location is invalid
+         * @throws ClassNotFoundException if a class-valued element cannot be resolved
+         */
+        public Resource restore(Contribution contribution, ClassLoader classLoader) throws MalformedURLException, ClassNotFoundException {
+            Resource resource = new Resource(contribution, new UrlSource(new URL(location)), contentType);
+            for (ElementEntry element : elements) {
+                resource.addResourceElement(element.restore(classLoader));
+            }
+            resource.setState(state);
+            return resource;
+        }
+
+    }
+
+    /**
+     * A recorded resource element. Only elements whose symbols are keyed by serializable values and whose values are classes or have not been set can be
+     * recorded.
+     */
+    public static class ElementEntry implements Serializable {
+        private static final long serialVersionUID = 6053712896328826386L;
+
+        private SymbolType type;
+        private Serializable key;
+        private String valueClass;
+        private Serializable metadata;
+
+        private ElementEntry(SymbolType type, Serializable key, String valueClass, Serializable metadata) {
+            this.type = type;
+            this.key = key;
+            this.valueClass = valueClass;
+            this.metadata = metadata;
+        }
+
+        /**
+         * Records a resource element.
+         *
+         * @param element the element
+         * @return the entry or null if the element cannot be recorded
+         */
+        public static ElementEntry create(ResourceElement<?, ?> element) {
+            SymbolType type = SymbolType.get(element.getSymbol());
+            if (type == null) {
+                return null;
+            }
+            Object value = element.getValue();
+            if (value != null && !(value instanceof Class)) {
+                return null;
+            }
+            Object metadata = element.getMetadata(Object.class);
+            if (metadata != null && !(metadata instanceof Serializable)) {
+                return null;
+            }
+            String valueClass = value == null ? null : ((Class<?>) value).getName();
+            return new ElementEntry(type, (Serializable) element.getSymbol().getKey(), valueClass, (Serializable) metadata);
+        }
+
+        /**
+         * Restores the resource element.
+         *
+         * @param classLoader the classloader to resolve a class value
+         * @return the element
+         * @throws ClassNotFoundException if the class value cannot be resolved
+         */
+        public ResourceElement<?, ?> restore(ClassLoader classLoader) throws ClassNotFoundException {
+            Symbol<?> symbol = type.create(key);
+            Object value = valueClass == null ? null : classLoader.loadClass(valueClass);
+            ResourceElement<Symbol<?>, Object> element = new ResourceElement<>(symbol, value);
+            element.setMetadata(metadata);
+            return element;
+        }
+    }
+
+    /**
+     * The symbol types that can be recorded.
+     */
+    private enum SymbolType {
+        QNAME {
+            Symbol<?> create(Serializable key) {
+                return new QNameSymbol((QName) key);
+            }
+        },
+        JAVA {
+            Symbol<?> create(Serializable key) {
+                return new JavaSymbol((String) key);
+            }
+        },
+        PROVIDER {
+            Symbol<?> create(Serializable key) {
+                return new ProviderSymbol((String) key);
+            }
+        };
+
+        abstract Symbol<?> create(Serializable key);
+
+        static SymbolType get(Symbol<?> symbol) {
+            // compare exact types since subclasses may carry additional state
+            Class<?> type = symbol.getClass();
+            if (QNameSymbol.class == type) {
+                return QNAME;
+            } else if (JavaSymbol.class == type) {
+                return JAVA;
+            } else if (ProviderSymbol.class == type) {
+                return PROVIDER;
+            }
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.contribution.index;
+
+import java.util.function.Consumer;
+
+import org.fabric3.spi.contribution.Resource;
+
+/**
+ * Records resources produced by a contribution scan before passing them on for indexing.
+ */
+public interface ResourceRecorder extends Consumer<Resource> {
+
+    /**
+     * Persists the recorded resources. This should only be called if the contribution was scanned and indexed without errors or warnings.
+     */
+    void complete();
+
+}
@@ -20,8 +20,8 @@ package org.fabric3.contribution.processor;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamReader;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.fabric3.spi.contribution.Resource;
 import org.fabric3.spi.contribution.xml.XmlIndexer;
@@ -32,7 +32,7 @@ import org.fabric3.spi.introspection.IntrospectionContext;
  * Default implementation of an XmlIndexerRegistry.
  */
 public class XmlIndexerRegistryImpl implements XmlIndexerRegistry {
-    private Map<QName, XmlIndexer> cache = new HashMap<>();
+    private Map<QName, XmlIndexer> cache = new ConcurrentHashMap<>();
 
     public void register(XmlIndexer indexer) {
         cache.put(indexer.getType(), indexer);
@@ -20,8 +20,8 @@ package org.fabric3.contribution.processor;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamReader;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.spi.contribution.Contribution;
@@ -33,7 +33,7 @@ import org.fabric3.spi.introspection.IntrospectionContext;
  * Default implementation of an XmlProcessorRegistry.
  */
 public class XmlProcessorRegistryImpl implements XmlProcessorRegistry {
-    private Map<QName, XmlProcessor> cache = new HashMap<>();
+    private Map<QName, XmlProcessor> cache = new ConcurrentHashMap<>();
 
     public void register(XmlProcessor processor) {
         cache.put(processor.getType(), processor);
@@ -21,8 +21,8 @@ package org.fabric3.contribution.processor;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.spi.contribution.Resource;
@@ -34,7 +34,7 @@ import org.fabric3.spi.introspection.IntrospectionContext;
  * Default implementation of an XmlIndexerRegistry.
  */
 public class XmlResourceElementLoaderRegistryImpl implements XmlResourceElementLoaderRegistry {
-    private Map<QName, XmlResourceElementLoader> cache = new HashMap<>();
+    private Map<QName, XmlResourceElementLoader> cache = new ConcurrentHashMap<>();
 
     public void register(XmlResourceElementLoader loader) {
         cache.put(loader.getType(), loader);
@@ -30,6 +30,10 @@ public class ClassLoaderWireFilter extends DelegatingResourceClassLoader {
     private static final URL[] NO_URLS = new URL[0];
     private String[] importedPackage;
 
+    static {
+        registerAsParallelCapable();
+    }
+
     /**
      * Constructor.
      *
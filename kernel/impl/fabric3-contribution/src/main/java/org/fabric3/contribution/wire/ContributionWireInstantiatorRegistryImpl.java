@@ -19,8 +19,8 @@
 package org.fabric3.contribution.wire;
 
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.fabric3.spi.contribution.ContributionWire;
 import org.fabric3.spi.contribution.Export;
@@ -33,7 +33,7 @@ import org.oasisopen.sca.annotation.Reference;
  */
 @EagerInit
 public class ContributionWireInstantiatorRegistryImpl implements ContributionWireInstantiatorRegistry {
-    private Map<Class<? extends Import>, ContributionWireInstantiator<?, ?, ?>> instantiators = new HashMap<>();
+    private Map<Class<? extends Import>, ContributionWireInstantiator<?, ?, ?>> instantiators = new ConcurrentHashMap<>();
 
     @Reference
     public void setInstantiators(Map<Class<? extends Import>, ContributionWireInstantiator<?, ?, ?>> instantiators) {
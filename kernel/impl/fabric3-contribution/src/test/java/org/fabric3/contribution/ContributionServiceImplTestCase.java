@@ -23,20 +23,32 @@ import javax.xml.namespace.QName;
 import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
 import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.api.host.contribution.ArtifactValidationFailure;
 import org.fabric3.api.host.contribution.ContributionOrder;
 import org.fabric3.api.host.contribution.ContributionSource;
 import org.fabric3.api.host.contribution.Deployable;
 import org.fabric3.api.host.contribution.FileContributionSource;
+import org.fabric3.api.host.contribution.ValidationException;
 import org.fabric3.api.model.type.component.Composite;
 import org.fabric3.spi.contribution.Capability;
 import org.fabric3.spi.contribution.ContentTypeResolver;
 import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.ContributionServiceListener;
+import org.fabric3.spi.contribution.ContributionState;
 import org.fabric3.spi.contribution.MetaDataStore;
 import org.fabric3.spi.contribution.ProcessorRegistry;
 import org.fabric3.spi.contribution.Resource;
@@ -118,7 +130,8 @@ public class ContributionServiceImplTestCase extends TestCase {
 
         EasyMock.expect(store.find(contributionUri)).andReturn(contribution);
         processorRegistry.processManifest(EasyMock.eq(contribution), EasyMock.isA(IntrospectionContext.class));
-        EasyMock.expect(dependencyResolver.resolve(EasyMock.isA(List.class))).andReturn(Collections.singletonList(contribution));
+        Map<Contribution, Set<Contribution>> dependencies = Collections.singletonMap(contribution, Collections.emptySet());
+        EasyMock.expect(dependencyResolver.resolveDependencies(EasyMock.isA(List.class))).andReturn(dependencies);
         EasyMock.expect(loader.load(contribution)).andReturn(getClass().getClassLoader());
         processorRegistry.indexContribution(EasyMock.eq(contribution), EasyMock.isA(IntrospectionContext.class));
         store.store(contribution);
@@ -261,6 +274,116 @@ public class ContributionServiceImplTestCase extends TestCase {
         EasyMock.verify(processorRegistry, store, loader, resolver, dependencyResolver);
     }
 
+    @SuppressWarnings({"unchecked"})
+    public void testInstallConcurrently() throws Exception {
+        Contribution contribution1 = createStoredContribution("contribution1");
+        Contribution contribution2 = createStoredContribution("contribution2");
+        Contribution dependent = createStoredContribution("dependent");
+        Map<Contribution, Set<Contribution>> dependencies = new LinkedHashMap<>();
+        dependencies.put(contribution1, Collections.emptySet());
+        dependencies.put(contribution2, Collections.emptySet());
+        dependencies.put(dependent, new HashSet<>(Arrays.asList(contribution1, contribution2)));
+        EasyMock.expect(dependencyResolver.resolveDependencies(EasyMock.isA(List.class))).andReturn(dependencies);
+        processorRegistry.indexContribution(EasyMock.isA(Contribution.class), EasyMock.isA(IntrospectionContext.class));
+        EasyMock.expectLastCall().times(3);
+        EasyMock.replay(processorRegistry, store, resolver, dependencyResolver);
+
+        // the independent contributions must be loaded at the same time
+        CountDownLatch latch = new CountDownLatch(2);
+        StubLoader stubLoader = new StubLoader(contribution -> {
+            if (contribution != dependent) {
+                latch.countDown();
+                await(latch);
+            }
+        });
+        service = createService(stubLoader);
+        List<Contribution> installed = Collections.synchronizedList(new ArrayList<>());
+        service.setListeners(Collections.singletonList(new InstallListener(installed)));
+
+        List<URI> uris = service.install(Arrays.asList(dependent.getUri(), contribution2.getUri(), contribution1.getUri()));
+
+        assertEquals(Arrays.asList(contribution1.getUri(), contribution2.getUri(), dependent.getUri()), uris);
+        assertEquals(3, installed.size());
+        assertSame(dependent, installed.get(2));
+        assertEquals(ContributionState.INSTALLED, dependent.getState());
+        EasyMock.verify(processorRegistry, store, resolver, dependencyResolver);
+        service.destroy();
+    }
+
+    @SuppressWarnings({"unchecked"})
+    public void testInstallConcurrentlyReportsErrorsInOrder() throws Exception {
+        Contribution contribution1 = createStoredContribution("contribution1");
+        Contribution contribution2 = createStoredContribution("contribution2");
+        Contribution dependent = createStoredContribution("dependent");
+        Map<Contribution, Set<Contribution>> dependencies = new LinkedHashMap<>();
+        dependencies.put(contribution1, Collections.emptySet());
+        dependencies.put(contribution2, Collections.emptySet());
+        dependencies.put(dependent, Collections.singleton(contribution2));
+        EasyMock.expect(dependencyResolver.resolveDependencies(EasyMock.isA(List.class))).andReturn(dependencies);
+
+        // both independent contributions fail and the second one in dependency order completes first
+        CountDownLatch latch = new CountDownLatch(1);
+        processorRegistry.indexContribution(EasyMock.isA(Contribution.class), EasyMock.isA(IntrospectionContext.class));
+        EasyMock.expectLastCall().andAnswer(() -> {
+            Contribution current = (Contribution) EasyMock.getCurrentArguments()[0];
+            IntrospectionContext context = (IntrospectionContext) EasyMock.getCurrentArguments()[1];
+            context.addError(new ArtifactValidationFailure(current.getUri(), "error"));
+            if (current == contribution2) {
+                latch.countDown();
+            }
+            return null;
+        }).times(2);
+        store.remove(EasyMock.isA(URI.class));
+        EasyMock.expectLastCall().times(3);
+        EasyMock.replay(processorRegistry, store, resolver, dependencyResolver);
+
+        StubLoader stubLoader = new StubLoader(contribution -> {
+            if (contribution == contribution1) {
+                await(latch);
+            }
+        });
+        service = createService(stubLoader);
+
+        try {
+            service.install(Arrays.asList(contribution1.getUri(), contribution2.getUri(), dependent.getUri()));
+            fail();
+        } catch (ValidationException e) {
+            assertEquals(2, e.getErrors().size());
+            assertEquals(contribution1.getUri(), ((ArtifactValidationFailure) e.getErrors().get(0)).getContributionUri());
+            assertEquals(contribution2.getUri(), ((ArtifactValidationFailure) e.getErrors().get(1)).getContributionUri());
+        }
+        // the dependent of the failed contribution is skipped
+        assertFalse(stubLoader.loaded.contains(dependent));
+        assertEquals(3, stubLoader.unloaded.size());
+        EasyMock.verify(processorRegistry, store, resolver, dependencyResolver);
+        service.destroy();
+    }
+
+    @SuppressWarnings({"unchecked"})
+    public void testInstallSequential() throws Exception {
+        Contribution contribution1 = createStoredContribution("contribution1");
+        Contribution contribution2 = createStoredContribution("contribution2");
+        Map<Contribution, Set<Contribution>> dependencies = new LinkedHashMap<>();
+        dependencies.put(contribution1, Collections.emptySet());
+        dependencies.put(contribution2, Collections.emptySet());
+        EasyMock.expect(dependencyResolver.resolveDependencies(EasyMock.isA(List.class))).andReturn(dependencies);
+        EasyMock.expect(loader.load(EasyMock.isA(Contribution.class))).andReturn(getClass().getClassLoader()).times(2);
+
+        Thread caller = Thread.currentThread();
+        processorRegistry.indexContribution(EasyMock.isA(Contribution.class), EasyMock.isA(IntrospectionContext.class));
+        EasyMock.expectLastCall().andAnswer(() -> {
+            assertSame(caller, Thread.currentThread());
+            return null;
+        }).times(2);
+        EasyMock.replay(processorRegistry, store, loader, resolver, dependencyResolver);
+
+        service.setSequential(true);
+        service.install(Arrays.asList(contribution1.getUri(), contribution2.getUri()));
+
+        assertEquals(ContributionState.INSTALLED, contribution2.getState());
+        EasyMock.verify(processorRegistry, loader);
+    }
+
     @Override
     protected void setUp() throws Exception {
         super.setUp();
@@ -282,6 +405,33 @@ public class ContributionServiceImplTestCase extends TestCase {
         service = new ContributionServiceImpl(processorRegistry, store, loader, resolver, dependencyResolver, monitor);
     }
 
+    private ContributionServiceImpl createService(ContributionLoader contributionLoader) {
+        ContributionServiceMonitor monitor = EasyMock.createNiceMock(ContributionServiceMonitor.class);
+        EasyMock.replay(monitor);
+        ContributionServiceImpl service = new ContributionServiceImpl(processorRegistry, store, contributionLoader, resolver, dependencyResolver, monitor);
+        service.setParallelism(4);
+        return service;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private Contribution createStoredContribution(String name) {
+        Contribution contribution = new Contribution(URI.create(name));
+        EasyMock.expect(store.find(contribution.getUri())).andReturn(contribution).anyTimes();
+        store.store(contribution);
+        EasyMock.expectLastCall().anyTimes();
+        processorRegistry.processManifest(EasyMock.eq(contribution), EasyMock.isA(IntrospectionContext.class));
+        processorRegistry.processContribution(EasyMock.eq(contribution), EasyMock.isA(IntrospectionContext.class));
+        EasyMock.expectLastCall().anyTimes();
+        return contribution;
+    }
+
     private void createResourceWithComposite() {
         Resource resource = new Resource(contribution, null, "application/xml");
         QNameSymbol symbol = new QNameSymbol(deployableName);
@@ -291,4 +441,51 @@ public class ContributionServiceImplTestCase extends TestCase {
         contribution.addResource(resource);
     }
 
+    private static class StubLoader implements ContributionLoader {
+        private Consumer<Contribution> action;
+        private List<Contribution> loaded = Collections.synchronizedList(new ArrayList<>());
+        private List<Contribution> unloaded = Collections.synchronizedList(new ArrayList<>());
+
+        public StubLoader(Consumer<Contribution> action) {
+            this.action = action;
+        }
+
+        public ClassLoader load(Contribution contribution) {
+            loaded.add(contribution);
+            action.accept(contribution);
+            return getClass().getClassLoader();
+        }
+
+        public void unload(Contribution contribution) {
+            unloaded.add(contribution);
+        }
+    }
+
+    private static class InstallListener implements ContributionServiceListener {
+        private List<Contribution> installed;
+
+        public InstallListener(List<Contribution> installed) {
+            this.installed = installed;
+        }
+
+        public void onStore(Contribution contribution) {
+        }
+
+        public void onProcessManifest(Contribution contribution) {
+        }
+
+        public void onInstall(Contribution contribution) {
+            installed.add(contribution);
+        }
+
+        public void onUpdate(Contribution contribution) {
+        }
+
+        public void onUninstall(Contribution contribution) {
+        }
+
+        public void onRemove(Contribution contribution) {
+        }
+    }
+
 }
@@ -24,6 +24,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
@@ -71,6 +73,23 @@ public class DependencyResolverImplTestCase extends TestCase {
         EasyMock.verify(store);
     }
 
+    public void testResolveDependencies() throws Exception {
+        EasyMock.replay(store);
+
+        List<Contribution> contributions = new ArrayList<>();
+        contributions.add(contribution2);
+        contributions.add(contribution1);
+        contributions.add(contribution3);
+
+        Map<Contribution, Set<Contribution>> dependencies = resolver.resolveDependencies(contributions);
+
+        assertEquals(Arrays.asList(contribution3, contribution2, contribution1), new ArrayList<>(dependencies.keySet()));
+        assertTrue(dependencies.get(contribution3).isEmpty());
+        assertEquals(Collections.singleton(contribution3), dependencies.get(contribution2));
+        assertEquals(Collections.singleton(contribution2), dependencies.get(contribution1));
+        EasyMock.verify(store);
+    }
+
     public void testResolveAlreadyInstalledImport() throws Exception {
         QNameImport imprt = new QNameImport("test", null);
         EasyMock.expect(store.resolve(CONTRIBUTION1_URI, imprt)).andReturn(Collections.singletonList(contribution2));
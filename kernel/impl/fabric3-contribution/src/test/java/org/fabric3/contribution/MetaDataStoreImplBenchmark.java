@@ -0,0 +1,104 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.contribution;
+
+import javax.xml.namespace.QName;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.model.type.component.Composite;
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.ProcessorRegistry;
+import org.fabric3.spi.contribution.Resource;
+import org.fabric3.spi.contribution.ResourceElement;
+import org.fabric3.spi.contribution.ResourceState;
+import org.fabric3.spi.contribution.manifest.QNameSymbol;
+
+/**
+ * Measures symbol lookup times as the number of installed contributions grows, comparing the symbol index against a linear scan of contribution resources.
+ * The benchmark only reports timings and is run with the benchmark task.
+ */
+public class MetaDataStoreImplBenchmark extends TestCase {
+    private static final int RESOURCES = 20;
+    private static final int LOOKUPS = 20000;
+
+    public void testLookups() throws Exception {
+        // warm up
+        measure(100);
+
+        for (int contributions : new int[]{10, 100, 1000}) {
+            long[] times = measure(contributions);
+            System.out.println(contributions + " contributions: indexed lookup " + times[0] + " ns, linear scan " + times[1] + " ns");
+        }
+    }
+
+    /**
+     * Returns the average time for an indexed lookup and a linear scan lookup.
+     *
+     * @param contributions the number of contributions to store
+     * @return the average lookup times in nanoseconds
+     */
+    private long[] measure(int contributions) {
+        MetaDataStoreImpl store = new MetaDataStoreImpl(EasyMock.createMock(ProcessorRegistry.class));
+        List<QNameSymbol> symbols = new ArrayList<>();
+        for (int i = 0; i < contributions; i++) {
+            Contribution contribution = new Contribution(URI.create("contribution" + i));
+            for (int j = 0; j < RESOURCES; j++) {
+                QName name = new QName("urn:contribution" + i, "composite" + j);
+                Resource resource = new Resource(contribution, null, "application/xml");
+                resource.addResourceElement(new ResourceElement<>(new QNameSymbol(name), new Composite(name)));
+                resource.setState(ResourceState.PROCESSED);
+                contribution.addResource(resource);
+                symbols.add(new QNameSymbol(name));
+            }
+            store.store(contribution);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            QNameSymbol symbol = symbols.get((i * 7919) % symbols.size());
+            assertNotNull(store.find(Composite.class, symbol));
+        }
+        long indexed = (System.nanoTime() - start) / LOOKUPS;
+
+        int scans = LOOKUPS / 20;
+        start = System.nanoTime();
+        for (int i = 0; i < scans; i++) {
+            QNameSymbol symbol = symbols.get((i * 7919) % symbols.size());
+            assertNotNull(scan(store, symbol));
+        }
+        long scanned = (System.nanoTime() - start) / scans;
+        return new long[]{indexed, scanned};
+    }
+
+    private ResourceElement<?, ?> scan(MetaDataStoreImpl store, QNameSymbol symbol) {
+        for (Contribution contribution : store.getContributions()) {
+            for (Resource resource : contribution.getResources()) {
+                for (ResourceElement<?, ?> element : resource.getResourceElements()) {
+                    if (element.getSymbol().equals(symbol)) {
+                        return element;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+}
@@ -26,6 +26,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
@@ -109,6 +114,86 @@ public class MetaDataStoreImplTestCase extends TestCase {
         assertEquals(otherDeployableName, element.getValue().getName());
     }
 
+    public void testFindResourceAddedAfterStore() throws Exception {
+        store.store(contribution);
+        store.store(otherContribution);
+        QName name = new QName("test", "added");
+        QNameSymbol symbol = new QNameSymbol(name);
+        assertNull(store.find(Composite.class, symbol));
+
+        createResourceWithComposite(name, contribution);
+        assertEquals(name, store.find(Composite.class, symbol).getValue().getName());
+        assertEquals(name, store.find(contributionUri, Composite.class, symbol).getValue().getName());
+    }
+
+    public void testFindRemovedResource() throws Exception {
+        store.store(contribution);
+        store.store(otherContribution);
+        QNameSymbol symbol = new QNameSymbol(otherDeployableName);
+        ResourceElement<QNameSymbol, Composite> element = store.find(Composite.class, symbol);
+
+        otherContribution.removeResource(element.getResource());
+        assertNull(store.find(Composite.class, symbol));
+        assertNull(store.find(contributionUri, Composite.class, symbol));
+    }
+
+    public void testFindRemovedContribution() throws Exception {
+        store.store(contribution);
+        store.store(otherContribution);
+        store.remove(otherContributionUri);
+        assertNull(store.find(Composite.class, new QNameSymbol(otherDeployableName)));
+    }
+
+    public void testFindDuringReindex() throws Exception {
+        store.store(contribution);
+        store.store(otherContribution);
+        QNameSymbol symbol = new QNameSymbol(deployableName);
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> reader = executor.submit(() -> {
+                while (!done.get()) {
+                    assertNotNull(store.find(Composite.class, symbol));
+                }
+            });
+            for (int i = 0; i < 2000 && !reader.isDone(); i++) {
+                if (i % 2 == 0) {
+                    store.store(contribution);
+                } else {
+                    // signal a change so that the contribution is lazily reindexed
+                    createResourceWithComposite(new QName("test", "added" + i), contribution);
+                    store.find(Composite.class, symbol);
+                }
+            }
+            done.set(true);
+            reader.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testFindDoesNotScanUnrelatedContributions() throws Exception {
+        store.store(contribution);
+        store.store(otherContribution);
+        AtomicInteger scans = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            Contribution unrelated = new Contribution(URI.create("unrelated" + i)) {
+                public List<Resource> getResources() {
+                    scans.incrementAndGet();
+                    return super.getResources();
+                }
+            };
+            createResourceWithComposite(new QName("urn:unrelated", "composite" + i), unrelated);
+            store.store(unrelated);
+        }
+        scans.set(0);
+
+        assertEquals(deployableName, store.find(Composite.class, new QNameSymbol(deployableName)).getValue().getName());
+        assertEquals(otherDeployableName, store.find(contributionUri, Composite.class, new QNameSymbol(otherDeployableName)).getValue().getName());
+        assertNull(store.find(Composite.class, new QNameSymbol(new QName("urn:unrelated", "missing"))));
+        assertEquals(0, scans.get());
+    }
+
     public void testFindByImport() throws Exception {
         store.store(contribution);
         store.store(otherContribution);
@@ -19,6 +19,12 @@
 package org.fabric3.contribution;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
@@ -180,6 +186,37 @@ public class ProcessorRegistryImplTestCase extends TestCase {
         EasyMock.verify(processor);
     }
 
+    public void testConcurrentProcessResourceProcessesOnce() throws Exception {
+        ResourceProcessor processor = EasyMock.createMock(ResourceProcessor.class);
+        EasyMock.expect(processor.getContentType()).andReturn("application/xml");
+        processor.process(resource, context);
+        EasyMock.expectLastCall().andAnswer(() -> {
+            Thread.sleep(50);
+            resource.setState(ResourceState.PROCESSED);
+            return null;
+        });
+        EasyMock.replay(processor);
+
+        registry.register(processor);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                tasks.add(() -> {
+                    registry.processResource(resource, context);
+                    return null;
+                });
+            }
+            for (Future<Void> future : executorService.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        EasyMock.verify(processor);
+    }
+
     @Override
     protected void setUp() throws Exception {
         super.setUp();
@@ -0,0 +1,137 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.contribution.archive;
+
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+import junit.framework.TestCase;
+import org.fabric3.api.annotation.model.Component;
+import org.fabric3.spi.contribution.ClassMetadata;
+import org.oasisopen.sca.annotation.Scope;
+
+/**
+ *
+ */
+public class ClassMetadataReaderImplTestCase extends TestCase {
+    private ClassMetadataReaderImpl reader = new ClassMetadataReaderImpl();
+
+    public void testComponent() throws Exception {
+        ClassMetadata metadata = read(AnnotatedComponent.class);
+        assertEquals(AnnotatedComponent.class.getName(), metadata.getName());
+        assertFalse(metadata.isAbstract());
+        assertTrue(metadata.isAnnotationPresent(Component.class.getName()));
+        assertTrue(metadata.isAnnotatedWith(Component.class.getName()));
+        assertFalse(metadata.isAnnotationPresent(Scope.class.getName()));
+    }
+
+    public void testAbstract() throws Exception {
+        ClassMetadata metadata = read(AbstractComponent.class);
+        assertTrue(metadata.isAbstract());
+        assertTrue(metadata.isAnnotationPresent(Component.class.getName()));
+    }
+
+    public void testInheritedAnnotation() throws Exception {
+        ClassMetadata metadata = read(SubclassComponent.class);
+        assertFalse(metadata.isAbstract());
+        assertTrue(metadata.isAnnotationPresent(Component.class.getName()));
+    }
+
+    public void testNonInheritedAnnotation() throws Exception {
+        ClassMetadata metadata = read(SubclassScoped.class);
+        assertFalse(metadata.isAnnotationPresent(Scope.class.getName()));
+    }
+
+    public void testMetaAnnotation() throws Exception {
+        ClassMetadata metadata = read(MetaAnnotatedComponent.class);
+        assertFalse(metadata.isAnnotationPresent(Component.class.getName()));
+        assertTrue(metadata.isAnnotatedWith(Component.class.getName()));
+    }
+
+    public void testNotAnnotated() throws Exception {
+        ClassMetadata metadata = read(NotAComponent.class);
+        assertFalse(metadata.isAnnotatedWith(Component.class.getName()));
+    }
+
+    public void testAssignable() throws Exception {
+        ClassMetadata metadata = read(SubclassComponent.class);
+        assertTrue(metadata.isAssignableTo(Serializable.class.getName()));
+        assertTrue(metadata.isAssignableTo(AbstractComponent.class.getName()));
+        assertTrue(metadata.isAssignableTo(Object.class.getName()));
+        assertFalse(metadata.isAssignableTo(Runnable.class.getName()));
+    }
+
+    public void testUnresolvableHierarchy() throws Exception {
+        ClassMetadata metadata = read(SubclassComponent.class, new ClassLoader(null) {
+        });
+        // the superclass cannot be read so the queries must be conservative
+        assertTrue(metadata.isAnnotationPresent(Component.class.getName()));
+        assertTrue(metadata.isAssignableTo(Runnable.class.getName()));
+    }
+
+    private ClassMetadata read(Class<?> type) throws Exception {
+        return read(type, getClass().getClassLoader());
+    }
+
+    private ClassMetadata read(Class<?> type, ClassLoader classLoader) throws Exception {
+        try (InputStream stream = getClass().getClassLoader().getResourceAsStream(type.getName().replace('.', '/') + ".class")) {
+            return reader.read(stream, classLoader);
+        }
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Component
+    public @interface MetaComponent {
+
+    }
+
+    @Component
+    public static class AnnotatedComponent {
+
+    }
+
+    @Component
+    @Scope("COMPOSITE")
+    public static abstract class AbstractComponent implements Serializable {
+        private static final long serialVersionUID = 3525384758402818270L;
+    }
+
+    public static class SubclassComponent extends AbstractComponent {
+        private static final long serialVersionUID = -2340512397442617281L;
+    }
+
+    @Scope("COMPOSITE")
+    public static class Scoped {
+
+    }
+
+    public static class SubclassScoped extends Scoped {
+
+    }
+
+    @MetaComponent
+    public static class MetaAnnotatedComponent {
+
+    }
+
+    public static class NotAComponent {
+
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.contribution.index;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.host.runtime.HostInfo;
+import org.fabric3.api.host.stream.Source;
+import org.fabric3.api.host.util.FileHelper;
+import org.fabric3.contribution.ExtensionMapContentTypeResolver;
+import org.fabric3.contribution.ProcessorRegistryImpl;
+import org.fabric3.contribution.archive.ArchiveContributionProcessor;
+import org.fabric3.contribution.archive.ClassMetadataReaderImpl;
+import org.fabric3.contribution.archive.ComponentJavaArtifactIntrospector;
+import org.fabric3.contribution.archive.ZipContributionHandler;
+import org.fabric3.contribution.processor.CompositeResourceProcessor;
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.ContributionManifest;
+import org.fabric3.spi.contribution.archive.ArchiveContributionHandler;
+import org.fabric3.spi.introspection.DefaultIntrospectionContext;
+import org.fabric3.spi.introspection.IntrospectionContext;
+import org.fabric3.spi.introspection.xml.Loader;
+
+/**
+ * Compares the time to process manifests and index a synthetic domain of contribution archives when the index cache is empty (a cold boot) and when it
+ * contains snapshots of all contributions (a warm boot). The benchmark only reports timings and is excluded from the test task; it is run with the
+ * benchmark task.
+ */
+public class ContributionIndexBenchmark extends TestCase {
+    private static final int CONTRIBUTIONS = 200;
+    private static final int CLASSES = 100;
+    private static final int COMPOSITES = 5;
+
+    private File dataDir;
+    private List<URL> archives = new ArrayList<>();
+    private HostInfo info;
+
+    public void testColdAndWarmBoot() throws Exception {
+        long coldTime = boot(true);
+        long warmTime = boot(false);
+        System.out.println("Cold boot of " + CONTRIBUTIONS + " contributions: " + coldTime + " ms");
+        System.out.println("Warm boot of " + CONTRIBUTIONS + " contributions: " + warmTime + " ms");
+    }
+
+    /**
+     * Processes and indexes the contributions.
+     *
+     * @param clear true if the index cache should be cleared before starting
+     * @return the elapsed time
+     */
+    private long boot(boolean clear) throws Exception {
+        File indexDir = new File(dataDir, "contribution-index");
+        if (clear && indexDir.exists()) {
+            FileHelper.forceDelete(indexDir);
+        }
+        ArchiveContributionProcessor processor = createProcessor();
+        long start = System.currentTimeMillis();
+        int resources = 0;
+        for (int i = 0; i < archives.size(); i++) {
+            Contribution contribution = new Contribution(URI.create("contribution" + i), null, archives.get(i), 0, "application/zip");
+            processor.processManifest(contribution, new DefaultIntrospectionContext());
+            try (URLClassLoader loader = new URLClassLoader(new URL[]{archives.get(i)}, getClass().getClassLoader())) {
+                IntrospectionContext context = new DefaultIntrospectionContext(contribution.getUri(), loader);
+                processor.index(contribution, context);
+                assertFalse(context.hasErrors());
+            }
+            resources += contribution.getResources().size();
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        assertEquals(CONTRIBUTIONS * (COMPOSITES + 1), resources);
+        return elapsed;
+    }
+
+    private ArchiveContributionProcessor createProcessor() {
+        Loader loader = EasyMock.createMock(Loader.class);
+        EasyMock.expect(loader.load(EasyMock.isA(Source.class), EasyMock.eq(ContributionManifest.class), EasyMock.isA(IntrospectionContext.class)))
+                .andStubAnswer(ContributionManifest::new);
+        ContributionIndexMonitor monitor = EasyMock.createNiceMock(ContributionIndexMonitor.class);
+        EasyMock.replay(loader, monitor);
+
+        ExtensionMapContentTypeResolver contentTypeResolver = new ExtensionMapContentTypeResolver();
+        contentTypeResolver.init();
+
+        ProcessorRegistryImpl registry = new ProcessorRegistryImpl();
+        new CompositeResourceProcessor(registry, loader);
+
+        ZipContributionHandler handler = new ZipContributionHandler(loader, contentTypeResolver);
+        handler.setArtifactIntrospectors(Collections.singletonList(new ComponentJavaArtifactIntrospector()));
+        handler.setMetadataReader(new ClassMetadataReaderImpl());
+
+        ContributionIndexCacheImpl cache = new ContributionIndexCacheImpl(info, monitor);
+        cache.init();
+
+        ArchiveContributionProcessor processor = new ArchiveContributionProcessor();
+        processor.setContributionProcessorRegistry(registry);
+        processor.setHandlers(Collections.<ArchiveContributionHandler>singletonList(handler));
+        processor.setIndexCache(cache);
+        return processor;
+    }
+
+    private void createArchive(File file, int number) throws IOException {
+        byte[] componentClass = read(SyntheticComponent.class);
+        byte[] fillerClass = read(SyntheticFiller.class);
+        try (ZipOutputStream stream = new ZipOutputStream(new FileOutputStream(file))) {
+            stream.putNextEntry(new ZipEntry(SyntheticComponent.class.getName().replace('.', '/') + ".class"));
+            stream.write(componentClass);
+            for (int i = 0; i < CLASSES; i++) {
+                stream.putNextEntry(new ZipEntry("org/fabric3/synthetic/Filler" + i + ".class"));
+                stream.write(fillerClass);
+            }
+            for (int i = 0; i < COMPOSITES; i++) {
+                stream.putNextEntry(new ZipEntry("composite" + i + ".composite"));
+                String composite = "<composite xmlns=\"http://docs.oasis-open.org/ns/opencsa/sca/200912\" targetNamespace=\"urn:contribution" + number
+                                   + "\" name=\"Composite" + i + "\"/>";
+                stream.write(composite.getBytes());
+            }
+            stream.closeEntry();
+        }
+    }
+
+    private byte[] read(Class<?> type) throws IOException {
+        try (InputStream stream = type.getClassLoader().getResourceAsStream(type.getName().replace('.', '/') + ".class")) {
+            byte[] buffer = new byte[4096];
+            int length = 0;
+            int read;
+            while ((read = stream.read(buffer, length, buffer.length - length)) > 0) {
+                length += read;
+            }
+            byte[] bytes = new byte[length];
+            System.arraycopy(buffer, 0, bytes, 0, length);
+            return bytes;
+        }
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        dataDir = Files.createTempDirectory("f3-index").toFile();
+        for (int i = 0; i < CONTRIBUTIONS; i++) {
+            File file = new File(dataDir, "contribution" + i + ".jar");
+            createArchive(file, i);
+            archives.add(file.toURI().toURL());
+        }
+        info = EasyMock.createMock(HostInfo.class);
+        EasyMock.expect(info.getDataDir()).andReturn(dataDir).anyTimes();
+        EasyMock.replay(info);
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        FileHelper.forceDelete(dataDir);
+    }
+
+    @org.fabric3.api.annotation.model.Component
+    public static class SyntheticComponent {
+
+    }
+
+    public static class SyntheticFiller {
+
+    }
+}
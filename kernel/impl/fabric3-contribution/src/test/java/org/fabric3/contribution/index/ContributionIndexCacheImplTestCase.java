@@ -0,0 +1,246 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.contribution.index;
+
+import javax.xml.namespace.QName;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.host.runtime.HostInfo;
+import org.fabric3.api.host.stream.UrlSource;
+import org.fabric3.api.host.util.FileHelper;
+import org.fabric3.spi.contribution.Constants;
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.JavaArtifactIntrospector;
+import org.fabric3.spi.contribution.JavaSymbol;
+import org.fabric3.spi.contribution.MetaDataStore;
+import org.fabric3.spi.contribution.Resource;
+import org.fabric3.spi.contribution.ResourceElement;
+import org.fabric3.spi.contribution.manifest.QNameSymbol;
+
+/**
+ *
+ */
+public class ContributionIndexCacheImplTestCase extends TestCase {
+    private static final QName COMPOSITE = new QName("urn:test", "composite");
+    private static final URI URI = java.net.URI.create("test.jar");
+
+    private File dataDir;
+    private File archive;
+    private HostInfo info;
+
+    public void testRestore() throws Exception {
+        Contribution contribution = createContribution();
+        ContributionIndexCacheImpl cache = createCache();
+        assertFalse(cache.restoreManifest(contribution));
+        contribution.getManifest().setDescription("description");
+        cache.recordManifest(contribution);
+        record(cache, contribution);
+
+        Contribution restored = createContribution();
+        cache = createCache();
+        assertTrue(cache.restoreManifest(restored));
+        assertEquals("description", restored.getManifest().getDescription());
+
+        List<Resource> resources = new ArrayList<>();
+        assertTrue(cache.restoreResources(restored, resources::add, getClass().getClassLoader()));
+        assertEquals(2, resources.size());
+        assertEquals(resources, restored.getResources());
+
+        ResourceElement<?, ?> compositeElement = resources.get(0).getResourceElements().get(0);
+        assertEquals(new QNameSymbol(COMPOSITE), compositeElement.getSymbol());
+        assertNull(compositeElement.getValue());
+
+        ResourceElement<?, ?> javaElement = resources.get(1).getResourceElements().get(0);
+        assertEquals(new JavaSymbol(getClass().getName()), javaElement.getSymbol());
+        assertEquals(getClass(), javaElement.getValue());
+        assertEquals(COMPOSITE, javaElement.getMetadata(QName.class));
+        assertSame(restored, resources.get(1).getContribution());
+    }
+
+    public void testChangedContribution() throws Exception {
+        Contribution contribution = createContribution();
+        ContributionIndexCacheImpl cache = createCache();
+        cache.recordManifest(contribution);
+        record(cache, contribution);
+
+        createArchive("changed");
+
+        Contribution changed = createContribution();
+        cache = createCache();
+        assertFalse(cache.restoreManifest(changed));
+        cache.recordManifest(changed);
+        assertFalse(cache.restoreResources(changed, r -> fail(), getClass().getClassLoader()));
+        assertTrue(changed.getResources().isEmpty());
+    }
+
+    public void testResourceNotRecordable() throws Exception {
+        Contribution contribution = createContribution();
+        ContributionIndexCacheImpl cache = createCache();
+        cache.recordManifest(contribution);
+        ResourceRecorder recorder = cache.createRecorder(contribution, r -> {
+        });
+        Resource resource = new Resource(contribution, new UrlSource(archive.toURI().toURL()), "text/test");
+        resource.addResourceElement(new ResourceElement<>(new QNameSymbol(COMPOSITE), new Object()));
+        contribution.addResource(resource);
+        recorder.accept(resource);
+        recorder.complete();
+
+        Contribution restored = createContribution();
+        assertFalse(createCache().restoreManifest(restored));
+    }
+
+    public void testResourceAddedDuringScan() throws Exception {
+        Contribution contribution = createContribution();
+        ContributionIndexCacheImpl cache = createCache();
+        cache.recordManifest(contribution);
+        ResourceRecorder recorder = cache.createRecorder(contribution, r -> {
+        });
+        contribution.addResource(new Resource(contribution, null, "text/test"));
+        Resource resource = new Resource(contribution, new UrlSource(archive.toURI().toURL()), "text/test");
+        contribution.addResource(resource);
+        recorder.accept(resource);
+        recorder.complete();
+
+        Contribution restored = createContribution();
+        assertFalse(createCache().restoreManifest(restored));
+    }
+
+    public void testIntrospectorAdded() throws Exception {
+        Contribution contribution = createContribution();
+        ContributionIndexCacheImpl cache = createCache();
+        cache.recordManifest(contribution);
+        record(cache, contribution);
+
+        cache = createCache();
+        JavaArtifactIntrospector introspector = (name, url, contrib, context) -> null;
+        cache.setIntrospectors(Collections.singletonList(introspector));
+        assertFalse(cache.restoreManifest(createContribution()));
+    }
+
+    public void testExtensionInstalled() throws Exception {
+        Contribution contribution = createContribution();
+        ContributionIndexCacheImpl cache = createCache();
+        cache.recordManifest(contribution);
+        record(cache, contribution);
+
+        Contribution extension = new Contribution(java.net.URI.create("extension.jar"), null, archive.toURI().toURL(), 0, "application/zip");
+        extension.getManifest().setExtension(true);
+        extension.install();
+        MetaDataStore store = EasyMock.createMock(MetaDataStore.class);
+        EasyMock.expect(store.getContributions()).andReturn(Collections.singleton(extension)).anyTimes();
+        EasyMock.replay(store);
+
+        cache = createCache();
+        cache.setMetaDataStore(store);
+        assertFalse(cache.restoreManifest(createContribution()));
+    }
+
+    public void testUninstall() throws Exception {
+        Contribution contribution = createContribution();
+        ContributionIndexCacheImpl cache = createCache();
+        cache.recordManifest(contribution);
+        record(cache, contribution);
+
+        cache.onUninstall(contribution);
+
+        assertFalse(createCache().restoreManifest(createContribution()));
+        File[] snapshots = new File(dataDir, "contribution-index").listFiles();
+        assertTrue(snapshots == null || snapshots.length == 0);
+    }
+
+    public void testDisabled() throws Exception {
+        Contribution contribution = createContribution();
+        ContributionIndexCacheImpl cache = new ContributionIndexCacheImpl(info, EasyMock.createNiceMock(ContributionIndexMonitor.class));
+        cache.setEnabled(false);
+        cache.init();
+        cache.recordManifest(contribution);
+        record(cache, contribution);
+
+        assertFalse(createCache().restoreManifest(createContribution()));
+    }
+
+    private void record(ContributionIndexCacheImpl cache, Contribution contribution) throws Exception {
+        List<Resource> indexed = new ArrayList<>();
+        ResourceRecorder recorder = cache.createRecorder(contribution, resource -> {
+            indexed.add(resource);
+            // simulate indexing adding state that cannot be recorded
+            resource.addResourceElement(new ResourceElement<>(new JavaSymbol("indexed"), new Object()));
+        });
+        URL location = new URL("jar:" + archive.toURI().toURL() + "!/test.composite");
+        Resource composite = new Resource(contribution, new UrlSource(location), Constants.COMPOSITE_CONTENT_TYPE);
+        composite.addResourceElement(new ResourceElement<>(new QNameSymbol(COMPOSITE)));
+        contribution.addResource(composite);
+        recorder.accept(composite);
+
+        Resource java = new Resource(contribution, new UrlSource(location), Constants.JAVA_COMPONENT_CONTENT_TYPE);
+        ResourceElement<JavaSymbol, Class<?>> element = new ResourceElement<>(new JavaSymbol(getClass().getName()), getClass());
+        element.setMetadata(COMPOSITE);
+        java.addResourceElement(element);
+        contribution.addResource(java);
+        recorder.accept(java);
+
+        recorder.complete();
+        assertEquals(2, indexed.size());
+    }
+
+    private ContributionIndexCacheImpl createCache() {
+        ContributionIndexMonitor monitor = EasyMock.createNiceMock(ContributionIndexMonitor.class);
+        EasyMock.replay(monitor);
+        ContributionIndexCacheImpl cache = new ContributionIndexCacheImpl(info, monitor);
+        cache.init();
+        return cache;
+    }
+
+    private Contribution createContribution() throws IOException {
+        return new Contribution(URI, null, archive.toURI().toURL(), 0, "application/zip");
+    }
+
+    private void createArchive(String content) throws IOException {
+        try (ZipOutputStream stream = new ZipOutputStream(new FileOutputStream(archive))) {
+            stream.putNextEntry(new ZipEntry("test.composite"));
+            stream.write(content.getBytes());
+            stream.closeEntry();
+        }
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        dataDir = Files.createTempDirectory("f3-index").toFile();
+        archive = new File(dataDir, "test.jar");
+        createArchive("content");
+        info = EasyMock.createMock(HostInfo.class);
+        EasyMock.expect(info.getDataDir()).andReturn(dataDir).anyTimes();
+        EasyMock.replay(info);
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        FileHelper.forceDelete(dataDir);
+    }
+}
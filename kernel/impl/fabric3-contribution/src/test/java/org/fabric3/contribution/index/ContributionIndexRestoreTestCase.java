@@ -0,0 +1,177 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.contribution.index;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.host.runtime.HostInfo;
+import org.fabric3.api.host.stream.Source;
+import org.fabric3.api.host.util.FileHelper;
+import org.fabric3.contribution.ExtensionMapContentTypeResolver;
+import org.fabric3.contribution.ProcessorRegistryImpl;
+import org.fabric3.contribution.archive.ArchiveContributionProcessor;
+import org.fabric3.contribution.archive.ClassMetadataReaderImpl;
+import org.fabric3.contribution.archive.ComponentJavaArtifactIntrospector;
+import org.fabric3.contribution.archive.ZipContributionHandler;
+import org.fabric3.contribution.processor.CompositeResourceProcessor;
+import org.fabric3.spi.contribution.Contribution;
+import org.fabric3.spi.contribution.ContributionManifest;
+import org.fabric3.spi.contribution.JavaArtifactIntrospector;
+import org.fabric3.spi.contribution.Resource;
+import org.fabric3.spi.contribution.archive.ArchiveContributionHandler;
+import org.fabric3.spi.introspection.DefaultIntrospectionContext;
+import org.fabric3.spi.introspection.IntrospectionContext;
+import org.fabric3.spi.introspection.xml.Loader;
+
+/**
+ * Verifies a contribution installed with a populated index cache is restored from its snapshot without scanning the archive.
+ */
+public class ContributionIndexRestoreTestCase extends TestCase {
+    private File dataDir;
+    private URL archive;
+    private HostInfo info;
+
+    private AtomicInteger manifestsLoaded = new AtomicInteger();
+    private AtomicInteger classesIntrospected = new AtomicInteger();
+
+    public void testWarmInstallRestoresSnapshot() throws Exception {
+        Contribution cold = install();
+        assertEquals(1, manifestsLoaded.get());
+        assertTrue(classesIntrospected.get() > 0);
+        assertEquals(2, cold.getResources().size());
+
+        manifestsLoaded.set(0);
+        classesIntrospected.set(0);
+
+        Contribution warm = install();
+        assertEquals(0, manifestsLoaded.get());
+        assertEquals(0, classesIntrospected.get());
+        assertEquals(cold.getResources().size(), warm.getResources().size());
+        for (int i = 0; i < cold.getResources().size(); i++) {
+            Resource expected = cold.getResources().get(i);
+            Resource restored = warm.getResources().get(i);
+            assertEquals(expected.getContentType(), restored.getContentType());
+            assertEquals(expected.getResourceElements().get(0).getSymbol(), restored.getResourceElements().get(0).getSymbol());
+            assertSame(warm, restored.getContribution());
+        }
+    }
+
+    private Contribution install() throws Exception {
+        ArchiveContributionProcessor processor = createProcessor();
+        Contribution contribution = new Contribution(URI.create("contribution"), null, archive, 0, "application/zip");
+        processor.processManifest(contribution, new DefaultIntrospectionContext());
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{archive}, getClass().getClassLoader())) {
+            IntrospectionContext context = new DefaultIntrospectionContext(contribution.getUri(), loader);
+            processor.index(contribution, context);
+            assertFalse(context.hasErrors());
+        }
+        return contribution;
+    }
+
+    private ArchiveContributionProcessor createProcessor() {
+        Loader loader = EasyMock.createMock(Loader.class);
+        EasyMock.expect(loader.load(EasyMock.isA(Source.class), EasyMock.eq(ContributionManifest.class), EasyMock.isA(IntrospectionContext.class)))
+                .andStubAnswer(() -> {
+                    manifestsLoaded.incrementAndGet();
+                    return new ContributionManifest();
+                });
+        ContributionIndexMonitor monitor = EasyMock.createNiceMock(ContributionIndexMonitor.class);
+        EasyMock.replay(loader, monitor);
+
+        ExtensionMapContentTypeResolver contentTypeResolver = new ExtensionMapContentTypeResolver();
+        contentTypeResolver.init();
+
+        ProcessorRegistryImpl registry = new ProcessorRegistryImpl();
+        new CompositeResourceProcessor(registry, loader);
+
+        ComponentJavaArtifactIntrospector delegate = new ComponentJavaArtifactIntrospector();
+        JavaArtifactIntrospector introspector = (clazz, url, contribution, context) -> {
+            classesIntrospected.incrementAndGet();
+            return delegate.inspect(clazz, url, contribution, context);
+        };
+        List<JavaArtifactIntrospector> introspectors = Collections.singletonList(introspector);
+
+        ZipContributionHandler handler = new ZipContributionHandler(loader, contentTypeResolver);
+        handler.setArtifactIntrospectors(introspectors);
+        handler.setMetadataReader(new ClassMetadataReaderImpl());
+
+        ContributionIndexCacheImpl cache = new ContributionIndexCacheImpl(info, monitor);
+        cache.setIntrospectors(introspectors);
+        cache.setContentTypeResolver(contentTypeResolver);
+        cache.init();
+
+        ArchiveContributionProcessor processor = new ArchiveContributionProcessor();
+        processor.setContributionProcessorRegistry(registry);
+        processor.setHandlers(Collections.<ArchiveContributionHandler>singletonList(handler));
+        processor.setIndexCache(cache);
+        return processor;
+    }
+
+    private void createArchive(File file) throws IOException {
+        try (ZipOutputStream stream = new ZipOutputStream(new FileOutputStream(file));
+             InputStream classStream = getClass().getClassLoader().getResourceAsStream(getClassName(TestComponent.class))) {
+            stream.putNextEntry(new ZipEntry(getClassName(TestComponent.class)));
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = classStream.read(buffer)) > 0) {
+                stream.write(buffer, 0, read);
+            }
+            stream.putNextEntry(new ZipEntry("test.composite"));
+            stream.write("<composite xmlns=\"http://docs.oasis-open.org/ns/opencsa/sca/200912\" targetNamespace=\"urn:test\" name=\"Test\"/>".getBytes());
+            stream.closeEntry();
+        }
+    }
+
+    private String getClassName(Class<?> type) {
+        return type.getName().replace('.', '/') + ".class";
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        dataDir = Files.createTempDirectory("f3-index").toFile();
+        File file = new File(dataDir, "contribution.jar");
+        createArchive(file);
+        archive = file.toURI().toURL();
+        info = EasyMock.createMock(HostInfo.class);
+        EasyMock.expect(info.getDataDir()).andReturn(dataDir).anyTimes();
+        EasyMock.replay(info);
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        FileHelper.forceDelete(dataDir);
+    }
+
+    @org.fabric3.api.annotation.model.Component
+    public static class TestComponent {
+
+    }
+}
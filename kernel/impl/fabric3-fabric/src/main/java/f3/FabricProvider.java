@@ -48,6 +48,7 @@ import org.fabric3.fabric.container.command.StartContextCommandExecutor;
 import org.fabric3.fabric.container.command.StopComponentCommandExecutor;
 import org.fabric3.fabric.container.command.StopContextCommandExecutor;
 import org.fabric3.fabric.container.component.DomainScopeContainer;
+import org.fabric3.fabric.container.component.PooledScopeContainer;
 import org.fabric3.fabric.container.component.StatelessScopeContainer;
 import org.fabric3.fabric.container.wire.TransformerInterceptorFactoryImpl;
 import org.fabric3.fabric.contract.DefaultContractMatcher;
@@ -306,6 +307,7 @@ public class FabricProvider {
     private static void addScopeSubsystem(CompositeBuilder compositeBuilder) {
         compositeBuilder.component(newBuilder(DomainScopeContainer.class).build());
         compositeBuilder.component(newBuilder(StatelessScopeContainer.class).build());
+        compositeBuilder.component(newBuilder(PooledScopeContainer.class).reference("executorService", "RuntimeThreadPoolExecutor").build());
     }
 
     private static void addDomainSubsystem(CompositeBuilder compositeBuilder) {
@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
@@ -54,11 +55,14 @@ import org.oasisopen.sca.annotation.Reference;
  * Channels are cached based on their source id/target id pair. Bindings will generally only engage one connection from the transport to the channel.
  * Connections from channels to components will generally always be engaged (i.e. their target ids will be unique) since a component will need to be injected
  * with the connection proxy.
+ *
+ * Connections may be created and removed concurrently when deployment commands are executed in parallel. Connections with the same source id/target id pair
+ * are engaged and disengaged atomically.
  */
 public class ChannelConnectorImpl implements ChannelConnector {
-    private Map<Class<?>, DirectConnectionFactory> connectionFactories = new HashMap<>();
+    private volatile Map<Class<?>, DirectConnectionFactory> connectionFactories = new HashMap<>();
 
-    private Map<Key, Holder> cachedConnections = new HashMap<>();  // connection cache
+    private Map<Key, Holder> cachedConnections = new ConcurrentHashMap<>();  // connection cache
 
     @Reference
     protected ChannelManager channelManager;
@@ -74,8 +78,9 @@ public class ChannelConnectorImpl implements ChannelConnector {
 
     @Reference(required = false)
     public void setConnectionFactories(List<DirectConnectionFactory> factories) {
-        this.connectionFactories.clear();
-        factories.forEach(factory -> factory.getTypes().forEach(type -> connectionFactories.put(type, factory)));
+        Map<Class<?>, DirectConnectionFactory> map = new HashMap<>();
+        factories.forEach(factory -> factory.getTypes().forEach(type -> map.put(type, factory)));
+        this.connectionFactories = map;
     }
 
     @SuppressWarnings({"unchecked"})
@@ -83,27 +88,28 @@ public class ChannelConnectorImpl implements ChannelConnector {
         PhysicalConnectionSource source = physicalConnection.getSource();
         PhysicalConnectionTarget target = physicalConnection.getTarget();
         Key key = new Key(source.getSourceId(), target.getTargetId());
-        Holder holder = cachedConnections.get(key);
-        if (holder != null) {
-            // connection is cached; don't engage a second one
-            holder.count.incrementAndGet();
-            return holder.connection;
-        }
-        SourceConnectionAttacher sourceAttacher = sourceAttachers.get(source.getClass());
-        if (sourceAttacher == null) {
-            throw new Fabric3Exception("Attacher not found for type: " + source.getClass().getName());
-        }
-        TargetConnectionAttacher targetAttacher = targetAttachers.get(target.getClass());
-        if (targetAttacher == null) {
-            throw new Fabric3Exception("Attacher not found for type: " + target.getClass().getName());
-        }
+        Holder holder = cachedConnections.compute(key, (k, cached) -> {
+            if (cached != null) {
+                // connection is cached; don't engage a second one
+                cached.count.incrementAndGet();
+                return cached;
+            }
+            SourceConnectionAttacher sourceAttacher = sourceAttachers.get(source.getClass());
+            if (sourceAttacher == null) {
+                throw new Fabric3Exception("Attacher not found for type: " + source.getClass().getName());
+            }
+            TargetConnectionAttacher targetAttacher = targetAttachers.get(target.getClass());
+            if (targetAttacher == null) {
+                throw new Fabric3Exception("Attacher not found for type: " + target.getClass().getName());
+            }
 
-        ChannelConnection connection = createConnection(physicalConnection);
+            ChannelConnection connection = createConnection(physicalConnection);
 
-        sourceAttacher.attach(source, target, connection);
-        targetAttacher.attach(source, target, connection);
-        cachedConnections.put(key, new Holder(connection));
-        return connection;
+            sourceAttacher.attach(source, target, connection);
+            targetAttacher.attach(source, target, connection);
+            return new Holder(connection);
+        });
+        return holder.connection;
     }
 
     @SuppressWarnings({"unchecked"})
@@ -111,25 +117,22 @@ public class ChannelConnectorImpl implements ChannelConnector {
         PhysicalConnectionSource source = physicalConnection.getSource();
         PhysicalConnectionTarget target = physicalConnection.getTarget();
         Key key = new Key(source.getSourceId(), target.getTargetId());
-        Holder holder = cachedConnections.get(key);
-        if (holder == null) {
-            return;
-        }
-        if (holder.count.decrementAndGet() == 0) {
-            cachedConnections.remove(key);
-        } else {
-            return;
-        }
-        SourceConnectionAttacher sourceAttacher = sourceAttachers.get(source.getClass());
-        if (sourceAttacher == null) {
-            throw new Fabric3Exception("Attacher not found for type: " + source.getClass().getName());
-        }
-        TargetConnectionAttacher targetAttacher = targetAttachers.get(target.getClass());
-        if (targetAttacher == null) {
-            throw new Fabric3Exception("Attacher not found for type: " + target.getClass().getName());
-        }
-        sourceAttacher.detach(source, target);
-        targetAttacher.detach(source, target);
+        cachedConnections.computeIfPresent(key, (k, holder) -> {
+            if (holder.count.decrementAndGet() > 0) {
+                return holder;
+            }
+            SourceConnectionAttacher sourceAttacher = sourceAttachers.get(source.getClass());
+            if (sourceAttacher == null) {
+                throw new Fabric3Exception("Attacher not found for type: " + source.getClass().getName());
+            }
+            TargetConnectionAttacher targetAttacher = targetAttachers.get(target.getClass());
+            if (targetAttacher == null) {
+                throw new Fabric3Exception("Attacher not found for type: " + target.getClass().getName());
+            }
+            sourceAttacher.detach(source, target);
+            targetAttacher.detach(source, target);
+            return null;
+        });
     }
 
     /**
@@ -32,7 +32,7 @@ public class ChannelManagerImpl implements ChannelManager {
     private Map<URI, Holder> collocatedChannels = new ConcurrentHashMap<>();
     private Map<URI, Holder> producerChannels = new ConcurrentHashMap<>();
     private Map<URI, Holder> consumerChannels = new ConcurrentHashMap<>();
-    private boolean started;
+    private volatile boolean started;
 
     public Channel getChannel(URI uri, ChannelSide channelSide) {
         checkUri(uri);
@@ -130,7 +130,7 @@ public class ChannelManagerImpl implements ChannelManager {
 
     private void checkAndPut(Channel channel, Map<URI, Holder> map) throws Fabric3Exception {
         URI uri = channel.getUri();
-        if (map.put(uri, new Holder(channel)) != null) {
+        if (map.putIfAbsent(uri, new Holder(channel)) != null) {
             throw new Fabric3Exception("Channel already exists: " + uri);
         }
     }
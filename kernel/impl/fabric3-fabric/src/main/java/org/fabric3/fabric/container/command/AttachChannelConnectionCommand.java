@@ -21,7 +21,7 @@ import org.fabric3.spi.model.physical.PhysicalChannelConnection;
 /**
  * Used to establish an event channel connection.
  */
-public class AttachChannelConnectionCommand implements Command {
+public class AttachChannelConnectionCommand implements CompensatableCommand {
     private PhysicalChannelConnection connection;
 
     public AttachChannelConnectionCommand(PhysicalChannelConnection connection) {
@@ -31,4 +31,8 @@ public class AttachChannelConnectionCommand implements Command {
     public PhysicalChannelConnection getConnection() {
         return connection;
     }
-}
\ No newline at end of file
+
+    public DetachChannelConnectionCommand getCompensatingCommand() {
+        return new DetachChannelConnectionCommand(connection);
+    }
+}
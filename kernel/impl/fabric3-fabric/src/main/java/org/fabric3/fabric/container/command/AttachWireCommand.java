@@ -23,6 +23,12 @@ package org.fabric3.fabric.container.command;
  * A command to attach a set of wires from a source component to a set of targets on a runtime. Valid targets can be a service offered by another
  * component, a binding transport, or a resource.
  */
-public class AttachWireCommand extends WireCommand {
+public class AttachWireCommand extends WireCommand implements CompensatableCommand {
+
+    public DetachWireCommand getCompensatingCommand() {
+        DetachWireCommand command = new DetachWireCommand();
+        command.setPhysicalWireDefinition(physicalWire);
+        return command;
+    }
 
 }
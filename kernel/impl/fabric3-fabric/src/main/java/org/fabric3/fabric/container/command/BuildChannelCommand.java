@@ -24,7 +24,7 @@ import org.fabric3.spi.model.physical.PhysicalChannel;
 /**
  * Instantiates a channel on a runtime.
  */
-public class BuildChannelCommand implements Command {
+public class BuildChannelCommand implements CompensatableCommand {
     private PhysicalChannel channel;
 
     public BuildChannelCommand(PhysicalChannel channel) {
@@ -52,4 +52,8 @@ public class BuildChannelCommand implements Command {
         return (channel != null ? channel.hashCode() : 0);
     }
 
-}
\ No newline at end of file
+    public DisposeChannelCommand getCompensatingCommand() {
+        return new DisposeChannelCommand(channel);
+    }
+
+}
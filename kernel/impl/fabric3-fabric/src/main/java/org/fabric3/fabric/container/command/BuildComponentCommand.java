@@ -24,7 +24,7 @@ import org.fabric3.spi.model.physical.PhysicalComponent;
 /**
  * Instantiates a component on a runtime.
  */
-public class BuildComponentCommand extends AbstractComponentCommand {
+public class BuildComponentCommand extends AbstractComponentCommand implements CompensatableCommand {
 
     public BuildComponentCommand(PhysicalComponent physicalComponent) {
         super(physicalComponent);
@@ -47,4 +47,8 @@ public class BuildComponentCommand extends AbstractComponentCommand {
         return (component != null ? component.hashCode() : 0);
     }
 
+    public DisposeComponentCommand getCompensatingCommand() {
+        return new DisposeComponentCommand(component);
+    }
+
 }
@@ -26,7 +26,7 @@ import org.fabric3.spi.model.physical.PhysicalResource;
 /**
  * Builds resources defined in a composite on a runtime.
  */
-public class BuildResourcesCommand implements Command {
+public class BuildResourcesCommand implements CompensatableCommand {
     private List<PhysicalResource> physicalResources;
 
     public BuildResourcesCommand(List<PhysicalResource> definitions) {
@@ -54,4 +54,8 @@ public class BuildResourcesCommand implements Command {
         return (physicalResources != null ? physicalResources.hashCode() : 0);
     }
 
-}
\ No newline at end of file
+    public DisposeResourcesCommand getCompensatingCommand() {
+        return new DisposeResourcesCommand(physicalResources);
+    }
+
+}
@@ -23,7 +23,7 @@ import java.util.List;
  * Used to establish or dispose a channel connection. This may include provisioning the channel (or disposing it) to a runtime where the producer or consumer is
  * hosted.
  */
-public class ChannelConnectionCommand implements Command {
+public class ChannelConnectionCommand implements CompensatableCommand {
     private List<BuildChannelCommand> buildCommands;
     private List<DisposeChannelCommand> disposeCommands;
 
@@ -68,4 +68,13 @@ public class ChannelConnectionCommand implements Command {
     public void add(DetachChannelConnectionCommand command) {
         detachCommands.add(command);
     }
+
+    public ChannelConnectionCommand getCompensatingCommand() {
+        ChannelConnectionCommand compensating = new ChannelConnectionCommand();
+        attachCommands.forEach(command -> compensating.add(command.getCompensatingCommand()));
+        detachCommands.forEach(command -> compensating.add(command.getCompensatingCommand()));
+        buildCommands.forEach(command -> compensating.addDisposeChannelCommand(command.getCompensatingCommand()));
+        disposeCommands.forEach(command -> compensating.addBuildChannelCommand(command.getCompensatingCommand()));
+        return compensating;
+    }
 }
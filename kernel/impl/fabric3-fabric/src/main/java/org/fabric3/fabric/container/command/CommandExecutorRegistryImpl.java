@@ -19,8 +19,8 @@
  */
 package org.fabric3.fabric.container.command;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.oasisopen.sca.annotation.EagerInit;
 
@@ -29,7 +29,7 @@ import org.oasisopen.sca.annotation.EagerInit;
  */
 @EagerInit
 public class CommandExecutorRegistryImpl implements CommandExecutorRegistry {
-    private Map<Class<? extends Command>, CommandExecutor<?>> executors = new HashMap<>();
+    private Map<Class<? extends Command>, CommandExecutor<?>> executors = new ConcurrentHashMap<>();
 
     public <T extends Command> void register(Class<T> type, CommandExecutor<T> executor) {
         executors.put(type, executor);
@@ -0,0 +1,31 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.fabric.container.command;
+
+/**
+ * A command that can be reversed if a deployment fails after it has been executed.
+ */
+public interface CompensatableCommand extends Command {
+
+    /**
+     * Returns a command that reverses the effects of this command.
+     *
+     * @return the compensating command
+     */
+    Command getCompensatingCommand();
+
+}
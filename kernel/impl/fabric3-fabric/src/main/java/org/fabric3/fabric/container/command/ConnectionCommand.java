@@ -25,7 +25,7 @@ import java.util.List;
 /**
  * Contains commands for attaching and detaching wires for a component.
  */
-public class ConnectionCommand implements Command {
+public class ConnectionCommand implements CompensatableCommand {
     private URI componentUri;
     private List<AttachWireCommand> attachCommands;
     private List<DetachWireCommand> detachCommands;
@@ -60,4 +60,11 @@ public class ConnectionCommand implements Command {
         detachCommands.add(command);
     }
 
+    public ConnectionCommand getCompensatingCommand() {
+        ConnectionCommand compensating = new ConnectionCommand(componentUri);
+        attachCommands.forEach(command -> compensating.add(command.getCompensatingCommand()));
+        detachCommands.forEach(command -> compensating.add(command.getCompensatingCommand()));
+        return compensating;
+    }
+
 }
@@ -21,7 +21,7 @@ import org.fabric3.spi.model.physical.PhysicalChannelConnection;
 /**
  * Used to remove an event channel connection.
  */
-public class DetachChannelConnectionCommand implements Command {
+public class DetachChannelConnectionCommand implements CompensatableCommand {
 
     private PhysicalChannelConnection connection;
 
@@ -33,5 +33,8 @@ public class DetachChannelConnectionCommand implements Command {
         return connection;
     }
 
+    public AttachChannelConnectionCommand getCompensatingCommand() {
+        return new AttachChannelConnectionCommand(connection);
+    }
 
-}
\ No newline at end of file
+}
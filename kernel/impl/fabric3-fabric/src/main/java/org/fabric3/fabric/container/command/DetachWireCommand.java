@@ -18,7 +18,11 @@
  */
 package org.fabric3.fabric.container.command;
 
-public class DetachWireCommand extends WireCommand {
+public class DetachWireCommand extends WireCommand implements CompensatableCommand {
 
+    public AttachWireCommand getCompensatingCommand() {
+        AttachWireCommand command = new AttachWireCommand();
+        command.setPhysicalWireDefinition(physicalWire);
+        return command;
+    }
 }
-
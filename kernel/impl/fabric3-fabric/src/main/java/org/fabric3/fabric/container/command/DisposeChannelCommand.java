@@ -24,7 +24,7 @@ import org.fabric3.spi.model.physical.PhysicalChannel;
 /**
  * Removes a channel on a runtime.
  */
-public class DisposeChannelCommand implements Command {
+public class DisposeChannelCommand implements CompensatableCommand {
     private PhysicalChannel channel;
 
     public DisposeChannelCommand(PhysicalChannel channel) {
@@ -52,4 +52,8 @@ public class DisposeChannelCommand implements Command {
         return (channel != null ? channel.hashCode() : 0);
     }
 
-}
\ No newline at end of file
+    public BuildChannelCommand getCompensatingCommand() {
+        return new BuildChannelCommand(channel);
+    }
+
+}
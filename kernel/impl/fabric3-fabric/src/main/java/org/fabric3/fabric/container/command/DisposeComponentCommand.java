@@ -24,7 +24,7 @@ import org.fabric3.spi.model.physical.PhysicalComponent;
 /**
  * Removes a registered component.
  */
-public class DisposeComponentCommand extends AbstractComponentCommand {
+public class DisposeComponentCommand extends AbstractComponentCommand implements CompensatableCommand {
 
     public DisposeComponentCommand(PhysicalComponent physicalComponent) {
         super(physicalComponent);
@@ -47,4 +47,8 @@ public class DisposeComponentCommand extends AbstractComponentCommand {
         return (component != null ? component.hashCode() : 0);
     }
 
-}
\ No newline at end of file
+    public BuildComponentCommand getCompensatingCommand() {
+        return new BuildComponentCommand(component);
+    }
+
+}
@@ -26,7 +26,7 @@ import org.fabric3.spi.model.physical.PhysicalResource;
 /**
  * Removes resources on a runtime.
  */
-public class DisposeResourcesCommand implements Command {
+public class DisposeResourcesCommand implements CompensatableCommand {
     private List<PhysicalResource> physicalResources;
 
     public DisposeResourcesCommand(List<PhysicalResource> physicalResources) {
@@ -54,4 +54,8 @@ public class DisposeResourcesCommand implements Command {
         return (physicalResources != null ? physicalResources.hashCode() : 0);
     }
 
-}
\ No newline at end of file
+    public BuildResourcesCommand getCompensatingCommand() {
+        return new BuildResourcesCommand(physicalResources);
+    }
+
+}
@@ -24,7 +24,7 @@ import java.net.URI;
 /**
  * A command to start a component on a runtime.
  */
-public class StartComponentCommand implements Command {
+public class StartComponentCommand implements CompensatableCommand {
     private final URI uri;
 
     public StartComponentCommand(URI uri) {
@@ -51,4 +51,8 @@ public class StartComponentCommand implements Command {
         return (uri != null ? uri.hashCode() : 0);
     }
 
+    public StopComponentCommand getCompensatingCommand() {
+        return new StopComponentCommand(uri);
+    }
+
 }
@@ -24,7 +24,7 @@ import java.net.URI;
 /**
  * Starts a context on a runtime.
  */
-public class StartContextCommand implements Command {
+public class StartContextCommand implements CompensatableCommand {
     private URI uri;
     private boolean log;
 
@@ -56,4 +56,8 @@ public class StartContextCommand implements Command {
     public int hashCode() {
         return (uri != null ? uri.hashCode() : 0);
     }
+
+    public StopContextCommand getCompensatingCommand() {
+        return new StopContextCommand(uri, log);
+    }
 }
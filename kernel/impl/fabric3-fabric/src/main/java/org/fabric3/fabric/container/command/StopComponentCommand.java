@@ -20,7 +20,7 @@ package org.fabric3.fabric.container.command;
 
 import java.net.URI;
 
-public class StopComponentCommand implements Command {
+public class StopComponentCommand implements CompensatableCommand {
 
     private final URI uri;
 
@@ -46,4 +46,8 @@ public class StopComponentCommand implements Command {
     public int hashCode() {
         return uri != null ? uri.hashCode() : 0;
     }
+
+    public StartComponentCommand getCompensatingCommand() {
+        return new StartComponentCommand(uri);
+    }
 }
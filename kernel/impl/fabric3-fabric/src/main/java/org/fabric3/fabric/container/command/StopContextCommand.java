@@ -20,7 +20,7 @@ package org.fabric3.fabric.container.command;
 
 import java.net.URI;
 
-public class StopContextCommand implements Command {
+public class StopContextCommand implements CompensatableCommand {
 
     private URI uri;
     private boolean log;
@@ -51,4 +51,8 @@ public class StopContextCommand implements Command {
     public int hashCode() {
         return uri != null ? uri.hashCode() : 0;
     }
+
+    public StartContextCommand getCompensatingCommand() {
+        return new StartContextCommand(uri, log);
+    }
 }
@@ -0,0 +1,505 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.fabric.container.component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.fabric3.api.annotation.management.Management;
+import org.fabric3.api.annotation.management.ManagementOperation;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.spi.container.component.ScopedComponent;
+
+/**
+ * A bounded pool of initialized instances for a component.
+ *
+ * Idle instances are held in a fixed array of slots that are claimed and filled using compare-and-set, so borrowing and releasing an instance does not
+ * acquire a lock or allocate. Instances are created on demand up to the maximum size. When the pool is exhausted, the caller either waits for an instance to
+ * be released or an overflow instance is created and destroyed when it is released, depending on the {@link ExhaustedPolicy}. Instances idle longer than the
+ * idle timeout are destroyed by {@link #evict(long)} until the pool shrinks to its minimum size.
+ *
+ * Waiting callers block on a condition that is signalled when an instance is returned or capacity is freed. The lock guarding the condition is only acquired
+ * on the fast paths when a caller is waiting.
+ *
+ * Live instances, including those in use, are tracked so they can be reinjected when the wires of the component change. The set is only updated when an
+ * instance is created or destroyed.
+ */
+@Management
+public class InstancePool {
+
+    /**
+     * The behavior when all instances are in use and the pool has reached its maximum size.
+     */
+    public enum ExhaustedPolicy {
+        /**
+         * Wait for an instance to be released, failing if none is available before the borrow timeout.
+         */
+        BLOCK,
+
+        /**
+         * Create an instance that is destroyed when it is released.
+         */
+        CREATE
+    }
+
+    private ScopedComponent component;
+    private int minSize;
+    private int maxSize;
+    private long idleTimeout;
+    private long borrowTimeout;
+    private ExhaustedPolicy policy;
+    private ScopeContainerMonitor monitor;
+
+    private AtomicReferenceArray<Object> slots;
+    private AtomicLongArray releaseTimes;
+    // live instances, including those in use and overflow instances
+    private AtomicInteger size = new AtomicInteger();
+    private AtomicInteger idle = new AtomicInteger();
+    private volatile boolean closed;
+    private Set<Object> live = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private ReentrantLock lock = new ReentrantLock();
+    private Condition available = lock.newCondition();
+    private AtomicInteger waiters = new AtomicInteger();
+
+    private LongAdder borrowed = new LongAdder();
+    private LongAdder created = new LongAdder();
+    private LongAdder destroyed = new LongAdder();
+    private LongAdder waits = new LongAdder();
+    private LongAdder timeouts = new LongAdder();
+    private AtomicLong totalWaitNanos = new AtomicLong();
+    private AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param component     the component instances are pooled for
+     * @param minSize       the number of instances retained when idle instances are evicted
+     * @param maxSize       the maximum number of pooled instances
+     * @param idleTimeout   the time in milliseconds an instance may be idle before it is evicted or 0 to disable eviction
+     * @param borrowTimeout the time in milliseconds to wait for an instance when the pool is exhausted and the policy is {@link ExhaustedPolicy#BLOCK}
+     * @param policy        the exhausted policy
+     * @param monitor       the monitor for reporting errors destroying instances
+     */
+    public InstancePool(ScopedComponent component,
+                        int minSize,
+                        int maxSize,
+                        long idleTimeout,
+                        long borrowTimeout,
+                        ExhaustedPolicy policy,
+                        ScopeContainerMonitor monitor) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size for component " + component.getUri() + ": " + minSize + "-" + maxSize);
+        }
+        this.component = component;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.borrowTimeout = borrowTimeout;
+        this.policy = policy;
+        this.monitor = monitor;
+        this.slots = new AtomicReferenceArray<>(maxSize);
+        this.releaseTimes = new AtomicLongArray(maxSize);
+    }
+
+    /**
+     * Borrows an instance, creating one if none are idle and the pool has not reached its maximum size.
+     *
+     * @return the instance
+     * @throws Fabric3Exception if there is an error creating the instance or the borrow timed out
+     */
+    public Object borrow() throws Fabric3Exception {
+        borrowed.increment();
+        Object instance = poll();
+        if (instance != null) {
+            return instance;
+        }
+        if (reserve()) {
+            return create();
+        }
+        if (ExhaustedPolicy.CREATE == policy) {
+            size.incrementAndGet();
+            return create();
+        }
+        return await();
+    }
+
+    /**
+     * Returns an instance to the pool. The instance is destroyed if the pool is closed or holds more than the maximum number of instances.
+     *
+     * @param instance the instance
+     */
+    public void release(Object instance) {
+        if (closed) {
+            shrink(0);
+            destroy(instance);
+            return;
+        }
+        if (shrink(maxSize)) {
+            // an overflow instance
+            destroy(instance);
+            return;
+        }
+        if (!offer(instance)) {
+            shrink(0);
+            destroy(instance);
+            signal();
+            return;
+        }
+        signal();
+        if (closed) {
+            // the pool was closed concurrently, make sure the instance is not stranded
+            drain();
+        }
+    }
+
+    /**
+     * Creates instances until the pool contains its minimum size.
+     *
+     * @throws Fabric3Exception if there is an error creating an instance
+     */
+    public void prefill() throws Fabric3Exception {
+        while (!closed && size.get() < minSize && reserve()) {
+            Object instance = create();
+            if (!offer(instance)) {
+                shrink(0);
+                destroy(instance);
+                signal();
+                return;
+            }
+            signal();
+        }
+    }
+
+    /**
+     * Destroys instances that have been idle longer than the idle timeout, retaining the minimum number of instances.
+     *
+     * @param now the current time in milliseconds
+     */
+    public void evict(long now) {
+        if (idleTimeout <= 0) {
+            return;
+        }
+        for (int i = 0; i < maxSize && size.get() > minSize; i++) {
+            Object instance = slots.get(i);
+            if (instance == null || now - releaseTimes.get(i) < idleTimeout || !slots.compareAndSet(i, instance, null)) {
+                continue;
+            }
+            idle.decrementAndGet();
+            if (shrink(minSize)) {
+                destroy(instance);
+                signal();
+            } else if (!offer(instance)) {
+                shrink(0);
+                destroy(instance);
+                signal();
+            } else {
+                signal();
+            }
+        }
+    }
+
+    /**
+     * Closes the pool and destroys idle instances. Instances in use are destroyed when they are released.
+     */
+    public void close() {
+        closed = true;
+        drain();
+        lock.lock();
+        try {
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the live instances, including instances in use.
+     *
+     * @return the live instances
+     */
+    public List<Object> getInstances() {
+        synchronized (live) {
+            return new ArrayList<>(live);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the idle instances.
+     *
+     * @return the idle instances
+     */
+    public List<Object> getIdleInstances() {
+        List<Object> instances = new ArrayList<>();
+        for (int i = 0; i < maxSize; i++) {
+            Object instance = slots.get(i);
+            if (instance != null) {
+                instances.add(instance);
+            }
+        }
+        return instances;
+    }
+
+    @ManagementOperation(description = "The minimum number of instances retained when idle instances are evicted")
+    public int getMinSize() {
+        return minSize;
+    }
+
+    @ManagementOperation(description = "The maximum number of pooled instances")
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @ManagementOperation(description = "The time in milliseconds an idle instance is retained before it is evicted")
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    @ManagementOperation(description = "The behavior when the pool is exhausted")
+    public String getExhaustedPolicy() {
+        return policy.toString();
+    }
+
+    @ManagementOperation(description = "The number of live instances")
+    public int getSize() {
+        return size.get();
+    }
+
+    @ManagementOperation(description = "The number of idle instances")
+    public int getIdleCount() {
+        return idle.get();
+    }
+
+    @ManagementOperation(description = "The number of instances in use")
+    public int getActiveCount() {
+        return Math.max(0, size.get() - idle.get());
+    }
+
+    @ManagementOperation(description = "The number of times an instance was borrowed")
+    public long getBorrowCount() {
+        return borrowed.sum();
+    }
+
+    @ManagementOperation(description = "The number of instances created")
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    @ManagementOperation(description = "The number of instances destroyed")
+    public long getDestroyedCount() {
+        return destroyed.sum();
+    }
+
+    @ManagementOperation(description = "The number of borrows that waited for an instance to be released")
+    public long getWaitCount() {
+        return waits.sum();
+    }
+
+    @ManagementOperation(description = "The number of borrows that timed out waiting for an instance")
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    @ManagementOperation(description = "The average time in milliseconds borrows waited for an instance")
+    public double getAverageBorrowWait() {
+        long count = waits.sum();
+        return count == 0 ? 0 : totalWaitNanos.get() / (double) count / 1000000;
+    }
+
+    @ManagementOperation(description = "The maximum time in milliseconds a borrow waited for an instance")
+    public double getMaxBorrowWait() {
+        return maxWaitNanos.get() / 1000000d;
+    }
+
+    private Object await() throws Fabric3Exception {
+        long start = System.nanoTime();
+        long remaining = TimeUnit.MILLISECONDS.toNanos(borrowTimeout);
+        // register before checking the pool so a release that misses the waiter count has made its instance visible to the check
+        waiters.incrementAndGet();
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new Fabric3Exception("Instance pool closed for component: " + component.getUri());
+                }
+                Object instance = poll();
+                if (instance != null) {
+                    return instance;
+                }
+                if (reserve()) {
+                    break;
+                }
+                if (remaining <= 0) {
+                    timeouts.increment();
+                    throw new Fabric3Exception("Timed out waiting for an instance of component: " + component.getUri());
+                }
+                remaining = available.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            // pass on a signal that may have been consumed by this caller
+            available.signal();
+            Thread.currentThread().interrupt();
+            throw new Fabric3Exception("Interrupted waiting for an instance of component: " + component.getUri());
+        } finally {
+            lock.unlock();
+            waiters.decrementAndGet();
+            long waited = System.nanoTime() - start;
+            waits.increment();
+            totalWaitNanos.addAndGet(waited);
+            long max = maxWaitNanos.get();
+            while (waited > max && !maxWaitNanos.compareAndSet(max, waited)) {
+                max = maxWaitNanos.get();
+            }
+        }
+        return create();
+    }
+
+    private Object create() throws Fabric3Exception {
+        try {
+            Object instance = component.createInstance();
+            component.startInstance(instance);
+            created.increment();
+            live.add(instance);
+            return instance;
+        } catch (RuntimeException e) {
+            size.decrementAndGet();
+            signal();
+            throw e;
+        }
+    }
+
+    /**
+     * Wakes a caller waiting for an instance after one has been returned or capacity has been freed.
+     */
+    private void signal() {
+        if (waiters.get() == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void destroy(Object instance) {
+        live.remove(instance);
+        try {
+            component.stopInstance(instance);
+        } catch (Fabric3Exception e) {
+            monitor.destructionError(component.getUri(), component.getContributionUri(), e);
+        } finally {
+            destroyed.increment();
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < maxSize; i++) {
+            Object instance = slots.get(i);
+            if (instance != null && slots.compareAndSet(i, instance, null)) {
+                idle.decrementAndGet();
+                size.decrementAndGet();
+                destroy(instance);
+            }
+        }
+    }
+
+    /**
+     * Reserves capacity for a new instance.
+     *
+     * @return true if the pool has not reached its maximum size
+     */
+    private boolean reserve() {
+        int current = size.get();
+        while (current < maxSize) {
+            if (size.compareAndSet(current, current + 1)) {
+                return true;
+            }
+            current = size.get();
+        }
+        return false;
+    }
+
+    /**
+     * Releases capacity held by an instance that is being destroyed.
+     *
+     * @param limit the size the pool must exceed for capacity to be released
+     * @return true if capacity was released
+     */
+    private boolean shrink(int limit) {
+        int current = size.get();
+        while (current > limit) {
+            if (size.compareAndSet(current, current - 1)) {
+                return true;
+            }
+            current = size.get();
+        }
+        return false;
+    }
+
+    private Object poll() {
+        if (idle.get() == 0) {
+            return null;
+        }
+        int start = hint();
+        for (int n = 0; n < maxSize; n++) {
+            int i = (start + n) % maxSize;
+            Object instance = slots.get(i);
+            if (instance != null && slots.compareAndSet(i, instance, null)) {
+                idle.decrementAndGet();
+                return instance;
+            }
+        }
+        return null;
+    }
+
+    private boolean offer(Object instance) {
+        long now = System.currentTimeMillis();
+        int start = hint();
+        // the number of live instances never exceeds the number of slots at this point, so a free slot is normally found on the first pass
+        for (int n = 0; n < maxSize * 2; n++) {
+            int i = (start + n) % maxSize;
+            if (slots.get(i) == null) {
+                releaseTimes.set(i, now);
+                if (slots.compareAndSet(i, null, instance)) {
+                    idle.incrementAndGet();
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int hint() {
+        // spread threads across slots to reduce contention
+        return (int) (Thread.currentThread().getId() % maxSize);
+    }
+
+}
@@ -0,0 +1,271 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.fabric.container.component;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.fabric3.api.annotation.Source;
+import org.fabric3.api.annotation.monitor.Monitor;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.api.model.type.component.Scope;
+import org.fabric3.api.model.type.java.PoolConfiguration;
+import org.fabric3.fabric.container.component.InstancePool.ExhaustedPolicy;
+import org.fabric3.spi.container.component.ScopeContainer;
+import org.fabric3.spi.container.component.ScopedComponent;
+import org.fabric3.spi.management.ManagementService;
+import org.oasisopen.sca.annotation.Destroy;
+import org.oasisopen.sca.annotation.EagerInit;
+import org.oasisopen.sca.annotation.Init;
+import org.oasisopen.sca.annotation.Property;
+import org.oasisopen.sca.annotation.Reference;
+import org.oasisopen.sca.annotation.Service;
+
+/**
+ * A scope container which manages stateless atomic component instances using a pool per component. Instances are created and initialized once and are reused
+ * across invocations rather than being created and destroyed for each invocation.
+ *
+ * Pool sizes and the idle timeout default to the runtime settings and may be overridden per component using {@link PoolConfiguration}. Pools are exported to
+ * the management service. Idle instances are evicted periodically by a task submitted to the runtime executor.
+ */
+@EagerInit
+@Service(ScopeContainer.class)
+public class PooledScopeContainer extends AbstractScopeContainer {
+    private static final String GROUP = "component pools";
+    private static final long EVICTION_INTERVAL = 1000;
+
+    private ManagementService managementService;
+    private ExecutorService executorService;
+
+    private int minSize = 0;
+    private int maxSize = 32;
+    private long idleTimeout = 60000;
+    private long borrowTimeout = 10000;
+    private ExhaustedPolicy policy = ExhaustedPolicy.BLOCK;
+
+    private Map<ScopedComponent, InstancePool> pools = new ConcurrentHashMap<>();
+    private ScheduledExecutorService evictor;
+    private AtomicBoolean evicting = new AtomicBoolean();
+
+    public PooledScopeContainer(@Reference ManagementService managementService,
+                                @Reference(name = "executorService") ExecutorService executorService,
+                                @Monitor ScopeContainerMonitor monitor) {
+        super(Scope.POOLED, monitor);
+        this.managementService = managementService;
+        this.executorService = executorService;
+    }
+
+    @Property(required = false)
+    @Source("$systemConfig/f3:runtime/f3:pool/@min.size")
+    public void setMinSize(int minSize) {
+        this.minSize = minSize;
+    }
+
+    @Property(required = false)
+    @Source("$systemConfig/f3:runtime/f3:pool/@max.size")
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Property(required = false)
+    @Source("$systemConfig/f3:runtime/f3:pool/@idle.timeout")
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Property(required = false)
+    @Source("$systemConfig/f3:runtime/f3:pool/@borrow.timeout")
+    public void setBorrowTimeout(long borrowTimeout) {
+        this.borrowTimeout = borrowTimeout;
+    }
+
+    @Property(required = false)
+    @Source("$systemConfig/f3:runtime/f3:pool/@exhausted.policy")
+    public void setExhaustedPolicy(String policy) {
+        this.policy = ExhaustedPolicy.valueOf(policy.toUpperCase());
+    }
+
+    @Init
+    public void start() {
+        super.start();
+    }
+
+    @Destroy
+    public void stop() {
+        super.stop();
+        synchronized (this) {
+            if (evictor != null) {
+                evictor.shutdownNow();
+                evictor = null;
+            }
+        }
+        for (ScopedComponent component : pools.keySet()) {
+            unregister(component);
+        }
+    }
+
+    public void register(ScopedComponent component) {
+        getPool(component);
+    }
+
+    public void unregister(ScopedComponent component) {
+        InstancePool pool = pools.remove(component);
+        if (pool == null) {
+            return;
+        }
+        pool.close();
+        try {
+            managementService.remove(encodeName(component.getUri()), GROUP);
+        } catch (Fabric3Exception e) {
+            monitor.error(e);
+        }
+    }
+
+    public Object getInstance(ScopedComponent component) throws Fabric3Exception {
+        return getPool(component).borrow();
+    }
+
+    public void releaseInstance(ScopedComponent component, Object instance) throws Fabric3Exception {
+        InstancePool pool = pools.get(component);
+        if (pool == null) {
+            // the component was unregistered while the instance was in use
+            component.stopInstance(instance);
+            return;
+        }
+        pool.release(instance);
+    }
+
+    public List<Object> getActiveInstances(ScopedComponent component) {
+        // instances in use are included so that they are updated when wires change
+        InstancePool pool = pools.get(component);
+        return pool == null ? Collections.emptyList() : pool.getInstances();
+    }
+
+    public void startContext(URI contributionUri) throws Fabric3Exception {
+        for (Map.Entry<ScopedComponent, InstancePool> entry : pools.entrySet()) {
+            if (contributionUri.equals(entry.getKey().getContributionUri())) {
+                entry.getValue().prefill();
+            }
+        }
+    }
+
+    public void stopContext(URI contributionUri) {
+        // no-op: pools are closed when their components are unregistered
+    }
+
+    public void reinject() {
+        // no-op
+    }
+
+    private InstancePool getPool(ScopedComponent component) {
+        InstancePool pool = pools.get(component);
+        if (pool != null) {
+            return pool;
+        }
+        InstancePool[] created = new InstancePool[1];
+        pool = pools.computeIfAbsent(component, c -> created[0] = createPool(c));
+        if (created[0] != null) {
+            // the evictor and export are started after the pool is added so that they do not run while the map entry is locked
+            if (created[0].getIdleTimeout() > 0) {
+                startEvictor();
+            }
+            try {
+                managementService.export(encodeName(component.getUri()), GROUP, "Component instance pool", created[0]);
+            } catch (Fabric3Exception e) {
+                monitor.error(e);
+            }
+        }
+        return pool;
+    }
+
+    private InstancePool createPool(ScopedComponent component) {
+        PoolConfiguration configuration = component.getPoolConfiguration();
+        int max = maxSize;
+        int min = Math.min(minSize, max);
+        long timeout = idleTimeout;
+        if (configuration != null) {
+            max = configuration.getMaxSize() >= 0 ? configuration.getMaxSize() : max;
+            // the runtime minimum is reduced to an overridden maximum
+            min = configuration.getMinSize() >= 0 ? configuration.getMinSize() : Math.min(minSize, max);
+            timeout = configuration.getIdleTimeout() >= 0 ? configuration.getIdleTimeout() : timeout;
+        }
+        return new InstancePool(component, min, max, timeout, borrowTimeout, policy, monitor);
+    }
+
+    /**
+     * Starts evicting idle instances the first time a pool is created with an idle timeout. The scheduler thread only submits eviction to the runtime
+     * executor, so instances are destroyed on a managed thread and no runtime thread is held between passes.
+     */
+    private synchronized void startEvictor() {
+        if (evictor != null) {
+            return;
+        }
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pooled scope evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::submitEviction, EVICTION_INTERVAL, EVICTION_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    private void submitEviction() {
+        if (!evicting.compareAndSet(false, true)) {
+            // the previous pass has not completed
+            return;
+        }
+        try {
+            executorService.execute(() -> {
+                try {
+                    evict();
+                } finally {
+                    evicting.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            // do not let a rejected pass cancel the scheduled task
+            evicting.set(false);
+            monitor.error(e);
+        }
+    }
+
+    private void evict() {
+        try {
+            long now = System.currentTimeMillis();
+            for (InstancePool pool : pools.values()) {
+                pool.evict(now);
+            }
+        } catch (RuntimeException e) {
+            // do not let an error stop eviction
+            monitor.error(e);
+        }
+    }
+
+    private String encodeName(URI uri) {
+        String path = uri.getPath();
+        String name = path == null || path.length() == 0 ? uri.toString() : path.substring(1);
+        return "pools/" + name;
+    }
+
+}
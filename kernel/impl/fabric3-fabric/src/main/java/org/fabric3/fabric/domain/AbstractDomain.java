@@ -107,8 +107,7 @@ public abstract class AbstractDomain implements Domain {
         LogicalCompositeComponent domain = logicalComponentManager.getDomainComposite();
         collector.markForCollection(uri, domain);
         Deployment deployment = generator.generate(domain);
-        collector.collect(domain);
-        deployer.deploy(deployment);
+        undeploy(deployment, domain);
         contribution.undeploy();
     }
 
@@ -117,8 +116,7 @@ public abstract class AbstractDomain implements Domain {
         URI contributionUri = composite.getContributionUri();
         collector.markForCollection(contributionUri, domain);
         Deployment deployment = generator.generate(domain);
-        collector.collect(domain);
-        deployer.deploy(deployment);
+        undeploy(deployment, domain);
         Contribution contribution = metadataStore.find(contributionUri);
         contribution.undeploy();
     }
@@ -197,6 +195,24 @@ public abstract class AbstractDomain implements Domain {
         contribution.deploy();
     }
 
+    /**
+     * Removes components marked for collection from the runtime and then from the logical model. If the deployment fails, the deployer reverses the commands
+     * that completed and the components remain in the logical model so that they can be undeployed later.
+     *
+     * @param deployment the deployment removing the marked components
+     * @param domain     the domain component
+     * @throws Fabric3Exception if an error is encountered during deployment
+     */
+    private void undeploy(Deployment deployment, LogicalCompositeComponent domain) throws Fabric3Exception {
+        try {
+            deployer.deploy(deployment);
+        } catch (RuntimeException e) {
+            collector.unmark(domain);
+            throw e;
+        }
+        collector.collect(domain);
+    }
+
     /**
      * Allocates and deploys new components in the domain.
      *
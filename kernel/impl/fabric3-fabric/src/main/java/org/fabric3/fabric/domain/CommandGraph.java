@@ -0,0 +1,174 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.fabric.domain;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.fabric3.fabric.container.command.AbstractComponentCommand;
+import org.fabric3.fabric.container.command.AttachChannelConnectionCommand;
+import org.fabric3.fabric.container.command.BuildChannelCommand;
+import org.fabric3.fabric.container.command.ChannelConnectionCommand;
+import org.fabric3.fabric.container.command.Command;
+import org.fabric3.fabric.container.command.ConnectionCommand;
+import org.fabric3.fabric.container.command.DetachChannelConnectionCommand;
+import org.fabric3.fabric.container.command.DisposeChannelCommand;
+import org.fabric3.fabric.container.command.WireCommand;
+import org.fabric3.spi.model.physical.PhysicalAttachPoint;
+import org.fabric3.spi.model.physical.PhysicalChannelConnection;
+import org.fabric3.spi.model.physical.PhysicalWire;
+
+/**
+ * Derives execution stages from an ordered list of commands. Commands in the same stage are independent and may be executed concurrently; stages must be
+ * executed in order.
+ * <p/>
+ * A command depends on every earlier command that operates on one of the same components or channels, identified by the URIs the command targets. Commands
+ * for which target URIs cannot be determined, including context, component start/stop and resource commands, are placed in a stage of their own so that
+ * they retain their strict ordering relative to all other commands.
+ */
+public class CommandGraph {
+
+    private CommandGraph() {
+    }
+
+    /**
+     * Returns the execution stages for the commands. Commands in a stage are in the order they appear in the original list.
+     *
+     * @param commands the commands in the order they were generated
+     * @return the stages
+     */
+    public static List<List<Command>> getStages(List<Command> commands) {
+        List<List<Command>> stages = new ArrayList<>();
+        Map<URI, Integer> lastStage = new HashMap<>();
+        int barrier = -1;
+        for (Command command : commands) {
+            Set<URI> targets = getTargets(command);
+            int stage;
+            if (targets == null) {
+                // run in isolation after all preceding commands
+                stage = stages.size();
+            } else {
+                stage = barrier + 1;
+                for (URI target : targets) {
+                    Integer previous = lastStage.get(target);
+                    if (previous != null && previous >= stage) {
+                        stage = previous + 1;
+                    }
+                }
+                for (URI target : targets) {
+                    lastStage.put(target, stage);
+                }
+            }
+            if (stage == stages.size()) {
+                stages.add(new ArrayList<>());
+            }
+            stages.get(stage).add(command);
+            if (targets == null) {
+                // subsequent commands must not be placed in the same stage as the isolated command
+                barrier = stage;
+                lastStage.clear();
+            }
+        }
+        return stages;
+    }
+
+    /**
+     * Returns the URIs of the components and channels a command operates on, or null if they cannot be determined.
+     *
+     * @param command the command
+     * @return the targets or null
+     */
+    private static Set<URI> getTargets(Command command) {
+        Set<URI> targets = new HashSet<>();
+        if (command instanceof AbstractComponentCommand) {
+            return add(((AbstractComponentCommand) command).getComponent().getComponentUri(), targets) ? targets : null;
+        } else if (command instanceof ConnectionCommand) {
+            ConnectionCommand connectionCommand = (ConnectionCommand) command;
+            boolean resolved = add(connectionCommand.getComponentUri(), targets);
+            for (WireCommand wireCommand : connectionCommand.getDetachCommands()) {
+                resolved &= add(wireCommand.getPhysicalWire(), targets);
+            }
+            for (WireCommand wireCommand : connectionCommand.getAttachCommands()) {
+                resolved &= add(wireCommand.getPhysicalWire(), targets);
+            }
+            return resolved ? targets : null;
+        } else if (command instanceof WireCommand) {
+            return add(((WireCommand) command).getPhysicalWire(), targets) ? targets : null;
+        } else if (command instanceof ChannelConnectionCommand) {
+            ChannelConnectionCommand connectionCommand = (ChannelConnectionCommand) command;
+            boolean resolved = true;
+            for (DetachChannelConnectionCommand detachCommand : connectionCommand.getDetachCommands()) {
+                resolved &= add(detachCommand.getConnection(), targets);
+            }
+            for (DisposeChannelCommand disposeCommand : connectionCommand.getDisposeChannelCommands()) {
+                resolved &= add(disposeCommand.getChannel().getUri(), targets);
+            }
+            for (BuildChannelCommand buildCommand : connectionCommand.getBuildChannelCommands()) {
+                resolved &= add(buildCommand.getChannel().getUri(), targets);
+            }
+            for (AttachChannelConnectionCommand attachCommand : connectionCommand.getAttachCommands()) {
+                resolved &= add(attachCommand.getConnection(), targets);
+            }
+            return resolved ? targets : null;
+        } else if (command instanceof AttachChannelConnectionCommand) {
+            return add(((AttachChannelConnectionCommand) command).getConnection(), targets) ? targets : null;
+        } else if (command instanceof DetachChannelConnectionCommand) {
+            return add(((DetachChannelConnectionCommand) command).getConnection(), targets) ? targets : null;
+        } else if (command instanceof BuildChannelCommand) {
+            return add(((BuildChannelCommand) command).getChannel().getUri(), targets) ? targets : null;
+        } else if (command instanceof DisposeChannelCommand) {
+            return add(((DisposeChannelCommand) command).getChannel().getUri(), targets) ? targets : null;
+        }
+        return null;
+    }
+
+    private static boolean add(PhysicalWire wire, Set<URI> targets) {
+        return wire != null && add(wire.getSource(), targets) && add(wire.getTarget(), targets);
+    }
+
+    private static boolean add(PhysicalChannelConnection connection, Set<URI> targets) {
+        return add(connection.getChannelUri(), targets) && add(connection.getSource(), targets) && add(connection.getTarget(), targets);
+    }
+
+    private static boolean add(PhysicalAttachPoint attachPoint, Set<URI> targets) {
+        return attachPoint != null && add(attachPoint.getUri(), targets);
+    }
+
+    /**
+     * Adds the URI with any fragment removed so that services, references, producers and consumers resolve to their containing component.
+     *
+     * @param uri     the URI
+     * @param targets the targets to add to
+     * @return true if the URI was added
+     */
+    private static boolean add(URI uri, Set<URI> targets) {
+        if (uri == null) {
+            return false;
+        }
+        if (uri.getFragment() != null) {
+            uri = URI.create(uri.toString().substring(0, uri.toString().indexOf('#')));
+        }
+        targets.add(uri);
+        return true;
+    }
+
+}
@@ -19,28 +19,89 @@
  */
 package org.fabric3.fabric.domain;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 
+import org.fabric3.api.annotation.Source;
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.model.type.component.Scope;
 import org.fabric3.fabric.container.command.Command;
+import org.fabric3.fabric.container.command.CompensatableCommand;
 import org.fabric3.spi.container.component.ScopeRegistry;
 import org.fabric3.fabric.container.command.CommandExecutorRegistry;
 import org.fabric3.fabric.domain.generator.Deployment;
+import org.fabric3.spi.runtime.event.DeploymentCompleted;
+import org.fabric3.spi.runtime.event.EventService;
+import org.oasisopen.sca.annotation.Destroy;
+import org.oasisopen.sca.annotation.Property;
 import org.oasisopen.sca.annotation.Reference;
 
 /**
- *
+ * Executes deployment commands in the local runtime.
+ * <p/>
+ * Commands are grouped into stages using {@link CommandGraph}. Independent commands in a stage, such as building separate components or attaching wires
+ * for unrelated components, are executed concurrently on a bounded pool while context and component start/stop commands retain their strict ordering.
+ * Command executors, connectors and wire attachers must therefore be thread-safe. Sequential execution in the order the commands were generated may be
+ * enabled for debugging. If a command fails, the commands that completed are reversed in the opposite order they completed using their compensating
+ * commands.
+ * <p/>
+ * A {@link DeploymentCompleted} event is published after the commands are executed so that extensions may apply changes accumulated while the commands
+ * were executed. If an extension fails to apply its changes, the deployment is rolled back and the event is published again so that extensions may apply the
+ * changes made by the compensating commands.
  */
 public class LocalDeployer implements Deployer {
     private CommandExecutorRegistry executorRegistry;
     private ScopeRegistry scopeRegistry;
+    private EventService eventService;
+
+    private boolean sequential;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private ForkJoinPool pool;
 
     public LocalDeployer(@Reference CommandExecutorRegistry executorRegistry, @Reference ScopeRegistry scopeRegistry) {
         this.executorRegistry = executorRegistry;
         this.scopeRegistry = scopeRegistry;
     }
 
+    @Reference(required = false)
+    public void setEventService(EventService eventService) {
+        this.eventService = eventService;
+    }
+
+    /**
+     * Sets whether commands are executed sequentially in the order they were generated. Defaults to false. Sequential execution is intended for debugging.
+     *
+     * @param sequential true if commands should be executed sequentially
+     */
+    @Property(required = false)
+    @Source("$systemConfig/f3:runtime/f3:deployment/@sequential")
+    public void setSequential(boolean sequential) {
+        this.sequential = sequential;
+    }
+
+    /**
+     * Sets the maximum number of commands executed concurrently.
+     *
+     * @param parallelism the maximum number of commands executed concurrently
+     */
+    @Property(required = false)
+    @Source("$systemConfig/f3:runtime/f3:deployment/@parallelism")
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    @Destroy
+    public synchronized void destroy() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+
     public void deploy(Deployment deployment) throws Fabric3Exception {
         List<Command> commands = deployment.getCommands();
         execute(commands);
@@ -50,15 +111,119 @@ public class LocalDeployer implements Deployer {
     }
 
     /**
-     * Executes the commands, performing a rollback on error.
+     * Executes the commands and publishes the deployment completed event, performing a rollback on error.
      *
      * @param commands the commands
      * @throws Fabric3Exception if a deployment error occurs
      */
     private void execute(List<Command> commands) throws Fabric3Exception {
-        for (Command command : commands) {
+        List<Command> completed = Collections.synchronizedList(new ArrayList<>());
+        try {
+            if (sequential || parallelism < 2 || commands.size() < 2) {
+                for (Command command : commands) {
+                    executorRegistry.execute(command);
+                    completed.add(command);
+                }
+            } else {
+                for (List<Command> stage : CommandGraph.getStages(commands)) {
+                    executeStage(stage, completed);
+                }
+            }
+            if (eventService != null) {
+                eventService.publish(new DeploymentCompleted());
+            }
+        } catch (RuntimeException e) {
+            rollback(completed, e);
+            if (eventService != null) {
+                // compensating commands may also have changed runtime state
+                try {
+                    eventService.publish(new DeploymentCompleted());
+                } catch (RuntimeException ex) {
+                    e.addSuppressed(ex);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Executes the commands in a stage concurrently and waits for all of them to finish, recording those that complete successfully.
+     *
+     * @param stage     the commands
+     * @param completed the completed commands
+     */
+    private void executeStage(List<Command> stage, List<Command> completed) {
+        if (stage.size() == 1) {
+            Command command = stage.get(0);
             executorRegistry.execute(command);
+            completed.add(command);
+            return;
+        }
+        ForkJoinPool pool = getPool();
+        ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(stage.size());
+        for (Command command : stage) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                runWithClassLoader(tccl, command);
+                completed.add(command);
+            }, pool));
+        }
+        RuntimeException error = null;
+        for (CompletableFuture<Void> future : futures) {
+            // wait for every command so the completed list is accurate before a rollback is performed
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                RuntimeException cause = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new Fabric3Exception(e.getCause());
+                if (error == null) {
+                    error = cause;
+                } else {
+                    error.addSuppressed(cause);
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Reverses completed commands in the opposite order they completed. Commands that failed or were not executed are not reversed. Errors raised during
+     * the rollback are added to the deployment error.
+     *
+     * @param completed the completed commands
+     * @param error     the deployment error
+     */
+    private void rollback(List<Command> completed, RuntimeException error) {
+        for (int i = completed.size() - 1; i >= 0; i--) {
+            Command command = completed.get(i);
+            if (!(command instanceof CompensatableCommand)) {
+                continue;
+            }
+            try {
+                executorRegistry.execute(((CompensatableCommand) command).getCompensatingCommand());
+            } catch (RuntimeException e) {
+                error.addSuppressed(e);
+            }
+        }
+    }
+
+    private void runWithClassLoader(ClassLoader loader, Command command) {
+        Thread thread = Thread.currentThread();
+        ClassLoader old = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            executorRegistry.execute(command);
+        } finally {
+            thread.setContextClassLoader(old);
+        }
+    }
+
+    private synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
         }
+        return pool;
     }
 
 }
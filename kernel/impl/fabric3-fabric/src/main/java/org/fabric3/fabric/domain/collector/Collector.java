@@ -42,6 +42,14 @@ public interface Collector {
      */
     void markForCollection(URI contribution, LogicalCompositeComponent composite);
 
+    /**
+     * Reverts components, bindings and wires marked for collection to the provisioned state. Used when an undeployment fails and its commands have been
+     * reversed.
+     *
+     * @param composite the root composite to traverse
+     */
+    void unmark(LogicalCompositeComponent composite);
+
     /**
      * Recursively collects marked components by removing them from the given composite.
      *
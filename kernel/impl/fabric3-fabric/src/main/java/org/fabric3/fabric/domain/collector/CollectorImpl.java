@@ -72,7 +72,7 @@ public class CollectorImpl implements Collector {
             }
         }
         composite.getResources().stream().filter(resource -> NEW == resource.getState()).forEach(resource -> resource.setState(PROVISIONED));
-
+        composite.clearChangedComponents();
     }
 
     public void markForCollection(URI contributionUri, LogicalCompositeComponent composite) {
@@ -85,6 +85,7 @@ public class CollectorImpl implements Collector {
                     markForCollection(contributionUri, (LogicalCompositeComponent) component);
                 }
                 component.setState(MARKED);
+                composite.addChangedComponent(component);
                 for (LogicalService service : component.getServices()) {
                     for (LogicalBinding<?> binding : service.getBindings()) {
                         binding.setState(MARKED);
@@ -102,22 +103,25 @@ public class CollectorImpl implements Collector {
             } else {
                 // mark service and callback bindings that were dynamically added to satisfy a wire when the deployable was provisioned
                 for (LogicalService service : component.getServices()) {
-                    service.getBindings().stream().filter(binding -> contributionUri.equals(binding.getTargetContribution())).forEach(binding -> binding.setState(
-                            MARKED));
-                    service.getCallbackBindings().stream().filter(binding -> contributionUri.equals(binding.getTargetContribution())).forEach(binding -> binding.setState(
-                            MARKED));
-                }
-                // recurse through wires and mark any that were part of the deployable being undeployed
-                // this can occur when a wire is configured in a deployable other than its source component
-                for (List<LogicalWire> wires : composite.getWires().values()) {
-                    for (LogicalWire wire : wires) {
-                        if (MARKED == wire.getState()) {
-                            continue;
-                        }
-                        if (contributionUri.equals(wire.getTargetContribution())) {
-                            wire.setState(MARKED);
-                        }
+                    for (LogicalBinding<?> binding : service.getBindings()) {
+                        markBinding(contributionUri, binding, component, composite);
                     }
+                    for (LogicalBinding<?> binding : service.getCallbackBindings()) {
+                        markBinding(contributionUri, binding, component, composite);
+                    }
+                }
+            }
+        }
+        // mark wires that were part of the deployable being undeployed
+        // this can occur when a wire is configured in a deployable other than its source component
+        for (List<LogicalWire> wires : composite.getWires().values()) {
+            for (LogicalWire wire : wires) {
+                if (MARKED != wire.getState() && contributionUri.equals(wire.getTargetContribution())) {
+                    wire.setState(MARKED);
+                }
+                // wires from components that remain deployed must be detached if the wire or its target is removed
+                if (MARKED == wire.getState() || MARKED == wire.getTarget().getParent().getState()) {
+                    composite.addChangedComponent(wire.getSource().getParent());
                 }
             }
         }
@@ -141,6 +145,46 @@ public class CollectorImpl implements Collector {
         }
     }
 
+    private void markBinding(URI contributionUri, LogicalBinding<?> binding, LogicalComponent<?> component, LogicalCompositeComponent composite) {
+        if (contributionUri.equals(binding.getTargetContribution())) {
+            binding.setState(MARKED);
+            composite.addChangedComponent(component);
+        }
+    }
+
+    public void unmark(LogicalCompositeComponent composite) {
+        for (LogicalComponent<?> component : composite.getComponents()) {
+            if (component instanceof LogicalCompositeComponent) {
+                unmark((LogicalCompositeComponent) component);
+            }
+            if (MARKED == component.getState()) {
+                component.setState(PROVISIONED);
+            }
+            for (LogicalService service : component.getServices()) {
+                unmarkBindings(service.getBindings());
+                unmarkBindings(service.getCallbackBindings());
+            }
+            for (LogicalReference reference : component.getReferences()) {
+                unmarkBindings(reference.getBindings());
+                unmarkBindings(reference.getCallbackBindings());
+            }
+        }
+        for (List<LogicalWire> wires : composite.getWires().values()) {
+            wires.stream().filter(wire -> MARKED == wire.getState()).forEach(wire -> wire.setState(PROVISIONED));
+        }
+        for (LogicalChannel channel : composite.getChannels()) {
+            if (MARKED == channel.getState()) {
+                channel.setState(PROVISIONED);
+            }
+            LogicalBinding<?> binding = channel.getBinding();
+            if (binding != null && MARKED == binding.getState()) {
+                binding.setState(PROVISIONED);
+            }
+        }
+        composite.getResources().stream().filter(resource -> MARKED == resource.getState()).forEach(resource -> resource.setState(PROVISIONED));
+        composite.clearChangedComponents();
+    }
+
     public void collect(LogicalCompositeComponent composite) {
         Iterator<LogicalComponent<?>> iter = composite.getComponents().iterator();
         while (iter.hasNext()) {
@@ -192,6 +236,11 @@ public class CollectorImpl implements Collector {
                 resourceIter.remove();
             }
         }
+        composite.clearChangedComponents();
+    }
+
+    private void unmarkBindings(List<LogicalBinding<?>> bindings) {
+        bindings.stream().filter(binding -> MARKED == binding.getState()).forEach(binding -> binding.setState(PROVISIONED));
     }
 
     /**
@@ -20,26 +20,57 @@
 package org.fabric3.fabric.domain.generator;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.fabric3.fabric.container.command.Command;
 
 /**
- * A collection of {@link Command}s that perform a deployment.
+ * A collection of {@link Command}s that perform a deployment. Commands are kept in insertion order and hashed so that duplicates can be detected in constant
+ * time.
  */
 public class Deployment {
     private List<Command> commands = new ArrayList<>();
+    private Set<Command> index = new HashSet<>();
 
     public List<Command> getCommands() {
-        return commands;
+        return Collections.unmodifiableList(commands);
     }
 
     public void addCommand(Command command) {
         commands.add(command);
+        index.add(command);
     }
 
     public void addCommands(List<Command> list) {
         commands.addAll(list);
+        index.addAll(list);
+    }
+
+    /**
+     * Adds a command unless an equal command has already been added.
+     *
+     * @param command the command
+     * @return true if the command was added
+     */
+    public boolean addCommandIfAbsent(Command command) {
+        if (!index.add(command)) {
+            return false;
+        }
+        commands.add(command);
+        return true;
+    }
+
+    /**
+     * Returns true if an equal command has been added.
+     *
+     * @param command the command
+     * @return true if an equal command has been added
+     */
+    public boolean contains(Command command) {
+        return index.contains(command);
     }
 
 }
@@ -24,7 +24,6 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.fabric.domain.generator.CommandGenerator;
@@ -43,6 +42,9 @@ import org.oasisopen.sca.annotation.Reference;
 
 /**
  * Default Generator implementation.
+ * <p/>
+ * Only components recorded as changed in the domain composite are visited. Components are recorded when they are instantiated, when wires are added to or
+ * removed from them, and when they are marked for collection; the record is cleared once the domain is provisioned or collected.
  */
 @EagerInit
 public class GeneratorImpl implements Generator {
@@ -68,7 +70,7 @@ public class GeneratorImpl implements Generator {
 
     public Deployment generate(LogicalCompositeComponent domain) throws Fabric3Exception {
 
-        List<LogicalComponent<?>> components = domain.getComponents().stream().collect(Collectors.toList());
+        List<LogicalComponent<?>> components = getChangedComponents(domain);
 
         Deployment deployment = new Deployment();
 
@@ -87,11 +89,7 @@ public class GeneratorImpl implements Generator {
         for (CommandGenerator<?> generator : commandGenerators) {
             for (LogicalComponent<?> component : components) {
                 Optional<? extends Command> command = generator.generate(component);
-                command.ifPresent(generated -> {
-                    if (!deployment.getCommands().contains(generated)) {
-                        deployment.addCommand(generated);
-                    }
-                });
+                command.ifPresent(deployment::addCommandIfAbsent);
 
             }
         }
@@ -110,6 +108,22 @@ public class GeneratorImpl implements Generator {
         return deployment;
     }
 
+    /**
+     * Returns the changed components that are still contained in the domain.
+     *
+     * @param domain the domain
+     * @return the components
+     */
+    private List<LogicalComponent<?>> getChangedComponents(LogicalCompositeComponent domain) {
+        List<LogicalComponent<?>> components = new ArrayList<>(domain.getChangedComponents().size());
+        for (LogicalComponent<?> component : domain.getChangedComponents()) {
+            if (domain.getComponent(component.getUri()) == component) {
+                components.add(component);
+            }
+        }
+        return components;
+    }
+
     private List<CommandGenerator> sortGenerators(List<? extends CommandGenerator> commandGenerators) {
         Comparator<CommandGenerator> generatorComparator = (first, second) -> first.getOrder() - second.getOrder();
         List<CommandGenerator> sorted = new ArrayList<>(commandGenerators);
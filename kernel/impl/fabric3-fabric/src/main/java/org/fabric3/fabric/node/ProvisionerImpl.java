@@ -133,7 +133,7 @@ public class ProvisionerImpl implements Provisioner {
 
         Resource resource = element.getResource();
         Contribution contribution = resource.getContribution();
-        contribution.getResources().remove(resource);
+        contribution.removeResource(resource);
 
     }
 
@@ -167,6 +167,8 @@ public class BootstrapAssemblyFactory {
                                                                                 managementService,
                                                                                 info);
         LocalDeployer deployer = new LocalDeployer(commandRegistry, scopeRegistry);
+        // the bootstrap deployer is not managed by the runtime and therefore does not create a thread pool
+        deployer.setSequential(true);
 
         DefaultContractMatcher matcher = new DefaultContractMatcher();
         JavaContractMatcherExtension javaMatcher = new JavaContractMatcherExtension();
@@ -20,8 +20,14 @@
 package org.fabric3.fabric.container.builder;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
@@ -37,6 +43,8 @@ import org.fabric3.spi.model.physical.PhysicalConnectionTarget;
  *
  */
 public class ChannelConnectorImplTestCase extends TestCase {
+    private static final int THREADS = 8;
+
     private ChannelConnectorImpl connector;
     private SourceConnectionAttacher sourceAttacher;
     private TargetConnectionAttacher targetAttacher;
@@ -77,6 +85,50 @@ public class ChannelConnectorImplTestCase extends TestCase {
         EasyMock.verify(sourceAttacher, targetAttacher);
     }
 
+    @SuppressWarnings({"unchecked"})
+    public void testConcurrentConnectEngagesOnce() throws Exception {
+        sourceAttacher.attach(EasyMock.isA(PhysicalConnectionSource.class),
+                              EasyMock.isA(PhysicalConnectionTarget.class),
+                              EasyMock.isA(ChannelConnection.class));
+        targetAttacher.attach(EasyMock.isA(PhysicalConnectionSource.class),
+                              EasyMock.isA(PhysicalConnectionTarget.class),
+                              EasyMock.isA(ChannelConnection.class));
+        sourceAttacher.detach(EasyMock.isA(PhysicalConnectionSource.class), EasyMock.isA(PhysicalConnectionTarget.class));
+        targetAttacher.detach(EasyMock.isA(PhysicalConnectionSource.class), EasyMock.isA(PhysicalConnectionTarget.class));
+
+        EasyMock.replay(sourceAttacher, targetAttacher);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<ChannelConnection>> connects = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                connects.add(() -> connector.connect(connection));
+            }
+            ChannelConnection engaged = null;
+            for (Future<ChannelConnection> future : executorService.invokeAll(connects)) {
+                if (engaged == null) {
+                    engaged = future.get();
+                }
+                assertSame(engaged, future.get());
+            }
+
+            List<Callable<Void>> disconnects = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                disconnects.add(() -> {
+                    connector.disconnect(connection);
+                    return null;
+                });
+            }
+            for (Future<Void> future : executorService.invokeAll(disconnects)) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        EasyMock.verify(sourceAttacher, targetAttacher);
+    }
+
     @SuppressWarnings({"unchecked"})
     protected void setUp() throws Exception {
         super.setUp();
@@ -0,0 +1,355 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.fabric.container.component;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.api.model.type.component.Scope;
+import org.fabric3.api.model.type.java.PoolConfiguration;
+import org.fabric3.spi.container.component.ScopedComponent;
+import org.fabric3.spi.management.ManagementService;
+
+/**
+ *
+ */
+public class PooledScopeContainerTestCase extends TestCase {
+    private PooledScopeContainer scopeContainer;
+    private ManagementService managementService;
+    private ThreadPoolExecutor runtimeExecutor;
+    private ScopedComponent component;
+    private AtomicInteger created;
+    private AtomicInteger stopped;
+
+    public void testCorrectScope() {
+        assertEquals(Scope.POOLED, scopeContainer.getScope());
+    }
+
+    public void testInstanceReused() throws Exception {
+        scopeContainer.register(component);
+
+        Object instance = scopeContainer.getInstance(component);
+        scopeContainer.releaseInstance(component, instance);
+        assertSame(instance, scopeContainer.getInstance(component));
+
+        assertEquals(1, created.get());
+        assertEquals(0, stopped.get());
+    }
+
+    public void testBlockTimeout() throws Exception {
+        scopeContainer.setMaxSize(1);
+        scopeContainer.setBorrowTimeout(20);
+        scopeContainer.register(component);
+
+        scopeContainer.getInstance(component);
+        try {
+            scopeContainer.getInstance(component);
+            fail();
+        } catch (Fabric3Exception e) {
+            // expected
+        }
+        assertEquals(1, created.get());
+    }
+
+    public void testBlockUntilReleased() throws Exception {
+        scopeContainer.setMaxSize(1);
+        scopeContainer.setBorrowTimeout(10000);
+        scopeContainer.register(component);
+
+        Object instance = scopeContainer.getInstance(component);
+        CountDownLatch waiting = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> future = executorService.submit(() -> {
+                waiting.countDown();
+                return scopeContainer.getInstance(component);
+            });
+            waiting.await();
+            Thread.sleep(20);
+            scopeContainer.releaseInstance(component, instance);
+            assertSame(instance, future.get(10, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertEquals(1, created.get());
+    }
+
+    public void testCloseWakesWaitingBorrow() throws Exception {
+        scopeContainer.setMaxSize(1);
+        scopeContainer.setBorrowTimeout(60000);
+        scopeContainer.register(component);
+
+        scopeContainer.getInstance(component);
+        CountDownLatch waiting = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> future = executorService.submit(() -> {
+                waiting.countDown();
+                return scopeContainer.getInstance(component);
+            });
+            waiting.await();
+            Thread.sleep(20);
+            scopeContainer.unregister(component);
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof Fabric3Exception);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    public void testComponentPoolConfiguration() throws Exception {
+        scopeContainer.setMinSize(4);
+        scopeContainer.setBorrowTimeout(20);
+        ScopedComponent configured = createComponent(new PoolConfiguration(-1, 2, -1));
+        scopeContainer.register(configured);
+
+        // the runtime minimum is reduced to the component maximum
+        scopeContainer.startContext(URI.create("contribution"));
+        assertEquals(2, created.get());
+
+        scopeContainer.getInstance(configured);
+        scopeContainer.getInstance(configured);
+        try {
+            scopeContainer.getInstance(configured);
+            fail();
+        } catch (Fabric3Exception e) {
+            // expected
+        }
+        assertEquals(2, created.get());
+    }
+
+    public void testComponentIdleTimeout() throws Exception {
+        // eviction is disabled for the runtime but enabled for the component
+        ScopedComponent configured = createComponent(new PoolConfiguration(0, -1, 10));
+        scopeContainer.register(configured);
+        scopeContainer.register(component);
+
+        scopeContainer.releaseInstance(configured, scopeContainer.getInstance(configured));
+        scopeContainer.releaseInstance(component, scopeContainer.getInstance(component));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stopped.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, stopped.get());
+        assertTrue(scopeContainer.getActiveInstances(configured).isEmpty());
+        assertEquals(1, scopeContainer.getActiveInstances(component).size());
+    }
+
+    public void testCreateWhenExhausted() throws Exception {
+        scopeContainer.setMaxSize(1);
+        scopeContainer.setExhaustedPolicy("create");
+        scopeContainer.register(component);
+
+        Object instance1 = scopeContainer.getInstance(component);
+        Object instance2 = scopeContainer.getInstance(component);
+        assertNotSame(instance1, instance2);
+
+        scopeContainer.releaseInstance(component, instance1);
+        scopeContainer.releaseInstance(component, instance2);
+
+        // the overflow instance is destroyed
+        assertEquals(2, created.get());
+        assertEquals(1, stopped.get());
+        assertEquals(1, scopeContainer.getActiveInstances(component).size());
+    }
+
+    public void testIdleEviction() throws Exception {
+        InstancePool pool = new InstancePool(component, 1, 4, 10, 1000, InstancePool.ExhaustedPolicy.BLOCK, null);
+        Object instance1 = pool.borrow();
+        Object instance2 = pool.borrow();
+        Object instance3 = pool.borrow();
+        pool.release(instance1);
+        pool.release(instance2);
+        pool.release(instance3);
+
+        pool.evict(System.currentTimeMillis());
+        assertEquals(3, pool.getIdleCount());
+
+        pool.evict(System.currentTimeMillis() + 1000);
+        assertEquals(1, pool.getSize());
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(2, pool.getDestroyedCount());
+        assertEquals(2, stopped.get());
+    }
+
+    public void testPrefillOnStartContext() throws Exception {
+        scopeContainer.setMinSize(2);
+        scopeContainer.register(component);
+
+        scopeContainer.startContext(URI.create("contribution"));
+
+        assertEquals(2, created.get());
+        assertEquals(2, scopeContainer.getActiveInstances(component).size());
+    }
+
+    public void testUnregisterDestroysInstances() throws Exception {
+        scopeContainer.register(component);
+        Object instance1 = scopeContainer.getInstance(component);
+        Object instance2 = scopeContainer.getInstance(component);
+        scopeContainer.releaseInstance(component, instance1);
+
+        scopeContainer.unregister(component);
+        assertEquals(1, stopped.get());
+
+        // an instance in use is destroyed when released
+        scopeContainer.releaseInstance(component, instance2);
+        assertEquals(2, stopped.get());
+    }
+
+    public void testConcurrentBorrow() throws Exception {
+        scopeContainer.setMaxSize(4);
+        scopeContainer.register(component);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch latch = new CountDownLatch(8);
+            for (int i = 0; i < 8; i++) {
+                executorService.execute(() -> {
+                    try {
+                        for (int j = 0; j < 1000; j++) {
+                            Object instance = scopeContainer.getInstance(component);
+                            scopeContainer.releaseInstance(component, instance);
+                        }
+                    } catch (Fabric3Exception e) {
+                        throw new AssertionError(e);
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertTrue(created.get() <= 4);
+        assertEquals(0, stopped.get());
+    }
+
+    public void testEvictionDoesNotHoldRuntimeThread() throws Exception {
+        ScopedComponent configured = createComponent(new PoolConfiguration(0, -1, 10));
+        scopeContainer.register(configured);
+        scopeContainer.releaseInstance(configured, scopeContainer.getInstance(configured));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stopped.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, stopped.get());
+        assertTrue(runtimeExecutor.getCompletedTaskCount() > 0);
+
+        // eviction passes complete instead of holding a runtime thread while the container is running
+        waitForActiveCount(0);
+        assertEquals(0, runtimeExecutor.getActiveCount());
+    }
+
+    public void testActiveInstancesIncludeBorrowed() throws Exception {
+        scopeContainer.register(component);
+        Object borrowed = scopeContainer.getInstance(component);
+        Object idle = scopeContainer.getInstance(component);
+        scopeContainer.releaseInstance(component, idle);
+
+        List<Object> instances = scopeContainer.getActiveInstances(component);
+        assertEquals(2, instances.size());
+        assertTrue(instances.contains(borrowed));
+        assertTrue(instances.contains(idle));
+
+        scopeContainer.releaseInstance(component, borrowed);
+        scopeContainer.unregister(component);
+        assertTrue(scopeContainer.getActiveInstances(component).isEmpty());
+    }
+
+    public void testPoolExportedAfterCreation() throws Exception {
+        ManagementService managementService = EasyMock.createNiceMock(ManagementService.class);
+        managementService.export(EasyMock.anyString(), EasyMock.anyString(), EasyMock.anyString(), EasyMock.anyObject());
+        EasyMock.expectLastCall().andAnswer(() -> {
+            // the pool is available to callbacks made during export
+            scopeContainer.releaseInstance(component, scopeContainer.getInstance(component));
+            return null;
+        });
+        EasyMock.replay(managementService);
+        scopeContainer.stop();
+        scopeContainer = new PooledScopeContainer(managementService, runtimeExecutor, EasyMock.createNiceMock(ScopeContainerMonitor.class));
+        scopeContainer.setIdleTimeout(0);
+        scopeContainer.start();
+
+        scopeContainer.register(component);
+
+        EasyMock.verify(managementService);
+        assertEquals(1, created.get());
+        assertEquals(1, scopeContainer.getActiveInstances(component).size());
+    }
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        managementService = EasyMock.createNiceMock(ManagementService.class);
+        EasyMock.replay(managementService);
+        runtimeExecutor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+        scopeContainer = new PooledScopeContainer(managementService, runtimeExecutor, EasyMock.createNiceMock(ScopeContainerMonitor.class));
+        scopeContainer.setIdleTimeout(0);
+
+        created = new AtomicInteger();
+        stopped = new AtomicInteger();
+        component = createComponent(null);
+        scopeContainer.start();
+    }
+
+    private ScopedComponent createComponent(PoolConfiguration configuration) {
+        ScopedComponent component = EasyMock.createNiceMock(ScopedComponent.class);
+        EasyMock.expect(component.getUri()).andReturn(URI.create(configuration == null ? "component" : "configured")).anyTimes();
+        EasyMock.expect(component.getContributionUri()).andReturn(URI.create("contribution")).anyTimes();
+        EasyMock.expect(component.getPoolConfiguration()).andReturn(configuration).anyTimes();
+        EasyMock.expect(component.createInstance()).andAnswer(() -> {
+            created.incrementAndGet();
+            return new Object();
+        }).anyTimes();
+        component.stopInstance(EasyMock.anyObject());
+        EasyMock.expectLastCall().andAnswer(() -> {
+            stopped.incrementAndGet();
+            return null;
+        }).anyTimes();
+        EasyMock.replay(component);
+        return component;
+    }
+
+    private void waitForActiveCount(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (runtimeExecutor.getActiveCount() != count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        scopeContainer.stop();
+        runtimeExecutor.shutdownNow();
+    }
+}
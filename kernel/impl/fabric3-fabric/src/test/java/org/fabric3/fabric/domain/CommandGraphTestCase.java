@@ -0,0 +1,138 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.fabric.domain;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.fabric3.fabric.container.command.AttachWireCommand;
+import org.fabric3.fabric.container.command.BuildComponentCommand;
+import org.fabric3.fabric.container.command.Command;
+import org.fabric3.fabric.container.command.ConnectionCommand;
+import org.fabric3.fabric.container.command.StartComponentCommand;
+import org.fabric3.fabric.container.command.StartContextCommand;
+import org.fabric3.spi.model.physical.PhysicalComponent;
+import org.fabric3.spi.model.physical.PhysicalWire;
+import org.fabric3.spi.model.physical.PhysicalWireSource;
+import org.fabric3.spi.model.physical.PhysicalWireTarget;
+
+/**
+ *
+ */
+public class CommandGraphTestCase extends TestCase {
+
+    public void testIndependentComponentsInSameStage() {
+        Command buildA = build("A");
+        Command buildB = build("B");
+
+        List<List<Command>> stages = CommandGraph.getStages(Arrays.asList(buildA, buildB));
+
+        assertEquals(1, stages.size());
+        assertEquals(Arrays.asList(buildA, buildB), stages.get(0));
+    }
+
+    public void testWireDependsOnSourceAndTarget() {
+        Command buildA = build("A");
+        Command buildB = build("B");
+        Command buildC = build("C");
+        Command connectA = connect("A", "B");
+        Command connectC = connect("C", "C");
+
+        List<List<Command>> stages = CommandGraph.getStages(Arrays.asList(buildA, buildB, buildC, connectA, connectC));
+
+        assertEquals(2, stages.size());
+        assertEquals(Arrays.asList(buildA, buildB, buildC), stages.get(0));
+        assertEquals(Arrays.asList(connectA, connectC), stages.get(1));
+    }
+
+    public void testSameComponentOrdered() {
+        Command connect1 = connect("A", "B");
+        Command connect2 = connect("C", "B");
+
+        List<List<Command>> stages = CommandGraph.getStages(Arrays.asList(connect1, connect2));
+
+        assertEquals(2, stages.size());
+        assertEquals(Collections.singletonList(connect1), stages.get(0));
+        assertEquals(Collections.singletonList(connect2), stages.get(1));
+    }
+
+    public void testStartCommandsIsolated() {
+        Command buildA = build("A");
+        Command startA = new StartComponentCommand(URI.create("A"));
+        Command startB = new StartComponentCommand(URI.create("B"));
+        Command buildC = build("C");
+        Command startContext = new StartContextCommand(URI.create("contribution"), false);
+
+        List<List<Command>> stages = CommandGraph.getStages(Arrays.asList(buildA, startA, startB, buildC, startContext));
+
+        assertEquals(5, stages.size());
+        assertEquals(Collections.singletonList(buildA), stages.get(0));
+        assertEquals(Collections.singletonList(startA), stages.get(1));
+        assertEquals(Collections.singletonList(startB), stages.get(2));
+        // commands following an isolated command may not move ahead of it
+        assertEquals(Collections.singletonList(buildC), stages.get(3));
+        assertEquals(Collections.singletonList(startContext), stages.get(4));
+    }
+
+    public void testUnresolvedWireIsolated() {
+        Command buildA = build("A");
+        ConnectionCommand connect = new ConnectionCommand(URI.create("B"));
+        AttachWireCommand attach = new AttachWireCommand();
+        attach.setPhysicalWireDefinition(new PhysicalWire(new MockWireSource(null), new MockWireTarget(null), Collections.emptySet()));
+        connect.add(attach);
+        Command buildC = build("C");
+
+        List<List<Command>> stages = CommandGraph.getStages(Arrays.asList(buildA, connect, buildC));
+
+        assertEquals(3, stages.size());
+    }
+
+    private Command build(String name) {
+        return new BuildComponentCommand(new MockComponent(URI.create(name)));
+    }
+
+    private Command connect(String source, String target) {
+        ConnectionCommand command = new ConnectionCommand(URI.create(source));
+        AttachWireCommand attach = new AttachWireCommand();
+        MockWireSource wireSource = new MockWireSource(URI.create(source + "#reference"));
+        MockWireTarget wireTarget = new MockWireTarget(URI.create(target + "#service"));
+        attach.setPhysicalWireDefinition(new PhysicalWire(wireSource, wireTarget, Collections.emptySet()));
+        command.add(attach);
+        return command;
+    }
+
+    private class MockComponent extends PhysicalComponent {
+        private MockComponent(URI uri) {
+            setComponentUri(uri);
+        }
+    }
+
+    private class MockWireSource extends PhysicalWireSource {
+        private MockWireSource(URI uri) {
+            setUri(uri);
+        }
+    }
+
+    private class MockWireTarget extends PhysicalWireTarget {
+        private MockWireTarget(URI uri) {
+            setUri(uri);
+        }
+    }
+}
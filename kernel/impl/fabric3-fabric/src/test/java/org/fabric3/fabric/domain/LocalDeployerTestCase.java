@@ -0,0 +1,228 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.fabric.domain;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+import org.fabric3.api.host.Fabric3Exception;
+import org.fabric3.fabric.container.command.BuildComponentCommand;
+import org.fabric3.fabric.container.command.Command;
+import org.fabric3.fabric.container.command.CommandExecutor;
+import org.fabric3.fabric.container.command.CommandExecutorRegistry;
+import org.fabric3.fabric.container.command.DisposeComponentCommand;
+import org.fabric3.fabric.container.command.StartComponentCommand;
+import org.fabric3.fabric.domain.generator.Deployment;
+import org.fabric3.fabric.runtime.event.EventServiceImpl;
+import org.fabric3.spi.model.physical.PhysicalComponent;
+import org.fabric3.spi.runtime.event.DeploymentCompleted;
+
+/**
+ *
+ */
+public class LocalDeployerTestCase extends TestCase {
+    private StubRegistry registry;
+    private LocalDeployer deployer;
+
+    public void testIndependentCommandsExecutedConcurrently() {
+        CountDownLatch latch = new CountDownLatch(2);
+        registry.executor = command -> {
+            latch.countDown();
+            try {
+                // each build waits for the other, which only completes if they are executed concurrently
+                if (!latch.await(10, TimeUnit.SECONDS)) {
+                    throw new Fabric3Exception("Commands not executed concurrently");
+                }
+            } catch (InterruptedException e) {
+                throw new Fabric3Exception(e);
+            }
+        };
+        Deployment deployment = new Deployment();
+        deployment.addCommand(build("A"));
+        deployment.addCommand(build("B"));
+
+        deployer.deploy(deployment);
+
+        assertEquals(2, registry.executed.size());
+    }
+
+    public void testStartCommandsExecutedInOrder() {
+        Deployment deployment = new Deployment();
+        BuildComponentCommand buildA = build("A");
+        BuildComponentCommand buildB = build("B");
+        StartComponentCommand startB = new StartComponentCommand(URI.create("B"));
+        StartComponentCommand startA = new StartComponentCommand(URI.create("A"));
+        deployment.addCommand(buildA);
+        deployment.addCommand(buildB);
+        deployment.addCommand(startB);
+        deployment.addCommand(startA);
+
+        deployer.deploy(deployment);
+
+        List<Command> executed = registry.executed;
+        assertEquals(4, executed.size());
+        assertTrue(executed.subList(0, 2).containsAll(Arrays.asList(buildA, buildB)));
+        assertSame(startB, executed.get(2));
+        assertSame(startA, executed.get(3));
+    }
+
+    public void testRollbackCompletedCommandsOnly() {
+        BuildComponentCommand buildA = build("A");
+        BuildComponentCommand buildB = build("B");
+        BuildComponentCommand buildC = build("C");
+        StartComponentCommand startA = new StartComponentCommand(URI.create("A"));
+        registry.executor = command -> {
+            if (command == buildB) {
+                throw new Fabric3Exception("Expected");
+            }
+        };
+        Deployment deployment = new Deployment();
+        deployment.addCommand(buildA);
+        deployment.addCommand(buildB);
+        deployment.addCommand(buildC);
+        deployment.addCommand(startA);
+
+        try {
+            deployer.deploy(deployment);
+            fail();
+        } catch (Fabric3Exception e) {
+            assertEquals("Expected", e.getMessage());
+        }
+
+        List<URI> disposed = new ArrayList<>();
+        for (Command command : registry.executed) {
+            assertNotSame(startA, command);
+            if (command instanceof DisposeComponentCommand) {
+                disposed.add(((DisposeComponentCommand) command).getComponent().getComponentUri());
+            }
+        }
+        assertEquals(2, disposed.size());
+        assertTrue(disposed.contains(URI.create("A")));
+        assertTrue(disposed.contains(URI.create("C")));
+    }
+
+    public void testSequential() {
+        deployer.setSequential(true);
+        Thread caller = Thread.currentThread();
+        registry.executor = command -> assertSame(caller, Thread.currentThread());
+        Deployment deployment = new Deployment();
+        deployment.addCommand(build("A"));
+        deployment.addCommand(build("B"));
+
+        deployer.deploy(deployment);
+
+        assertEquals(2, registry.executed.size());
+    }
+
+    public void testSequentialRollbackInReverseOrder() {
+        deployer.setSequential(true);
+        BuildComponentCommand buildA = build("A");
+        BuildComponentCommand buildB = build("B");
+        StartComponentCommand startA = new StartComponentCommand(URI.create("A"));
+        registry.executor = command -> {
+            if (command == startA) {
+                throw new Fabric3Exception("Expected");
+            }
+        };
+        Deployment deployment = new Deployment();
+        deployment.addCommand(buildA);
+        deployment.addCommand(buildB);
+        deployment.addCommand(startA);
+
+        try {
+            deployer.deploy(deployment);
+            fail();
+        } catch (Fabric3Exception e) {
+            // expected
+        }
+
+        List<Command> executed = registry.executed;
+        assertEquals(5, executed.size());
+        assertEquals(new DisposeComponentCommand(buildB.getComponent()), executed.get(3));
+        assertEquals(new DisposeComponentCommand(buildA.getComponent()), executed.get(4));
+    }
+
+    public void testCompletionErrorRollsBack() {
+        EventServiceImpl eventService = new EventServiceImpl();
+        AtomicInteger published = new AtomicInteger();
+        eventService.subscribe(DeploymentCompleted.class, event -> {
+            if (published.incrementAndGet() == 1) {
+                throw new Fabric3Exception("Expected");
+            }
+        });
+        deployer.setEventService(eventService);
+        BuildComponentCommand buildA = build("A");
+        Deployment deployment = new Deployment();
+        deployment.addCommand(buildA);
+
+        try {
+            deployer.deploy(deployment);
+            fail();
+        } catch (Fabric3Exception e) {
+            assertEquals("Expected", e.getMessage());
+        }
+
+        // the event is published again after the rollback
+        assertEquals(2, published.get());
+        assertEquals(2, registry.executed.size());
+        assertEquals(new DisposeComponentCommand(buildA.getComponent()), registry.executed.get(1));
+    }
+
+    private BuildComponentCommand build(String name) {
+        return new BuildComponentCommand(new MockComponent(URI.create(name)));
+    }
+
+    public void setUp() throws Exception {
+        super.setUp();
+        registry = new StubRegistry();
+        deployer = new LocalDeployer(registry, null);
+        deployer.setSequential(false);
+        deployer.setParallelism(2);
+    }
+
+    public void tearDown() throws Exception {
+        super.tearDown();
+        deployer.destroy();
+    }
+
+    private class MockComponent extends PhysicalComponent {
+        private MockComponent(URI uri) {
+            setComponentUri(uri);
+        }
+    }
+
+    private class StubRegistry implements CommandExecutorRegistry {
+        private List<Command> executed = Collections.synchronizedList(new ArrayList<>());
+        private CommandExecutor<Command> executor = command -> {
+        };
+
+        public <T extends Command> void register(Class<T> type, CommandExecutor<T> executor) {
+        }
+
+        public <T extends Command> void execute(T command) {
+            executed.add(command);
+            executor.execute(command);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import junit.framework.TestCase;
 import org.easymock.EasyMock;
 import org.easymock.IAnswer;
 import org.easymock.IMocksControl;
+import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.host.Names;
 import org.fabric3.api.host.runtime.DefaultHostInfoBuilder;
 import org.fabric3.api.host.runtime.HostInfo;
@@ -41,7 +42,9 @@ import org.fabric3.fabric.domain.instantiator.InstantiationContext;
 import org.fabric3.fabric.domain.instantiator.LogicalModelInstantiator;
 import org.fabric3.spi.contribution.Contribution;
 import org.fabric3.spi.contribution.MetaDataStore;
+import org.fabric3.spi.model.instance.LogicalComponent;
 import org.fabric3.spi.model.instance.LogicalCompositeComponent;
+import org.fabric3.spi.model.instance.LogicalState;
 
 /**
  *
@@ -118,6 +121,33 @@ public class RuntimeDomainTestCase extends TestCase {
         control.verify();
     }
 
+    public void testFailedUndeployRetainsComponents() throws Exception {
+        IAnswer<InstantiationContext> answer = DomainTestCaseHelper.createAnswer(component);
+        EasyMock.expect(instantiator.include(EasyMock.eq(composite), EasyMock.isA(LogicalCompositeComponent.class))).andStubAnswer(answer);
+
+        Deployment deployment = new Deployment();
+        EasyMock.expect(generator.generate(EasyMock.isA(LogicalCompositeComponent.class))).andReturn(deployment).times(2);
+        deployer.deploy(EasyMock.isA(Deployment.class));
+        deployer.deploy(EasyMock.isA(Deployment.class));
+        EasyMock.expectLastCall().andThrow(new Fabric3Exception("Expected"));
+        control.replay();
+
+        domain.include(composite);
+
+        try {
+            domain.undeploy(composite);
+            fail();
+        } catch (Fabric3Exception e) {
+            assertEquals("Expected", e.getMessage());
+        }
+        // the deployer reversed the undeployment so the component must remain in the logical model
+        LogicalComponent<?> logicalComponent = lcm.getDomainComposite().getComponent(COMPONENT_URI);
+        assertNotNull(logicalComponent);
+        assertEquals(LogicalState.PROVISIONED, logicalComponent.getState());
+        assertTrue(lcm.getDomainComposite().getChangedComponents().isEmpty());
+        control.verify();
+    }
+
     @Override
     protected void setUp() throws Exception {
         super.setUp();
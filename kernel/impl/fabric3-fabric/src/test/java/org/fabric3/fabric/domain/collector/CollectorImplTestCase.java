@@ -276,6 +276,38 @@ public class CollectorImplTestCase extends TestCase {
         assertTrue(domain.getWires().isEmpty());
     }
 
+    public void testChangedComponentsClearedWhenProvisioned() {
+        LogicalCompositeComponent domain = createDomain(LogicalState.NEW);
+        assertFalse(domain.getChangedComponents().isEmpty());
+
+        collector.markAsProvisioned(domain);
+
+        assertTrue(domain.getChangedComponents().isEmpty());
+    }
+
+    public void testMarkRecordsChangedComponents() {
+        LogicalCompositeComponent domain = new LogicalCompositeComponent(URI.create("domain"), null, null);
+        URI child1Uri = URI.create("child1");
+        createComponent(child1Uri, CONTRIBUTION_2, LogicalState.PROVISIONED, domain);
+        URI child2Uri = URI.create("child2");
+        createComponent(child2Uri, CONTRIBUTION_1, LogicalState.PROVISIONED, domain);
+        URI child3Uri = URI.create("child3");
+        createComponent(child3Uri, CONTRIBUTION_2, LogicalState.PROVISIONED, domain);
+        createWire(child1Uri, child2Uri, CONTRIBUTION_2, LogicalState.PROVISIONED, domain);
+        domain.clearChangedComponents();
+
+        collector.markForCollection(CONTRIBUTION_1, domain);
+
+        // the marked component and the source of the wire to it must be regenerated; the unrelated component must not
+        assertTrue(domain.getChangedComponents().contains(domain.getComponent(child1Uri)));
+        assertTrue(domain.getChangedComponents().contains(domain.getComponent(child2Uri)));
+        assertFalse(domain.getChangedComponents().contains(domain.getComponent(child3Uri)));
+
+        collector.collect(domain);
+
+        assertTrue(domain.getChangedComponents().isEmpty());
+    }
+
     private void verifyDeployable1Collected(LogicalCompositeComponent domain) {
         for (LogicalComponent<?> component : domain.getComponents()) {
             if (CONTRIBUTION_1.equals(component.getDefinition().getContributionUri())) {
@@ -0,0 +1,158 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.fabric.domain.generator.impl;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.model.type.component.Component;
+import org.fabric3.fabric.container.command.Command;
+import org.fabric3.fabric.domain.collector.Collector;
+import org.fabric3.fabric.domain.collector.CollectorImpl;
+import org.fabric3.fabric.domain.generator.CommandGenerator;
+import org.fabric3.fabric.domain.generator.context.StartContextCommandGenerator;
+import org.fabric3.fabric.domain.generator.context.StopContextCommandGenerator;
+import org.fabric3.spi.model.instance.LogicalComponent;
+import org.fabric3.spi.model.instance.LogicalCompositeComponent;
+import org.fabric3.spi.model.instance.LogicalReference;
+import org.fabric3.spi.model.instance.LogicalService;
+import org.fabric3.spi.model.instance.LogicalState;
+import org.fabric3.spi.model.instance.LogicalWire;
+
+/**
+ * Measures deployment generation time as the number of components in the domain grows. Each run deploys a domain of N wired components and then times an
+ * incremental deployment of a small number of components, comparing generation over the changed components with a full walk of the domain. The benchmark
+ * only reports timings and is run with the benchmark task.
+ */
+public class GeneratorImplBenchmark extends TestCase {
+    private static final int[] SIZES = {1000, 5000, 10000, 20000, 50000};
+    private static final int INCREMENT = 10;
+    private static final URI CONTRIBUTION = URI.create("contribution");
+
+    private GeneratorImpl generator;
+    private Collector collector;
+
+    public void testGenerate() {
+        // warm up the JIT
+        run(1000, false);
+
+        for (int size : SIZES) {
+            run(size, true);
+        }
+    }
+
+    private void run(int size, boolean print) {
+        LogicalCompositeComponent domain = new LogicalCompositeComponent(URI.create("domain"), null, null);
+        addComponents(domain, 0, size);
+
+        long start = System.nanoTime();
+        generator.generate(domain);
+        long initial = System.nanoTime() - start;
+        collector.markAsProvisioned(domain);
+
+        addComponents(domain, size, INCREMENT);
+        start = System.nanoTime();
+        int incrementalCommands = generator.generate(domain).getCommands().size();
+        long incremental = System.nanoTime() - start;
+
+        // simulate the previous behavior of visiting every component in the domain
+        domain.getComponents().forEach(domain::addChangedComponent);
+        start = System.nanoTime();
+        generator.generate(domain);
+        long full = System.nanoTime() - start;
+        collector.markAsProvisioned(domain);
+
+        assertEquals(INCREMENT, incrementalCommands);
+        if (print) {
+            System.out.println(String.format("%,d components: initial %,d us, incremental (%d components) %,d us, full walk %,d us",
+                                             size,
+                                             initial / 1000,
+                                             INCREMENT,
+                                             incremental / 1000,
+                                             full / 1000));
+        }
+    }
+
+    private void addComponents(LogicalCompositeComponent domain, int offset, int count) {
+        LogicalComponent<?> previous = null;
+        for (int i = offset; i < offset + count; i++) {
+            URI uri = URI.create("domain/component" + i);
+            LogicalComponent<?> component = new LogicalComponent<>(uri, new Component<>("component" + i), domain);
+            LogicalService service = new LogicalService(URI.create(uri + "#service"), null, component);
+            component.addService(service);
+            LogicalReference reference = new LogicalReference(URI.create(uri + "#reference"), null, component);
+            component.addReference(reference);
+            domain.addComponent(component);
+            if (previous != null) {
+                // wire each component to the one created before it
+                domain.addWire(reference, new LogicalWire(domain, reference, previous.getService("service"), CONTRIBUTION));
+            }
+            previous = component;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        super.setUp();
+        StartContextCommandGenerator startGenerator = EasyMock.createMock(StartContextCommandGenerator.class);
+        EasyMock.expect(startGenerator.generate(EasyMock.isA(List.class))).andReturn(Collections.emptyList()).anyTimes();
+        StopContextCommandGenerator stopGenerator = EasyMock.createMock(StopContextCommandGenerator.class);
+        EasyMock.expect(stopGenerator.generate(EasyMock.isA(List.class))).andReturn(Collections.emptyList()).anyTimes();
+        EasyMock.replay(startGenerator, stopGenerator);
+
+        List<CommandGenerator> generators = Collections.singletonList(new BuildGenerator());
+        generator = new GeneratorImpl(generators, startGenerator, stopGenerator);
+        collector = new CollectorImpl();
+    }
+
+    /**
+     * Generates a command for new components, mirroring the state checks performed by the build component generator.
+     */
+    private static class BuildGenerator implements CommandGenerator<BuildCommand> {
+
+        public int getOrder() {
+            return BUILD_COMPONENTS;
+        }
+
+        public Optional<BuildCommand> generate(LogicalComponent<?> component) {
+            if (component.getState() != LogicalState.NEW) {
+                return Optional.empty();
+            }
+            return Optional.of(new BuildCommand(component.getUri()));
+        }
+    }
+
+    private static class BuildCommand implements Command {
+        private URI uri;
+
+        public BuildCommand(URI uri) {
+            this.uri = uri;
+        }
+
+        public boolean equals(Object o) {
+            return this == o || (o instanceof BuildCommand && uri.equals(((BuildCommand) o).uri));
+        }
+
+        public int hashCode() {
+            return uri.hashCode();
+        }
+    }
+}
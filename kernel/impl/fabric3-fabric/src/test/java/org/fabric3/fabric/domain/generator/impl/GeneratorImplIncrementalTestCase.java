@@ -0,0 +1,152 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.fabric.domain.generator.impl;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.model.type.component.Component;
+import org.fabric3.fabric.container.command.Command;
+import org.fabric3.fabric.domain.collector.Collector;
+import org.fabric3.fabric.domain.collector.CollectorImpl;
+import org.fabric3.fabric.domain.generator.CommandGenerator;
+import org.fabric3.fabric.domain.generator.context.StartContextCommandGenerator;
+import org.fabric3.fabric.domain.generator.context.StopContextCommandGenerator;
+import org.fabric3.spi.model.instance.LogicalComponent;
+import org.fabric3.spi.model.instance.LogicalCompositeComponent;
+import org.fabric3.spi.model.instance.LogicalReference;
+import org.fabric3.spi.model.instance.LogicalService;
+import org.fabric3.spi.model.instance.LogicalState;
+import org.fabric3.spi.model.instance.LogicalWire;
+
+/**
+ * Verifies that an incremental deployment to a domain of provisioned, wired components only visits the components added by the deployment.
+ */
+public class GeneratorImplIncrementalTestCase extends TestCase {
+    private static final int SIZE = 1000;
+    private static final int INCREMENT = 10;
+    private static final URI CONTRIBUTION = URI.create("contribution");
+
+    private BuildGenerator buildGenerator;
+    private GeneratorImpl generator;
+    private Collector collector;
+
+    public void testIncrementalDeploymentVisitsChangedComponents() {
+        LogicalCompositeComponent domain = new LogicalCompositeComponent(URI.create("domain"), null, null);
+        addComponents(domain, 0, SIZE);
+
+        assertEquals(SIZE, generator.generate(domain).getCommands().size());
+        assertEquals(SIZE, buildGenerator.visited.size());
+        collector.markAsProvisioned(domain);
+        buildGenerator.visited.clear();
+
+        List<LogicalComponent<?>> added = addComponents(domain, SIZE, INCREMENT);
+        int commands = generator.generate(domain).getCommands().size();
+
+        assertEquals(INCREMENT, commands);
+        assertEquals(INCREMENT, buildGenerator.visited.size());
+        assertEquals(new HashSet<>(added), new HashSet<>(buildGenerator.visited));
+    }
+
+    public void testNoChangesVisitsNoComponents() {
+        LogicalCompositeComponent domain = new LogicalCompositeComponent(URI.create("domain"), null, null);
+        addComponents(domain, 0, SIZE);
+        generator.generate(domain);
+        collector.markAsProvisioned(domain);
+        buildGenerator.visited.clear();
+
+        assertTrue(generator.generate(domain).getCommands().isEmpty());
+        assertTrue(buildGenerator.visited.isEmpty());
+    }
+
+    private List<LogicalComponent<?>> addComponents(LogicalCompositeComponent domain, int offset, int count) {
+        List<LogicalComponent<?>> components = new ArrayList<>();
+        LogicalComponent<?> previous = null;
+        for (int i = offset; i < offset + count; i++) {
+            URI uri = URI.create("domain/component" + i);
+            LogicalComponent<?> component = new LogicalComponent<>(uri, new Component<>("component" + i), domain);
+            LogicalService service = new LogicalService(URI.create(uri + "#service"), null, component);
+            component.addService(service);
+            LogicalReference reference = new LogicalReference(URI.create(uri + "#reference"), null, component);
+            component.addReference(reference);
+            domain.addComponent(component);
+            if (previous != null) {
+                // wire each component to the one created before it
+                domain.addWire(reference, new LogicalWire(domain, reference, previous.getService("service"), CONTRIBUTION));
+            }
+            previous = component;
+            components.add(component);
+        }
+        return components;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        super.setUp();
+        StartContextCommandGenerator startGenerator = EasyMock.createMock(StartContextCommandGenerator.class);
+        EasyMock.expect(startGenerator.generate(EasyMock.isA(List.class))).andReturn(Collections.emptyList()).anyTimes();
+        StopContextCommandGenerator stopGenerator = EasyMock.createMock(StopContextCommandGenerator.class);
+        EasyMock.expect(stopGenerator.generate(EasyMock.isA(List.class))).andReturn(Collections.emptyList()).anyTimes();
+        EasyMock.replay(startGenerator, stopGenerator);
+
+        buildGenerator = new BuildGenerator();
+        List<CommandGenerator> generators = Collections.singletonList(buildGenerator);
+        generator = new GeneratorImpl(generators, startGenerator, stopGenerator);
+        collector = new CollectorImpl();
+    }
+
+    /**
+     * Generates a command for new components, mirroring the state checks performed by the build component generator, and records the components visited.
+     */
+    private static class BuildGenerator implements CommandGenerator<BuildCommand> {
+        private List<LogicalComponent<?>> visited = new ArrayList<>();
+
+        public int getOrder() {
+            return BUILD_COMPONENTS;
+        }
+
+        public Optional<BuildCommand> generate(LogicalComponent<?> component) {
+            visited.add(component);
+            if (component.getState() != LogicalState.NEW) {
+                return Optional.empty();
+            }
+            return Optional.of(new BuildCommand(component.getUri()));
+        }
+    }
+
+    private static class BuildCommand implements Command {
+        private URI uri;
+
+        public BuildCommand(URI uri) {
+            this.uri = uri;
+        }
+
+        public boolean equals(Object o) {
+            return this == o || (o instanceof BuildCommand && uri.equals(((BuildCommand) o).uri));
+        }
+
+        public int hashCode() {
+            return uri.hashCode();
+        }
+    }
+}
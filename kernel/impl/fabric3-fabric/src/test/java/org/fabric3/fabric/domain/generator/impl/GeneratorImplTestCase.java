@@ -0,0 +1,167 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.fabric.domain.generator.impl;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.fabric3.api.model.type.component.Component;
+import org.fabric3.fabric.container.command.Command;
+import org.fabric3.fabric.domain.generator.CommandGenerator;
+import org.fabric3.fabric.domain.generator.Deployment;
+import org.fabric3.fabric.domain.generator.context.StartContextCommandGenerator;
+import org.fabric3.fabric.domain.generator.context.StopContextCommandGenerator;
+import org.fabric3.spi.model.instance.LogicalComponent;
+import org.fabric3.spi.model.instance.LogicalCompositeComponent;
+import org.fabric3.spi.model.instance.LogicalReference;
+import org.fabric3.spi.model.instance.LogicalService;
+import org.fabric3.spi.model.instance.LogicalState;
+import org.fabric3.spi.model.instance.LogicalWire;
+
+/**
+ *
+ */
+public class GeneratorImplTestCase extends TestCase {
+    private RecordingGenerator commandGenerator;
+    private GeneratorImpl generator;
+    private LogicalCompositeComponent domain;
+
+    public void testGenerateOnlyChangedComponents() {
+        LogicalComponent<?> provisioned = createComponent("provisioned");
+        domain.clearChangedComponents();
+        provisioned.setState(LogicalState.PROVISIONED);
+
+        LogicalComponent<?> component = createComponent("component");
+
+        generator.generate(domain);
+
+        assertEquals(Collections.singletonList(component), commandGenerator.visited);
+    }
+
+    public void testGenerateWireSourceAndTarget() {
+        LogicalComponent<?> source = createComponent("source");
+        LogicalComponent<?> target = createComponent("target");
+        LogicalComponent<?> other = createComponent("other");
+        domain.clearChangedComponents();
+
+        LogicalReference reference = source.getReference("reference");
+        LogicalService service = target.getService("service");
+        domain.addWire(reference, new LogicalWire(domain, reference, service, URI.create("contribution")));
+
+        generator.generate(domain);
+
+        assertTrue(commandGenerator.visited.contains(source));
+        assertTrue(commandGenerator.visited.contains(target));
+        assertFalse(commandGenerator.visited.contains(other));
+    }
+
+    public void testSkipRemovedComponents() {
+        LogicalComponent<?> component = createComponent("component");
+        domain.removeComponent(component.getUri());
+
+        generator.generate(domain);
+
+        assertTrue(commandGenerator.visited.isEmpty());
+    }
+
+    public void testDuplicateCommandsRemovedInOrder() {
+        createComponent("component1");
+        createComponent("component2");
+        createComponent("component3");
+        commandGenerator.shared = new NamedCommand("shared");
+
+        Deployment deployment = generator.generate(domain);
+
+        List<Command> commands = deployment.getCommands();
+        assertEquals(1, commands.size());
+        assertSame(commandGenerator.shared, commands.get(0));
+    }
+
+    public void testCommandsInInsertionOrder() {
+        createComponent("component1");
+        createComponent("component2");
+        createComponent("component3");
+
+        Deployment deployment = generator.generate(domain);
+
+        List<Command> commands = deployment.getCommands();
+        assertEquals(3, commands.size());
+        assertEquals(new NamedCommand("component1"), commands.get(0));
+        assertEquals(new NamedCommand("component2"), commands.get(1));
+        assertEquals(new NamedCommand("component3"), commands.get(2));
+    }
+
+    private LogicalComponent<?> createComponent(String name) {
+        URI uri = URI.create("domain/" + name);
+        LogicalComponent<?> component = new LogicalComponent<>(uri, new Component<>(name), domain);
+        component.addService(new LogicalService(URI.create(uri + "#service"), null, component));
+        component.addReference(new LogicalReference(URI.create(uri + "#reference"), null, component));
+        domain.addComponent(component);
+        return component;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        super.setUp();
+        domain = new LogicalCompositeComponent(URI.create("domain"), null, null);
+
+        StartContextCommandGenerator startGenerator = EasyMock.createMock(StartContextCommandGenerator.class);
+        EasyMock.expect(startGenerator.generate(EasyMock.isA(List.class))).andReturn(Collections.emptyList()).anyTimes();
+        StopContextCommandGenerator stopGenerator = EasyMock.createMock(StopContextCommandGenerator.class);
+        EasyMock.expect(stopGenerator.generate(EasyMock.isA(List.class))).andReturn(Collections.emptyList()).anyTimes();
+        EasyMock.replay(startGenerator, stopGenerator);
+
+        commandGenerator = new RecordingGenerator();
+        List<CommandGenerator> generators = Collections.singletonList(commandGenerator);
+        generator = new GeneratorImpl(generators, startGenerator, stopGenerator);
+    }
+
+    private static class RecordingGenerator implements CommandGenerator<NamedCommand> {
+        private List<LogicalComponent<?>> visited = new ArrayList<>();
+        private NamedCommand shared;
+
+        public int getOrder() {
+            return BUILD_COMPONENTS;
+        }
+
+        public Optional<NamedCommand> generate(LogicalComponent<?> component) {
+            visited.add(component);
+            return Optional.of(shared != null ? shared : new NamedCommand(component.getDefinition().getName()));
+        }
+    }
+
+    private static class NamedCommand implements Command {
+        private String name;
+
+        public NamedCommand(String name) {
+            this.name = name;
+        }
+
+        public boolean equals(Object o) {
+            return this == o || (o instanceof NamedCommand && name.equals(((NamedCommand) o).name));
+        }
+
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+}
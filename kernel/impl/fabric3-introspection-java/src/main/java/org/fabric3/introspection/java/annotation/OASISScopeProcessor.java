@@ -25,6 +25,7 @@ import org.fabric3.spi.introspection.java.annotation.AbstractAnnotationProcessor
 import org.oasisopen.sca.annotation.Scope;
 import static org.fabric3.api.model.type.component.Scope.COMPOSITE;
 import static org.fabric3.api.model.type.component.Scope.DOMAIN;
+import static org.fabric3.api.model.type.component.Scope.POOLED;
 import static org.fabric3.api.model.type.component.Scope.STATELESS;
 
 /**
@@ -38,7 +39,8 @@ public class OASISScopeProcessor extends AbstractAnnotationProcessor<Scope> {
 
     public void visitType(Scope annotation, Class<?> type, InjectingComponentType componentType, IntrospectionContext context) {
         String scopeName = annotation.value();
-        if (!COMPOSITE.getScope().equals(scopeName) && !STATELESS.getScope().equals(scopeName) && !DOMAIN.getScope().equals(scopeName)) {
+        if (!COMPOSITE.getScope().equals(scopeName) && !STATELESS.getScope().equals(scopeName) && !DOMAIN.getScope().equals(scopeName)
+            && !POOLED.getScope().equals(scopeName)) {
             InvalidScope failure = new InvalidScope(type, scopeName, componentType);
             context.addError(failure);
             return;
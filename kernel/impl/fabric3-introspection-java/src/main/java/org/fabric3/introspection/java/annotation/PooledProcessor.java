@@ -0,0 +1,38 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.introspection.java.annotation;
+
+import org.fabric3.api.annotation.scope.Pooled;
+import org.fabric3.api.model.type.java.InjectingComponentType;
+import org.fabric3.api.model.type.java.PoolConfiguration;
+import org.fabric3.spi.introspection.IntrospectionContext;
+import org.fabric3.spi.introspection.java.annotation.AbstractAnnotationProcessor;
+
+/**
+ *
+ */
+public class PooledProcessor extends AbstractAnnotationProcessor<Pooled> {
+
+    public PooledProcessor() {
+        super(Pooled.class);
+    }
+
+    public void visitType(Pooled annotation, Class<?> type, InjectingComponentType componentType, IntrospectionContext context) {
+        componentType.setScope(org.fabric3.api.model.type.component.Scope.POOLED);
+        componentType.setPoolConfiguration(new PoolConfiguration(annotation.minSize(), annotation.maxSize(), annotation.idleTimeout()));
+    }
+}
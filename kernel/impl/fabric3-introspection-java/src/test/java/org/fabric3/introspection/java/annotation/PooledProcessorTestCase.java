@@ -0,0 +1,64 @@
+/*
+ * Fabric3
+ * Copyright (c) 2009-2015 Metaform Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fabric3.introspection.java.annotation;
+
+import junit.framework.TestCase;
+import org.fabric3.api.annotation.scope.Pooled;
+import org.fabric3.api.model.type.component.Scope;
+import org.fabric3.api.model.type.java.InjectingComponentType;
+import org.fabric3.api.model.type.java.PoolConfiguration;
+
+public class PooledProcessorTestCase extends TestCase {
+
+    public void testScopeIdentification() throws Exception {
+        Pooled annotation = PooledAnnotated.class.getAnnotation(Pooled.class);
+        PooledProcessor processor = new PooledProcessor();
+        InjectingComponentType type = new InjectingComponentType();
+
+        processor.visitType(annotation, PooledAnnotated.class, type, null);
+
+        assertEquals(Scope.POOLED, type.getScope());
+        PoolConfiguration configuration = type.getPoolConfiguration();
+        assertTrue(configuration.getMinSize() < 0);
+        assertTrue(configuration.getMaxSize() < 0);
+        assertTrue(configuration.getIdleTimeout() < 0);
+    }
+
+    public void testPoolConfiguration() throws Exception {
+        Pooled annotation = ConfiguredPooledAnnotated.class.getAnnotation(Pooled.class);
+        PooledProcessor processor = new PooledProcessor();
+        InjectingComponentType type = new InjectingComponentType();
+
+        processor.visitType(annotation, ConfiguredPooledAnnotated.class, type, null);
+
+        PoolConfiguration configuration = type.getPoolConfiguration();
+        assertEquals(2, configuration.getMinSize());
+        assertEquals(8, configuration.getMaxSize());
+        assertEquals(30000, configuration.getIdleTimeout());
+    }
+
+    @Pooled
+    public static class PooledAnnotated {
+
+    }
+
+    @Pooled(minSize = 2, maxSize = 8, idleTimeout = 30000)
+    public static class ConfiguredPooledAnnotated {
+
+    }
+
+}
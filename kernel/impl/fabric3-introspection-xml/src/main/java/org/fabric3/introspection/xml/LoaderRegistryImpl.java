@@ -29,6 +29,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.fabric3.api.host.stream.Source;
 import org.fabric3.spi.introspection.IntrospectionContext;
@@ -46,7 +47,7 @@ import org.oasisopen.sca.annotation.Reference;
 public class LoaderRegistryImpl implements LoaderRegistry {
     private final XMLInputFactory xmlFactory;
     private Map<QName, TypeLoader<?>> mappedLoaders = new HashMap<>();
-    private final Map<QName, TypeLoader<?>> loaders = new HashMap<>();
+    private final Map<QName, TypeLoader<?>> loaders = new ConcurrentHashMap<>();
 
     public LoaderRegistryImpl() {
         this.xmlFactory = XMLInputFactory.newFactory();
@@ -58,10 +59,9 @@ public class LoaderRegistryImpl implements LoaderRegistry {
     }
 
     public void registerLoader(QName element, TypeLoader<?> loader) {
-        if (loaders.containsKey(element)) {
+        if (loaders.putIfAbsent(element, loader) != null) {
             throw new IllegalStateException("Loader already registered for " + element);
         }
-        loaders.put(element, loader);
     }
 
     public void unregisterLoader(QName element) {
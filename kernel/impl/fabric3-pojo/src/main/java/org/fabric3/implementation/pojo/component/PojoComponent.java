@@ -28,6 +28,7 @@ import org.fabric3.api.annotation.monitor.MonitorLevel;
 import org.fabric3.api.host.Fabric3Exception;
 import org.fabric3.api.model.type.component.Scope;
 import org.fabric3.api.model.type.java.Injectable;
+import org.fabric3.api.model.type.java.PoolConfiguration;
 import org.fabric3.implementation.pojo.manager.ImplementationManager;
 import org.fabric3.implementation.pojo.manager.ImplementationManagerFactory;
 import org.fabric3.spi.container.component.ScopeContainer;
@@ -42,6 +43,7 @@ public abstract class PojoComponent implements ScopedComponent {
     private ImplementationManagerFactory factory;
     private ScopeContainer scopeContainer;
     private boolean eager;
+    private PoolConfiguration poolConfiguration;
     private ImplementationManager implementationManager;
     private URI contributionUri;
     private MonitorLevel level = MonitorLevel.INFO;
@@ -98,6 +100,14 @@ public abstract class PojoComponent implements ScopedComponent {
         return eager;
     }
 
+    public PoolConfiguration getPoolConfiguration() {
+        return poolConfiguration;
+    }
+
+    public void setPoolConfiguration(PoolConfiguration poolConfiguration) {
+        this.poolConfiguration = poolConfiguration;
+    }
+
     public Object getInstance() throws Fabric3Exception {
         if (cachedInstance != null) {
             return cachedInstance;
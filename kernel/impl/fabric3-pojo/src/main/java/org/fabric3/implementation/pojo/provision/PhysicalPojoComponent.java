@@ -21,6 +21,7 @@ package org.fabric3.implementation.pojo.provision;
 
 import org.fabric3.api.model.type.component.Scope;
 import org.fabric3.api.model.type.java.ManagementInfo;
+import org.fabric3.api.model.type.java.PoolConfiguration;
 import org.fabric3.spi.model.physical.PhysicalComponent;
 
 /**
@@ -32,6 +33,7 @@ public abstract class PhysicalPojoComponent extends PhysicalComponent {
     private boolean eager;
     private boolean managed;
     private ManagementInfo managementInfo;
+    private PoolConfiguration poolConfiguration;
 
     /**
      * Gets the instance factory provider definition.
@@ -102,4 +104,22 @@ public abstract class PhysicalPojoComponent extends PhysicalComponent {
     public void setManagementInfo(ManagementInfo managementInfo) {
         this.managementInfo = managementInfo;
     }
+
+    /**
+     * Returns the instance pool settings if the component is pooled or null if the runtime settings are used.
+     *
+     * @return the instance pool settings or null
+     */
+    public PoolConfiguration getPoolConfiguration() {
+        return poolConfiguration;
+    }
+
+    /**
+     * Sets the instance pool settings.
+     *
+     * @param poolConfiguration the instance pool settings
+     */
+    public void setPoolConfiguration(PoolConfiguration poolConfiguration) {
+        this.poolConfiguration = poolConfiguration;
+    }
 }
@@ -17,7 +17,10 @@
 package org.fabric3.plugin.contribution;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
@@ -31,6 +34,8 @@ import org.fabric3.api.host.stream.Source;
 import org.fabric3.api.host.stream.UrlSource;
 import org.fabric3.api.host.util.FileHelper;
 import org.fabric3.plugin.api.runtime.PluginHostInfo;
+import org.fabric3.spi.contribution.ClassMetadata;
+import org.fabric3.spi.contribution.ClassMetadataReader;
 import org.fabric3.spi.contribution.ContentTypeResolver;
 import org.fabric3.spi.contribution.Contribution;
 import org.fabric3.spi.contribution.ContributionManifest;
@@ -57,6 +62,7 @@ public class PluginContributionProcessor implements ContributionProcessor {
     private List<JavaArtifactIntrospector> artifactIntrospectors = Collections.emptyList();
     private Loader loader;
     private PluginHostInfo info;
+    private ClassMetadataReader metadataReader;
 
     public PluginContributionProcessor(@Reference ProcessorRegistry registry,
                                        @Reference ContentTypeResolver contentTypeResolver,
@@ -73,6 +79,11 @@ public class PluginContributionProcessor implements ContributionProcessor {
         this.artifactIntrospectors = introspectors;
     }
 
+    @Reference(required = false)
+    public void setMetadataReader(ClassMetadataReader metadataReader) {
+        this.metadataReader = metadataReader;
+    }
+
     public boolean canProcess(Contribution contribution) {
         return CONTENT_TYPE.equals(contribution.getContentType());
     }
@@ -186,6 +197,9 @@ public class PluginContributionProcessor implements ContributionProcessor {
                             URL entryUrl = file.toURI().toURL();
 
                             name = name.replace(File.separator, ".").substring(0, name.length() - 6);
+                            if (!isCandidate(file, contribution, context)) {
+                                continue;
+                            }
                             Class<?> clazz = context.getClassLoader().loadClass(name);
 
                             Resource resource = null;
@@ -224,6 +238,24 @@ public class PluginContributionProcessor implements ContributionProcessor {
 
     }
 
+    private boolean isCandidate(File file, Contribution contribution, IntrospectionContext context) {
+        if (metadataReader == null) {
+            return true;
+        }
+        try (InputStream stream = new FileInputStream(file)) {
+            ClassMetadata metadata = metadataReader.read(stream, context.getClassLoader());
+            for (JavaArtifactIntrospector introspector : artifactIntrospectors) {
+                if (introspector.isCandidate(metadata, contribution)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            // the class file could not be read, load the class instead
+            return true;
+        }
+    }
+
     private String calculateClassName(File file) {
         String name = null;
         File classesDir = info.getClassesDir();